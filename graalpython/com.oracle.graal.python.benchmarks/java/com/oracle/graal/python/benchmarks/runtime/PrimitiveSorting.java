@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.runtime;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SortNodes.SortSequenceStorageNode;
+import com.oracle.graal.python.builtins.objects.common.SortNodesFactory.SortSequenceStorageNodeGen;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+
+/**
+ * Sorts shuffled int, double and string storages, i.e., the specializations that do not call back
+ * into Python comparison code.
+ */
+public class PrimitiveSorting extends RuntimeBenchRunner {
+
+    private SortSequenceStorageNode sortNode;
+    private int[] ints;
+    private double[] doubles;
+    private Object[] strings;
+
+    @Setup
+    public void setup() {
+        sortNode = adopt(SortSequenceStorageNodeGen.create());
+        Random random = new Random(42);
+        ints = new int[size];
+        doubles = new double[size];
+        strings = new Object[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = random.nextInt();
+            doubles[i] = random.nextDouble();
+            strings[i] = Integer.toString(random.nextInt());
+        }
+    }
+
+    @Benchmark
+    public void execute(Blackhole bh) {
+        for (int n = 0; n < cycles; n++) {
+            // sorting is in-place, so each cycle needs fresh copies of the unsorted data
+            IntSequenceStorage intStorage = new IntSequenceStorage(Arrays.copyOf(ints, size));
+            DoubleSequenceStorage doubleStorage = new DoubleSequenceStorage(Arrays.copyOf(doubles, size));
+            ObjectSequenceStorage stringStorage = new ObjectSequenceStorage(Arrays.copyOf(strings, size));
+            sortNode.execute(null, intStorage, PNone.NO_VALUE, false);
+            sortNode.execute(null, doubleStorage, PNone.NO_VALUE, true);
+            sortNode.execute(null, stringStorage, PNone.NO_VALUE, false);
+            bh.consume(intStorage);
+            bh.consume(doubleStorage);
+            bh.consume(stringStorage);
+        }
+    }
+}
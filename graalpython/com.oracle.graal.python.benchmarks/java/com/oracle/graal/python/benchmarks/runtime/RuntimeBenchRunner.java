@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.runtime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.benchmarks.interop.BenchOutputFormat;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+/**
+ * Base class for benchmarks that exercise runtime data structures and nodes directly from Java.
+ * The benchmark state enters an embedded context, so that nodes and libraries can be executed
+ * outside of any Python code. Nodes that need a parent are adopted by a dummy root node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = RuntimeBenchRunner.WARMUP_ITERATIONS)
+@Measurement(iterations = RuntimeBenchRunner.MEASUREMENT_ITERATIONS, time = 1)
+public class RuntimeBenchRunner {
+
+    public static final int MEASUREMENT_ITERATIONS = 5;
+    public static final int WARMUP_ITERATIONS = 5;
+    public static final int NUMBER_OF_CYCLES = 1000;
+    public static final int SIZE = 1000;
+
+    // parameters of benchmark
+    @Param({"" + NUMBER_OF_CYCLES}) public int cycles;
+    @Param({"" + SIZE}) public int size;
+
+    protected final PythonLanguage language;
+    private final BenchRootNode rootNode;
+
+    public RuntimeBenchRunner() {
+        Context context = Context.newBuilder().engine(Engine.newBuilder().build()).allowAllAccess(true).build();
+        context.initialize("python");
+        context.enter();
+
+        this.language = PythonLanguage.get(null);
+        this.rootNode = new BenchRootNode(language);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        assert args.length > 1;
+        String benchName = args[0];
+        String benchClass = args[1];
+        int iter = MEASUREMENT_ITERATIONS;
+        int warmup = WARMUP_ITERATIONS;
+        int numberOfCycles = NUMBER_OF_CYCLES;
+        int size = SIZE;
+        for (int i = 2; i < args.length; i++) {
+            final String arg = args[i];
+            if (arg.contentEquals("-i")) {
+                i++;
+                iter = Integer.valueOf(args[i]);
+            } else if (arg.contentEquals("-w")) {
+                i++;
+                warmup = Integer.valueOf(args[i]);
+            } else if (arg.contentEquals("-n")) {
+                i++;
+                numberOfCycles = Integer.valueOf(args[i]);
+            } else if (arg.contentEquals("-s")) {
+                i++;
+                size = Integer.valueOf(args[i]);
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder();
+        options = options.include(benchClass);
+        options = options.warmupIterations(warmup).measurementIterations(iter);
+        options = options.param("cycles", "" + numberOfCycles);
+        options = options.param("size", "" + size);
+        Options opt = options.forks(1).build();
+        new Runner(opt, new BenchOutputFormat(System.out, VerboseMode.SILENT, benchName)).run();
+    }
+
+    /**
+     * Adopts the given node, so that cached specializations can be executed the same way as in
+     * builtins called from Python code.
+     */
+    protected final <T extends Node> T adopt(T node) {
+        return rootNode.insertChild(node);
+    }
+
+    protected final PythonObjectFactory createFactory() {
+        return adopt(PythonObjectFactory.create());
+    }
+
+    private static final class BenchRootNode extends RootNode {
+
+        BenchRootNode(PythonLanguage language) {
+            super(language);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return null;
+        }
+
+        <T extends Node> T insertChild(T child) {
+            return insert(child);
+        }
+    }
+}
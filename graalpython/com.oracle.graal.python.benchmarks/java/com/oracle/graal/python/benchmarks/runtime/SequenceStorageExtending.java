@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.runtime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ExtendNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.EmptySequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+
+/**
+ * Extends an empty storage by lists in chunks of ten elements, as in {@code l.extend(chunk)}. The
+ * last chunk holds doubles, so each cycle ends with generalizing the accumulated int storage.
+ */
+public class SequenceStorageExtending extends RuntimeBenchRunner {
+
+    private static final int CHUNK_SIZE = 10;
+
+    private ExtendNode extendNode;
+    private PList intChunk;
+    private PList doubleChunk;
+
+    @Setup
+    public void setup() {
+        extendNode = adopt(ExtendNode.create(ListGeneralizationNode.SUPPLIER));
+        int[] ints = new int[CHUNK_SIZE];
+        double[] doubles = new double[CHUNK_SIZE];
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            ints[i] = i;
+            doubles[i] = i + 0.5;
+        }
+        PythonObjectFactory factory = PythonObjectFactory.getUncached();
+        intChunk = factory.createList(new IntSequenceStorage(ints));
+        doubleChunk = factory.createList(new DoubleSequenceStorage(doubles));
+    }
+
+    @Benchmark
+    public void execute(Blackhole bh) {
+        for (int n = 0; n < cycles; n++) {
+            SequenceStorage storage = EmptySequenceStorage.INSTANCE;
+            for (int i = 0; i < size; i += CHUNK_SIZE) {
+                storage = extendNode.execute(null, storage, intChunk, CHUNK_SIZE);
+            }
+            storage = extendNode.execute(null, storage, doubleChunk, CHUNK_SIZE);
+            bh.consume(storage);
+        }
+    }
+}
@@ -53,6 +53,7 @@
 #include <dirent.h>
 #include <errno.h>
 #include <fcntl.h>
+#include <limits.h>
 #include <netdb.h>
 #include <netinet/in.h>
 #include <signal.h>
@@ -71,8 +72,15 @@
 #include <sys/wait.h>
 #include <sys/file.h>
 #include <sys/mman.h>
+#include <sys/uio.h>
 #include <unistd.h>
+#include <poll.h>
 #include <pwd.h>
+#ifdef __gnu_linux__
+#include <sys/epoll.h>
+#include <sys/sendfile.h>
+#include <sys/syscall.h>
+#endif
 
 
 int64_t call_getpid() {
@@ -124,6 +132,78 @@ int64_t call_write(int32_t fd, void *buf, uint64_t count) {
     return write(fd, buf, count);
 }
 
+int64_t call_pread(int32_t fd, void *buf, uint64_t count, int64_t offset) {
+    return pread(fd, buf, count, offset);
+}
+
+int64_t call_pwrite(int32_t fd, void *buf, uint64_t count, int64_t offset) {
+    return pwrite(fd, buf, count, offset);
+}
+
+// Splits 'data' into 'count' consecutive chunks of the given lengths, the caller must free the result
+static struct iovec *make_iovec(int8_t *data, int64_t *lengths, int32_t count) {
+    if (count < 0 || count > IOV_MAX) {
+        errno = EINVAL;
+        return NULL;
+    }
+    struct iovec *iov = malloc((count > 0 ? count : 1) * sizeof(struct iovec));
+    if (iov == NULL) {
+        errno = ENOMEM;
+        return NULL;
+    }
+    for (int32_t i = 0; i < count; i++) {
+        iov[i].iov_base = data;
+        iov[i].iov_len = lengths[i];
+        data += lengths[i];
+    }
+    return iov;
+}
+
+int64_t call_readv(int32_t fd, int8_t *data, int64_t *lengths, int32_t count) {
+    struct iovec *iov = make_iovec(data, lengths, count);
+    if (iov == NULL) {
+        return -1;
+    }
+    ssize_t result = readv(fd, iov, count);
+    free(iov);
+    return result;
+}
+
+int64_t call_writev(int32_t fd, int8_t *data, int64_t *lengths, int32_t count) {
+    struct iovec *iov = make_iovec(data, lengths, count);
+    if (iov == NULL) {
+        return -1;
+    }
+    ssize_t result = writev(fd, iov, count);
+    free(iov);
+    return result;
+}
+
+// A negative offset means to use (and update) the current file position
+int64_t call_sendfile(int32_t outFd, int32_t inFd, int64_t offset, uint64_t count) {
+#ifdef __gnu_linux__
+    if (offset < 0) {
+        return sendfile(outFd, inFd, NULL, count);
+    }
+    off_t off = offset;
+    return sendfile(outFd, inFd, &off, count);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+int64_t call_copy_file_range(int32_t inFd, int64_t inOffset, int32_t outFd, int64_t outOffset, uint64_t count) {
+#if defined(__gnu_linux__) && defined(SYS_copy_file_range)
+    loff_t inOff = inOffset;
+    loff_t outOff = outOffset;
+    return syscall(SYS_copy_file_range, inFd, inOffset < 0 ? NULL : &inOff, outFd, outOffset < 0 ? NULL : &outOff, count, 0);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
 int32_t call_dup(int32_t fd) {
     return fcntl(fd, F_DUPFD_CLOEXEC, 0);
 }
@@ -203,6 +283,96 @@ int32_t call_select(int32_t nfds, int32_t* readfds, int32_t readfdsLen,
     return (int32_t) result;
 }
 
+// The events use the flag values of PosixSupportLibrary, which match the native ones on Linux and
+// macOS, but we translate them anyway to be safe
+static short poll_events_to_native(int32_t events) {
+    return ((events & 0x001) ? POLLIN : 0) | ((events & 0x002) ? POLLPRI : 0) | ((events & 0x004) ? POLLOUT : 0) |
+        ((events & 0x008) ? POLLERR : 0) | ((events & 0x010) ? POLLHUP : 0) | ((events & 0x020) ? POLLNVAL : 0);
+}
+
+static int32_t poll_events_from_native(short revents) {
+    return ((revents & POLLIN) ? 0x001 : 0) | ((revents & POLLPRI) ? 0x002 : 0) | ((revents & POLLOUT) ? 0x004 : 0) |
+        ((revents & POLLERR) ? 0x008 : 0) | ((revents & POLLHUP) ? 0x010 : 0) | ((revents & POLLNVAL) ? 0x020 : 0);
+}
+
+int32_t call_poll(int32_t* fds, int32_t* events, int32_t* revents, int32_t count, int64_t timeoutMs) {
+    struct pollfd *pfds = NULL;
+    if (count > 0) {
+        pfds = malloc(count * sizeof(struct pollfd));
+        if (pfds == NULL) {
+            errno = ENOMEM;
+            return -1;
+        }
+    }
+    for (int32_t i = 0; i < count; i++) {
+        pfds[i].fd = fds[i];
+        pfds[i].events = poll_events_to_native(events[i]);
+        pfds[i].revents = 0;
+    }
+    int timeout = timeoutMs < 0 ? -1 : (timeoutMs > INT_MAX ? INT_MAX : (int) timeoutMs);
+    int result = poll(pfds, (nfds_t) count, timeout);
+    if (result >= 0) {
+        for (int32_t i = 0; i < count; i++) {
+            revents[i] = poll_events_from_native(pfds[i].revents);
+        }
+    }
+    free(pfds);
+    return (int32_t) result;
+}
+
+// Pollers are backed by epoll on Linux; elsewhere call_poller_create fails with ENOSYS and the
+// Java side falls back to call_poll
+int32_t call_poller_create() {
+#ifdef __gnu_linux__
+    return epoll_create1(EPOLL_CLOEXEC);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+// The op is one of the POLLER_* constants of PosixSupportLibrary
+int32_t call_poller_control(int32_t pollerFd, int32_t op, int32_t fd, int32_t events) {
+#ifdef __gnu_linux__
+    struct epoll_event ev;
+    memset(&ev, 0, sizeof(ev));
+    // the EPOLL* specific flags of PosixSupportLibrary have their Linux values
+    ev.events = ((events & 0x001) ? EPOLLIN : 0) | ((events & 0x002) ? EPOLLPRI : 0) | ((events & 0x004) ? EPOLLOUT : 0) |
+        ((events & 0x008) ? EPOLLERR : 0) | ((events & 0x010) ? EPOLLHUP : 0) |
+        ((uint32_t) events & (EPOLLRDHUP | EPOLLEXCLUSIVE | EPOLLONESHOT | EPOLLET));
+    ev.data.fd = fd;
+    int nativeOp = op == 1 ? EPOLL_CTL_ADD : (op == 2 ? EPOLL_CTL_MOD : EPOLL_CTL_DEL);
+    return epoll_ctl(pollerFd, nativeOp, fd, &ev);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+// Writes at most maxEvents ready file descriptors and their events to fds and revents
+int32_t call_poller_wait(int32_t pollerFd, int32_t* fds, int32_t* revents, int32_t maxEvents, int64_t timeoutMs) {
+#ifdef __gnu_linux__
+    struct epoll_event *evs = malloc(maxEvents * sizeof(struct epoll_event));
+    if (evs == NULL) {
+        errno = ENOMEM;
+        return -1;
+    }
+    int timeout = timeoutMs < 0 ? -1 : (timeoutMs > INT_MAX ? INT_MAX : (int) timeoutMs);
+    int result = epoll_wait(pollerFd, evs, maxEvents, timeout);
+    for (int i = 0; i < result; i++) {
+        uint32_t e = evs[i].events;
+        fds[i] = evs[i].data.fd;
+        revents[i] = ((e & EPOLLIN) ? 0x001 : 0) | ((e & EPOLLPRI) ? 0x002 : 0) | ((e & EPOLLOUT) ? 0x004 : 0) |
+            ((e & EPOLLERR) ? 0x008 : 0) | ((e & EPOLLHUP) ? 0x010 : 0) | (int32_t) (e & EPOLLRDHUP);
+    }
+    free(evs);
+    return (int32_t) result;
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
 int64_t call_lseek(int32_t fd, int64_t offset, int32_t whence) {
     return lseek(fd, offset, whence);
 }
@@ -646,6 +816,50 @@ int32_t call_recvfrom(int32_t sockfd, void *buf, int32_t offset, int32_t len, in
     return res;
 }
 
+int64_t call_sendmsg(int32_t sockfd, int8_t *data, int64_t *lengths, int32_t count, int32_t flags, int8_t *addr, int32_t addr_len) {
+    struct iovec *iov = make_iovec(data, lengths, count);
+    if (iov == NULL) {
+        return -1;
+    }
+    struct sockaddr_storage sa;
+    struct msghdr msg;
+    memset(&msg, 0, sizeof(msg));
+    if (addr_len > 0) {
+        memcpy(&sa, addr, addr_len);
+        msg.msg_name = &sa;
+        msg.msg_namelen = addr_len;
+    }
+    msg.msg_iov = iov;
+    msg.msg_iovlen = count;
+    ssize_t res = sendmsg(sockfd, &msg, flags);
+    free(iov);
+    return res;
+}
+
+int64_t call_recvmsg(int32_t sockfd, int8_t *data, int64_t *lengths, int32_t count, int32_t flags, int8_t *src_addr, int32_t *len_and_family, int32_t *msg_flags) {
+    struct iovec *iov = make_iovec(data, lengths, count);
+    if (iov == NULL) {
+        return -1;
+    }
+    struct sockaddr_storage sa;
+    struct msghdr msg;
+    memset(&msg, 0, sizeof(msg));
+    msg.msg_name = &sa;
+    msg.msg_namelen = sizeof(sa);
+    msg.msg_iov = iov;
+    msg.msg_iovlen = count;
+    ssize_t res = recvmsg(sockfd, &msg, flags);
+    free(iov);
+    if (res != -1) {
+        socklen_t l = msg.msg_namelen;
+        len_and_family[0] = l;
+        len_and_family[1] = l < offsetof(struct sockaddr_storage, ss_family) + sizeof(sa.ss_family) ? AF_UNSPEC : sa.ss_family;
+        memcpy(src_addr, &sa, l);
+        *msg_flags = msg.msg_flags;
+    }
+    return res;
+}
+
 int32_t call_shutdown(int32_t sockfd, int32_t how) {
     return shutdown(sockfd, how);
 }
@@ -1,4 +1,4 @@
-# Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -104,3 +104,52 @@ def test_add_int_to_long_array():
     y = array('l', [1, 2])
     y[0] = 42 # should not raise
     assert y[0] == 42
+
+
+def test_bulk_list_conversion():
+    from array import array
+    for typecode, values in [('d', [1.5, -0.0, float('inf'), 1e300]), ('f', [1.5, -2.25]),
+                             ('q', [2 ** 62, -1, 7]), ('l', [1, -2]), ('i', [2 ** 31 - 1, -2 ** 31]),
+                             ('I', [2 ** 32 - 1, 0]), ('h', [-32768, 5]), ('H', [65535]), ('b', [-128, 127]),
+                             ('B', [255, 0]), ('Q', [2 ** 64 - 1, 1]), ('u', ['a', '\U0001f600'])]:
+        a = array(typecode, values)
+        assert a.tolist() == values, typecode
+        b = array(typecode)
+        b.fromlist(values)
+        b.extend(values)
+        assert b.tolist() == values + values, typecode
+    a = array('d', [1, 2])
+    a.fromlist([3, 4.5])
+    assert a.tolist() == [1.0, 2.0, 3.0, 4.5]
+    a = array('q')
+    a.extend([1, 2 ** 40])
+    a.fromlist([3])
+    assert a.tolist() == [1, 2 ** 40, 3]
+    a = array('i')
+    try:
+        a.fromlist([1, 2 ** 40])
+    except OverflowError:
+        pass
+    else:
+        assert False, "expected OverflowError"
+
+
+def test_compare_and_byteswap():
+    from array import array
+    for typecode in 'bBhHiIlLqQ':
+        a = array(typecode, [1, 2, 3, 100])
+        b = array(typecode, [1, 2, 4])
+        assert a < b and b > a and a <= b and not a >= b and a != b, typecode
+        assert a == array(typecode, [1, 2, 3, 100]) and a[:3] < a and a <= a[:], typecode
+    assert array('u', 'abc') < array('u', 'abd')
+    assert array('d', [1.0, float('nan')]) != array('d', [1.0, float('nan')])
+    for typecode in 'hiqfd':
+        a = array(typecode, [1, 2, 3])
+        b = array(typecode, a)
+        b.byteswap()
+        assert b.tobytes() != a.tobytes() or a.itemsize == 1
+        b.byteswap()
+        assert a == b, typecode
+    a = array('i', [1])
+    a.byteswap()
+    assert a[0] == 0x01000000
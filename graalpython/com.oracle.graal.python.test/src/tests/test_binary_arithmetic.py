@@ -1,4 +1,4 @@
-# Copyright (c) 2018, 2021, Oracle and/or its affiliates.
+# Copyright (c) 2018, 2022, Oracle and/or its affiliates.
 # Copyright (c) 2013, Regents of the University of California
 #
 # All rights reserved.
@@ -316,3 +316,233 @@ def test_pow():
         # for some reason this hangs CPython on the CI even if it's just parsed
         from pow_tests import test_pow
         test_pow()
+
+
+def test_local_changes_type_in_loop():
+    # locals and intermediate values start as small ints and are widened as the loop runs
+    def accumulate(n, step):
+        total = 0
+        i = 0
+        while i < n:
+            total += step
+            i += 1
+        return total
+
+    for _ in range(3):
+        assert accumulate(10, 3) == 30
+        assert accumulate(10, 0x7fffffff) == 10 * 0x7fffffff
+        assert accumulate(10, 0x7fffffffffffffff) == 10 * 0x7fffffffffffffff
+        assert accumulate(10, 0.5) == 5.0
+        try:
+            accumulate(3, "a")
+        except TypeError:
+            pass
+        else:
+            assert False, "expected TypeError"
+
+
+def test_int_ops_in_loop():
+    def compute(a, b):
+        r = []
+        for _ in range(3):
+            r.append((a + b, a - b, a * b, a // b, a % b, a / b, a & b, a | b, a ^ b, a < b, a == b, a >= b))
+        return r[-1]
+
+    assert compute(7, 2) == (9, 5, 14, 3, 1, 3.5, 2, 7, 5, False, False, True)
+    assert compute(-7, 2) == (-5, -9, -14, -4, 1, -3.5, 0, -5, -5, True, False, False)
+    assert compute(7, -2) == (5, 9, -14, -4, -1, -3.5, 6, -1, -7, False, False, True)
+    assert compute(-0x80000000, -1) == (-0x80000001, -0x7fffffff, 0x80000000, 0x80000000, 0, 2147483648.0, -0x80000000, -1, 0x7fffffff, True, False, False)
+    assert compute(0x7fffffffffffffff, 2) == (0x8000000000000001, 0x7ffffffffffffffd, 0xfffffffffffffffe, 0x3fffffffffffffff, 1, 4.611686018427388e+18, 2, 0x7fffffffffffffff, 0x7ffffffffffffffd, False, False, True)
+    assert compute(-0x8000000000000000, -1)[3] == 0x8000000000000000
+    try:
+        compute(1.5, 2)
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError for float bitwise operation"
+    for a, b in ((1, 0), (1 << 40, 0), (1.0, 0.0), (1, 0.0)):
+        try:
+            compute(a, b)
+        except ZeroDivisionError:
+            pass
+        else:
+            assert False, "expected ZeroDivisionError for %r, %r" % (a, b)
+
+
+def test_float_ops_in_loop():
+    def compute(a, b):
+        r = []
+        for _ in range(3):
+            r.append((a + b, a - b, a * b, a / b, a < b, a == b, a >= b))
+        return r[-1]
+
+    assert compute(1.5, 2) == (3.5, -0.5, 3.0, 0.75, True, False, False)
+    assert compute(2, 0.5) == (2.5, 1.5, 1.0, 4.0, False, False, True)
+    assert compute(0.1, 0.2) == (0.1 + 0.2, 0.1 - 0.2, 0.1 * 0.2, 0.5, True, False, False)
+    nan = float("nan")
+    assert compute(nan, 1)[4:] == (False, False, False)
+
+
+def test_condition_changes_type_in_loop():
+    def count_truthy(values):
+        n = 0
+        for v in values:
+            if v:
+                n += 1
+        return n
+
+    assert count_truthy([True, False, True]) == 2
+    assert count_truthy([True, 0, 1, "", "x", None, [], [1]]) == 4
+
+
+def test_local_stored_with_different_types():
+    # two stores to the same local observe different types
+    def f(values):
+        x = 0
+        for v in values:
+            if v is None:
+                x = 1.5
+            else:
+                x = v
+            x = x * 2
+        return x
+
+    assert f([1, 2, 3]) == 6
+    assert f([1, None, 3]) == 6
+    assert f([1, 2, None]) == 3.0
+    assert f([1, 1 << 40, 2]) == 4
+    assert f([1, 2, 1 << 40]) == 1 << 41
+    assert f([1, None, "a"]) == "aa"
+
+
+def run_in_bytecode_interpreter(test_names, *options):
+    # the bytecode interpreter and its optimizations are disabled by default, so the tests are
+    # repeated in a process that enables them
+    if sys.implementation.name != "graalpython":
+        return
+    import os
+    import subprocess
+    code = "import test_binary_arithmetic as t\nfor name in %r:\n    getattr(t, name)()\n" % (test_names,)
+    cmd = [sys.executable, "--experimental-options", "--python.EnableBytecodeInterpreter"]
+    cmd += ["--python.%s" % option for option in options]
+    subprocess.check_call(cmd + ["-c", code], cwd=os.path.dirname(os.path.abspath(__file__)))
+
+
+PRIMITIVE_SLOTS_TESTS = ("test_local_changes_type_in_loop", "test_int_ops_in_loop", "test_float_ops_in_loop",
+                         "test_condition_changes_type_in_loop", "test_local_stored_with_different_types")
+
+
+def test_primitive_slots():
+    run_in_bytecode_interpreter(PRIMITIVE_SLOTS_TESTS, "BytecodePrimitiveSlots")
+
+
+def test_compare_and_branch_changes_type():
+    def count_less(values, limit):
+        n = 0
+        for v in values:
+            if v < limit:
+                n += 1
+        return n
+
+    assert count_less([1, 5, 2, 7], 3) == 2
+    assert count_less([1, 0x7fffffffffffffff, -0x8000000000000000], 2) == 2
+    assert count_less([1.5, 2, 3.5], 3) == 2
+    assert count_less(["a", "c"], "b") == 1
+    assert count_less([1 << 100, 1], 1 << 64) == 1
+
+
+def test_load_pair_unbound():
+    def f(flag):
+        if flag:
+            a = 1
+        b = 2
+        return a, b
+
+    assert f(True) == (1, 2)
+    try:
+        f(False)
+    except UnboundLocalError:
+        pass
+    else:
+        assert False, "expected UnboundLocalError"
+
+
+def test_compare_and_branch_custom_objects():
+    class Truthy:
+        def __init__(self, value):
+            self.value = value
+
+        def __bool__(self):
+            if self.value is None:
+                raise ValueError("no truth value")
+            return self.value
+
+    class Cmp:
+        def __init__(self, result):
+            self.result = result
+
+        def __lt__(self, other):
+            return Truthy(self.result)
+
+    def count_less(values, limit):
+        n = 0
+        for v in values:
+            if v < limit:
+                n += 1
+        return n
+
+    assert count_less([1, 2, 3, 4], 3) == 2
+    assert count_less([True, False, 2], 1) == 1
+    assert count_less([Cmp(True), Cmp(False), 0], 1) == 2
+    try:
+        count_less([1, Cmp(None)], 1)
+    except ValueError:
+        pass
+    else:
+        assert False, "expected ValueError"
+    try:
+        count_less([1, "a"], 1)
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError"
+    assert count_less([0, 1, 2], 2) == 2
+
+
+def test_return_constants():
+    def const(flag):
+        if flag:
+            return "yes"
+        return 42
+
+    def none(flag):
+        if flag:
+            return
+        return None
+
+    def gen():
+        yield 1
+        return "done"
+
+    for _ in range(3):
+        assert const(True) == "yes"
+        assert const(False) == 42
+        assert none(True) is None
+        assert none(False) is None
+        g = gen()
+        assert next(g) == 1
+        try:
+            next(g)
+        except StopIteration as e:
+            assert e.value == "done"
+        else:
+            assert False, "expected StopIteration"
+
+
+SUPERINSTRUCTIONS_TESTS = ("test_compare_and_branch_changes_type", "test_compare_and_branch_custom_objects",
+                           "test_load_pair_unbound", "test_return_constants", "test_local_changes_type_in_loop")
+
+
+def test_superinstructions():
+    run_in_bytecode_interpreter(SUPERINSTRUCTIONS_TESTS, "BytecodeSuperinstructions")
+    run_in_bytecode_interpreter(SUPERINSTRUCTIONS_TESTS, "BytecodeSuperinstructions", "BytecodePrimitiveSlots")
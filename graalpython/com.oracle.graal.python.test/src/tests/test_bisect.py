@@ -0,0 +1,132 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import bisect
+import random
+import unittest
+
+
+def py_bisect_right(a, x, lo=0, hi=None):
+    if hi is None:
+        hi = len(a)
+    while lo < hi:
+        mid = (lo + hi) // 2
+        if x < a[mid]:
+            hi = mid
+        else:
+            lo = mid + 1
+    return lo
+
+
+def py_bisect_left(a, x, lo=0, hi=None):
+    if hi is None:
+        hi = len(a)
+    while lo < hi:
+        mid = (lo + hi) // 2
+        if a[mid] < x:
+            lo = mid + 1
+        else:
+            hi = mid
+    return lo
+
+
+class BisectTests(unittest.TestCase):
+
+    def test_native_module(self):
+        import _bisect
+        self.assertIs(bisect.bisect_right, _bisect.bisect_right)
+        self.assertIs(bisect.insort, _bisect.insort_right)
+
+    def test_storages(self):
+        random.seed(3)
+        for data, needles in (([random.randrange(50) for _ in range(100)], [-1, 0, 25, 49, 50, 2.5, 1 << 40]),
+                              ([random.randrange(1 << 40) for _ in range(100)], [0, 7, 1 << 39, 1 << 41]),
+                              ([random.random() for _ in range(100)], [-1.0, 0.5, 2.0, 1]),
+                              ([str(i) for i in range(100)], ["", "5", "55", "z"]),
+                              (tuple(range(0, 200, 2)), [-1, 0, 3, 100, 300])):
+            data = type(data)(sorted(data))
+            for x in needles:
+                self.assertEqual(bisect.bisect_right(data, x), py_bisect_right(data, x))
+                self.assertEqual(bisect.bisect_left(data, x), py_bisect_left(data, x))
+                self.assertEqual(bisect.bisect_right(data, x, 10, 60), py_bisect_right(data, x, 10, 60))
+                self.assertEqual(bisect.bisect_left(data, x, hi=None), py_bisect_left(data, x))
+
+    def test_insort(self):
+        random.seed(5)
+        for make in (lambda: random.randrange(100), lambda: random.random(), lambda: str(random.randrange(100))):
+            data = []
+            for _ in range(100):
+                bisect.insort(data, make())
+                bisect.insort_left(data, make())
+            self.assertEqual(data, sorted(data))
+        data = [1, 2, 4]
+        bisect.insort(data, 3.0)
+        self.assertEqual(data, [1, 2, 3.0, 4])
+        data = [1, 2]
+        bisect.insort(data, 5, 10)
+        self.assertEqual(data, [1, 2, 5])
+
+    def test_insort_subclass(self):
+        class MyList(list):
+            def insert(self, index, item):
+                self.inserted = (index, item)
+                list.insert(self, index, item)
+
+        lst = MyList([1, 3])
+        bisect.insort_left(lst, 2)
+        self.assertEqual(lst.inserted, (1, 2))
+        self.assertEqual(lst, [1, 2, 3])
+
+    def test_bisect_subclass(self):
+        class Reversed(list):
+            def __getitem__(self, index):
+                return -list.__getitem__(self, index)
+
+        lst = Reversed([3, 2, 1])
+        self.assertEqual(bisect.bisect_left(lst, -2), 1)
+        self.assertEqual(bisect.bisect_right(lst, -2), 2)
+        self.assertEqual(bisect.bisect_right(lst, -2.0), 2)
+
+    def test_errors(self):
+        self.assertRaises(ValueError, bisect.bisect_left, [1, 2, 3], 5, -1, 3)
+        self.assertRaises(ValueError, bisect.insort_right, [1, 2, 3], 5, -1, 3)
+        self.assertRaises(IndexError, bisect.bisect_right, [1, 2, 3], 5, 0, 10)
+        self.assertRaises(TypeError, bisect.bisect_right, [1, 2, 3], "a")
+        self.assertRaises(TypeError, bisect.bisect_left, 10, 1)
+        self.assertEqual(bisect.bisect_right([1, 2, 3], 5, 7), 7)
@@ -1,4 +1,4 @@
-# Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -121,3 +121,66 @@ def test_meta_meta_new():
     # ignore this.
     # assert notAMeta.metatype is NewDescriptor
     # assert notAMeta2.metatype is NewDescriptor
+
+
+def test_megamorphic_lookup_sees_class_updates():
+    class Base:
+        attr = "base"
+
+        def meth(self):
+            return "base"
+
+    classes = [type("C%d" % i, (Base,), {}) for i in range(20)]
+
+    def lookup(obj):
+        # a single, megamorphic call site
+        return obj.attr, obj.meth(), getattr(obj, "missing", None)
+
+    for i in range(3):
+        for cls in classes:
+            assert lookup(cls()) == ("base", "base", None)
+
+    Base.attr = "changed"
+    Base.missing = 42
+    classes[3].meth = lambda self: "override"
+    for cls in classes:
+        expected_meth = "override" if cls is classes[3] else "base"
+        assert lookup(cls()) == ("changed", expected_meth, 42)
+
+    del Base.missing
+    for cls in classes:
+        assert lookup(cls())[2] is None
+
+    class OtherBase:
+        attr = "other"
+
+        def meth(self):
+            return "other"
+
+    classes[5].__bases__ = (OtherBase,)
+    assert lookup(classes[5]()) == ("other", "other", None)
+    assert lookup(classes[6]()) == ("changed", "base", None)
+
+
+def test_megamorphic_lookup_many_names():
+    class Base:
+        pass
+
+    classes = [type("D%d" % i, (Base,), {}) for i in range(20)]
+    names = ["attr_%d" % i for i in range(1000)]
+
+    def lookup(obj, name):
+        # a single, megamorphic call site with generated names
+        return getattr(obj, name, None)
+
+    for cls in classes:
+        for name in names:
+            assert lookup(cls(), name) is None
+
+    # updates must still be visible once the per-type cache is full
+    Base.attr_999 = 1
+    setattr(classes[0], "attr_500", 2)
+    for cls in classes:
+        assert lookup(cls(), "attr_999") == 1
+        assert lookup(cls(), "attr_500") == (2 if cls is classes[0] else None)
+        assert lookup(cls(), "attr_1") is None
@@ -66,6 +66,30 @@ def test_encode():
     assert codecs.encode('[]', 'ascii') == b'[]'
 
 
+def test_str_encode_bytes_decode_standard_codecs():
+    for enc in ['utf-8', 'UTF8', 'utf_8', 'ascii', 'latin-1', 'Latin_1', 'iso-8859-1']:
+        assert 'abc'.encode(enc) == b'abc'
+        assert b'abc'.decode(enc) == 'abc'
+        assert bytearray(b'abc').decode(enc) == 'abc'
+    assert '\xe4\u0151\U0001f600'.encode('utf-8') == b'\xc3\xa4\xc5\x91\xf0\x9f\x98\x80'
+    assert b'\xc3\xa4\xc5\x91\xf0\x9f\x98\x80'.decode('utf-8') == '\xe4\u0151\U0001f600'
+    assert '\xe4'.encode('latin-1') == b'\xe4'
+    assert b'\xe4\xff'.decode('latin-1') == '\xe4\xff'
+    assert_raises(UnicodeEncodeError, '\xe4'.encode, 'ascii')
+    assert_raises(UnicodeEncodeError, '\u0151'.encode, 'latin-1')
+    assert_raises(UnicodeEncodeError, '\ud800'.encode, 'utf-8')
+    assert '\ud800'.encode('utf-8', 'surrogatepass') == b'\xed\xa0\x80'
+    assert_raises(UnicodeDecodeError, b'\xe4'.decode, 'ascii')
+    assert_raises(UnicodeDecodeError, b'\xe4'.decode, 'utf-8')
+    assert_raises(UnicodeDecodeError, b'\xed\xa0\x80'.decode, 'utf-8')
+    assert b'a\xe4'.decode('utf-8', 'replace') == 'a\ufffd'
+    assert ('x' * 100 + '\U0001f600').encode('utf-8') == b'x' * 100 + b'\xf0\x9f\x98\x80'
+    assert_raises(UnicodeEncodeError, '\U0001f600'.encode, 'latin-1')
+    assert_raises(UnicodeEncodeError, 'a\ud83d'.encode, 'utf-8')
+    assert_raises(UnicodeEncodeError, '\ude00a'.encode, 'utf-8')
+    assert 'a\udc80'.encode('utf-8', 'surrogateescape') == b'a\x80'
+
+
 import codecs
 import unittest
 
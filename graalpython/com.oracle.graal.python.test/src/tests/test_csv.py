@@ -103,3 +103,43 @@ class TestDialectValidity(unittest.TestCase):
 
 
 
+
+
+class TestChunkedReader(unittest.TestCase):
+    DATA = 'a,b,c\r\n1,"x\r\ny",3\r\n\r\n"q""q",,é\n4,5,6'
+
+    def expected(self, data):
+        return list(csv.reader(data.splitlines(keepends=True)))
+
+    def chunked(self, rows, n):
+        return [rows[i:i + n] for i in range(0, len(rows), n)]
+
+    def test_chunks_from_iterable(self):
+        rows = self.expected(self.DATA)
+        for n in (1, 2, 3, 100):
+            reader = csv.reader(self.DATA.splitlines(keepends=True), chunksize=n)
+            self.assertEqual(list(reader), self.chunked(rows, n))
+
+    def test_chunks_from_files(self):
+        import io
+        rows = self.expected(self.DATA)
+        self.assertEqual(list(csv.reader(io.StringIO(self.DATA, newline=''), chunksize=2)), self.chunked(rows, 2))
+        with TemporaryFile("w+", newline='') as fileobj:
+            fileobj.write(self.DATA * 5000)
+            fileobj.seek(0)
+            reader = csv.reader(fileobj, chunksize=1000)
+            result = [row for chunk in reader for row in chunk]
+            self.assertEqual(result, self.expected(self.DATA * 5000))
+            self.assertEqual(reader.line_num, len((self.DATA * 5000).splitlines()))
+
+    def test_chunks_with_dialect(self):
+        import io
+        reader = csv.reader(io.StringIO("1;2\n3;'4;5'\n"), delimiter=';', quotechar="'",
+                            quoting=csv.QUOTE_NONNUMERIC, chunksize=10)
+        self.assertEqual(next(reader), [[1.0, 2.0], [3.0, '4;5']])
+        self.assertRaises(StopIteration, next, reader)
+
+    def test_invalid_chunksize(self):
+        self.assertRaises(ValueError, csv.reader, [], chunksize=0)
+        self.assertRaises(TypeError, csv.reader, [], chunksize='1')
+        self.assertEqual(list(csv.reader(['a,b'], chunksize=None)), [['a', 'b']])
@@ -0,0 +1,209 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import datetime
+import pickle
+import unittest
+from datetime import date, datetime as dt, time, timedelta, timezone, tzinfo
+
+
+class FixedOffset(tzinfo):
+
+    def __init__(self, minutes, name):
+        self._offset = timedelta(minutes=minutes)
+        self._name = name
+
+    def utcoffset(self, d):
+        return self._offset
+
+    def tzname(self, d):
+        return self._name
+
+    def dst(self, d):
+        return timedelta(0)
+
+
+class DatetimeTests(unittest.TestCase):
+
+    def test_native_module(self):
+        import _datetime
+        self.assertIs(datetime.datetime, _datetime.datetime)
+        self.assertIs(datetime.timedelta, _datetime.timedelta)
+        self.assertEqual(datetime.MAXYEAR, 9999)
+
+    def test_timedelta_normalization(self):
+        td = timedelta(days=1, hours=-1, minutes=30, seconds=1.5, milliseconds=2, microseconds=-3)
+        self.assertEqual((td.days, td.seconds, td.microseconds), (0, 84601, 501997))
+        self.assertEqual(timedelta(microseconds=0.5), timedelta(0))
+        self.assertEqual(timedelta(microseconds=1.5), timedelta(microseconds=2))
+        self.assertEqual(timedelta(weeks=1 << 20), timedelta(days=7 << 20))
+        self.assertEqual(-timedelta(microseconds=1), timedelta(-1, 86399, 999999))
+        self.assertEqual(repr(timedelta(1, 2, 3)), "datetime.timedelta(days=1, seconds=2, microseconds=3)")
+        self.assertEqual(str(timedelta(-1, 3600)), "-1 day, 1:00:00")
+        self.assertRaises(OverflowError, timedelta, days=1000000000)
+        self.assertRaises(TypeError, timedelta, days="1")
+
+    def test_timedelta_arithmetic(self):
+        a = timedelta(hours=1, microseconds=7)
+        self.assertEqual(a * 2, timedelta(hours=2, microseconds=14))
+        self.assertEqual(a * 0.5, timedelta(minutes=30, microseconds=4))
+        self.assertEqual(a / 2, timedelta(minutes=30, microseconds=4))
+        self.assertEqual(a // 2, timedelta(minutes=30, microseconds=3))
+        self.assertEqual(a / timedelta(minutes=30), 2.0000000038888888)
+        self.assertEqual(a % timedelta(minutes=7), timedelta(minutes=4, microseconds=7))
+        self.assertEqual(divmod(a, timedelta(minutes=7)), (8, timedelta(minutes=4, microseconds=7)))
+        self.assertEqual(a.total_seconds(), 3600.000007)
+        self.assertTrue(timedelta(0) < a <= a)
+        self.assertEqual(hash(timedelta(1)), hash(timedelta(hours=24)))
+        self.assertRaises(ZeroDivisionError, lambda: a // 0)
+
+    def test_date(self):
+        d = date(2020, 2, 29)
+        self.assertEqual(d.toordinal(), 737484)
+        self.assertEqual(date.fromordinal(737484), d)
+        self.assertEqual(d.weekday(), 5)
+        self.assertEqual(d.isocalendar(), (2020, 9, 6))
+        self.assertEqual(date.fromisocalendar(2020, 9, 6), d)
+        self.assertEqual(d + timedelta(days=1), date(2020, 3, 1))
+        self.assertEqual(d - date(2019, 2, 28), timedelta(days=366))
+        self.assertEqual(date.fromisoformat("2020-02-29"), d)
+        self.assertEqual(d.strftime("%Y/%m/%d %a"), "2020/02/29 Sat")
+        self.assertEqual(format(d, ""), "2020-02-29")
+        self.assertEqual(repr(d), "datetime.date(2020, 2, 29)")
+        self.assertEqual(d.ctime(), "Sat Feb 29 00:00:00 2020")
+        self.assertEqual(d.replace(day=1), date(2020, 2, 1))
+        self.assertRaises(ValueError, date, 2019, 2, 29)
+        self.assertRaises(OverflowError, lambda: date.max + timedelta(days=1))
+
+    def test_datetime(self):
+        d = dt(2021, 12, 31, 23, 59, 59, 999999)
+        self.assertEqual(d + timedelta(microseconds=1), dt(2022, 1, 1))
+        self.assertEqual(d - dt(2021, 12, 31), timedelta(seconds=86399, microseconds=999999))
+        self.assertEqual(d.date(), date(2021, 12, 31))
+        self.assertEqual(d.time(), time(23, 59, 59, 999999))
+        self.assertEqual(d.isoformat(), "2021-12-31T23:59:59.999999")
+        self.assertEqual(d.isoformat(" ", "seconds"), "2021-12-31 23:59:59")
+        self.assertEqual(str(dt(2021, 1, 2, 3, 4)), "2021-01-02 03:04:00")
+        self.assertEqual(repr(dt(2021, 1, 2, 3, 4)), "datetime.datetime(2021, 1, 2, 3, 4)")
+        self.assertEqual(dt.fromisoformat("2021-01-02T03:04:05.123+01:30"),
+                         dt(2021, 1, 2, 3, 4, 5, 123000, tzinfo=timezone(timedelta(hours=1, minutes=30))))
+        self.assertEqual(dt.combine(date(2021, 1, 2), time(3, 4)), dt(2021, 1, 2, 3, 4))
+        self.assertEqual(dt.strptime("2021-01-02 03:04", "%Y-%m-%d %H:%M"), dt(2021, 1, 2, 3, 4))
+        self.assertEqual(d.strftime("%H:%M:%S.%f"), "23:59:59.999999")
+        self.assertEqual(tuple(d.timetuple())[:8], (2021, 12, 31, 23, 59, 59, 4, 365))
+        self.assertRaises(ValueError, dt, 2021, 1, 1, 24)
+        self.assertNotEqual(d, d.date())
+        self.assertRaises(TypeError, lambda: d < d.date())
+
+    def test_aware_datetime(self):
+        utc = timezone.utc
+        est = FixedOffset(-300, "EST")
+        a = dt(2021, 6, 1, 12, tzinfo=utc)
+        b = dt(2021, 6, 1, 7, tzinfo=est)
+        self.assertEqual(a, b)
+        self.assertEqual(hash(a), hash(b))
+        self.assertEqual(a - b, timedelta(0))
+        self.assertEqual(b.astimezone(utc), a)
+        self.assertEqual(a.astimezone(est).hour, 7)
+        self.assertEqual(a.utcoffset(), timedelta(0))
+        self.assertEqual(b.tzname(), "EST")
+        self.assertEqual(b.isoformat(), "2021-06-01T07:00:00-05:00")
+        self.assertEqual(a.timestamp(), 1622548800.0)
+        self.assertEqual(dt.fromtimestamp(1622548800, utc), a)
+        self.assertEqual(dt.utcfromtimestamp(1622548800.5), dt(2021, 6, 1, 12, 0, 0, 500000))
+        self.assertEqual(tuple(b.utctimetuple())[:6], (2021, 6, 1, 12, 0, 0))
+        self.assertNotEqual(a, a.replace(tzinfo=None))
+        self.assertRaises(TypeError, lambda: a < a.replace(tzinfo=None))
+        self.assertRaises(TypeError, lambda: a - a.replace(tzinfo=None))
+        self.assertEqual(est.fromutc(a.replace(tzinfo=est)), b)
+
+    def test_time(self):
+        t = time(12, 30, 15, 500, tzinfo=timezone(timedelta(hours=2)))
+        self.assertEqual(t.isoformat(), "12:30:15.000500+02:00")
+        self.assertEqual(time.fromisoformat("12:30:15.000500+02:00"), t)
+        self.assertEqual(t.utcoffset(), timedelta(hours=2))
+        self.assertEqual(t, time(10, 30, 15, 500, tzinfo=timezone.utc))
+        self.assertEqual(repr(time(1, 2)), "datetime.time(1, 2)")
+        self.assertEqual(t.replace(fold=1).fold, 1)
+        self.assertTrue(time(0))
+        self.assertRaises(TypeError, lambda: t < time(0))
+
+    def test_timezone(self):
+        tz = timezone(timedelta(hours=-3, minutes=-30), "NST")
+        self.assertEqual(tz.tzname(None), "NST")
+        self.assertEqual(timezone(timedelta(hours=5)).tzname(None), "UTC+05:00")
+        self.assertIs(timezone(timedelta(0)), timezone.utc)
+        self.assertEqual(repr(timezone.utc), "datetime.timezone.utc")
+        self.assertEqual(str(timezone.min), "UTC-23:59")
+        self.assertEqual(tz, timezone(timedelta(hours=-3, minutes=-30)))
+        self.assertRaises(ValueError, timezone, timedelta(hours=24))
+        self.assertRaises(TypeError, timezone, 5)
+        self.assertRaises(TypeError, tz.utcoffset, 5)
+
+    def test_pickle(self):
+        values = [timedelta(1, 2, 3), date(2020, 2, 29), dt(2021, 1, 2, 3, 4, 5, 6),
+                  dt(2021, 1, 2, 3, 4, tzinfo=timezone(timedelta(hours=1), "X")),
+                  dt(2021, 11, 7, 1, 30, fold=1), time(1, 2, 3, 4, fold=1), timezone.utc]
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            for v in values:
+                u = pickle.loads(pickle.dumps(v, proto))
+                self.assertEqual(u, v)
+                self.assertIs(type(u), type(v))
+                if proto > 3 and hasattr(v, "fold"):
+                    self.assertEqual(u.fold, v.fold)
+
+    def test_subclass(self):
+        class MyDate(date):
+            pass
+
+        class MyDateTime(dt):
+            extra = 1
+
+        d = MyDate(2020, 1, 1)
+        self.assertIs(type(d + timedelta(1)), MyDate)
+        self.assertIs(type(MyDate.fromordinal(1)), MyDate)
+        m = MyDateTime(2020, 1, 1, 12)
+        self.assertIs(type(m + timedelta(1)), MyDateTime)
+        self.assertIs(type(m.replace(hour=1)), MyDateTime)
+        self.assertIs(type(MyDateTime.now()), MyDateTime)
+        self.assertTrue(repr(m).endswith("MyDateTime(2020, 1, 1, 12, 0)"))
+
+
+if __name__ == '__main__':
+    unittest.main()
@@ -0,0 +1,267 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import decimal
+import pickle
+import threading
+import unittest
+from decimal import Decimal, Context, localcontext, getcontext, setcontext
+from fractions import Fraction
+
+
+class DecimalTests(unittest.TestCase):
+
+    def setUp(self):
+        setcontext(Context())
+
+    def test_native_module(self):
+        import _decimal
+        self.assertIs(decimal.Decimal, _decimal.Decimal)
+        self.assertIs(decimal.Context, _decimal.Context)
+        self.assertEqual(Decimal.__module__, "decimal")
+        self.assertEqual(decimal.InvalidOperation.__module__, "decimal")
+        self.assertTrue(issubclass(decimal.DivisionByZero, ZeroDivisionError))
+        self.assertTrue(issubclass(decimal.FloatOperation, TypeError))
+
+    def test_construction(self):
+        self.assertEqual(str(Decimal()), "0")
+        self.assertEqual(str(Decimal(" -1_000.50 ")), "-1000.50")
+        self.assertEqual(str(Decimal(12345678901234567890123456789012)), "12345678901234567890123456789012")
+        self.assertEqual(str(Decimal(0.1)), "0.1000000000000000055511151231257827021181583404541015625")
+        self.assertEqual(str(Decimal((1, (3, 1, 4), -2))), "-3.14")
+        self.assertEqual(str(Decimal((0, (), "F"))), "Infinity")
+        self.assertEqual(str(Decimal("-sNaN12")), "-sNaN12")
+        self.assertEqual(repr(Decimal("1e+3")), "Decimal('1E+3')")
+        self.assertRaises(decimal.InvalidOperation, Decimal, "1x")
+        self.assertRaises(ValueError, Decimal, (2, (1,), 0))
+        self.assertRaises(TypeError, Decimal, {})
+        self.assertEqual(str(Decimal("1x", Context(traps=[]))), "NaN")
+
+    def test_arithmetic(self):
+        self.assertEqual(str(Decimal("1.1") + Decimal("2.2")), "3.3")
+        self.assertEqual(str(Decimal(1) / Decimal(3)), "0.3333333333333333333333333333")
+        self.assertEqual(str(Decimal("-7") // 2), "-3")
+        self.assertEqual(str(Decimal("-7") % 2), "-1")
+        self.assertEqual(divmod(Decimal(7), 2), (Decimal(3), Decimal(1)))
+        self.assertEqual(str(3 - Decimal("0.5")), "2.5")
+        self.assertEqual(str(Decimal("1.50") * 2), "3.00")
+        self.assertEqual(str(-Decimal(0)), "0")
+        self.assertEqual(str(abs(Decimal("-2.5"))), "2.5")
+        self.assertEqual(str(Decimal(2) ** 10), "1024")
+        self.assertRaises(TypeError, lambda: Decimal(1) + 1.0)
+        self.assertRaises(decimal.DivisionByZero, lambda: Decimal(1) / 0)
+        self.assertRaises(decimal.InvalidOperation, lambda: Decimal(0) / 0)
+
+    def test_context_rounding(self):
+        c = Context(prec=5, rounding=decimal.ROUND_DOWN)
+        self.assertEqual(str(c.add(Decimal("1.23456789"), 0)), "1.2345")
+        self.assertTrue(c.flags[decimal.Inexact])
+        self.assertTrue(c.flags[decimal.Rounded])
+        c.rounding = decimal.ROUND_HALF_UP
+        self.assertEqual(str(c.plus(Decimal("2.00005"))), "2.0001")
+        c.rounding = decimal.ROUND_05UP
+        self.assertEqual(str(c.plus(Decimal("2.00005"))), "2.0001")
+        self.assertEqual(str(c.plus(Decimal("2.00015"))), "2.0001")
+        with self.assertRaises(TypeError):
+            c.rounding = "ROUND_SIDEWAYS"
+        with self.assertRaises(ValueError):
+            c.prec = 0
+        with self.assertRaises(AttributeError):
+            del c.prec
+
+    def test_traps_and_flags(self):
+        c = getcontext()
+        c.traps[decimal.Inexact] = True
+        self.assertRaises(decimal.Inexact, lambda: Decimal(1) / 3)
+        self.assertTrue(c.flags[decimal.Inexact])
+        c.clear_flags()
+        self.assertFalse(c.flags[decimal.Inexact])
+        self.assertEqual(len(c.traps), 9)
+        self.assertEqual(list(c.traps)[0], decimal.InvalidOperation)
+        self.assertIsInstance(c.flags.copy(), dict)
+        self.assertRaises(KeyError, c.flags.__getitem__, ValueError)
+        self.assertRaises(ValueError, c.flags.__delitem__, decimal.Inexact)
+        try:
+            Decimal("x")
+        except decimal.InvalidOperation as e:
+            self.assertEqual(e.args, ([decimal.ConversionSyntax],))
+
+    def test_overflow_and_clamp(self):
+        c = Context(prec=3, Emax=9, Emin=-9, traps=[])
+        self.assertEqual(str(c.multiply(Decimal("1e9"), 10)), "Infinity")
+        self.assertTrue(c.flags[decimal.Overflow])
+        self.assertEqual(str(c.create_decimal("1.234e-11")), "1E-11")
+        self.assertTrue(c.flags[decimal.Subnormal])
+        c.clamp = 1
+        self.assertEqual(str(c.create_decimal("1e9")), "1.00E+9")
+        self.assertTrue(c.flags[decimal.Clamped])
+
+    def test_comparisons(self):
+        self.assertEqual(Decimal("1.0"), Decimal(1))
+        self.assertEqual(Decimal("0.5"), 0.5)
+        self.assertEqual(Decimal("0.5"), Fraction(1, 2))
+        self.assertEqual(Decimal(2), complex(2, 0))
+        self.assertLess(Decimal("0.3"), Fraction(1, 3))
+        self.assertNotEqual(Decimal("NaN"), Decimal("NaN"))
+        self.assertRaises(decimal.InvalidOperation, lambda: Decimal("NaN") < 1)
+        self.assertRaises(decimal.FloatOperation, lambda: Context(traps=[decimal.FloatOperation]).create_decimal(0.5))
+        self.assertEqual(hash(Decimal("1.50")), hash(1.5))
+        self.assertEqual(hash(Decimal(10) ** 30), hash(10 ** 30))
+        self.assertEqual(hash(Decimal("-Infinity")), hash(float("-inf")))
+        self.assertRaises(TypeError, hash, Decimal("sNaN"))
+        self.assertEqual(sorted([Decimal(3), 1, Decimal("2.5")]), [1, Decimal("2.5"), Decimal(3)])
+
+    def test_conversions(self):
+        self.assertEqual(int(Decimal("-3.9")), -3)
+        self.assertEqual(round(Decimal("2.5")), 2)
+        self.assertEqual(str(round(Decimal("2.675"), 2)), "2.68")
+        self.assertEqual(float(Decimal("0.1")), 0.1)
+        self.assertEqual(Decimal("3.75").as_integer_ratio(), (15, 4))
+        self.assertEqual(Decimal("-0.0100").as_tuple(), (1, (1, 0, 0), -4))
+        self.assertEqual(Decimal("1e-3").quantize(Decimal("1.00")), Decimal("0.00"))
+        self.assertEqual(str(Decimal("123.456").quantize(Decimal("1e1"))), "1.2E+2")
+        self.assertEqual(str(Decimal("2.50").to_integral_value()), "2")
+        self.assertEqual(str(Decimal("120.00").normalize()), "1.2E+2")
+        self.assertEqual(Decimal("1E+3").to_eng_string(), "1E+3")
+        self.assertEqual(Decimal("12E+4").to_eng_string(), "120E+3")
+        self.assertRaises(ValueError, int, Decimal("NaN"))
+        self.assertRaises(OverflowError, int, Decimal("Infinity"))
+        self.assertEqual(Decimal.from_float(0.25), Decimal("0.25"))
+
+    def test_format(self):
+        self.assertEqual(format(Decimal("-0.005"), ".2f"), "-0.00")
+        self.assertEqual(format(Decimal("1234.5678"), ".3f"), "1234.568")
+        self.assertEqual(format(Decimal("1234567.891"), ",.2f"), "1,234,567.89")
+        self.assertEqual(format(Decimal("0.000123"), ".2e"), "1.23e-4")
+        self.assertEqual(format(Decimal("42"), ">6"), "    42")
+        self.assertEqual(f"{Decimal('1.5'):%}", "150%")
+        self.assertEqual(format(Decimal("-1234.5"), "012,.1f"), "-0,001,234.5")
+        self.assertEqual(format(Decimal("1234567.891"), "*^20,.2f"), "****1,234,567.89****")
+        self.assertEqual(format(Decimal("0.000012345"), ".3g"), "0.0000123")
+        self.assertEqual(format(Decimal("123456"), ".2G"), "1.2E+5")
+        self.assertEqual(format(Decimal("1E+2"), ".0f"), "100")
+        self.assertEqual(format(Decimal("-Infinity"), ">+12"), "   -Infinity")
+        self.assertEqual(format(Decimal("2.5"), ".0f"), "2")
+        with localcontext() as ctx:
+            ctx.rounding = decimal.ROUND_HALF_UP
+            self.assertEqual(format(Decimal("2.5"), ".0f"), "3")
+        self.assertRaises(ValueError, format, Decimal(1), "x")
+
+    def test_power(self):
+        self.assertEqual(str(Decimal(2) ** -2), "0.25")
+        self.assertEqual(str(Decimal("1.1") ** 100), "13780.61233982227018411833717")
+        self.assertEqual(str(Decimal(4) ** Decimal("0.5")), "2.000000000000000000000000000")
+        self.assertEqual(str(Decimal(2) ** Decimal("0.5")), "1.414213562373095048801688724")
+        self.assertEqual(str(2 ** Decimal(3)), "8")
+        self.assertEqual(str(pow(Decimal(3), 4, 5)), "1")
+        self.assertEqual(str(Context(prec=3).power(2, 10)), "1.02E+3")
+        self.assertEqual(str(Context().power(3, 100, modulo=7)), "4")
+        self.assertEqual(str(Decimal(0) ** -1), "Infinity")
+        self.assertRaises(decimal.InvalidOperation, lambda: Decimal(-2) ** Decimal("0.5"))
+        self.assertRaises(decimal.InvalidOperation, lambda: Decimal(0) ** 0)
+        self.assertRaises(TypeError, lambda: Decimal(2) ** 0.5)
+        getcontext().clear_flags()
+        self.assertEqual(str(Decimal(10) ** 3), "1000")
+        self.assertFalse(getcontext().flags[decimal.Inexact])
+        self.assertEqual(str(Decimal(3) ** Decimal("0.5")), "1.732050807568877293527446342")
+        self.assertTrue(getcontext().flags[decimal.Inexact])
+
+    def test_roots_and_logarithms(self):
+        self.assertEqual(str(Decimal(2).sqrt()), "1.414213562373095048801688724")
+        self.assertEqual(str(Decimal("0.0100").sqrt()), "0.10")
+        self.assertEqual(str(Decimal(1).exp()), "2.718281828459045235360287471")
+        self.assertEqual(str(Decimal(10).ln()), "2.302585092994045684017991455")
+        self.assertEqual(str(Decimal(100).log10()), "2")
+        self.assertEqual(str(Decimal("-Infinity").exp()), "0")
+        self.assertEqual(str(Decimal(0).ln()), "-Infinity")
+        self.assertEqual(str(Decimal("250").logb()), "2")
+        self.assertEqual(str(Context(prec=5).sqrt(3)), "1.7321")
+        self.assertRaises(decimal.InvalidOperation, Decimal(-1).sqrt)
+        self.assertRaises(decimal.InvalidOperation, Decimal(-1).ln)
+
+    def test_other_operations(self):
+        self.assertEqual(str(Decimal(2).fma(3, 5)), "11")
+        self.assertEqual(str(Context(prec=2).fma(Decimal("1.5"), 3, Decimal("-0.01"))), "4.5")
+        self.assertRaises(decimal.InvalidOperation, Decimal("Infinity").fma, 0, 1)
+        self.assertEqual(Decimal("-0").number_class(), "-Zero")
+        self.assertEqual(Context(Emin=-9).number_class(Decimal("1E-10")), "+Subnormal")
+        self.assertEqual(str(Decimal(-3).max_mag(2)), "-3")
+        self.assertEqual(str(Decimal(-3).min_mag(Decimal(3))), "-3")
+        self.assertEqual(str(Decimal(10).remainder_near(6)), "-2")
+        self.assertEqual(str(Decimal("7.50").scaleb(-2)), "0.0750")
+        self.assertEqual(str(Decimal(1).next_plus()), "1.000000000000000000000000001")
+        self.assertEqual(str(Decimal(110).logical_and(Decimal(11))), "10")
+
+    def test_localcontext(self):
+        with localcontext() as ctx:
+            ctx.prec = 3
+            self.assertEqual(str(Decimal(1) / 7), "0.143")
+        self.assertEqual(getcontext().prec, 28)
+        result = []
+
+        def run():
+            result.append(getcontext().prec)
+
+        getcontext().prec = 10
+        t = threading.Thread(target=run)
+        t.start()
+        t.join()
+        self.assertEqual(result, [28])
+
+    def test_pickle(self):
+        d = Decimal("-1.20E+5")
+        self.assertEqual(str(pickle.loads(pickle.dumps(d))), "-1.20E+5")
+        c = Context(prec=7, traps=[decimal.Overflow], flags=[decimal.Inexact])
+        c2 = pickle.loads(pickle.dumps(c))
+        self.assertEqual(repr(c2), repr(c))
+        self.assertEqual(repr(c), "Context(prec=7, rounding=ROUND_HALF_EVEN, Emin=-999999, Emax=999999, capitals=1, clamp=0, "
+                                  "flags=[Inexact], traps=[Overflow])")
+
+    def test_subclass(self):
+        class MyDecimal(Decimal):
+            pass
+
+        d = MyDecimal("1.5")
+        self.assertIs(type(d), MyDecimal)
+        self.assertIs(type(d + 1), Decimal)
+        self.assertIs(type(MyDecimal.from_float(1.5)), MyDecimal)
+
+
+if __name__ == '__main__':
+    unittest.main()
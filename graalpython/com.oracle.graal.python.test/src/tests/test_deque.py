@@ -1,4 +1,4 @@
-# Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -459,6 +459,66 @@ class TestBasic(unittest.TestCase):
         d.rotate()              # rotate an empty deque
         self.assertEqual(d, deque())
 
+    def test_mixed_element_types(self):
+        # elements of different types must survive all kinds of repositioning
+        for seed in range(5):
+            rnd = random.Random(seed)
+            maxlen = rnd.choice([None, 3, 7])
+            d = deque(maxlen=maxlen)
+            ref = []
+            for _ in range(300):
+                v = rnd.choice([rnd.randrange(100), rnd.randrange(1 << 40, 1 << 41), 1 << 70, rnd.random(), str(rnd.random()), True])
+                op = rnd.randrange(7)
+                if op == 0:
+                    d.append(v)
+                    ref.append(v)
+                    if maxlen is not None and len(ref) > maxlen:
+                        del ref[0]
+                elif op == 1:
+                    d.appendleft(v)
+                    ref.insert(0, v)
+                    if maxlen is not None and len(ref) > maxlen:
+                        del ref[-1]
+                elif op == 2 and ref:
+                    i = rnd.randrange(len(ref))
+                    d[i] = v
+                    ref[i] = v
+                elif op == 3 and ref:
+                    i = rnd.randrange(-len(ref), len(ref))
+                    del d[i]
+                    del ref[i]
+                elif op == 4 and (maxlen is None or len(ref) < maxlen):
+                    i = rnd.randrange(-len(ref) - 2, len(ref) + 2)
+                    d.insert(i, v)
+                    ref.insert(i, v)
+                elif op == 5:
+                    k = rnd.randrange(-20, 20)
+                    d.rotate(k)
+                    if ref:
+                        k %= len(ref)
+                        ref[:] = ref[-k:] + ref[:-k]
+                elif op == 6 and ref:
+                    self.assertEqual(d.pop(), ref.pop())
+                self.assertEqual(list(d), ref)
+                self.assertEqual([d[i] for i in range(len(ref))], ref)
+                self.assertEqual([type(x) for x in d], [type(x) for x in ref])
+
+    def test_sliding_window(self):
+        d = deque(maxlen=4)
+        sums = []
+        for i in range(100):
+            d.append(i * 0.5)
+            sums.append(sum(d[j] for j in range(len(d))))
+        self.assertEqual(list(d), [48.0, 48.5, 49.0, 49.5])
+        self.assertEqual(sums[:5], [0.0, 0.5, 1.5, 3.0, 5.0])
+        self.assertEqual(sums[-1], 195.0)
+        d.append('x')
+        self.assertEqual(list(d), [48.5, 49.0, 49.5, 'x'])
+        self.assertEqual(d.index(49.0), 1)
+        d.rotate(2)
+        self.assertEqual(list(d), [49.5, 'x', 48.5, 49.0])
+        self.assertEqual(list(reversed(d)), [49.0, 48.5, 'x', 49.5])
+
     def test_len(self):
         d = deque('ab')
         self.assertEqual(len(d), 2)
@@ -629,3 +689,12 @@ class TestBasic(unittest.TestCase):
         klass = type(reversed(deque()))
         for s in ('abcd', range(2000)):
             self.assertEqual(list(klass(deque(s))), list(reversed(s)))
+
+    @unittest.skipIf(sys.implementation.name == 'cpython', "CPython allocates the blocks before running out of memory")
+    def test_mul_exceeds_max_capacity(self):
+        d = deque([None])
+        # the buffer is sized up front, so this fails before anything is allocated
+        with self.assertRaises(MemoryError):
+            d *= 2 ** 30 + 1
+        self.assertEqual(list(d), [None])
+        self.assertRaises(MemoryError, d.__mul__, 2 ** 30 + 1)
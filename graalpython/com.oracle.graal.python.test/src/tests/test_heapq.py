@@ -0,0 +1,129 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import heapq
+import random
+import unittest
+
+
+class HeapqTests(unittest.TestCase):
+
+    def check_invariant(self, heap, max_heap=False):
+        for pos, item in enumerate(heap):
+            if pos:
+                parent = heap[(pos - 1) >> 1]
+                if max_heap:
+                    self.assertTrue(item <= parent)
+                else:
+                    self.assertTrue(parent <= item)
+
+    def test_native_module(self):
+        import _heapq
+        self.assertIs(heapq.heappush, _heapq.heappush)
+        self.assertIs(heapq._heapify_max, _heapq._heapify_max)
+
+    def test_push_pop_storages(self):
+        random.seed(42)
+        for data in ([random.randrange(1000) for _ in range(200)],
+                     [random.randrange(1 << 40) for _ in range(200)],
+                     [random.random() for _ in range(200)],
+                     [str(random.randrange(1000)) for _ in range(200)],
+                     [(random.randrange(10), i) for i in range(200)]):
+            heap = []
+            for item in data:
+                heapq.heappush(heap, item)
+                self.check_invariant(heap)
+            self.assertEqual([heapq.heappop(heap) for _ in range(len(data))], sorted(data))
+            self.assertRaises(IndexError, heapq.heappop, heap)
+
+    def test_heapify_and_sort(self):
+        random.seed(7)
+        for data in ([random.randrange(100) for _ in range(101)],
+                     [random.random() for _ in range(64)],
+                     [random.randrange(100) for _ in range(50)] + [1.5]):
+            heap = list(data)
+            heapq.heapify(heap)
+            self.check_invariant(heap)
+            heap = list(data)
+            heapq._heapify_max(heap)
+            self.check_invariant(heap, max_heap=True)
+            self.assertEqual([heapq._heappop_max(heap) for _ in range(len(data))], sorted(data, reverse=True))
+
+    def test_replace_and_pushpop(self):
+        heap = [1, 3, 5, 7]
+        self.assertEqual(heapq.heapreplace(heap, 4), 1)
+        self.check_invariant(heap)
+        # replacing with a value of a different type generalizes the storage
+        self.assertEqual(heapq.heapreplace(heap, 2.5), 3)
+        self.check_invariant(heap)
+        self.assertEqual(sorted(heap), [2.5, 4, 5, 7])
+        self.assertEqual(heapq.heappushpop(heap, 1), 1)
+        self.assertEqual(heapq.heappushpop(heap, 6), 2.5)
+        self.check_invariant(heap)
+        self.assertEqual(heapq.heappushpop([], 3), 3)
+        self.assertRaises(IndexError, heapq.heapreplace, [], 1)
+        heap = [9, 5, 7]
+        self.assertEqual(heapq._heapreplace_max(heap, 1), 9)
+        self.check_invariant(heap, max_heap=True)
+
+    def test_nsmallest_nlargest(self):
+        data = [5, 1, 9, 3, 7, 2.0, 8]
+        self.assertEqual(heapq.nsmallest(3, data), [1, 2.0, 3])
+        self.assertEqual(heapq.nlargest(3, data), [9, 8, 7])
+        self.assertEqual(heapq.nlargest(2, data, key=lambda x: -x), [1, 2.0])
+
+    def test_errors(self):
+        for fn in (heapq.heappush, heapq.heapreplace, heapq.heappushpop):
+            self.assertRaises(TypeError, fn, (1, 2), 3)
+        for fn in (heapq.heappop, heapq.heapify, heapq._heappop_max, heapq._heapify_max):
+            self.assertRaises(TypeError, fn, None)
+        self.assertRaises(TypeError, heapq.heapify, [1, "a", 2])
+
+    def test_mutating_comparison(self):
+        class Evil:
+            def __init__(self, heap):
+                self.heap = heap
+
+            def __lt__(self, other):
+                self.heap.clear()
+                return False
+
+        heap = []
+        heap.extend(Evil(heap) for _ in range(10))
+        self.assertRaises((RuntimeError, IndexError), heapq.heappush, heap, Evil(heap))
@@ -1,4 +1,4 @@
-# Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -173,3 +173,44 @@ def test_local_property_25274():
 
 
     
+
+
+def test_bytecode_cache_of_main_script():
+    if sys.implementation.name != "graalpython":
+        return
+    import os
+    import subprocess
+    import tempfile
+    env = dict(os.environ)
+    env.pop("PYTHONDONTWRITEBYTECODE", None)
+    with tempfile.TemporaryDirectory() as tmpdir:
+        script = tmpdir + "/cached_script.py"
+        cache_file = "%s/__pycache__/cached_script.%s.bytecode" % (tmpdir, sys.implementation.cache_tag)
+        cmd = [sys.executable, "--experimental-options", "--python.EnableBytecodeInterpreter", script]
+
+        with open(script, "w") as f:
+            f.write("print(sum(range(10)))\n")
+        out = subprocess.check_output(cmd, env=env)
+        assert out.strip() == b"45", out
+        cached = stat(cache_file)
+        assert cached.st_size > 0
+        with open(cache_file, "rb") as f:
+            cached_content = f.read()
+        # warm start uses the cache: it is loaded and not rewritten
+        log_option = "--log.python.%s.level=FINER" % "com.oracle.graal.python.runtime.CodeUnitCache"
+        result = subprocess.run([cmd[0], log_option] + cmd[1:], env=env, stdout=subprocess.PIPE, stderr=subprocess.PIPE)
+        assert result.returncode == 0, result
+        assert result.stdout.strip() == b"45", result.stdout
+        log = [line for line in result.stderr.splitlines() if b"cached_script" in line]
+        assert any(b"loaded bytecode from" in line for line in log), result.stderr
+        assert not any(b"wrote bytecode to" in line for line in log), result.stderr
+        reused = stat(cache_file)
+        assert (reused.st_ino, reused.st_mtime_ns, reused.st_size) == (cached.st_ino, cached.st_mtime_ns, cached.st_size)
+        with open(cache_file, "rb") as f:
+            assert f.read() == cached_content
+
+        # a changed source invalidates the cache
+        with open(script, "w") as f:
+            f.write("print(sum(range(11)))\n")
+        out = subprocess.check_output(cmd, env=env)
+        assert out.strip() == b"55", out
@@ -1,4 +1,4 @@
-# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -37,6 +37,8 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import os
+import tempfile
 import unittest
 import _io
 
@@ -278,5 +280,68 @@ class IOBaseTests(unittest.TestCase):
         self.assertEqual(second_pickled, b'1234')
         self.assertEqual(third_pickled, b'abcd')
 
+
+class TextIOWrapperTests(unittest.TestCase):
+
+    def setUp(self):
+        fd, self.path = tempfile.mkstemp()
+        os.close(fd)
+
+    def tearDown(self):
+        os.unlink(self.path)
+
+    def write_bytes(self, data):
+        with open(self.path, 'wb') as f:
+            f.write(data)
+
+    def test_utf8_lines_across_chunks(self):
+        # multibyte sequences and \r\n pairs end up split between chunks
+        lines = ['%d: \u00e9\u20ac\U0001f600 %s' % (i, 'x' * (i % 37)) for i in range(3000)]
+        newlines = ['\n', '\r\n', '\r']
+        data = ''.join(l + newlines[i % 3] for i, l in enumerate(lines)).encode('utf-8')
+        self.write_bytes(data)
+        with open(self.path, encoding='utf-8') as f:
+            self.assertEqual([l + '\n' for l in lines], list(f))
+            self.assertEqual(('\r', '\n', '\r\n'), f.newlines)
+        with open(self.path, encoding='utf-8', newline='') as f:
+            self.assertEqual([l + newlines[i % 3] for i, l in enumerate(lines)], f.readlines())
+        with open(self.path, encoding='utf-8') as f:
+            self.assertEqual(''.join(l + '\n' for l in lines), f.read())
+
+    def test_tell_seek(self):
+        self.write_bytes('a\u00e9\r\nb\u20ac\rc\U0001f600\nd'.encode('utf-8'))
+        with open(self.path, encoding='utf-8') as f:
+            positions = []
+            while True:
+                positions.append(f.tell())
+                line = f.readline()
+                if not line:
+                    break
+            self.assertEqual(4, len(positions) - 1)
+            for i, pos in enumerate(positions[:-1]):
+                f.seek(pos)
+                self.assertEqual(['a\u00e9\n', 'b\u20ac\n', 'c\U0001f600\n', 'd'][i:], f.readlines())
+
+    def test_latin1_and_ascii(self):
+        self.write_bytes(b'caf\xe9\r\nna\xefve\n')
+        with open(self.path, encoding='latin-1') as f:
+            self.assertEqual(['caf\u00e9\n', 'na\u00efve\n'], list(f))
+        self.write_bytes(b'abc\r\ndef')
+        with open(self.path, encoding='ascii') as f:
+            self.assertEqual(['abc\n', 'def'], list(f))
+
+    def test_decode_errors(self):
+        self.write_bytes(b'ok\nbad \xff\n')
+        with open(self.path, encoding='utf-8') as f:
+            self.assertRaises(UnicodeDecodeError, f.read)
+        with open(self.path, encoding='utf-8', errors='replace') as f:
+            self.assertEqual(['ok\n', 'bad \ufffd\n'], list(f))
+        with open(self.path, encoding='ascii', errors='ignore') as f:
+            self.assertEqual('ok\nbad \n', f.read())
+        # truncated sequence at the end of the file
+        self.write_bytes(b'abc\xe2\x82')
+        with open(self.path, encoding='utf-8') as f:
+            self.assertRaises(UnicodeDecodeError, f.read)
+
 if __name__ == '__main__':
     unittest.main()
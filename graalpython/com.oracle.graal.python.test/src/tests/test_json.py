@@ -1,4 +1,4 @@
-# Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -83,3 +83,64 @@ class JsonTest(unittest.TestCase):
             1521583201347000000,
             10,
         }
+
+    def test_loads_utf8_bytes(self):
+        import json
+        doc = '{"kéy": ["€", "\U0001f600", "a\\nb", 1.5, -2, null, true]}'
+        expected = {"kéy": ["€", "\U0001f600", "a\nb", 1.5, -2, None, True]}
+        assert json.loads(doc.encode('utf-8')) == expected
+        assert json.loads(bytearray(doc.encode('utf-8'))) == expected
+        assert json.loads(doc.encode('utf-16')) == expected
+        class Decoder(json.JSONDecoder):
+            def decode(self, s):
+                assert isinstance(s, str)
+                return super().decode(s)
+
+        assert json.loads(doc.encode('utf-8'), cls=Decoder) == expected
+        with self.assertRaises(json.JSONDecodeError) as cm:
+            json.loads('["é", x]'.encode('utf-8'))
+        assert cm.exception.pos == 6
+        assert cm.exception.doc == '["é", x]'
+        with self.assertRaises(UnicodeDecodeError):
+            json.loads(b'["\xff"]')
+
+    def test_dump_chunked(self):
+        import io
+        import json
+        data = {"items": [{"id": i, "name": "item %d" % i, "tags": ["a", "b"]} for i in range(5000)]}
+        chunks = []
+
+        class Writer(io.StringIO):
+            def write(self, s):
+                chunks.append(s)
+                return super().write(s)
+
+        out = Writer()
+        json.dump(data, out)
+        assert out.getvalue() == json.dumps(data)
+        assert len(chunks) > 1
+        out = io.StringIO()
+        json.dump(data, out, indent=2, sort_keys=True)
+        assert out.getvalue() == json.dumps(data, indent=2, sort_keys=True)
+
+    def test_stream_decoder(self):
+        import json
+        from _graalpython_json import JSONStreamDecoder
+        assert 'JSONStreamDecoder' not in json.__all__
+        docs = [{"a": [1, 2.5, "xé"]}, 12, "str", [True, False, None], -3.5e10, {}]
+        text = '\n'.join(json.dumps(d, ensure_ascii=False) for d in docs) + '\n'
+        for data in (text, text.encode('utf-8')):
+            for size in (1, 2, 3, 7, len(data)):
+                decoder = JSONStreamDecoder()
+                result = []
+                for i in range(0, len(data), size):
+                    result += decoder.feed(data[i:i + size])
+                result += decoder.close()
+                assert result == docs, (size, result)
+        decoder = JSONStreamDecoder()
+        assert decoder.feed('[1, 2') == []
+        with self.assertRaises(json.JSONDecodeError):
+            decoder.close()
+        decoder = JSONStreamDecoder()
+        with self.assertRaises(json.JSONDecodeError):
+            decoder.feed('[1, x] ')
@@ -1,4 +1,4 @@
-# Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -52,6 +52,8 @@ try:
         lambda: set_strategy(dict(), 'hashmap'),
         lambda: set_strategy(dict(), 'dynamicobject'),
         lambda: set_strategy(dict(), 'economicmap'),
+        lambda: set_strategy(dict(), 'compact'),
+        lambda: set_strategy(dict(), 'long'),
     ]
 except NameError:
     # For CPython, just to verify the test results
@@ -233,3 +235,52 @@ def test_side_effects():
         assert log == [
             "Hash on 'foo'",
             "Eq on '%s' and 'foo'" % key]
+
+
+def test_grow_and_shrink():
+    # goes past the sizes at which the compact storage switches to wider index tables
+    for f in FACTORIES:
+        d = f()
+        for i in range(40000):
+            d[i] = str(i)
+        assert len(d) == 40000
+        for i in range(0, 40000, 2):
+            del d[i]
+        assert len(d) == 20000
+        assert list(d.keys())[:3] == [1, 3, 5]
+        assert list(reversed(d))[:3] == [39999, 39997, 39995]
+        for i in range(40000):
+            assert (i in d) == (i % 2 == 1)
+        d[0] = 'zero'
+        assert list(d)[-1] == 0
+
+
+def test_int_keys():
+    class IntLike:
+        def __init__(self, value):
+            self.value = value
+        def __hash__(self):
+            return hash(self.value)
+        def __eq__(self, other):
+            return self.value == other
+
+    for f in FACTORIES:
+        d = f()
+        big = 2 ** 62
+        for k in [1, -1, 0, big, -big]:
+            d[k] = k
+        # lookups with keys of other types that compare equal to ints
+        assert d[1.0] == 1
+        assert d[True] == 1
+        assert d[False] == 0
+        assert d[IntLike(big)] == big
+        assert 2.5 not in d
+        assert 2 ** 70 not in d
+        d[1.0] = 'one'
+        assert list(d.keys()) == [1, -1, 0, big, -big]
+        assert type(list(d.keys())[0]) == int
+        assert d[1] == 'one'
+        del d[IntLike(-1)]
+        assert -1 not in d
+        d['foo'] = 'bar'
+        assert list(d.items()) == [(1, 'one'), (0, 0), (big, big), (-big, -big), ('foo', 'bar')]
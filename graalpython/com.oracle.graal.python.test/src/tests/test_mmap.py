@@ -1,4 +1,4 @@
-# Copyright (c) 2019, 2021, Oracle and/or its affiliates.
+# Copyright (c) 2019, 2022, Oracle and/or its affiliates.
 # Copyright (C) 1996-2017 Python Software Foundation
 #
 # Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
@@ -222,6 +222,76 @@ def test_readline():
     assert m.readline() == b'ab'
 
 
+def test_memoryview():
+    m = mmap.mmap(-1, 16)
+    m.write(bytes(range(16)))
+    mv = memoryview(m)
+    assert not mv.readonly
+    assert mv[3] == 3
+    assert mv[4:8].tobytes() == bytes(range(4, 8))
+    mv[0:2] = b'ab'
+    assert m[0:2] == b'ab'
+    mv.release()
+    m.close()
+
+
+def test_memoryview_offsets():
+    m = mmap.mmap(-1, 16)
+    m.write(bytes(range(16)))
+    mv = memoryview(m)
+    dest = bytearray(8)
+    dest[2:6] = mv[4:8]
+    assert dest == b'\x00\x00\x04\x05\x06\x07\x00\x00'
+    mv[2:4] = memoryview(b'wxyz')[1:3]
+    assert m[0:6] == b'\x00\x01xy\x04\x05'
+    mv[15] = 42
+    assert m[15] == 42
+    mv.release()
+    m.close()
+
+
+def test_flush_range():
+    try:
+        with open(TESTFN, 'wb') as f:
+            f.write(b'0123456789')
+        with open(TESTFN, 'r+b') as f:
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_WRITE)
+            m[1] = b'x'[0]
+            m.flush(0, 2)
+            m.close()
+        with open(TESTFN, 'rb') as f:
+            assert f.read() == b'0x23456789'
+    finally:
+        os.unlink(TESTFN)
+
+
+def test_file_access_modes():
+    try:
+        with open(TESTFN, 'wb') as f:
+            f.write(b'0123456789')
+        with open(TESTFN, 'r+b') as f:
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+            mv = memoryview(m)
+            assert mv.readonly
+            assert mv[2:5].tobytes() == b'234'
+            mv.release()
+            m.close()
+
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_COPY)
+            m[0:3] = b'abc'
+            assert m[0:4] == b'abc3'
+            m.close()
+
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_WRITE)
+            m[9] = b'x'[0]
+            m.flush()
+            m.close()
+        with open(TESTFN, 'rb') as f:
+            assert f.read() == b'012345678x'
+    finally:
+        os.unlink(TESTFN)
+
+
 def test_main():
     #run_unittest(MmapTests, LargeMmapTests)
     run_unittest(MmapTests)
@@ -1,4 +1,4 @@
-# Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -37,8 +37,9 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
-import unittest
+import io
 import pickle
+import unittest
 
 class TestPickle(unittest.TestCase):
 
@@ -66,5 +67,170 @@ class TestPickle(unittest.TestCase):
         assert [16,17,18,19] == [next(teeit2) for i in range(1, 5)]
         assert [16,17,18,19] == [next(teeit) for i in range(1, 5)]
 
+
+class SlowPickler(pickle._Pickler):
+    # having the hook disables any fast path, so this always produces the
+    # output of the Python pickler
+    def reducer_override(self, obj):
+        return NotImplemented
+
+
+def slow_dumps(obj, protocol=None, buffer_callback=None):
+    f = io.BytesIO()
+    SlowPickler(f, protocol, buffer_callback=buffer_callback).dump(obj)
+    return f.getvalue()
+
+
+def slow_loads(data, buffers=None):
+    return pickle._Unpickler(io.BytesIO(data), buffers=buffers).load()
+
+
+class Point:
+    def __init__(self, x, y):
+        self.x = x
+        self.y = y
+
+    def __eq__(self, other):
+        return type(other) is Point and (self.x, self.y) == (other.x, other.y)
+
+
+SAMPLES = [
+    None, True, False, 0, 1, -1, 255, 256, 65535, 65536, -2 ** 31, 2 ** 31 - 1, 2 ** 31, -2 ** 63, 2 ** 64, -(2 ** 1000),
+    0.0, -1.5, float("inf"), 1e300,
+    "", "a", "€", "\U0001f600", "x" * 300, "y" * 70000,
+    b"", b"abc", b"z" * 300, bytearray(b"ab"),
+    (), (1,), (1, 2), (1, 2, 3), tuple(range(10)),
+    [], [1, "a", None], list(range(2500)),
+    {}, {"a": 1, 2: [3]}, {i: str(i) for i in range(2500)},
+    set(), {1, 2, 3}, set(range(2500)), frozenset(), frozenset({"a", "b"}),
+]
+
+
+class TestFastPickle(unittest.TestCase):
+
+    def test_same_output(self):
+        for proto in range(2, pickle.HIGHEST_PROTOCOL + 1):
+            for obj in SAMPLES:
+                if proto < 3 and isinstance(obj, (bytes, bytearray)):
+                    continue
+                self.assertEqual(pickle.dumps(obj, proto), slow_dumps(obj, proto), (proto, obj))
+
+    def test_roundtrip(self):
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            for obj in SAMPLES:
+                self.assertEqual(pickle.loads(pickle.dumps(obj, proto)), obj)
+                self.assertEqual(pickle.loads(slow_dumps(obj, proto)), obj)
+                self.assertEqual(slow_loads(pickle.dumps(obj, proto)), obj)
+
+    def test_shared_and_recursive(self):
+        shared = [1, 2]
+        obj = [shared, shared, (shared,)]
+        obj.append(obj)
+        for proto in range(2, pickle.HIGHEST_PROTOCOL + 1):
+            data = pickle.dumps(obj, proto)
+            self.assertEqual(data, slow_dumps(obj, proto))
+            res = pickle.loads(data)
+            self.assertIs(res[0], res[1])
+            self.assertIs(res[0], res[2][0])
+            self.assertIs(res[3], res)
+
+        d = {}
+        d["self"] = d
+        t = ([d],)
+        t[0].append(t)
+        res = pickle.loads(pickle.dumps(t))
+        self.assertIs(res[0][0]["self"], res[0][0])
+        self.assertIs(res[0][1], res)
+
+    def test_mixed_with_other_objects(self):
+        obj = {"points": [Point(1, 2), Point(3, 4)], "name": "test"}
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            self.assertEqual(pickle.dumps(obj, proto), slow_dumps(obj, proto))
+            self.assertEqual(pickle.loads(pickle.dumps(obj, proto)), obj)
+
+    def test_pickler_memo_reuse(self):
+        shared = [1, 2, 3]
+        f = io.BytesIO()
+        p = pickle.Pickler(f, 4)
+        p.dump(shared)
+        p.dump(shared)
+        f.seek(0)
+        u = pickle.Unpickler(f)
+        first = u.load()
+        self.assertIs(u.load(), first)
+
+    def test_pickler_hooks(self):
+        class PersPickler(pickle._Pickler):
+            def persistent_id(self, obj):
+                return "id" if obj == "replace me" else None
+
+        class PersUnpickler(pickle._Unpickler):
+            def persistent_load(self, pid):
+                return "replaced"
+
+        f = io.BytesIO()
+        PersPickler(f, 4).dump(["replace me", 1])
+        f.seek(0)
+        self.assertEqual(PersUnpickler(f).load(), ["replaced", 1])
+
+    def test_out_of_band_buffers(self):
+        data = bytearray(b"abcdef")
+        obj = [pickle.PickleBuffer(data), pickle.PickleBuffer(b"ro")]
+        buffers = []
+        pickled = pickle.dumps(obj, 5, buffer_callback=buffers.append)
+        self.assertEqual(len(buffers), 2)
+        self.assertEqual(bytes(buffers[0]), b"abcdef")
+
+        res = pickle.loads(pickled, buffers=buffers)
+        self.assertIs(res[0], buffers[0])
+        self.assertEqual(bytes(res[1]), b"ro")
+        res = pickle.loads(pickled, buffers=iter(buffers))
+        self.assertIs(res[0], buffers[0])
+
+        with self.assertRaises(pickle.UnpicklingError):
+            pickle.loads(pickled, buffers=buffers[:1])
+        with self.assertRaises(pickle.UnpicklingError):
+            pickle.loads(pickled)
+
+        # in-band
+        res = pickle.loads(pickle.dumps(obj, 5))
+        self.assertEqual(res, [bytearray(b"abcdef"), b"ro"])
+
+    def test_repeated_pickle_buffer(self):
+        for data in (b"abc", bytearray(b"abc")):
+            pb = pickle.PickleBuffer(data)
+            obj = [pb, pb]
+            # unlike CPython's _pickle, the Python pickler does not memoize the PickleBuffer
+            self.assertEqual(pickle._dumps(obj, 5), slow_dumps(obj, 5))
+            self.assertEqual(pickle.loads(pickle._dumps(obj, 5)), [data, data])
+
+    def test_buffer_callback_not_called_on_fallback(self):
+        buffers = []
+        obj = [pickle.PickleBuffer(b"abc"), Point(1, 2), pickle.PickleBuffer(b"def")]
+        pickled = pickle.dumps(obj, 5, buffer_callback=buffers.append)
+        self.assertEqual(len(buffers), 2)
+        self.assertEqual(pickle.loads(pickled, buffers=buffers)[1], Point(1, 2))
+
+    def test_pickle_buffer(self):
+        pb = pickle.PickleBuffer(bytearray(b"xyz"))
+        self.assertEqual(bytes(pb.raw()), b"xyz")
+        self.assertFalse(pb.raw().readonly)
+        self.assertTrue(pickle.PickleBuffer(b"xyz").raw().readonly)
+        pb.release()
+        with self.assertRaises(ValueError):
+            pb.raw()
+
+    def test_errors(self):
+        with self.assertRaises(ValueError):
+            pickle.dumps(1, pickle.HIGHEST_PROTOCOL + 1)
+        with self.assertRaises(ValueError):
+            pickle.dumps(1, 4, buffer_callback=list().append)
+        with self.assertRaises(TypeError):
+            pickle.loads("a string")
+        for bad in (b"", b"\x80\x04", b"\x80\x04K", b"\x80\x04(.", b"\x80\x04\x95\x00"):
+            with self.assertRaises(Exception):
+                pickle.loads(bad)
+
+
 if __name__ == '__main__':
     unittest.main()
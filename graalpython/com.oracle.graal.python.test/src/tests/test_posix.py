@@ -1,4 +1,4 @@
-# Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -49,6 +49,7 @@ except:
 import unittest
 import os
 import array
+import errno
 import sys
 import posix
 import stat
@@ -834,5 +835,69 @@ class RenameTests(unittest.TestCase):
             os.replace(TEST_FILENAME1, 3.14)
 
 
+class PositionalIOTests(unittest.TestCase):
+
+    def setUp(self):
+        self.fd = os.open(TEST_FULL_PATH1, os.O_RDWR | os.O_CREAT | os.O_TRUNC)
+        self.fd2 = os.open(TEST_FULL_PATH2, os.O_RDWR | os.O_CREAT | os.O_TRUNC)
+
+    def tearDown(self):
+        os.close(self.fd)
+        os.close(self.fd2)
+        os.unlink(TEST_FULL_PATH1)
+        os.unlink(TEST_FULL_PATH2)
+
+    def test_pread_pwrite(self):
+        self.assertEqual(6, os.pwrite(self.fd, b'abcdef', 0))
+        self.assertEqual(2, os.pwrite(self.fd, memoryview(b'XYZ')[1:], 2))
+        self.assertEqual(0, os.lseek(self.fd, 0, os.SEEK_CUR))
+        self.assertEqual(b'bYZe', os.pread(self.fd, 4, 1))
+        self.assertEqual(b'', os.pread(self.fd, 4, 100))
+        self.assertEqual(0, os.lseek(self.fd, 0, os.SEEK_CUR))
+
+    def test_readv_writev(self):
+        self.assertEqual(7, os.writev(self.fd, [b'abc', bytearray(b''), memoryview(b'defg')]))
+        self.assertEqual(0, os.writev(self.fd, ()))
+        os.lseek(self.fd, 0, os.SEEK_SET)
+        a = bytearray(2)
+        b = array.array('b', [0] * 3)
+        c = bytearray(5)
+        self.assertEqual(7, os.readv(self.fd, [a, memoryview(b), c]))
+        self.assertEqual(b'ab', a)
+        self.assertEqual(b'cde', b.tobytes())
+        self.assertEqual(b'fg\0\0\0', c)
+        with self.assertRaisesRegex(TypeError, 'sequence'):
+            os.writev(self.fd, 42)
+        with self.assertRaises(BufferError):
+            os.readv(self.fd, [b'read-only'])
+
+    @unittest.skipUnless(hasattr(os, 'sendfile') and sys.platform.startswith('linux'), 'requires sendfile between files')
+    def test_sendfile(self):
+        os.write(self.fd, b'0123456789')
+        os.lseek(self.fd, 0, os.SEEK_SET)
+        self.assertEqual(3, os.sendfile(self.fd2, self.fd, 2, 3))
+        self.assertEqual(0, os.lseek(self.fd, 0, os.SEEK_CUR))
+        self.assertEqual(4, os.sendfile(self.fd2, self.fd, None, 4))
+        self.assertEqual(4, os.lseek(self.fd, 0, os.SEEK_CUR))
+        self.assertEqual(0, os.sendfile(self.fd2, self.fd, 10, 4))
+        self.assertEqual(b'2340123', os.pread(self.fd2, 100, 0))
+
+    @unittest.skipUnless(hasattr(os, 'copy_file_range'), 'requires copy_file_range')
+    def test_copy_file_range(self):
+        os.write(self.fd, b'0123456789')
+        try:
+            self.assertEqual(4, os.copy_file_range(self.fd, self.fd2, 4, 3, 1))
+        except OSError as e:
+            if e.errno in (errno.ENOSYS, errno.EXDEV, errno.EINVAL):
+                self.skipTest('copy_file_range not supported here: %s' % e)
+            raise
+        self.assertEqual(b'\x003456', os.pread(self.fd2, 100, 0))
+        self.assertEqual(10, os.lseek(self.fd, 0, os.SEEK_CUR))
+        os.lseek(self.fd, 8, os.SEEK_SET)
+        self.assertEqual(2, os.copy_file_range(self.fd, self.fd2, 100))
+        self.assertEqual(10, os.lseek(self.fd, 0, os.SEEK_CUR))
+        self.assertEqual(b'89', os.pread(self.fd2, 2, 0))
+
+
 if __name__ == '__main__':
     unittest.main()
@@ -1,7 +1,8 @@
-# Copyright (c) 2019, 2021, Oracle and/or its affiliates.
+# Copyright (c) 2019, 2022, Oracle and/or its affiliates.
 # Copyright (C) 1996-2017 Python Software Foundation
 #
 # Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
+import copy
 import re
 import string
 import unittest
@@ -488,3 +489,62 @@ class ReTests(unittest.TestCase):
             r"(//?| ==?)|([[]]+)")
         for m in regex.finditer(''):
             self.fail()
+
+    def test_match_object(self):
+        m = re.match(r"(?P<a>a)(b)?(?P<c>c)", "acd")
+        self.assertEqual(m.group(), "ac")
+        self.assertEqual(m.group(0, "a", 3), ("ac", "a", "c"))
+        self.assertEqual(m["c"], "c")
+        self.assertEqual(m.groups(), ("a", None, "c"))
+        self.assertEqual(m.groups("-"), ("a", "-", "c"))
+        self.assertEqual(m.groupdict(), {"a": "a", "c": "c"})
+        self.assertEqual(m.span(2), (-1, -1))
+        self.assertEqual(m.span("c"), (1, 2))
+        self.assertEqual(m.regs, ((0, 2), (0, 1), (-1, -1), (1, 2)))
+        self.assertEqual(m.lastindex, 3)
+        self.assertEqual(m.lastgroup, "c")
+        self.assertEqual(m.expand(r"\g<c>\1"), "ca")
+        self.assertEqual(repr(m), "<re.Match object; span=(0, 2), match='ac'>")
+        self.assertIs(copy.copy(m), m)
+        self.assertIs(copy.deepcopy(m), m)
+        self.assertRaises(IndexError, m.group, 4)
+        self.assertRaises(IndexError, m.group, "x")
+        self.assertIsNone(re.match("a", "a").lastindex)
+
+    def test_pattern_object(self):
+        p = re.compile(r"(?i)a(?P<x>b)")
+        self.assertEqual(p.groups, 1)
+        self.assertTrue(p.flags & re.I)
+        self.assertEqual(repr(re.compile("a", re.M | re.S)), "re.compile('a', re.MULTILINE|re.DOTALL)")
+        self.assertEqual(repr(re.compile(b"a")), "re.compile(b'a')")
+        self.assertEqual(re.compile("ab"), re.compile("ab"))
+        self.assertEqual(hash(re.compile("ab")), hash(re.compile("ab")))
+        self.assertNotEqual(re.compile("ab"), re.compile("ab", re.I))
+        self.assertIs(copy.copy(p), p)
+        s = p.scanner("xAbab")
+        self.assertEqual(s.search().span(), (1, 3))
+        self.assertEqual(s.search().span(), (3, 5))
+        self.assertIsNone(s.search())
+
+    def test_pos_endpos(self):
+        p = re.compile(r"a+$")
+        self.assertEqual(p.search("baab", 0, 3).span(), (1, 3))
+        self.assertIsNone(p.search("baab"))
+        self.assertEqual(p.match("baaa", 1).group(), "aaa")
+        self.assertEqual(p.search("baaa", -5, 100).pos, 0)
+        self.assertEqual(p.findall("aa aa", 3), ["aa"])
+        self.assertEqual([m.span() for m in re.compile("a").finditer("aaa", 1, 2)], [(1, 2)])
+        self.assertEqual(re.compile(b"b+").search(memoryview(b"abbc")).group(), b"bb")
+        self.assertEqual(re.compile(b"b+").search(bytearray(b"abbc"), 0, 2).group(), b"b")
+
+    def test_input_type_errors(self):
+        self.assertRaises(TypeError, re.compile("a").match, b"a")
+        self.assertRaises(TypeError, re.compile(b"a").match, "a")
+        self.assertRaises(TypeError, re.compile("a").match, 1)
+        self.assertRaises(TypeError, re.compile("a").sub, b"b", "a")
+
+    def test_sub_callable(self):
+        self.assertEqual(re.sub("a", lambda m: None, "banana"), "bnn")
+        self.assertEqual(re.subn(b"a", lambda m: m.group().upper(), b"banana"), (b"bAnAnA", 3))
+        self.assertEqual(re.sub("x*", "-", "abc"), "-a-b-c-")
+        self.assertEqual(re.split(b"(a)|b", b"cabd"), [b"c", b"a", b"", None, b"d"])
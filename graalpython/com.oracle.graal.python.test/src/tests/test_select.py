@@ -1,4 +1,4 @@
-# Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -95,3 +95,111 @@ class SelectTests(unittest.TestCase):
             fds = [F(f.fileno()), F(stdout_fd), F(f.fileno())]
             res = select.select(fds, [], [], 1)
             assert res == ([fds[0], fds[2]], [], [])
+
+
+@unittest.skipUnless(__graalpython__.posix_module_backend() != 'java',
+                     'The java backend does not support polling pipes, only sockets.')
+class PollTests(unittest.TestCase):
+    def setUp(self):
+        self.r, self.w = os.pipe()
+
+    def tearDown(self):
+        os.close(self.r)
+        os.close(self.w)
+
+    def test_poll_register_modify_unregister(self):
+        p = select.poll()
+        p.register(self.r, select.POLLIN)
+        p.register(self.w, select.POLLOUT)
+        self.assertEqual(p.poll(0), [(self.w, select.POLLOUT)])
+        os.write(self.w, b'x')
+        self.assertEqual(sorted(p.poll(1000)), sorted([(self.r, select.POLLIN), (self.w, select.POLLOUT)]))
+        p.modify(self.w, select.POLLIN)
+        self.assertEqual(p.poll(0), [(self.r, select.POLLIN)])
+        p.unregister(self.r)
+        self.assertEqual(p.poll(0), [])
+        self.assertRaises(KeyError, p.unregister, self.r)
+
+    def test_poll_register_twice(self):
+        p = select.poll()
+        p.register(self.r, select.POLLOUT)
+        p.register(self.r, select.POLLIN)
+        self.assertEqual(p.poll(0), [])
+        os.write(self.w, b'x')
+        self.assertEqual(p.poll(None), [(self.r, select.POLLIN)])
+
+    @unittest.skipUnless(hasattr(select, 'epoll'), 'requires select.epoll')
+    def test_epoll(self):
+        with select.epoll() as ep:
+            ep.register(self.r, select.EPOLLIN)
+            self.assertRaises(FileExistsError, ep.register, self.r, select.EPOLLIN)
+            self.assertEqual(ep.poll(0), [])
+            os.write(self.w, b'x')
+            self.assertEqual(ep.poll(1.0), [(self.r, select.EPOLLIN)])
+            self.assertEqual(ep.poll(0, 1), [(self.r, select.EPOLLIN)])
+            self.assertRaises(ValueError, ep.poll, 0, 0)
+            ep.unregister(self.r)
+            self.assertRaises(FileNotFoundError, ep.unregister, self.r)
+            self.assertFalse(ep.closed)
+        self.assertTrue(ep.closed)
+        self.assertRaises(ValueError, ep.poll)
+        ep.close()
+
+    @unittest.skipUnless(hasattr(select, 'epoll'), 'requires select.epoll')
+    def test_epoll_fileno_fromfd(self):
+        with select.epoll() as ep:
+            fd = ep.fileno()
+            self.assertIsInstance(fd, int)
+            ep.register(self.r, select.EPOLLIN | select.EPOLLET)
+            ep2 = select.epoll.fromfd(os.dup(fd))
+            try:
+                ep2.modify(self.r, select.EPOLLIN | select.EPOLLRDHUP)
+                os.write(self.w, b'x')
+                self.assertEqual(ep.poll(1.0), [(self.r, select.EPOLLIN)])
+            finally:
+                ep2.close()
+        self.assertRaises(ValueError, ep.fileno)
+
+    @unittest.skipUnless(hasattr(select, 'epoll'), 'requires select.epoll')
+    def test_epoll_default_selector(self):
+        import selectors
+        with selectors.DefaultSelector() as sel:
+            self.assertIsInstance(sel.fileno(), int)
+
+    def test_poll_regular_file(self):
+        with tempfile.TemporaryFile() as f:
+            p = select.poll()
+            p.register(f, select.POLLIN | select.POLLOUT)
+            self.assertEqual(p.poll(1000), [(f.fileno(), select.POLLIN | select.POLLOUT)])
+            p.unregister(f)
+            self.assertEqual(p.poll(0), [])
+
+    def test_poll_unregister_closed_fd(self):
+        r, w = os.pipe()
+        p = select.poll()
+        p.register(r, select.POLLIN)
+        p.register(self.r, select.POLLIN)
+        os.close(r)
+        os.close(w)
+        p.unregister(r)
+        os.write(self.w, b'x')
+        self.assertEqual(p.poll(1000), [(self.r, select.POLLIN)])
+
+
+class PollSocketTests(unittest.TestCase):
+    def test_setblocking_after_poll(self):
+        import socket
+        with socket.socket() as server:
+            server.bind(('127.0.0.1', 0))
+            server.listen()
+            server.setblocking(False)
+            p = select.poll()
+            p.register(server, select.POLLIN)
+            self.assertEqual(p.poll(0), [])
+            # switching the socket back to blocking mode must not fail while it is registered
+            server.setblocking(True)
+            with socket.create_connection(server.getsockname()):
+                self.assertEqual(p.poll(5000), [(server.fileno(), select.POLLIN)])
+                conn, _ = server.accept()
+                conn.close()
+            p.unregister(server)
@@ -1,4 +1,4 @@
-# Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -52,6 +52,8 @@ try:
         lambda: set_strategy(set(), 'hashmap'),
         lambda: set_strategy(set(), 'dynamicobject'),
         lambda: set_strategy(set(), 'economicmap'),
+        lambda: set_strategy(set(), 'compact'),
+        lambda: set_strategy(set(), 'long'),
     ]
 except NameError:
     # For CPython, just to verify the test results
@@ -1,4 +1,4 @@
-# Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -65,3 +65,47 @@ def test_get_name_info():
     except TypeError:
         raised = True
     assert raised
+
+
+class TestScatterGather(unittest.TestCase):
+    def setUp(self):
+        self.receiver = socket.socket(socket.AF_INET, socket.SOCK_DGRAM)
+        self.receiver.bind(('127.0.0.1', 0))
+        self.receiver.settimeout(5)
+        self.sender = socket.socket(socket.AF_INET, socket.SOCK_DGRAM)
+        self.sender.bind(('127.0.0.1', 0))
+
+    def tearDown(self):
+        self.receiver.close()
+        self.sender.close()
+
+    def test_sendmsg_recvmsg(self):
+        addr = self.receiver.getsockname()
+        self.assertEqual(5, self.sender.sendmsg([b'ab', memoryview(b'cde'), b''], [], 0, addr))
+        data, ancdata, flags, address = self.receiver.recvmsg(16)
+        self.assertEqual(b'abcde', data)
+        self.assertEqual([], ancdata)
+        self.assertEqual(self.sender.getsockname(), address)
+
+    def test_recvmsg_into(self):
+        self.sender.sendmsg([b'0123', b'456789'], [], 0, self.receiver.getsockname())
+        a = bytearray(3)
+        b = bytearray(10)
+        nbytes, ancdata, flags, address = self.receiver.recvmsg_into([a, memoryview(b)[2:]])
+        self.assertEqual(10, nbytes)
+        self.assertEqual(b'012', a)
+        self.assertEqual(b'\0\x003456789\0', b)
+        self.assertEqual(self.sender.getsockname(), address)
+
+    def test_connected_sendmsg(self):
+        self.sender.connect(self.receiver.getsockname())
+        self.assertEqual(3, self.sender.sendmsg([b'x', b'yz']))
+        self.assertEqual(b'xyz', self.receiver.recv(16))
+
+    def test_errors(self):
+        with self.assertRaises(ValueError):
+            self.receiver.recvmsg(-1)
+        with self.assertRaises(TypeError):
+            self.sender.sendmsg(42)
+        with self.assertRaises(TypeError):
+            self.receiver.recvmsg_into([b'read-only'])
@@ -269,3 +269,94 @@ def test_pack_varargs():
     except TypeError:
         raised = True
     assert raised
+
+
+def test_native_alignment():
+    assert struct.calcsize('@bi') == 8
+    assert struct.calcsize('=bi') == 5
+    assert struct.calcsize('@biq') == 16
+    assert struct.calcsize('@ib') == 5
+    assert struct.calcsize('@i0q') == 8
+    assert struct.calcsize('3x2h') == 8
+    assert struct.pack('@bxh', 1, 2) == struct.pack('=bxh', 1, 2)
+    assert struct.unpack('@bi', struct.pack('@bi', -1, 123456)) == (-1, 123456)
+
+
+def test_range_errors():
+    for fmt, bad in [('b', 128), ('b', -129), ('B', 256), ('B', -1), ('<h', 1 << 15), ('<H', -1),
+                     ('<i', 1 << 31), ('<I', 1 << 32), ('<q', 1 << 63), ('<Q', -1), ('<Q', 1 << 64),
+                     ('h', 1 << 15), ('H', 1 << 16)]:
+        assert_raises((struct.error, OverflowError), struct.pack, fmt, bad)
+    assert_raises(struct.error, struct.pack, 'i', 'a')
+    assert_raises(struct.error, struct.pack, 'i', 1.0)
+    assert_raises(struct.error, struct.pack, 'd', 'a')
+    assert_raises(struct.error, struct.pack, 'c', b'ab')
+    assert_raises(struct.error, struct.pack, 's', 'abc')
+    assert_raises(struct.error, struct.pack, '2i', 1)
+    assert_raises(OverflowError, struct.pack, '<f', 1e300)
+    assert struct.pack('<f', float('inf')) == b'\x00\x00\x80\x7f'
+    assert struct.pack('<Q', (1 << 64) - 1) == b'\xff' * 8
+    assert struct.pack('<q', -(1 << 63)) == b'\x00' * 7 + b'\x80'
+
+
+def test_index_conversion():
+    class Idx:
+        def __index__(self):
+            return 42
+
+    assert struct.pack('<i', Idx()) == b'*\x00\x00\x00'
+    assert struct.pack('<?', Idx()) == b'\x01'
+
+
+def test_bad_formats():
+    assert_raises(struct.error, struct.Struct, 'z')
+    assert_raises(struct.error, struct.Struct, '3')
+    assert_raises(struct.error, struct.Struct, '<P')
+    assert_raises(struct.error, struct.Struct, 'i\0')
+    assert_raises(TypeError, struct.Struct, 42)
+    assert_raises(UnicodeEncodeError, struct.Struct, '\xe9')
+
+
+def test_struct_object():
+    s = struct.Struct(b'<hhl')
+    assert s.format == '<hhl'
+    assert s.size == 8
+    assert s.pack(1, 2, 3) == b'\x01\x00\x02\x00\x03\x00\x00\x00'
+    assert s.unpack(b'\x01\x00\x02\x00\x03\x00\x00\x00') == (1, 2, 3)
+    assert s.unpack(memoryview(b'\x01\x00\x02\x00\x03\x00\x00\x00')) == (1, 2, 3)
+    assert_raises(struct.error, s.unpack, b'\x01\x00')
+    assert struct.error.__name__ == 'error'
+    assert struct.error.__module__ == 'struct'
+
+
+def test_pack_into_offsets():
+    s = struct.Struct('<hh')
+    buf = bytearray(b'\xff' * 8)
+    s.pack_into(buf, -4, 1, 2)
+    assert buf == b'\xff\xff\xff\xff\x01\x00\x02\x00'
+    s.pack_into(memoryview(buf), 0, 3, 4)
+    assert buf == b'\x03\x00\x04\x00\x01\x00\x02\x00'
+    assert_raises(struct.error, s.pack_into, buf, -2, 1, 2)
+    assert_raises(struct.error, s.pack_into, buf, -10, 1, 2)
+    assert_raises(struct.error, s.pack_into, buf, 6, 1, 2)
+    assert_raises(struct.error, s.pack_into, buf)
+    assert_raises(struct.error, s.pack_into, buf, 0, 1)
+    assert_raises(TypeError, s.pack_into, b'12345678', 0, 1, 2)
+    assert s.unpack_from(buf, -4) == (1, 2)
+    assert_raises(struct.error, s.unpack_from, buf, -2)
+    assert_raises(struct.error, s.unpack_from, buf, -10)
+
+
+def test_pascal_strings():
+    assert struct.pack('5p', b'abc') == b'\x03abc\x00'
+    assert struct.pack('3p', b'abcdef') == b'\x02ab'
+    assert struct.unpack('5p', b'\x03abc\x00') == (b'abc',)
+    assert struct.unpack('3p', b'\x09ab') == (b'ab',)
+    assert struct.pack('2s', bytearray(b'xyz')) == b'xy'
+
+
+def test_clearcache():
+    for i in range(200):
+        assert struct.calcsize('%dx' % i) == i
+    struct._clearcache()
+    assert struct.pack('<2h', 1, 2) == b'\x01\x00\x02\x00'
@@ -1,4 +1,4 @@
-# Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -152,6 +152,45 @@ if syscfg.get_config_var('WITH_THREAD'):
                 time.sleep(POLL_SLEEP)
             self.assertEqual(thread._count(), orig)
 
+        def test_switch_interval(self):
+            orig = sys.getswitchinterval()
+            try:
+                sys.setswitchinterval(0.001)
+                self.assertAlmostEqual(sys.getswitchinterval(), 0.001, delta=1e-9)
+                self.assertRaises(ValueError, sys.setswitchinterval, 0.0)
+            finally:
+                sys.setswitchinterval(orig)
+
+        @unittest.skipUnless(sys.implementation.name == "graalpython", "GraalPython specific")
+        def test_gil_stats(self):
+            counter = [0]
+            done = thread.allocate_lock()
+            done.acquire()
+
+            def task():
+                for i in range(100000):
+                    counter[0] += 1
+                done.release()
+
+            sys_interval = sys.getswitchinterval()
+            try:
+                sys.setswitchinterval(0.0001)
+                thread.start_new_thread(task, ())
+                for i in range(100000):
+                    counter[0] += 1
+                done.acquire()
+            finally:
+                sys.setswitchinterval(sys_interval)
+            stats = __graalpython__.get_gil_stats()
+            for key in ("acquire_count", "contended_acquire_count", "wait_time_ns", "max_wait_time_ns",
+                        "hold_time_ns", "forced_switch_count", "switch_interval_ns"):
+                self.assertIn(key, stats)
+                self.assertGreaterEqual(stats[key], 0)
+            self.assertGreater(stats["acquire_count"], 0)
+            self.assertGreaterEqual(stats["acquire_count"], stats["contended_acquire_count"])
+            self.assertGreaterEqual(stats["wait_time_ns"], stats["max_wait_time_ns"])
+            self.assertAlmostEqual(stats["switch_interval_ns"], sys_interval * 1e9, delta=1000)
+
         # def test_save_exception_state_on_error(self):
         #     # See issue #14474
         #     def task():
@@ -39,6 +39,7 @@ import org.graalvm.options.OptionValues;
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.MarshalModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.sre.TRegexCache;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
@@ -72,6 +73,7 @@ import com.oracle.graal.python.pegparser.ParserErrorCallback;
 import com.oracle.graal.python.pegparser.ParserTokenizer;
 import com.oracle.graal.python.pegparser.sst.ExprTy;
 import com.oracle.graal.python.pegparser.sst.ModTy;
+import com.oracle.graal.python.runtime.CodeUnitCache;
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
@@ -260,6 +262,12 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
      */
     public final ConcurrentHashMap<String, Semaphore> namedSemaphores = new ConcurrentHashMap<>();
 
+    /**
+     * Compiled TRegex objects shared between all contexts of this engine, see
+     * {@link TRegexCache}.
+     */
+    public final TRegexCache tregexCache = new TRegexCache();
+
     @CompilationFinal(dimensions = 1) private volatile Object[] engineOptionsStorage;
     @CompilationFinal private volatile OptionValues engineOptions;
 
@@ -505,6 +513,14 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     }
 
     public RootCallTarget parseForBytecodeInterpreter(PythonContext context, Source source, InputType type, boolean topLevel, int optimize) {
+        CodeUnitCache cache = null;
+        if (type == InputType.FILE && isCacheableMimeType(source.getMimeType())) {
+            cache = CodeUnitCache.create(context, source, optimize);
+        }
+        CodeUnit co = cache != null ? cache.load() : null;
+        if (co != null) {
+            return createBytecodeCallTarget(context, source, co, topLevel);
+        }
         ParserTokenizer tokenizer = new ParserTokenizer(source.getCharacters().toString());
         com.oracle.graal.python.pegparser.NodeFactory factory = new NodeFactoryImp();
         ParserErrorCallback errorCb = (errorType, startOffset, endOffset, message) -> {
@@ -526,20 +542,11 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
                 throw raiseSyntaxError(source, ParserErrorCallback.ErrorType.Syntax, 0, 0, "invalid syntax");
             }
             CompilationUnit cu = compiler.compile(mod, EnumSet.noneOf(Compiler.Flags.class), optimize);
-            CodeUnit co = cu.assemble(0);
-            PBytecodeRootNode bytecodeRootNode = new PBytecodeRootNode(this, co, source);
-            GilNode gil = GilNode.getUncached();
-            boolean wasAcquired = gil.acquire(context, bytecodeRootNode);
-            try {
-                bytecodeRootNode.triggerDeprecationWarnings();
-            } finally {
-                gil.release(context, wasAcquired);
-            }
-            RootNode rootNode = bytecodeRootNode;
-            if (topLevel && context.isCoreInitialized()) {
-                rootNode = new TopLevelExceptionHandler(this, bytecodeRootNode, source);
+            co = cu.assemble(0);
+            if (cache != null) {
+                cache.store(co);
             }
-            return PythonUtils.getOrCreateCallTarget(rootNode);
+            return createBytecodeCallTarget(context, source, co, topLevel);
         } catch (PException e) {
             if (topLevel) {
                 PythonUtils.getOrCreateCallTarget(new TopLevelExceptionHandler(this, e)).call();
@@ -548,6 +555,30 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         }
     }
 
+    private RootCallTarget createBytecodeCallTarget(PythonContext context, Source source, CodeUnit co, boolean topLevel) {
+        PBytecodeRootNode bytecodeRootNode = new PBytecodeRootNode(this, co, source);
+        GilNode gil = GilNode.getUncached();
+        boolean wasAcquired = gil.acquire(context, bytecodeRootNode);
+        try {
+            bytecodeRootNode.triggerDeprecationWarnings();
+        } finally {
+            gil.release(context, wasAcquired);
+        }
+        RootNode rootNode = bytecodeRootNode;
+        if (topLevel && context.isCoreInitialized()) {
+            rootNode = new TopLevelExceptionHandler(this, bytecodeRootNode, source);
+        }
+        return PythonUtils.getOrCreateCallTarget(rootNode);
+    }
+
+    /**
+     * Code compiled by the {@code compile} builtin is not cached by {@link CodeUnitCache}, because
+     * when it comes from a module file, {@code importlib} already writes it to a {@code .pyc} file.
+     */
+    private static boolean isCacheableMimeType(String mimeType) {
+        return mimeType == null || MIME_TYPE.equals(mimeType) || MIME_TYPE_SOURCE_FOR_BYTECODE.equals(mimeType);
+    }
+
     private PException raiseSyntaxError(Source source, ParserErrorCallback.ErrorType errorType, int startOffset, int endOffset, String message) {
         Node location = new Node() {
             @Override
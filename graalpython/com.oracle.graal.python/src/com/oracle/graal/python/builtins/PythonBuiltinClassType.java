@@ -149,6 +149,8 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PRLock("RLock", "_thread"),
     PSemLock("SemLock", "_multiprocessing"),
     PSocket("socket", "_socket"),
+    PPoll("poll", Flags.PRIVATE_DERIVED_WODICT),
+    PEpoll("epoll", null, "select", Flags.PUBLIC_BASE_WODICT),
     PStaticmethod("staticmethod", BUILTINS, Flags.PUBLIC_BASE_WDICT),
     PClassmethod("classmethod", BUILTINS, Flags.PUBLIC_BASE_WDICT),
     PInstancemethod("instancemethod", BUILTINS, Flags.PUBLIC_BASE_WDICT),
@@ -161,7 +163,20 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PicklerMemoProxy("PicklerMemoProxy", "_pickle"),
     UnpicklerMemoProxy("UnpicklerMemoProxy", "_pickle"),
     Unpickler("Unpickler", "_pickle"),
-    PickleBuffer("PickleBuffer", "_pickle"),
+    PickleBuffer("PickleBuffer", "_graalpython_pickle", "pickle", Flags.PUBLIC_BASE_WODICT),
+    PSREPattern("Pattern", "_sre", "re", Flags.PUBLIC_DERIVED_WODICT),
+    PSREMatch("Match", "_sre", "re", Flags.PUBLIC_DERIVED_WODICT),
+    PSREScanner("SRE_Scanner", "_sre", Flags.PUBLIC_DERIVED_WODICT),
+    PDate("date", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PDateTime("datetime", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTime("time", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTimeDelta("timedelta", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTzInfo("tzinfo", "_datetime", "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTimeZone("timezone", "_datetime", "datetime", Flags.PUBLIC_DERIVED_WODICT),
+    PDecimal("Decimal", "_decimal", "decimal", Flags.PUBLIC_BASE_WODICT),
+    PDecimalContext("Context", "_decimal", "decimal", Flags.PUBLIC_BASE_WODICT),
+    PDecimalSignalDict("SignalDictMixin", Flags.PRIVATE_DERIVED_WODICT),
+    PDecimalContextManager("ContextManager", Flags.PRIVATE_DERIVED_WODICT),
 
     // bz2
     BZ2Compressor("BZ2Compressor", "_bz2"),
@@ -175,6 +190,9 @@ public enum PythonBuiltinClassType implements TruffleObject {
     ZlibCompress("Compress", "zlib"),
     ZlibDecompress("Decompress", "zlib"),
 
+    // hashlib
+    HashlibHash("HASH", "_hashlib", Flags.PUBLIC_DERIVED_WODICT),
+
     // io
     PIOBase("_IOBase", "_io", Flags.PUBLIC_BASE_WDICT),
     PRawIOBase("_RawIOBase", "_io"),
@@ -316,7 +334,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
     ZLibError("error", "zlib", Flags.EXCEPTION),
     CSVError("Error", "_csv", Flags.EXCEPTION),
     LZMAError("LZMAError", "_lzma", Flags.EXCEPTION),
-    StructError("StructError", "_struct", Flags.EXCEPTION),
+    StructError("error", "_struct", "struct", Flags.EXCEPTION),
     PickleError("PickleError", "_pickle", Flags.EXCEPTION),
     PicklingError("PicklingError", "_pickle", Flags.EXCEPTION),
     UnpicklingError("UnpicklingError", "_pickle", Flags.EXCEPTION),
@@ -681,6 +699,8 @@ public enum PythonBuiltinClassType implements TruffleObject {
         PThreadInfo.base = PTuple;
         PUnraisableHookArgs.base = PTuple;
         PDefaultDict.base = PDict;
+        PDateTime.base = PDate;
+        PTimeZone.base = PTzInfo;
 
         PArrayIterator.type = PythonClass;
         PSocket.type = PythonClass;
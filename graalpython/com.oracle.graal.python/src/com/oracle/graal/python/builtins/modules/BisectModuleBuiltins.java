@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyListCheckExactNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.lib.PyObjectSizeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Native implementation of the {@code _bisect} accelerator module. Exact lists backed by
+ * {@code int}, {@code long} or {@code double} storages are searched with primitive comparisons
+ * when the needle has the matching type. Any other sequence, including list subclasses, is accessed
+ * via {@code __getitem__} and compared with {@code <}, exactly like CPython does.
+ */
+@CoreFunctions(defineModule = "_bisect")
+public class BisectModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BisectModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Returns the insertion index of {@code x} in the sorted sequence {@code a}, searching in
+     * {@code a[lo:hi]}. A {@code hi} of {@code -1} means {@code len(a)}. If {@code right} is
+     * {@code true}, the index is after any existing entries equal to {@code x}, otherwise before.
+     */
+    abstract static class BisectNode extends PNodeWithRaise {
+
+        abstract long execute(VirtualFrame frame, Object a, Object x, long lo, long hi, boolean right);
+
+        @Specialization(guards = {"lo >= 0", "checkExactNode.execute(a)", "isIntStorage(a)"}, limit = "1")
+        long doInt(PList a, int x, long lo, long hi, boolean right,
+                        @SuppressWarnings("unused") @Cached PyListCheckExactNode checkExactNode) {
+            IntSequenceStorage s = (IntSequenceStorage) a.getSequenceStorage();
+            int len = s.length();
+            long l = lo;
+            long h = hi == -1 ? len : hi;
+            while (l < h) {
+                int mid = checkIndex((l + h) >>> 1, len);
+                int item = s.getIntItemNormalized(mid);
+                if (right ? x < item : !(item < x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization(guards = {"lo >= 0", "checkExactNode.execute(a)", "isLongStorage(a)"}, limit = "1")
+        long doLong(PList a, long x, long lo, long hi, boolean right,
+                        @SuppressWarnings("unused") @Cached PyListCheckExactNode checkExactNode) {
+            LongSequenceStorage s = (LongSequenceStorage) a.getSequenceStorage();
+            int len = s.length();
+            long l = lo;
+            long h = hi == -1 ? len : hi;
+            while (l < h) {
+                int mid = checkIndex((l + h) >>> 1, len);
+                long item = s.getLongItemNormalized(mid);
+                if (right ? x < item : !(item < x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization(guards = {"lo >= 0", "checkExactNode.execute(a)", "isLongStorage(a)"}, limit = "1")
+        long doLongInt(PList a, int x, long lo, long hi, boolean right,
+                        @Cached PyListCheckExactNode checkExactNode) {
+            return doLong(a, x, lo, hi, right, checkExactNode);
+        }
+
+        @Specialization(guards = {"lo >= 0", "checkExactNode.execute(a)", "isDoubleStorage(a)"}, limit = "1")
+        long doDouble(PList a, double x, long lo, long hi, boolean right,
+                        @SuppressWarnings("unused") @Cached PyListCheckExactNode checkExactNode) {
+            DoubleSequenceStorage s = (DoubleSequenceStorage) a.getSequenceStorage();
+            int len = s.length();
+            long l = lo;
+            long h = hi == -1 ? len : hi;
+            while (l < h) {
+                int mid = checkIndex((l + h) >>> 1, len);
+                double item = s.getDoubleItemNormalized(mid);
+                if (right ? x < item : !(item < x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization
+        long doGeneric(VirtualFrame frame, Object a, Object x, long lo, long hi, boolean right,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached PyObjectGetItem getItemNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            if (lo < 0) {
+                throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "lo");
+            }
+            long l = lo;
+            long h = hi == -1 ? sizeNode.execute(frame, a) : hi;
+            while (l < h) {
+                long mid = (l + h) >>> 1;
+                Object item = getItemNode.execute(frame, a, mid);
+                if (right ? ltNode.execute(frame, x, item) : !ltNode.execute(frame, item, x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        private int checkIndex(long idx, int len) {
+            if (idx >= len) {
+                throw raise(IndexError, ErrorMessages.LIST_INDEX_OUT_OF_RANGE);
+            }
+            return (int) idx;
+        }
+    }
+
+    abstract static class InsortNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, Object a, Object x, long lo, long hi, boolean right);
+
+        @Specialization
+        static void insort(VirtualFrame frame, Object a, Object x, long lo, long hi, boolean right,
+                        @Cached BisectNode bisectNode,
+                        @Cached PyListCheckExactNode checkExactNode,
+                        @Cached SequenceStorageNodes.InsertItemNode insertItemNode,
+                        @Cached PyObjectCallMethodObjArgs callInsertNode) {
+            long index = bisectNode.execute(frame, a, x, lo, hi, right);
+            if (checkExactNode.execute(a)) {
+                PList list = (PList) a;
+                SequenceStorage s = list.getSequenceStorage();
+                list.setSequenceStorage(insertItemNode.execute(s, (int) Math.min(index, s.length()), x));
+            } else {
+                callInsertNode.execute(frame, a, "insert", index, x);
+            }
+        }
+    }
+
+    @Builtin(name = "bisect_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.LongIndex, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectRightNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static long bisect(VirtualFrame frame, Object a, Object x, long lo, long hi,
+                        @Cached BisectNode bisectNode) {
+            return bisectNode.execute(frame, a, x, lo, hi, true);
+        }
+    }
+
+    @Builtin(name = "bisect_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.LongIndex, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectLeftNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static long bisect(VirtualFrame frame, Object a, Object x, long lo, long hi,
+                        @Cached BisectNode bisectNode) {
+            return bisectNode.execute(frame, a, x, lo, hi, false);
+        }
+    }
+
+    @Builtin(name = "insort_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.LongIndex, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortRightNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PNone insort(VirtualFrame frame, Object a, Object x, long lo, long hi,
+                        @Cached InsortNode insortNode) {
+            insortNode.execute(frame, a, x, lo, hi, true);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "insort_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.LongIndex, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortLeftNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PNone insort(VirtualFrame frame, Object a, Object x, long lo, long hi,
+                        @Cached InsortNode insortNode) {
+            insortNode.execute(frame, a, x, lo, hi, false);
+            return PNone.NONE;
+        }
+    }
+}
@@ -71,16 +71,19 @@ import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.code.CodeNodes;
 import com.oracle.graal.python.builtins.objects.code.PCode;
+import com.oracle.graal.python.builtins.objects.common.CompactHashingStorage;
 import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
 import com.oracle.graal.python.builtins.objects.common.HashMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.LongHashingStorage;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum.ErrorAndMessagePair;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
@@ -109,6 +112,7 @@ import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonContext.GilStatistics;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonExitException;
@@ -549,6 +553,26 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "get_gil_stats", minNumOfPositionalArgs = 0, doc = "Returns the GIL contention counters of this context. All times are in nanoseconds.")
+    @GenerateNodeFactory
+    abstract static class GetGilStatsNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PDict doIt() {
+            PythonContext context = getContext();
+            GilStatistics stats = context.getGilStatistics();
+            return factory().createDict(new PKeyword[]{
+                            new PKeyword("acquire_count", stats.acquireCount),
+                            new PKeyword("contended_acquire_count", stats.contendedAcquireCount),
+                            new PKeyword("wait_time_ns", stats.waitTime),
+                            new PKeyword("max_wait_time_ns", stats.maxWaitTime),
+                            new PKeyword("hold_time_ns", stats.holdTime),
+                            new PKeyword("forced_switch_count", stats.forcedSwitchCount),
+                            new PKeyword("switch_interval_ns", context.getSwitchIntervalNanos())
+            });
+        }
+    }
+
     // Internal builtin used for testing: changes strategy of newly allocated set or map
     @Builtin(name = "set_storage_strategy", minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
@@ -577,6 +601,10 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
                     return new DynamicObjectStorage(lang);
                 case "economicmap":
                     return EconomicMapStorage.create();
+                case "compact":
+                    return new CompactHashingStorage();
+                case "long":
+                    return new LongHashingStorage();
                 default:
                     throw raise(PythonBuiltinClassType.ValueError, "Unknown storage strategy name");
             }
@@ -0,0 +1,524 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.IndexNodes.NormalizeIndexNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.builtins.ListNodes;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Native implementation of the {@code _heapq} accelerator module. The heap is always a
+ * {@link PList}. Heaps backed by {@code int}, {@code long} or {@code double} storages are sifted
+ * with primitive comparisons directly on the storage, everything else goes through
+ * {@link PyObjectRichCompareBool.LtNode} and re-reads the storage after each comparison, since
+ * {@code __lt__} may mutate the list.
+ */
+@CoreFunctions(defineModule = "_heapq")
+public class HeapqModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HeapqModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Follows the path to the root from {@code pos} and moves the item at {@code pos} up until its
+     * parent is not greater (or, for max-heaps, not smaller) than the item. Corresponds to
+     * CPython's {@code siftdown} and {@code siftdown_max}.
+     */
+    abstract static class SiftDownNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, PList heap, int startpos, int pos, boolean max);
+
+        @Specialization(guards = "isIntStorage(heap)")
+        static void doInt(PList heap, int startpos, int pos, boolean max) {
+            IntSequenceStorage s = (IntSequenceStorage) heap.getSequenceStorage();
+            int newitem = s.getIntItemNormalized(pos);
+            int cur = pos;
+            while (cur > startpos) {
+                int parentpos = (cur - 1) >> 1;
+                int parent = s.getIntItemNormalized(parentpos);
+                if (!(max ? parent < newitem : newitem < parent)) {
+                    break;
+                }
+                s.setIntItemNormalized(cur, parent);
+                cur = parentpos;
+            }
+            s.setIntItemNormalized(cur, newitem);
+        }
+
+        @Specialization(guards = "isLongStorage(heap)")
+        static void doLong(PList heap, int startpos, int pos, boolean max) {
+            LongSequenceStorage s = (LongSequenceStorage) heap.getSequenceStorage();
+            long newitem = s.getLongItemNormalized(pos);
+            int cur = pos;
+            while (cur > startpos) {
+                int parentpos = (cur - 1) >> 1;
+                long parent = s.getLongItemNormalized(parentpos);
+                if (!(max ? parent < newitem : newitem < parent)) {
+                    break;
+                }
+                s.setLongItemNormalized(cur, parent);
+                cur = parentpos;
+            }
+            s.setLongItemNormalized(cur, newitem);
+        }
+
+        @Specialization(guards = "isDoubleStorage(heap)")
+        static void doDouble(PList heap, int startpos, int pos, boolean max) {
+            DoubleSequenceStorage s = (DoubleSequenceStorage) heap.getSequenceStorage();
+            double newitem = s.getDoubleItemNormalized(pos);
+            int cur = pos;
+            while (cur > startpos) {
+                int parentpos = (cur - 1) >> 1;
+                double parent = s.getDoubleItemNormalized(parentpos);
+                if (!(max ? parent < newitem : newitem < parent)) {
+                    break;
+                }
+                s.setDoubleItemNormalized(cur, parent);
+                cur = parentpos;
+            }
+            s.setDoubleItemNormalized(cur, newitem);
+        }
+
+        @Specialization(guards = {"!isIntStorage(heap)", "!isLongStorage(heap)", "!isDoubleStorage(heap)"})
+        void doGeneric(VirtualFrame frame, PList heap, int startpos, int pos, boolean max,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            SequenceStorage s = heap.getSequenceStorage();
+            int size = s.length();
+            Object newitem = getItemNode.execute(s, pos);
+            int cur = pos;
+            while (cur > startpos) {
+                int parentpos = (cur - 1) >> 1;
+                Object parent = getItemNode.execute(s, parentpos);
+                boolean lt = max ? ltNode.execute(frame, parent, newitem) : ltNode.execute(frame, newitem, parent);
+                s = checkSize(heap, size);
+                if (!lt) {
+                    break;
+                }
+                // the comparison may have reordered the list, so swap whatever is there now
+                parent = getItemNode.execute(s, parentpos);
+                newitem = getItemNode.execute(s, cur);
+                setItemNode.execute(s, parentpos, newitem);
+                setItemNode.execute(s, cur, parent);
+                cur = parentpos;
+            }
+        }
+
+        final SequenceStorage checkSize(PList heap, int size) {
+            SequenceStorage s = heap.getSequenceStorage();
+            if (s.length() != size) {
+                throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "list");
+            }
+            return s;
+        }
+    }
+
+    /**
+     * Moves the smaller (or, for max-heaps, larger) child up until hitting a leaf and then sifts
+     * the item that was at {@code pos} back down into place. Corresponds to CPython's
+     * {@code siftup} and {@code siftup_max}.
+     */
+    abstract static class SiftUpNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, PList heap, int pos, boolean max);
+
+        @Specialization(guards = "isIntStorage(heap)")
+        static void doInt(PList heap, int pos, boolean max) {
+            IntSequenceStorage s = (IntSequenceStorage) heap.getSequenceStorage();
+            int endpos = s.length();
+            int newitem = s.getIntItemNormalized(pos);
+            int cur = pos;
+            int limit = endpos >> 1;
+            while (cur < limit) {
+                int childpos = 2 * cur + 1;
+                if (childpos + 1 < endpos) {
+                    int left = s.getIntItemNormalized(childpos);
+                    int right = s.getIntItemNormalized(childpos + 1);
+                    if (!(max ? right < left : left < right)) {
+                        childpos++;
+                    }
+                }
+                s.setIntItemNormalized(cur, s.getIntItemNormalized(childpos));
+                cur = childpos;
+            }
+            s.setIntItemNormalized(cur, newitem);
+            SiftDownNode.doInt(heap, pos, cur, max);
+        }
+
+        @Specialization(guards = "isLongStorage(heap)")
+        static void doLong(PList heap, int pos, boolean max) {
+            LongSequenceStorage s = (LongSequenceStorage) heap.getSequenceStorage();
+            int endpos = s.length();
+            long newitem = s.getLongItemNormalized(pos);
+            int cur = pos;
+            int limit = endpos >> 1;
+            while (cur < limit) {
+                int childpos = 2 * cur + 1;
+                if (childpos + 1 < endpos) {
+                    long left = s.getLongItemNormalized(childpos);
+                    long right = s.getLongItemNormalized(childpos + 1);
+                    if (!(max ? right < left : left < right)) {
+                        childpos++;
+                    }
+                }
+                s.setLongItemNormalized(cur, s.getLongItemNormalized(childpos));
+                cur = childpos;
+            }
+            s.setLongItemNormalized(cur, newitem);
+            SiftDownNode.doLong(heap, pos, cur, max);
+        }
+
+        @Specialization(guards = "isDoubleStorage(heap)")
+        static void doDouble(PList heap, int pos, boolean max) {
+            DoubleSequenceStorage s = (DoubleSequenceStorage) heap.getSequenceStorage();
+            int endpos = s.length();
+            double newitem = s.getDoubleItemNormalized(pos);
+            int cur = pos;
+            int limit = endpos >> 1;
+            while (cur < limit) {
+                int childpos = 2 * cur + 1;
+                if (childpos + 1 < endpos) {
+                    double left = s.getDoubleItemNormalized(childpos);
+                    double right = s.getDoubleItemNormalized(childpos + 1);
+                    if (!(max ? right < left : left < right)) {
+                        childpos++;
+                    }
+                }
+                s.setDoubleItemNormalized(cur, s.getDoubleItemNormalized(childpos));
+                cur = childpos;
+            }
+            s.setDoubleItemNormalized(cur, newitem);
+            SiftDownNode.doDouble(heap, pos, cur, max);
+        }
+
+        @Specialization(guards = {"!isIntStorage(heap)", "!isLongStorage(heap)", "!isDoubleStorage(heap)"})
+        void doGeneric(VirtualFrame frame, PList heap, int pos, boolean max,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode,
+                        @Cached SiftDownNode siftDownNode) {
+            SequenceStorage s = heap.getSequenceStorage();
+            int endpos = s.length();
+            int cur = pos;
+            int limit = endpos >> 1;
+            while (cur < limit) {
+                int childpos = 2 * cur + 1;
+                if (childpos + 1 < endpos) {
+                    Object left = getItemNode.execute(s, childpos);
+                    Object right = getItemNode.execute(s, childpos + 1);
+                    boolean lt = max ? ltNode.execute(frame, right, left) : ltNode.execute(frame, left, right);
+                    s = heap.getSequenceStorage();
+                    if (s.length() != endpos) {
+                        throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "list");
+                    }
+                    if (!lt) {
+                        childpos++;
+                    }
+                }
+                Object child = getItemNode.execute(s, childpos);
+                Object item = getItemNode.execute(s, cur);
+                setItemNode.execute(s, cur, child);
+                setItemNode.execute(s, childpos, item);
+                cur = childpos;
+            }
+            siftDownNode.execute(frame, heap, pos, cur, max);
+        }
+    }
+
+    abstract static class HeapPopNode extends PNodeWithRaise {
+
+        abstract Object execute(VirtualFrame frame, PList heap, boolean max);
+
+        @Specialization
+        Object pop(VirtualFrame frame, PList heap, boolean max,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage s = heap.getSequenceStorage();
+            int n = s.length();
+            if (n == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object lastelt = getItemNode.execute(s, n - 1);
+            if (s instanceof ObjectSequenceStorage) {
+                // do not keep the popped element alive through the spare capacity
+                ((ObjectSequenceStorage) s).setItemNormalized(n - 1, null);
+            }
+            s.setNewLength(n - 1);
+            if (n == 1) {
+                return lastelt;
+            }
+            Object returnitem = getItemNode.execute(s, 0);
+            setItemNode.execute(s, 0, lastelt);
+            siftUpNode.execute(frame, heap, 0, max);
+            return returnitem;
+        }
+    }
+
+    abstract static class HeapReplaceNode extends PNodeWithRaise {
+
+        abstract Object execute(VirtualFrame frame, PList heap, Object item, boolean max);
+
+        @Specialization
+        Object replace(VirtualFrame frame, PList heap, Object item, boolean max,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage s = heap.getSequenceStorage();
+            if (s.length() == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object returnitem = getItemNode.execute(s, 0);
+            SequenceStorage newStorage = setItemNode.executeInt(frame, s, 0, item);
+            if (newStorage != s) {
+                heap.setSequenceStorage(newStorage);
+            }
+            siftUpNode.execute(frame, heap, 0, max);
+            return returnitem;
+        }
+
+        static SequenceStorageNodes.SetItemNode createSetItem() {
+            return SequenceStorageNodes.SetItemNode.create(NormalizeIndexNode.forListAssign(), () -> ListGeneralizationNode.create());
+        }
+    }
+
+    abstract static class HeapifyNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, PList heap, boolean max);
+
+        @Specialization
+        static void heapify(VirtualFrame frame, PList heap, boolean max,
+                        @Cached SiftUpNode siftUpNode) {
+            int n = heap.getSequenceStorage().length();
+            // Transform bottom-up. The largest index there's any point to looking at is the largest
+            // with a child index in-range, so must have 2*i + 1 < n, or i < (n-1)/2. If n is even =
+            // 2*j, this is (2*j-1)/2 = j-1/2 so j-1 is the largest, which is n//2 - 1. If n is odd =
+            // 2*j+1, this is (2*j+1-1)/2 = j so j-1 is the largest, and that's again n//2-1.
+            for (int i = (n >> 1) - 1; i >= 0; i--) {
+                siftUpNode.execute(frame, heap, i, max);
+            }
+        }
+    }
+
+    @Builtin(name = "heappush", minNumOfPositionalArgs = 2, parameterNames = {"heap", "item"})
+    @GenerateNodeFactory
+    abstract static class HeapPushNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static PNone push(VirtualFrame frame, PList heap, Object item,
+                        @Cached ListNodes.AppendNode appendNode,
+                        @Cached SiftDownNode siftDownNode) {
+            appendNode.execute(heap, item);
+            siftDownNode.execute(frame, heap, 0, heap.getSequenceStorage().length() - 1, false);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heappop", minNumOfPositionalArgs = 1, parameterNames = {"heap"})
+    @GenerateNodeFactory
+    abstract static class HeapqPopNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object pop(VirtualFrame frame, PList heap,
+                        @Cached HeapPopNode popNode) {
+            return popNode.execute(frame, heap, false);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heappop_max", minNumOfPositionalArgs = 1, parameterNames = {"heap"})
+    @GenerateNodeFactory
+    abstract static class HeapqPopMaxNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object pop(VirtualFrame frame, PList heap,
+                        @Cached HeapPopNode popNode) {
+            return popNode.execute(frame, heap, true);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapreplace", minNumOfPositionalArgs = 2, parameterNames = {"heap", "item"})
+    @GenerateNodeFactory
+    abstract static class HeapqReplaceNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static Object replace(VirtualFrame frame, PList heap, Object item,
+                        @Cached HeapReplaceNode replaceNode) {
+            return replaceNode.execute(frame, heap, item, false);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heapreplace_max", minNumOfPositionalArgs = 2, parameterNames = {"heap", "item"})
+    @GenerateNodeFactory
+    abstract static class HeapqReplaceMaxNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static Object replace(VirtualFrame frame, PList heap, Object item,
+                        @Cached HeapReplaceNode replaceNode) {
+            return replaceNode.execute(frame, heap, item, true);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heappushpop", minNumOfPositionalArgs = 2, parameterNames = {"heap", "item"})
+    @GenerateNodeFactory
+    abstract static class HeapPushPopNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        Object pushPop(VirtualFrame frame, PList heap, Object item,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode,
+                        @Cached HeapReplaceNode replaceNode) {
+            SequenceStorage s = heap.getSequenceStorage();
+            if (s.length() == 0) {
+                return item;
+            }
+            Object top = getItemNode.execute(s, 0);
+            if (!ltNode.execute(frame, top, item)) {
+                return item;
+            }
+            // the comparison may have emptied the list; the replace node checks that
+            return replaceNode.execute(frame, heap, item, false);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object heap, Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapify", minNumOfPositionalArgs = 1, parameterNames = {"heap"})
+    @GenerateNodeFactory
+    abstract static class HeapqHeapifyNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PNone heapify(VirtualFrame frame, PList heap,
+                        @Cached HeapifyNode heapifyNode) {
+            heapifyNode.execute(frame, heap, false);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heapify_max", minNumOfPositionalArgs = 1, parameterNames = {"heap"})
+    @GenerateNodeFactory
+    abstract static class HeapqHeapifyMaxNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PNone heapify(VirtualFrame frame, PList heap,
+                        @Cached HeapifyNode heapifyNode) {
+            heapifyNode.execute(frame, heap, true);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+}
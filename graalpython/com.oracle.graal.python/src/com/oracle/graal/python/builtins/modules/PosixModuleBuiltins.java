@@ -78,10 +78,12 @@ import com.oracle.graal.python.lib.PyLongAsLongNode;
 import com.oracle.graal.python.lib.PyNumberIndexNode;
 import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
 import com.oracle.graal.python.lib.PyObjectSizeNode;
+import com.oracle.graal.python.lib.PySequenceCheckNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
 import com.oracle.graal.python.nodes.expression.BinaryOpNode;
@@ -89,6 +91,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
@@ -650,6 +653,299 @@ public class PosixModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "pread", minNumOfPositionalArgs = 3, parameterNames = {"fd", "length", "offset"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "length", conversion = ClinicConversion.Index)
+    @ArgumentClinic(name = "offset", conversionClass = OffsetConversionNode.class)
+    @GenerateNodeFactory
+    public abstract static class PreadNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.PreadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PBytes doPread(VirtualFrame frame, int fd, int length, long offset,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            if (length < 0) {
+                int error = OSErrorEnum.EINVAL.getNumber();
+                throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+            }
+            while (true) {
+                try {
+                    Buffer result;
+                    gil.release(true);
+                    try {
+                        result = posixLib.pread(getPosixSupport(), fd, length, offset);
+                    } finally {
+                        gil.acquire();
+                    }
+                    return factory().createBytes(result.data, 0, (int) result.length);
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        PythonContext.triggerAsyncActions(this);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "pwrite", minNumOfPositionalArgs = 3, parameterNames = {"fd", "data", "offset"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "data", conversion = ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "offset", conversionClass = OffsetConversionNode.class)
+    @GenerateNodeFactory
+    public abstract static class PwriteNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.PwriteNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        long doPwrite(VirtualFrame frame, int fd, Object dataBuffer, long offset,
+                        @CachedLibrary("dataBuffer") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            try {
+                Buffer data = new Buffer(bufferLib.getInternalOrCopiedByteArray(dataBuffer), bufferLib.getBufferLength(dataBuffer));
+                while (true) {
+                    try {
+                        gil.release(true);
+                        try {
+                            return posixLib.pwrite(getPosixSupport(), fd, data, offset);
+                        } finally {
+                            gil.acquire();
+                        }
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                            PythonContext.triggerAsyncActions(this);
+                        } else {
+                            throw raiseOSErrorFromPosixException(frame, e);
+                        }
+                    }
+                }
+            } finally {
+                bufferLib.release(dataBuffer, frame, this);
+            }
+        }
+    }
+
+    @Builtin(name = "readv", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    public abstract static class ReadvNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.ReadvNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long doReadv(VirtualFrame frame, int fd, Object buffers,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BufferSequenceNode bufferSequenceNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            Object[] items = bufferSequenceNode.execute(frame, buffers, "readv()");
+            Object[] acquired = new Object[items.length];
+            try {
+                // buffers backed by a byte array are read into directly, the others are copied
+                // afterwards
+                Buffer[] data = new Buffer[items.length];
+                for (int i = 0; i < items.length; ++i) {
+                    acquired[i] = bufferAcquireLib.acquireWritable(items[i], frame, this);
+                    int len = bufferLib.getBufferLength(acquired[i]);
+                    data[i] = new Buffer(bufferLib.hasInternalByteArray(acquired[i]) ? bufferLib.getInternalByteArray(acquired[i]) : new byte[len], len);
+                }
+                long n = readv(frame, fd, data, posixLib, errorProfile, gil);
+                long remaining = n;
+                for (int i = 0; i < items.length && remaining > 0; ++i) {
+                    int len = (int) Math.min(data[i].length, remaining);
+                    if (!bufferLib.hasInternalByteArray(acquired[i])) {
+                        bufferLib.writeFromByteArray(acquired[i], 0, data[i].data, 0, len);
+                    }
+                    remaining -= len;
+                }
+                return n;
+            } finally {
+                for (Object buffer : acquired) {
+                    if (buffer != null) {
+                        bufferLib.release(buffer, frame, this);
+                    }
+                }
+            }
+        }
+
+        private long readv(VirtualFrame frame, int fd, Buffer[] data, PosixSupportLibrary posixLib, BranchProfile errorProfile, GilNode gil) {
+            while (true) {
+                try {
+                    gil.release(true);
+                    try {
+                        return posixLib.readv(getPosixSupport(), fd, data);
+                    } finally {
+                        gil.acquire();
+                    }
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        PythonContext.triggerAsyncActions(this);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "writev", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    public abstract static class WritevNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.WritevNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long doWritev(VirtualFrame frame, int fd, Object buffers,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BufferSequenceNode bufferSequenceNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            Object[] items = bufferSequenceNode.execute(frame, buffers, "writev()");
+            Object[] acquired = new Object[items.length];
+            try {
+                Buffer[] data = new Buffer[items.length];
+                for (int i = 0; i < items.length; ++i) {
+                    acquired[i] = bufferAcquireLib.acquireReadonly(items[i], frame, this);
+                    data[i] = new Buffer(bufferLib.getInternalOrCopiedByteArray(acquired[i]), bufferLib.getBufferLength(acquired[i]));
+                }
+                while (true) {
+                    try {
+                        gil.release(true);
+                        try {
+                            return posixLib.writev(getPosixSupport(), fd, data);
+                        } finally {
+                            gil.acquire();
+                        }
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                            PythonContext.triggerAsyncActions(this);
+                        } else {
+                            throw raiseOSErrorFromPosixException(frame, e);
+                        }
+                    }
+                }
+            } finally {
+                for (Object buffer : acquired) {
+                    if (buffer != null) {
+                        bufferLib.release(buffer, frame, this);
+                    }
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "sendfile", minNumOfPositionalArgs = 4, parameterNames = {"out", "in", "offset", "count"})
+    @ArgumentClinic(name = "out", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "in", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.LongIndex)
+    @GenerateNodeFactory
+    public abstract static class SendfileNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.SendfileNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long doSendfile(VirtualFrame frame, int outFd, int inFd, Object offsetObj, long count,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyLongAsLongNode asLongNode,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            long offset = convertOptionalOffset(frame, offsetObj, asLongNode, this);
+            if (count < 0) {
+                throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "count");
+            }
+            while (true) {
+                try {
+                    gil.release(true);
+                    try {
+                        return posixLib.sendfile(getPosixSupport(), outFd, inFd, offset, count);
+                    } finally {
+                        gil.acquire();
+                    }
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        PythonContext.triggerAsyncActions(this);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "copy_file_range", minNumOfPositionalArgs = 3, parameterNames = {"src", "dst", "count", "offset_src", "offset_dst"})
+    @ArgumentClinic(name = "src", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "dst", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.LongIndex)
+    @GenerateNodeFactory
+    public abstract static class CopyFileRangeNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.CopyFileRangeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long doCopyFileRange(VirtualFrame frame, int src, int dst, long count, Object offsetSrcObj, Object offsetDstObj,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyLongAsLongNode asLongNode,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            long offsetSrc = convertOptionalOffset(frame, offsetSrcObj, asLongNode, this);
+            long offsetDst = convertOptionalOffset(frame, offsetDstObj, asLongNode, this);
+            if (count < 0) {
+                throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "count");
+            }
+            while (true) {
+                try {
+                    gil.release(true);
+                    try {
+                        return posixLib.copyFileRange(getPosixSupport(), src, offsetSrc, dst, offsetDst, count);
+                    } finally {
+                        gil.acquire();
+                    }
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        PythonContext.triggerAsyncActions(this);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+        }
+    }
+
     @Builtin(name = "dup", minNumOfPositionalArgs = 1, parameterNames = {"fd"})
     @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
     @GenerateNodeFactory
@@ -2159,6 +2455,42 @@ public class PosixModuleBuiltins extends PythonBuiltins {
     // ------------------
     // Helpers
 
+    /**
+     * Converts an offset that may be {@code None} to the convention used by
+     * {@link PosixSupportLibrary#sendfile}, where a negative offset stands for the current file
+     * position.
+     */
+    static long convertOptionalOffset(VirtualFrame frame, Object offset, PyLongAsLongNode asLongNode, PythonBuiltinBaseNode node) {
+        if (PGuards.isPNone(offset)) {
+            return -1;
+        }
+        long result = asLongNode.execute(frame, offset);
+        if (result < 0) {
+            throw node.raiseOSError(frame, OSErrorEnum.EINVAL);
+        }
+        return result;
+    }
+
+    /**
+     * Converts the {@code buffers} argument of {@code readv} and {@code writev} to an array of
+     * (not yet acquired) buffer objects.
+     */
+    abstract static class BufferSequenceNode extends PNodeWithRaise {
+
+        abstract Object[] execute(VirtualFrame frame, Object buffers, String functionName);
+
+        @Specialization
+        Object[] doGeneric(VirtualFrame frame, Object buffers, String functionName,
+                        @Cached PySequenceCheckNode sequenceCheckNode,
+                        @Cached FastConstructListNode constructListNode,
+                        @Cached ToArrayNode toArrayNode) {
+            if (!sequenceCheckNode.execute(buffers)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S, functionName, 2, "sequence");
+            }
+            return toArrayNode.execute(constructListNode.execute(frame, buffers).getSequenceStorage());
+        }
+    }
+
     /**
      * Helper node that accepts either str or bytes and converts it to {@code PBytes}.
      */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -41,6 +41,16 @@
 package com.oracle.graal.python.builtins.modules;
 
 import static com.oracle.graal.python.runtime.PosixConstants.FD_SETSIZE;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.EPOLLET;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.EPOLLEXCLUSIVE;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.EPOLLONESHOT;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.EPOLLRDHUP;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLERR;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLHUP;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLIN;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLNVAL;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLOUT;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLPRI;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 import static com.oracle.graal.python.util.TimeUtils.SEC_TO_NS;
 
@@ -48,10 +58,14 @@ import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.PythonOS;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.select.PPoller;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
 import com.oracle.graal.python.lib.PyObjectGetItem;
@@ -68,6 +82,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.ChannelNotSelectableE
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.util.ArrayBuilder;
@@ -86,8 +101,39 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 @CoreFunctions(defineModule = "select")
 public class SelectModuleBuiltins extends PythonBuiltins {
 
+    private static final int EPOLL_CLOEXEC = 0x80000;
+
     public SelectModuleBuiltins() {
         builtinConstants.put("error", PythonErrorType.OSError);
+        builtinConstants.put("POLLIN", POLLIN);
+        builtinConstants.put("POLLPRI", POLLPRI);
+        builtinConstants.put("POLLOUT", POLLOUT);
+        builtinConstants.put("POLLERR", POLLERR);
+        builtinConstants.put("POLLHUP", POLLHUP);
+        builtinConstants.put("POLLNVAL", POLLNVAL);
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        super.postInitialize(core);
+        // select.epoll is only published where pollers are backed by a real epoll instance, so
+        // that selectors.DefaultSelector falls back to PollSelector elsewhere
+        PythonContext context = core.getContext();
+        if (PythonOS.getPythonOS() == PythonOS.PLATFORM_LINUX && !"java".equals(PosixSupportLibrary.getUncached().getBackend(context.getPosixSupport()))) {
+            PythonModule select = core.lookupBuiltinModule("select");
+            select.setAttribute(PythonBuiltinClassType.PEpoll.getName(), core.lookupType(PythonBuiltinClassType.PEpoll));
+            // our epoll objects are backed by the same poller, so the event masks are shared
+            select.setAttribute("EPOLLIN", POLLIN);
+            select.setAttribute("EPOLLPRI", POLLPRI);
+            select.setAttribute("EPOLLOUT", POLLOUT);
+            select.setAttribute("EPOLLERR", POLLERR);
+            select.setAttribute("EPOLLHUP", POLLHUP);
+            select.setAttribute("EPOLLRDHUP", EPOLLRDHUP);
+            select.setAttribute("EPOLLEXCLUSIVE", EPOLLEXCLUSIVE);
+            select.setAttribute("EPOLLONESHOT", EPOLLONESHOT);
+            select.setAttribute("EPOLLET", EPOLLET);
+            select.setAttribute("EPOLL_CLOEXEC", EPOLL_CLOEXEC);
+        }
     }
 
     @Override
@@ -95,6 +141,21 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         return SelectModuleBuiltinsFactory.getFactories();
     }
 
+    @Builtin(name = "poll")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBuiltinNode {
+
+        @Specialization
+        PPoller poll(VirtualFrame frame,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            try {
+                return factory().createPoller(PythonBuiltinClassType.PPoll, posixLib.pollerCreate(getPosixSupport()));
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
     @Builtin(name = "select", minNumOfPositionalArgs = 3, parameterNames = {"rlist", "wlist", "xlist", "timeout"})
     @GenerateNodeFactory
     abstract static class SelectNode extends PythonBuiltinNode {
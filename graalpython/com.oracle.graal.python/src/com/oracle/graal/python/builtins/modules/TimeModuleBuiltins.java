@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2021, Oracle and/or its affiliates.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates.
  * Copyright (c) 2013, Regents of the University of California
  *
  * All rights reserved.
@@ -114,7 +114,7 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
     private static final HiddenKey CURRENT_ZONE_ID = new HiddenKey("currentZoneID");
     private static final HiddenKey TIME_SLEPT = new HiddenKey("timeSlept");
 
-    private static final StructSequence.BuiltinTypeDescriptor STRUCT_TIME_DESC = new StructSequence.BuiltinTypeDescriptor(
+    public static final StructSequence.BuiltinTypeDescriptor STRUCT_TIME_DESC = new StructSequence.BuiltinTypeDescriptor(
                     PythonBuiltinClassType.PStructTime,
                     // @formatter:off The formatter joins these lines making it less readable
             "The time value as returned by gmtime(), localtime(), and strptime(), and\n" +
@@ -181,18 +181,26 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
         return System.currentTimeMillis() / 1000.0;
     }
 
-    private static final int TM_YEAR = 0; /* year */
-    private static final int TM_MON = 1; /* month */
-    private static final int TM_MDAY = 2; /* day of the month */
-    private static final int TM_HOUR = 3; /* hours */
-    private static final int TM_MIN = 4; /* minutes */
-    private static final int TM_SEC = 5; /* seconds */
-    private static final int TM_WDAY = 6; /* day of the week */
-    private static final int TM_YDAY = 7; /* day in the year */
-    private static final int TM_ISDST = 8; /* daylight saving time */
+    public static final int TM_YEAR = 0; /* year */
+    public static final int TM_MON = 1; /* month */
+    public static final int TM_MDAY = 2; /* day of the month */
+    public static final int TM_HOUR = 3; /* hours */
+    public static final int TM_MIN = 4; /* minutes */
+    public static final int TM_SEC = 5; /* seconds */
+    public static final int TM_WDAY = 6; /* day of the week */
+    public static final int TM_YDAY = 7; /* day in the year */
+    public static final int TM_ISDST = 8; /* daylight saving time */
+
+    /**
+     * The time zone used by the functions of this module that work with local time.
+     */
+    @TruffleBoundary
+    public static ZoneId getCurrentZoneId(PythonContext context) {
+        return (ZoneId) context.lookupBuiltinModule("time").getAttribute(CURRENT_ZONE_ID);
+    }
 
     @TruffleBoundary
-    private static Object[] getTimeStruct(ZoneId zone, long seconds) {
+    public static Object[] getTimeStruct(ZoneId zone, long seconds) {
         Object[] timeStruct = new Object[11];
         Instant instant = Instant.ofEpochSecond(seconds);
         ZonedDateTime zonedDateTime = LocalDateTime.ofInstant(instant, zone).atZone(zone);
@@ -213,7 +221,7 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
     }
 
     @TruffleBoundary
-    private static int[] getIntLocalTimeStruct(ZoneId zone, long seconds) {
+    public static int[] getIntLocalTimeStruct(ZoneId zone, long seconds) {
         int[] timeStruct = new int[9];
         Instant instant = Instant.ofEpochSecond(seconds);
         ZonedDateTime zonedDateTime = LocalDateTime.ofInstant(instant, zone).atZone(zone);
@@ -344,7 +352,7 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
         }
 
         @TruffleBoundary
-        private static long timeNanoSeconds() {
+        public static long timeNanoSeconds() {
             Instant now = Instant.now();
             // From java we are not able to obtain the nano seconds resolution. It depends on the
             // jdk
@@ -707,7 +715,7 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
         // This taken from JPython + some switches were corrected to provide the
         // same result as CPython
         @TruffleBoundary
-        private static String format(String format, int[] date) {
+        public static String format(String format, int[] date) {
             String s = "";
             int lastc = 0;
             int j;
@@ -54,6 +54,7 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.io.PTextIOBase;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
@@ -100,6 +101,7 @@ public final class CSVModuleBuiltins extends PythonBuiltins {
     }
 
     static final String WRITE = "write";
+    static final String CHUNKSIZE = "chunksize";
     static final String NOT_SET = "NOT_SET";
     static final int NOT_SET_CODEPOINT = -1;
 
@@ -224,7 +226,9 @@ public final class CSVModuleBuiltins extends PythonBuiltins {
         Object createReader(VirtualFrame frame, Object csvfile, Object dialectObj, PKeyword[] kwargs,
                         @Cached PythonObjectFactory pythonObjectFactory,
                         @Cached PyObjectGetIter getIter,
-                        @Cached CallNode callNode) {
+                        @Cached CallNode callNode,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached GetClassNode getClassNode) {
 
             CSVReader reader = pythonObjectFactory.createCSVReader(PythonBuiltinClassType.CSVReader);
 
@@ -233,11 +237,46 @@ public final class CSVModuleBuiltins extends PythonBuiltins {
 
             reader.parseReset();
 
+            PKeyword[] dialectKwargs = kwargs;
+            int chunkSizeIdx = findChunkSize(kwargs);
+            if (chunkSizeIdx != -1) {
+                Object chunkSize = kwargs[chunkSizeIdx].getValue();
+                if (chunkSize != PNone.NONE) {
+                    reader.chunkSize = asIntNode.execute(frame, chunkSize);
+                    if (reader.chunkSize <= 0) {
+                        throw raise(PythonBuiltinClassType.ValueError, "chunksize must be a positive integer");
+                    }
+                }
+                dialectKwargs = new PKeyword[kwargs.length - 1];
+                PythonUtils.arraycopy(kwargs, 0, dialectKwargs, 0, chunkSizeIdx);
+                PythonUtils.arraycopy(kwargs, chunkSizeIdx + 1, dialectKwargs, chunkSizeIdx, kwargs.length - chunkSizeIdx - 1);
+            }
+
             reader.inputIter = getIter.execute(frame, csvfile);
-            reader.dialect = (CSVDialect) callNode.execute(frame, PythonBuiltinClassType.CSVDialect, new Object[]{dialectObj}, kwargs);
+            reader.dialect = (CSVDialect) callNode.execute(frame, PythonBuiltinClassType.CSVDialect, new Object[]{dialectObj}, dialectKwargs);
+
+            if (reader.chunkSize > 0) {
+                /*
+                 * Reading a block consumes input past the rows returned so far, so only do that when
+                 * chunked reading was asked for.
+                 */
+                Object cls = getClassNode.execute(csvfile);
+                if (cls == PythonBuiltinClassType.PTextIOWrapper || cls == PythonBuiltinClassType.PStringIO) {
+                    reader.inputFile = (PTextIOBase) csvfile;
+                }
+            }
 
             return reader;
         }
+
+        private static int findChunkSize(PKeyword[] kwargs) {
+            for (int i = 0; i < kwargs.length; i++) {
+                if (CHUNKSIZE.equals(kwargs[i].getName())) {
+                    return i;
+                }
+            }
+            return -1;
+        }
     }
 
     @Builtin(name = "writer", doc = WRITER_DOC, parameterNames = {"outputfile", "dialect"}, minNumOfPositionalArgs = 1, takesVarKeywordArgs = true)
@@ -687,7 +726,12 @@ public final class CSVModuleBuiltins extends PythonBuiltins {
                     "provided by the dialect.\n" +
                     "\n" +
                     "The returned object is an iterator.  Each iteration returns a row\n" +
-                    "of the CSV file (which can span multiple input lines)";
+                    "of the CSV file (which can span multiple input lines).\n" +
+                    "\n" +
+                    "If the \"chunksize\" keyword argument is given, each iteration returns\n" +
+                    "a list of up to that many rows instead.  Text files and StringIO objects\n" +
+                    "are then read in large blocks, so the file position is undefined until\n" +
+                    "the reader is exhausted.";
 
     private static final String WRITER_DOC = "    csv_writer = csv.writer(fileobj [, dialect='excel']\n" +
                     "                            [optional keyword args])\n" +
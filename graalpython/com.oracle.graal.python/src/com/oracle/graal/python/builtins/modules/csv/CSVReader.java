@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -54,8 +54,11 @@ import static com.oracle.graal.python.builtins.modules.csv.QuoteStyle.QUOTE_NONN
 import java.util.ArrayList;
 
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.io.PTextIOBase;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.lib.PyNumberFloatNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
@@ -77,6 +80,7 @@ public final class CSVReader extends PythonBuiltinObject {
     private static final int NEWLINE_CODEPOINT = "\n".codePointAt(0);
     private static final int CARRIAGE_RETURN_CODEPOINT = "\r".codePointAt(0);
     private static final int SPACE_CODEPOINT = " ".codePointAt(0);
+    private static final int BLOCK_SIZE = 64 * 1024;
 
     enum ReaderState {
         START_RECORD,
@@ -98,6 +102,13 @@ public final class CSVReader extends PythonBuiltinObject {
     int fieldSize; /* size of allocated buffer */
     boolean numericField; /* treat field as numeric */
     int lineNum; /* Source-file line number */
+    long fieldLimit; /* field size limit for the current record */
+    int chunkSize; /* number of records returned per iteration, 0 for single records */
+    PTextIOBase inputFile; /* read blocks of text from this instead of inputIter, or null */
+    String pending; /* text read from inputFile that was not parsed yet */
+    int pendingPos; /* offset of the next line in pending */
+    int lineStart; /* offset of the current line in pending */
+    boolean inputEof; /* inputFile returned the empty string */
 
     public CSVReader(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
@@ -124,26 +135,32 @@ public final class CSVReader extends PythonBuiltinObject {
 
     @TruffleBoundary
     Object parseIterableInput(Node node) {
+        this.fieldLimit = ((CSVModuleBuiltins) PythonContext.get(node).lookupBuiltinModule("_csv").getBuiltins()).fieldLimit;
         do {
+            if (this.inputFile != null) {
+                if (!nextBlockLine()) {
+                    parseEndOfInput(null);
+                    break;
+                }
+                int lineEnd = this.pendingPos;
+                int lineStart = this.lineStart;
+                for (int i = lineStart; i < lineEnd; i++) {
+                    if (this.pending.charAt(i) == '\u0000') {
+                        throw PRaiseNode.getUncached().raise(PythonBuiltinClassType.CSVError, ErrorMessages.LINE_CONTAINS_NULL_BYTE);
+                    }
+                }
+                this.lineNum++;
+                this.parseLine(this.pending, lineStart, lineEnd);
+                continue;
+            }
+
             Object lineObj;
             try {
                 lineObj = GetNextNode.getUncached().execute(this.inputIter);
             } catch (PException e) {
                 e.expectStopIteration(IsBuiltinClassProfile.getUncached());
-
-                if (this.field.length() != 0 || this.state == IN_QUOTED_FIELD) {
-                    if (this.dialect.strict) {
-                        throw PRaiseNode.getUncached().raise(PythonBuiltinClassType.CSVError, ErrorMessages.UNEXPECTED_END_OF_DATA);
-                    } else {
-                        try {
-                            parseSaveField();
-                        } catch (AbstractTruffleException ignored) {
-                            throw e.getExceptionForReraise();
-                        }
-                        break;
-                    }
-                }
-                throw PRaiseNode.getUncached().raiseStopIteration();
+                parseEndOfInput(e);
+                break;
             }
 
             String line;
@@ -162,7 +179,7 @@ public final class CSVReader extends PythonBuiltinObject {
             }
 
             this.lineNum++;
-            this.parseLine(node, line);
+            this.parseLine(line, 0, line.length());
 
         } while (this.state != START_RECORD);
 
@@ -172,26 +189,116 @@ public final class CSVReader extends PythonBuiltinObject {
         return PythonObjectFactory.getUncached().createList(fields.toArray());
     }
 
-    void parseLine(Node node, String line) {
-        final int lineLength = line.length();
+    /**
+     * Parses up to {@link #chunkSize} records and returns them as a list of lists. Raises
+     * {@code StopIteration} only if there are no records left.
+     */
+    @TruffleBoundary
+    Object parseChunk(Node node) {
+        ArrayList<Object> rows = new ArrayList<>(Math.min(this.chunkSize, 1024));
+        while (rows.size() < this.chunkSize) {
+            parseReset();
+            try {
+                rows.add(parseIterableInput(node));
+            } catch (PException e) {
+                if (rows.isEmpty()) {
+                    throw e;
+                }
+                e.expectStopIteration(IsBuiltinClassProfile.getUncached());
+                break;
+            }
+        }
+        return PythonObjectFactory.getUncached().createList(rows.toArray());
+    }
+
+    /**
+     * Called when the input is exhausted. Returns if there is an incomplete last record, otherwise
+     * raises {@code StopIteration}.
+     */
+    private void parseEndOfInput(PException stopIteration) {
+        if (this.field.length() != 0 || this.state == IN_QUOTED_FIELD) {
+            if (this.dialect.strict) {
+                throw PRaiseNode.getUncached().raise(PythonBuiltinClassType.CSVError, ErrorMessages.UNEXPECTED_END_OF_DATA);
+            } else {
+                try {
+                    parseSaveField();
+                } catch (AbstractTruffleException ignored) {
+                    if (stopIteration != null) {
+                        throw stopIteration.getExceptionForReraise();
+                    }
+                    throw PRaiseNode.getUncached().raiseStopIteration();
+                }
+                return;
+            }
+        }
+        throw PRaiseNode.getUncached().raiseStopIteration();
+    }
+
+    /**
+     * Finds the next line in the text read from {@link #inputFile}, reading another block if
+     * needed. The lines are split like {@code readline} on the input file would. On success, the
+     * line is {@code pending[lineStart:pendingPos]}.
+     */
+    private boolean nextBlockLine() {
+        while (true) {
+            if (this.pending != null && this.pendingPos < this.pending.length()) {
+                int length = TextIOWrapperNodes.findLineEnding(this.inputFile, this.pending, this.pendingPos);
+                if (length != -1) {
+                    int end = this.pendingPos + length;
+                    // a trailing \r could be the first half of \r\n
+                    if (this.inputEof || end < this.pending.length() || this.pending.charAt(end - 1) != '\r') {
+                        this.lineStart = this.pendingPos;
+                        this.pendingPos = end;
+                        return true;
+                    }
+                } else if (this.inputEof) {
+                    this.lineStart = this.pendingPos;
+                    this.pendingPos = this.pending.length();
+                    return true;
+                }
+            }
+            if (this.inputEof) {
+                this.pending = null;
+                this.pendingPos = 0;
+                return false;
+            }
+            Object blockObj = PyObjectCallMethodObjArgs.getUncached().execute(null, this.inputFile, "read", BLOCK_SIZE);
+            String block;
+            try {
+                block = CastToJavaStringNode.getUncached().execute(blockObj);
+            } catch (CannotCastException e) {
+                throw PRaiseNode.getUncached().raise(PythonBuiltinClassType.CSVError, ErrorMessages.WRONG_ITERATOR_RETURN_TYPE, GetClassNode.getUncached().execute(blockObj));
+            }
+            if (block.isEmpty()) {
+                this.inputEof = true;
+            } else if (this.pending == null || this.pendingPos == this.pending.length()) {
+                this.pending = block;
+                this.pendingPos = 0;
+            } else {
+                this.pending = this.pending.substring(this.pendingPos) + block;
+                this.pendingPos = 0;
+            }
+        }
+    }
 
+    void parseLine(String line, int start, int end) {
         /*
          * Python supports utf-32 characters, as Java characters are utf-16 only, we have to work
          * with code points instead.
          */
-        for (int offset = 0; offset < lineLength;) {
+        for (int offset = start; offset < end;) {
             final int codepoint = line.codePointAt(offset);
 
-            parseProcessCodePoint(node, codepoint);
+            parseProcessCodePoint(codepoint);
 
             offset += Character.charCount(codepoint);
         }
 
-        parseProcessCodePoint(node, EOL);
+        parseProcessCodePoint(EOL);
     }
 
     @SuppressWarnings("fallthrough")
-    void parseProcessCodePoint(Node node, int codePoint) {
+    void parseProcessCodePoint(int codePoint) {
         CSVDialect dialect = this.dialect;
 
         switch (this.state) {
@@ -232,21 +339,21 @@ public final class CSVReader extends PythonBuiltinObject {
                     if (dialect.quoting == QUOTE_NONNUMERIC) {
                         this.numericField = true;
                     }
-                    parseAddCodePoint(node, codePoint);
+                    parseAddCodePoint(codePoint);
                     this.state = IN_FIELD;
                 }
                 break;
 
             case ESCAPED_CHAR:
                 if (codePoint == NEWLINE_CODEPOINT || codePoint == CARRIAGE_RETURN_CODEPOINT) {
-                    parseAddCodePoint(node, codePoint);
+                    parseAddCodePoint(codePoint);
                     this.state = AFTER_ESCAPED_CRNL;
                     break;
                 }
                 if (codePoint == EOL) {
                     codePoint = NEWLINE_CODEPOINT;
                 }
-                parseAddCodePoint(node, codePoint);
+                parseAddCodePoint(codePoint);
 
                 this.state = IN_FIELD;
                 break;
@@ -273,7 +380,7 @@ public final class CSVReader extends PythonBuiltinObject {
                     this.state = START_FIELD;
                 } else {
                     /* normal character - save in field */
-                    parseAddCodePoint(node, codePoint);
+                    parseAddCodePoint(codePoint);
                 }
                 break;
 
@@ -295,7 +402,7 @@ public final class CSVReader extends PythonBuiltinObject {
                     }
                 } else {
                     /* normal character - save in field */
-                    parseAddCodePoint(node, codePoint);
+                    parseAddCodePoint(codePoint);
                 }
                 break;
 
@@ -303,7 +410,7 @@ public final class CSVReader extends PythonBuiltinObject {
                 if (codePoint == EOL) {
                     codePoint = NEWLINE_CODEPOINT;
                 }
-                parseAddCodePoint(node, codePoint);
+                parseAddCodePoint(codePoint);
                 this.state = IN_QUOTED_FIELD;
                 break;
 
@@ -312,7 +419,7 @@ public final class CSVReader extends PythonBuiltinObject {
                 if (dialect.quoting != QUOTE_NONE &&
                                 codePoint == dialect.quoteCharCodePoint) {
                     /* save "" as " */
-                    parseAddCodePoint(node, codePoint);
+                    parseAddCodePoint(codePoint);
                     this.state = IN_QUOTED_FIELD;
                 } else if (codePoint == dialect.delimiterCodePoint) {
                     /* save field - wait for new field */
@@ -323,7 +430,7 @@ public final class CSVReader extends PythonBuiltinObject {
                     parseSaveField();
                     this.state = (codePoint == EOL) ? START_RECORD : EAT_CRNL;
                 } else if (!dialect.strict) {
-                    parseAddCodePoint(node, codePoint);
+                    parseAddCodePoint(codePoint);
                     this.state = IN_FIELD;
                 } else {
                     /* illegal */
@@ -346,13 +453,9 @@ public final class CSVReader extends PythonBuiltinObject {
 
     }
 
-    void parseAddCodePoint(Node node, int codePoint) {
-
-        CSVModuleBuiltins csvModuleBuiltins = (CSVModuleBuiltins) PythonContext.get(node).lookupBuiltinModule("_csv").getBuiltins();
-
-        if (this.field.length() + Character.charCount(codePoint) > csvModuleBuiltins.fieldLimit) {
-            throw PRaiseNode.getUncached().raise(PythonBuiltinClassType.CSVError, ErrorMessages.LARGER_THAN_FIELD_SIZE_LIMIT,
-                            csvModuleBuiltins.fieldLimit);
+    void parseAddCodePoint(int codePoint) {
+        if (this.field.length() + Character.charCount(codePoint) > this.fieldLimit) {
+            throw PRaiseNode.getUncached().raise(PythonBuiltinClassType.CSVError, ErrorMessages.LARGER_THAN_FIELD_SIZE_LIMIT, this.fieldLimit);
         }
 
         this.field.appendCodePoint(codePoint);
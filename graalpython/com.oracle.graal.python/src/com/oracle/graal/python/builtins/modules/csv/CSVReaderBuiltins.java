@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -81,12 +81,14 @@ public final class CSVReaderBuiltins extends PythonBuiltins {
         @Specialization
         Object nextPos(VirtualFrame frame, CSVReader self) {
 
-            self.parseReset();
-
             PythonLanguage language = PythonLanguage.get(this);
             Object state = IndirectCallContext.enter(frame, language, getContext(), this);
 
             try {
+                if (self.chunkSize > 0) {
+                    return self.parseChunk(this);
+                }
+                self.parseReset();
                 return self.parseIterableInput(this);
             } finally {
                 IndirectCallContext.exit(frame, language, getContext(), state);
@@ -0,0 +1,574 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.DATE_OUT_OF_RANGE;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.DAY_NAMES;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.INVALID_ISOFORMAT;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MAXYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MAX_ORDINAL;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MINYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MONTH_NAMES;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.buildTimeTuple;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.checkDateArgs;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.checkTimestamp;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.createStructTime;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.getLocalZone;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.getTpName;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.isLeap;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.isoFormatDate;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.isoWeek1Monday;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.localtime;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.ordToYmd;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.parseIsoDate;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.weekday;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.time.ZoneId;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.IntArgNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewDateNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TimestampToTimevalNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.WrapStrftimeNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyObjectStrAsObjectNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDate)
+public class DateBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        PythonObjectFactory factory = core.factory();
+        builtinConstants.put("min", factory.createDate(PythonBuiltinClassType.PDate, MINYEAR, 1, 1));
+        builtinConstants.put("max", factory.createDate(PythonBuiltinClassType.PDate, MAXYEAR, 12, 31));
+        builtinConstants.put("resolution", factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, 1, 0, 0));
+    }
+
+    static boolean isDateTime(Object obj) {
+        return obj instanceof PDateTime;
+    }
+
+    /**
+     * The ISO calendar {@code {year, week, weekday}} of a date, like {@code date_isocalendar}.
+     */
+    static int[] isoCalendar(int year, int month, int day) {
+        int isoYear = year;
+        int week1Monday = isoWeek1Monday(isoYear);
+        int today = DateTimeNodes.ymdToOrd(year, month, day);
+        int week = Math.floorDiv(today - week1Monday, 7);
+        int weekday = Math.floorMod(today - week1Monday, 7);
+        if (week < 0) {
+            isoYear--;
+            week1Monday = isoWeek1Monday(isoYear);
+            week = Math.floorDiv(today - week1Monday, 7);
+            weekday = Math.floorMod(today - week1Monday, 7);
+        } else if (week >= 52 && today >= isoWeek1Monday(isoYear + 1)) {
+            isoYear++;
+            week = 0;
+        }
+        return new int[]{isoYear, week + 1, weekday + 1};
+    }
+
+    @TruffleBoundary
+    static String ctime(int year, int month, int day, int hour, int minute, int second) {
+        return PythonUtils.format("%s %s %2d %02d:%02d:%02d %04d", DAY_NAMES[weekday(year, month, day)], MONTH_NAMES[month], day, hour, minute, second, year);
+    }
+
+    static byte[] getState(PDate self) {
+        return new byte[]{(byte) (self.getYear() >> 8), (byte) self.getYear(), (byte) self.getMonth(), (byte) self.getDay()};
+    }
+
+    @Builtin(name = "year", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class YearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getYear();
+        }
+    }
+
+    @Builtin(name = "month", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MonthNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getMonth();
+        }
+    }
+
+    @Builtin(name = "day", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getDay();
+        }
+    }
+
+    @Builtin(name = "today", minNumOfPositionalArgs = 1, isClassmethod = true, doc = "Current date or datetime:  same as self.__class__.fromtimestamp(time.time()).")
+    @GenerateNodeFactory
+    abstract static class TodayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object today(VirtualFrame frame, Object cls,
+                        @Cached IsBuiltinClassProfile isDateProfile,
+                        @Cached NewDateNode newDateNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            long nanos = TimeModuleBuiltins.PythonTimeNsNode.timeNanoSeconds();
+            if (isDateProfile.profileClass(cls, PythonBuiltinClassType.PDate)) {
+                int[] tm = localtime(getLocalZone(getContext()), Math.floorDiv(nanos, 1000000000L));
+                return newDateNode.execute(frame, cls, tm[0], tm[1], tm[2]);
+            }
+            // subclasses (including datetime) may override fromtimestamp
+            return callMethod.execute(frame, cls, "fromtimestamp", nanos / 1e9);
+        }
+    }
+
+    @Builtin(name = "fromtimestamp", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "Create a date from a POSIX timestamp.")
+    @GenerateNodeFactory
+    abstract static class FromTimestampNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromTimestamp(VirtualFrame frame, Object cls, Object timestamp,
+                        @Cached TimestampToTimevalNode toTimevalNode,
+                        @Cached NewDateNode newDateNode) {
+            long seconds = toTimevalNode.execute(frame, timestamp, true)[0];
+            checkTimestamp(getRaiseNode(), seconds);
+            ZoneId zone = getLocalZone(getContext());
+            int[] tm = localtime(zone, seconds);
+            return newDateNode.execute(frame, cls, tm[0], tm[1], tm[2]);
+        }
+    }
+
+    @Builtin(name = "fromordinal", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "int -> date corresponding to a proleptic Gregorian ordinal.")
+    @GenerateNodeFactory
+    abstract static class FromOrdinalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromOrdinal(VirtualFrame frame, Object cls, Object ordinalObj,
+                        @Cached IntArgNode intArgNode,
+                        @Cached NewDateNode newDateNode) {
+            int ordinal = intArgNode.execute(frame, ordinalObj);
+            if (ordinal < 1) {
+                throw raise(ValueError, "ordinal must be >= 1");
+            }
+            int[] ymd = ordToYmd(ordinal);
+            return newDateNode.execute(frame, cls, ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "str -> Construct a date from the output of date.isoformat()")
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object dtstr,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode,
+                        @Cached NewDateNode newDateNode) {
+            if (!unicodeCheckNode.execute(dtstr)) {
+                throw raise(TypeError, "fromisoformat: argument must be str");
+            }
+            String s = castToStringNode.execute(dtstr);
+            int[] ymd = new int[3];
+            if (s.length() != 10 || !parseIsoDate(s, ymd)) {
+                throw raise(ValueError, INVALID_ISOFORMAT, reprNode.execute(frame, dtstr));
+            }
+            return newDateNode.execute(frame, cls, ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = "fromisocalendar", minNumOfPositionalArgs = 4, isClassmethod = true, parameterNames = {"$cls", "year", "week", "day"}, doc = "int, int, int -> Construct a date from the ISO year, week number and weekday.\n\nThis is the inverse of the date.isocalendar() function")
+    @GenerateNodeFactory
+    abstract static class FromIsoCalendarNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object fromIsoCalendar(VirtualFrame frame, Object cls, Object yearObj, Object weekObj, Object dayObj,
+                        @Cached IntArgNode intArgNode,
+                        @Cached NewDateNode newDateNode) {
+            int year = intArgNode.execute(frame, yearObj);
+            int week = intArgNode.execute(frame, weekObj);
+            int day = intArgNode.execute(frame, dayObj);
+            if (year < MINYEAR || year > MAXYEAR) {
+                throw raise(ValueError, "Year is out of range: %d", year);
+            }
+            if (week <= 0 || week >= 53) {
+                // ISO years have 53 weeks if they start on a Thursday or are leap years starting
+                // on a Wednesday
+                int firstWeekday = weekday(year, 1, 1);
+                if (week != 53 || !(firstWeekday == 3 || firstWeekday == 2 && isLeap(year))) {
+                    throw raise(ValueError, "Invalid week: %d", week);
+                }
+            }
+            if (day <= 0 || day >= 8) {
+                throw raise(ValueError, "Invalid day: %d (range is [1, 7])", day);
+            }
+            int[] ymd = ordToYmd(isoWeek1Monday(year) + (week - 1) * 7 + day - 1);
+            return newDateNode.execute(frame, cls, ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = "ctime", minNumOfPositionalArgs = 1, doc = "Return ctime() style string.")
+    @GenerateNodeFactory
+    abstract static class CTimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String ctimeDate(PDate self) {
+            return ctime(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0);
+        }
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"}, doc = "format -> strftime() style string.")
+    @GenerateNodeFactory
+    abstract static class StrfTimeNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        String strftime(VirtualFrame frame, PDate self, Object format,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached WrapStrftimeNode wrapStrftimeNode) {
+            if (!unicodeCheckNode.execute(format)) {
+                throw raise(TypeError, "strftime() argument 1 must be str, not %p", format);
+            }
+            int[] timetuple = buildTimeTuple(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0, -1);
+            return wrapStrftimeNode.execute(frame, castToStringNode.execute(format), timetuple, PNone.NONE, PNone.NONE, 0);
+        }
+    }
+
+    @Builtin(name = __FORMAT__, minNumOfPositionalArgs = 2, doc = "Formats self with strftime.")
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object format(VirtualFrame frame, Object self, Object format,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectStrAsObjectNode strNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (!unicodeCheckNode.execute(format)) {
+                throw raise(TypeError, "__format__() argument 1 must be str, not %p", format);
+            }
+            if (castToStringNode.execute(format).isEmpty()) {
+                return strNode.execute(frame, self);
+            }
+            return callMethod.execute(frame, self, "strftime", format);
+        }
+    }
+
+    @Builtin(name = "timetuple", minNumOfPositionalArgs = 1, doc = "Return time tuple, compatible with time.localtime().")
+    @GenerateNodeFactory
+    abstract static class TimeTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object timetuple(PDate self) {
+            return createStructTime(factory(), buildTimeTuple(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0, -1));
+        }
+    }
+
+    @Builtin(name = "isocalendar", minNumOfPositionalArgs = 1, doc = "Return a 3-tuple containing ISO year, week number, and weekday.")
+    @GenerateNodeFactory
+    abstract static class IsoCalendarNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object isocalendar(PDate self) {
+            int[] cal = isoCalendar(self.getYear(), self.getMonth(), self.getDay());
+            return factory().createTuple(new Object[]{cal[0], cal[1], cal[2]});
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, doc = "Return string in ISO 8601 format, YYYY-MM-DD.")
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String isoformat(PDate self) {
+            return isoFormatDate(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "isoweekday", minNumOfPositionalArgs = 1, doc = "Return the day of the week represented by the date.\nMonday == 1 ... Sunday == 7")
+    @GenerateNodeFactory
+    abstract static class IsoWeekdayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int isoweekday(PDate self) {
+            return weekday(self.getYear(), self.getMonth(), self.getDay()) + 1;
+        }
+    }
+
+    @Builtin(name = "toordinal", minNumOfPositionalArgs = 1, doc = "Return proleptic Gregorian ordinal.  January 1 of year 1 is day 1.")
+    @GenerateNodeFactory
+    abstract static class ToOrdinalNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int toordinal(PDate self) {
+            return self.toOrdinal();
+        }
+    }
+
+    @Builtin(name = "weekday", minNumOfPositionalArgs = 1, doc = "Return the day of the week represented by the date.\nMonday == 0 ... Sunday == 6")
+    @GenerateNodeFactory
+    abstract static class WeekdayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int weekdayOf(PDate self) {
+            return weekday(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "year", "month", "day"}, doc = "Return date with new specified fields.")
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object replace(VirtualFrame frame, PDate self, Object yearObj, Object monthObj, Object dayObj,
+                        @Cached IntArgNode intArgNode,
+                        @Cached GetClassNode getClassNode) {
+            int year = yearObj == PNone.NO_VALUE ? self.getYear() : intArgNode.execute(frame, yearObj);
+            int month = monthObj == PNone.NO_VALUE ? self.getMonth() : intArgNode.execute(frame, monthObj);
+            int day = dayObj == PNone.NO_VALUE ? self.getDay() : intArgNode.execute(frame, dayObj);
+            checkDateArgs(getRaiseNode(), year, month, day);
+            return factory().createDate(getClassNode.execute(self), year, month, day);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(PDate self,
+                        @Cached GetClassNode getClassNode) {
+            return PythonUtils.format("%s(%d, %d, %d)", getTpName(getClassNode.execute(self)), self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, Object self,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, self, "isoformat");
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PDate self) {
+            return self.toOrdinal();
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDate self,
+                        @Cached GetClassNode getClassNode) {
+            Object state = factory().createTuple(new Object[]{factory().createBytes(getState(self))});
+            return factory().createTuple(new Object[]{getClassNode.execute(self), state});
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "!isDateTime(left)")
+        Object addDelta(VirtualFrame frame, PDate left, PTimeDelta right,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateNode newDateNode) {
+            return addDays(frame, left, right.getDays(), getClassNode, newDateNode);
+        }
+
+        @Specialization(guards = "!isDateTime(right)")
+        Object addDeltaReverse(VirtualFrame frame, PTimeDelta left, PDate right,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateNode newDateNode) {
+            return addDays(frame, right, left.getDays(), getClassNode, newDateNode);
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        Object addDays(VirtualFrame frame, PDate date, long days, GetClassNode getClassNode, NewDateNode newDateNode) {
+            long ordinal = date.toOrdinal() + days;
+            if (ordinal < 1 || ordinal > MAX_ORDINAL) {
+                throw raise(OverflowError, DATE_OUT_OF_RANGE);
+            }
+            int[] ymd = ordToYmd((int) ordinal);
+            return newDateNode.execute(frame, getClassNode.execute(date), ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = {"!isDateTime(left)", "!isDateTime(right)"})
+        PTimeDelta subDate(PDate left, PDate right) {
+            return factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, left.toOrdinal() - right.toOrdinal(), 0, 0);
+        }
+
+        @Specialization(guards = "!isDateTime(left)")
+        Object subDelta(VirtualFrame frame, PDate left, PTimeDelta right,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateNode newDateNode) {
+            long ordinal = left.toOrdinal() - (long) right.getDays();
+            if (ordinal < 1 || ordinal > MAX_ORDINAL) {
+                throw raise(OverflowError, DATE_OUT_OF_RANGE);
+            }
+            int[] ymd = ordToYmd((int) ordinal);
+            return newDateNode.execute(frame, getClassNode.execute(left), ymd[0], ymd[1], ymd[2]);
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean compare(PDate self, PDate other) {
+            return cmp(self.compareDate(other));
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        protected abstract boolean cmp(int diff);
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff == 0;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff != 0;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff >= 0;
+        }
+    }
+}
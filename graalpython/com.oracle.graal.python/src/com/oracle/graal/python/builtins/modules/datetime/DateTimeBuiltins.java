@@ -0,0 +1,936 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CANT_COMPARE_NAIVE_AWARE;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.EPOCH_ORDINAL;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.EPOCH_SECONDS;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.INVALID_ISOFORMAT;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MAXYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MINYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.SECONDS_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.US_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.US_PER_SECOND;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.appendIsoDate;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.appendIsoTime;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.appendUtcOffset;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.buildTimeTuple;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.checkDateArgs;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.checkTimeArgs;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.createDelta;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.createStructTime;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.getLocalZone;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.getTpName;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.localToSeconds;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.microsToDelta;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.normalizeDateTime;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.parseIsoDate;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.parseIsoTime;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.toMicros;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.trueDivide;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.ymdToOrd;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE_EX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.time.ZoneId;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CallTzInfoOffsetNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CallTzNameNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.FromTimetAndUsNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.IntArgNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewDateTimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewTimeZoneNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TimestampToTimevalNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TzInfoFromIsoFormatNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.WrapStrftimeNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDateTime)
+public class DateTimeBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateTimeBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        PythonObjectFactory factory = core.factory();
+        builtinConstants.put("min", factory.createDateTime(PythonBuiltinClassType.PDateTime, MINYEAR, 1, 1, 0, 0, 0, 0, PNone.NONE, 0));
+        builtinConstants.put("max", factory.createDateTime(PythonBuiltinClassType.PDateTime, MAXYEAR, 12, 31, 23, 59, 59, 999999, PNone.NONE, 0));
+        builtinConstants.put("resolution", factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, 0, 0, 1));
+    }
+
+    /**
+     * Microseconds since 0001-01-01 of the local fields, this always fits into a {@code long}.
+     */
+    static long totalMicros(PDateTime dt) {
+        return dt.toOrdinal() * US_PER_DAY + dt.timeOfDayMicros();
+    }
+
+    static boolean offsetsEqual(Object offset1, Object offset2) {
+        return offset1 == offset2 || offset1 instanceof PTimeDelta && offset2 instanceof PTimeDelta && ((PTimeDelta) offset1).compareTo((PTimeDelta) offset2) == 0;
+    }
+
+    /**
+     * The pickle state of a datetime, the fold is stored in the high bit of the month for
+     * protocols above 3 like in {@code datetime_getstate}.
+     */
+    static byte[] getState(PDateTime self, int proto) {
+        int month = self.getMonth();
+        if (proto > 3 && self.getFold() != 0) {
+            month |= 0x80;
+        }
+        int us = self.getMicrosecond();
+        return new byte[]{(byte) (self.getYear() >> 8), (byte) self.getYear(), (byte) month, (byte) self.getDay(), (byte) self.getHour(), (byte) self.getMinute(), (byte) self.getSecond(),
+                        (byte) (us >> 16), (byte) (us >> 8), (byte) us};
+    }
+
+    /**
+     * The zone name and UTC offset in seconds of the local time zone at the given time, like
+     * {@code local_timezone_from_timestamp}.
+     */
+    @TruffleBoundary
+    static Object[] localZoneInfo(ZoneId zone, long seconds) {
+        Object[] tm = TimeModuleBuiltins.getTimeStruct(zone, seconds);
+        return new Object[]{tm[9], tm[10]};
+    }
+
+    @TruffleBoundary
+    static String repr(String typeName, PDateTime self, String tzinfoRepr) {
+        StringBuilder sb = new StringBuilder(typeName).append('(');
+        sb.append(self.getYear()).append(", ").append(self.getMonth()).append(", ").append(self.getDay()).append(", ");
+        sb.append(self.getHour()).append(", ").append(self.getMinute());
+        if (self.getSecond() != 0 || self.getMicrosecond() != 0) {
+            sb.append(", ").append(self.getSecond());
+        }
+        if (self.getMicrosecond() != 0) {
+            sb.append(", ").append(self.getMicrosecond());
+        }
+        if (tzinfoRepr != null) {
+            sb.append(", tzinfo=").append(tzinfoRepr);
+        }
+        if (self.getFold() != 0) {
+            sb.append(", fold=1");
+        }
+        return sb.append(')').toString();
+    }
+
+    @Builtin(name = "hour", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class HourNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getHour();
+        }
+    }
+
+    @Builtin(name = "minute", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MinuteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getMinute();
+        }
+    }
+
+    @Builtin(name = "second", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getSecond();
+        }
+    }
+
+    @Builtin(name = "microsecond", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getMicrosecond();
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PDateTime self) {
+            return self.getTzInfo();
+        }
+    }
+
+    @Builtin(name = "fold", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FoldNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getFold();
+        }
+    }
+
+    @Builtin(name = "now", minNumOfPositionalArgs = 1, isClassmethod = true, parameterNames = {"$cls", "tz"}, doc = "Returns new datetime object representing current time local to tz.\n\n  tz\n    Timezone object.\n\nIf no tz is specified, uses local timezone.")
+    @GenerateNodeFactory
+    abstract static class NowNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object now(VirtualFrame frame, Object cls, Object tzObj,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached FromTimetAndUsNode fromTimetAndUsNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object tz = tzObj == PNone.NO_VALUE ? PNone.NONE : tzObj;
+            checkTzInfoNode.execute(tz);
+            long nanos = TimeModuleBuiltins.PythonTimeNsNode.timeNanoSeconds();
+            long seconds = Math.floorDiv(nanos, 1000000000L);
+            int us = (int) (Math.floorMod(nanos, 1000000000L) / 1000);
+            Object result = fromTimetAndUsNode.execute(frame, cls, seconds, us, tz != PNone.NONE, tz);
+            if (tz != PNone.NONE) {
+                result = callMethod.execute(frame, tz, "fromutc", result);
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = "utcnow", minNumOfPositionalArgs = 1, isClassmethod = true, doc = "Return a new datetime representing UTC day and time.")
+    @GenerateNodeFactory
+    abstract static class UtcNowNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcnow(VirtualFrame frame, Object cls,
+                        @Cached FromTimetAndUsNode fromTimetAndUsNode) {
+            long nanos = TimeModuleBuiltins.PythonTimeNsNode.timeNanoSeconds();
+            long seconds = Math.floorDiv(nanos, 1000000000L);
+            int us = (int) (Math.floorMod(nanos, 1000000000L) / 1000);
+            return fromTimetAndUsNode.execute(frame, cls, seconds, us, true, PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "fromtimestamp", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "timestamp", "tz"}, doc = "timestamp[, tz] -> tz's local time from POSIX timestamp.")
+    @GenerateNodeFactory
+    abstract static class FromTimestampNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static Object fromTimestamp(VirtualFrame frame, Object cls, Object timestamp, Object tzObj,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached TimestampToTimevalNode toTimevalNode,
+                        @Cached FromTimetAndUsNode fromTimetAndUsNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object tz = tzObj == PNone.NO_VALUE ? PNone.NONE : tzObj;
+            checkTzInfoNode.execute(tz);
+            long[] timeval = toTimevalNode.execute(frame, timestamp, false);
+            Object result = fromTimetAndUsNode.execute(frame, cls, timeval[0], (int) timeval[1], tz != PNone.NONE, tz);
+            if (tz != PNone.NONE) {
+                result = callMethod.execute(frame, tz, "fromutc", result);
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = "utcfromtimestamp", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "Construct a naive UTC datetime from a POSIX timestamp.")
+    @GenerateNodeFactory
+    abstract static class UtcFromTimestampNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object utcFromTimestamp(VirtualFrame frame, Object cls, Object timestamp,
+                        @Cached TimestampToTimevalNode toTimevalNode,
+                        @Cached FromTimetAndUsNode fromTimetAndUsNode) {
+            long[] timeval = toTimevalNode.execute(frame, timestamp, false);
+            return fromTimetAndUsNode.execute(frame, cls, timeval[0], (int) timeval[1], true, PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "strptime", minNumOfPositionalArgs = 3, isClassmethod = true, doc = "string, format -> new datetime parsed from a string (like time.strptime()).")
+    @GenerateNodeFactory
+    abstract static class StrpTimeNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static Object strptime(VirtualFrame frame, Object cls, Object string, Object format,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object module = AbstractImportNode.importModule("_strptime");
+            return callMethod.execute(frame, module, "_strptime_datetime", cls, string, format);
+        }
+    }
+
+    @Builtin(name = "combine", minNumOfPositionalArgs = 3, isClassmethod = true, parameterNames = {"$cls", "date", "time", "tzinfo"}, doc = "date, time -> datetime with same date and time fields")
+    @GenerateNodeFactory
+    abstract static class CombineNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        static Object combine(VirtualFrame frame, Object cls, PDate date, PTime time, Object tzinfoObj,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            Object tzinfo = tzinfoObj == PNone.NO_VALUE ? time.getTzInfo() : tzinfoObj;
+            return newDateTimeNode.execute(frame, cls, date.getYear(), date.getMonth(), date.getDay(), time.getHour(), time.getMinute(), time.getSecond(), time.getMicrosecond(), tzinfo,
+                            time.getFold());
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object cls, Object date, Object time, @SuppressWarnings("unused") Object tzinfo) {
+            if (!(date instanceof PDate)) {
+                throw raise(TypeError, "combine() argument 1 must be datetime.date, not %p", date);
+            }
+            throw raise(TypeError, "combine() argument 2 must be datetime.time, not %p", time);
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "string -> datetime from datetime.isoformat() output")
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object dtstr,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode,
+                        @Cached TzInfoFromIsoFormatNode tzInfoFromIsoFormatNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            if (!unicodeCheckNode.execute(dtstr)) {
+                throw raise(TypeError, "fromisoformat: argument must be str");
+            }
+            String s = castToStringNode.execute(dtstr);
+            int[] ymd = new int[3];
+            int[] time = new int[6];
+            int rv = parseIsoDate(s, ymd) ? 0 : -1;
+            if (rv == 0 && s.length() > 10) {
+                // the separator can be any single code point
+                rv = parseIsoTime(s, 10 + Character.charCount(s.codePointAt(10)), time);
+            }
+            if (rv < 0) {
+                throw raise(ValueError, INVALID_ISOFORMAT, reprNode.execute(frame, dtstr));
+            }
+            Object tzinfo = rv == 1 ? tzInfoFromIsoFormatNode.execute(time[4], time[5]) : PNone.NONE;
+            return newDateTimeNode.execute(frame, cls, ymd[0], ymd[1], ymd[2], time[0], time[1], time[2], time[3], tzinfo, 0);
+        }
+    }
+
+    @Builtin(name = "date", minNumOfPositionalArgs = 1, doc = "Return date object with same year, month and day.")
+    @GenerateNodeFactory
+    abstract static class DateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDate date(PDateTime self) {
+            return factory().createDate(PythonBuiltinClassType.PDate, self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "time", minNumOfPositionalArgs = 1, doc = "Return time object with same time but with tzinfo=None.")
+    @GenerateNodeFactory
+    abstract static class TimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTime time(PDateTime self) {
+            return factory().createTime(PythonBuiltinClassType.PTime, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), PNone.NONE, self.getFold());
+        }
+    }
+
+    @Builtin(name = "timetz", minNumOfPositionalArgs = 1, doc = "Return time object with same time and tzinfo.")
+    @GenerateNodeFactory
+    abstract static class TimeTzNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTime timetz(PDateTime self) {
+            return factory().createTime(PythonBuiltinClassType.PTime, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), self.getTzInfo(), self.getFold());
+        }
+    }
+
+    @Builtin(name = "ctime", minNumOfPositionalArgs = 1, doc = "Return ctime() style string.")
+    @GenerateNodeFactory
+    abstract static class CTimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String ctime(PDateTime self) {
+            return DateBuiltins.ctime(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond());
+        }
+    }
+
+    /**
+     * Computes the DST flag of {@code timetuple()}: -1 if unknown, 1 if {@code dst()} returned a
+     * non-zero delta and 0 otherwise.
+     */
+    static int dstFlag(VirtualFrame frame, PDateTime self, CallTzInfoOffsetNode dstNode) {
+        if (!self.hasTzInfo()) {
+            return -1;
+        }
+        Object dst = dstNode.execute(frame, self.getTzInfo(), self, true);
+        if (dst == PNone.NONE) {
+            return -1;
+        }
+        return ((PTimeDelta) dst).isZero() ? 0 : 1;
+    }
+
+    @Builtin(name = "timetuple", minNumOfPositionalArgs = 1, doc = "Return time tuple, compatible with time.localtime().")
+    @GenerateNodeFactory
+    abstract static class TimeTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object timetuple(VirtualFrame frame, PDateTime self,
+                        @Cached CallTzInfoOffsetNode dstNode) {
+            int dst = dstFlag(frame, self, dstNode);
+            return createStructTime(factory(), buildTimeTuple(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), dst));
+        }
+    }
+
+    @Builtin(name = "utctimetuple", minNumOfPositionalArgs = 1, doc = "Return UTC time tuple, compatible with time.localtime().")
+    @GenerateNodeFactory
+    abstract static class UtcTimeTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object utctimetuple(VirtualFrame frame, PDateTime self,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            Object offset = utcOffsetNode.execute(frame, self.getTzInfo(), self, false);
+            int[] tm;
+            if (offset == PNone.NONE) {
+                tm = buildTimeTuple(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), 0);
+            } else {
+                int[] f = normalizeDateTime(getRaiseNode(), self.toOrdinal(), self.timeOfDayMicros() - toMicros((PTimeDelta) offset));
+                tm = buildTimeTuple(f[0], f[1], f[2], f[3], f[4], f[5], 0);
+            }
+            return createStructTime(factory(), tm);
+        }
+    }
+
+    @Builtin(name = "timestamp", minNumOfPositionalArgs = 1, doc = "Return POSIX timestamp as float.")
+    @GenerateNodeFactory
+    abstract static class TimestampNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        double timestamp(VirtualFrame frame, PDateTime self,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            if (self.hasTzInfo()) {
+                // like subtracting the aware epoch
+                Object offset = utcOffsetNode.execute(frame, self.getTzInfo(), self, false);
+                if (offset == PNone.NONE) {
+                    throw raise(TypeError, "can't subtract offset-naive and offset-aware datetimes");
+                }
+                long micros = totalMicros(self) - EPOCH_ORDINAL * US_PER_DAY - toMicros((PTimeDelta) offset);
+                return trueDivide(micros, US_PER_SECOND);
+            }
+            long seconds = localToSeconds(getLocalZone(getContext()), self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), self.getFold());
+            return (seconds - EPOCH_SECONDS) + self.getMicrosecond() / 1e6;
+        }
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"}, doc = "format -> strftime() style string.")
+    @GenerateNodeFactory
+    abstract static class StrfTimeNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        String strftime(VirtualFrame frame, PDateTime self, Object format,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached CallTzInfoOffsetNode dstNode,
+                        @Cached WrapStrftimeNode wrapStrftimeNode) {
+            if (!unicodeCheckNode.execute(format)) {
+                throw raise(TypeError, "strftime() argument 1 must be str, not %p", format);
+            }
+            int dst = dstFlag(frame, self, dstNode);
+            int[] timetuple = buildTimeTuple(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), dst);
+            return wrapStrftimeNode.execute(frame, castToStringNode.execute(format), timetuple, self.getTzInfo(), self, self.getMicrosecond());
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, parameterNames = {"$self", "sep", "timespec"}, doc = "[sep] -> string in ISO 8601 format, YYYY-MM-DDT[HH[:MM[:SS[.mmm[uuu]]]]][+HH:MM].")
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        String isoformat(VirtualFrame frame, PDateTime self, Object sepObj, Object timespecObj,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            String sep = "T";
+            if (sepObj != PNone.NO_VALUE) {
+                if (!unicodeCheckNode.execute(sepObj)) {
+                    throw raise(TypeError, "isoformat() argument 1 must be a unicode character, not %p", sepObj);
+                }
+                sep = castToStringNode.execute(sepObj);
+                if (sep.codePointCount(0, sep.length()) != 1) {
+                    throw raise(TypeError, "isoformat() argument 1 must be a unicode character, not str");
+                }
+            }
+            String timespec = "auto";
+            if (timespecObj != PNone.NO_VALUE) {
+                if (!unicodeCheckNode.execute(timespecObj)) {
+                    throw raise(TypeError, "isoformat() argument 2 must be str, not %p", timespecObj);
+                }
+                timespec = castToStringNode.execute(timespecObj);
+            }
+            String result = format(self, sep, timespec);
+            if (result == null) {
+                throw raise(ValueError, "Unknown timespec value");
+            }
+            Object offset = utcOffsetNode.execute(frame, self.getTzInfo(), self, false);
+            if (offset != PNone.NONE) {
+                return appendOffset(result, (PTimeDelta) offset);
+            }
+            return result;
+        }
+
+        @TruffleBoundary
+        private static String format(PDateTime self, String sep, String timespec) {
+            StringBuilder sb = new StringBuilder(32);
+            appendIsoDate(sb, self.getYear(), self.getMonth(), self.getDay());
+            sb.append(sep);
+            if (!appendIsoTime(sb, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), timespec)) {
+                return null;
+            }
+            return sb.toString();
+        }
+
+        @TruffleBoundary
+        private static String appendOffset(String s, PTimeDelta offset) {
+            StringBuilder sb = new StringBuilder(s);
+            appendUtcOffset(sb, offset, ":");
+            return sb.toString();
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.utcoffset(self).")
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcoffset(VirtualFrame frame, PDateTime self,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            return utcOffsetNode.execute(frame, self.getTzInfo(), self, false);
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.dst(self).")
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object dst(VirtualFrame frame, PDateTime self,
+                        @Cached CallTzInfoOffsetNode dstNode) {
+            return dstNode.execute(frame, self.getTzInfo(), self, true);
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.tzname(self).")
+    @GenerateNodeFactory
+    abstract static class TzNameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object tzname(VirtualFrame frame, PDateTime self,
+                        @Cached CallTzNameNode tzNameNode) {
+            return tzNameNode.execute(frame, self.getTzInfo(), self);
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "year", "month", "day", "hour", "minute", "second", "microsecond", "tzinfo"}, keywordOnlyNames = {
+                    "fold"}, doc = "Return datetime with new specified fields.")
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonBuiltinNode {
+        @Specialization
+        Object replace(VirtualFrame frame, PDateTime self, Object yearObj, Object monthObj, Object dayObj, Object hourObj, Object minuteObj, Object secondObj, Object microsecondObj,
+                        Object tzinfoObj, Object foldObj,
+                        @Cached IntArgNode intArgNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached GetClassNode getClassNode) {
+            int year = yearObj == PNone.NO_VALUE ? self.getYear() : intArgNode.execute(frame, yearObj);
+            int month = monthObj == PNone.NO_VALUE ? self.getMonth() : intArgNode.execute(frame, monthObj);
+            int day = dayObj == PNone.NO_VALUE ? self.getDay() : intArgNode.execute(frame, dayObj);
+            int hour = hourObj == PNone.NO_VALUE ? self.getHour() : intArgNode.execute(frame, hourObj);
+            int minute = minuteObj == PNone.NO_VALUE ? self.getMinute() : intArgNode.execute(frame, minuteObj);
+            int second = secondObj == PNone.NO_VALUE ? self.getSecond() : intArgNode.execute(frame, secondObj);
+            int microsecond = microsecondObj == PNone.NO_VALUE ? self.getMicrosecond() : intArgNode.execute(frame, microsecondObj);
+            Object tzinfo = tzinfoObj == PNone.NO_VALUE ? self.getTzInfo() : tzinfoObj;
+            int fold = foldObj == PNone.NO_VALUE ? self.getFold() : intArgNode.execute(frame, foldObj);
+            checkDateArgs(getRaiseNode(), year, month, day);
+            checkTimeArgs(getRaiseNode(), hour, minute, second, microsecond, fold);
+            checkTzInfoNode.execute(tzinfo);
+            return factory().createDateTime(getClassNode.execute(self), year, month, day, hour, minute, second, microsecond, tzinfo, fold);
+        }
+    }
+
+    @Builtin(name = "astimezone", minNumOfPositionalArgs = 1, parameterNames = {"$self", "tz"}, doc = "tz -> convert to local time in new timezone tz\n")
+    @GenerateNodeFactory
+    abstract static class AsTimeZoneNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object astimezone(VirtualFrame frame, PDateTime self, Object tzObj,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode,
+                        @Cached NewTimeZoneNode newTimeZoneNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object tzinfo = tzObj == PNone.NO_VALUE ? PNone.NONE : tzObj;
+            checkTzInfoNode.execute(tzinfo);
+            ZoneId zone = null;
+            Object selfTzInfo = self.getTzInfo();
+            Object offset = PNone.NONE;
+            if (selfTzInfo != PNone.NONE) {
+                if (selfTzInfo == tzinfo) {
+                    // conversion to self's own time zone is a no-op
+                    return self;
+                }
+                offset = utcOffsetNode.execute(frame, selfTzInfo, self, false);
+            }
+            if (offset == PNone.NONE) {
+                // naive datetimes are interpreted as local time
+                zone = getLocalZone(getContext());
+                long seconds = localToSeconds(zone, self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), self.getFold());
+                selfTzInfo = localTimeZone(zone, seconds - EPOCH_SECONDS, newTimeZoneNode);
+                if (selfTzInfo == tzinfo) {
+                    return self;
+                }
+                offset = utcOffsetNode.execute(frame, selfTzInfo, self, false);
+            }
+            // convert self to UTC
+            long utcMicros = self.timeOfDayMicros() - toMicros((PTimeDelta) offset);
+            int[] f = normalizeDateTime(getRaiseNode(), self.toOrdinal(), utcMicros);
+            if (tzinfo == PNone.NONE) {
+                if (zone == null) {
+                    zone = getLocalZone(getContext());
+                }
+                long utcSeconds = (ymdToOrd(f[0], f[1], f[2]) - EPOCH_ORDINAL) * (long) SECONDS_PER_DAY + f[3] * 3600 + f[4] * 60 + f[5];
+                tzinfo = localTimeZone(zone, utcSeconds, newTimeZoneNode);
+            }
+            PDateTime result = factory().createDateTime(getClassNode.execute(self), f[0], f[1], f[2], f[3], f[4], f[5], f[6], tzinfo, self.getFold());
+            return callMethod.execute(frame, tzinfo, "fromutc", result);
+        }
+
+        private PTimeZone localTimeZone(ZoneId zone, long seconds, NewTimeZoneNode newTimeZoneNode) {
+            Object[] info = localZoneInfo(zone, seconds);
+            return newTimeZoneNode.execute(createDelta(factory(), getRaiseNode(), 0, (int) info[1], 0), info[0]);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String reprDateTime(VirtualFrame frame, PDateTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode) {
+            String tzinfoRepr = self.hasTzInfo() ? reprNode.execute(frame, self.getTzInfo()) : null;
+            return repr(getTpName(getClassNode.execute(self)), self, tzinfoRepr);
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, Object self,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, self, "isoformat", " ");
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        long hash(VirtualFrame frame, PDateTime self,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode,
+                        @Cached GetClassNode getClassNode) {
+            long micros = totalMicros(self);
+            if (!self.hasTzInfo()) {
+                return micros;
+            }
+            PDateTime self0 = self;
+            if (self.getFold() != 0 && !(self.getTzInfo() instanceof PTimeZone)) {
+                // the hash must not depend on the fold
+                self0 = factory().createDateTime(getClassNode.execute(self), self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(),
+                                self.getMicrosecond(), self.getTzInfo(), 0);
+            }
+            Object offset = utcOffsetNode.execute(frame, self.getTzInfo(), self0, false);
+            if (offset != PNone.NONE) {
+                micros -= toMicros((PTimeDelta) offset);
+            }
+            return micros;
+        }
+    }
+
+    @Builtin(name = __REDUCE_EX__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ReduceExNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object reduceEx(VirtualFrame frame, PDateTime self, Object protoObj,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached GetClassNode getClassNode) {
+            return reduce(factory(), self, asIntNode.execute(frame, protoObj), getClassNode);
+        }
+
+        static Object reduce(PythonObjectFactory factory, PDateTime self, int proto, GetClassNode getClassNode) {
+            Object basestate = factory.createBytes(getState(self, proto));
+            Object[] state = self.hasTzInfo() ? new Object[]{basestate, self.getTzInfo()} : new Object[]{basestate};
+            return factory.createTuple(new Object[]{getClassNode.execute(self), factory.createTuple(state)});
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDateTime self,
+                        @Cached GetClassNode getClassNode) {
+            return ReduceExNode.reduce(factory(), self, 2, getClassNode);
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object addDelta(VirtualFrame frame, PDateTime left, PTimeDelta right,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return add(frame, left, right, 1, getRaiseNode(), getClassNode, newDateTimeNode);
+        }
+
+        @Specialization
+        Object addDeltaReverse(VirtualFrame frame, PTimeDelta left, PDateTime right,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return add(frame, right, left, 1, getRaiseNode(), getClassNode, newDateTimeNode);
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        /**
+         * Adds {@code factor * delta} to a datetime, like {@code add_datetime_timedelta}.
+         */
+        static Object add(VirtualFrame frame, PDateTime dt, PTimeDelta delta, int factor, PRaiseNode raise, GetClassNode getClassNode,
+                        NewDateTimeNode newDateTimeNode) {
+            long ordinal = dt.toOrdinal() + (long) factor * delta.getDays();
+            long micros = dt.timeOfDayMicros() + factor * (delta.getSeconds() * US_PER_SECOND + delta.getMicroseconds());
+            int[] f = normalizeDateTime(raise, ordinal, micros);
+            return newDateTimeNode.execute(frame, getClassNode.execute(dt), f[0], f[1], f[2], f[3], f[4], f[5], f[6], dt.getTzInfo(), 0);
+        }
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta subDateTime(VirtualFrame frame, PDateTime left, PDateTime right,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            long micros = totalMicros(left) - totalMicros(right);
+            if (left.getTzInfo() != right.getTzInfo()) {
+                Object offset1 = utcOffsetNode.execute(frame, left.getTzInfo(), left, false);
+                Object offset2 = utcOffsetNode.execute(frame, right.getTzInfo(), right, false);
+                if ((offset1 == PNone.NONE) != (offset2 == PNone.NONE)) {
+                    throw raise(TypeError, "can't subtract offset-naive and offset-aware datetimes");
+                }
+                if (offset1 != PNone.NONE) {
+                    micros -= toMicros((PTimeDelta) offset1) - toMicros((PTimeDelta) offset2);
+                }
+            }
+            return microsToDelta(factory(), getRaiseNode(), micros);
+        }
+
+        @Specialization
+        Object subDelta(VirtualFrame frame, PDateTime left, PTimeDelta right,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return AddNode.add(frame, left, right, -1, getRaiseNode(), getClassNode, newDateTimeNode);
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    /**
+     * Compares datetimes like {@code datetime_richcompare}. Aware datetimes with different offsets
+     * are compared in UTC, and equality of datetimes in a fold also takes the
+     * <a href="https://www.python.org/dev/peps/pep-0495/">PEP 495</a> exception into account.
+     */
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean compare(VirtualFrame frame, PDateTime self, PDateTime other,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode,
+                        @Cached GetClassNode getClassNode) {
+            if (self.getTzInfo() == other.getTzInfo()) {
+                return cmp(self.compareFields(other));
+            }
+            Object offset1 = utcOffsetNode.execute(frame, self.getTzInfo(), self, false);
+            Object offset2 = utcOffsetNode.execute(frame, other.getTzInfo(), other, false);
+            int diff;
+            if (offsetsEqual(offset1, offset2)) {
+                diff = self.compareFields(other);
+            } else if (offset1 != PNone.NONE && offset2 != PNone.NONE) {
+                diff = Long.compare(totalMicros(self) - toMicros((PTimeDelta) offset1), totalMicros(other) - toMicros((PTimeDelta) offset2));
+            } else if (isEquality()) {
+                // naive and aware datetimes are never equal
+                return cmp(1);
+            } else {
+                throw raise(TypeError, CANT_COMPARE_NAIVE_AWARE, "datetimes");
+            }
+            if (diff == 0 && isEquality() && (foldChangesOffset(frame, self, offset1, utcOffsetNode, getClassNode) || foldChangesOffset(frame, other, offset2, utcOffsetNode, getClassNode))) {
+                // times in a fold or gap are never equal to times in other time zones
+                diff = 1;
+            }
+            return cmp(diff);
+        }
+
+        @Specialization(guards = "!isDateTime(other)")
+        boolean compareDate(PDateTime self, PDate other) {
+            if (isEquality()) {
+                return cmp(1);
+            }
+            throw raise(TypeError, "can't compare %s to %s", getTpName(GetClassNode.getUncached().execute(self)), getTpName(GetClassNode.getUncached().execute(other)));
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        static boolean isDateTime(Object obj) {
+            return obj instanceof PDateTime;
+        }
+
+        private boolean foldChangesOffset(VirtualFrame frame, PDateTime dt, Object offset, CallTzInfoOffsetNode utcOffsetNode, GetClassNode getClassNode) {
+            if (!dt.hasTzInfo() || dt.getTzInfo() instanceof PTimeZone) {
+                // fixed offsets do not depend on the fold
+                return false;
+            }
+            PDateTime flipped = factory().createDateTime(getClassNode.execute(dt), dt.getYear(), dt.getMonth(), dt.getDay(), dt.getHour(), dt.getMinute(), dt.getSecond(), dt.getMicrosecond(),
+                            dt.getTzInfo(), 1 - dt.getFold());
+            return !offsetsEqual(utcOffsetNode.execute(frame, dt.getTzInfo(), flipped, false), offset);
+        }
+
+        protected abstract boolean cmp(int diff);
+
+        protected boolean isEquality() {
+            return false;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff == 0;
+        }
+
+        @Override
+        protected boolean isEquality() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff != 0;
+        }
+
+        @Override
+        protected boolean isEquality() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff >= 0;
+        }
+    }
+}
@@ -0,0 +1,1259 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.nodes.ErrorMessages.INVALID_VALUE_NAN;
+import static com.oracle.graal.python.nodes.ErrorMessages.TIMESTAMP_OUT_OF_RANGE;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes.GetNameNode;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyLongAsLongAndOverflowNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * Calendar arithmetic, parsing and formatting helpers and the nodes shared by the builtins of the
+ * {@code _datetime} types. The algorithms follow {@code _datetimemodule.c}.
+ */
+public final class DateTimeNodes {
+    static final int MINYEAR = 1;
+    static final int MAXYEAR = 9999;
+    static final int MAX_DELTA_DAYS = 999999999;
+    static final int MAX_ORDINAL = 3652059;
+
+    static final int SECONDS_PER_DAY = 24 * 3600;
+    static final long US_PER_SECOND = 1000000L;
+    static final long US_PER_DAY = SECONDS_PER_DAY * US_PER_SECOND;
+
+    /** Ordinal of 1970-01-01. */
+    static final int EPOCH_ORDINAL = 719163;
+    /** Seconds from 0001-01-01 to 1970-01-01, like {@code utc_to_seconds(1970, 1, 1, 0, 0, 0)}. */
+    static final long EPOCH_SECONDS = EPOCH_ORDINAL * (long) SECONDS_PER_DAY;
+    static final long MAX_FOLD_SECONDS = SECONDS_PER_DAY;
+
+    /**
+     * Deltas with fewer days than this can be converted to microseconds without overflowing a
+     * {@code long}.
+     */
+    private static final int MAX_LONG_MICROS_DAYS = 100000000;
+
+    /**
+     * Timestamps beyond this are rejected before breaking them down, they are far outside of the
+     * supported year range anyway.
+     */
+    private static final long MAX_TIMESTAMP_SECONDS = 100000000000000L;
+
+    static final String[] DAY_NAMES = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    static final String[] MONTH_NAMES = {null, "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    private static final int[] DAYS_IN_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] DAYS_BEFORE_MONTH = {0, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    private static final int DI4Y = 1461;
+    private static final int DI100Y = 36524;
+    private static final int DI400Y = 146097;
+
+    static final String OFFSET_OUT_OF_RANGE = "offset must be a timedelta strictly between -timedelta(hours=24) and timedelta(hours=24).";
+    static final String CANT_COMPARE_NAIVE_AWARE = "can't compare offset-naive and offset-aware %s";
+    static final String BAD_TZINFO = "tzinfo argument must be None or of a tzinfo subclass, not type '%p'";
+    static final String INVALID_ISOFORMAT = "Invalid isoformat string: %s";
+    static final String DATE_OUT_OF_RANGE = "date value out of range";
+
+    private DateTimeNodes() {
+    }
+
+    // calendar arithmetic
+
+    static boolean isLeap(int year) {
+        return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int daysInMonth(int year, int month) {
+        if (month == 2 && isLeap(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month];
+    }
+
+    static int daysBeforeMonth(int year, int month) {
+        int days = DAYS_BEFORE_MONTH[month];
+        if (month > 2 && isLeap(year)) {
+            days++;
+        }
+        return days;
+    }
+
+    static int daysBeforeYear(int year) {
+        int y = year - 1;
+        return y * 365 + y / 4 - y / 100 + y / 400;
+    }
+
+    static int ymdToOrd(int year, int month, int day) {
+        return daysBeforeYear(year) + daysBeforeMonth(year, month) + day;
+    }
+
+    /**
+     * Converts an ordinal to {@code {year, month, day}}. Works for ordinals outside of the
+     * supported range too, so that the caller can report the year that is out of range.
+     */
+    static int[] ordToYmd(int ordinal) {
+        int n = ordinal - 1;
+        int n400 = Math.floorDiv(n, DI400Y);
+        n = Math.floorMod(n, DI400Y);
+        int year = n400 * 400 + 1;
+
+        int n100 = n / DI100Y;
+        n = n % DI100Y;
+        int n4 = n / DI4Y;
+        n = n % DI4Y;
+        int n1 = n / 365;
+        n = n % 365;
+
+        year += n100 * 100 + n4 * 4 + n1;
+        if (n1 == 4 || n100 == 4) {
+            return new int[]{year - 1, 12, 31};
+        }
+        boolean leapYear = n1 == 3 && (n4 != 24 || n100 == 3);
+        int month = (n + 50) >> 5;
+        int preceding = DAYS_BEFORE_MONTH[month] + (month > 2 && leapYear ? 1 : 0);
+        if (preceding > n) {
+            month--;
+            preceding -= DAYS_IN_MONTH[month] + (month == 2 && leapYear ? 1 : 0);
+        }
+        return new int[]{year, month, n - preceding + 1};
+    }
+
+    /**
+     * Day of the week, Monday is 0.
+     */
+    static int weekday(int year, int month, int day) {
+        return (ymdToOrd(year, month, day) + 6) % 7;
+    }
+
+    static int isoWeek1Monday(int year) {
+        int firstDay = ymdToOrd(year, 1, 1);
+        int firstWeekday = (firstDay + 6) % 7;
+        int week1Monday = firstDay - firstWeekday;
+        if (firstWeekday > 3) {
+            week1Monday += 7;
+        }
+        return week1Monday;
+    }
+
+    /**
+     * Seconds since 0001-01-01 of the given UTC date and time, like {@code utc_to_seconds}.
+     */
+    static long utcToSeconds(int year, int month, int day, int hour, int minute, int second) {
+        return ((ymdToOrd(year, month, day) * 24L + hour) * 60L + minute) * 60L + second;
+    }
+
+    static void checkDateArgs(PRaiseNode raise, int year, int month, int day) {
+        if (year < MINYEAR || year > MAXYEAR) {
+            throw raise.raise(ValueError, "year %d is out of range", year);
+        }
+        if (month < 1 || month > 12) {
+            throw raise.raise(ValueError, "month must be in 1..12");
+        }
+        if (day < 1 || day > daysInMonth(year, month)) {
+            throw raise.raise(ValueError, "day is out of range for month");
+        }
+    }
+
+    static void checkTimeArgs(PRaiseNode raise, int hour, int minute, int second, int microsecond, int fold) {
+        if (hour < 0 || hour > 23) {
+            throw raise.raise(ValueError, "hour must be in 0..23");
+        }
+        if (minute < 0 || minute > 59) {
+            throw raise.raise(ValueError, "minute must be in 0..59");
+        }
+        if (second < 0 || second > 59) {
+            throw raise.raise(ValueError, "second must be in 0..59");
+        }
+        if (microsecond < 0 || microsecond > 999999) {
+            throw raise.raise(ValueError, "microsecond must be in 0..999999");
+        }
+        checkFold(raise, fold);
+    }
+
+    static void checkFold(PRaiseNode raise, int fold) {
+        if (fold != 0 && fold != 1) {
+            throw raise.raise(ValueError, "fold must be either 0 or 1");
+        }
+    }
+
+    /**
+     * Converts a (not necessarily normalized) date to an ordinal, raising {@code OverflowError} if
+     * the result is out of range.
+     */
+    static int[] ordToCheckedYmd(PRaiseNode raise, long ordinal) {
+        if (ordinal < 1 || ordinal > MAX_ORDINAL) {
+            throw raise.raise(OverflowError, DATE_OUT_OF_RANGE);
+        }
+        return ordToYmd((int) ordinal);
+    }
+
+    // timedelta arithmetic
+
+    static boolean isValidUtcOffset(PTimeDelta offset) {
+        int days = offset.getDays();
+        return !(days == -1 && offset.getSeconds() == 0 && offset.getMicroseconds() < 1 || days < -1 || days >= 1);
+    }
+
+    static boolean fitsLongMicros(PTimeDelta delta) {
+        return Math.abs(delta.getDays()) < MAX_LONG_MICROS_DAYS;
+    }
+
+    /**
+     * The total microseconds of a delta that {@link #fitsLongMicros fits} into a {@code long}.
+     */
+    static long toMicros(PTimeDelta delta) {
+        assert fitsLongMicros(delta);
+        return delta.getDays() * US_PER_DAY + delta.getSeconds() * US_PER_SECOND + delta.getMicroseconds();
+    }
+
+    @TruffleBoundary
+    static BigInteger toMicrosBig(PTimeDelta delta) {
+        return BigInteger.valueOf(delta.getDays()).multiply(BigInteger.valueOf(US_PER_DAY)).add(BigInteger.valueOf(delta.getSeconds() * US_PER_SECOND + delta.getMicroseconds()));
+    }
+
+    /**
+     * Normalizes and creates a delta of the exact {@code timedelta} type, like {@code new_delta}
+     * with {@code normalize = 1}. The arguments are sums and differences of normalized fields, so
+     * they cannot overflow.
+     */
+    static PTimeDelta createDelta(PythonObjectFactory factory, PRaiseNode raise, long days, long seconds, long microseconds) {
+        return createDelta(factory, raise, PythonBuiltinClassType.PTimeDelta, days, seconds, microseconds);
+    }
+
+    static PTimeDelta createDelta(PythonObjectFactory factory, PRaiseNode raise, Object cls, long days, long seconds, long microseconds) {
+        long s = seconds + Math.floorDiv(microseconds, US_PER_SECOND);
+        long us = Math.floorMod(microseconds, US_PER_SECOND);
+        long d = days + Math.floorDiv(s, SECONDS_PER_DAY);
+        s = Math.floorMod(s, SECONDS_PER_DAY);
+        if (d < -MAX_DELTA_DAYS || d > MAX_DELTA_DAYS) {
+            throw raise.raise(OverflowError, "days=%d; must have magnitude <= %d", d, MAX_DELTA_DAYS);
+        }
+        return factory.createTimeDelta(cls, (int) d, (int) s, (int) us);
+    }
+
+    static PTimeDelta microsToDelta(PythonObjectFactory factory, PRaiseNode raise, long microseconds) {
+        return createDelta(factory, raise, 0, 0, microseconds);
+    }
+
+    static PTimeDelta microsToDelta(PythonObjectFactory factory, PRaiseNode raise, Object cls, long microseconds) {
+        return createDelta(factory, raise, cls, 0, 0, microseconds);
+    }
+
+    static PTimeDelta microsToDelta(PythonObjectFactory factory, PRaiseNode raise, BigInteger microseconds) {
+        return microsToDelta(factory, raise, PythonBuiltinClassType.PTimeDelta, microseconds);
+    }
+
+    static PTimeDelta microsToDelta(PythonObjectFactory factory, PRaiseNode raise, Object cls, BigInteger microseconds) {
+        long[] dsu = splitMicros(microseconds);
+        if (dsu == null) {
+            throw raise.raise(OverflowError, "days=%s; must have magnitude <= %d", daysOf(microseconds), MAX_DELTA_DAYS);
+        }
+        return factory.createTimeDelta(cls, (int) dsu[0], (int) dsu[1], (int) dsu[2]);
+    }
+
+    /**
+     * Splits microseconds into normalized {@code {days, seconds, microseconds}}, or returns
+     * {@code null} if the days are out of range.
+     */
+    @TruffleBoundary
+    private static long[] splitMicros(BigInteger microseconds) {
+        BigInteger[] dm = microseconds.divideAndRemainder(BigInteger.valueOf(US_PER_DAY));
+        BigInteger days = dm[0];
+        long rest = dm[1].longValue();
+        if (rest < 0) {
+            rest += US_PER_DAY;
+            days = days.subtract(BigInteger.ONE);
+        }
+        if (days.bitLength() >= 32 || Math.abs(days.longValue()) > MAX_DELTA_DAYS) {
+            return null;
+        }
+        return new long[]{days.longValue(), rest / US_PER_SECOND, rest % US_PER_SECOND};
+    }
+
+    @TruffleBoundary
+    private static String daysOf(BigInteger microseconds) {
+        BigInteger[] dm = microseconds.divideAndRemainder(BigInteger.valueOf(US_PER_DAY));
+        return (dm[1].signum() < 0 ? dm[0].subtract(BigInteger.ONE) : dm[0]).toString();
+    }
+
+    /**
+     * Division rounding half to even, like {@code _PyLong_DivmodNear}.
+     */
+    @TruffleBoundary
+    static BigInteger divideNearest(BigInteger a, BigInteger b) {
+        BigInteger[] qr = a.divideAndRemainder(b);
+        BigInteger q = qr[0];
+        BigInteger r = qr[1];
+        if (r.signum() != 0 && r.signum() != b.signum()) {
+            // make it a floor division
+            q = q.subtract(BigInteger.ONE);
+            r = r.add(b);
+        }
+        int cmp = r.shiftLeft(1).compareTo(b);
+        boolean greaterThanHalf = b.signum() > 0 ? cmp > 0 : cmp < 0;
+        if (greaterThanHalf || cmp == 0 && q.testBit(0)) {
+            q = q.add(BigInteger.ONE);
+        }
+        return q;
+    }
+
+    static long divideNearest(long a, long b) {
+        long q = Math.floorDiv(a, b);
+        long r = Math.floorMod(a, b);
+        // r and b have the same sign and |r| < |b|, so 2 * r cannot overflow unless |b| is huge
+        long twice = r << 1;
+        boolean greaterThanHalf = b > 0 ? twice > b : twice < b;
+        if (greaterThanHalf || twice == b && (q & 1) != 0) {
+            q++;
+        }
+        return q;
+    }
+
+    /**
+     * True division of two integers with a correctly rounded result for the common case.
+     */
+    static double trueDivide(long a, long b) {
+        if (Math.abs(a) < (1L << 53) && Math.abs(b) < (1L << 53)) {
+            return (double) a / (double) b;
+        }
+        return trueDivide(BigInteger.valueOf(a), BigInteger.valueOf(b));
+    }
+
+    @TruffleBoundary
+    static double trueDivide(BigInteger a, BigInteger b) {
+        return new BigDecimal(a).divide(new BigDecimal(b), MathContext.DECIMAL128).doubleValue();
+    }
+
+    /**
+     * Converts the leftover fraction of microseconds collected by the timedelta constructor, using
+     * round-half-to-even like {@code delta_new}.
+     */
+    static long roundLeftover(double leftover, boolean accumulatorIsOdd) {
+        double wholeUs = roundHalfAway(leftover);
+        if (Math.abs(wholeUs - leftover) == 0.5) {
+            // exactly halfway between two integers, round to make the total even
+            int isOdd = accumulatorIsOdd ? 1 : 0;
+            wholeUs = 2.0 * roundHalfAway((leftover + isOdd) * 0.5) - isOdd;
+        }
+        return (long) wholeUs;
+    }
+
+    /**
+     * Rounds like C's {@code round}, i.e., half away from zero.
+     */
+    static double roundHalfAway(double x) {
+        double abs = Math.abs(x);
+        double r = Math.floor(abs);
+        if (abs - r >= 0.5) {
+            r += 1.0;
+        }
+        return Math.copySign(r, x);
+    }
+
+    // formatting
+
+    @TruffleBoundary
+    static void appendPadded(StringBuilder sb, int value, int width) {
+        String s = Integer.toString(value);
+        for (int i = s.length(); i < width; i++) {
+            sb.append('0');
+        }
+        sb.append(s);
+    }
+
+    @TruffleBoundary
+    static String isoFormatDate(int year, int month, int day) {
+        StringBuilder sb = new StringBuilder(10);
+        appendIsoDate(sb, year, month, day);
+        return sb.toString();
+    }
+
+    @TruffleBoundary
+    static void appendIsoDate(StringBuilder sb, int year, int month, int day) {
+        appendPadded(sb, year, 4);
+        sb.append('-');
+        appendPadded(sb, month, 2);
+        sb.append('-');
+        appendPadded(sb, day, 2);
+    }
+
+    /**
+     * Appends the time in the format given by the {@code timespec} of {@code isoformat}. Returns
+     * {@code false} if the {@code timespec} is unknown.
+     */
+    @TruffleBoundary
+    static boolean appendIsoTime(StringBuilder sb, int hour, int minute, int second, int microsecond, String timespec) {
+        String spec = timespec;
+        if ("auto".equals(spec)) {
+            spec = microsecond != 0 ? "microseconds" : "seconds";
+        }
+        switch (spec) {
+            case "hours":
+                appendPadded(sb, hour, 2);
+                break;
+            case "minutes":
+                appendPadded(sb, hour, 2);
+                sb.append(':');
+                appendPadded(sb, minute, 2);
+                break;
+            case "seconds":
+                appendHhMmSs(sb, hour, minute, second);
+                break;
+            case "milliseconds":
+                appendHhMmSs(sb, hour, minute, second);
+                sb.append('.');
+                appendPadded(sb, microsecond / 1000, 3);
+                break;
+            case "microseconds":
+                appendHhMmSs(sb, hour, minute, second);
+                sb.append('.');
+                appendPadded(sb, microsecond, 6);
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    private static void appendHhMmSs(StringBuilder sb, int hour, int minute, int second) {
+        appendPadded(sb, hour, 2);
+        sb.append(':');
+        appendPadded(sb, minute, 2);
+        sb.append(':');
+        appendPadded(sb, second, 2);
+    }
+
+    /**
+     * Formats a UTC offset like {@code format_utcoffset}, {@code sep} is {@code ":"} for
+     * {@code isoformat} and empty for {@code %z}.
+     */
+    @TruffleBoundary
+    static String formatUtcOffset(PTimeDelta offset, String sep) {
+        StringBuilder sb = new StringBuilder();
+        appendUtcOffset(sb, offset, sep);
+        return sb.toString();
+    }
+
+    @TruffleBoundary
+    static void appendUtcOffset(StringBuilder sb, PTimeDelta offset, String sep) {
+        long total = offset.getDays() * (long) SECONDS_PER_DAY + offset.getSeconds();
+        int microseconds = offset.getMicroseconds();
+        char sign = '+';
+        if (offset.getDays() < 0) {
+            sign = '-';
+            // negate the delta
+            total = -total;
+            if (microseconds != 0) {
+                total--;
+                microseconds = (int) US_PER_SECOND - microseconds;
+            }
+        }
+        int seconds = (int) (total % 60);
+        int minutes = (int) (total / 60 % 60);
+        int hours = (int) (total / 3600);
+        sb.append(sign);
+        appendPadded(sb, hours, 2);
+        sb.append(sep);
+        appendPadded(sb, minutes, 2);
+        if (microseconds != 0 || seconds != 0) {
+            sb.append(sep);
+            appendPadded(sb, seconds, 2);
+            if (microseconds != 0) {
+                sb.append('.');
+                appendPadded(sb, microseconds, 6);
+            }
+        }
+    }
+
+    /**
+     * The {@code tp_name} used by the reprs, i.e., the module qualified name for the builtin types
+     * and the plain name for subclasses.
+     */
+    @TruffleBoundary
+    static String getTpName(Object cls) {
+        if (cls instanceof PythonBuiltinClassType) {
+            return ((PythonBuiltinClassType) cls).getPrintName();
+        } else if (cls instanceof PythonBuiltinClass) {
+            return ((PythonBuiltinClass) cls).getType().getPrintName();
+        }
+        return GetNameNode.getUncached().execute(cls);
+    }
+
+    // parsing
+
+    private static char charAt(String s, int i) {
+        return i < s.length() ? s.charAt(i) : '\0';
+    }
+
+    /**
+     * Parses {@code count} ASCII digits at {@code pos}, returns -1 if there are not enough.
+     */
+    private static int parseDigits(String s, int pos, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            char c = charAt(s, pos + i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses {@code YYYY-MM-DD} at the start of the string into {@code ymd}, like
+     * {@code parse_isoformat_date}. The values are not validated.
+     */
+    static boolean parseIsoDate(String s, int[] ymd) {
+        int year = parseDigits(s, 0, 4);
+        if (year < 0 || charAt(s, 4) != '-') {
+            return false;
+        }
+        int month = parseDigits(s, 5, 2);
+        if (month < 0 || charAt(s, 7) != '-') {
+            return false;
+        }
+        int day = parseDigits(s, 8, 2);
+        if (day < 0) {
+            return false;
+        }
+        ymd[0] = year;
+        ymd[1] = month;
+        ymd[2] = day;
+        return true;
+    }
+
+    /**
+     * Parses {@code HH[:MM[:SS[.fff[fff]]]]} between {@code start} and {@code end} into
+     * {@code out[offset..offset+3]}, like {@code parse_hh_mm_ss_ff}. Returns a negative value on
+     * error, 0 if the component ends with the string and 1 otherwise.
+     */
+    private static int parseHhMmSsFf(String s, int start, int end, int[] out, int offset) {
+        int p = start;
+        for (int i = 0; i < 3; i++) {
+            int value = parseDigits(s, p, 2);
+            if (value < 0) {
+                return -3;
+            }
+            out[offset + i] = value;
+            p += 2;
+            char c = charAt(s, p++);
+            if (p >= end) {
+                return c != '\0' ? 1 : 0;
+            } else if (c == ':') {
+                continue;
+            } else if (c == '.') {
+                break;
+            } else {
+                return -4;
+            }
+        }
+        int remaining = end - p;
+        if (remaining != 6 && remaining != 3) {
+            return -3;
+        }
+        int microsecond = parseDigits(s, p, remaining);
+        if (microsecond < 0) {
+            return -3;
+        }
+        out[offset + 3] = remaining == 3 ? microsecond * 1000 : microsecond;
+        return charAt(s, p + remaining) != '\0' ? 1 : 0;
+    }
+
+    /**
+     * Parses the time part of an ISO string starting at {@code start} into {@code {hour, minute,
+     * second, microsecond, tzoffset seconds, tzoffset microseconds}}, like
+     * {@code parse_isoformat_time}. Returns a negative value on error, 1 if there was a UTC offset
+     * and 0 otherwise.
+     */
+    static int parseIsoTime(String s, int start, int[] out) {
+        int end = s.length();
+        int tzPos = start;
+        while (tzPos < end) {
+            char c = s.charAt(tzPos);
+            if (c == '+' || c == '-') {
+                break;
+            }
+            tzPos++;
+        }
+        int rv = parseHhMmSsFf(s, start, tzPos, out, 0);
+        if (rv < 0) {
+            return rv;
+        } else if (tzPos == end) {
+            out[4] = 0;
+            out[5] = 0;
+            return 0;
+        }
+        int tzLen = end - tzPos;
+        if (tzLen != 6 && tzLen != 9 && tzLen != 16) {
+            return -5;
+        }
+        int sign = s.charAt(tzPos) == '-' ? -1 : 1;
+        int[] tz = new int[4];
+        rv = parseHhMmSsFf(s, tzPos + 1, end, tz, 0);
+        out[4] = sign * (tz[0] * 3600 + tz[1] * 60 + tz[2]);
+        out[5] = sign * tz[3];
+        return rv != 0 ? -5 : 1;
+    }
+
+    // local time
+
+    @TruffleBoundary
+    static ZoneId getLocalZone(PythonContext context) {
+        return TimeModuleBuiltins.getCurrentZoneId(context);
+    }
+
+    /**
+     * The local wall clock time of the UTC time {@code u}, both in seconds since 0001-01-01, like
+     * {@code local} in CPython.
+     */
+    @TruffleBoundary
+    static long local(ZoneId zone, long u) {
+        long t = u - EPOCH_SECONDS;
+        return u + zone.getRules().getOffset(Instant.ofEpochSecond(t)).getTotalSeconds();
+    }
+
+    /**
+     * Solves {@code t = local(u)} for {@code u}, choosing between ambiguous or missing times using
+     * {@code fold}, like {@code local_to_seconds} in CPython.
+     */
+    @TruffleBoundary
+    static long localToSeconds(ZoneId zone, int year, int month, int day, int hour, int minute, int second, int fold) {
+        long t = utcToSeconds(year, month, day, hour, minute, second);
+        long lt = local(zone, t);
+        long a = lt - t;
+        long u1 = t - a;
+        long t1 = local(zone, u1);
+        long b;
+        if (t1 == t) {
+            // we found one solution, but it may not be the one we need
+            long u2 = fold != 0 ? u1 + MAX_FOLD_SECONDS : u1 - MAX_FOLD_SECONDS;
+            lt = local(zone, u2);
+            b = lt - u2;
+            if (a == b) {
+                return u1;
+            }
+        } else {
+            b = t1 - u1;
+            assert a != b;
+        }
+        long u2 = t - b;
+        long t2 = local(zone, u2);
+        if (t2 == t) {
+            return u2;
+        }
+        if (t1 == t) {
+            return u1;
+        }
+        // t is in the gap
+        return fold != 0 ? Math.min(u1, u2) : Math.max(u1, u2);
+    }
+
+    static void checkTimestamp(PRaiseNode raise, long seconds) {
+        if (seconds < -MAX_TIMESTAMP_SECONDS || seconds > MAX_TIMESTAMP_SECONDS) {
+            throw raise.raise(OverflowError, TIMESTAMP_OUT_OF_RANGE);
+        }
+    }
+
+    /**
+     * Breaks down a timestamp in UTC into {@code {year, month, day, hour, minute, second}}.
+     */
+    static int[] gmtime(long seconds) {
+        long days = Math.floorDiv(seconds, SECONDS_PER_DAY);
+        int secs = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+        int[] ymd = ordToYmd((int) (days + EPOCH_ORDINAL));
+        return new int[]{ymd[0], ymd[1], ymd[2], secs / 3600, secs / 60 % 60, secs % 60};
+    }
+
+    /**
+     * Breaks down a timestamp in the local time zone into {@code {year, month, day, hour, minute,
+     * second}}.
+     */
+    static int[] localtime(ZoneId zone, long seconds) {
+        int[] tm = TimeModuleBuiltins.getIntLocalTimeStruct(zone, seconds);
+        return new int[]{tm[TimeModuleBuiltins.TM_YEAR], tm[TimeModuleBuiltins.TM_MON], tm[TimeModuleBuiltins.TM_MDAY], tm[TimeModuleBuiltins.TM_HOUR], tm[TimeModuleBuiltins.TM_MIN],
+                        Math.min(59, tm[TimeModuleBuiltins.TM_SEC])};
+    }
+
+    /**
+     * Normalizes an ordinal and microseconds since midnight into {@code {year, month, day, hour,
+     * minute, second, microsecond}}, raising {@code OverflowError} if the date is out of range.
+     */
+    static int[] normalizeDateTime(PRaiseNode raise, long ordinal, long microseconds) {
+        long days = ordinal + Math.floorDiv(microseconds, US_PER_DAY);
+        long us = Math.floorMod(microseconds, US_PER_DAY);
+        int[] ymd = ordToCheckedYmd(raise, days);
+        int secs = (int) (us / US_PER_SECOND);
+        return new int[]{ymd[0], ymd[1], ymd[2], secs / 3600, secs / 60 % 60, secs % 60, (int) (us % US_PER_SECOND)};
+    }
+
+    /**
+     * The fields of {@code time.struct_time} as used by {@code timetuple()}, like
+     * {@code build_struct_time}.
+     */
+    static int[] buildTimeTuple(int year, int month, int day, int hour, int minute, int second, int dst) {
+        return new int[]{year, month, day, hour, minute, second, weekday(year, month, day), daysBeforeMonth(year, month) + day, dst};
+    }
+
+    static PTuple createStructTime(PythonObjectFactory factory, int[] timetuple) {
+        Object[] values = new Object[timetuple.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = timetuple[i];
+        }
+        return factory.createStructSeq(TimeModuleBuiltins.STRUCT_TIME_DESC, values);
+    }
+
+    static boolean isTimeZone(Object obj) {
+        return obj instanceof PTimeZone;
+    }
+
+    /**
+     * The name reported by {@code timezone.tzname()}.
+     */
+    @TruffleBoundary
+    static Object timeZoneName(PTimeZone tz) {
+        if (tz.getName() != PNone.NONE) {
+            return tz.getName();
+        }
+        PTimeDelta offset = tz.getOffset();
+        if (offset.isZero()) {
+            return "UTC";
+        }
+        StringBuilder sb = new StringBuilder("UTC");
+        appendUtcOffset(sb, offset, ":");
+        return sb.toString();
+    }
+
+    /**
+     * Converts an argument like the {@code i} format unit of {@code PyArg_ParseTuple}.
+     */
+    public abstract static class IntArgNode extends PNodeWithRaise {
+        public abstract int execute(VirtualFrame frame, Object value);
+
+        @Specialization
+        static int doInt(int value) {
+            return value;
+        }
+
+        @Specialization(replaces = "doInt")
+        int doOther(VirtualFrame frame, Object value,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsSubtypeNode isSubtypeNode,
+                        @Cached PyLongAsIntNode asIntNode) {
+            if (isSubtypeNode.execute(getClassNode.execute(value), PythonBuiltinClassType.PFloat)) {
+                throw raise(TypeError, ErrorMessages.S_EXPECTED_GOT_P, "integer", value);
+            }
+            return asIntNode.execute(frame, value);
+        }
+    }
+
+    /**
+     * Checks that the argument is {@code None} or a {@code tzinfo}, like
+     * {@code check_tzinfo_subclass}.
+     */
+    public abstract static class CheckTzInfoNode extends PNodeWithRaise {
+        public abstract void execute(Object tzinfo);
+
+        @Specialization
+        static void doTimeZone(@SuppressWarnings("unused") PTimeZone tzinfo) {
+        }
+
+        @Specialization(guards = "!isTimeZone(tzinfo)")
+        void doOther(Object tzinfo,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsSubtypeNode isSubtypeNode) {
+            if (tzinfo != PNone.NONE && !isSubtypeNode.execute(getClassNode.execute(tzinfo), PythonBuiltinClassType.PTzInfo)) {
+                throw raise(TypeError, BAD_TZINFO, tzinfo);
+            }
+        }
+    }
+
+    /**
+     * Calls {@code tzinfo.utcoffset(arg)} or {@code tzinfo.dst(arg)} and checks the result, like
+     * {@code call_utcoffset} and {@code call_dst}. Returns {@link PNone#NONE} or a
+     * {@link PTimeDelta}. Instances of {@code timezone} are handled without a call.
+     */
+    public abstract static class CallTzInfoOffsetNode extends PNodeWithRaise {
+        public abstract Object execute(VirtualFrame frame, Object tzinfo, Object arg, boolean dst);
+
+        @Specialization
+        static Object doTimeZone(PTimeZone tzinfo, @SuppressWarnings("unused") Object arg, boolean dst) {
+            return dst ? PNone.NONE : tzinfo.getOffset();
+        }
+
+        @Specialization(guards = "!isTimeZone(tzinfo)")
+        Object doGeneric(VirtualFrame frame, Object tzinfo, Object arg, boolean dst,
+                        @Cached ConditionProfile isNoneProfile,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (isNoneProfile.profile(tzinfo == PNone.NONE)) {
+                return PNone.NONE;
+            }
+            String name = dst ? "dst" : "utcoffset";
+            Object offset = callMethod.execute(frame, tzinfo, name, arg);
+            if (offset == PNone.NONE) {
+                return PNone.NONE;
+            }
+            if (offset instanceof PTimeDelta) {
+                if (!isValidUtcOffset((PTimeDelta) offset)) {
+                    throw raise(ValueError, OFFSET_OUT_OF_RANGE);
+                }
+                return offset;
+            }
+            throw raise(TypeError, "tzinfo.%s() must return None or timedelta, not '%p'", name, offset);
+        }
+    }
+
+    /**
+     * Calls {@code tzinfo.tzname(arg)} and checks the result, like {@code call_tzname}.
+     */
+    public abstract static class CallTzNameNode extends PNodeWithRaise {
+        public abstract Object execute(VirtualFrame frame, Object tzinfo, Object arg);
+
+        @Specialization
+        static Object doTimeZone(PTimeZone tzinfo, @SuppressWarnings("unused") Object arg) {
+            return timeZoneName(tzinfo);
+        }
+
+        @Specialization(guards = "!isTimeZone(tzinfo)")
+        Object doGeneric(VirtualFrame frame, Object tzinfo, Object arg,
+                        @Cached ConditionProfile isNoneProfile,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode) {
+            if (isNoneProfile.profile(tzinfo == PNone.NONE)) {
+                return PNone.NONE;
+            }
+            Object name = callMethod.execute(frame, tzinfo, "tzname", arg);
+            if (name != PNone.NONE && !unicodeCheckNode.execute(name)) {
+                throw raise(TypeError, "tzinfo.tzname() must return None or a string, not '%p'", name);
+            }
+            return name;
+        }
+    }
+
+    /**
+     * Returns the {@code timezone.utc} singleton.
+     */
+    public abstract static class GetUtcNode extends PNodeWithContext {
+        public abstract PTimeZone execute();
+
+        @Specialization
+        PTimeZone doGet(@Cached ReadAttributeFromObjectNode readNode) {
+            return (PTimeZone) readNode.execute(getContext().lookupType(PythonBuiltinClassType.PTimeZone), "utc");
+        }
+    }
+
+    /**
+     * Creates a {@code timezone}, returning the {@code utc} singleton for an unnamed zero offset,
+     * like {@code new_timezone}.
+     */
+    public abstract static class NewTimeZoneNode extends PNodeWithRaise {
+        public abstract PTimeZone execute(PTimeDelta offset, Object name);
+
+        @Specialization
+        PTimeZone doIt(PTimeDelta offset, Object name,
+                        @Cached GetUtcNode getUtcNode,
+                        @Cached PythonObjectFactory factory) {
+            if (name == PNone.NONE && offset.isZero()) {
+                return getUtcNode.execute();
+            }
+            if (!isValidUtcOffset(offset)) {
+                throw raise(ValueError, "offset must be a timedelta strictly between -timedelta(hours=24) and timedelta(hours=24), not %s.", reprDelta(offset));
+            }
+            return factory.createTimeZone(PythonBuiltinClassType.PTimeZone, offset, name);
+        }
+    }
+
+    /**
+     * Creates the {@code tzinfo} for the UTC offset parsed by {@link #parseIsoTime}, like
+     * {@code tzinfo_from_isoformat_results}.
+     */
+    public abstract static class TzInfoFromIsoFormatNode extends PNodeWithRaise {
+        public abstract PTimeZone execute(int offsetSeconds, int offsetMicroseconds);
+
+        @Specialization
+        PTimeZone doIt(int offsetSeconds, int offsetMicroseconds,
+                        @Cached GetUtcNode getUtcNode,
+                        @Cached NewTimeZoneNode newTimeZoneNode,
+                        @Cached PythonObjectFactory factory) {
+            if (offsetSeconds == 0 && offsetMicroseconds == 0) {
+                return getUtcNode.execute();
+            }
+            return newTimeZoneNode.execute(createDelta(factory, getRaiseNode(), 0, offsetSeconds, offsetMicroseconds), PNone.NONE);
+        }
+    }
+
+    /**
+     * Creates a date of the given class. For subclasses the class is called like in
+     * {@code new_date_subclass_ex}.
+     */
+    public abstract static class NewDateNode extends PNodeWithRaise {
+        public abstract Object execute(VirtualFrame frame, Object cls, int year, int month, int day);
+
+        @Specialization
+        Object doIt(VirtualFrame frame, Object cls, int year, int month, int day,
+                        @Cached IsBuiltinClassProfile isBuiltinProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isBuiltinProfile.profileClass(cls, PythonBuiltinClassType.PDate)) {
+                checkDateArgs(getRaiseNode(), year, month, day);
+                return factory.createDate(cls, year, month, day);
+            }
+            return callNode.execute(frame, cls, year, month, day);
+        }
+    }
+
+    /**
+     * Creates a datetime of the given class. For subclasses the class is called like in
+     * {@code new_datetime_subclass_fold_ex}.
+     */
+    public abstract static class NewDateTimeNode extends PNodeWithRaise {
+        public abstract Object execute(VirtualFrame frame, Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold);
+
+        @Specialization
+        Object doIt(VirtualFrame frame, Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold,
+                        @Cached IsBuiltinClassProfile isBuiltinProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isBuiltinProfile.profileClass(cls, PythonBuiltinClassType.PDateTime)) {
+                checkDateArgs(getRaiseNode(), year, month, day);
+                checkTimeArgs(getRaiseNode(), hour, minute, second, microsecond, fold);
+                return factory.createDateTime(cls, year, month, day, hour, minute, second, microsecond, tzinfo, fold);
+            }
+            Object[] args = new Object[]{year, month, day, hour, minute, second, microsecond, tzinfo};
+            PKeyword[] kwargs = fold != 0 ? new PKeyword[]{new PKeyword("fold", fold)} : PKeyword.EMPTY_KEYWORDS;
+            return callNode.execute(frame, cls, args, kwargs);
+        }
+    }
+
+    /**
+     * Creates a time of the given class. For subclasses the class is called like in
+     * {@code time_fromisoformat}.
+     */
+    public abstract static class NewTimeNode extends PNodeWithRaise {
+        public abstract Object execute(VirtualFrame frame, Object cls, int hour, int minute, int second, int microsecond, Object tzinfo, int fold);
+
+        @Specialization
+        Object doIt(VirtualFrame frame, Object cls, int hour, int minute, int second, int microsecond, Object tzinfo, int fold,
+                        @Cached IsBuiltinClassProfile isBuiltinProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isBuiltinProfile.profileClass(cls, PythonBuiltinClassType.PTime)) {
+                checkTimeArgs(getRaiseNode(), hour, minute, second, microsecond, fold);
+                return factory.createTime(cls, hour, minute, second, microsecond, tzinfo, fold);
+            }
+            Object[] args = new Object[]{hour, minute, second, microsecond, tzinfo};
+            PKeyword[] kwargs = fold != 0 ? new PKeyword[]{new PKeyword("fold", fold)} : PKeyword.EMPTY_KEYWORDS;
+            return callNode.execute(frame, cls, args, kwargs);
+        }
+    }
+
+    /**
+     * Converts a timestamp to {@code {seconds, microseconds}} like {@code _PyTime_ObjectToTimeval}
+     * with {@code _PyTime_ROUND_HALF_EVEN}, or to {@code {seconds, 0}} like
+     * {@code _PyTime_ObjectToTime_t} with {@code _PyTime_ROUND_FLOOR}.
+     */
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    public abstract static class TimestampToTimevalNode extends PNodeWithRaise {
+        public abstract long[] execute(VirtualFrame frame, Object timestamp, boolean wholeSeconds);
+
+        @Specialization
+        long[] doLong(long timestamp, @SuppressWarnings("unused") boolean wholeSeconds) {
+            return new long[]{timestamp, 0};
+        }
+
+        @Specialization
+        long[] doDouble(double timestamp, boolean wholeSeconds) {
+            if (Double.isNaN(timestamp)) {
+                throw raise(ValueError, INVALID_VALUE_NAN);
+            }
+            double intPart;
+            double us = 0;
+            if (wholeSeconds) {
+                intPart = Math.floor(timestamp);
+            } else {
+                intPart = timestamp < 0 ? Math.ceil(timestamp) : Math.floor(timestamp);
+                us = Math.rint((timestamp - intPart) * 1e6);
+                if (us >= 1e6) {
+                    us -= 1e6;
+                    intPart += 1.0;
+                } else if (us < 0) {
+                    us += 1e6;
+                    intPart -= 1.0;
+                }
+            }
+            if (!(intPart >= Long.MIN_VALUE && intPart < Long.MAX_VALUE)) {
+                throw raise(OverflowError, TIMESTAMP_OUT_OF_RANGE);
+            }
+            return new long[]{(long) intPart, (long) us};
+        }
+
+        @Specialization(guards = {"!isDouble(timestamp)", "!isLong(timestamp)"})
+        long[] doOther(VirtualFrame frame, Object timestamp, @SuppressWarnings("unused") boolean wholeSeconds,
+                        @Cached PyLongAsLongAndOverflowNode asLongNode) {
+            try {
+                return new long[]{asLongNode.execute(frame, timestamp), 0};
+            } catch (OverflowException e) {
+                throw raise(OverflowError, TIMESTAMP_OUT_OF_RANGE);
+            }
+        }
+
+        static boolean isLong(Object obj) {
+            return obj instanceof Long || obj instanceof Integer || obj instanceof Boolean;
+        }
+
+        static boolean isDouble(Object obj) {
+            return obj instanceof Double || obj instanceof PFloat;
+        }
+    }
+
+    /**
+     * Creates a datetime from a timestamp in UTC or in the local time zone, like
+     * {@code datetime_from_timet_and_us}. For local times, the fold is detected by probing a day
+     * back.
+     */
+    public abstract static class FromTimetAndUsNode extends PNodeWithRaise {
+        public abstract Object execute(VirtualFrame frame, Object cls, long seconds, int microseconds, boolean utc, Object tzinfo);
+
+        @Specialization
+        Object doIt(VirtualFrame frame, Object cls, long seconds, int microseconds, boolean utc, Object tzinfo,
+                        @Cached ConditionProfile utcProfile,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            checkTimestamp(getRaiseNode(), seconds);
+            int[] tm;
+            int fold = 0;
+            if (utcProfile.profile(utc)) {
+                tm = gmtime(seconds);
+            } else {
+                ZoneId zone = getLocalZone(getContext());
+                tm = localtime(zone, seconds);
+                if (tzinfo == PNone.NONE) {
+                    fold = detectFold(zone, seconds, tm);
+                }
+            }
+            return newDateTimeNode.execute(frame, cls, tm[0], tm[1], tm[2], tm[3], tm[4], tm[5], microseconds, tzinfo, fold);
+        }
+
+        @TruffleBoundary
+        private static int detectFold(ZoneId zone, long seconds, int[] tm) {
+            if (tm[0] < MINYEAR || tm[0] > MAXYEAR) {
+                // will be rejected by the constructor anyway
+                return 0;
+            }
+            long resultSeconds = utcToSeconds(tm[0], tm[1], tm[2], tm[3], tm[4], tm[5]);
+            long probeSeconds = local(zone, EPOCH_SECONDS + seconds - MAX_FOLD_SECONDS);
+            long transition = resultSeconds - probeSeconds - MAX_FOLD_SECONDS;
+            if (transition < 0) {
+                probeSeconds = local(zone, EPOCH_SECONDS + seconds + transition);
+                if (probeSeconds == resultSeconds) {
+                    return 1;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Implements {@code strftime} of the {@code _datetime} types by replacing the {@code %z},
+     * {@code %Z} and {@code %f} directives and passing the result to {@code time.strftime}, like
+     * {@code wrap_strftime}.
+     */
+    public abstract static class WrapStrftimeNode extends PNodeWithRaise {
+        private static final int HAS_Z_LOWER = 1;
+        private static final int HAS_Z_UPPER = 2;
+        private static final int HAS_F = 4;
+
+        /**
+         * @param timetuple the time tuple as produced by {@code timetuple()}
+         * @param tzinfo the time zone, {@link PNone#NONE} for dates and naive objects
+         * @param tzinfoArg the argument for the {@code tzinfo} methods
+         */
+        public abstract String execute(VirtualFrame frame, String format, int[] timetuple, Object tzinfo, Object tzinfoArg, int microsecond);
+
+        @Specialization
+        String doIt(VirtualFrame frame, String format, int[] timetuple, Object tzinfo, Object tzinfoArg, int microsecond,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode,
+                        @Cached CallTzNameNode tzNameNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached BranchProfile replaceProfile) {
+            int directives = scanDirectives(format);
+            String newFormat = format;
+            if (directives != 0) {
+                replaceProfile.enter();
+                String zLower = "";
+                String zUpper = "";
+                if ((directives & HAS_Z_LOWER) != 0) {
+                    Object offset = utcOffsetNode.execute(frame, tzinfo, tzinfoArg, false);
+                    if (offset != PNone.NONE) {
+                        zLower = formatUtcOffset((PTimeDelta) offset, "");
+                    }
+                }
+                if ((directives & HAS_Z_UPPER) != 0) {
+                    Object name = tzNameNode.execute(frame, tzinfo, tzinfoArg);
+                    if (name != PNone.NONE) {
+                        zUpper = castToStringNode.execute(name);
+                    }
+                }
+                newFormat = replaceDirectives(format, zLower, zUpper, microsecond);
+            }
+            return TimeModuleBuiltins.StrfTimeNode.format(newFormat, timetuple);
+        }
+
+        @TruffleBoundary
+        private static int scanDirectives(String format) {
+            int result = 0;
+            int i = 0;
+            while (i < format.length() - 1) {
+                if (format.charAt(i) == '%') {
+                    char c = format.charAt(i + 1);
+                    if (c == 'z') {
+                        result |= HAS_Z_LOWER;
+                    } else if (c == 'Z') {
+                        result |= HAS_Z_UPPER;
+                    } else if (c == 'f') {
+                        result |= HAS_F;
+                    }
+                    i += 2;
+                } else {
+                    i++;
+                }
+            }
+            return result;
+        }
+
+        @TruffleBoundary
+        private static String replaceDirectives(String format, String zLower, String zUpper, int microsecond) {
+            StringBuilder sb = new StringBuilder(format.length() + 16);
+            int i = 0;
+            while (i < format.length()) {
+                char c = format.charAt(i);
+                if (c == '%' && i + 1 < format.length()) {
+                    char d = format.charAt(i + 1);
+                    if (d == 'z') {
+                        sb.append(zLower);
+                    } else if (d == 'Z') {
+                        sb.append(zUpper.replace("%", "%%"));
+                    } else if (d == 'f') {
+                        appendPadded(sb, microsecond, 6);
+                    } else {
+                        sb.append(c).append(d);
+                    }
+                    i += 2;
+                } else {
+                    sb.append(c);
+                    i++;
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Builds the {@code repr} of a delta, omitting zero fields like {@code delta_repr}.
+     */
+    @TruffleBoundary
+    static String reprDelta(PTimeDelta delta) {
+        return reprDelta(getTpName(GetClassNode.getUncached().execute(delta)), delta.getDays(), delta.getSeconds(), delta.getMicroseconds());
+    }
+
+    @TruffleBoundary
+    static String reprDelta(String typeName, int days, int seconds, int microseconds) {
+        StringBuilder sb = new StringBuilder(typeName).append('(');
+        String sep = "";
+        if (days != 0) {
+            sb.append("days=").append(days);
+            sep = ", ";
+        }
+        if (seconds != 0) {
+            sb.append(sep).append("seconds=").append(seconds);
+            sep = ", ";
+        }
+        if (microseconds != 0) {
+            sb.append(sep).append("microseconds=").append(microseconds);
+            sep = ", ";
+        }
+        if (sep.isEmpty()) {
+            sb.append('0');
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MAXYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MINYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.US_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.US_PER_SECOND;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.checkDateArgs;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.checkTimeArgs;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.getTpName;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.microsToDelta;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.roundLeftover;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.IntArgNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewTimeZoneNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes.ToBytesNode;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.nodes.util.CastToJavaBigIntegerNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * The {@code _datetime} accelerator module. The types are published by
+ * {@link PythonBuiltinClassType}, this module only provides their constructors, the pure Python
+ * {@code datetime.py} replaces its classes with these on import like it does in CPython.
+ */
+@CoreFunctions(defineModule = "_datetime")
+public class DatetimeModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DatetimeModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        builtinConstants.put(SpecialAttributeNames.__DOC__, "Fast implementation of the datetime type.");
+        builtinConstants.put("MINYEAR", MINYEAR);
+        builtinConstants.put("MAXYEAR", MAXYEAR);
+        super.initialize(core);
+    }
+
+    /**
+     * Adds {@code num * factor} to the microseconds accumulated so far, like {@code accum} in
+     * CPython. The sum is a {@code long} as long as it fits and a {@link BigInteger} otherwise. The
+     * fractional microseconds of float components are collected in {@code leftover[0]}.
+     */
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    abstract static class AccumNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, Object sofar, Object num, long factor, String tag, double[] leftover);
+
+        @Specialization(guards = "isNoValue(num)")
+        static Object doNoValue(Object sofar, @SuppressWarnings("unused") PNone num, @SuppressWarnings("unused") long factor, @SuppressWarnings("unused") String tag,
+                        @SuppressWarnings("unused") double[] leftover) {
+            return sofar;
+        }
+
+        @Specialization(rewriteOn = ArithmeticException.class)
+        static long doLong(long sofar, long num, long factor, @SuppressWarnings("unused") String tag, @SuppressWarnings("unused") double[] leftover) {
+            return Math.addExact(sofar, Math.multiplyExact(num, factor));
+        }
+
+        @Specialization(guards = "!isNoValue(num)", replaces = "doLong")
+        Object doGeneric(VirtualFrame frame, Object sofar, Object num, long factor, String tag, double[] leftover,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsSubtypeNode isSubtypeNode,
+                        @Cached CastToJavaBigIntegerNode toBigIntegerNode,
+                        @Cached PyFloatAsDoubleNode asDoubleNode) {
+            if (longCheckNode.execute(num)) {
+                return narrow(add(sofar, toBigIntegerNode.execute(num).multiply(BigInteger.valueOf(factor))));
+            }
+            if (isSubtypeNode.execute(getClassNode.execute(num), PythonBuiltinClassType.PFloat)) {
+                double dnum = asDoubleNode.execute(frame, num);
+                if (Double.isNaN(dnum)) {
+                    throw raise(ValueError, "cannot convert float NaN to integer");
+                } else if (Double.isInfinite(dnum)) {
+                    throw raise(OverflowError, "cannot convert float infinity to integer");
+                }
+                return accumDouble(sofar, dnum, factor, leftover);
+            }
+            throw raise(TypeError, "unsupported type for timedelta %s component: %p", tag, num);
+        }
+
+        @TruffleBoundary
+        private static Object accumDouble(Object sofar, double dnum, long factor, double[] leftover) {
+            double intpart = truncate(dnum);
+            double fracpart = dnum - intpart;
+            BigInteger sum = add(sofar, new BigDecimal(intpart).toBigInteger().multiply(BigInteger.valueOf(factor)));
+            if (fracpart != 0.0) {
+                // lose no information so far, the fraction of the factor needs float arithmetic
+                double scaled = factor * fracpart;
+                double scaledInt = truncate(scaled);
+                sum = sum.add(BigInteger.valueOf((long) scaledInt));
+                leftover[0] += scaled - scaledInt;
+            }
+            return narrow(sum);
+        }
+
+        private static double truncate(double x) {
+            return x < 0 ? Math.ceil(x) : Math.floor(x);
+        }
+
+        @TruffleBoundary
+        private static BigInteger add(Object sofar, BigInteger value) {
+            BigInteger s = sofar instanceof BigInteger ? (BigInteger) sofar : BigInteger.valueOf((long) sofar);
+            return s.add(value);
+        }
+
+        @TruffleBoundary
+        private static Object narrow(BigInteger value) {
+            if (value.bitLength() < Long.SIZE) {
+                return value.longValue();
+            }
+            return value;
+        }
+    }
+
+    // _datetime.timedelta
+    @Builtin(name = "timedelta", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PTimeDelta, parameterNames = {"$cls", "days", "seconds", "microseconds", "milliseconds",
+                    "minutes", "hours", "weeks"}, doc = "Difference between two datetime values.\n\ntimedelta(days=0, seconds=0, microseconds=0, milliseconds=0, minutes=0, hours=0, weeks=0)\n\n" +
+                                    "All arguments are optional and default to 0.\nArguments may be integers or floats, and may be positive or negative.")
+    @GenerateNodeFactory
+    abstract static class TimeDeltaNode extends PythonBuiltinNode {
+        @Specialization
+        Object newDelta(VirtualFrame frame, Object cls, Object days, Object seconds, Object microseconds, Object milliseconds, Object minutes, Object hours, Object weeks,
+                        @Cached AccumNode accumNode) {
+            double[] leftover = new double[1];
+            // same order as CPython since the order of the float leftovers matters
+            Object x = 0L;
+            x = accumNode.execute(frame, x, microseconds, 1, "microseconds", leftover);
+            x = accumNode.execute(frame, x, milliseconds, 1000, "milliseconds", leftover);
+            x = accumNode.execute(frame, x, seconds, US_PER_SECOND, "seconds", leftover);
+            x = accumNode.execute(frame, x, minutes, 60 * US_PER_SECOND, "minutes", leftover);
+            x = accumNode.execute(frame, x, hours, 3600 * US_PER_SECOND, "hours", leftover);
+            x = accumNode.execute(frame, x, days, US_PER_DAY, "days", leftover);
+            x = accumNode.execute(frame, x, weeks, 7 * US_PER_DAY, "weeks", leftover);
+            if (leftover[0] != 0.0) {
+                boolean isOdd = x instanceof BigInteger ? ((BigInteger) x).testBit(0) : ((long) x & 1) != 0;
+                x = accumNode.execute(frame, x, roundLeftover(leftover[0], isOdd), 1, "microseconds", leftover);
+            }
+            if (x instanceof BigInteger) {
+                return microsToDelta(factory(), getRaiseNode(), cls, (BigInteger) x);
+            }
+            return microsToDelta(factory(), getRaiseNode(), cls, (long) x);
+        }
+    }
+
+    /**
+     * Returns the pickle state if {@code arg} is a bytes object of the given length whose byte at
+     * {@code checkIndex} passes the sanity check of {@code date_new}, {@code datetime_new} and
+     * {@code time_new}, and {@code null} otherwise.
+     */
+    static byte[] getPickleState(VirtualFrame frame, Object arg, int length, int checkIndex, int checkMin, int checkMax, ToBytesNode toBytesNode) {
+        if (arg instanceof PBytes) {
+            byte[] state = toBytesNode.execute(frame, arg);
+            if (state.length == length) {
+                int check = state[checkIndex] & 0x7F;
+                if (check >= checkMin && check <= checkMax) {
+                    return state;
+                }
+            }
+        }
+        return null;
+    }
+
+    static Object requiredArg(PRaiseNode raise, Object value, String name, int pos) {
+        if (value == PNone.NO_VALUE) {
+            throw raise.raise(TypeError, "Required argument '%s' (pos %d) not found", name, pos);
+        }
+        return value;
+    }
+
+    static int getMicrosecond(byte[] state, int offset) {
+        return (state[offset] & 0xFF) << 16 | (state[offset + 1] & 0xFF) << 8 | state[offset + 2] & 0xFF;
+    }
+
+    // _datetime.date
+    @Builtin(name = "date", minNumOfPositionalArgs = 2, constructsClass = PythonBuiltinClassType.PDate, parameterNames = {"$cls", "year", "month", "day"}, doc = "date(year, month, day) --> date object")
+    @GenerateNodeFactory
+    abstract static class DateNode extends PythonBuiltinNode {
+        @Specialization
+        Object newDate(VirtualFrame frame, Object cls, Object yearObj, Object monthObj, Object dayObj,
+                        @Cached ToBytesNode toBytesNode,
+                        @Cached IntArgNode intArgNode) {
+            if (monthObj == PNone.NO_VALUE && dayObj == PNone.NO_VALUE) {
+                byte[] state = getPickleState(frame, yearObj, 4, 2, 1, 12, toBytesNode);
+                if (state != null) {
+                    return factory().createDate(cls, (state[0] & 0xFF) << 8 | state[1] & 0xFF, state[2], state[3]);
+                }
+            }
+            int year = intArgNode.execute(frame, yearObj);
+            int month = intArgNode.execute(frame, requiredArg(getRaiseNode(), monthObj, "month", 2));
+            int day = intArgNode.execute(frame, requiredArg(getRaiseNode(), dayObj, "day", 3));
+            checkDateArgs(getRaiseNode(), year, month, day);
+            return factory().createDate(cls, year, month, day);
+        }
+    }
+
+    // _datetime.datetime
+    @Builtin(name = "datetime", minNumOfPositionalArgs = 2, constructsClass = PythonBuiltinClassType.PDateTime, parameterNames = {"$cls", "year", "month", "day", "hour", "minute", "second",
+                    "microsecond", "tzinfo"}, keywordOnlyNames = {"fold"}, doc = "datetime(year, month, day[, hour[, minute[, second[, microsecond[,tzinfo]]]]])\n\n" +
+                                    "The year, month and day arguments are required. tzinfo may be None, or an\ninstance of a tzinfo subclass. The remaining arguments may be ints.\n")
+    @GenerateNodeFactory
+    abstract static class DateTimeNode extends PythonBuiltinNode {
+        @Specialization
+        Object newDateTime(VirtualFrame frame, Object cls, Object yearObj, Object monthObj, Object dayObj, Object hourObj, Object minuteObj, Object secondObj, Object microsecondObj,
+                        Object tzinfoObj, Object foldObj,
+                        @Cached ToBytesNode toBytesNode,
+                        @Cached IntArgNode intArgNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode) {
+            if (dayObj == PNone.NO_VALUE && hourObj == PNone.NO_VALUE) {
+                byte[] state = getPickleState(frame, yearObj, 10, 2, 1, 12, toBytesNode);
+                if (state != null) {
+                    // the second argument is the tzinfo when unpickling
+                    Object tzinfo = monthObj == PNone.NO_VALUE ? PNone.NONE : monthObj;
+                    checkTzInfoNode.execute(tzinfo);
+                    int fold = (state[2] & 0x80) != 0 ? 1 : 0;
+                    return factory().createDateTime(cls, (state[0] & 0xFF) << 8 | state[1] & 0xFF, state[2] & 0x7F, state[3], state[4], state[5], state[6], getMicrosecond(state, 7),
+                                    tzinfo, fold);
+                }
+            }
+            int year = intArgNode.execute(frame, yearObj);
+            int month = intArgNode.execute(frame, requiredArg(getRaiseNode(), monthObj, "month", 2));
+            int day = intArgNode.execute(frame, requiredArg(getRaiseNode(), dayObj, "day", 3));
+            int hour = hourObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, hourObj);
+            int minute = minuteObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, minuteObj);
+            int second = secondObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, secondObj);
+            int microsecond = microsecondObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, microsecondObj);
+            Object tzinfo = tzinfoObj == PNone.NO_VALUE ? PNone.NONE : tzinfoObj;
+            int fold = foldObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, foldObj);
+            checkDateArgs(getRaiseNode(), year, month, day);
+            checkTimeArgs(getRaiseNode(), hour, minute, second, microsecond, fold);
+            checkTzInfoNode.execute(tzinfo);
+            return factory().createDateTime(cls, year, month, day, hour, minute, second, microsecond, tzinfo, fold);
+        }
+    }
+
+    // _datetime.time
+    @Builtin(name = "time", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PTime, parameterNames = {"$cls", "hour", "minute", "second", "microsecond",
+                    "tzinfo"}, keywordOnlyNames = {"fold"}, doc = "time([hour[, minute[, second[, microsecond[, tzinfo]]]]]) --> a time object\n\n" +
+                                    "All arguments are optional. tzinfo may be None, or an instance of\na tzinfo subclass. The remaining arguments may be ints.\n")
+    @GenerateNodeFactory
+    abstract static class TimeNode extends PythonBuiltinNode {
+        @Specialization
+        Object newTime(VirtualFrame frame, Object cls, Object hourObj, Object minuteObj, Object secondObj, Object microsecondObj, Object tzinfoObj, Object foldObj,
+                        @Cached ToBytesNode toBytesNode,
+                        @Cached IntArgNode intArgNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode) {
+            if (secondObj == PNone.NO_VALUE && microsecondObj == PNone.NO_VALUE) {
+                byte[] state = getPickleState(frame, hourObj, 6, 0, 0, 23, toBytesNode);
+                if (state != null) {
+                    // the second argument is the tzinfo when unpickling
+                    Object tzinfo = minuteObj == PNone.NO_VALUE ? PNone.NONE : minuteObj;
+                    checkTzInfoNode.execute(tzinfo);
+                    int fold = (state[0] & 0x80) != 0 ? 1 : 0;
+                    return factory().createTime(cls, state[0] & 0x7F, state[1], state[2], getMicrosecond(state, 3), tzinfo, fold);
+                }
+            }
+            int hour = hourObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, hourObj);
+            int minute = minuteObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, minuteObj);
+            int second = secondObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, secondObj);
+            int microsecond = microsecondObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, microsecondObj);
+            Object tzinfo = tzinfoObj == PNone.NO_VALUE ? PNone.NONE : tzinfoObj;
+            int fold = foldObj == PNone.NO_VALUE ? 0 : intArgNode.execute(frame, foldObj);
+            checkTimeArgs(getRaiseNode(), hour, minute, second, microsecond, fold);
+            checkTzInfoNode.execute(tzinfo);
+            return factory().createTime(cls, hour, minute, second, microsecond, tzinfo, fold);
+        }
+    }
+
+    // _datetime.timezone
+    @Builtin(name = "timezone", minNumOfPositionalArgs = 2, constructsClass = PythonBuiltinClassType.PTimeZone, parameterNames = {"$cls", "offset", "name"}, doc = "Fixed offset from UTC implementation of tzinfo.")
+    @GenerateNodeFactory
+    abstract static class TimeZoneNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object newTimeZone(@SuppressWarnings("unused") Object cls, Object offset, Object name,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached NewTimeZoneNode newTimeZoneNode) {
+            if (!(offset instanceof PTimeDelta)) {
+                throw raise(TypeError, "timezone() argument 1 must be %s, not %p", getTpName(PythonBuiltinClassType.PTimeDelta), offset);
+            }
+            if (name != PNone.NO_VALUE && !unicodeCheckNode.execute(name)) {
+                throw raise(TypeError, "timezone() argument 2 must be str, not %p", name);
+            }
+            return newTimeZoneNode.execute((PTimeDelta) offset, name == PNone.NO_VALUE ? PNone.NONE : name);
+        }
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CANT_COMPARE_NAIVE_AWARE;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.INVALID_ISOFORMAT;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.SECONDS_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.US_PER_SECOND;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.appendIsoTime;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.appendUtcOffset;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.checkTimeArgs;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.getTpName;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.parseIsoTime;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE_EX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CallTzInfoOffsetNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CallTzNameNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.IntArgNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewTimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TzInfoFromIsoFormatNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.WrapStrftimeNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyObjectStrAsObjectNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTime)
+public class TimeBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        PythonObjectFactory factory = core.factory();
+        builtinConstants.put("min", factory.createTime(PythonBuiltinClassType.PTime, 0, 0, 0, 0, PNone.NONE, 0));
+        builtinConstants.put("max", factory.createTime(PythonBuiltinClassType.PTime, 23, 59, 59, 999999, PNone.NONE, 0));
+        builtinConstants.put("resolution", factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, 0, 0, 1));
+    }
+
+    /**
+     * The pickle state of a time, the fold is stored in the high bit of the hour for protocols
+     * above 3 like in {@code time_getstate}.
+     */
+    static byte[] getState(PTime self, int proto) {
+        int hour = self.getHour();
+        if (proto > 3 && self.getFold() != 0) {
+            hour |= 0x80;
+        }
+        int us = self.getMicrosecond();
+        return new byte[]{(byte) hour, (byte) self.getMinute(), (byte) self.getSecond(), (byte) (us >> 16), (byte) (us >> 8), (byte) us};
+    }
+
+    @TruffleBoundary
+    static String repr(String typeName, int hour, int minute, int second, int microsecond, String tzinfoRepr, int fold) {
+        StringBuilder sb = new StringBuilder(typeName).append('(').append(hour).append(", ").append(minute);
+        if (second != 0 || microsecond != 0) {
+            sb.append(", ").append(second);
+        }
+        if (microsecond != 0) {
+            sb.append(", ").append(microsecond);
+        }
+        if (tzinfoRepr != null) {
+            sb.append(", tzinfo=").append(tzinfoRepr);
+        }
+        if (fold != 0) {
+            sb.append(", fold=1");
+        }
+        return sb.append(')').toString();
+    }
+
+    @Builtin(name = "hour", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class HourNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getHour();
+        }
+    }
+
+    @Builtin(name = "minute", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MinuteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getMinute();
+        }
+    }
+
+    @Builtin(name = "second", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getSecond();
+        }
+    }
+
+    @Builtin(name = "microsecond", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getMicrosecond();
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTime self) {
+            return self.getTzInfo();
+        }
+    }
+
+    @Builtin(name = "fold", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FoldNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getFold();
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timespec"}, doc = "Return string in ISO 8601 format, [HH[:MM[:SS[.mmm[uuu]]]]][+HH:MM].")
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        String isoformat(VirtualFrame frame, PTime self, Object timespecObj,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            String timespec = "auto";
+            if (timespecObj != PNone.NO_VALUE) {
+                if (!unicodeCheckNode.execute(timespecObj)) {
+                    throw raise(TypeError, "isoformat() argument 1 must be str, not %p", timespecObj);
+                }
+                timespec = castToStringNode.execute(timespecObj);
+            }
+            StringBuilder sb = new StringBuilder();
+            if (!appendIsoTime(sb, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), timespec)) {
+                throw raise(ValueError, "Unknown timespec value");
+            }
+            Object offset = utcOffsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false);
+            if (offset != PNone.NONE) {
+                appendUtcOffset(sb, (PTimeDelta) offset, ":");
+            }
+            return sb.toString();
+        }
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"}, doc = "format -> strftime() style string.")
+    @GenerateNodeFactory
+    abstract static class StrfTimeNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        String strftime(VirtualFrame frame, PTime self, Object format,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached WrapStrftimeNode wrapStrftimeNode) {
+            if (!unicodeCheckNode.execute(format)) {
+                throw raise(TypeError, "strftime() argument 1 must be str, not %p", format);
+            }
+            // the year is 1900 to allow %y, the time zone methods are called with None
+            int[] timetuple = {1900, 1, 1, self.getHour(), self.getMinute(), self.getSecond(), 0, 1, -1};
+            return wrapStrftimeNode.execute(frame, castToStringNode.execute(format), timetuple, self.getTzInfo(), PNone.NONE, self.getMicrosecond());
+        }
+    }
+
+    @Builtin(name = __FORMAT__, minNumOfPositionalArgs = 2, doc = "Formats self with strftime.")
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object format(VirtualFrame frame, Object self, Object format,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectStrAsObjectNode strNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (!unicodeCheckNode.execute(format)) {
+                throw raise(TypeError, "__format__() argument 1 must be str, not %p", format);
+            }
+            if (castToStringNode.execute(format).isEmpty()) {
+                return strNode.execute(frame, self);
+            }
+            return callMethod.execute(frame, self, "strftime", format);
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.utcoffset(self).")
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcoffset(VirtualFrame frame, PTime self,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            return utcOffsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false);
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.dst(self).")
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object dst(VirtualFrame frame, PTime self,
+                        @Cached CallTzInfoOffsetNode dstNode) {
+            return dstNode.execute(frame, self.getTzInfo(), PNone.NONE, true);
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 1, doc = "Return self.tzinfo.tzname(self).")
+    @GenerateNodeFactory
+    abstract static class TzNameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object tzname(VirtualFrame frame, PTime self,
+                        @Cached CallTzNameNode tzNameNode) {
+            return tzNameNode.execute(frame, self.getTzInfo(), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "hour", "minute", "second", "microsecond", "tzinfo"}, keywordOnlyNames = {"fold"}, doc = "Return time with new specified fields.")
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonBuiltinNode {
+        @Specialization
+        Object replace(VirtualFrame frame, PTime self, Object hourObj, Object minuteObj, Object secondObj, Object microsecondObj, Object tzinfoObj, Object foldObj,
+                        @Cached IntArgNode intArgNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached GetClassNode getClassNode) {
+            int hour = hourObj == PNone.NO_VALUE ? self.getHour() : intArgNode.execute(frame, hourObj);
+            int minute = minuteObj == PNone.NO_VALUE ? self.getMinute() : intArgNode.execute(frame, minuteObj);
+            int second = secondObj == PNone.NO_VALUE ? self.getSecond() : intArgNode.execute(frame, secondObj);
+            int microsecond = microsecondObj == PNone.NO_VALUE ? self.getMicrosecond() : intArgNode.execute(frame, microsecondObj);
+            Object tzinfo = tzinfoObj == PNone.NO_VALUE ? self.getTzInfo() : tzinfoObj;
+            int fold = foldObj == PNone.NO_VALUE ? self.getFold() : intArgNode.execute(frame, foldObj);
+            checkTimeArgs(getRaiseNode(), hour, minute, second, microsecond, fold);
+            checkTzInfoNode.execute(tzinfo);
+            return factory().createTime(getClassNode.execute(self), hour, minute, second, microsecond, tzinfo, fold);
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, doc = "string -> time from time.isoformat() output")
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object tstr,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode,
+                        @Cached TzInfoFromIsoFormatNode tzInfoFromIsoFormatNode,
+                        @Cached NewTimeNode newTimeNode) {
+            if (!unicodeCheckNode.execute(tstr)) {
+                throw raise(TypeError, "fromisoformat: argument must be str");
+            }
+            int[] out = new int[6];
+            int rv = parseIsoTime(castToStringNode.execute(tstr), 0, out);
+            if (rv < 0) {
+                throw raise(ValueError, INVALID_ISOFORMAT, reprNode.execute(frame, tstr));
+            }
+            Object tzinfo = rv == 1 ? tzInfoFromIsoFormatNode.execute(out[4], out[5]) : PNone.NONE;
+            return newTimeNode.execute(frame, cls, out[0], out[1], out[2], out[3], tzinfo, 0);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String reprTime(VirtualFrame frame, PTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode) {
+            String tzinfoRepr = self.hasTzInfo() ? reprNode.execute(frame, self.getTzInfo()) : null;
+            return repr(getTpName(getClassNode.execute(self)), self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), tzinfoRepr, self.getFold());
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, Object self,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, self, "isoformat");
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(VirtualFrame frame, PTime self,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            // the offset does not depend on the fold since the tzinfo is called with None
+            Object offset = utcOffsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false);
+            long micros = self.timeOfDayMicros();
+            if (offset != PNone.NONE) {
+                PTimeDelta delta = (PTimeDelta) offset;
+                micros -= (delta.getDays() * (long) SECONDS_PER_DAY + delta.getSeconds()) * US_PER_SECOND + delta.getMicroseconds();
+            }
+            return micros;
+        }
+    }
+
+    @Builtin(name = __REDUCE_EX__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ReduceExNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object reduceEx(VirtualFrame frame, PTime self, Object protoObj,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached GetClassNode getClassNode) {
+            return reduce(factory(), self, asIntNode.execute(frame, protoObj), getClassNode);
+        }
+
+        static Object reduce(PythonObjectFactory factory, PTime self, int proto, GetClassNode getClassNode) {
+            Object basestate = factory.createBytes(getState(self, proto));
+            Object[] state = self.hasTzInfo() ? new Object[]{basestate, self.getTzInfo()} : new Object[]{basestate};
+            return factory.createTuple(new Object[]{getClassNode.execute(self), factory.createTuple(state)});
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PTime self,
+                        @Cached GetClassNode getClassNode) {
+            return ReduceExNode.reduce(factory(), self, 2, getClassNode);
+        }
+    }
+
+    /**
+     * Compares times like {@code time_richcompare}: times with the same {@code tzinfo} or the same
+     * UTC offset compare their fields, aware times compare after subtracting the offsets.
+     */
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean compare(VirtualFrame frame, PTime self, PTime other,
+                        @Cached CallTzInfoOffsetNode utcOffsetNode) {
+            if (self.getTzInfo() == other.getTzInfo()) {
+                return cmp(Long.compare(self.timeOfDayMicros(), other.timeOfDayMicros()));
+            }
+            Object offset1 = utcOffsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false);
+            Object offset2 = utcOffsetNode.execute(frame, other.getTzInfo(), PNone.NONE, false);
+            if (offset1 == offset2 || offset1 instanceof PTimeDelta && offset2 instanceof PTimeDelta && ((PTimeDelta) offset1).compareTo((PTimeDelta) offset2) == 0) {
+                return cmp(Long.compare(self.timeOfDayMicros(), other.timeOfDayMicros()));
+            }
+            if (offset1 != PNone.NONE && offset2 != PNone.NONE) {
+                long diff = offsetSeconds(self, (PTimeDelta) offset1) - offsetSeconds(other, (PTimeDelta) offset2);
+                if (diff == 0) {
+                    diff = self.getMicrosecond() - other.getMicrosecond();
+                }
+                return cmp(Long.signum(diff));
+            }
+            if (isEquality()) {
+                // naive and aware times are never equal
+                return cmp(1);
+            }
+            throw raise(TypeError, CANT_COMPARE_NAIVE_AWARE, "times");
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        private static long offsetSeconds(PTime time, PTimeDelta offset) {
+            return time.getHour() * 3600L + time.getMinute() * 60L + time.getSecond() - offset.getDays() * (long) SECONDS_PER_DAY - offset.getSeconds();
+        }
+
+        protected abstract boolean cmp(int diff);
+
+        protected boolean isEquality() {
+            return false;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff == 0;
+        }
+
+        @Override
+        protected boolean isEquality() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff != 0;
+        }
+
+        @Override
+        protected boolean isEquality() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff >= 0;
+        }
+    }
+}
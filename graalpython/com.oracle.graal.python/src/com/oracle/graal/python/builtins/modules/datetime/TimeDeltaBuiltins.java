@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.MAX_DELTA_DAYS;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.SECONDS_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.US_PER_SECOND;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.createDelta;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.divideNearest;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.fitsLongMicros;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.microsToDelta;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.toMicros;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.toMicrosBig;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.trueDivide;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ABS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__BOOL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEG__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__POS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RDIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RFLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RSUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RTRUEDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__TRUEDIV__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ZeroDivisionError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTimeDelta)
+public class TimeDeltaBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeDeltaBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        PythonObjectFactory factory = core.factory();
+        builtinConstants.put("min", factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, -MAX_DELTA_DAYS, 0, 0));
+        builtinConstants.put("max", factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, MAX_DELTA_DAYS, SECONDS_PER_DAY - 1, (int) US_PER_SECOND - 1));
+        builtinConstants.put("resolution", factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, 0, 0, 1));
+    }
+
+    static PTimeDelta negate(PythonObjectFactory factory, PRaiseNode raise, PTimeDelta delta) {
+        return createDelta(factory, raise, -(long) delta.getDays(), -(long) delta.getSeconds(), -(long) delta.getMicroseconds());
+    }
+
+    /**
+     * Multiplies a delta by an integer, like {@code multiply_int_timedelta}.
+     */
+    static PTimeDelta multiply(PythonObjectFactory factory, PRaiseNode raise, PTimeDelta delta, long factor) {
+        if (fitsLongMicros(delta)) {
+            try {
+                return microsToDelta(factory, raise, Math.multiplyExact(toMicros(delta), factor));
+            } catch (ArithmeticException e) {
+                // fall through
+            }
+        }
+        return multiply(factory, raise, delta, BigInteger.valueOf(factor));
+    }
+
+    @TruffleBoundary
+    static PTimeDelta multiply(PythonObjectFactory factory, PRaiseNode raise, PTimeDelta delta, BigInteger factor) {
+        return microsToDelta(factory, raise, toMicrosBig(delta).multiply(factor));
+    }
+
+    /**
+     * Multiplies a delta by the exact rational value of {@code numerator / denominator}, rounding
+     * half to even, like {@code multiply_truedivide_timedelta_float}.
+     */
+    @TruffleBoundary
+    static PTimeDelta multiplyRatio(PythonObjectFactory factory, PRaiseNode raise, PTimeDelta delta, BigInteger numerator, BigInteger denominator) {
+        return microsToDelta(factory, raise, divideNearest(toMicrosBig(delta).multiply(numerator), denominator));
+    }
+
+    /**
+     * Returns {@code {numerator, denominator}} of the exact value of {@code value}, like
+     * {@code float.as_integer_ratio} but not reduced.
+     */
+    @TruffleBoundary
+    static BigInteger[] integerRatio(PRaiseNode raise, double value) {
+        if (Double.isNaN(value)) {
+            throw raise.raise(ValueError, ErrorMessages.CANNOT_CONVERT_S_TO_INT_RATIO, "NaN");
+        }
+        if (Double.isInfinite(value)) {
+            throw raise.raise(OverflowError, ErrorMessages.CANNOT_CONVERT_S_TO_INT_RATIO, "Infinity");
+        }
+        BigDecimal exact = new BigDecimal(value);
+        if (exact.scale() > 0) {
+            return new BigInteger[]{exact.unscaledValue(), BigInteger.TEN.pow(exact.scale())};
+        }
+        return new BigInteger[]{exact.toBigIntegerExact(), BigInteger.ONE};
+    }
+
+    @TruffleBoundary
+    static BigInteger floorDivBig(BigInteger a, BigInteger b) {
+        BigInteger[] qr = a.divideAndRemainder(b);
+        if (qr[1].signum() != 0 && qr[1].signum() != b.signum()) {
+            return qr[0].subtract(BigInteger.ONE);
+        }
+        return qr[0];
+    }
+
+    @TruffleBoundary
+    static BigInteger floorModBig(BigInteger a, BigInteger b) {
+        BigInteger r = a.remainder(b);
+        if (r.signum() != 0 && r.signum() != b.signum()) {
+            return r.add(b);
+        }
+        return r;
+    }
+
+    @TruffleBoundary
+    static String toStr(PTimeDelta self) {
+        StringBuilder sb = new StringBuilder();
+        int days = self.getDays();
+        if (days != 0) {
+            sb.append(days).append(Math.abs(days) != 1 ? " days, " : " day, ");
+        }
+        int seconds = self.getSeconds();
+        sb.append(seconds / 3600).append(':');
+        DateTimeNodes.appendPadded(sb, seconds / 60 % 60, 2);
+        sb.append(':');
+        DateTimeNodes.appendPadded(sb, seconds % 60, 2);
+        if (self.getMicroseconds() != 0) {
+            sb.append('.');
+            DateTimeNodes.appendPadded(sb, self.getMicroseconds(), 6);
+        }
+        return sb.toString();
+    }
+
+    @Builtin(name = "days", minNumOfPositionalArgs = 1, isGetter = true, doc = "Number of days.")
+    @GenerateNodeFactory
+    abstract static class DaysNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getDays();
+        }
+    }
+
+    @Builtin(name = "seconds", minNumOfPositionalArgs = 1, isGetter = true, doc = "Number of seconds (>= 0 and less than 1 day).")
+    @GenerateNodeFactory
+    abstract static class SecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getSeconds();
+        }
+    }
+
+    @Builtin(name = "microseconds", minNumOfPositionalArgs = 1, isGetter = true, doc = "Number of microseconds (>= 0 and less than 1 second).")
+    @GenerateNodeFactory
+    abstract static class MicrosecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getMicroseconds();
+        }
+    }
+
+    @Builtin(name = "total_seconds", minNumOfPositionalArgs = 1, doc = "Total seconds in the duration.")
+    @GenerateNodeFactory
+    abstract static class TotalSecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static double get(PTimeDelta self) {
+            if (fitsLongMicros(self)) {
+                return trueDivide(toMicros(self), US_PER_SECOND);
+            }
+            return trueDivide(toMicrosBig(self), BigInteger.valueOf(US_PER_SECOND));
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(PTimeDelta self) {
+            return DateTimeNodes.reprDelta(self);
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String str(PTimeDelta self) {
+            return toStr(self);
+        }
+    }
+
+    @Builtin(name = __BOOL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class BoolNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean bool(PTimeDelta self) {
+            return !self.isZero();
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PTimeDelta self) {
+            return (self.getDays() * (long) SECONDS_PER_DAY + self.getSeconds()) * US_PER_SECOND + self.getMicroseconds();
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PTimeDelta self) {
+            Object state = factory().createTuple(new Object[]{self.getDays(), self.getSeconds(), self.getMicroseconds()});
+            return factory().createTuple(new Object[]{self.getInitialPythonClass(), state});
+        }
+    }
+
+    @Builtin(name = __NEG__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NegNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta neg(PTimeDelta self) {
+            return negate(factory(), getRaiseNode(), self);
+        }
+    }
+
+    @Builtin(name = __POS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class PosNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta pos(PTimeDelta self) {
+            return factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __ABS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta abs(PTimeDelta self) {
+            if (self.getDays() < 0) {
+                return negate(factory(), getRaiseNode(), self);
+            }
+            return factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta add(PTimeDelta left, PTimeDelta right) {
+            return createDelta(factory(), getRaiseNode(), (long) left.getDays() + right.getDays(), (long) left.getSeconds() + right.getSeconds(),
+                            (long) left.getMicroseconds() + right.getMicroseconds());
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RSUB__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta sub(PTimeDelta left, PTimeDelta right) {
+            return createDelta(factory(), getRaiseNode(), (long) left.getDays() - right.getDays(), (long) left.getSeconds() - right.getSeconds(),
+                            (long) left.getMicroseconds() - right.getMicroseconds());
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __MUL__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RMUL__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    abstract static class MulNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta doLong(PTimeDelta left, long right) {
+            return multiply(factory(), getRaiseNode(), left, right);
+        }
+
+        @Specialization
+        PTimeDelta doLongReverse(long left, PTimeDelta right) {
+            return multiply(factory(), getRaiseNode(), right, left);
+        }
+
+        @Specialization
+        PTimeDelta doPInt(PTimeDelta left, PInt right) {
+            return multiply(factory(), getRaiseNode(), left, right.getValue());
+        }
+
+        @Specialization
+        PTimeDelta doPIntReverse(PInt left, PTimeDelta right) {
+            return multiply(factory(), getRaiseNode(), right, left.getValue());
+        }
+
+        @Specialization
+        PTimeDelta doDouble(PTimeDelta left, double right) {
+            BigInteger[] ratio = integerRatio(getRaiseNode(), right);
+            return multiplyRatio(factory(), getRaiseNode(), left, ratio[0], ratio[1]);
+        }
+
+        @Specialization
+        PTimeDelta doDoubleReverse(double left, PTimeDelta right) {
+            return doDouble(right, left);
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __TRUEDIV__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RTRUEDIV__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    abstract static class TrueDivNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        double doDelta(PTimeDelta left, PTimeDelta right) {
+            if (right.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.DIVISION_BY_ZERO);
+            }
+            if (fitsLongMicros(left) && fitsLongMicros(right)) {
+                return trueDivide(toMicros(left), toMicros(right));
+            }
+            return trueDivide(toMicrosBig(left), toMicrosBig(right));
+        }
+
+        @Specialization
+        PTimeDelta doLong(PTimeDelta left, long right) {
+            if (right == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            if (fitsLongMicros(left) && right > -(1L << 62) && right < (1L << 62)) {
+                return microsToDelta(factory(), getRaiseNode(), divideNearest(toMicros(left), right));
+            }
+            return divBig(left, BigInteger.valueOf(right));
+        }
+
+        @Specialization
+        PTimeDelta doPInt(PTimeDelta left, PInt right) {
+            if (right.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            return divBig(left, right.getValue());
+        }
+
+        @Specialization
+        PTimeDelta doDouble(PTimeDelta left, double right) {
+            BigInteger[] ratio = integerRatio(getRaiseNode(), right);
+            if (ratio[0].signum() == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            return multiplyRatio(factory(), getRaiseNode(), left, ratio[1], ratio[0]);
+        }
+
+        @TruffleBoundary
+        private PTimeDelta divBig(PTimeDelta left, BigInteger right) {
+            return microsToDelta(factory(), getRaiseNode(), divideNearest(toMicrosBig(left), right));
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __FLOORDIV__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RFLOORDIV__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    abstract static class FloorDivNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object doDelta(PTimeDelta left, PTimeDelta right) {
+            if (right.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            if (fitsLongMicros(left) && fitsLongMicros(right)) {
+                return Math.floorDiv(toMicros(left), toMicros(right));
+            }
+            return factory().createInt(floorDivBig(toMicrosBig(left), toMicrosBig(right)));
+        }
+
+        @Specialization
+        PTimeDelta doLong(PTimeDelta left, long right) {
+            if (right == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            if (fitsLongMicros(left)) {
+                return microsToDelta(factory(), getRaiseNode(), Math.floorDiv(toMicros(left), right));
+            }
+            return microsToDelta(factory(), getRaiseNode(), floorDivBig(toMicrosBig(left), BigInteger.valueOf(right)));
+        }
+
+        @Specialization
+        PTimeDelta doPInt(PTimeDelta left, PInt right) {
+            if (right.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            return microsToDelta(factory(), getRaiseNode(), floorDivBig(toMicrosBig(left), right.getValue()));
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __MOD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RMOD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class ModNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta mod(PTimeDelta left, PTimeDelta right) {
+            if (right.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            if (fitsLongMicros(left) && fitsLongMicros(right)) {
+                return microsToDelta(factory(), getRaiseNode(), Math.floorMod(toMicros(left), toMicros(right)));
+            }
+            return microsToDelta(factory(), getRaiseNode(), floorModBig(toMicrosBig(left), toMicrosBig(right)));
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __DIVMOD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RDIVMOD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object divmod(PTimeDelta left, PTimeDelta right) {
+            if (right.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            if (fitsLongMicros(left) && fitsLongMicros(right)) {
+                long a = toMicros(left);
+                long b = toMicros(right);
+                return factory().createTuple(new Object[]{Math.floorDiv(a, b), microsToDelta(factory(), getRaiseNode(), Math.floorMod(a, b))});
+            }
+            BigInteger a = toMicrosBig(left);
+            BigInteger b = toMicrosBig(right);
+            return factory().createTuple(new Object[]{factory().createInt(floorDivBig(a, b)), microsToDelta(factory(), getRaiseNode(), floorModBig(a, b))});
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object left, @SuppressWarnings("unused") Object right) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean compare(PTimeDelta self, PTimeDelta other) {
+            return cmp(self.compareTo(other));
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        protected abstract boolean cmp(int diff);
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff == 0;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff != 0;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends CompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff >= 0;
+        }
+    }
+}
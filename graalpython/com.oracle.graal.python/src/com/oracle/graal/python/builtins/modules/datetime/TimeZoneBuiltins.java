@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.getTpName;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.timeZoneName;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETINITARGS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.GetUtcNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewDateTimeNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyObjectHashNode;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTimeZone)
+public class TimeZoneBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeZoneBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        PythonObjectFactory factory = core.factory();
+        int maxSeconds = DateTimeNodes.SECONDS_PER_DAY - 60;
+        builtinConstants.put("utc", factory.createTimeZone(PythonBuiltinClassType.PTimeZone, factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, 0, 0, 0), PNone.NONE));
+        builtinConstants.put("min", factory.createTimeZone(PythonBuiltinClassType.PTimeZone, factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, -1, 60, 0), PNone.NONE));
+        builtinConstants.put("max", factory.createTimeZone(PythonBuiltinClassType.PTimeZone, factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, 0, maxSeconds, 0), PNone.NONE));
+    }
+
+    /**
+     * Like {@code _timezone_check_argument}, the argument of {@code timezone} methods must be a
+     * datetime or {@code None}.
+     */
+    static void checkArgument(PRaiseNode raise, Object dt, String meth) {
+        if (dt != PNone.NONE && !(dt instanceof PDateTime)) {
+            throw raise.raise(TypeError, "%s(dt) argument must be a datetime instance or None, not %p", meth, dt);
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 2, doc = "Return fixed offset.")
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta utcoffset(PTimeZone self, Object dt) {
+            checkArgument(getRaiseNode(), dt, "utcoffset");
+            return self.getOffset();
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 2, doc = "Return None.")
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object dst(@SuppressWarnings("unused") PTimeZone self, Object dt) {
+            checkArgument(getRaiseNode(), dt, "dst");
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 2, doc = "If name is specified when timezone is created, returns the name.  Otherwise returns offset as 'UTC(+|-)HH:MM'.")
+    @GenerateNodeFactory
+    abstract static class TzNameNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object tzname(PTimeZone self, Object dt) {
+            checkArgument(getRaiseNode(), dt, "tzname");
+            return timeZoneName(self);
+        }
+    }
+
+    @Builtin(name = "fromutc", minNumOfPositionalArgs = 2, doc = "datetime in UTC -> datetime in local time.")
+    @GenerateNodeFactory
+    abstract static class FromUtcNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromutc(VirtualFrame frame, PTimeZone self, PDateTime dt,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            if (dt.getTzInfo() != self) {
+                throw raise(ValueError, "fromutc: dt.tzinfo is not self");
+            }
+            return DateTimeBuiltins.AddNode.add(frame, dt, self.getOffset(), 1, getRaiseNode(), getClassNode, newDateTimeNode);
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(TypeError, "fromutc: argument must be a datetime");
+        }
+    }
+
+    @Builtin(name = __GETINITARGS__, minNumOfPositionalArgs = 1, doc = "pickle support")
+    @GenerateNodeFactory
+    abstract static class GetInitArgsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object getinitargs(PTimeZone self) {
+            if (self.getName() == PNone.NONE) {
+                return factory().createTuple(new Object[]{self.getOffset()});
+            }
+            return factory().createTuple(new Object[]{self.getOffset(), self.getName()});
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(VirtualFrame frame, PTimeZone self,
+                        @Cached GetUtcNode getUtcNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode) {
+            String typeName = getTpName(getClassNode.execute(self));
+            if (self == getUtcNode.execute()) {
+                return concat(typeName, ".utc");
+            }
+            String offsetRepr = reprNode.execute(frame, self.getOffset());
+            String nameRepr = self.getName() == PNone.NONE ? null : reprNode.execute(frame, self.getName());
+            return format(typeName, offsetRepr, nameRepr);
+        }
+
+        @TruffleBoundary
+        private static String concat(String a, String b) {
+            return a + b;
+        }
+
+        @TruffleBoundary
+        private static String format(String typeName, String offsetRepr, String nameRepr) {
+            if (nameRepr == null) {
+                return String.format("%s(%s)", typeName, offsetRepr);
+            }
+            return String.format("%s(%s, %s)", typeName, offsetRepr, nameRepr);
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(PTimeZone self) {
+            return timeZoneName(self);
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean eq(PTimeZone self, PTimeZone other) {
+            return self.getOffset().compareTo(other.getOffset()) == 0;
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(VirtualFrame frame, PTimeZone self,
+                        @Cached PyObjectHashNode hashNode) {
+            return hashNode.execute(frame, self.getOffset());
+        }
+    }
+}
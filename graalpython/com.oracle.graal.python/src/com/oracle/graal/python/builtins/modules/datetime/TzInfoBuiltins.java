@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.NotImplementedError;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.createDelta;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.toMicros;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETINITARGS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETSTATE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CallTzInfoOffsetNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewDateTimeNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.GetDictIfExistsNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTzInfo)
+public class TzInfoBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TzInfoBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 2, doc = "datetime -> string name of time zone.")
+    @GenerateNodeFactory
+    abstract static class TzNameNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object tzname(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(NotImplementedError, "a tzinfo subclass must implement %s()", "tzname");
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 2, doc = "datetime -> timedelta showing offset from UTC, negative values indicating West of UTC")
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object utcoffset(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(NotImplementedError, "a tzinfo subclass must implement %s()", "utcoffset");
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 2, doc = "datetime -> DST offset as timedelta positive east of UTC.")
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object dst(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(NotImplementedError, "a tzinfo subclass must implement %s()", "dst");
+        }
+    }
+
+    /**
+     * The default {@code fromutc} for a tzinfo with a standard offset and a DST offset, like
+     * {@code tzinfo_fromutc}.
+     */
+    @Builtin(name = "fromutc", minNumOfPositionalArgs = 2, doc = "datetime in UTC -> datetime in local time.")
+    @GenerateNodeFactory
+    abstract static class FromUtcNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromutc(VirtualFrame frame, Object self, PDateTime dt,
+                        @Cached CallTzInfoOffsetNode callOffsetNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            if (dt.getTzInfo() != self) {
+                throw raise(ValueError, "fromutc: dt.tzinfo is not self");
+            }
+            Object offset = callOffsetNode.execute(frame, self, dt, false);
+            if (offset == PNone.NONE) {
+                throw raise(ValueError, "fromutc: non-None utcoffset() result required");
+            }
+            Object dst = callOffsetNode.execute(frame, self, dt, true);
+            if (dst == PNone.NONE) {
+                throw raise(ValueError, "fromutc: non-None dst() result required");
+            }
+            PTimeDelta delta = createDelta(factory(), getRaiseNode(), 0, 0, toMicros((PTimeDelta) offset) - toMicros((PTimeDelta) dst));
+            Object result = DateTimeBuiltins.AddNode.add(frame, dt, delta, 1, getRaiseNode(), getClassNode, newDateTimeNode);
+            if (!(result instanceof PDateTime)) {
+                return result;
+            }
+            dst = callOffsetNode.execute(frame, self, result, true);
+            if (dst == PNone.NONE) {
+                throw raise(ValueError, "fromutc: tz.dst() gave inconsistent results; cannot convert");
+            }
+            if (((PTimeDelta) dst).isZero()) {
+                return result;
+            }
+            return DateTimeBuiltins.AddNode.add(frame, (PDateTime) result, (PTimeDelta) dst, 1, getRaiseNode(), getClassNode, newDateTimeNode);
+        }
+
+        @Specialization(guards = "!isDateTime(dt)")
+        Object error(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(TypeError, "fromutc: argument must be a datetime");
+        }
+
+        static boolean isDateTime(Object obj) {
+            return obj instanceof PDateTime;
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1, doc = "-> (cls, state)")
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(VirtualFrame frame, Object self,
+                        @Cached PyObjectLookupAttr lookupAttr,
+                        @Cached CallNode callNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached GetDictIfExistsNode getDictNode,
+                        @CachedLibrary(limit = "1") HashingStorageLibrary lib) {
+            Object getinitargs = lookupAttr.execute(frame, self, __GETINITARGS__);
+            Object args = getinitargs != PNone.NO_VALUE ? callNode.execute(frame, getinitargs) : factory().createEmptyTuple();
+            Object getstate = lookupAttr.execute(frame, self, __GETSTATE__);
+            Object state = PNone.NONE;
+            if (getstate != PNone.NO_VALUE) {
+                state = callNode.execute(frame, getstate);
+            } else {
+                PDict dict = getDictNode.execute(self);
+                if (dict != null && lib.length(dict.getDictStorage()) > 0) {
+                    state = dict;
+                }
+            }
+            Object cls = getClassNode.execute(self);
+            if (state == PNone.NONE) {
+                return factory().createTuple(new Object[]{cls, args});
+            }
+            return factory().createTuple(new Object[]{cls, args, state});
+        }
+    }
+}
@@ -0,0 +1,2259 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CLAMPED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CONVERSION_SYNTAX;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_BY_ZERO;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_IMPOSSIBLE;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_UNDEFINED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.INEXACT;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MAX_EMAX;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MAX_PREC;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MIN_ETINY;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.OVERFLOW;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUNDED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUNDING_MODES;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_05UP;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_CEILING;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_FLOOR;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_DOWN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_EVEN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_UP;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_UP;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SUBNORMAL;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.UNDERFLOW;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The arithmetic of the {@code decimal} module. The algorithms follow {@code _pydecimal}, with the
+ * coefficients and exponents kept in {@link BigDecimal}s. An instance performs operations in one
+ * context and collects the conditions they raise in {@link #status}, which the caller then
+ * reports with {@link DecimalNodes#addStatus}. All results are exact {@code Decimal}s.
+ */
+final class DecimalArithmetic {
+    private static final BigInteger FIVE = BigInteger.valueOf(5);
+
+    private static final BigInteger HASH_MODULUS = BigInteger.valueOf(SysModuleBuiltins.HASH_MODULUS);
+    private static final BigInteger HASH_10INV = BigInteger.TEN.modPow(HASH_MODULUS.subtract(BigInteger.TWO), HASH_MODULUS);
+
+    private final PythonObjectFactory factory;
+    private final int prec;
+    private final int rounding;
+    private final int emin;
+    private final int emax;
+    private final int clamp;
+
+    int status;
+
+    DecimalArithmetic(PythonObjectFactory factory, PDecimalContext context) {
+        this.factory = factory;
+        this.prec = context.getPrec();
+        this.rounding = context.getRounding();
+        this.emin = context.getEmin();
+        this.emax = context.getEmax();
+        this.clamp = context.getClamp();
+    }
+
+    private int etiny() {
+        return emin - prec + 1;
+    }
+
+    private int etop() {
+        return emax - prec + 1;
+    }
+
+    PDecimal finite(boolean negative, BigDecimal value) {
+        return factory.createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.FINITE, negative, value);
+    }
+
+    PDecimal finite(BigDecimal value) {
+        return finite(value.signum() < 0, value);
+    }
+
+    PDecimal infinity(boolean negative) {
+        return factory.createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.INFINITE, negative, BigDecimal.ZERO);
+    }
+
+    PDecimal nan(byte kind, boolean negative, BigDecimal payload) {
+        return factory.createDecimal(PythonBuiltinClassType.PDecimal, kind, negative, payload);
+    }
+
+    /**
+     * Signals {@code condition} and returns the default result of an invalid operation.
+     */
+    PDecimal invalid(int condition) {
+        status |= condition;
+        return nan(PDecimal.QNAN, false, BigDecimal.ZERO);
+    }
+
+    /**
+     * Creates an exact finite value like CPython, which converts with a maximum context. Values
+     * that would need rounding there are an invalid operation.
+     */
+    PDecimal exact(boolean negative, BigDecimal coefficient, long exponent) {
+        assert coefficient.scale() == 0 && coefficient.signum() >= 0;
+        int digits = coefficient.precision();
+        if (coefficient.signum() == 0 ? exponent < MIN_ETINY || exponent > MAX_EMAX : digits > MAX_PREC || exponent < MIN_ETINY || exponent + digits - 1 > MAX_EMAX) {
+            return invalid(INVALID_OPERATION);
+        }
+        BigDecimal value = coefficient.scaleByPowerOfTen((int) exponent);
+        return finite(negative, negative ? value.negate() : value);
+    }
+
+    /**
+     * Converts a string in the syntax of the specification. The constructor of {@code Decimal}
+     * strips whitespace and ignores underscores, {@code Context.create_decimal} does not.
+     */
+    @TruffleBoundary
+    PDecimal fromString(String str, boolean lenient) {
+        String s = toAscii(str, lenient);
+        if (s == null) {
+            return invalid(CONVERSION_SYNTAX);
+        }
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        int rest = len - i;
+        if ((rest == 3 || rest == 8) && s.regionMatches(true, i, "infinity", 0, rest)) {
+            return infinity(negative);
+        }
+        byte nanKind = -1;
+        if (s.regionMatches(true, i, "nan", 0, 3)) {
+            nanKind = PDecimal.QNAN;
+            i += 3;
+        } else if (s.regionMatches(true, i, "snan", 0, 4)) {
+            nanKind = PDecimal.SNAN;
+            i += 4;
+        }
+        if (nanKind >= 0) {
+            int payloadStart = i;
+            while (i < len && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i != len) {
+                return invalid(CONVERSION_SYNTAX);
+            }
+            BigDecimal payload = payloadStart == len ? BigDecimal.ZERO : new BigDecimal(new BigInteger(s.substring(payloadStart)));
+            if (!lenient && payload.signum() != 0 && payload.precision() > prec - clamp) {
+                // diagnostic information too long
+                return invalid(CONVERSION_SYNTAX);
+            }
+            return nan(nanKind, negative, payload);
+        }
+        int intStart = i;
+        while (i < len && isDigit(s.charAt(i))) {
+            i++;
+        }
+        int intEnd = i;
+        int fracStart = i;
+        if (i < len && s.charAt(i) == '.') {
+            i++;
+            fracStart = i;
+            while (i < len && isDigit(s.charAt(i))) {
+                i++;
+            }
+        }
+        int fracEnd = i;
+        if (intStart == intEnd && fracStart == fracEnd) {
+            return invalid(CONVERSION_SYNTAX);
+        }
+        long exponent = 0;
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            int expStart = i;
+            while (i < len && isDigit(s.charAt(i))) {
+                if (exponent < 1000000000000L) {
+                    // larger exponents are out of range anyway
+                    exponent = exponent * 10 + (s.charAt(i) - '0');
+                }
+                i++;
+            }
+            if (i == expStart) {
+                return invalid(CONVERSION_SYNTAX);
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i != len) {
+            return invalid(CONVERSION_SYNTAX);
+        }
+        String digits = fracStart == fracEnd ? s.substring(intStart, intEnd) : s.substring(intStart, intEnd) + s.substring(fracStart, fracEnd);
+        BigDecimal coefficient = digits.length() < 19 ? BigDecimal.valueOf(Long.parseLong(digits)) : new BigDecimal(new BigInteger(digits));
+        return exact(negative, coefficient, exponent - (fracEnd - fracStart));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Replaces non-ASCII decimal digits with their ASCII equivalent. Returns {@code null} if there
+     * are other non-ASCII characters, which can never be valid.
+     */
+    private static String toAscii(String s, boolean lenient) {
+        int start = 0;
+        int end = s.length();
+        if (lenient) {
+            while (start < end && isWhitespace(s.charAt(start))) {
+                start++;
+            }
+            while (end > start && isWhitespace(s.charAt(end - 1))) {
+                end--;
+            }
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end;) {
+            int c = s.codePointAt(i);
+            i += Character.charCount(c);
+            if (c == '_' && lenient) {
+                continue;
+            }
+            if (c >= 128) {
+                if (Character.getType(c) != Character.DECIMAL_DIGIT_NUMBER) {
+                    return null;
+                }
+                c = '0' + Character.digit(c, 10);
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    private static boolean isWhitespace(char c) {
+        return Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+
+    /**
+     * The exact value of a finite double, which only the sign of a zero does not carry.
+     */
+    static BigDecimal fromDouble(double value) {
+        assert Double.isFinite(value);
+        return new BigDecimal(value);
+    }
+
+    // NaN handling
+
+    /**
+     * Returns the result of an operation with NaN operands, or {@code null} if there are none.
+     * Signaling NaNs take precedence and are an invalid operation.
+     */
+    private PDecimal checkNaNs(PDecimal a, PDecimal b) {
+        if (a.getKind() == PDecimal.SNAN) {
+            status |= INVALID_OPERATION;
+            return fixNaN(PDecimal.QNAN, a);
+        }
+        if (b != null && b.getKind() == PDecimal.SNAN) {
+            status |= INVALID_OPERATION;
+            return fixNaN(PDecimal.QNAN, b);
+        }
+        if (a.isNaN()) {
+            return fixNaN(PDecimal.QNAN, a);
+        }
+        if (b != null && b.isNaN()) {
+            return fixNaN(PDecimal.QNAN, b);
+        }
+        return null;
+    }
+
+    /**
+     * Returns a NaN of the given kind with the payload of {@code a} cut to the precision of the
+     * context.
+     */
+    private PDecimal fixNaN(byte kind, PDecimal a) {
+        BigDecimal payload = a.getValue();
+        int maxLength = prec - clamp;
+        if (payload.signum() != 0 && payload.precision() > maxLength) {
+            payload = new BigDecimal(payload.unscaledValue().mod(BigInteger.TEN.pow(maxLength)));
+        }
+        return nan(kind, a.isNegative(), payload);
+    }
+
+    // rounding
+
+    /**
+     * Rounds {@code value} to the exponent {@code exp}, or pads it with zeros to get there. This is
+     * {@code _rescale} of {@code _pydecimal}, it raises no conditions.
+     */
+    static BigDecimal rescale(BigDecimal value, int exp, int rounding) {
+        int scale = -exp;
+        if (value.scale() <= scale || value.signum() == 0) {
+            return value.setScale(scale);
+        }
+        BigDecimal v = value;
+        if ((long) v.precision() - v.scale() < exp) {
+            // all digits are below the rounding digit, replace them with a single one so that
+            // the rounding does not need to compute huge powers of ten
+            v = BigDecimal.valueOf(v.signum(), scale + 1);
+        }
+        if (rounding == ROUND_05UP) {
+            BigDecimal r = v.setScale(scale, RoundingMode.DOWN);
+            if (r.compareTo(v) != 0) {
+                int last = r.unscaledValue().remainder(BigInteger.TEN).intValue();
+                if (last == 0 || last == 5 || last == -5) {
+                    r = r.add(BigDecimal.valueOf(v.signum(), scale));
+                }
+            }
+            return r;
+        }
+        return v.setScale(scale, ROUNDING_MODES[rounding]);
+    }
+
+    /**
+     * Rounds a finite value to the precision and exponent limits of the context. This is
+     * {@code _fix} of {@code _pydecimal}.
+     */
+    PDecimal fix(boolean negative, BigDecimal v) {
+        return fix(negative, v, rounding);
+    }
+
+    /**
+     * Like {@link #fix(boolean, BigDecimal)}, but with the given rounding instead of the one of the
+     * context. The transcendental functions always round half even.
+     */
+    private PDecimal fix(boolean negative, BigDecimal v, int fixRounding) {
+        int etiny = etiny();
+        int etop = etop();
+        int exp = -v.scale();
+        if (v.signum() == 0) {
+            int expMax = clamp == 0 ? emax : etop;
+            int newExp = Math.min(Math.max(exp, etiny), expMax);
+            if (newExp != exp) {
+                status |= CLAMPED;
+                return finite(negative, BigDecimal.valueOf(0, -newExp));
+            }
+            return finite(negative, v);
+        }
+        long expMin = (long) v.precision() + exp - prec;
+        if (expMin > etop) {
+            status |= OVERFLOW | INEXACT | ROUNDED;
+            return overflowResult(negative, fixRounding);
+        }
+        boolean subnormal = expMin < etiny;
+        if (subnormal) {
+            expMin = etiny;
+        }
+        if (exp < expMin) {
+            BigDecimal r = rescale(v, (int) expMin, fixRounding);
+            boolean changed = r.compareTo(v) != 0;
+            if (r.precision() > prec) {
+                // rounding carried into a new digit, the last one is a zero
+                r = new BigDecimal(r.unscaledValue().divide(BigInteger.TEN), r.scale() - 1);
+                expMin++;
+            }
+            PDecimal ans;
+            if (expMin > etop) {
+                status |= OVERFLOW;
+                ans = overflowResult(negative, fixRounding);
+            } else {
+                ans = finite(negative, r);
+                if (r.signum() == 0) {
+                    status |= CLAMPED;
+                }
+            }
+            if (changed && subnormal) {
+                status |= UNDERFLOW;
+            }
+            if (subnormal) {
+                status |= SUBNORMAL;
+            }
+            if (changed) {
+                status |= INEXACT;
+            }
+            status |= ROUNDED;
+            return ans;
+        }
+        if (subnormal) {
+            status |= SUBNORMAL;
+        }
+        if (clamp == 1 && exp > etop) {
+            status |= CLAMPED;
+            return finite(negative, v.setScale(-etop));
+        }
+        return finite(negative, v);
+    }
+
+    @TruffleBoundary
+    PDecimal fix(PDecimal a) {
+        if (a.isNaN()) {
+            return fixNaN(a.getKind(), a);
+        } else if (a.isInfinite()) {
+            return infinity(a.isNegative());
+        }
+        return fix(a.isNegative(), a.getValue());
+    }
+
+    private PDecimal overflowResult(boolean negative, int overflowRounding) {
+        switch (overflowRounding) {
+            case ROUND_HALF_UP:
+            case ROUND_HALF_EVEN:
+            case ROUND_HALF_DOWN:
+            case ROUND_UP:
+                return infinity(negative);
+            case ROUND_CEILING:
+                if (!negative) {
+                    return infinity(false);
+                }
+                break;
+            case ROUND_FLOOR:
+                if (negative) {
+                    return infinity(true);
+                }
+                break;
+        }
+        BigInteger largest = BigInteger.TEN.pow(prec).subtract(BigInteger.ONE);
+        return finite(negative, new BigDecimal(negative ? largest.negate() : largest, -etop()));
+    }
+
+    /**
+     * Rounds to the context like {@code Context._apply} or {@code Context.create_decimal}.
+     */
+    @TruffleBoundary
+    PDecimal apply(PDecimal a) {
+        return fix(a);
+    }
+
+    // arithmetic
+
+    @TruffleBoundary
+    PDecimal plus(PDecimal a) {
+        if (a.isSpecial()) {
+            PDecimal nan = checkNaNs(a, null);
+            if (nan != null) {
+                return nan;
+            }
+            return infinity(a.isNegative());
+        }
+        // +(-0) is 0 except when rounding towards -Infinity
+        boolean negative = a.isNegative() && !(a.isZero() && rounding != ROUND_FLOOR);
+        return fix(negative, a.getValue());
+    }
+
+    @TruffleBoundary
+    PDecimal minus(PDecimal a) {
+        if (a.isSpecial()) {
+            PDecimal nan = checkNaNs(a, null);
+            if (nan != null) {
+                return nan;
+            }
+            return infinity(!a.isNegative());
+        }
+        // -0 is 0 except when rounding towards -Infinity
+        boolean negative = !a.isNegative() && !(a.isZero() && rounding != ROUND_FLOOR);
+        return fix(negative, a.getValue().negate());
+    }
+
+    @TruffleBoundary
+    PDecimal abs(PDecimal a) {
+        return a.isNegative() ? minus(a) : plus(a);
+    }
+
+    @TruffleBoundary
+    PDecimal add(PDecimal a, PDecimal b) {
+        return add(a, b, b.isNegative());
+    }
+
+    @TruffleBoundary
+    PDecimal subtract(PDecimal a, PDecimal b) {
+        return add(a, b, !b.isNegative());
+    }
+
+    /**
+     * Adds {@code a} and {@code b} with the sign of {@code b} replaced by {@code bNegative}.
+     */
+    private PDecimal add(PDecimal a, PDecimal b, boolean bNegative) {
+        if (a.isSpecial() || b.isSpecial()) {
+            PDecimal nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+            if (a.isInfinite()) {
+                if (b.isInfinite() && a.isNegative() != bNegative) {
+                    return invalid(INVALID_OPERATION);
+                }
+                return infinity(a.isNegative());
+            }
+            return infinity(bNegative);
+        }
+        BigDecimal x = a.getValue();
+        BigDecimal y = bNegative == b.isNegative() ? b.getValue() : b.getValue().negate();
+        int exp = Math.min(-x.scale(), -y.scale());
+        // if the result is zero, it is negative when rounding towards -Infinity
+        boolean negativeZero = rounding == ROUND_FLOOR && a.isNegative() != bNegative;
+        if (x.signum() == 0 && y.signum() == 0) {
+            return fix(a.isNegative() && bNegative || negativeZero, BigDecimal.valueOf(0, -exp));
+        } else if (x.signum() == 0) {
+            return fix(bNegative, rescale(y, Math.max(exp, -y.scale() - prec - 1), rounding));
+        } else if (y.signum() == 0) {
+            return fix(a.isNegative(), rescale(x, Math.max(exp, -x.scale() - prec - 1), rounding));
+        }
+        // if the operand with the smaller exponent is entirely below the precision of the other
+        // one, only its sign matters for the rounding, so we need not align huge exponents
+        boolean xIsHigh = x.scale() <= y.scale();
+        BigDecimal high = xIsHigh ? x : y;
+        BigDecimal low = xIsHigh ? y : x;
+        long limit = -(long) high.scale() + Math.min(-1, high.precision() - prec - 2);
+        if ((long) low.precision() - low.scale() - 1 < limit) {
+            low = BigDecimal.valueOf(low.signum(), (int) -limit);
+        }
+        BigDecimal result = high.add(low);
+        if (result.signum() == 0) {
+            return fix(negativeZero, result);
+        }
+        return fix(result.signum() < 0, result);
+    }
+
+    @TruffleBoundary
+    PDecimal multiply(PDecimal a, PDecimal b) {
+        boolean negative = a.isNegative() ^ b.isNegative();
+        if (a.isSpecial() || b.isSpecial()) {
+            PDecimal nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+            if (a.isZero() || b.isZero()) {
+                return invalid(INVALID_OPERATION);
+            }
+            return infinity(negative);
+        }
+        return fix(negative, a.getValue().multiply(b.getValue()));
+    }
+
+    @TruffleBoundary
+    PDecimal divide(PDecimal a, PDecimal b) {
+        boolean negative = a.isNegative() ^ b.isNegative();
+        if (a.isSpecial() || b.isSpecial()) {
+            PDecimal nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+            if (a.isInfinite() && b.isInfinite()) {
+                return invalid(INVALID_OPERATION);
+            } else if (a.isInfinite()) {
+                return infinity(negative);
+            }
+            // division by infinity
+            status |= CLAMPED;
+            return finite(negative, BigDecimal.valueOf(0, -etiny()));
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                return invalid(DIVISION_UNDEFINED);
+            }
+            status |= DIVISION_BY_ZERO;
+            return infinity(negative);
+        }
+        int aExp = a.getExponent();
+        int bExp = b.getExponent();
+        if (a.isZero()) {
+            return fix(negative, BigDecimal.valueOf(0, bExp - aExp));
+        }
+        BigDecimal x = a.getValue();
+        BigDecimal y = b.getValue();
+        int shift = y.precision() - x.precision() + prec + 1;
+        long exp = (long) aExp - bExp - shift;
+        BigInteger[] qr;
+        if (shift >= 0) {
+            qr = x.unscaledValue().abs().multiply(BigInteger.TEN.pow(shift)).divideAndRemainder(y.unscaledValue().abs());
+        } else {
+            qr = x.unscaledValue().abs().divideAndRemainder(y.unscaledValue().abs().multiply(BigInteger.TEN.pow(-shift)));
+        }
+        BigInteger coefficient = qr[0];
+        if (qr[1].signum() != 0) {
+            // not exact, make sure the last digit is not 0 or 5 for correct rounding
+            if (coefficient.mod(FIVE).signum() == 0) {
+                coefficient = coefficient.add(BigInteger.ONE);
+            }
+        } else {
+            // exact, get as close to the ideal exponent as possible
+            long idealExp = (long) aExp - bExp;
+            while (exp < idealExp) {
+                BigInteger[] dr = coefficient.divideAndRemainder(BigInteger.TEN);
+                if (dr[1].signum() != 0) {
+                    break;
+                }
+                coefficient = dr[0];
+                exp++;
+            }
+        }
+        return fix(negative, new BigDecimal(negative ? coefficient.negate() : coefficient, (int) -exp));
+    }
+
+    /**
+     * Returns the integer quotient and the unrounded remainder of a finite {@code a} and a nonzero
+     * {@code b}. This is {@code _divide} of {@code _pydecimal}.
+     */
+    private PDecimal[] divideInteger(PDecimal a, PDecimal b) {
+        boolean negative = a.isNegative() ^ b.isNegative();
+        int aExp = a.getExponent();
+        int idealExp = b.isInfinite() ? aExp : Math.min(aExp, b.getExponent());
+        if (a.isZero() || b.isInfinite() || a.adjusted() - b.adjusted() <= -2) {
+            return new PDecimal[]{finite(negative, BigDecimal.ZERO), finite(a.isNegative(), rescale(a.getValue(), idealExp, rounding))};
+        }
+        if (a.adjusted() - b.adjusted() <= prec) {
+            BigInteger x = a.getValue().unscaledValue().abs();
+            BigInteger y = b.getValue().unscaledValue().abs();
+            int bExp = b.getExponent();
+            if (aExp >= bExp) {
+                x = x.multiply(BigInteger.TEN.pow(aExp - bExp));
+            } else {
+                y = y.multiply(BigInteger.TEN.pow(bExp - aExp));
+            }
+            BigInteger[] qr = x.divideAndRemainder(y);
+            BigDecimal q = new BigDecimal(negative ? qr[0].negate() : qr[0]);
+            if (q.precision() <= prec) {
+                BigDecimal r = new BigDecimal(a.isNegative() ? qr[1].negate() : qr[1], -idealExp);
+                return new PDecimal[]{finite(negative, q), finite(a.isNegative(), r)};
+            }
+        }
+        PDecimal nan = invalid(DIVISION_IMPOSSIBLE);
+        return new PDecimal[]{nan, nan};
+    }
+
+    @TruffleBoundary
+    PDecimal divideInt(PDecimal a, PDecimal b) {
+        PDecimal nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        boolean negative = a.isNegative() ^ b.isNegative();
+        if (a.isInfinite()) {
+            if (b.isInfinite()) {
+                return invalid(INVALID_OPERATION);
+            }
+            return infinity(negative);
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                return invalid(DIVISION_UNDEFINED);
+            }
+            status |= DIVISION_BY_ZERO;
+            return infinity(negative);
+        }
+        PDecimal quotient = divideInteger(a, b)[0];
+        // the zero quotient of a division by infinity keeps its exponent
+        return b.isInfinite() ? quotient : fix(quotient);
+    }
+
+    @TruffleBoundary
+    PDecimal remainder(PDecimal a, PDecimal b) {
+        PDecimal nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isInfinite()) {
+            return invalid(INVALID_OPERATION);
+        }
+        if (b.isZero()) {
+            return invalid(a.isZero() ? DIVISION_UNDEFINED : INVALID_OPERATION);
+        }
+        return fix(divideInteger(a, b)[1]);
+    }
+
+    @TruffleBoundary
+    PDecimal[] divmod(PDecimal a, PDecimal b) {
+        PDecimal nan = checkNaNs(a, b);
+        if (nan != null) {
+            return new PDecimal[]{nan, nan};
+        }
+        boolean negative = a.isNegative() ^ b.isNegative();
+        if (a.isInfinite()) {
+            if (b.isInfinite()) {
+                nan = invalid(INVALID_OPERATION);
+                return new PDecimal[]{nan, nan};
+            }
+            return new PDecimal[]{infinity(negative), invalid(INVALID_OPERATION)};
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                nan = invalid(DIVISION_UNDEFINED);
+                return new PDecimal[]{nan, nan};
+            }
+            status |= DIVISION_BY_ZERO;
+            return new PDecimal[]{infinity(negative), invalid(INVALID_OPERATION)};
+        }
+        PDecimal[] result = divideInteger(a, b);
+        if (!b.isInfinite()) {
+            result[0] = fix(result[0]);
+        }
+        result[1] = fix(result[1]);
+        return result;
+    }
+
+    /**
+     * The remainder of the division rounded to the nearest integer quotient, see
+     * {@code remainder_near} of {@code _pydecimal}.
+     */
+    @TruffleBoundary
+    PDecimal remainderNear(PDecimal a, PDecimal b) {
+        PDecimal nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isInfinite()) {
+            return invalid(INVALID_OPERATION);
+        }
+        if (b.isZero()) {
+            return invalid(a.isZero() ? DIVISION_UNDEFINED : INVALID_OPERATION);
+        }
+        if (b.isInfinite()) {
+            return fix(a);
+        }
+        int idealExp = Math.min(a.getExponent(), b.getExponent());
+        if (a.isZero()) {
+            return fix(a.isNegative(), BigDecimal.valueOf(0, -idealExp));
+        }
+        long expDiff = a.adjusted() - b.adjusted();
+        if (expDiff >= prec + 1) {
+            return invalid(DIVISION_IMPOSSIBLE);
+        } else if (expDiff <= -2) {
+            return fix(a.isNegative(), rescale(a.getValue(), idealExp, rounding));
+        }
+        BigInteger x = a.getValue().unscaledValue().abs().multiply(BigInteger.TEN.pow(a.getExponent() - idealExp));
+        BigInteger y = b.getValue().unscaledValue().abs().multiply(BigInteger.TEN.pow(b.getExponent() - idealExp));
+        BigInteger[] qr = x.divideAndRemainder(y);
+        BigInteger q = qr[0];
+        BigInteger r = qr[1];
+        // round the quotient to the nearest integer, so that abs(r) <= abs(b) / 2
+        if (r.shiftLeft(1).add(q.testBit(0) ? BigInteger.ONE : BigInteger.ZERO).compareTo(y) > 0) {
+            r = r.subtract(y);
+            q = q.add(BigInteger.ONE);
+        }
+        if (q.compareTo(BigInteger.TEN.pow(prec)) >= 0) {
+            return invalid(DIVISION_IMPOSSIBLE);
+        }
+        boolean negative = a.isNegative() ^ (r.signum() < 0);
+        return fix(negative, new BigDecimal(negative ? r.abs().negate() : r.abs(), -idealExp));
+    }
+
+    /**
+     * Computes {@code a * b + c} with a single rounding.
+     */
+    @TruffleBoundary
+    PDecimal fma(PDecimal a, PDecimal b, PDecimal c) {
+        boolean negative = a.isNegative() ^ b.isNegative();
+        PDecimal product;
+        if (a.isSpecial() || b.isSpecial()) {
+            if (a.getKind() == PDecimal.SNAN || b.getKind() == PDecimal.SNAN) {
+                status |= INVALID_OPERATION;
+                return fixNaN(PDecimal.QNAN, a.getKind() == PDecimal.SNAN ? a : b);
+            } else if (a.isNaN()) {
+                product = a;
+            } else if (b.isNaN()) {
+                product = b;
+            } else if (a.isZero() || b.isZero()) {
+                return invalid(INVALID_OPERATION);
+            } else {
+                product = infinity(negative);
+            }
+        } else {
+            // the product is exact
+            product = finite(negative, a.getValue().multiply(b.getValue()));
+        }
+        return add(product, c);
+    }
+
+    // powers, roots and logarithms
+
+    /**
+     * Computes {@code a ** b}. Only the integer powers of finite values and the exact powers are
+     * computed exactly, the others go through {@code exp(b * ln(a))} with enough digits for a
+     * correct rounding like {@code __pow__} of {@code _pydecimal}.
+     */
+    @TruffleBoundary
+    PDecimal power(PDecimal a, PDecimal b) {
+        if (a.isSpecial() || b.isSpecial()) {
+            PDecimal nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                return invalid(INVALID_OPERATION);
+            }
+            return finite(false, BigDecimal.ONE);
+        }
+        boolean negative = false;
+        if (a.isNegative()) {
+            if (isInteger(b)) {
+                negative = !isEven(b);
+            } else if (!a.isZero()) {
+                // a negative number to a non-integer power
+                return invalid(INVALID_OPERATION);
+            }
+        }
+        if (a.isZero()) {
+            return b.isNegative() ? infinity(negative) : finite(negative, BigDecimal.ZERO);
+        } else if (a.isInfinite()) {
+            return b.isNegative() ? finite(negative, BigDecimal.ZERO) : infinity(negative);
+        }
+        BigDecimal x = a.getValue().abs();
+        if (x.compareTo(BigDecimal.ONE) == 0) {
+            // the exponent of the result and the flags depend on the exponent of a and on b
+            long exp;
+            if (isInteger(b)) {
+                long multiplier;
+                if (b.isNegative()) {
+                    multiplier = 0;
+                } else if (b.adjusted() >= 10 || b.getValue().compareTo(BigDecimal.valueOf(prec)) > 0) {
+                    multiplier = prec;
+                } else {
+                    multiplier = b.getValue().longValue();
+                }
+                exp = -(long) x.scale() * multiplier;
+                if (exp < 1 - prec) {
+                    exp = 1 - prec;
+                    status |= ROUNDED;
+                }
+            } else {
+                status |= INEXACT | ROUNDED;
+                exp = 1 - prec;
+            }
+            return finite(negative, signed(negative, BigDecimal.ONE.setScale((int) -exp)));
+        }
+        long aAdjusted = a.adjusted();
+        if (b.isInfinite()) {
+            if (!b.isNegative() == (aAdjusted < 0)) {
+                return finite(negative, BigDecimal.ZERO);
+            }
+            return infinity(negative);
+        }
+        BigDecimal result = null;
+        boolean exact = false;
+        // catch the cases of extreme overflow or underflow
+        long bound = log10ExpBound(x) + b.adjusted();
+        if ((aAdjusted >= 0) == !b.isNegative()) {
+            if (bound >= digits(emax)) {
+                result = BigDecimal.valueOf(1, -(emax + 1));
+            }
+        } else {
+            if (bound >= digits(-(long) etiny())) {
+                result = BigDecimal.valueOf(1, -(etiny() - 1));
+            }
+        }
+        if (result == null) {
+            result = powerExact(x, a.getExponent(), b, prec + 1);
+            exact = result != null;
+        }
+        if (result == null) {
+            BigInteger xc = x.unscaledValue();
+            BigInteger yc = b.getValue().unscaledValue();
+            long ye = b.getExponent();
+            // increase the precision until the result can be rounded unambiguously
+            int extra = 3;
+            BigInteger[] ce;
+            while (true) {
+                ce = dpower(xc, a.getExponent(), yc, ye, prec + extra);
+                if (ce[0].mod(FIVE.multiply(pow10(digits(ce[0]) - prec - 1))).signum() != 0) {
+                    break;
+                }
+                extra += 3;
+            }
+            result = scaled(ce[0], ce[1].longValue());
+        }
+        result = signed(negative, result);
+        if (exact && !isInteger(b)) {
+            // an exact result of a non-integer power is still inexact according to the
+            // specification, pad it so that it is at least rounded
+            int digits = result.precision();
+            if (digits <= prec) {
+                result = result.setScale(result.scale() + prec + 1 - digits);
+            }
+            int savedStatus = status;
+            status = 0;
+            PDecimal ans = fix(negative, result);
+            status |= INEXACT;
+            if ((status & SUBNORMAL) != 0) {
+                status |= UNDERFLOW;
+            }
+            status |= savedStatus;
+            return ans;
+        }
+        return fix(negative, result);
+    }
+
+    /**
+     * Computes {@code pow(a, b, modulo)}, which is always exact.
+     */
+    @TruffleBoundary
+    PDecimal power(PDecimal a, PDecimal b, PDecimal modulo) {
+        if (a.isNaN() || b.isNaN() || modulo.isNaN()) {
+            PDecimal[] operands = {a, b, modulo};
+            for (PDecimal operand : operands) {
+                if (operand.getKind() == PDecimal.SNAN) {
+                    status |= INVALID_OPERATION;
+                    return fixNaN(PDecimal.QNAN, operand);
+                }
+            }
+            for (PDecimal operand : operands) {
+                if (operand.isNaN()) {
+                    return fixNaN(PDecimal.QNAN, operand);
+                }
+            }
+        }
+        if (!isInteger(a) || !isInteger(b) || !isInteger(modulo)) {
+            return invalid(INVALID_OPERATION);
+        }
+        if (b.isNegative() && !b.isZero() || modulo.isZero() || modulo.adjusted() >= prec || a.isZero() && b.isZero()) {
+            return invalid(INVALID_OPERATION);
+        }
+        boolean negative = !isEven(b) && a.isNegative();
+        BigInteger m = modulo.getValue().toBigInteger().abs();
+        BigDecimal x = a.getValue().abs();
+        BigDecimal y = b.getValue();
+        if (x.scale() > 0) {
+            x = x.setScale(0);
+        }
+        if (y.scale() > 0) {
+            y = y.setScale(0);
+        }
+        BigInteger base = x.unscaledValue().mod(m).multiply(BigInteger.TEN.modPow(BigInteger.valueOf(-x.scale()), m)).mod(m);
+        for (int i = 0; i < -y.scale(); i++) {
+            base = base.modPow(BigInteger.TEN, m);
+        }
+        base = base.modPow(y.unscaledValue(), m);
+        return finite(negative, new BigDecimal(negative ? base.negate() : base));
+    }
+
+    /**
+     * Returns {@code x ** y} if it can be represented exactly with {@code p} digits and
+     * {@code null} otherwise. {@code x} is positive and not 1, {@code y} is finite and nonzero and
+     * {@code xExp} is the original exponent of {@code x}. This is {@code _power_exact} of
+     * {@code _pydecimal}.
+     */
+    private static BigDecimal powerExact(BigDecimal x, int xExp, PDecimal y, int p) {
+        BigDecimal xs = x.stripTrailingZeros();
+        BigInteger xc = xs.unscaledValue();
+        BigInteger xe = BigInteger.valueOf(-xs.scale());
+        BigDecimal ys = y.getValue().abs().stripTrailingZeros();
+        BigInteger yc = ys.unscaledValue();
+        long ye = -ys.scale();
+        boolean yNegative = y.isNegative();
+        boolean yNonNegativeInteger = !yNegative && isInteger(y);
+
+        if (xc.equals(BigInteger.ONE)) {
+            // the result is 10**(xe * y), which must be an integer power
+            xe = xe.multiply(yc);
+            while (xe.mod(BigInteger.TEN).signum() == 0) {
+                xe = xe.divide(BigInteger.TEN);
+                ye++;
+            }
+            if (ye < 0) {
+                return null;
+            }
+            BigInteger exponent = xe.multiply(pow10(ye));
+            if (yNegative) {
+                exponent = exponent.negate();
+            }
+            BigInteger zeros = BigInteger.ZERO;
+            if (yNonNegativeInteger) {
+                BigInteger idealExponent = BigInteger.valueOf(xExp).multiply(y.getValue().toBigInteger());
+                zeros = exponent.subtract(idealExponent).min(BigInteger.valueOf(p - 1));
+            }
+            return scaled(pow10(zeros.longValue()), clampExponent(exponent.subtract(zeros)));
+        }
+
+        if (yNegative) {
+            // xc must be a power of 2 or 5 for a negative power
+            int lastDigit = xc.mod(BigInteger.TEN).intValue();
+            BigInteger e;
+            int maxE;
+            if (lastDigit % 2 == 0) {
+                if (xc.bitCount() != 1) {
+                    return null;
+                }
+                e = BigInteger.valueOf(xc.bitLength() - 1);
+                // the largest e such that 5**e < 10**p
+                maxE = p * 93 / 65;
+            } else if (lastDigit == 5) {
+                // e >= log_5(xc) if xc is a power of 5
+                int e5 = xc.bitLength() * 28 / 65;
+                BigInteger[] qr = FIVE.pow(e5).divideAndRemainder(xc);
+                if (qr[1].signum() != 0) {
+                    return null;
+                }
+                xc = qr[0];
+                while (xc.mod(FIVE).signum() == 0) {
+                    xc = xc.divide(FIVE);
+                    e5--;
+                }
+                e = BigInteger.valueOf(e5);
+                // the largest e such that 2**e < 10**p
+                maxE = p * 10 / 3;
+            } else {
+                return null;
+            }
+            if (ye >= digits(maxE)) {
+                return null;
+            }
+            e = decimalLShiftExact(e.multiply(yc), ye);
+            xe = decimalLShiftExact(xe.multiply(yc), ye);
+            if (e == null || xe == null || e.compareTo(BigInteger.valueOf(maxE)) > 0) {
+                return null;
+            }
+            xc = lastDigit == 5 ? BigInteger.ONE.shiftLeft(e.intValue()) : FIVE.pow(e.intValue());
+            if (xc.compareTo(pow10(p)) >= 0) {
+                return null;
+            }
+            return scaled(xc, clampExponent(e.negate().subtract(xe)));
+        }
+
+        // y is positive, find m and n such that y = m / n
+        BigInteger m;
+        BigInteger n;
+        int xcBits = xc.bitLength();
+        if (ye >= 0) {
+            m = yc.multiply(pow10(ye));
+            n = BigInteger.ONE;
+        } else {
+            if (xe.signum() != 0 && digits(yc.multiply(xe)) <= -ye) {
+                return null;
+            }
+            if (digits(yc.multiply(BigInteger.valueOf(xcBits))) <= -ye) {
+                return null;
+            }
+            m = yc;
+            n = pow10(-ye);
+            while (!m.testBit(0) && !n.testBit(0)) {
+                m = m.shiftRight(1);
+                n = n.shiftRight(1);
+            }
+            while (m.mod(FIVE).signum() == 0 && n.mod(FIVE).signum() == 0) {
+                m = m.divide(FIVE);
+                n = n.divide(FIVE);
+            }
+        }
+
+        if (n.compareTo(BigInteger.ONE) > 0) {
+            // compute the nth root of xc * 10**xe, where 1 < xc < 2**n is no nth power
+            if (n.compareTo(BigInteger.valueOf(xcBits)) >= 0) {
+                return null;
+            }
+            int ni = n.intValue();
+            BigInteger[] qr = floorDivMod(xe, n);
+            if (qr[1].signum() != 0) {
+                return null;
+            }
+            xe = qr[0];
+            // Newton's method
+            BigInteger root = BigInteger.ONE.shiftLeft((xcBits + ni - 1) / ni);
+            while (true) {
+                qr = xc.divideAndRemainder(root.pow(ni - 1));
+                if (root.compareTo(qr[0]) <= 0) {
+                    break;
+                }
+                root = root.multiply(BigInteger.valueOf(ni - 1)).add(qr[0]).divide(n);
+            }
+            if (!(root.equals(qr[0]) && qr[1].signum() == 0)) {
+                return null;
+            }
+            xc = root;
+        }
+
+        // the result cannot be represented if m > p / log10(xc)
+        if (xc.compareTo(BigInteger.ONE) > 0 && m.compareTo(BigInteger.valueOf(p * 100L / log10LowerBound(xc))) > 0) {
+            return null;
+        }
+        xc = xc.pow(m.intValueExact());
+        xe = xe.multiply(m);
+        if (xc.compareTo(pow10(p)) > 0) {
+            return null;
+        }
+        // get as close to the ideal exponent as possible
+        long zeros = 0;
+        if (yNonNegativeInteger) {
+            BigInteger idealExponent = BigInteger.valueOf(xExp).multiply(y.getValue().toBigInteger());
+            zeros = xe.subtract(idealExponent).min(BigInteger.valueOf(p - digits(xc))).longValue();
+        }
+        return scaled(xc.multiply(pow10(zeros)), clampExponent(xe.subtract(BigInteger.valueOf(zeros))));
+    }
+
+    /**
+     * The square root, which is correctly rounded half even.
+     */
+    @TruffleBoundary
+    PDecimal sqrt(PDecimal a) {
+        if (a.isSpecial()) {
+            PDecimal nan = checkNaNs(a, null);
+            if (nan != null) {
+                return nan;
+            }
+            if (!a.isNegative()) {
+                return infinity(false);
+            }
+        }
+        if (a.isZero()) {
+            // sqrt(-0) is -0
+            return fix(a.isNegative(), BigDecimal.valueOf(0, -Math.floorDiv(a.getExponent(), 2)));
+        }
+        if (a.isNegative()) {
+            return invalid(INVALID_OPERATION);
+        }
+        // Write a as c * 100**e, where e is the ideal exponent of the result, and rescale c to
+        // have exactly p base 100 digits, with one extra digit of precision. The integer square
+        // root n is then the result with exponent e unless it is inexact. In that case, a last
+        // digit 0 or 5 becomes 1 or 6, so that the final rounding to the precision is correct.
+        int p = prec + 1;
+        BigInteger c = a.getValue().unscaledValue();
+        int digits = a.getValue().precision();
+        int aExp = a.getExponent();
+        long e = aExp >> 1;
+        int l;
+        if ((aExp & 1) != 0) {
+            c = c.multiply(BigInteger.TEN);
+            l = (digits >> 1) + 1;
+        } else {
+            l = (digits + 1) >> 1;
+        }
+        int shift = p - l;
+        boolean exact;
+        if (shift >= 0) {
+            c = c.multiply(BigInteger.TEN.pow(2 * shift));
+            exact = true;
+        } else {
+            BigInteger[] qr = c.divideAndRemainder(BigInteger.TEN.pow(-2 * shift));
+            c = qr[0];
+            exact = qr[1].signum() == 0;
+        }
+        e -= shift;
+        BigInteger n = c.sqrt();
+        exact = exact && n.multiply(n).equals(c);
+        if (exact) {
+            if (shift >= 0) {
+                n = n.divide(BigInteger.TEN.pow(shift));
+            } else {
+                n = n.multiply(BigInteger.TEN.pow(-shift));
+            }
+            e += shift;
+        } else if (n.mod(FIVE).signum() == 0) {
+            n = n.add(BigInteger.ONE);
+        }
+        return fix(false, scaled(n, e), ROUND_HALF_EVEN);
+    }
+
+    /**
+     * The exponential function, which is correctly rounded half even.
+     */
+    @TruffleBoundary
+    PDecimal exp(PDecimal a) {
+        if (a.isSpecial()) {
+            PDecimal nan = checkNaNs(a, null);
+            if (nan != null) {
+                return nan;
+            }
+            return a.isNegative() ? finite(false, BigDecimal.ZERO) : infinity(false);
+        }
+        if (a.isZero()) {
+            return finite(false, BigDecimal.ONE);
+        }
+        // The result is transcendental, so the final rounding will always signal inexact and
+        // rounded. Only a small range of adjusted exponents needs to be computed, the others
+        // overflow, underflow or are indistinguishable from 1.
+        int p = prec;
+        long adjusted = a.adjusted();
+        BigDecimal result;
+        if (!a.isNegative() && adjusted > digits((emax + 1L) * 3)) {
+            result = BigDecimal.valueOf(1, -(emax + 1));
+        } else if (a.isNegative() && adjusted > digits((-(long) etiny() + 1) * 3)) {
+            result = BigDecimal.valueOf(1, -(etiny() - 1));
+        } else if (!a.isNegative() && adjusted < -p) {
+            // p + 1 digits, the final rounding raises the correct flags
+            result = new BigDecimal(pow10(p).add(BigInteger.ONE), p);
+        } else if (a.isNegative() && adjusted < -p - 1) {
+            result = new BigDecimal(pow10(p + 1).subtract(BigInteger.ONE), p + 1);
+        } else {
+            BigInteger c = a.getValue().unscaledValue();
+            int extra = 3;
+            BigInteger[] ce;
+            while (true) {
+                ce = dexp(c, a.getExponent(), p + extra);
+                if (ce[0].mod(FIVE.multiply(pow10(digits(ce[0]) - p - 1))).signum() != 0) {
+                    break;
+                }
+                extra += 3;
+            }
+            result = scaled(ce[0], ce[1].longValue());
+        }
+        return fix(false, result, ROUND_HALF_EVEN);
+    }
+
+    /**
+     * The natural logarithm, which is correctly rounded half even.
+     */
+    @TruffleBoundary
+    PDecimal ln(PDecimal a) {
+        PDecimal special = checkLogarithm(a);
+        if (special != null) {
+            return special;
+        }
+        BigDecimal x = a.getValue();
+        if (x.compareTo(BigDecimal.ONE) == 0) {
+            return finite(false, BigDecimal.ZERO);
+        }
+        BigInteger c = x.unscaledValue();
+        long places = prec - lnExpBound(x) + 2;
+        BigInteger coefficient;
+        while (true) {
+            coefficient = dlog(c, a.getExponent(), places);
+            if (coefficient.mod(FIVE.multiply(pow10(digits(coefficient) - prec - 1))).signum() != 0) {
+                break;
+            }
+            places += 3;
+        }
+        return fix(coefficient.signum() < 0, scaled(coefficient, -places), ROUND_HALF_EVEN);
+    }
+
+    /**
+     * The base 10 logarithm, which is correctly rounded half even.
+     */
+    @TruffleBoundary
+    PDecimal log10(PDecimal a) {
+        PDecimal special = checkLogarithm(a);
+        if (special != null) {
+            return special;
+        }
+        BigDecimal x = a.getValue();
+        BigInteger c = x.unscaledValue();
+        if (c.equals(pow10(x.precision() - 1))) {
+            // the logarithm of a power of ten is exact
+            long exp = -(long) x.scale() + x.precision() - 1;
+            return fix(exp < 0, BigDecimal.valueOf(exp), ROUND_HALF_EVEN);
+        }
+        long places = prec - log10ExpBound(x) + 2;
+        BigInteger coefficient;
+        while (true) {
+            coefficient = dlog10(c, a.getExponent(), places);
+            if (coefficient.mod(FIVE.multiply(pow10(digits(coefficient) - prec - 1))).signum() != 0) {
+                break;
+            }
+            places += 3;
+        }
+        return fix(coefficient.signum() < 0, scaled(coefficient, -places), ROUND_HALF_EVEN);
+    }
+
+    /**
+     * Returns the result of a logarithm of NaNs, zeros, infinities and negative numbers, or
+     * {@code null} for the positive numbers.
+     */
+    private PDecimal checkLogarithm(PDecimal a) {
+        PDecimal nan = checkNaNs(a, null);
+        if (nan != null) {
+            return nan;
+        } else if (a.isZero()) {
+            return infinity(true);
+        } else if (a.isNegative()) {
+            return invalid(INVALID_OPERATION);
+        } else if (a.isInfinite()) {
+            return infinity(false);
+        }
+        return null;
+    }
+
+    /**
+     * The adjusted exponent of the most significant digit as a decimal.
+     */
+    @TruffleBoundary
+    PDecimal logb(PDecimal a) {
+        PDecimal nan = checkNaNs(a, null);
+        if (nan != null) {
+            return nan;
+        } else if (a.isInfinite()) {
+            return infinity(false);
+        } else if (a.isZero()) {
+            status |= DIVISION_BY_ZERO;
+            return infinity(true);
+        }
+        long adjusted = a.adjusted();
+        return fix(adjusted < 0, BigDecimal.valueOf(adjusted));
+    }
+
+    /**
+     * Adds the integer {@code b} to the exponent of {@code a}.
+     */
+    @TruffleBoundary
+    PDecimal scaleb(PDecimal a, PDecimal b) {
+        PDecimal nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        if (!b.isFinite() || b.getExponent() != 0) {
+            return invalid(INVALID_OPERATION);
+        }
+        long limit = 2 * ((long) emax + prec);
+        BigInteger n = b.getValue().unscaledValue();
+        if (n.bitLength() >= Long.SIZE || Math.abs(n.longValue()) > limit) {
+            return invalid(INVALID_OPERATION);
+        }
+        if (a.isInfinite()) {
+            return infinity(a.isNegative());
+        }
+        return fix(a.isNegative(), scaled(a.getValue().unscaledValue(), a.getExponent() + n.longValue()));
+    }
+
+    // comparisons
+
+    /**
+     * Compares two values that are not NaNs numerically.
+     */
+    @TruffleBoundary
+    static int compare(PDecimal a, PDecimal b) {
+        if (a.isInfinite() || b.isInfinite()) {
+            int aInf = a.isInfinite() ? (a.isNegative() ? -1 : 1) : 0;
+            int bInf = b.isInfinite() ? (b.isNegative() ? -1 : 1) : 0;
+            return Integer.compare(aInf, bInf);
+        }
+        return compareFinite(a.getValue(), b.getValue());
+    }
+
+    @TruffleBoundary
+    private static int compareFinite(BigDecimal a, BigDecimal b) {
+        return a.compareTo(b);
+    }
+
+    private static int compareMagnitude(PDecimal a, PDecimal b) {
+        if (a.isInfinite() || b.isInfinite()) {
+            return Boolean.compare(a.isInfinite(), b.isInfinite());
+        }
+        return a.getValue().abs().compareTo(b.getValue().abs());
+    }
+
+    /**
+     * Orders numerically equal values by sign and exponent, like {@code compare_total}.
+     */
+    private static int compareTotalEqual(PDecimal a, PDecimal b) {
+        if (a.isNegative() != b.isNegative()) {
+            return a.isNegative() ? -1 : 1;
+        }
+        if (a.isInfinite()) {
+            return 0;
+        }
+        int c = Integer.compare(a.getExponent(), b.getExponent());
+        return a.isNegative() ? -c : c;
+    }
+
+    /**
+     * The result of {@code Decimal.compare}.
+     */
+    @TruffleBoundary
+    PDecimal compareValues(PDecimal a, PDecimal b) {
+        if (a.isSpecial() || b.isSpecial()) {
+            PDecimal nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+        }
+        return finite(BigDecimal.valueOf(compare(a, b)));
+    }
+
+    /**
+     * The result of {@code Decimal.compare_signal}, where all NaNs signal.
+     */
+    @TruffleBoundary
+    PDecimal compareSignal(PDecimal a, PDecimal b) {
+        if (a.isNaN() || b.isNaN()) {
+            status |= INVALID_OPERATION;
+            if (a.getKind() == PDecimal.SNAN || b.getKind() != PDecimal.SNAN && a.isNaN()) {
+                return fixNaN(PDecimal.QNAN, a);
+            }
+            return fixNaN(PDecimal.QNAN, b);
+        }
+        return finite(BigDecimal.valueOf(compare(a, b)));
+    }
+
+    @TruffleBoundary
+    PDecimal max(PDecimal a, PDecimal b) {
+        return maxOrMin(a, b, true, false);
+    }
+
+    @TruffleBoundary
+    PDecimal min(PDecimal a, PDecimal b) {
+        return maxOrMin(a, b, false, false);
+    }
+
+    @TruffleBoundary
+    PDecimal maxMag(PDecimal a, PDecimal b) {
+        return maxOrMin(a, b, true, true);
+    }
+
+    @TruffleBoundary
+    PDecimal minMag(PDecimal a, PDecimal b) {
+        return maxOrMin(a, b, false, true);
+    }
+
+    /**
+     * Compares the values numerically, or their absolute values if {@code magnitude} is set.
+     */
+    private PDecimal maxOrMin(PDecimal a, PDecimal b, boolean max, boolean magnitude) {
+        if (a.isNaN() || b.isNaN()) {
+            // a quiet NaN loses against a number
+            if (b.getKind() == PDecimal.QNAN && !a.isNaN()) {
+                return fix(a);
+            } else if (a.getKind() == PDecimal.QNAN && !b.isNaN()) {
+                return fix(b);
+            }
+            return checkNaNs(a, b);
+        }
+        int c = magnitude ? compareMagnitude(a, b) : compare(a, b);
+        if (c == 0) {
+            c = compareTotalEqual(a, b);
+        }
+        if (max) {
+            return fix(c < 0 ? b : a);
+        } else {
+            return fix(c < 0 ? a : b);
+        }
+    }
+
+    // rounding to an exponent
+
+    @TruffleBoundary
+    PDecimal quantize(PDecimal a, PDecimal e, int quantizeRounding) {
+        if (a.isSpecial() || e.isSpecial()) {
+            PDecimal nan = checkNaNs(a, e);
+            if (nan != null) {
+                return nan;
+            }
+            if (a.isInfinite() && e.isInfinite()) {
+                return infinity(a.isNegative());
+            }
+            return invalid(INVALID_OPERATION);
+        }
+        int exp = e.getExponent();
+        if (exp < etiny() || exp > emax) {
+            return invalid(INVALID_OPERATION);
+        }
+        if (a.isZero()) {
+            return fix(a.isNegative(), BigDecimal.valueOf(0, -exp));
+        }
+        if (a.adjusted() > emax || a.adjusted() - exp + 1 > prec) {
+            return invalid(INVALID_OPERATION);
+        }
+        BigDecimal r = rescale(a.getValue(), exp, quantizeRounding);
+        long adjusted = (long) r.precision() - r.scale() - 1;
+        if (adjusted > emax || r.precision() > prec) {
+            return invalid(INVALID_OPERATION);
+        }
+        if (r.signum() != 0 && adjusted < emin) {
+            status |= SUBNORMAL;
+        }
+        if (exp > a.getExponent()) {
+            if (r.compareTo(a.getValue()) != 0) {
+                status |= INEXACT;
+            }
+            status |= ROUNDED;
+        }
+        return fix(a.isNegative(), r);
+    }
+
+    /**
+     * Rounds to an integer, signalling {@code Inexact} and {@code Rounded} only if {@code exact}
+     * is set.
+     */
+    @TruffleBoundary
+    PDecimal toIntegral(PDecimal a, int integralRounding, boolean exact) {
+        if (a.isSpecial()) {
+            PDecimal nan = checkNaNs(a, null);
+            if (nan != null) {
+                return nan;
+            }
+            return infinity(a.isNegative());
+        }
+        if (a.getExponent() >= 0) {
+            return finite(a.isNegative(), a.getValue());
+        }
+        BigDecimal r = rescale(a.getValue(), 0, integralRounding);
+        if (exact && !a.isZero()) {
+            if (r.compareTo(a.getValue()) != 0) {
+                status |= INEXACT;
+            }
+            status |= ROUNDED;
+        }
+        return finite(a.isNegative(), r);
+    }
+
+    @TruffleBoundary
+    PDecimal normalize(PDecimal a) {
+        if (a.isSpecial()) {
+            PDecimal nan = checkNaNs(a, null);
+            if (nan != null) {
+                return nan;
+            }
+            return infinity(a.isNegative());
+        }
+        PDecimal dup = fix(a.isNegative(), a.getValue());
+        if (dup.isInfinite()) {
+            return dup;
+        }
+        BigDecimal v = dup.getValue();
+        if (v.signum() == 0) {
+            return finite(dup.isNegative(), BigDecimal.ZERO);
+        }
+        int expMax = clamp == 0 ? emax : etop();
+        BigDecimal stripped = v.stripTrailingZeros();
+        if (-stripped.scale() > expMax) {
+            stripped = stripped.setScale(-expMax);
+        }
+        return finite(dup.isNegative(), stripped);
+    }
+
+    /**
+     * The class of a value as returned by {@code number_class}.
+     */
+    @TruffleBoundary
+    String numberClass(PDecimal a) {
+        if (a.getKind() == PDecimal.SNAN) {
+            return "sNaN";
+        } else if (a.isNaN()) {
+            return "NaN";
+        }
+        String sign = a.isNegative() ? "-" : "+";
+        if (a.isInfinite()) {
+            return sign + "Infinity";
+        } else if (a.isZero()) {
+            return sign + "Zero";
+        }
+        return sign + (a.adjusted() < emin ? "Subnormal" : "Normal");
+    }
+
+    // conversions
+
+    /**
+     * The string in scientific or engineering notation, see {@code to-scientific-string} in the
+     * specification.
+     */
+    @TruffleBoundary
+    static String toString(PDecimal d, boolean engineering, boolean capitals) {
+        StringBuilder sb = new StringBuilder();
+        if (d.isNegative()) {
+            sb.append('-');
+        }
+        if (d.isInfinite()) {
+            return sb.append("Infinity").toString();
+        } else if (d.isNaN()) {
+            sb.append(d.getKind() == PDecimal.SNAN ? "sNaN" : "NaN");
+            if (d.getValue().signum() != 0) {
+                sb.append(d.getValue().unscaledValue());
+            }
+            return sb.toString();
+        }
+        String digits = d.getValue().unscaledValue().abs().toString();
+        long exp = d.getExponent();
+        long leftDigits = exp + digits.length();
+        long dotPlace;
+        if (exp <= 0 && leftDigits > -6) {
+            // no exponent required
+            dotPlace = leftDigits;
+        } else if (!engineering) {
+            dotPlace = 1;
+        } else if (d.isZero()) {
+            dotPlace = Math.floorMod(leftDigits + 1, 3) - 1;
+        } else {
+            dotPlace = Math.floorMod(leftDigits - 1, 3) + 1;
+        }
+        if (dotPlace <= 0) {
+            sb.append("0.");
+            appendZeros(sb, -dotPlace);
+            sb.append(digits);
+        } else if (dotPlace >= digits.length()) {
+            sb.append(digits);
+            appendZeros(sb, dotPlace - digits.length());
+        } else {
+            sb.append(digits, 0, (int) dotPlace).append('.').append(digits, (int) dotPlace, digits.length());
+        }
+        if (leftDigits != dotPlace) {
+            long e = leftDigits - dotPlace;
+            sb.append(capitals ? 'E' : 'e').append(e < 0 ? '-' : '+').append(Math.abs(e));
+        }
+        return sb.toString();
+    }
+
+    private static void appendZeros(StringBuilder sb, long count) {
+        for (long i = 0; i < count; i++) {
+            sb.append('0');
+        }
+    }
+
+    /**
+     * Formats a value like {@code Decimal.__format__} of {@code _pydecimal}. Returns {@code null}
+     * for the specs that are left to {@code _pydecimal}: invalid ones, which raise an error there,
+     * the locale dependent type {@code 'n'}, non-ASCII widths and precisions and those that do not
+     * fit in an int.
+     */
+    @TruffleBoundary
+    static String format(PDecimal d, String spec, boolean capitals, int rounding) {
+        // [[fill]align][sign][#][0][minimumwidth][,][.precision][type]
+        int len = spec.length();
+        int i = 0;
+        int fill = ' ';
+        char align = '>';
+        boolean hasAlign = false;
+        if (len > 0) {
+            int first = spec.codePointAt(0);
+            int next = Character.charCount(first);
+            if (next < len && isAlign(spec.charAt(next))) {
+                fill = first;
+                align = spec.charAt(next);
+                hasAlign = true;
+                i = next + 1;
+            } else if (isAlign(spec.charAt(0))) {
+                align = spec.charAt(0);
+                hasAlign = true;
+                i = 1;
+            }
+        }
+        char sign = '-';
+        if (i < len && (spec.charAt(i) == '+' || spec.charAt(i) == '-' || spec.charAt(i) == ' ')) {
+            sign = spec.charAt(i++);
+        }
+        boolean alternate = i < len && spec.charAt(i) == '#';
+        if (alternate) {
+            i++;
+        }
+        boolean zeroPad = i < len && spec.charAt(i) == '0';
+        if (zeroPad) {
+            if (hasAlign) {
+                // the fill character and the alignment conflict with '0'
+                return null;
+            }
+            i++;
+        }
+        int start = i;
+        while (i < len && isDigit(spec.charAt(i))) {
+            i++;
+        }
+        if (i > start && (spec.charAt(start) == '0' || i - start > 9)) {
+            return null;
+        }
+        int width = i > start ? Integer.parseInt(spec.substring(start, i)) : 0;
+        boolean thousands = i < len && spec.charAt(i) == ',';
+        if (thousands) {
+            i++;
+        }
+        int precision = -1;
+        if (i < len && spec.charAt(i) == '.') {
+            start = ++i;
+            while (i < len && isDigit(spec.charAt(i))) {
+                i++;
+            }
+            if (i == start || i - start > 9 || spec.charAt(start) == '0' && i - start > 1) {
+                return null;
+            }
+            precision = Integer.parseInt(spec.substring(start, i));
+        }
+        char type = 0;
+        if (i < len && "eEfFgG%".indexOf(spec.charAt(i)) >= 0) {
+            type = spec.charAt(i++);
+        }
+        if (i != len) {
+            return null;
+        }
+        if (precision == 0 && (type == 0 || type == 'g' || type == 'G')) {
+            precision = 1;
+        }
+
+        String signString = d.isNegative() ? "-" : sign == '-' ? "" : String.valueOf(sign);
+        if (d.isSpecial()) {
+            // special values ignore the type and the precision
+            String body = toString(d, false, capitals);
+            if (d.isNegative()) {
+                body = body.substring(1);
+            }
+            if (type == '%') {
+                body += '%';
+            }
+            return align(signString, body, fill, align, width);
+        }
+        if (type == 0) {
+            type = capitals ? 'G' : 'g';
+        }
+        BigDecimal v = d.getValue();
+        if (type == '%') {
+            v = v.scaleByPowerOfTen(2);
+        }
+        if (precision >= 0) {
+            if (type == 'e' || type == 'E') {
+                v = roundDigits(v, precision + 1, rounding);
+            } else if (type == 'f' || type == 'F' || type == '%') {
+                v = rescale(v, -precision, rounding);
+            } else if (v.precision() > precision) {
+                v = roundDigits(v, precision, rounding);
+            }
+        }
+        boolean fixedPoint = type == 'f' || type == 'F' || type == '%';
+        if (v.signum() == 0 && v.scale() < 0 && fixedPoint) {
+            // zeros with a positive exponent cannot be represented in fixed point
+            v = v.setScale(0);
+        }
+
+        String digits = v.unscaledValue().abs().toString();
+        long leftDigits = -(long) v.scale() + digits.length();
+        long dotPlace;
+        if (type == 'e' || type == 'E') {
+            dotPlace = v.signum() == 0 && precision >= 0 ? 1 - precision : 1;
+        } else if (fixedPoint) {
+            dotPlace = leftDigits;
+        } else {
+            dotPlace = v.scale() >= 0 && leftDigits > -6 ? leftDigits : 1;
+        }
+        StringBuilder intPart = new StringBuilder();
+        StringBuilder fracPart = new StringBuilder();
+        if (dotPlace < 0) {
+            intPart.append('0');
+            appendZeros(fracPart, -dotPlace);
+            fracPart.append(digits);
+        } else if (dotPlace > digits.length()) {
+            intPart.append(digits);
+            appendZeros(intPart, dotPlace - digits.length());
+        } else {
+            intPart.append(dotPlace == 0 ? "0" : digits.substring(0, (int) dotPlace));
+            fracPart.append(digits, (int) dotPlace, digits.length());
+        }
+        long exp = leftDigits - dotPlace;
+
+        if (fracPart.length() > 0 || alternate) {
+            fracPart.insert(0, '.');
+        }
+        if (exp != 0 || type == 'e' || type == 'E') {
+            fracPart.append(type == 'E' || type == 'G' ? 'E' : 'e').append(exp < 0 ? '-' : '+').append(Math.abs(exp));
+        }
+        if (type == '%') {
+            fracPart.append('%');
+        }
+        int minWidth = zeroPad ? width - fracPart.length() - signString.length() : 0;
+        String body = insertThousandsSeparators(intPart.toString(), thousands ? "," : "", minWidth) + fracPart;
+        return align(signString, body, fill, align, width);
+    }
+
+    private static boolean isAlign(char c) {
+        return c == '<' || c == '>' || c == '=' || c == '^';
+    }
+
+    /**
+     * Rounds a value to {@code places} significant digits, like {@code _round} of
+     * {@code _pydecimal}.
+     */
+    private static BigDecimal roundDigits(BigDecimal v, int places, int rounding) {
+        if (v.signum() == 0) {
+            return v;
+        }
+        long adjusted = (long) v.precision() - v.scale() - 1;
+        BigDecimal r = rescale(v, (int) (adjusted + 1 - places), rounding);
+        long newAdjusted = (long) r.precision() - r.scale() - 1;
+        if (newAdjusted != adjusted) {
+            // rounding carried into a new digit
+            r = rescale(r, (int) (newAdjusted + 1 - places), rounding);
+        }
+        return r;
+    }
+
+    /**
+     * Inserts the separator between groups of three digits and pads the result with zeros to
+     * {@code minWidth}. The padding gets an extra zero rather than starting with a separator.
+     */
+    private static String insertThousandsSeparators(String digits, String separator, int minWidth) {
+        ArrayList<String> groups = new ArrayList<>();
+        String rest = digits;
+        int width = minWidth;
+        while (true) {
+            int l = Math.min(Math.max(Math.max(rest.length(), width), 1), 3);
+            int split = Math.max(rest.length() - l, 0);
+            groups.add("0".repeat(Math.max(l - rest.length(), 0)) + rest.substring(split));
+            rest = rest.substring(0, split);
+            width -= l;
+            if (rest.isEmpty() && width <= 0) {
+                break;
+            }
+            width -= separator.length();
+        }
+        Collections.reverse(groups);
+        return String.join(separator, groups);
+    }
+
+    private static String align(String sign, String body, int fill, char align, int width) {
+        int padding = width - sign.length() - body.length();
+        StringBuilder sb = new StringBuilder();
+        switch (align) {
+            case '<':
+                sb.append(sign).append(body);
+                appendFill(sb, fill, padding);
+                break;
+            case '=':
+                sb.append(sign);
+                appendFill(sb, fill, padding);
+                sb.append(body);
+                break;
+            case '^':
+                appendFill(sb, fill, padding / 2);
+                sb.append(sign).append(body);
+                appendFill(sb, fill, padding - padding / 2);
+                break;
+            default:
+                appendFill(sb, fill, padding);
+                sb.append(sign).append(body);
+                break;
+        }
+        return sb.toString();
+    }
+
+    private static void appendFill(StringBuilder sb, int fill, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.appendCodePoint(fill);
+        }
+    }
+
+    /**
+     * The numeric hash that is consistent with the hashes of equal ints, floats and fractions.
+     * Must not be called for signaling NaNs.
+     */
+    @TruffleBoundary
+    static long hash(PDecimal d) {
+        assert d.getKind() != PDecimal.SNAN;
+        if (d.isNaN()) {
+            return SysModuleBuiltins.HASH_NAN;
+        } else if (d.isInfinite()) {
+            return d.isNegative() ? -SysModuleBuiltins.HASH_INF : SysModuleBuiltins.HASH_INF;
+        }
+        int exp = d.getExponent();
+        BigInteger expHash = exp >= 0 ? BigInteger.TEN.modPow(BigInteger.valueOf(exp), HASH_MODULUS) : HASH_10INV.modPow(BigInteger.valueOf(-exp), HASH_MODULUS);
+        long hash = d.getValue().unscaledValue().abs().multiply(expHash).mod(HASH_MODULUS).longValue();
+        if (d.isNegative()) {
+            hash = -hash;
+        }
+        return hash == -1 ? -2 : hash;
+    }
+
+    /**
+     * Truncates or rounds a finite value to an integer with the given rounding.
+     */
+    @TruffleBoundary
+    static BigInteger toBigInteger(PDecimal d, int integerRounding) {
+        return rescale(d.getValue(), 0, integerRounding).unscaledValue();
+    }
+
+    /**
+     * The smallest integer ratio of a finite value.
+     */
+    @TruffleBoundary
+    static BigInteger[] asIntegerRatio(PDecimal d) {
+        BigDecimal v = d.getValue();
+        if (v.signum() == 0) {
+            return new BigInteger[]{BigInteger.ZERO, BigInteger.ONE};
+        }
+        if (v.scale() <= 0) {
+            return new BigInteger[]{v.toBigIntegerExact(), BigInteger.ONE};
+        }
+        BigInteger n = v.unscaledValue();
+        BigInteger d5 = FIVE.pow(v.scale());
+        BigInteger gcd = n.gcd(d5);
+        n = n.divide(gcd);
+        d5 = d5.divide(gcd);
+        int shift2 = Math.min(n.getLowestSetBit(), v.scale());
+        n = n.shiftRight(shift2);
+        return new BigInteger[]{n, d5.shiftLeft(v.scale() - shift2)};
+    }
+
+    @TruffleBoundary
+    static double toDouble(PDecimal d) {
+        assert d.isFinite();
+        if (d.isZero()) {
+            return d.isNegative() ? -0.0 : 0.0;
+        }
+        // parsing the string rounds correctly and handles exponents beyond the double range
+        return Double.parseDouble(d.getValue().toString());
+    }
+
+    // integer arithmetic of the transcendental functions, see _pydecimal
+
+    private static final String LOG10_DIGITS = "23025850929940456840179914546843642076011014886";
+    private static final int[] LOG10_LB_CORRECTION = {0, 100, 70, 53, 40, 31, 23, 16, 10, 5};
+
+    private static BigDecimal signed(boolean negative, BigDecimal magnitude) {
+        return negative ? magnitude.negate() : magnitude;
+    }
+
+    /**
+     * The value {@code coefficient * 10**exp} of an unrounded result. Exponents beyond the range
+     * of {@link BigDecimal} are far outside of every context, so they are clamped to a range in
+     * which {@link #fix} still overflows or underflows.
+     */
+    private static BigDecimal scaled(BigInteger coefficient, long exp) {
+        return new BigDecimal(coefficient, (int) -Math.max(Math.min(exp, 2000000000L), -2000000000L));
+    }
+
+    private static long clampExponent(BigInteger exp) {
+        return exp.bitLength() < Long.SIZE ? exp.longValue() : exp.signum() * Long.MAX_VALUE;
+    }
+
+    private static boolean isInteger(PDecimal d) {
+        return d.isFinite() && (d.getExponent() >= 0 || d.isZero() || d.getValue().stripTrailingZeros().scale() <= 0);
+    }
+
+    /**
+     * Whether an integer is even.
+     */
+    private static boolean isEven(PDecimal d) {
+        return d.isZero() || d.getExponent() > 0 || !d.getValue().toBigInteger().testBit(0);
+    }
+
+    /**
+     * The number of decimal digits of {@code abs(n)}, like {@code len(str(abs(n)))}.
+     */
+    private static int digits(BigInteger n) {
+        return new BigDecimal(n).precision();
+    }
+
+    private static int digits(long n) {
+        return Long.toString(Math.abs(n)).length();
+    }
+
+    private static BigInteger pow10(long exp) {
+        return BigInteger.TEN.pow(Math.toIntExact(exp));
+    }
+
+    /**
+     * Division and remainder rounding towards negative infinity, like {@code divmod}.
+     */
+    private static BigInteger[] floorDivMod(BigInteger a, BigInteger b) {
+        BigInteger[] qr = a.divideAndRemainder(b);
+        if (qr[1].signum() != 0 && qr[1].signum() != b.signum()) {
+            qr[0] = qr[0].subtract(BigInteger.ONE);
+            qr[1] = qr[1].add(b);
+        }
+        return qr;
+    }
+
+    private static BigInteger floorDiv(BigInteger a, BigInteger b) {
+        return floorDivMod(a, b)[0];
+    }
+
+    /**
+     * Returns {@code n * 10**e} if it is an integer and {@code null} otherwise.
+     */
+    private static BigInteger decimalLShiftExact(BigInteger n, long e) {
+        if (n.signum() == 0) {
+            return BigInteger.ZERO;
+        } else if (e >= 0) {
+            return n.multiply(pow10(e));
+        }
+        BigInteger[] qr = n.divideAndRemainder(pow10(-e));
+        return qr[1].signum() == 0 ? qr[0] : null;
+    }
+
+    /**
+     * The integer closest to {@code a / b} for a positive {@code b}, rounding half even.
+     */
+    private static BigInteger divNearest(BigInteger a, BigInteger b) {
+        BigInteger[] qr = floorDivMod(a, b);
+        BigInteger q = qr[0];
+        if (qr[1].shiftLeft(1).add(q.testBit(0) ? BigInteger.ONE : BigInteger.ZERO).compareTo(b) > 0) {
+            q = q.add(BigInteger.ONE);
+        }
+        return q;
+    }
+
+    /**
+     * The integer closest to {@code x / 2**shift}, rounding half even.
+     */
+    private static BigInteger rshiftNearest(BigInteger x, int shift) {
+        BigInteger b = BigInteger.ONE.shiftLeft(shift);
+        BigInteger q = x.shiftRight(shift);
+        if (x.and(b.subtract(BigInteger.ONE)).shiftLeft(1).add(q.testBit(0) ? BigInteger.ONE : BigInteger.ZERO).compareTo(b) > 0) {
+            q = q.add(BigInteger.ONE);
+        }
+        return q;
+    }
+
+    /**
+     * The integer closest to the square root of a positive {@code n}, starting with the
+     * approximation {@code a}.
+     */
+    private static BigInteger sqrtNearest(BigInteger n, BigInteger a) {
+        BigInteger x = a;
+        BigInteger b = BigInteger.ZERO;
+        while (!x.equals(b)) {
+            b = x;
+            x = x.subtract(floorDiv(n.negate(), x)).shiftRight(1);
+        }
+        return x;
+    }
+
+    /**
+     * A lower bound for {@code 100 * log10(c)} of a positive integer.
+     */
+    private static int log10LowerBound(BigInteger c) {
+        String s = c.toString();
+        return 100 * s.length() - LOG10_LB_CORRECTION[s.charAt(0) - '0'];
+    }
+
+    /**
+     * The number of Taylor series terms needed for the precision of {@code m}, which is
+     * {@code ceil(10 * len(str(m)) / (3 * L))} with {@code L = 8}.
+     */
+    private static int taylorTerms(BigInteger m) {
+        return (10 * digits(m) + 23) / 24;
+    }
+
+    /**
+     * An integer approximation of {@code m * log(x / m)}. The error is at most 22 for
+     * {@code 0.1 <= x / m <= 10}.
+     */
+    private static BigInteger ilog(BigInteger x, BigInteger m) {
+        final int l = 8;
+        BigInteger y = x.subtract(m);
+        // reduce the argument with log1p(y) = 2 * log1p(y / (1 + sqrt(1 + y)))
+        int r = 0;
+        while (r <= l && y.abs().shiftLeft(l - r).compareTo(m) >= 0 || r > l && y.abs().shiftRight(r - l).compareTo(m) >= 0) {
+            y = divNearest(m.multiply(y).shiftLeft(1), m.add(sqrtNearest(m.multiply(m.add(rshiftNearest(y, r))), m)));
+            r++;
+        }
+        // Taylor series
+        int t = taylorTerms(m);
+        BigInteger yShift = rshiftNearest(y, r);
+        BigInteger w = divNearest(m, BigInteger.valueOf(t));
+        for (int k = t - 1; k > 0; k--) {
+            w = divNearest(m, BigInteger.valueOf(k)).subtract(divNearest(yShift.multiply(w), m));
+        }
+        return divNearest(w.multiply(y), m);
+    }
+
+    /**
+     * The digits of {@code log(10)} truncated to {@code floor(10**p * log(10))}.
+     */
+    private static BigInteger log10Digits(long p) {
+        assert p >= 0;
+        if (p < LOG10_DIGITS.length()) {
+            return new BigInteger(LOG10_DIGITS.substring(0, (int) p + 1));
+        }
+        // compute more digits until at least one of the extra ones is nonzero, so that the
+        // truncation is correct
+        int extra = 3;
+        String digits;
+        while (true) {
+            BigInteger m = pow10(p + extra + 2);
+            digits = divNearest(ilog(m.multiply(BigInteger.TEN), m), BigInteger.valueOf(100)).toString();
+            if (!digits.endsWith("0".repeat(extra))) {
+                break;
+            }
+            extra += 3;
+        }
+        return new BigInteger(digits.substring(0, (int) p + 1));
+    }
+
+    /**
+     * An integer approximation of {@code m * exp(x / m)} for a small {@code x / m}. The error is
+     * at most 60 for {@code 0 <= x / m <= 2.4}.
+     */
+    private static BigInteger iexp(BigInteger x, BigInteger m) {
+        final int l = 8;
+        // reduce the argument to x / 2**r / m <= 2**-l
+        int r = floorDiv(x.shiftLeft(l), m).bitLength();
+        // Taylor series of expm1
+        int t = taylorTerms(m);
+        BigInteger y = divNearest(x, BigInteger.valueOf(t));
+        BigInteger mShift = m.shiftLeft(r);
+        for (int i = t - 1; i > 0; i--) {
+            y = divNearest(x.multiply(mShift.add(y)), mShift.multiply(BigInteger.valueOf(i)));
+        }
+        // expand with expm1(2x) = expm1(x) * (expm1(x) + 2)
+        for (int k = r - 1; k >= 0; k--) {
+            mShift = m.shiftLeft(k + 2);
+            y = divNearest(y.multiply(y.add(mShift)), mShift);
+        }
+        return m.add(y);
+    }
+
+    /**
+     * Approximates {@code exp(c * 10**e)} with {@code p} digits. Returns {@code {d, f}} with
+     * {@code 10**(p-1) <= d <= 10**p} and {@code (d-1) * 10**f < exp(c * 10**e) < (d+1) * 10**f}.
+     */
+    private static BigInteger[] dexp(BigInteger c, long e, int p) {
+        int q = p + 2;
+        long extra = Math.max(0, e + digits(c) - 1);
+        long precision = q + extra;
+        // divide c * 10**e by log(10), rounding down
+        long shift = e + precision;
+        BigInteger cShift = shift >= 0 ? c.multiply(pow10(shift)) : floorDiv(c, pow10(-shift));
+        BigInteger[] qr = floorDivMod(cShift, log10Digits(precision));
+        BigInteger rem = divNearest(qr[1], pow10(extra));
+        return new BigInteger[]{divNearest(iexp(rem, pow10(q)), BigInteger.valueOf(1000)), qr[0].subtract(BigInteger.valueOf(q - 3))};
+    }
+
+    /**
+     * Approximates {@code 10**p * log(c * 10**e)} with an error of at most 1, where
+     * {@code c * 10**e} is positive and not 1.
+     */
+    private static BigInteger dlog(BigInteger c, long e, long places) {
+        long p = places + 2;
+        // write c * 10**e as d * 10**f with either f >= 0 and 1 <= d <= 10, or f <= 0 and
+        // 0.1 <= d <= 1
+        long l = digits(c);
+        long f = e + l - (e + l >= 1 ? 1 : 0);
+        BigInteger logD;
+        if (p > 0) {
+            long k = e + p - f;
+            BigInteger d = k >= 0 ? c.multiply(pow10(k)) : divNearest(c, pow10(-k));
+            logD = ilog(d, pow10(p));
+        } else {
+            logD = BigInteger.ZERO;
+        }
+        BigInteger fLogTen = BigInteger.ZERO;
+        if (f != 0) {
+            int extra = digits(f) - 1;
+            if (p + extra >= 0) {
+                fLogTen = divNearest(BigInteger.valueOf(f).multiply(log10Digits(p + extra)), pow10(extra));
+            }
+        }
+        return divNearest(fLogTen.add(logD), BigInteger.valueOf(100));
+    }
+
+    /**
+     * Approximates {@code 10**p * log10(c * 10**e)} with an error of at most 1, where
+     * {@code c * 10**e} is positive and not 1.
+     */
+    private static BigInteger dlog10(BigInteger c, long e, long places) {
+        long p = places + 2;
+        long l = digits(c);
+        long f = e + l - (e + l >= 1 ? 1 : 0);
+        BigInteger logD;
+        BigInteger logTenPower;
+        if (p > 0) {
+            BigInteger m = pow10(p);
+            long k = e + p - f;
+            BigInteger d = k >= 0 ? c.multiply(pow10(k)) : divNearest(c, pow10(-k));
+            logD = divNearest(ilog(d, m).multiply(m), log10Digits(p));
+            logTenPower = BigInteger.valueOf(f).multiply(m);
+        } else {
+            logD = BigInteger.ZERO;
+            logTenPower = divNearest(BigInteger.valueOf(f), pow10(-p));
+        }
+        return divNearest(logTenPower.add(logD), BigInteger.valueOf(100));
+    }
+
+    /**
+     * Approximates {@code x ** y} for {@code x = xc * 10**xe} and {@code y = yc * 10**ye} with
+     * {@code p} digits. Returns {@code {c, e}} with {@code 10**(p-1) <= c <= 10**p} and
+     * {@code (c-1) * 10**e < x**y < (c+1) * 10**e}. {@code x} is positive and not 1, {@code y} is
+     * nonzero.
+     */
+    private static BigInteger[] dpower(BigInteger xc, long xe, BigInteger yc, long ye, int p) {
+        // 10**(b-1) <= abs(y) <= 10**b
+        long b = digits(yc) + ye;
+        // log(x) = lxc * 10**(-p-b-1)
+        BigInteger lxc = dlog(xc, xe, p + b + 1);
+        // y * log(x) = pc * 10**(-p-1)
+        long shift = ye - b;
+        BigInteger pc = shift >= 0 ? lxc.multiply(yc).multiply(pow10(shift)) : divNearest(lxc.multiply(yc), pow10(-shift));
+        if (pc.signum() == 0) {
+            // prefer a result that is not exactly 1, which makes the rounding easier
+            if ((digits(xc) + xe >= 1) == (yc.signum() > 0)) {
+                return new BigInteger[]{pow10(p - 1).add(BigInteger.ONE), BigInteger.valueOf(1 - p)};
+            }
+            return new BigInteger[]{pow10(p).subtract(BigInteger.ONE), BigInteger.valueOf(-p)};
+        }
+        BigInteger[] ce = dexp(pc, -(p + 1), p + 1);
+        return new BigInteger[]{divNearest(ce[0], BigInteger.TEN), ce[1].add(BigInteger.ONE)};
+    }
+
+    /**
+     * A lower bound for the adjusted exponent of {@code log10(x)} of a positive {@code x} that is
+     * not 1.
+     */
+    private static long log10ExpBound(BigDecimal x) {
+        long adjusted = (long) x.precision() - x.scale() - 1;
+        if (adjusted >= 1) {
+            return digits(adjusted) - 1;
+        } else if (adjusted <= -2) {
+            return digits(-1 - adjusted) - 1;
+        }
+        BigInteger c = x.unscaledValue();
+        // 1 - 1/x <= log(x) <= x - 1 for 0.1 <= x <= 10
+        if (adjusted == 0) {
+            String num = c.subtract(pow10(x.scale())).toString();
+            String den = c.multiply(BigInteger.valueOf(231)).toString();
+            return num.length() - den.length() - (num.compareTo(den) < 0 ? 1 : 0) + 2;
+        }
+        String num = pow10(x.scale()).subtract(c).toString();
+        return num.length() - x.scale() - (num.compareTo("231") < 0 ? 1 : 0) - 1;
+    }
+
+    /**
+     * A lower bound for the adjusted exponent of {@code ln(x)} of a positive {@code x} that is not
+     * 1.
+     */
+    private static long lnExpBound(BigDecimal x) {
+        long adjusted = (long) x.precision() - x.scale() - 1;
+        if (adjusted >= 1) {
+            // 2.3 is a lower bound for log(10)
+            return digits(adjusted * 23 / 10) - 1;
+        } else if (adjusted <= -2) {
+            return digits((-1 - adjusted) * 23 / 10) - 1;
+        }
+        BigInteger c = x.unscaledValue();
+        if (adjusted == 0) {
+            String num = c.subtract(pow10(x.scale())).toString();
+            String den = c.toString();
+            return num.length() - den.length() - (num.compareTo(den) < 0 ? 1 : 0);
+        }
+        return -x.scale() + digits(pow10(x.scale()).subtract(c)) - 1;
+    }
+}
@@ -0,0 +1,1167 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.addStatus;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.getCurrentContext;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.FLOAT_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_CEILING;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_DOWN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_FLOOR;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_EVEN;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ABS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__BOOL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CEIL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__COMPLEX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOOR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEG__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__POS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__POW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RDIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RFLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ROUND__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RPOW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RSUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RTRUEDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__TRUEDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__TRUNC__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins.RoundingArgNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ContextArgNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.complex.PComplex;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDecimal)
+public class DecimalBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalBuiltinsFactory.getFactories();
+    }
+
+    @TruffleBoundary
+    static Object toPythonInt(PythonObjectFactory factory, BigInteger value) {
+        if (value.bitLength() < Long.SIZE) {
+            return value.longValue();
+        }
+        return factory.createInt(value);
+    }
+
+    /**
+     * Rounds a value to an integer for {@code int()}, {@code math.floor} and friends.
+     */
+    static Object toInt(PythonObjectFactory factory, PRaiseNode raiseNode, PDecimal self, int rounding) {
+        if (self.isNaN()) {
+            throw raiseNode.raise(ValueError, "cannot convert NaN to integer");
+        } else if (self.isInfinite()) {
+            throw raiseNode.raise(OverflowError, "cannot convert Infinity to integer");
+        }
+        return toPythonInt(factory, DecimalArithmetic.toBigInteger(self, rounding));
+    }
+
+    @TruffleBoundary
+    static PDecimal withSign(PythonObjectFactory factory, PDecimal self, boolean negative) {
+        BigDecimal value = self.getValue();
+        if (self.isFinite() && negative != self.isNegative()) {
+            value = value.negate();
+        }
+        return factory.createDecimal(PythonBuiltinClassType.PDecimal, self.getKind(), negative, value);
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        String repr(PDecimal self) {
+            return PythonUtils.format("Decimal('%s')", DecimalArithmetic.toString(self, false, getCurrentContext(this).getCapitals() != 0));
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        String str(PDecimal self) {
+            return DecimalArithmetic.toString(self, false, getCurrentContext(this).getCapitals() != 0);
+        }
+    }
+
+    @Builtin(name = "to_eng_string", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class ToEngStringNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static String toEngString(PDecimal self, Object context,
+                        @Cached ContextArgNode contextArgNode) {
+            return DecimalArithmetic.toString(self, true, contextArgNode.execute(context).getCapitals() != 0);
+        }
+    }
+
+    @Builtin(name = __FORMAT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "format_spec", "override"})
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonTernaryBuiltinNode {
+        @Specialization(guards = "isNoValue(override)")
+        String formatFast(PDecimal self, String formatSpec, @SuppressWarnings("unused") PNone override) {
+            PDecimalContext context = getCurrentContext(this);
+            String result = DecimalArithmetic.format(self, formatSpec, context.getCapitals() != 0, context.getRounding());
+            return result != null ? result : callFallback(self, formatSpec, PNone.NO_VALUE);
+        }
+
+        @Specialization(replaces = "formatFast")
+        static String format(PDecimal self, Object formatSpec, Object override) {
+            return callFallback(self, formatSpec, override);
+        }
+
+        /**
+         * Delegates the locale specific specs and the error reporting of invalid specs to
+         * {@code _pydecimal}, which implements the same format language.
+         */
+        @TruffleBoundary
+        private static String callFallback(PDecimal self, Object formatSpec, Object override) {
+            Object fallback = DecimalNodes.getModuleAttribute(null, "_format_fallback");
+            Object[] args = override == PNone.NO_VALUE ? new Object[]{self, formatSpec} : new Object[]{self, formatSpec, override};
+            return (String) CallNode.getUncached().execute(fallback, args);
+        }
+    }
+
+    @Builtin(name = __BOOL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class BoolNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean bool(PDecimal self) {
+            return !self.isZero();
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        long hash(PDecimal self) {
+            if (self.getKind() == PDecimal.SNAN) {
+                throw raise(TypeError, "Cannot hash a signaling NaN value");
+            }
+            return DecimalArithmetic.hash(self);
+        }
+    }
+
+    @Builtin(name = __INT__, minNumOfPositionalArgs = 1)
+    @Builtin(name = __TRUNC__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IntNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object toInt(PDecimal self) {
+            return DecimalBuiltins.toInt(factory(), getRaiseNode(), self, ROUND_DOWN);
+        }
+    }
+
+    @Builtin(name = __FLOOR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FloorNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object floor(PDecimal self) {
+            return toInt(factory(), getRaiseNode(), self, ROUND_FLOOR);
+        }
+    }
+
+    @Builtin(name = __CEIL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CeilNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object ceil(PDecimal self) {
+            return toInt(factory(), getRaiseNode(), self, ROUND_CEILING);
+        }
+    }
+
+    @Builtin(name = __ROUND__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "ndigits"})
+    @GenerateNodeFactory
+    abstract static class RoundNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(ndigits) || isNone(ndigits)")
+        Object roundToInt(PDecimal self, @SuppressWarnings("unused") PNone ndigits) {
+            return toInt(factory(), getRaiseNode(), self, ROUND_HALF_EVEN);
+        }
+
+        @Specialization(guards = "!isPNone(ndigits)")
+        Object roundToExponent(VirtualFrame frame, PDecimal self, Object ndigits,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached PyLongAsLongNode asLongNode) {
+            if (!longCheckNode.execute(ndigits)) {
+                throw raise(TypeError, "optional arg must be an integer");
+            }
+            long n = asLongNode.execute(frame, ndigits);
+            PDecimal exp = factory().createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.FINITE, false, scaled(n));
+            PDecimalContext context = getCurrentContext(this);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), context);
+            PDecimal result = arithmetic.quantize(self, exp, context.getRounding());
+            addStatus(this, context, arithmetic.status);
+            return result;
+        }
+
+        @TruffleBoundary
+        private static BigDecimal scaled(long n) {
+            // exponents beyond the int range are out of range for every context
+            return BigDecimal.valueOf(1, (int) Math.max(Math.min(n, Integer.MAX_VALUE), Integer.MIN_VALUE + 1));
+        }
+    }
+
+    @Builtin(name = __FLOAT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FloatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        double toFloat(PDecimal self) {
+            return toDouble(getRaiseNode(), self);
+        }
+
+        static double toDouble(PRaiseNode raiseNode, PDecimal self) {
+            if (self.isNaN()) {
+                if (self.getKind() == PDecimal.SNAN) {
+                    throw raiseNode.raise(ValueError, "cannot convert signaling NaN to float");
+                }
+                return self.isNegative() ? -Double.NaN : Double.NaN;
+            } else if (self.isInfinite()) {
+                return self.isNegative() ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            }
+            return DecimalArithmetic.toDouble(self);
+        }
+    }
+
+    @Builtin(name = __COMPLEX__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ComplexNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PComplex toComplex(PDecimal self) {
+            return factory().createComplex(FloatNode.toDouble(getRaiseNode(), self), 0.0);
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDecimal self) {
+            String str = DecimalArithmetic.toString(self, false, true);
+            return factory().createTuple(new Object[]{self.getInitialPythonClass(), factory().createTuple(new Object[]{str})});
+        }
+    }
+
+    @Builtin(name = __COPY__, minNumOfPositionalArgs = 1)
+    @Builtin(name = "canonical", minNumOfPositionalArgs = 1)
+    @Builtin(name = "conjugate", minNumOfPositionalArgs = 1)
+    @Builtin(name = "real", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SelfNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PDecimal self(PDecimal self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "__deepcopy__", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PDecimal deepcopy(PDecimal self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "imag", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ImagNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal imag(@SuppressWarnings("unused") PDecimal self) {
+            return DecimalNodes.fromLong(factory(), 0);
+        }
+    }
+
+    @Builtin(name = "radix", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class RadixNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal radix(@SuppressWarnings("unused") PDecimal self) {
+            return DecimalNodes.fromLong(factory(), 10);
+        }
+    }
+
+    @Builtin(name = "adjusted", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AdjustedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long adjusted(PDecimal self) {
+            return self.adjusted();
+        }
+    }
+
+    @Builtin(name = "as_tuple", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AsTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object asTuple(VirtualFrame frame, PDecimal self,
+                        @Cached CallNode callNode) {
+            Object exponent;
+            if (self.isInfinite()) {
+                exponent = "F";
+            } else if (self.isNaN()) {
+                exponent = self.getKind() == PDecimal.SNAN ? "N" : "n";
+            } else {
+                exponent = self.getExponent();
+            }
+            PTuple digits = factory().createTuple(digits(self));
+            return callNode.execute(frame, DecimalNodes.getModuleAttribute(this, "DecimalTuple"), self.isNegative() ? 1 : 0, digits, exponent);
+        }
+
+        @TruffleBoundary
+        private static Object[] digits(PDecimal self) {
+            if (self.isInfinite()) {
+                return new Object[]{0};
+            } else if (self.isNaN() && self.getValue().signum() == 0) {
+                return PythonUtils.EMPTY_OBJECT_ARRAY;
+            }
+            String str = self.getValue().unscaledValue().abs().toString();
+            Object[] digits = new Object[str.length()];
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = str.charAt(i) - '0';
+            }
+            return digits;
+        }
+    }
+
+    @Builtin(name = "as_integer_ratio", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AsIntegerRatioNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple asIntegerRatio(PDecimal self) {
+            if (self.isNaN()) {
+                throw raise(ValueError, "cannot convert NaN to integer ratio");
+            } else if (self.isInfinite()) {
+                throw raise(OverflowError, "cannot convert Infinity to integer ratio");
+            }
+            BigInteger[] ratio = DecimalArithmetic.asIntegerRatio(self);
+            return factory().createTuple(new Object[]{toPythonInt(factory(), ratio[0]), toPythonInt(factory(), ratio[1])});
+        }
+    }
+
+    @Builtin(name = "from_float", minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class FromFloatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromFloat(VirtualFrame frame, Object cls, Object value,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached ConvertNode convertNode,
+                        @Cached PyFloatAsDoubleNode asDoubleNode,
+                        @Cached IsBuiltinClassProfile isBuiltinProfile,
+                        @Cached CallNode callNode) {
+            PDecimal result;
+            if (value instanceof Double || value instanceof PFloat) {
+                result = DecimalNodes.fromDouble(factory(), asDoubleNode.execute(frame, value));
+            } else if (longCheckNode.execute(value)) {
+                result = (PDecimal) convertNode.execute(value, true);
+            } else {
+                throw raise(TypeError, "argument must be int or float");
+            }
+            if (isBuiltinProfile.profileClass(cls, PythonBuiltinClassType.PDecimal)) {
+                return result;
+            }
+            return callNode.execute(frame, cls, result);
+        }
+    }
+
+    // predicates
+
+    @Builtin(name = "is_canonical", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsCanonicalNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isCanonical(@SuppressWarnings("unused") PDecimal self) {
+            return true;
+        }
+    }
+
+    @Builtin(name = "is_finite", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsFiniteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isFinite(PDecimal self) {
+            return self.isFinite();
+        }
+    }
+
+    @Builtin(name = "is_infinite", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsInfiniteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isInfinite(PDecimal self) {
+            return self.isInfinite();
+        }
+    }
+
+    @Builtin(name = "is_nan", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsNaNNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isNaN(PDecimal self) {
+            return self.isNaN();
+        }
+    }
+
+    @Builtin(name = "is_qnan", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsQNaNNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isQNaN(PDecimal self) {
+            return self.getKind() == PDecimal.QNAN;
+        }
+    }
+
+    @Builtin(name = "is_snan", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsSNaNNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isSNaN(PDecimal self) {
+            return self.getKind() == PDecimal.SNAN;
+        }
+    }
+
+    @Builtin(name = "is_signed", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsSignedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isSigned(PDecimal self) {
+            return self.isNegative();
+        }
+    }
+
+    @Builtin(name = "is_zero", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsZeroNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isZero(PDecimal self) {
+            return self.isZero();
+        }
+    }
+
+    @Builtin(name = "is_normal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class IsNormalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean isNormal(PDecimal self, Object context,
+                        @Cached ContextArgNode contextArgNode) {
+            PDecimalContext ctx = contextArgNode.execute(context);
+            return self.isFinite() && !self.isZero() && self.adjusted() >= ctx.getEmin();
+        }
+    }
+
+    @Builtin(name = "is_subnormal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class IsSubnormalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean isSubnormal(PDecimal self, Object context,
+                        @Cached ContextArgNode contextArgNode) {
+            PDecimalContext ctx = contextArgNode.execute(context);
+            return self.isFinite() && !self.isZero() && self.adjusted() < ctx.getEmin();
+        }
+    }
+
+    @Builtin(name = "same_quantum", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class SameQuantumNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static boolean sameQuantum(PDecimal self, Object other, Object context,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached ConvertNode convertNode) {
+            contextArgNode.execute(context);
+            return sameQuantum(self, (PDecimal) convertNode.execute(other, true));
+        }
+
+        static boolean sameQuantum(PDecimal a, PDecimal b) {
+            if (a.isSpecial() || b.isSpecial()) {
+                return a.isNaN() && b.isNaN() || a.isInfinite() && b.isInfinite();
+            }
+            return a.getExponent() == b.getExponent();
+        }
+    }
+
+    // sign operations, which are quiet and exact
+
+    @Builtin(name = "copy_abs", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyAbsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal copyAbs(PDecimal self) {
+            return withSign(factory(), self, false);
+        }
+    }
+
+    @Builtin(name = "copy_negate", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNegateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal copyNegate(PDecimal self) {
+            return withSign(factory(), self, !self.isNegative());
+        }
+    }
+
+    @Builtin(name = "copy_sign", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class CopySignNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDecimal copySign(PDecimal self, Object other, Object context,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached ConvertNode convertNode) {
+            contextArgNode.execute(context);
+            return withSign(factory(), self, ((PDecimal) convertNode.execute(other, true)).isNegative());
+        }
+    }
+
+    // arithmetic in the current context
+
+    abstract static class UnaryArithmeticNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal doIt(PDecimal self) {
+            PDecimalContext context = getCurrentContext(this);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), context);
+            PDecimal result = op(arithmetic, self);
+            addStatus(this, context, arithmetic.status);
+            return result;
+        }
+
+        protected abstract PDecimal op(DecimalArithmetic arithmetic, PDecimal self);
+    }
+
+    @Builtin(name = __NEG__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NegNode extends UnaryArithmeticNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.minus(self);
+        }
+    }
+
+    @Builtin(name = __POS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class PosNode extends UnaryArithmeticNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.plus(self);
+        }
+    }
+
+    @Builtin(name = __ABS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends UnaryArithmeticNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.abs(self);
+        }
+    }
+
+    /**
+     * The binary operators, which accept decimals and integers on either side.
+     */
+    abstract static class BinaryArithmeticNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object doIt(Object left, Object right,
+                        @Cached ConvertNode convertLeft,
+                        @Cached ConvertNode convertRight) {
+            Object a = convertLeft.execute(left, false);
+            Object b = convertRight.execute(right, false);
+            if (a == PNotImplemented.NOT_IMPLEMENTED || b == PNotImplemented.NOT_IMPLEMENTED) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            PDecimalContext context = getCurrentContext(this);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), context);
+            Object result = op(arithmetic, (PDecimal) a, (PDecimal) b);
+            addStatus(this, context, arithmetic.status);
+            return result;
+        }
+
+        protected abstract Object op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b);
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class AddNode extends BinaryArithmeticNode {
+        @Override
+        protected Object op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.add(a, b);
+        }
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RSUB__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class SubNode extends BinaryArithmeticNode {
+        @Override
+        protected Object op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.subtract(a, b);
+        }
+    }
+
+    @Builtin(name = __MUL__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RMUL__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class MulNode extends BinaryArithmeticNode {
+        @Override
+        protected Object op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.multiply(a, b);
+        }
+    }
+
+    @Builtin(name = __TRUEDIV__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RTRUEDIV__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class TrueDivNode extends BinaryArithmeticNode {
+        @Override
+        protected Object op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.divide(a, b);
+        }
+    }
+
+    @Builtin(name = __FLOORDIV__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RFLOORDIV__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class FloorDivNode extends BinaryArithmeticNode {
+        @Override
+        protected Object op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.divideInt(a, b);
+        }
+    }
+
+    @Builtin(name = __MOD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RMOD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class ModNode extends BinaryArithmeticNode {
+        @Override
+        protected Object op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.remainder(a, b);
+        }
+    }
+
+    @Builtin(name = __DIVMOD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RDIVMOD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends BinaryArithmeticNode {
+        @Override
+        protected Object op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return factory().createTuple(arithmetic.divmod(a, b));
+        }
+    }
+
+    @Builtin(name = __POW__, minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3)
+    @Builtin(name = __RPOW__, minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3, reverseOperation = true)
+    @GenerateNodeFactory
+    abstract static class PowNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object pow(Object left, Object right, Object mod,
+                        @Cached ConvertNode convertLeft,
+                        @Cached ConvertNode convertRight,
+                        @Cached ConvertNode convertMod) {
+            Object a = convertLeft.execute(left, false);
+            Object b = convertRight.execute(right, false);
+            Object c = PGuards.isPNone(mod) ? PNone.NONE : convertMod.execute(mod, false);
+            if (a == PNotImplemented.NOT_IMPLEMENTED || b == PNotImplemented.NOT_IMPLEMENTED || c == PNotImplemented.NOT_IMPLEMENTED) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            PDecimalContext context = getCurrentContext(this);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), context);
+            PDecimal result = c == PNone.NONE ? arithmetic.power((PDecimal) a, (PDecimal) b) : arithmetic.power((PDecimal) a, (PDecimal) b, (PDecimal) c);
+            addStatus(this, context, arithmetic.status);
+            return result;
+        }
+    }
+
+    // comparisons
+
+    /**
+     * The rich comparisons, like {@code dec_richcompare}. Floats and rationals are compared
+     * exactly, complex numbers only for equality.
+     */
+    abstract static class RichCompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object doIt(VirtualFrame frame, PDecimal self, Object other,
+                        @Cached ConvertNode convertNode,
+                        @Cached PyFloatAsDoubleNode asDoubleNode) {
+            PDecimalContext context = getCurrentContext(this);
+            Object converted = convertNode.execute(other, false);
+            PDecimal a = self;
+            PDecimal b;
+            if (converted != PNotImplemented.NOT_IMPLEMENTED) {
+                b = (PDecimal) converted;
+            } else if (other instanceof Double || other instanceof PFloat) {
+                b = DecimalNodes.fromDouble(factory(), asDoubleNode.execute(frame, other));
+                floatOperation(context);
+            } else if (isEquality() && other instanceof PComplex) {
+                PComplex c = (PComplex) other;
+                if (c.getImag() != 0.0) {
+                    return PNotImplemented.NOT_IMPLEMENTED;
+                }
+                b = DecimalNodes.fromDouble(factory(), c.getReal());
+                floatOperation(context);
+            } else {
+                Object[] pair = rationalAsPair(other);
+                if (pair == null) {
+                    return PNotImplemented.NOT_IMPLEMENTED;
+                }
+                a = multiplyExact(factory(), self, (PDecimal) convertNode.execute(pair[1], true));
+                b = (PDecimal) convertNode.execute(pair[0], true);
+            }
+            if (a.isNaN() || b.isNaN()) {
+                if (!isEquality() || a.getKind() == PDecimal.SNAN || b.getKind() == PDecimal.SNAN) {
+                    addStatus(this, context, INVALID_OPERATION);
+                }
+                return nanResult();
+            }
+            return cmp(DecimalArithmetic.compare(a, b));
+        }
+
+        private void floatOperation(PDecimalContext context) {
+            if (isEquality()) {
+                // equality comparisons only set the flag and never raise
+                context.setFlags(context.getFlags() | FLOAT_OPERATION);
+            } else {
+                addStatus(this, context, FLOAT_OPERATION);
+            }
+        }
+
+        @TruffleBoundary
+        private static PDecimal multiplyExact(PythonObjectFactory factory, PDecimal a, PDecimal denominator) {
+            if (!a.isFinite()) {
+                return a;
+            }
+            return factory.createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.FINITE, a.isNegative(), a.getValue().multiply(denominator.getValue()));
+        }
+
+        /**
+         * Returns {@code (numerator, denominator)} if {@code other} is a {@code numbers.Rational}
+         * and {@code null} otherwise.
+         */
+        @TruffleBoundary
+        private Object[] rationalAsPair(Object other) {
+            Object pair = CallNode.getUncached().execute(DecimalNodes.getModuleAttribute(this, "_rational_as_pair"), other);
+            if (pair instanceof PTuple) {
+                return ((PTuple) pair).getSequenceStorage().getInternalArray();
+            }
+            return null;
+        }
+
+        @Fallback
+        static Object notImplemented(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        protected boolean isEquality() {
+            return false;
+        }
+
+        protected boolean nanResult() {
+            return false;
+        }
+
+        protected abstract boolean cmp(int diff);
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends RichCompareNode {
+        @Override
+        protected boolean isEquality() {
+            return true;
+        }
+
+        @Override
+        protected boolean cmp(int diff) {
+            return diff == 0;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends RichCompareNode {
+        @Override
+        protected boolean isEquality() {
+            return true;
+        }
+
+        @Override
+        protected boolean nanResult() {
+            return true;
+        }
+
+        @Override
+        protected boolean cmp(int diff) {
+            return diff != 0;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends RichCompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends RichCompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends RichCompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends RichCompareNode {
+        @Override
+        protected boolean cmp(int diff) {
+            return diff >= 0;
+        }
+    }
+
+    // methods with an optional context
+
+    abstract static class UnaryContextMethodNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PDecimal doIt(PDecimal self, Object context,
+                        @Cached ContextArgNode contextArgNode) {
+            PDecimalContext ctx = contextArgNode.execute(context);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), ctx);
+            PDecimal result = op(arithmetic, self);
+            addStatus(this, ctx, arithmetic.status);
+            return result;
+        }
+
+        protected abstract PDecimal op(DecimalArithmetic arithmetic, PDecimal self);
+    }
+
+    @Builtin(name = "normalize", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class NormalizeNode extends UnaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.normalize(self);
+        }
+    }
+
+    @Builtin(name = "sqrt", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class SqrtNode extends UnaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.sqrt(self);
+        }
+    }
+
+    @Builtin(name = "exp", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class ExpNode extends UnaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.exp(self);
+        }
+    }
+
+    @Builtin(name = "ln", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class LnNode extends UnaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.ln(self);
+        }
+    }
+
+    @Builtin(name = "log10", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class Log10Node extends UnaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.log10(self);
+        }
+    }
+
+    @Builtin(name = "logb", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class LogbNode extends UnaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal self) {
+            return arithmetic.logb(self);
+        }
+    }
+
+    @Builtin(name = "number_class", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class NumberClassNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        String numberClass(PDecimal self, Object context,
+                        @Cached ContextArgNode contextArgNode) {
+            return new DecimalArithmetic(factory(), contextArgNode.execute(context)).numberClass(self);
+        }
+    }
+
+    abstract static class BinaryContextMethodNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDecimal doIt(PDecimal self, Object other, Object context,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached ConvertNode convertNode) {
+            PDecimalContext ctx = contextArgNode.execute(context);
+            PDecimal b = (PDecimal) convertNode.execute(other, true);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), ctx);
+            PDecimal result = op(arithmetic, self, b);
+            addStatus(this, ctx, arithmetic.status);
+            return result;
+        }
+
+        protected abstract PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b);
+    }
+
+    @Builtin(name = "compare", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class CompareNode extends BinaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.compareValues(a, b);
+        }
+    }
+
+    @Builtin(name = "compare_signal", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class CompareSignalNode extends BinaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.compareSignal(a, b);
+        }
+    }
+
+    @Builtin(name = "max", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class MaxNode extends BinaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.max(a, b);
+        }
+    }
+
+    @Builtin(name = "min", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class MinNode extends BinaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.min(a, b);
+        }
+    }
+
+    @Builtin(name = "max_mag", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class MaxMagNode extends BinaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.maxMag(a, b);
+        }
+    }
+
+    @Builtin(name = "min_mag", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class MinMagNode extends BinaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.minMag(a, b);
+        }
+    }
+
+    @Builtin(name = "remainder_near", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class RemainderNearNode extends BinaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.remainderNear(a, b);
+        }
+    }
+
+    @Builtin(name = "scaleb", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class ScalebNode extends BinaryContextMethodNode {
+        @Override
+        protected PDecimal op(DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.scaleb(a, b);
+        }
+    }
+
+    @Builtin(name = "fma", minNumOfPositionalArgs = 3, parameterNames = {"$self", "other", "third", "context"})
+    @GenerateNodeFactory
+    abstract static class FmaNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDecimal fma(PDecimal self, Object other, Object third, Object context,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached ConvertNode convertOther,
+                        @Cached ConvertNode convertThird) {
+            PDecimalContext ctx = contextArgNode.execute(context);
+            PDecimal b = (PDecimal) convertOther.execute(other, true);
+            PDecimal c = (PDecimal) convertThird.execute(third, true);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), ctx);
+            PDecimal result = arithmetic.fma(self, b, c);
+            addStatus(this, ctx, arithmetic.status);
+            return result;
+        }
+    }
+
+    @Builtin(name = "quantize", minNumOfPositionalArgs = 2, parameterNames = {"$self", "exp", "rounding", "context"})
+    @GenerateNodeFactory
+    abstract static class QuantizeNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDecimal quantize(PDecimal self, Object exp, Object rounding, Object context,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached RoundingArgNode roundingArgNode,
+                        @Cached ConvertNode convertNode) {
+            PDecimalContext ctx = contextArgNode.execute(context);
+            int r = PGuards.isPNone(rounding) ? ctx.getRounding() : roundingArgNode.execute(rounding);
+            PDecimal e = (PDecimal) convertNode.execute(exp, true);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), ctx);
+            PDecimal result = arithmetic.quantize(self, e, r);
+            addStatus(this, ctx, arithmetic.status);
+            return result;
+        }
+    }
+
+    @Builtin(name = "to_integral", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"})
+    @Builtin(name = "to_integral_value", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"})
+    @GenerateNodeFactory
+    abstract static class ToIntegralValueNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDecimal toIntegral(PDecimal self, Object rounding, Object context,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached RoundingArgNode roundingArgNode) {
+            return doToIntegral(this, factory(), self, rounding, context, contextArgNode, roundingArgNode, false);
+        }
+
+        static PDecimal doToIntegral(PythonBuiltinNode node, PythonObjectFactory factory, PDecimal self, Object rounding, Object context, ContextArgNode contextArgNode,
+                        RoundingArgNode roundingArgNode, boolean exact) {
+            PDecimalContext ctx = contextArgNode.execute(context);
+            int r = PGuards.isPNone(rounding) ? ctx.getRounding() : roundingArgNode.execute(rounding);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory, ctx);
+            PDecimal result = arithmetic.toIntegral(self, r, exact);
+            addStatus(node, ctx, arithmetic.status);
+            return result;
+        }
+    }
+
+    @Builtin(name = "to_integral_exact", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"})
+    @GenerateNodeFactory
+    abstract static class ToIntegralExactNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDecimal toIntegral(PDecimal self, Object rounding, Object context,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached RoundingArgNode roundingArgNode) {
+            return ToIntegralValueNode.doToIntegral(this, factory(), self, rounding, context, contextArgNode, roundingArgNode, true);
+        }
+    }
+}
@@ -0,0 +1,839 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.INVALID_ROUNDING;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.addStatus;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.signalsToBits;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MAX_EMAX;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MAX_PREC;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MIN_EMIN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUNDING_NAMES;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SIGNAL_FLAGS;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SIGNAL_NAMES;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.FromObjectNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDecimalContext)
+public class DecimalContextBuiltins extends PythonBuiltins {
+
+    /**
+     * The indices into {@link PDecimalContext#SIGNAL_NAMES} in the order of the condition bits,
+     * which is the order used by {@code repr()}.
+     */
+    private static final int[] REPR_ORDER = {8, 0, 2, 6, 1, 3, 7, 5, 4};
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalContextBuiltinsFactory.getFactories();
+    }
+
+    static void setPrec(PRaiseNode raiseNode, PDecimalContext context, long value) {
+        if (value < 1 || value > MAX_PREC) {
+            throw raiseNode.raise(ValueError, "valid range for prec is [1, MAX_PREC]");
+        }
+        context.setPrec((int) value);
+    }
+
+    static void setEmin(PRaiseNode raiseNode, PDecimalContext context, long value) {
+        if (value < MIN_EMIN || value > 0) {
+            throw raiseNode.raise(ValueError, "valid range for Emin is [MIN_EMIN, 0]");
+        }
+        context.setEmin((int) value);
+    }
+
+    static void setEmax(PRaiseNode raiseNode, PDecimalContext context, long value) {
+        if (value < 0 || value > MAX_EMAX) {
+            throw raiseNode.raise(ValueError, "valid range for Emax is [0, MAX_EMAX]");
+        }
+        context.setEmax((int) value);
+    }
+
+    static void setCapitals(PRaiseNode raiseNode, PDecimalContext context, long value) {
+        if (value != 0 && value != 1) {
+            throw raiseNode.raise(ValueError, "valid values for capitals are 0 or 1");
+        }
+        context.setCapitals((int) value);
+    }
+
+    static void setClamp(PRaiseNode raiseNode, PDecimalContext context, long value) {
+        if (value != 0 && value != 1) {
+            throw raiseNode.raise(ValueError, "valid values for clamp are 0 or 1");
+        }
+        context.setClamp((int) value);
+    }
+
+    /**
+     * Converts the name of a rounding mode to its index.
+     */
+    public abstract static class RoundingArgNode extends PNodeWithRaise {
+        public abstract int execute(Object rounding);
+
+        @Specialization
+        int doString(String rounding) {
+            int result = DecimalNodes.roundingFromString(rounding);
+            if (result < 0) {
+                throw raise(TypeError, INVALID_ROUNDING);
+            }
+            return result;
+        }
+
+        @Specialization(replaces = "doString")
+        int doGeneric(Object rounding,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (!unicodeCheckNode.execute(rounding)) {
+                throw raise(TypeError, INVALID_ROUNDING);
+            }
+            return doString(castToStringNode.execute(rounding));
+        }
+    }
+
+    /**
+     * The integer attributes of a context, which cannot be deleted.
+     */
+    abstract static class IntAttributeNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        int get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return getValue(self);
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, "context attributes cannot be deleted");
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongAsLongNode asLongNode) {
+            setValue(getRaiseNode(), self, asLongNode.execute(frame, value));
+            return PNone.NONE;
+        }
+
+        protected abstract int getValue(PDecimalContext self);
+
+        protected abstract void setValue(PRaiseNode raiseNode, PDecimalContext self, long value);
+    }
+
+    @Builtin(name = "prec", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class PrecNode extends IntAttributeNode {
+        @Override
+        protected int getValue(PDecimalContext self) {
+            return self.getPrec();
+        }
+
+        @Override
+        protected void setValue(PRaiseNode raiseNode, PDecimalContext self, long value) {
+            setPrec(raiseNode, self, value);
+        }
+    }
+
+    @Builtin(name = "Emin", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class EminNode extends IntAttributeNode {
+        @Override
+        protected int getValue(PDecimalContext self) {
+            return self.getEmin();
+        }
+
+        @Override
+        protected void setValue(PRaiseNode raiseNode, PDecimalContext self, long value) {
+            setEmin(raiseNode, self, value);
+        }
+    }
+
+    @Builtin(name = "Emax", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class EmaxNode extends IntAttributeNode {
+        @Override
+        protected int getValue(PDecimalContext self) {
+            return self.getEmax();
+        }
+
+        @Override
+        protected void setValue(PRaiseNode raiseNode, PDecimalContext self, long value) {
+            setEmax(raiseNode, self, value);
+        }
+    }
+
+    @Builtin(name = "capitals", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class CapitalsNode extends IntAttributeNode {
+        @Override
+        protected int getValue(PDecimalContext self) {
+            return self.getCapitals();
+        }
+
+        @Override
+        protected void setValue(PRaiseNode raiseNode, PDecimalContext self, long value) {
+            setCapitals(raiseNode, self, value);
+        }
+    }
+
+    @Builtin(name = "clamp", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class ClampNode extends IntAttributeNode {
+        @Override
+        protected int getValue(PDecimalContext self) {
+            return self.getClamp();
+        }
+
+        @Override
+        protected void setValue(PRaiseNode raiseNode, PDecimalContext self, long value) {
+            setClamp(raiseNode, self, value);
+        }
+    }
+
+    @Builtin(name = "rounding", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class RoundingNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static String get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            return ROUNDING_NAMES[self.getRounding()];
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, "context attributes cannot be deleted");
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        static Object set(PDecimalContext self, Object value,
+                        @Cached RoundingArgNode roundingArgNode) {
+            self.setRounding(roundingArgNode.execute(value));
+            return PNone.NONE;
+        }
+    }
+
+    /**
+     * The {@code flags} and {@code traps} attributes, which are live views of the bits in the
+     * context and can be replaced by another signal dict or a dict with all signals.
+     */
+    abstract static class SignalDictAttributeNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        PDecimalSignalDict get(PDecimalContext self, @SuppressWarnings("unused") PNone value) {
+            PDecimalSignalDict dict = isTraps() ? self.getTrapsDict() : self.getFlagsDict();
+            if (dict == null) {
+                dict = factory().createDecimalSignalDict(self, isTraps());
+                if (isTraps()) {
+                    self.setTrapsDict(dict);
+                } else {
+                    self.setFlagsDict(dict);
+                }
+            }
+            return dict;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, "context attributes cannot be deleted");
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        Object set(PDecimalContext self, Object value) {
+            int bits = signalsToBits(this, value, false);
+            if (isTraps()) {
+                self.setTraps(bits);
+            } else {
+                self.setFlags(bits);
+            }
+            return PNone.NONE;
+        }
+
+        protected abstract boolean isTraps();
+    }
+
+    @Builtin(name = "flags", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class FlagsNode extends SignalDictAttributeNode {
+        @Override
+        protected boolean isTraps() {
+            return false;
+        }
+    }
+
+    @Builtin(name = "traps", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class TrapsNode extends SignalDictAttributeNode {
+        @Override
+        protected boolean isTraps() {
+            return true;
+        }
+    }
+
+    @Builtin(name = "Etiny", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EtinyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int etiny(PDecimalContext self) {
+            return self.getEtiny();
+        }
+    }
+
+    @Builtin(name = "Etop", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EtopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int etop(PDecimalContext self) {
+            return self.getEtop();
+        }
+    }
+
+    @Builtin(name = "clear_flags", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ClearFlagsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object clear(PDecimalContext self) {
+            self.setFlags(0);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_traps", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ClearTrapsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object clear(PDecimalContext self) {
+            self.setTraps(0);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @Builtin(name = __COPY__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimalContext copy(PDecimalContext self) {
+            return DecimalNodes.copyContext(factory(), self.getInitialPythonClass(), self);
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple reduce(PDecimalContext self) {
+            Object[] args = {self.getPrec(), ROUNDING_NAMES[self.getRounding()], self.getEmin(), self.getEmax(), self.getCapitals(), self.getClamp(), signalsAsList(self.getFlags()),
+                            signalsAsList(self.getTraps())};
+            return factory().createTuple(new Object[]{self.getInitialPythonClass(), factory().createTuple(args)});
+        }
+
+        @TruffleBoundary
+        private Object signalsAsList(int bits) {
+            ArrayList<Object> list = new ArrayList<>();
+            for (int i = 0; i < SIGNAL_FLAGS.length; i++) {
+                if ((bits & SIGNAL_FLAGS[i]) != 0) {
+                    list.add(DecimalNodes.getModuleAttribute(this, SIGNAL_NAMES[i]));
+                }
+            }
+            return factory().createList(list.toArray());
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        static String repr(PDecimalContext self) {
+            StringBuilder sb = new StringBuilder("Context(prec=");
+            sb.append(self.getPrec()).append(", rounding=").append(ROUNDING_NAMES[self.getRounding()]);
+            sb.append(", Emin=").append(self.getEmin()).append(", Emax=").append(self.getEmax());
+            sb.append(", capitals=").append(self.getCapitals()).append(", clamp=").append(self.getClamp());
+            sb.append(", flags=");
+            appendSignals(sb, self.getFlags());
+            sb.append(", traps=");
+            appendSignals(sb, self.getTraps());
+            return sb.append(')').toString();
+        }
+
+        private static void appendSignals(StringBuilder sb, int bits) {
+            sb.append('[');
+            boolean first = true;
+            for (int i : REPR_ORDER) {
+                if ((bits & SIGNAL_FLAGS[i]) != 0) {
+                    if (!first) {
+                        sb.append(", ");
+                    }
+                    sb.append(SIGNAL_NAMES[i]);
+                    first = false;
+                }
+            }
+            sb.append(']');
+        }
+    }
+
+    @Builtin(name = "create_decimal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "num"})
+    @GenerateNodeFactory
+    abstract static class CreateDecimalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PDecimal create(PDecimalContext self, Object num,
+                        @Cached FromObjectNode fromObjectNode) {
+            PDecimal value = fromObjectNode.execute(num == PNone.NO_VALUE ? "0" : num, self, true);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), self);
+            PDecimal result = arithmetic.fix(value);
+            addStatus(this, self, arithmetic.status);
+            return result;
+        }
+    }
+
+    @Builtin(name = "create_decimal_from_float", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class CreateDecimalFromFloatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PDecimal create(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached ConvertNode convertNode,
+                        @Cached PyFloatAsDoubleNode asDoubleNode) {
+            PDecimal exact;
+            if (value instanceof Double || value instanceof PFloat) {
+                exact = DecimalNodes.fromDouble(factory(), asDoubleNode.execute(frame, value));
+            } else if (longCheckNode.execute(value)) {
+                exact = (PDecimal) convertNode.execute(value, true);
+            } else {
+                throw raise(TypeError, "argument must be int or float");
+            }
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), self);
+            PDecimal result = arithmetic.fix(exact);
+            addStatus(this, self, arithmetic.status);
+            return result;
+        }
+    }
+
+    // arithmetic, the operands are converted like for the methods of Decimal
+
+    abstract static class ContextUnaryNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object doIt(PDecimalContext self, Object a,
+                        @Cached ConvertNode convertNode) {
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), self);
+            Object result = op(self, arithmetic, (PDecimal) convertNode.execute(a, true));
+            addStatus(this, self, arithmetic.status);
+            return result;
+        }
+
+        protected abstract Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a);
+    }
+
+    @Builtin(name = "_apply", minNumOfPositionalArgs = 2)
+    @Builtin(name = "apply", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ApplyNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.apply(a);
+        }
+    }
+
+    @Builtin(name = "abs", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.abs(a);
+        }
+    }
+
+    @Builtin(name = "plus", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class PlusNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.plus(a);
+        }
+    }
+
+    @Builtin(name = "minus", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class MinusNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.minus(a);
+        }
+    }
+
+    @Builtin(name = "normalize", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NormalizeNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.normalize(a);
+        }
+    }
+
+    @Builtin(name = "to_integral", minNumOfPositionalArgs = 2)
+    @Builtin(name = "to_integral_value", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ToIntegralValueNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.toIntegral(a, context.getRounding(), false);
+        }
+    }
+
+    @Builtin(name = "to_integral_exact", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ToIntegralExactNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.toIntegral(a, context.getRounding(), true);
+        }
+    }
+
+    @Builtin(name = "to_sci_string", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ToSciStringNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return DecimalArithmetic.toString(a, false, context.getCapitals() != 0);
+        }
+    }
+
+    @Builtin(name = "to_eng_string", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ToEngStringNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return DecimalArithmetic.toString(a, true, context.getCapitals() != 0);
+        }
+    }
+
+    @Builtin(name = "sqrt", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SqrtNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.sqrt(a);
+        }
+    }
+
+    @Builtin(name = "exp", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ExpNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.exp(a);
+        }
+    }
+
+    @Builtin(name = "ln", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LnNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.ln(a);
+        }
+    }
+
+    @Builtin(name = "log10", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class Log10Node extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.log10(a);
+        }
+    }
+
+    @Builtin(name = "logb", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LogbNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.logb(a);
+        }
+    }
+
+    @Builtin(name = "number_class", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NumberClassNode extends ContextUnaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a) {
+            return arithmetic.numberClass(a);
+        }
+    }
+
+    abstract static class ContextBinaryNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object doIt(PDecimalContext self, Object a, Object b,
+                        @Cached ConvertNode convertLeft,
+                        @Cached ConvertNode convertRight) {
+            PDecimal left = (PDecimal) convertLeft.execute(a, true);
+            PDecimal right = (PDecimal) convertRight.execute(b, true);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), self);
+            Object result = op(self, arithmetic, left, right);
+            addStatus(this, self, arithmetic.status);
+            return result;
+        }
+
+        protected abstract Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b);
+    }
+
+    @Builtin(name = "add", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class AddNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.add(a, b);
+        }
+    }
+
+    @Builtin(name = "subtract", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class SubtractNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.subtract(a, b);
+        }
+    }
+
+    @Builtin(name = "multiply", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MultiplyNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.multiply(a, b);
+        }
+    }
+
+    @Builtin(name = "divide", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class DivideNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.divide(a, b);
+        }
+    }
+
+    @Builtin(name = "divide_int", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class DivideIntNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.divideInt(a, b);
+        }
+    }
+
+    @Builtin(name = "remainder", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class RemainderNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.remainder(a, b);
+        }
+    }
+
+    @Builtin(name = "divmod", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return factory().createTuple(arithmetic.divmod(a, b));
+        }
+    }
+
+    @Builtin(name = "compare", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class CompareNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.compareValues(a, b);
+        }
+    }
+
+    @Builtin(name = "compare_signal", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class CompareSignalNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.compareSignal(a, b);
+        }
+    }
+
+    @Builtin(name = "max", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MaxNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.max(a, b);
+        }
+    }
+
+    @Builtin(name = "min", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MinNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.min(a, b);
+        }
+    }
+
+    @Builtin(name = "max_mag", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MaxMagNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.maxMag(a, b);
+        }
+    }
+
+    @Builtin(name = "min_mag", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MinMagNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.minMag(a, b);
+        }
+    }
+
+    @Builtin(name = "remainder_near", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class RemainderNearNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.remainderNear(a, b);
+        }
+    }
+
+    @Builtin(name = "scaleb", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class ScalebNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.scaleb(a, b);
+        }
+    }
+
+    @Builtin(name = "quantize", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class QuantizeNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return arithmetic.quantize(a, b, context.getRounding());
+        }
+    }
+
+    @Builtin(name = "same_quantum", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class SameQuantumNode extends ContextBinaryNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalArithmetic arithmetic, PDecimal a, PDecimal b) {
+            return DecimalBuiltins.SameQuantumNode.sameQuantum(a, b);
+        }
+    }
+
+    @Builtin(name = "power", minNumOfPositionalArgs = 3, parameterNames = {"$self", "a", "b", "modulo"})
+    @GenerateNodeFactory
+    abstract static class PowerNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDecimal power(PDecimalContext self, Object a, Object b, Object modulo,
+                        @Cached ConvertNode convertLeft,
+                        @Cached ConvertNode convertRight,
+                        @Cached ConvertNode convertModulo) {
+            PDecimal left = (PDecimal) convertLeft.execute(a, true);
+            PDecimal right = (PDecimal) convertRight.execute(b, true);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), self);
+            PDecimal result;
+            if (PGuards.isPNone(modulo)) {
+                result = arithmetic.power(left, right);
+            } else {
+                result = arithmetic.power(left, right, (PDecimal) convertModulo.execute(modulo, true));
+            }
+            addStatus(this, self, arithmetic.status);
+            return result;
+        }
+    }
+
+    @Builtin(name = "fma", minNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class FmaNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDecimal fma(PDecimalContext self, Object a, Object b, Object c,
+                        @Cached ConvertNode convertA,
+                        @Cached ConvertNode convertB,
+                        @Cached ConvertNode convertC) {
+            PDecimal x = (PDecimal) convertA.execute(a, true);
+            PDecimal y = (PDecimal) convertB.execute(b, true);
+            PDecimal z = (PDecimal) convertC.execute(c, true);
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory(), self);
+            PDecimal result = arithmetic.fma(x, y, z);
+            addStatus(this, self, arithmetic.status);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins.setCapitals;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins.setClamp;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins.setEmax;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins.setEmin;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins.setPrec;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.getCurrentContext;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.setCurrentContext;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.signalsToBits;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CLAMPED;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.DIVISION_BY_ZERO;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.IEEE_INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MAX_EMAX;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MAX_PREC;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MIN_EMIN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.MIN_ETINY;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.OVERFLOW;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUNDING_NAMES;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_EVEN;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.ROUND_HALF_UP;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.UNDERFLOW;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins.RoundingArgNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ContextArgNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.FromObjectNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * The {@code _decimal} accelerator module. Like in CPython, {@code decimal.py} re-exports this
+ * module if it can be imported. The signal classes and the rarely used operations that delegate to
+ * {@code _pydecimal} are defined by the core file {@code _decimal.py}.
+ */
+@CoreFunctions(defineModule = DecimalNodes.MODULE_NAME)
+public class DecimalModuleBuiltins extends PythonBuiltins {
+
+    /**
+     * The template for the contexts of new threads, exposed as {@code DefaultContext}.
+     */
+    private PDecimalContext defaultContext;
+    private PDecimalContext basicContext;
+    private PDecimalContext extendedContext;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        builtinConstants.put(SpecialAttributeNames.__DOC__, "C decimal arithmetic module");
+        builtinConstants.put("__version__", "1.70");
+        builtinConstants.put("__libmpdec_version__", "2.4.2");
+        for (String rounding : ROUNDING_NAMES) {
+            builtinConstants.put(rounding, rounding);
+        }
+        builtinConstants.put("MAX_PREC", MAX_PREC);
+        builtinConstants.put("MAX_EMAX", MAX_EMAX);
+        builtinConstants.put("MIN_EMIN", MIN_EMIN);
+        builtinConstants.put("MIN_ETINY", MIN_ETINY);
+        builtinConstants.put("HAVE_THREADS", true);
+        builtinConstants.put("HAVE_CONTEXTVAR", true);
+        super.initialize(core);
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        super.postInitialize(core);
+        PythonObjectFactory factory = core.factory();
+        PythonModule module = core.lookupBuiltinModule(DecimalNodes.MODULE_NAME);
+        int defaultTraps = IEEE_INVALID_OPERATION | DIVISION_BY_ZERO | OVERFLOW;
+        defaultContext = factory.createDecimalContext(PythonBuiltinClassType.PDecimalContext, 28, ROUND_HALF_EVEN, -999999, 999999, 1, 0, 0, defaultTraps);
+        basicContext = factory.createDecimalContext(PythonBuiltinClassType.PDecimalContext, 9, ROUND_HALF_UP, -999999, 999999, 1, 0, 0, defaultTraps | CLAMPED | UNDERFLOW);
+        extendedContext = factory.createDecimalContext(PythonBuiltinClassType.PDecimalContext, 9, ROUND_HALF_EVEN, -999999, 999999, 1, 0, 0, 0);
+        module.setAttribute("DefaultContext", defaultContext);
+        module.setAttribute("BasicContext", basicContext);
+        module.setAttribute("ExtendedContext", extendedContext);
+    }
+
+    PDecimalContext getDefaultContext() {
+        return defaultContext;
+    }
+
+    // _decimal.Decimal
+    @Builtin(name = "Decimal", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PDecimal, parameterNames = {"$cls", "value", "context"}, doc = "Decimal(value=\"0\", context=None)\n--\n\n" +
+                    "Construct a new Decimal object. 'value' can be an integer, string, tuple,\nor another Decimal object. If no value is given, return Decimal('0'). The\n" +
+                    "context does not affect the conversion and is only passed to determine if\nthe InvalidOperation trap is active.\n\n")
+    @GenerateNodeFactory
+    abstract static class DecimalNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static Object construct(Object cls, Object value, Object context,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached FromObjectNode fromObjectNode,
+                        @Cached IsBuiltinClassProfile isBuiltinProfile,
+                        @Cached PythonObjectFactory factory) {
+            PDecimalContext ctx = contextArgNode.execute(context);
+            PDecimal result = fromObjectNode.execute(value == PNone.NO_VALUE ? "0" : value, ctx, false);
+            if (isBuiltinProfile.profileClass(cls, PythonBuiltinClassType.PDecimal)) {
+                if (result.getInitialPythonClass() == PythonBuiltinClassType.PDecimal) {
+                    return result;
+                }
+                cls = PythonBuiltinClassType.PDecimal;
+            }
+            return factory.createDecimal(cls, result.getKind(), result.isNegative(), result.getValue());
+        }
+    }
+
+    // _decimal.Context
+    @Builtin(name = "Context", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PDecimalContext, parameterNames = {"$cls", "prec", "rounding", "Emin", "Emax", "capitals",
+                    "clamp", "flags", "traps"}, doc = "Context(prec=None, rounding=None, Emin=None, Emax=None, capitals=None, clamp=None, flags=None, traps=None)\n--\n\n" +
+                                    "The context affects almost all operations and controls rounding,\nOver/Underflow, raising of exceptions and much more.  A new context\n" +
+                                    "can be constructed as follows:\n\n    >>> c = Context(prec=28, Emin=-425000000, Emax=425000000,\n" +
+                                    "    ...             rounding=ROUND_HALF_EVEN, capitals=1, clamp=1,\n    ...             traps=[InvalidOperation, DivisionByZero, Overflow],\n" +
+                                    "    ...             flags=[])\n    >>>\n\n")
+    @GenerateNodeFactory
+    abstract static class ContextNode extends PythonBuiltinNode {
+        @Specialization
+        Object construct(VirtualFrame frame, Object cls, Object prec, Object rounding, Object emin, Object emax, Object capitals, Object clamp, Object flags, Object traps,
+                        @Cached PyLongAsLongNode asLongNode,
+                        @Cached RoundingArgNode roundingArgNode,
+                        @Cached PythonObjectFactory factory) {
+            // unspecified values are taken from DefaultContext, including its flags
+            PDecimalContext context = DecimalNodes.copyContext(factory, cls, DecimalNodes.getModuleBuiltins(this).getDefaultContext());
+            PRaiseNode raiseNode = getRaiseNode();
+            if (!PGuards.isPNone(prec)) {
+                setPrec(raiseNode, context, asLongNode.execute(frame, prec));
+            }
+            if (!PGuards.isPNone(rounding)) {
+                context.setRounding(roundingArgNode.execute(rounding));
+            }
+            if (!PGuards.isPNone(emin)) {
+                setEmin(raiseNode, context, asLongNode.execute(frame, emin));
+            }
+            if (!PGuards.isPNone(emax)) {
+                setEmax(raiseNode, context, asLongNode.execute(frame, emax));
+            }
+            if (!PGuards.isPNone(capitals)) {
+                setCapitals(raiseNode, context, asLongNode.execute(frame, capitals));
+            }
+            if (!PGuards.isPNone(clamp)) {
+                setClamp(raiseNode, context, asLongNode.execute(frame, clamp));
+            }
+            if (!PGuards.isPNone(flags)) {
+                context.setFlags(signalsToBits(this, flags, true));
+            }
+            if (!PGuards.isPNone(traps)) {
+                context.setTraps(signalsToBits(this, traps, true));
+            }
+            return context;
+        }
+    }
+
+    @Builtin(name = "getcontext", doc = "getcontext($module, /)\n--\n\nGet the current default context.\n\n")
+    @GenerateNodeFactory
+    abstract static class GetContextNode extends PythonBuiltinNode {
+        @Specialization
+        PDecimalContext get() {
+            return getCurrentContext(this);
+        }
+    }
+
+    @Builtin(name = "setcontext", minNumOfPositionalArgs = 1, doc = "setcontext($module, context, /)\n--\n\nSet a new default context.\n\n")
+    @GenerateNodeFactory
+    abstract static class SetContextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object set(PDecimalContext context,
+                        @Cached PythonObjectFactory factory) {
+            DecimalModuleBuiltins builtins = DecimalNodes.getModuleBuiltins(this);
+            PDecimalContext newContext = context;
+            if (isTemplate(builtins, context)) {
+                // the templates are not used directly, like in CPython
+                newContext = DecimalNodes.copyContext(factory, PythonBuiltinClassType.PDecimalContext, context);
+                newContext.setFlags(0);
+            }
+            setCurrentContext(this, newContext);
+            return PNone.NONE;
+        }
+
+        private static boolean isTemplate(DecimalModuleBuiltins builtins, PDecimalContext context) {
+            return context == builtins.defaultContext || context == builtins.basicContext || context == builtins.extendedContext;
+        }
+
+        @Specialization(guards = "!isContext(context)")
+        Object set(@SuppressWarnings("unused") Object context) {
+            throw raise(TypeError, "argument must be a context");
+        }
+
+        static boolean isContext(Object context) {
+            return context instanceof PDecimalContext;
+        }
+    }
+
+    @Builtin(name = "localcontext", parameterNames = {"ctx"}, doc = "localcontext($module, /, ctx=None)\n--\n\n" +
+                    "Return a context manager that will set the default context to a copy of ctx\non entry to the with-statement and restore the previous default context when\n" +
+                    "exiting the with-statement. If no context is specified, a copy of the current\ndefault context is used.\n\n")
+    @GenerateNodeFactory
+    abstract static class LocalContextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object localContext(Object ctx,
+                        @Cached ContextArgNode contextArgNode,
+                        @Cached PythonObjectFactory factory) {
+            PDecimalContext global = getCurrentContext(this);
+            PDecimalContext local = DecimalNodes.copyContext(factory, PythonBuiltinClassType.PDecimalContext, contextArgNode.execute(ctx));
+            return factory.createDecimalContextManager(local, global);
+        }
+    }
+}
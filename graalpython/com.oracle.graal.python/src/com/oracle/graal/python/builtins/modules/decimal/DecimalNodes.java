@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CONDITION_FLAGS;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.CONDITION_NAMES;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.FLOAT_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SIGNAL_FLAGS;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SIGNAL_NAMES;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodesFactory.GetObjectArrayNodeGen;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.lib.PyLongCheckNodeGen;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.util.CastToJavaBigIntegerNode;
+import com.oracle.graal.python.nodes.util.CastToJavaBigIntegerNodeGen;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Context handling, signalling and the conversion nodes shared by the builtins of the
+ * {@code _decimal} types.
+ */
+public final class DecimalNodes {
+    static final String MODULE_NAME = "_decimal";
+
+    static final String NOT_A_CONTEXT = "optional argument must be a context";
+    static final String CONVERSION_NOT_SUPPORTED = "conversion from %p to Decimal is not supported";
+    static final String INVALID_SIGNAL_DICT = "invalid signal dict";
+    static final String NOT_A_SIGNAL_DICT = "argument must be a signal dict";
+    static final String INVALID_SIGNAL_KEY = "valid values for signals are:\n  [InvalidOperation, FloatOperation, DivisionByZero,\n   Overflow, Underflow, Subnormal, Inexact, Rounded,\n   Clamped]";
+    static final String INVALID_ROUNDING = "valid values for rounding are:\n  [ROUND_CEILING, ROUND_FLOOR, ROUND_UP, ROUND_DOWN,\n   ROUND_HALF_UP, ROUND_HALF_DOWN, ROUND_HALF_EVEN,\n   ROUND_05UP]";
+
+    private DecimalNodes() {
+    }
+
+    @TruffleBoundary
+    static DecimalModuleBuiltins getModuleBuiltins(Node node) {
+        return (DecimalModuleBuiltins) PythonContext.get(node).lookupBuiltinModule(MODULE_NAME).getBuiltins();
+    }
+
+    /**
+     * The context of the current thread like {@code decimal.getcontext()}. Context variables are
+     * thread-local in GraalPython, so it is kept in the {@link PythonThreadState} of the current
+     * Python context. A new thread starts with a copy of {@code DefaultContext}.
+     */
+    @TruffleBoundary
+    static PDecimalContext getCurrentContext(Node node) {
+        PythonContext pythonContext = PythonContext.get(node);
+        PythonThreadState threadState = pythonContext.getThreadState(PythonLanguage.get(node));
+        PDecimalContext context = threadState.getDecimalContext();
+        if (context == null) {
+            PDecimalContext defaultContext = ((DecimalModuleBuiltins) pythonContext.lookupBuiltinModule(MODULE_NAME).getBuiltins()).getDefaultContext();
+            context = copyContext(PythonObjectFactory.getUncached(), PythonBuiltinClassType.PDecimalContext, defaultContext);
+            context.setFlags(0);
+            threadState.setDecimalContext(context);
+        }
+        return context;
+    }
+
+    @TruffleBoundary
+    static void setCurrentContext(Node node, PDecimalContext context) {
+        PythonContext.get(node).getThreadState(PythonLanguage.get(node)).setDecimalContext(context);
+    }
+
+    static PDecimalContext copyContext(PythonObjectFactory factory, Object cls, PDecimalContext context) {
+        return factory.createDecimalContext(cls, context.getPrec(), context.getRounding(), context.getEmin(), context.getEmax(), context.getCapitals(), context.getClamp(),
+                        context.getFlags(), context.getTraps());
+    }
+
+    /**
+     * Adds the conditions raised by an operation to the flags of the context and raises the first
+     * of the signals that are trapped, like {@code dec_addstatus}.
+     */
+    static void addStatus(Node node, PDecimalContext context, int status) {
+        if (status == 0) {
+            return;
+        }
+        context.setFlags(context.getFlags() | status);
+        int trapped = status & context.getTraps();
+        if (trapped != 0) {
+            CompilerDirectives.transferToInterpreter();
+            throw raiseSignal(node, trapped);
+        }
+    }
+
+    @TruffleBoundary
+    private static PException raiseSignal(Node node, int trapped) {
+        String name = null;
+        for (int i = 0; i < SIGNAL_FLAGS.length; i++) {
+            if ((trapped & SIGNAL_FLAGS[i]) != 0) {
+                name = SIGNAL_NAMES[i];
+                break;
+            }
+        }
+        assert name != null;
+        Object exception = CallNode.getUncached().execute(getModuleAttribute(node, name), signalList(node, trapped));
+        throw PRaiseNode.raise(node, (PBaseException) exception, false);
+    }
+
+    /**
+     * The classes of the conditions and signals in {@code bits}, the detailed conditions of
+     * {@code InvalidOperation} come first like in {@code flags_as_list}.
+     */
+    @TruffleBoundary
+    static Object signalList(Node node, int bits) {
+        ArrayList<Object> list = new ArrayList<>();
+        for (int i = 0; i < CONDITION_FLAGS.length; i++) {
+            if ((bits & CONDITION_FLAGS[i]) != 0) {
+                list.add(getModuleAttribute(node, CONDITION_NAMES[i]));
+            }
+        }
+        for (int i = 1; i < SIGNAL_FLAGS.length; i++) {
+            if ((bits & SIGNAL_FLAGS[i]) != 0) {
+                list.add(getModuleAttribute(node, SIGNAL_NAMES[i]));
+            }
+        }
+        return PythonObjectFactory.getUncached().createList(list.toArray());
+    }
+
+    /**
+     * The flag of a signal class, or 0 if {@code signal} is not one. The classes are defined by
+     * the {@code _decimal} core file.
+     */
+    @TruffleBoundary
+    static int signalFlag(Node node, Object signal) {
+        for (int i = 0; i < SIGNAL_NAMES.length; i++) {
+            if (getModuleAttribute(node, SIGNAL_NAMES[i]) == signal) {
+                return SIGNAL_FLAGS[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Converts the {@code flags} or {@code traps} argument of a context to its bits. Signal dicts
+     * and dicts that contain all signals are accepted, lists of signals only if {@code allowList}
+     * is set like in the constructor of {@code Context}.
+     */
+    @TruffleBoundary
+    static int signalsToBits(Node node, Object value, boolean allowList) {
+        if (value instanceof PDecimalSignalDict) {
+            return ((PDecimalSignalDict) value).getBits();
+        } else if (value instanceof PDict) {
+            HashingStorage storage = ((PDict) value).getDictStorage();
+            HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
+            if (lib.length(storage) != SIGNAL_NAMES.length) {
+                throw PRaiseNode.raiseUncached(node, KeyError, INVALID_SIGNAL_DICT);
+            }
+            int bits = 0;
+            for (int i = 0; i < SIGNAL_NAMES.length; i++) {
+                Object item = lib.getItem(storage, getModuleAttribute(node, SIGNAL_NAMES[i]));
+                if (item == null) {
+                    throw PRaiseNode.raiseUncached(node, KeyError, INVALID_SIGNAL_DICT);
+                }
+                if (PyObjectIsTrueNode.getUncached().execute(null, item)) {
+                    bits |= SIGNAL_FLAGS[i];
+                }
+            }
+            return bits;
+        } else if (allowList && value instanceof PList) {
+            int bits = 0;
+            for (Object signal : GetObjectArrayNodeGen.getUncached().execute(value)) {
+                int flag = signalFlag(node, signal);
+                if (flag == 0) {
+                    throw PRaiseNode.raiseUncached(node, KeyError, INVALID_SIGNAL_KEY);
+                }
+                bits |= flag;
+            }
+            return bits;
+        }
+        throw PRaiseNode.raiseUncached(node, TypeError, NOT_A_SIGNAL_DICT);
+    }
+
+    @TruffleBoundary
+    static Object getModuleAttribute(Node node, String name) {
+        PythonModule module = PythonContext.get(node).lookupBuiltinModule(MODULE_NAME);
+        return ReadAttributeFromObjectNode.getUncached().execute(module, name);
+    }
+
+    /**
+     * Returns the index of a rounding mode name or -1.
+     */
+    static int roundingFromString(String rounding) {
+        String[] names = PDecimalContext.ROUNDING_NAMES;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(rounding)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resolves the optional {@code context} argument of the decimal functions.
+     */
+    public abstract static class ContextArgNode extends PNodeWithRaise {
+        public abstract PDecimalContext execute(Object context);
+
+        @Specialization
+        static PDecimalContext doContext(PDecimalContext context) {
+            return context;
+        }
+
+        @Specialization
+        PDecimalContext doNone(@SuppressWarnings("unused") PNone context) {
+            return getCurrentContext(this);
+        }
+
+        @Fallback
+        PDecimalContext doOther(@SuppressWarnings("unused") Object context) {
+            throw raise(TypeError, NOT_A_CONTEXT);
+        }
+    }
+
+    /**
+     * Converts the other operand of an arithmetic operation, like {@code convert_op}. Only
+     * decimals and integers are converted exactly, other objects yield {@code NotImplemented} or
+     * raise a {@code TypeError} if the conversion is required.
+     */
+    public abstract static class ConvertNode extends PNodeWithRaise {
+        public abstract Object execute(Object value, boolean required);
+
+        @Specialization
+        static PDecimal doDecimal(PDecimal value, @SuppressWarnings("unused") boolean required) {
+            return value;
+        }
+
+        @Specialization
+        static PDecimal doLong(long value, @SuppressWarnings("unused") boolean required,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            return fromLong(factory, value);
+        }
+
+        @Specialization
+        static PDecimal doBoolean(boolean value, @SuppressWarnings("unused") boolean required,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            return fromLong(factory, value ? 1 : 0);
+        }
+
+        @Specialization(guards = "longCheckNode.execute(value)", limit = "1", replaces = {"doLong", "doBoolean"})
+        static PDecimal doInt(Object value, @SuppressWarnings("unused") boolean required,
+                        @SuppressWarnings("unused") @Cached PyLongCheckNode longCheckNode,
+                        @Cached CastToJavaBigIntegerNode toBigIntegerNode,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            return fromBigInteger(factory, toBigIntegerNode.execute(value));
+        }
+
+        @Fallback
+        Object doOther(Object value, boolean required) {
+            if (required) {
+                throw raise(TypeError, CONVERSION_NOT_SUPPORTED, value);
+            }
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    /**
+     * Converts the argument of the {@code Decimal} constructor and of
+     * {@code Context.create_decimal} exactly. Strings are parsed strictly for the latter, which
+     * also rounds the result to the context.
+     */
+    public abstract static class FromObjectNode extends PNodeWithRaise {
+        public abstract PDecimal execute(Object value, PDecimalContext context, boolean strict);
+
+        @Specialization
+        static PDecimal doDecimal(PDecimal value, @SuppressWarnings("unused") PDecimalContext context, @SuppressWarnings("unused") boolean strict) {
+            return value;
+        }
+
+        @Specialization
+        PDecimal doString(String value, PDecimalContext context, boolean strict,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory, context);
+            PDecimal result = arithmetic.fromString(value, !strict);
+            addStatus(this, context, arithmetic.status);
+            return result;
+        }
+
+        @Specialization
+        static PDecimal doLong(long value, @SuppressWarnings("unused") PDecimalContext context, @SuppressWarnings("unused") boolean strict,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            return fromLong(factory, value);
+        }
+
+        @Specialization
+        PDecimal doDouble(double value, PDecimalContext context, @SuppressWarnings("unused") boolean strict,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            addStatus(this, context, FLOAT_OPERATION);
+            return fromDouble(factory, value);
+        }
+
+        @Specialization(replaces = {"doDecimal", "doString", "doLong", "doDouble"})
+        PDecimal doGeneric(Object value, PDecimalContext context, boolean strict,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached CastToJavaBigIntegerNode toBigIntegerNode,
+                        @Cached PyFloatAsDoubleNode asDoubleNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Shared("factory") @Cached PythonObjectFactory factory) {
+            if (value instanceof PDecimal) {
+                return (PDecimal) value;
+            } else if (unicodeCheckNode.execute(value)) {
+                return doString(castToStringNode.execute(value), context, strict, factory);
+            } else if (longCheckNode.execute(value)) {
+                return fromBigInteger(factory, toBigIntegerNode.execute(value));
+            } else if (value instanceof Double || value instanceof PFloat) {
+                return doDouble(asDoubleNode.execute(null, value), context, strict, factory);
+            } else if (value instanceof PTuple || value instanceof PList) {
+                return fromTuple(getObjectArrayNode.execute(value), factory);
+            }
+            throw raise(TypeError, CONVERSION_NOT_SUPPORTED, value);
+        }
+
+        /**
+         * Converts a {@code (sign, digits, exponent)} tuple like {@code PyDecType_FromSequence}.
+         */
+        @TruffleBoundary
+        private PDecimal fromTuple(Object[] items, PythonObjectFactory factory) {
+            if (items.length != 3) {
+                throw raise(ValueError, "argument must be a sequence of length 3");
+            }
+            Object sign = items[0];
+            if (!PyLongCheckNodeGen.getUncached().execute(sign)) {
+                throw raise(ValueError, "sign must be an integer with the value 0 or 1");
+            }
+            BigInteger signValue = CastToJavaBigIntegerNodeGen.getUncached().execute(sign);
+            if (!signValue.equals(BigInteger.ZERO) && !signValue.equals(BigInteger.ONE)) {
+                throw raise(ValueError, "sign must be an integer with the value 0 or 1");
+            }
+            boolean negative = signValue.signum() != 0;
+            byte kind = PDecimal.FINITE;
+            long exponent = 0;
+            Object exp = items[2];
+            if (PyUnicodeCheckNode.getUncached().execute(exp)) {
+                String s = CastToJavaStringNode.getUncached().execute(exp);
+                if (s.equals("F")) {
+                    kind = PDecimal.INFINITE;
+                } else if (s.equals("n")) {
+                    kind = PDecimal.QNAN;
+                } else if (s.equals("N")) {
+                    kind = PDecimal.SNAN;
+                } else {
+                    throw raise(ValueError, "string argument in the third position must be 'F', 'n' or 'N'");
+                }
+            } else if (PyLongCheckNodeGen.getUncached().execute(exp)) {
+                BigInteger e = CastToJavaBigIntegerNodeGen.getUncached().execute(exp);
+                // exponents beyond the long range are out of range anyway
+                exponent = e.bitLength() < Long.SIZE ? e.longValue() : e.signum() * Long.MAX_VALUE;
+            } else {
+                throw raise(ValueError, "exponent must be an integer");
+            }
+            if (!(items[1] instanceof PTuple || items[1] instanceof PList)) {
+                throw raise(ValueError, "coefficient must be a tuple of digits");
+            }
+            Object[] digits = GetObjectArrayNodeGen.getUncached().execute(items[1]);
+            StringBuilder sb = new StringBuilder(digits.length);
+            for (Object digit : digits) {
+                if (!(digit instanceof Integer || digit instanceof Long) || ((Number) digit).longValue() < 0 || ((Number) digit).longValue() > 9) {
+                    throw raise(ValueError, "coefficient must be a tuple of digits");
+                }
+                sb.append((char) ('0' + ((Number) digit).intValue()));
+            }
+            BigDecimal coefficient = sb.length() == 0 ? BigDecimal.ZERO : new BigDecimal(new BigInteger(sb.toString()));
+            if (kind == PDecimal.INFINITE) {
+                return factory.createDecimal(PythonBuiltinClassType.PDecimal, kind, negative, BigDecimal.ZERO);
+            } else if (kind != PDecimal.FINITE) {
+                return factory.createDecimal(PythonBuiltinClassType.PDecimal, kind, negative, coefficient);
+            }
+            DecimalArithmetic arithmetic = new DecimalArithmetic(factory, getCurrentContext(this));
+            PDecimal result = arithmetic.exact(negative, coefficient, exponent);
+            if (arithmetic.status != 0) {
+                addStatus(this, getCurrentContext(this), arithmetic.status);
+            }
+            return result;
+        }
+    }
+
+    static PDecimal fromLong(PythonObjectFactory factory, long value) {
+        return factory.createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.FINITE, value < 0, BigDecimal.valueOf(value));
+    }
+
+    @TruffleBoundary
+    static PDecimal fromDouble(PythonObjectFactory factory, double value) {
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        if (Double.isNaN(value)) {
+            return factory.createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.QNAN, false, BigDecimal.ZERO);
+        } else if (Double.isInfinite(value)) {
+            return factory.createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.INFINITE, negative, BigDecimal.ZERO);
+        }
+        return factory.createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.FINITE, negative, DecimalArithmetic.fromDouble(value));
+    }
+
+    @TruffleBoundary
+    static PDecimal fromBigInteger(PythonObjectFactory factory, BigInteger value) {
+        return factory.createDecimal(PythonBuiltinClassType.PDecimal, PDecimal.FINITE, value.signum() < 0, new BigDecimal(value));
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.INVALID_SIGNAL_KEY;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SIGNAL_FLAGS;
+import static com.oracle.graal.python.builtins.modules.decimal.PDecimalContext.SIGNAL_NAMES;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CONTAINS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DELITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * The mapping interface of the {@code flags} and {@code traps} of a context. CPython derives the
+ * signal dicts from {@code MutableMapping}, which cannot be imported while the core is being
+ * initialized, so the mapping methods are implemented here directly.
+ */
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDecimalSignalDict)
+public class DecimalSignalDictBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalSignalDictBuiltinsFactory.getFactories();
+    }
+
+    private static int flag(Node node, Object key) {
+        int flag = DecimalNodes.signalFlag(node, key);
+        if (flag == 0) {
+            throw PRaiseNode.raiseUncached(node, KeyError, INVALID_SIGNAL_KEY);
+        }
+        return flag;
+    }
+
+    @TruffleBoundary
+    private static Object[] signals(Node node) {
+        Object[] signals = new Object[SIGNAL_NAMES.length];
+        for (int i = 0; i < signals.length; i++) {
+            signals[i] = DecimalNodes.getModuleAttribute(node, SIGNAL_NAMES[i]);
+        }
+        return signals;
+    }
+
+    @TruffleBoundary
+    private static PDict toDict(Node node, PythonObjectFactory factory, int bits) {
+        LinkedHashMap<Object, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < SIGNAL_NAMES.length; i++) {
+            map.put(DecimalNodes.getModuleAttribute(node, SIGNAL_NAMES[i]), (bits & SIGNAL_FLAGS[i]) != 0);
+        }
+        return factory.createDictFromMap(map);
+    }
+
+    @Builtin(name = __GETITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GetItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean getItem(PDecimalSignalDict self, Object key) {
+            return (self.getBits() & flag(this, key)) != 0;
+        }
+    }
+
+    @Builtin(name = __SETITEM__, minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class SetItemNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object setItem(VirtualFrame frame, PDecimalSignalDict self, Object key, Object value,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            int flag = flag(this, key);
+            if (isTrueNode.execute(frame, value)) {
+                self.setBits(self.getBits() | flag);
+            } else {
+                self.setBits(self.getBits() & ~flag);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __DELITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DelItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object delItem(@SuppressWarnings("unused") PDecimalSignalDict self, @SuppressWarnings("unused") Object key) {
+            throw raise(ValueError, "signal keys cannot be deleted");
+        }
+    }
+
+    @Builtin(name = __CONTAINS__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ContainsNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean contains(@SuppressWarnings("unused") PDecimalSignalDict self, Object key) {
+            return DecimalNodes.signalFlag(this, key) != 0;
+        }
+    }
+
+    @Builtin(name = __LEN__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class LenNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int len(@SuppressWarnings("unused") PDecimalSignalDict self) {
+            return SIGNAL_NAMES.length;
+        }
+    }
+
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object iter(VirtualFrame frame, @SuppressWarnings("unused") PDecimalSignalDict self,
+                        @Cached PyObjectGetIter getIter) {
+            return getIter.execute(frame, factory().createList(signals(this)));
+        }
+    }
+
+    @Builtin(name = "keys", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class KeysNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PList keys(@SuppressWarnings("unused") PDecimalSignalDict self) {
+            return factory().createList(signals(this));
+        }
+    }
+
+    @Builtin(name = "values", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ValuesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PList values(PDecimalSignalDict self) {
+            int bits = self.getBits();
+            Object[] values = new Object[SIGNAL_FLAGS.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (bits & SIGNAL_FLAGS[i]) != 0;
+            }
+            return factory().createList(values);
+        }
+    }
+
+    @Builtin(name = "items", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ItemsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PList items(PDecimalSignalDict self) {
+            int bits = self.getBits();
+            Object[] signals = signals(this);
+            Object[] items = new Object[signals.length];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = factory().createTuple(new Object[]{signals[i], (bits & SIGNAL_FLAGS[i]) != 0});
+            }
+            return factory().createList(items);
+        }
+    }
+
+    @Builtin(name = "get", minNumOfPositionalArgs = 2, parameterNames = {"$self", "key", "default"})
+    @GenerateNodeFactory
+    abstract static class GetNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object get(PDecimalSignalDict self, Object key, Object defaultValue) {
+            int flag = DecimalNodes.signalFlag(this, key);
+            if (flag == 0) {
+                return defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue;
+            }
+            return (self.getBits() & flag) != 0;
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDict copy(PDecimalSignalDict self) {
+            return toDict(this, factory(), self.getBits());
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        String repr(PDecimalSignalDict self) {
+            int bits = self.getBits();
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < SIGNAL_NAMES.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append("<class 'decimal.").append(SIGNAL_NAMES[i]).append("'>:");
+                sb.append((bits & SIGNAL_FLAGS[i]) != 0 ? "True" : "False");
+            }
+            return sb.append('}').toString();
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean eqSignalDict(PDecimalSignalDict self, PDecimalSignalDict other) {
+            return self.getBits() == other.getBits();
+        }
+
+        @Specialization
+        boolean eqDict(VirtualFrame frame, PDecimalSignalDict self, PDict other,
+                        @Cached PyObjectRichCompareBool.EqNode eqNode) {
+            return eqNode.execute(frame, toDict(this, factory(), self.getBits()), other);
+        }
+
+        @Fallback
+        static Object eqOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import java.math.BigDecimal;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code decimal.Decimal}. Finite values are kept as a {@link BigDecimal}, whose unscaled value
+ * and scale are the coefficient and the negated exponent of the decimal. The sign is stored
+ * separately since a {@link BigDecimal} has no negative zero. For NaNs the value holds the
+ * diagnostic payload as a non-negative integer, for infinities it is zero.
+ */
+public final class PDecimal extends PythonBuiltinObject {
+    public static final byte FINITE = 0;
+    public static final byte INFINITE = 1;
+    public static final byte QNAN = 2;
+    public static final byte SNAN = 3;
+
+    private final byte kind;
+    private final boolean negative;
+    private final BigDecimal value;
+
+    public PDecimal(Object cls, Shape instanceShape, byte kind, boolean negative, BigDecimal value) {
+        super(cls, instanceShape);
+        assert kind == FINITE ? value.signum() == 0 || value.signum() < 0 == negative : value.signum() >= 0 && value.scale() == 0;
+        this.kind = kind;
+        this.negative = negative;
+        this.value = value;
+    }
+
+    public byte getKind() {
+        return kind;
+    }
+
+    public boolean isNegative() {
+        return negative;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public boolean isSpecial() {
+        return kind != FINITE;
+    }
+
+    public boolean isFinite() {
+        return kind == FINITE;
+    }
+
+    public boolean isInfinite() {
+        return kind == INFINITE;
+    }
+
+    public boolean isNaN() {
+        return kind >= QNAN;
+    }
+
+    public boolean isZero() {
+        return kind == FINITE && value.signum() == 0;
+    }
+
+    public int getExponent() {
+        assert kind == FINITE;
+        return -value.scale();
+    }
+
+    /**
+     * The exponent of the most significant digit, or 0 for special values like in CPython.
+     */
+    public long adjusted() {
+        if (kind != FINITE) {
+            return 0;
+        }
+        return (long) value.precision() - value.scale() - 1;
+    }
+}
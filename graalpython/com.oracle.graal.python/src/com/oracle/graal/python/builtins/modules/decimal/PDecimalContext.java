@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import java.math.RoundingMode;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code decimal.Context}. The flags and traps are bit sets of the libmpdec conditions, so that
+ * an operation can collect its conditions in an {@code int} and check them against the traps at
+ * once.
+ */
+public final class PDecimalContext extends PythonBuiltinObject {
+    // the condition bits of libmpdec
+    public static final int CLAMPED = 0x1;
+    public static final int CONVERSION_SYNTAX = 0x2;
+    public static final int DIVISION_BY_ZERO = 0x4;
+    public static final int DIVISION_IMPOSSIBLE = 0x8;
+    public static final int DIVISION_UNDEFINED = 0x10;
+    public static final int INEXACT = 0x40;
+    public static final int INVALID_CONTEXT = 0x80;
+    public static final int INVALID_OPERATION = 0x100;
+    public static final int FLOAT_OPERATION = 0x400;
+    public static final int OVERFLOW = 0x800;
+    public static final int ROUNDED = 0x1000;
+    public static final int SUBNORMAL = 0x2000;
+    public static final int UNDERFLOW = 0x4000;
+
+    /**
+     * The {@code InvalidOperation} signal is raised by all of these conditions.
+     */
+    public static final int IEEE_INVALID_OPERATION = CONVERSION_SYNTAX | DIVISION_IMPOSSIBLE | DIVISION_UNDEFINED | INVALID_CONTEXT | INVALID_OPERATION;
+
+    /**
+     * The signals in the order of {@code signal_map} in CPython, which is the order in which they
+     * are listed by signal dicts and in which a trapped signal is chosen to be raised.
+     */
+    static final String[] SIGNAL_NAMES = {"InvalidOperation", "FloatOperation", "DivisionByZero", "Overflow", "Underflow", "Subnormal", "Inexact", "Rounded", "Clamped"};
+    static final int[] SIGNAL_FLAGS = {IEEE_INVALID_OPERATION, FLOAT_OPERATION, DIVISION_BY_ZERO, OVERFLOW, UNDERFLOW, SUBNORMAL, INEXACT, ROUNDED, CLAMPED};
+
+    /**
+     * The conditions that are reported in place of {@code InvalidOperation}.
+     */
+    static final String[] CONDITION_NAMES = {"InvalidOperation", "ConversionSyntax", "DivisionImpossible", "DivisionUndefined", "InvalidContext"};
+    static final int[] CONDITION_FLAGS = {INVALID_OPERATION, CONVERSION_SYNTAX, DIVISION_IMPOSSIBLE, DIVISION_UNDEFINED, INVALID_CONTEXT};
+
+    public static final int ROUND_UP = 0;
+    public static final int ROUND_DOWN = 1;
+    public static final int ROUND_CEILING = 2;
+    public static final int ROUND_FLOOR = 3;
+    public static final int ROUND_HALF_UP = 4;
+    public static final int ROUND_HALF_DOWN = 5;
+    public static final int ROUND_HALF_EVEN = 6;
+    public static final int ROUND_05UP = 7;
+
+    static final String[] ROUNDING_NAMES = {"ROUND_UP", "ROUND_DOWN", "ROUND_CEILING", "ROUND_FLOOR", "ROUND_HALF_UP", "ROUND_HALF_DOWN", "ROUND_HALF_EVEN", "ROUND_05UP"};
+
+    /**
+     * The Java rounding modes for all but {@link #ROUND_05UP}, which has no equivalent.
+     */
+    static final RoundingMode[] ROUNDING_MODES = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR, RoundingMode.HALF_UP, RoundingMode.HALF_DOWN,
+                    RoundingMode.HALF_EVEN};
+
+    /*
+     * The limits of libmpdec on 32-bit platforms. They keep every exponent that can occur during an
+     * operation within the int scale of a BigDecimal.
+     */
+    public static final int MAX_PREC = 425000000;
+    public static final int MAX_EMAX = 425000000;
+    public static final int MIN_EMIN = -425000000;
+    public static final int MIN_ETINY = MIN_EMIN - (MAX_PREC - 1);
+
+    private int prec;
+    private int rounding;
+    private int emin;
+    private int emax;
+    private int capitals;
+    private int clamp;
+    private int flags;
+    private int traps;
+
+    private PDecimalSignalDict flagsDict;
+    private PDecimalSignalDict trapsDict;
+
+    public PDecimalContext(Object cls, Shape instanceShape, int prec, int rounding, int emin, int emax, int capitals, int clamp, int flags, int traps) {
+        super(cls, instanceShape);
+        this.prec = prec;
+        this.rounding = rounding;
+        this.emin = emin;
+        this.emax = emax;
+        this.capitals = capitals;
+        this.clamp = clamp;
+        this.flags = flags;
+        this.traps = traps;
+    }
+
+    public int getPrec() {
+        return prec;
+    }
+
+    public void setPrec(int prec) {
+        this.prec = prec;
+    }
+
+    public int getRounding() {
+        return rounding;
+    }
+
+    public void setRounding(int rounding) {
+        this.rounding = rounding;
+    }
+
+    public int getEmin() {
+        return emin;
+    }
+
+    public void setEmin(int emin) {
+        this.emin = emin;
+    }
+
+    public int getEmax() {
+        return emax;
+    }
+
+    public void setEmax(int emax) {
+        this.emax = emax;
+    }
+
+    public int getCapitals() {
+        return capitals;
+    }
+
+    public void setCapitals(int capitals) {
+        this.capitals = capitals;
+    }
+
+    public int getClamp() {
+        return clamp;
+    }
+
+    public void setClamp(int clamp) {
+        this.clamp = clamp;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public void setFlags(int flags) {
+        this.flags = flags;
+    }
+
+    public int getTraps() {
+        return traps;
+    }
+
+    public void setTraps(int traps) {
+        this.traps = traps;
+    }
+
+    public int getEtiny() {
+        return emin - prec + 1;
+    }
+
+    public int getEtop() {
+        return emax - prec + 1;
+    }
+
+    public PDecimalSignalDict getFlagsDict() {
+        return flagsDict;
+    }
+
+    public void setFlagsDict(PDecimalSignalDict flagsDict) {
+        this.flagsDict = flagsDict;
+    }
+
+    public PDecimalSignalDict getTrapsDict() {
+        return trapsDict;
+    }
+
+    public void setTrapsDict(PDecimalSignalDict trapsDict) {
+        this.trapsDict = trapsDict;
+    }
+}
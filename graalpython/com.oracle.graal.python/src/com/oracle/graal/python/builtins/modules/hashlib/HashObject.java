@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code _hashlib.HASH} object. The hashing itself is done by a {@link MessageDigest} of the
+ * JDK. The digest is guarded by the object's monitor, because updates with large inputs are done
+ * with the GIL released.
+ */
+public final class HashObject extends PythonBuiltinObject {
+
+    /**
+     * The algorithms supported by {@code _hashlib}. The names are the ones used by CPython's
+     * {@code _hashlib} and end up in {@code hashlib.algorithms_available}.
+     */
+    public enum Algorithm {
+        MD5("md5", "MD5", 64),
+        SHA1("sha1", "SHA-1", 64),
+        SHA224("sha224", "SHA-224", 64),
+        SHA256("sha256", "SHA-256", 64),
+        SHA384("sha384", "SHA-384", 128),
+        SHA512("sha512", "SHA-512", 128),
+        SHA512_224("sha512_224", "SHA-512/224", 128),
+        SHA512_256("sha512_256", "SHA-512/256", 128);
+
+        private static final Algorithm[] VALUES = values();
+
+        private final String pythonName;
+        private final String javaName;
+        private final int blockSize;
+
+        Algorithm(String pythonName, String javaName, int blockSize) {
+            this.pythonName = pythonName;
+            this.javaName = javaName;
+            this.blockSize = blockSize;
+        }
+
+        public String getPythonName() {
+            return pythonName;
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        /**
+         * Looks up an algorithm by its Python name. Like OpenSSL, this ignores the case and
+         * accepts dashes, e.g., {@code "SHA-256"}. Returns {@code null} for unsupported names.
+         */
+        @TruffleBoundary
+        public static Algorithm fromName(String name) {
+            String normalized = name.toLowerCase(Locale.ROOT);
+            for (Algorithm algorithm : VALUES) {
+                if (algorithm.pythonName.equals(normalized) || algorithm.pythonName.equals(normalized.replace("-", "")) || algorithm.javaName.equalsIgnoreCase(name)) {
+                    return algorithm;
+                }
+            }
+            return null;
+        }
+
+        static Algorithm[] all() {
+            return VALUES;
+        }
+
+        @TruffleBoundary
+        MessageDigest createDigest() {
+            try {
+                return MessageDigest.getInstance(javaName);
+            } catch (NoSuchAlgorithmException e) {
+                // all algorithms are mandatory or provided by the default JDK providers
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    private final Algorithm algorithm;
+    private final MessageDigest digest;
+
+    public HashObject(Object cls, Shape instanceShape, Algorithm algorithm, MessageDigest digest) {
+        super(cls, instanceShape);
+        this.algorithm = algorithm;
+        this.digest = digest;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @TruffleBoundary
+    public int getDigestSize() {
+        return digest.getDigestLength();
+    }
+
+    @TruffleBoundary
+    synchronized void update(byte[] data, int offset, int length) {
+        digest.update(data, offset, length);
+    }
+
+    /**
+     * Computes the digest of the data so far without resetting this object.
+     */
+    @TruffleBoundary
+    synchronized byte[] digest() {
+        return copyDigest().digest();
+    }
+
+    @TruffleBoundary
+    synchronized MessageDigest copyDigest() {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            // the digests of the default JDK providers are cloneable
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+
+import java.security.MessageDigest;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.HashObject.Algorithm;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Implements {@code _hashlib} on top of the JDK's {@link MessageDigest}, so that {@code hashlib}
+ * does not fall back to the pure Python implementations in {@code _md5}, {@code _sha1}, etc.
+ */
+@CoreFunctions(defineModule = "_hashlib")
+public class HashlibModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HashlibModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        HashingStorage names = EconomicMapStorage.create();
+        HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
+        for (Algorithm algorithm : Algorithm.all()) {
+            names = lib.setItem(names, algorithm.getPythonName(), PNone.NONE);
+        }
+        builtinConstants.put("openssl_md_meth_names", core.factory().createFrozenSet(names));
+        super.initialize(core);
+    }
+
+    static Algorithm lookupAlgorithm(PNodeWithRaise node, String name) {
+        Algorithm algorithm = Algorithm.fromName(name);
+        if (algorithm == null) {
+            throw node.raise(ValueError, ErrorMessages.UNSUPPORTED_HASH_TYPE, name);
+        }
+        return algorithm;
+    }
+
+    static HashObject createHash(VirtualFrame frame, PythonBuiltinBaseNode node, PythonObjectFactory factory, Algorithm algorithm, Object data, PythonBufferAccessLibrary bufferLib,
+                    GilNode gil) {
+        HashObject hash = factory.createHashObject(algorithm, algorithm.createDigest());
+        if (data != PNone.NONE) {
+            try {
+                HashObjectBuiltins.update(hash, data, bufferLib, gil);
+            } finally {
+                bufferLib.release(data, frame, node);
+            }
+        }
+        return hash;
+    }
+
+    // _hashlib.new(name, string=b'')
+    @Builtin(name = "new", minNumOfPositionalArgs = 1, parameterNames = {"name", "string"})
+    @ArgumentClinic(name = "name", conversion = ClinicConversion.String)
+    @ArgumentClinic(name = "string", conversion = ClinicConversion.ReadableBuffer, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class NewNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.NewNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        HashObject doNew(VirtualFrame frame, String name, Object data,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached GilNode gil) {
+            return createHash(frame, this, factory(), lookupAlgorithm(this, name), data, bufferLib, gil);
+        }
+    }
+
+    /**
+     * Base class of the {@code openssl_*} constructors, which {@code hashlib} prefers over
+     * {@link NewNode}.
+     */
+    abstract static class OpensslConstructorNode extends PythonUnaryClinicBuiltinNode {
+
+        protected abstract Algorithm getAlgorithm();
+
+        @Specialization
+        HashObject doNew(VirtualFrame frame, Object data,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached GilNode gil) {
+            return createHash(frame, this, factory(), getAlgorithm(), data, bufferLib, gil);
+        }
+    }
+
+    @Builtin(name = "openssl_md5", parameterNames = {"string"})
+    @ArgumentClinic(name = "string", conversion = ClinicConversion.ReadableBuffer, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class OpensslMd5Node extends OpensslConstructorNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.OpensslMd5NodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        protected Algorithm getAlgorithm() {
+            return Algorithm.MD5;
+        }
+    }
+
+    @Builtin(name = "openssl_sha1", parameterNames = {"string"})
+    @ArgumentClinic(name = "string", conversion = ClinicConversion.ReadableBuffer, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class OpensslSha1Node extends OpensslConstructorNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.OpensslSha1NodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        protected Algorithm getAlgorithm() {
+            return Algorithm.SHA1;
+        }
+    }
+
+    @Builtin(name = "openssl_sha224", parameterNames = {"string"})
+    @ArgumentClinic(name = "string", conversion = ClinicConversion.ReadableBuffer, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class OpensslSha224Node extends OpensslConstructorNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.OpensslSha224NodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        protected Algorithm getAlgorithm() {
+            return Algorithm.SHA224;
+        }
+    }
+
+    @Builtin(name = "openssl_sha256", parameterNames = {"string"})
+    @ArgumentClinic(name = "string", conversion = ClinicConversion.ReadableBuffer, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class OpensslSha256Node extends OpensslConstructorNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.OpensslSha256NodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        protected Algorithm getAlgorithm() {
+            return Algorithm.SHA256;
+        }
+    }
+
+    @Builtin(name = "openssl_sha384", parameterNames = {"string"})
+    @ArgumentClinic(name = "string", conversion = ClinicConversion.ReadableBuffer, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class OpensslSha384Node extends OpensslConstructorNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.OpensslSha384NodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        protected Algorithm getAlgorithm() {
+            return Algorithm.SHA384;
+        }
+    }
+
+    @Builtin(name = "openssl_sha512", parameterNames = {"string"})
+    @ArgumentClinic(name = "string", conversion = ClinicConversion.ReadableBuffer, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class OpensslSha512Node extends OpensslConstructorNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.OpensslSha512NodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        protected Algorithm getAlgorithm() {
+            return Algorithm.SHA512;
+        }
+    }
+
+    // _hashlib.hmac_digest(key, msg, digest)
+    @Builtin(name = "hmac_digest", minNumOfPositionalArgs = 3, parameterNames = {"key", "msg", "digest"})
+    @ArgumentClinic(name = "key", conversion = ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "msg", conversion = ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "digest", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class HmacDigestNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.HmacDigestNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PBytes hmacDigest(VirtualFrame frame, Object key, Object msg, String digest,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib) {
+            try {
+                Algorithm algorithm = lookupAlgorithm(this, digest);
+                Hmac hmac = new Hmac(algorithm, bufferLib.getInternalOrCopiedByteArray(key), bufferLib.getBufferLength(key));
+                return factory().createBytes(hmac.compute(bufferLib.getInternalOrCopiedByteArray(msg), bufferLib.getBufferLength(msg)));
+            } finally {
+                bufferLib.release(key, frame, this);
+                bufferLib.release(msg, frame, this);
+            }
+        }
+    }
+
+    // _hashlib.pbkdf2_hmac(hash_name, password, salt, iterations, dklen=None)
+    @Builtin(name = "pbkdf2_hmac", minNumOfPositionalArgs = 4, parameterNames = {"hash_name", "password", "salt", "iterations", "dklen"})
+    @ArgumentClinic(name = "hash_name", conversion = ClinicConversion.String)
+    @ArgumentClinic(name = "password", conversion = ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "salt", conversion = ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "iterations", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    abstract static class Pbkdf2HmacNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.Pbkdf2HmacNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PBytes pbkdf2Hmac(VirtualFrame frame, String hashName, Object password, Object salt, long iterations, Object dklenObj,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached PyLongAsLongNode asLongNode,
+                        @Cached GilNode gil) {
+            try {
+                Algorithm algorithm = lookupAlgorithm(this, hashName);
+                if (iterations < 1) {
+                    throw raise(ValueError, ErrorMessages.ITERATION_VALUE_MUST_BE_GREATER_THAN_0);
+                }
+                if (iterations > Integer.MAX_VALUE) {
+                    throw raise(OverflowError, ErrorMessages.ITERATION_VALUE_IS_TOO_GREAT);
+                }
+                int dklen;
+                if (dklenObj == PNone.NONE || dklenObj == PNone.NO_VALUE) {
+                    dklen = algorithm.createDigest().getDigestLength();
+                } else {
+                    long value = asLongNode.execute(frame, dklenObj);
+                    if (value < 1) {
+                        throw raise(ValueError, ErrorMessages.KEY_LENGTH_MUST_BE_GREATER_THAN_0);
+                    }
+                    if (value > Integer.MAX_VALUE) {
+                        throw raise(OverflowError, ErrorMessages.KEY_LENGTH_IS_TOO_GREAT);
+                    }
+                    dklen = (int) value;
+                }
+                byte[] passwordBytes = bufferLib.getInternalOrCopiedByteArray(password);
+                int passwordLen = bufferLib.getBufferLength(password);
+                byte[] saltBytes = bufferLib.getInternalOrCopiedByteArray(salt);
+                int saltLen = bufferLib.getBufferLength(salt);
+                byte[] key;
+                gil.release(true);
+                try {
+                    key = pbkdf2(algorithm, passwordBytes, passwordLen, saltBytes, saltLen, (int) iterations, dklen);
+                } finally {
+                    gil.acquire();
+                }
+                return factory().createBytes(key);
+            } finally {
+                bufferLib.release(password, frame, this);
+                bufferLib.release(salt, frame, this);
+            }
+        }
+
+        /**
+         * PBKDF2 as specified in RFC 8018, section 5.2.
+         */
+        @TruffleBoundary
+        private static byte[] pbkdf2(Algorithm algorithm, byte[] password, int passwordLen, byte[] salt, int saltLen, int iterations, int dklen) {
+            Hmac hmac = new Hmac(algorithm, password, passwordLen);
+            byte[] key = new byte[dklen];
+            byte[] block = new byte[saltLen + 4];
+            System.arraycopy(salt, 0, block, 0, saltLen);
+            int blockIndex = 1;
+            for (int offset = 0; offset < dklen; blockIndex++) {
+                block[saltLen] = (byte) (blockIndex >>> 24);
+                block[saltLen + 1] = (byte) (blockIndex >>> 16);
+                block[saltLen + 2] = (byte) (blockIndex >>> 8);
+                block[saltLen + 3] = (byte) blockIndex;
+                byte[] u = hmac.compute(block, block.length);
+                byte[] t = u.clone();
+                for (int i = 1; i < iterations; i++) {
+                    u = hmac.compute(u, u.length);
+                    for (int j = 0; j < t.length; j++) {
+                        t[j] ^= u[j];
+                    }
+                }
+                int n = Math.min(t.length, dklen - offset);
+                System.arraycopy(t, 0, key, offset, n);
+                offset += n;
+            }
+            return key;
+        }
+    }
+
+    /**
+     * HMAC as specified in RFC 2104. We do not use {@code javax.crypto.Mac}, because it rejects
+     * empty keys. The inner and outer digests are keyed once and then cloned for each message,
+     * which makes the many invocations in PBKDF2 cheap.
+     */
+    static final class Hmac {
+        private final MessageDigest inner;
+        private final MessageDigest outer;
+
+        @TruffleBoundary
+        Hmac(Algorithm algorithm, byte[] key, int keyLen) {
+            inner = algorithm.createDigest();
+            outer = algorithm.createDigest();
+            int blockSize = algorithm.getBlockSize();
+            byte[] k = key;
+            int kLen = keyLen;
+            if (kLen > blockSize) {
+                inner.update(key, 0, keyLen);
+                k = inner.digest();
+                kLen = k.length;
+            }
+            byte[] innerPad = new byte[blockSize];
+            byte[] outerPad = new byte[blockSize];
+            for (int i = 0; i < blockSize; i++) {
+                byte b = i < kLen ? k[i] : 0;
+                innerPad[i] = (byte) (b ^ 0x36);
+                outerPad[i] = (byte) (b ^ 0x5c);
+            }
+            inner.update(innerPad);
+            outer.update(outerPad);
+        }
+
+        @TruffleBoundary
+        byte[] compute(byte[] msg, int len) {
+            MessageDigest innerCopy = copy(inner);
+            innerCopy.update(msg, 0, len);
+            MessageDigest outerCopy = copy(outer);
+            outerCopy.update(innerCopy.digest());
+            return outerCopy.digest();
+        }
+
+        private static MessageDigest copy(MessageDigest digest) {
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+}
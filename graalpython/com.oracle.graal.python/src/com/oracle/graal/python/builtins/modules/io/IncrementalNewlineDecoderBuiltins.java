@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -58,7 +58,11 @@ import com.oracle.graal.python.annotations.ArgumentClinic;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
 import com.oracle.graal.python.builtins.objects.str.PString;
@@ -66,6 +70,7 @@ import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyIndexCheckNode;
 import com.oracle.graal.python.lib.PyNumberAsSizeNode;
 import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
@@ -74,6 +79,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuilti
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
@@ -82,6 +88,8 @@ import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PIncrementalNewlineDecoder)
 public final class IncrementalNewlineDecoderBuiltins extends PythonBuiltins {
@@ -110,6 +118,8 @@ public final class IncrementalNewlineDecoderBuiltins extends PythonBuiltins {
         @Specialization
         static PNone doInit(PNLDecoder self, Object decoder, boolean translate, String errors) {
             self.setDecoder(decoder);
+            self.setCodec(null);
+            self.setPendingBytes(PythonUtils.EMPTY_BYTE_ARRAY);
             self.setErrors(errors);
             self.setTranslate(translate);
             self.setSeenNewline(0);
@@ -120,6 +130,15 @@ public final class IncrementalNewlineDecoderBuiltins extends PythonBuiltins {
         public static void internalInit(PNLDecoder self, Object decoder, boolean translate) {
             doInit(self, decoder, translate, STRICT);
         }
+
+        /**
+         * Initializes the newline decoder such that it decodes the given builtin codec itself
+         * instead of wrapping a Python-level incremental decoder.
+         */
+        public static void internalInitWithCodec(PNLDecoder self, String codec, String errors, boolean translate) {
+            doInit(self, null, translate, errors);
+            self.setCodec(codec);
+        }
     }
 
     @Builtin(name = DECODE, minNumOfPositionalArgs = 1, parameterNames = {"$self", "input", "final"})
@@ -244,12 +263,18 @@ public final class IncrementalNewlineDecoderBuiltins extends PythonBuiltins {
             return output;
         }
 
-        @Specialization(guards = "!self.hasDecoder()")
+        @Specialization(guards = {"!self.hasDecoder()", "!self.hasCodec()"})
         static String noDecoder(PNLDecoder self, Object input, boolean isFinal,
                         @Cached CastToJavaStringNode toString) {
             return noDecoder(self, toString.execute(input), isFinal);
         }
 
+        @Specialization(guards = "self.hasCodec()")
+        static String withCodec(VirtualFrame frame, PNLDecoder self, Object input, boolean isFinal,
+                        @Cached DecodeWithCodecNode decodeWithCodecNode) {
+            return decodeWithCodecNode.execute(frame, self, input, isFinal);
+        }
+
         @Specialization(guards = "self.hasDecoder()")
         static String withDecoder(VirtualFrame frame, PNLDecoder self, Object input, boolean isFinal,
                         @Cached CastToJavaStringNode toString,
@@ -259,13 +284,65 @@ public final class IncrementalNewlineDecoderBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Decodes bytes with the builtin codec of the newline decoder and translates newlines, all
+     * without calling any Python-level decoder methods. Like
+     * {@code codecs.BufferedIncrementalDecoder}, an incomplete multibyte sequence at the end of the
+     * input is kept until the next call.
+     */
+    abstract static class DecodeWithCodecNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract String execute(VirtualFrame frame, PNLDecoder self, Object input, boolean isFinal);
+
+        @Specialization
+        String decode(VirtualFrame frame, PNLDecoder self, Object input, boolean isFinal,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached CodecsModuleBuiltins.InternalCodecsDecodeNode decodeNode,
+                        @Cached SequenceNodes.GetObjectArrayNode getObjectArrayNode,
+                        @Cached CastToJavaStringNode toString,
+                        @Cached PythonObjectFactory factory,
+                        @Cached ConditionProfile hasPendingProfile,
+                        @Cached ConditionProfile incompleteProfile) {
+            Object buffer = acquireLib.acquireReadonly(input, frame, this);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] pending = self.getPendingBytes();
+                Object data = input;
+                byte[] joined = null;
+                if (hasPendingProfile.profile(pending.length > 0)) {
+                    joined = PythonUtils.arrayCopyOf(pending, pending.length + len);
+                    bufferLib.readIntoByteArray(buffer, 0, joined, pending.length, len);
+                    data = factory.createBytes(joined);
+                }
+                Object[] result = getObjectArrayNode.execute(decodeNode.call(frame, this, data, self.getCodec(), self.getErrors(), isFinal));
+                String decoded = toString.execute(result[0]);
+                int consumed = (int) result[1];
+                int dataLen = pending.length + len;
+                byte[] rest = PythonUtils.EMPTY_BYTE_ARRAY;
+                if (incompleteProfile.profile(consumed < dataLen)) {
+                    rest = new byte[dataLen - consumed];
+                    if (joined != null) {
+                        PythonUtils.arraycopy(joined, consumed, rest, 0, rest.length);
+                    } else {
+                        bufferLib.readIntoByteArray(buffer, consumed, rest, 0, rest.length);
+                    }
+                }
+                self.setPendingBytes(rest);
+                return DecodeNode.noDecoder(self, decoded, isFinal);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
     @Builtin(name = GETSTATE, minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     abstract static class GetStateNode extends PythonUnaryBuiltinNode {
 
         @Specialization(guards = "!self.hasDecoder()")
         Object noDecoder(PNLDecoder self) {
-            PBytes buffer = factory().createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+            PBytes buffer = factory().createBytes(self.getPendingBytes());
             int flag = self.isPendingCR() ? 1 : 0;
             return factory().createTuple(new Object[]{buffer, flag});
         }
@@ -301,13 +378,17 @@ public final class IncrementalNewlineDecoderBuiltins extends PythonBuiltins {
         Object noDecoder(VirtualFrame frame, PNLDecoder self, PTuple state,
                         @Shared("o") @Cached SequenceNodes.GetObjectArrayNode getObjectArrayNode,
                         @Shared("i") @Cached PyIndexCheckNode indexCheckNode,
-                        @Shared("s") @Cached PyNumberAsSizeNode asSizeNode) {
+                        @Shared("s") @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached BytesNodes.ToBytesNode toBytesNode) {
             Object[] objects = getObjectArrayNode.execute(state);
             if (objects.length != 2 || !indexCheckNode.execute(objects[1])) {
                 throw raise(TypeError, ILLEGAL_STATE_ARGUMENT);
             }
             int flag = asSizeNode.executeExact(frame, objects[1]);
             self.setPendingCR((flag & 1) != 0);
+            if (self.hasCodec()) {
+                self.setPendingBytes(toBytesNode.execute(frame, objects[0]));
+            }
             return PNone.NONE;
         }
 
@@ -342,6 +423,7 @@ public final class IncrementalNewlineDecoderBuiltins extends PythonBuiltins {
         static Object noDecoder(PNLDecoder self) {
             self.setSeenNewline(0);
             self.setPendingCR(false);
+            self.setPendingBytes(PythonUtils.EMPTY_BYTE_ARRAY);
             return PNone.NONE;
         }
 
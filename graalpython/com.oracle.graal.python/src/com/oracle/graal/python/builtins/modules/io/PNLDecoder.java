@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -42,11 +42,19 @@ package com.oracle.graal.python.builtins.modules.io;
 
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.object.Shape;
 
 public final class PNLDecoder extends PythonBuiltinObject {
 
     private Object decoder;
+    /*
+     * Name of a builtin codec that is decoded directly in Java instead of calling a Python-level
+     * incremental decoder. Only used if there is no 'decoder'.
+     */
+    private String codec;
+    /* Undecoded tail of the last input when using 'codec' (e.g. a partial UTF-8 sequence) */
+    private byte[] pendingBytes = PythonUtils.EMPTY_BYTE_ARRAY;
     private String errors;
     private boolean pendingCR;
     private boolean translate;
@@ -71,6 +79,26 @@ public final class PNLDecoder extends PythonBuiltinObject {
         this.decoder = decoder;
     }
 
+    public boolean hasCodec() {
+        return codec != null;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    public byte[] getPendingBytes() {
+        return pendingBytes;
+    }
+
+    public void setPendingBytes(byte[] pendingBytes) {
+        this.pendingBytes = pendingBytes;
+    }
+
     public String getErrors() {
         return errors;
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -46,6 +46,7 @@ import static com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins.STRI
 import static com.oracle.graal.python.builtins.modules.io.IONodes.CLOSED;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.DECODE;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.GETSTATE;
+import static com.oracle.graal.python.builtins.modules.io.IONodes.NAME;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.READ;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.READ1;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.READABLE;
@@ -89,9 +90,11 @@ import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -261,18 +264,30 @@ public abstract class TextIOWrapperNodes {
         }
     }
 
-    public static int findLineEnding(PTextIOBase self, String line, int start) {
+    @TruffleBoundary
+    private static int indexOf(CharSequence s, String sub, int fromIndex) {
+        if (s instanceof StringBuilder) {
+            return ((StringBuilder) s).indexOf(sub, fromIndex);
+        }
+        return s.toString().indexOf(sub, fromIndex);
+    }
+
+    /**
+     * Works on {@link String} as well as on {@link StringBuilder} such that the decoded chars of
+     * {@link PTextIO} can be searched without copying them.
+     */
+    public static int findLineEnding(PTextIOBase self, CharSequence line, int start) {
         int pos;
         if (self.isReadTranslate()) {
             /* Newlines are already translated, only search for \n */
-            pos = PString.indexOf(line, "\n", start);
+            pos = indexOf(line, "\n", start);
         } else if (self.isReadUniversal()) {
             /*
              * Universal newline search. Find any of \r, \r\n, \n The decoder ensures that \r\n are
              * not split in two pieces
              */
-            int nlpos = PString.indexOf(line, "\n", start);
-            int crpos = PString.indexOf(line, "\r", start);
+            int nlpos = indexOf(line, "\n", start);
+            int crpos = indexOf(line, "\r", start);
             if (crpos == -1) {
                 if (nlpos == -1) {
                     return -1;
@@ -290,7 +305,7 @@ public abstract class TextIOWrapperNodes {
             }
         } else {
             /* Non-universal mode. */
-            pos = PString.indexOf(line, self.getReadNewline(), start);
+            pos = indexOf(line, self.getReadNewline(), start);
             if (pos != -1) {
                 int nl = PString.length(self.getReadNewline());
                 pos += nl - 1;
@@ -354,8 +369,7 @@ public abstract class TextIOWrapperNodes {
                     // TODO: PyUnicode_READY(line)?
                 }
 
-                String lineStr = PythonUtils.sbToString(line);
-                endpos = findLineEnding(self, lineStr, start);
+                endpos = findLineEnding(self, line, start);
                 /*
                  * ptr = PyUnicode_DATA(line); kind = PyUnicode_KIND(line); endpos =
                  * _PyIO_find_line_ending( self.readtranslate, self.readuniversal, self.getReadnl(),
@@ -370,7 +384,7 @@ public abstract class TextIOWrapperNodes {
                     }
                     break;
                 } else {
-                    consumed = PString.length(lineStr) - start;
+                    consumed = line.length() - start;
                 }
 
                 /* We can put aside up to `endpos` */
@@ -387,7 +401,7 @@ public abstract class TextIOWrapperNodes {
                     if (chunks == null) {
                         chunks = PythonUtils.newStringBuilder();
                     }
-                    s = PString.substring(lineStr, start, endpos);
+                    s = PythonUtils.substring(line, start, endpos);
                     PythonUtils.append(chunks, s);
                     chunked += PString.length(s);
                 }
@@ -403,14 +417,11 @@ public abstract class TextIOWrapperNodes {
                 self.clearDecodedChars();
             }
 
+            String result = null;
             if (line != null) {
                 /* Our line ends in the current buffer */
                 self.setDecodedCharsUsed(endpos - offsetToBuffer);
-                if (start > 0 || endpos < line.length()) {
-                    String s = PythonUtils.substring(line, start, endpos);
-                    line = PythonUtils.newStringBuilder();
-                    PythonUtils.append(line, s);
-                }
+                result = PythonUtils.substring(line, start, endpos);
             }
             if (remaining != null) {
                 if (chunks == null) {
@@ -419,13 +430,13 @@ public abstract class TextIOWrapperNodes {
                 PythonUtils.append(chunks, remaining);
             }
             if (chunks != null) {
-                if (line != null) {
-                    PythonUtils.append(chunks, PythonUtils.sbToString(line));
+                if (result != null) {
+                    PythonUtils.append(chunks, result);
                 }
-                line = chunks;
+                result = PythonUtils.sbToString(chunks);
             }
 
-            return line == null ? "" : PythonUtils.sbToString(line);
+            return result == null ? "" : result;
         }
     }
 
@@ -440,6 +451,8 @@ public abstract class TextIOWrapperNodes {
         boolean readChunk(VirtualFrame frame, PTextIO self, int hint,
                         @Cached SequenceNodes.GetObjectArrayNode getArray,
                         @Cached DecodeNode decodeNode,
+                        @Cached PythonObjectFactory factory,
+                        @Cached ConditionProfile builtinCodecProfile,
                         @Cached PyObjectCallMethodObjArgs callMethodGetState,
                         @Cached PyObjectCallMethodObjArgs callMethodRead,
                         @Cached PyNumberAsSizeNode asSizeNode,
@@ -453,7 +466,12 @@ public abstract class TextIOWrapperNodes {
              */
             PBytes decBuffer = null;
             Object decFlags = null;
-            if (self.isTelling()) {
+            if (self.isTelling() && builtinCodecProfile.profile(DecodeNode.isBuiltinCodecDecoder(self.getDecoder()))) {
+                /* We know the state of the builtin codec without calling 'getstate()' */
+                PNLDecoder nlDecoder = (PNLDecoder) self.getDecoder();
+                decBuffer = factory.createBytes(nlDecoder.getPendingBytes());
+                decFlags = nlDecoder.isPendingCR() ? 1 : 0;
+            } else if (self.isTelling()) {
                 /*
                  * To prepare for tell(), we need to snapshot a point in the file where the
                  * decoder's input buffer is empty.
@@ -549,14 +567,22 @@ public abstract class TextIOWrapperNodes {
     protected abstract static class DecodeNode extends PNodeWithRaise {
         public abstract String execute(VirtualFrame frame, Object decoder, Object bytes, boolean eof);
 
+        static boolean isBuiltinCodecDecoder(Object decoder) {
+            return decoder instanceof PNLDecoder && ((PNLDecoder) decoder).hasCodec();
+        }
+
         /*
-         * @Specialization(limit = "2") String decodeIncDec(VirtualFrame frame, Object decoder,
-         * Object o, boolean eof, // TODO: chars = _PyIncrementalNewlineDecoder_decode(decoder,
-         * bytes, eof); }
-         *
+         * corresponds to chars = _PyIncrementalNewlineDecoder_decode(decoder, bytes, eof). We only
+         * do this for the builtin codecs since a Python-level inner decoder would need a call
+         * anyway.
          */
+        @Specialization(guards = "decoder.hasCodec()")
+        static String decodeBuiltinCodec(VirtualFrame frame, PNLDecoder decoder, Object o, boolean eof,
+                        @Cached IncrementalNewlineDecoderBuiltins.DecodeWithCodecNode decodeWithCodecNode) {
+            return decodeWithCodecNode.execute(frame, decoder, o, eof);
+        }
 
-        @Specialization
+        @Specialization(guards = "!isBuiltinCodecDecoder(decoder)")
         String decodeGeneric(VirtualFrame frame, Object decoder, Object o, boolean eof,
                         @Cached IONodes.ToStringNode toString,
                         @Cached BranchProfile notString,
@@ -704,11 +730,28 @@ public abstract class TextIOWrapperNodes {
                         @Cached ConditionProfile isTrueProfile,
                         @Cached PyObjectCallMethodObjArgs callMethodReadable,
                         @Cached PyObjectIsTrueNode isTrueNode,
+                        @Cached PyObjectLookupAttr lookupName,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
                         @Cached PythonObjectFactory factory) {
             Object res = callMethodReadable.execute(frame, self.getBuffer(), READABLE);
             if (isTrueProfile.profile(!isTrueNode.execute(frame, res))) {
                 return;
             }
+            if (self.isReadUniversal()) {
+                String codec;
+                try {
+                    codec = getBuiltinCodec(castToJavaStringNode.execute(lookupName.execute(frame, codecInfo, NAME)));
+                } catch (CannotCastException e) {
+                    codec = null;
+                }
+                if (codec != null) {
+                    /* Decode directly in Java, without any Python-level incremental decoder */
+                    PNLDecoder incDecoder = factory.createNLDecoder(PIncrementalNewlineDecoder);
+                    IncrementalNewlineDecoderBuiltins.InitNode.internalInitWithCodec(incDecoder, codec, errors, self.isReadTranslate());
+                    self.setDecoder(incDecoder);
+                    return;
+                }
+            }
             Object decoder = getIncrementalDecoderNode.execute(frame, codecInfo, errors);
             if (self.isReadUniversal()) {
                 PNLDecoder incDecoder = factory.createNLDecoder(PIncrementalNewlineDecoder);
@@ -718,6 +761,25 @@ public abstract class TextIOWrapperNodes {
                 self.setDecoder(decoder);
             }
         }
+
+        /**
+         * Maps the canonical names of the codecs that are also implemented by
+         * {@code _codecs.*_decode} to the encoding names these use. Similar to CPython's
+         * {@code encodefuncs}, we rely on the {@code CodecInfo.name}.
+         */
+        @TruffleBoundary
+        private static String getBuiltinCodec(String name) {
+            switch (name) {
+                case "utf-8":
+                    return "utf-8";
+                case "iso8859-1":
+                    return "latin_1";
+                case ASCII:
+                    return ASCII;
+                default:
+                    return null;
+            }
+        }
     }
 
     /*
@@ -1,4 +1,4 @@
-/* Copyright (c) 2020, 2021, Oracle and/or its affiliates.
+/* Copyright (c) 2020, 2022, Oracle and/or its affiliates.
  * Copyright (C) 1996-2020 Python Software Foundation
  *
  * Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
@@ -35,6 +35,7 @@ import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.SpecialMethodSlot;
 import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.builtins.ListNodes.ConstructListNode;
@@ -42,6 +43,7 @@ import com.oracle.graal.python.nodes.call.special.CallUnaryMethodNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.object.GetClassNode;
@@ -70,6 +72,49 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class CallEncoderNode extends PythonTernaryClinicBuiltinNode {
 
+        @Child private EncodeNode encode = new EncodeNode();
+        @Child private PythonObjectFactory factory = PythonObjectFactory.create();
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JSONEncoderBuiltinsClinicProviders.CallEncoderNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected PTuple call(PJSONEncoder self, Object obj, @SuppressWarnings("unused") int indent) {
+            StringBuilder builder = new StringBuilder();
+            encode.appendListObj(self, builder, obj, null);
+            return factory.createTuple(new Object[]{builder.toString()});
+        }
+    }
+
+    /**
+     * Encodes {@code obj} and passes the output to the callable {@code write} in chunks of
+     * roughly {@link EncodeNode#FLUSH_THRESHOLD} characters instead of building the whole
+     * document in memory.
+     */
+    @Builtin(name = "dump", minNumOfPositionalArgs = 3, parameterNames = {"$self", "obj", "write"})
+    @GenerateNodeFactory
+    public abstract static class DumpNode extends PythonTernaryBuiltinNode {
+
+        @Child private EncodeNode encode = new EncodeNode();
+
+        @Specialization
+        @TruffleBoundary
+        protected PNone dump(PJSONEncoder self, Object obj, Object write) {
+            StringBuilder builder = new StringBuilder();
+            encode.appendListObj(self, builder, obj, write);
+            encode.flush(builder, write);
+            return PNone.NONE;
+        }
+    }
+
+    static final class EncodeNode extends PNodeWithRaise {
+
+        static final int FLUSH_THRESHOLD = 8192;
+
+        @Child private CallUnaryMethodNode callWrite = CallUnaryMethodNode.create();
         @Child private CallUnaryMethodNode callEncode = CallUnaryMethodNode.create();
         @Child private CallUnaryMethodNode callDefaultFn = CallUnaryMethodNode.create();
         @Child private CastToJavaStringNode castEncodeResult = CastToJavaStringNode.create();
@@ -85,19 +130,21 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
         @Child private GetClassNode getDictClass = GetClassNode.create();
         @Child private ConstructListNode constructList = ConstructListNode.create();
 
-        @Child private PythonObjectFactory factory = PythonObjectFactory.create();
-
-        @Override
-        protected ArgumentClinicProvider getArgumentClinic() {
-            return JSONEncoderBuiltinsClinicProviders.CallEncoderNodeClinicProviderGen.INSTANCE;
+        void flush(StringBuilder builder, Object write) {
+            if (builder.length() > 0) {
+                callWrite.executeObject(write, builder.toString());
+                builder.setLength(0);
+            }
         }
 
-        @Specialization
-        @TruffleBoundary
-        protected PTuple call(PJSONEncoder self, Object obj, @SuppressWarnings("unused") int indent) {
-            StringBuilder builder = new StringBuilder();
-            appendListObj(self, builder, obj);
-            return factory.createTuple(new Object[]{builder.toString()});
+        /**
+         * Only called between complete list elements or dict entries, so that the builder never
+         * needs to be rewound across a flush.
+         */
+        private void flushIfFull(StringBuilder builder, Object write) {
+            if (write != null && builder.length() >= FLUSH_THRESHOLD) {
+                flush(builder, write);
+            }
         }
 
         private static void appendConst(StringBuilder builder, Object obj) {
@@ -176,17 +223,17 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
             return true;
         }
 
-        private void appendListObj(PJSONEncoder encoder, StringBuilder builder, Object obj) {
+        void appendListObj(PJSONEncoder encoder, StringBuilder builder, Object obj, Object write) {
             if (appendSimpleObj(encoder, builder, obj)) {
                 // done
             } else if (obj instanceof PList || obj instanceof PTuple) {
-                appendList(encoder, builder, (PSequence) obj);
+                appendList(encoder, builder, (PSequence) obj, write);
             } else if (obj instanceof PDict) {
-                appendDict(encoder, builder, (PDict) obj);
+                appendDict(encoder, builder, (PDict) obj, write);
             } else {
                 startRecursion(encoder, obj);
                 Object newObj = callDefaultFn.executeObject(encoder.defaultFn, obj);
-                appendListObj(encoder, builder, newObj);
+                appendListObj(encoder, builder, newObj, write);
                 endRecursion(encoder, obj);
             }
         }
@@ -206,7 +253,7 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
             }
         }
 
-        private void appendDict(PJSONEncoder encoder, StringBuilder builder, PDict dict) {
+        private void appendDict(PJSONEncoder encoder, StringBuilder builder, PDict dict, Object write) {
             HashingStorage storage = dict.getDictStorage();
 
             if (dictLib.length(storage) == 0) {
@@ -219,7 +266,8 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                     HashingStorageIterable<DictEntry> entries = dictLib.entries(storage);
                     boolean first = true;
                     for (DictEntry entry : entries) {
-                        first = appendDictEntry(encoder, builder, first, entry.key, entry.value);
+                        first = appendDictEntry(encoder, builder, first, entry.key, entry.value, write);
+                        flushIfFull(builder, write);
                     }
                 } else {
                     PList items = constructList.execute(null, callGetItems.executeObject(null, dict));
@@ -242,7 +290,8 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                         SequenceStorage sequenceStorage = ((PTuple) item).getSequenceStorage();
                         Object key = sequenceStorage.getItemNormalized(0);
                         Object value = sequenceStorage.getItemNormalized(1);
-                        first = appendDictEntry(encoder, builder, first, key, value);
+                        first = appendDictEntry(encoder, builder, first, key, value, write);
+                        flushIfFull(builder, write);
                     }
                 }
 
@@ -251,7 +300,7 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
             }
         }
 
-        private boolean appendDictEntry(PJSONEncoder encoder, StringBuilder builder, boolean first, Object key, Object value) {
+        private boolean appendDictEntry(PJSONEncoder encoder, StringBuilder builder, boolean first, Object key, Object value, Object write) {
             if (!first) {
                 builder.append(encoder.itemSeparator);
             }
@@ -272,11 +321,11 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                 builder.append('"');
             }
             builder.append(encoder.keySeparator);
-            appendListObj(encoder, builder, value);
+            appendListObj(encoder, builder, value, write);
             return false;
         }
 
-        private void appendList(PJSONEncoder encoder, StringBuilder builder, PSequence list) {
+        private void appendList(PJSONEncoder encoder, StringBuilder builder, PSequence list, Object write) {
             SequenceStorage storage = list.getSequenceStorage();
 
             if (storage.length() == 0) {
@@ -290,7 +339,8 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                         if (i > 0) {
                             builder.append(encoder.itemSeparator);
                         }
-                        appendListObj(encoder, builder, storage.getItemNormalized(i));
+                        appendListObj(encoder, builder, storage.getItemNormalized(i), write);
+                        flushIfFull(builder, write);
                     }
                 } else {
                     Object iter = callGetListIter.executeObject(null, list);
@@ -307,7 +357,8 @@ public class JSONEncoderBuiltins extends PythonBuiltins {
                             builder.append(encoder.itemSeparator);
                         }
                         first = false;
-                        appendListObj(encoder, builder, item);
+                        appendListObj(encoder, builder, item, write);
+                        flushIfFull(builder, write);
                     }
                 }
 
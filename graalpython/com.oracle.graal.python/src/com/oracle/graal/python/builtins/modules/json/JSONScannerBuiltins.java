@@ -1,4 +1,4 @@
-/* Copyright (c) 2020, 2021, Oracle and/or its affiliates.
+/* Copyright (c) 2020, 2022, Oracle and/or its affiliates.
  * Copyright (C) 1996-2020 Python Software Foundation
  *
  * Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
@@ -8,6 +8,7 @@ package com.oracle.graal.python.builtins.modules.json;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
 
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import com.oracle.graal.python.PythonLanguage;
@@ -18,8 +19,10 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.BuiltinConstructors;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetInternalByteArrayNode;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.floats.FloatUtils;
@@ -27,6 +30,7 @@ import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyFloatCheckExactNode;
 import com.oracle.graal.python.lib.PyLongCheckExactNode;
 import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.call.special.CallUnaryMethodNode;
@@ -34,13 +38,17 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -54,13 +62,98 @@ public class JSONScannerBuiltins extends PythonBuiltins {
         int value;
     }
 
+    /**
+     * A UTF-8 encoded document that is scanned without decoding it first. All JSON syntax is ASCII,
+     * so the bytes are read as Latin-1 characters and only the non-ASCII bytes in string literals
+     * need to be decoded. All indices are byte offsets.
+     */
+    static final class ByteInput implements CharSequence {
+        private final Object source;
+        private final byte[] bytes;
+        private final int length;
+
+        ByteInput(Object source, byte[] bytes, int length) {
+            this.source = source;
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= length) {
+                throw new IndexOutOfBoundsException();
+            }
+            return (char) (bytes[index] & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * The index of the character at byte offset {@code pos} in the decoded document.
+         */
+        int charIndex(int pos) {
+            return new String(bytes, 0, Math.min(pos, length), StandardCharsets.UTF_8).length();
+        }
+
+        /**
+         * Decodes the UTF-8 sequence at {@code pos} like the {@code surrogatepass} error handler
+         * and returns the offset after it.
+         */
+        int decodeUtf8(int pos, StringBuilder builder) {
+            int b0 = bytes[pos] & 0xff;
+            int n;
+            int codePoint;
+            int min = 0x80;
+            int max = 0xbf;
+            if (b0 >= 0xc2 && b0 <= 0xdf) {
+                n = 2;
+                codePoint = b0 & 0x1f;
+            } else if (b0 >= 0xe0 && b0 <= 0xef) {
+                n = 3;
+                codePoint = b0 & 0x0f;
+                min = b0 == 0xe0 ? 0xa0 : 0x80;
+            } else if (b0 >= 0xf0 && b0 <= 0xf4) {
+                n = 4;
+                codePoint = b0 & 0x07;
+                min = b0 == 0xf0 ? 0x90 : 0x80;
+                max = b0 == 0xf4 ? 0x8f : 0xbf;
+            } else {
+                throw PConstructAndRaiseNode.raiseUncachedUnicodeDecodeError("utf-8", source, pos, pos + 1, "invalid start byte");
+            }
+            for (int i = 1; i < n; i++) {
+                if (pos + i >= length) {
+                    throw PConstructAndRaiseNode.raiseUncachedUnicodeDecodeError("utf-8", source, pos, length, "unexpected end of data");
+                }
+                int b = bytes[pos + i] & 0xff;
+                if (b < (i == 1 ? min : 0x80) || b > (i == 1 ? max : 0xbf)) {
+                    throw PConstructAndRaiseNode.raiseUncachedUnicodeDecodeError("utf-8", source, pos, pos + i, "invalid continuation byte");
+                }
+                codePoint = (codePoint << 6) | (b & 0x3f);
+            }
+            builder.appendCodePoint(codePoint);
+            return pos + n;
+        }
+    }
+
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
         return JSONScannerBuiltinsFactory.getFactories();
     }
 
     @Builtin(name = __CALL__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "string", "idx"})
-    @ArgumentClinic(name = "string", conversion = ArgumentClinic.ClinicConversion.String)
     @ArgumentClinic(name = "idx", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0", useDefaultForNone = true)
     @GenerateNodeFactory
     public abstract static class CallScannerNode extends PythonTernaryClinicBuiltinNode {
@@ -86,6 +179,33 @@ public class JSONScannerBuiltins extends PythonBuiltins {
 
         @Specialization
         protected PTuple call(PJSONScanner self, String string, int idx) {
+            return scan(self, string, idx);
+        }
+
+        /**
+         * Scans UTF-8 encoded {@code bytes} or {@code bytearray} in place, the indices are byte
+         * offsets.
+         */
+        @Specialization
+        protected PTuple callBytes(PJSONScanner self, PBytesLike bytes, int idx,
+                        @Cached GetInternalByteArrayNode getBytes) {
+            SequenceStorage storage = bytes.getSequenceStorage();
+            return scan(self, new ByteInput(bytes, getBytes.execute(storage), storage.length()), idx);
+        }
+
+        @Specialization(guards = "!isBytes(string)")
+        protected PTuple callGeneric(PJSONScanner self, Object string, int idx,
+                        @Cached CastToJavaStringNode castString) {
+            String str;
+            try {
+                str = castString.execute(string);
+            } catch (CannotCastException e) {
+                throw raise(PythonBuiltinClassType.TypeError, "first argument must be a string or bytes-like object, not %p", string);
+            }
+            return scan(self, str, idx);
+        }
+
+        private PTuple scan(PJSONScanner self, CharSequence string, int idx) {
             if (tupleInstanceShape == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 tupleInstanceShape = PythonLanguage.get(this).getBuiltinTypeInstanceShape(PythonBuiltinClassType.PTuple);
@@ -103,7 +223,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
             return factory.createTuple(new Object[]{result, nextIdx.value});
         }
 
-        private Object parseObjectUnicode(PJSONScanner scanner, String string, int start, IntRef nextIdx) {
+        private Object parseObjectUnicode(PJSONScanner scanner, CharSequence string, int start, IntRef nextIdx) {
             /*
              * Read a JSON object from PyUnicode pystr. idx is the index of the first character
              * after the opening curly brace. nextIdx is a return-by-reference index to the first
@@ -189,7 +309,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
             return rval;
         }
 
-        private Object parseArrayUnicode(PJSONScanner scanner, String string, int start, IntRef nextIdx) {
+        private Object parseArrayUnicode(PJSONScanner scanner, CharSequence string, int start, IntRef nextIdx) {
             /*
              * Read a JSON array from PyUnicode pystr. idx is the index of the first character after
              * the opening brace. nextIdx is a return-by-reference index to the first character
@@ -236,7 +356,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
             return factory.createList(PythonBuiltinClassType.PList, listInstanceShape, storage);
         }
 
-        private static int skipWhitespace(String string, int start, int length) {
+        private static int skipWhitespace(CharSequence string, int start, int length) {
             int idx = start;
             while (idx < length && JSONModuleBuiltins.isWhitespace(string.charAt(idx))) {
                 idx++;
@@ -257,7 +377,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
             return callParseConstant.executeObject(scanner.parseConstant, constant);
         }
 
-        private Object matchNumberUnicode(PJSONScanner scanner, String string, int start, IntRef nextIdx) {
+        private Object matchNumberUnicode(PJSONScanner scanner, CharSequence string, int start, IntRef nextIdx) {
             /*
              * Read a JSON number from PyUnicode pystr. idx is the index of the first character of
              * the number nextIdx is a return-by-reference index to the first character after the
@@ -328,20 +448,30 @@ public class JSONScannerBuiltins extends PythonBuiltins {
             nextIdx.value = idx;
             if (isFloat) {
                 if (PyFloatCheckExactNode.getUncached().execute(scanner.parseFloat)) {
-                    String numStr = string.substring(start, idx);
+                    String numStr = string.subSequence(start, idx).toString();
                     return FloatUtils.parseValidString(numStr);
                 } else {
                     /* copy the section we determined to be a number */
-                    String numStr = string.substring(start, idx);
+                    String numStr = string.subSequence(start, idx).toString();
                     return callParseFloat.executeObject(scanner.parseFloat, numStr);
                 }
             } else {
                 if (PyLongCheckExactNode.getUncached().execute(scanner.parseInt)) {
-                    Object rval = BuiltinConstructors.IntNode.parseSimpleDecimalLiteral(string, start, idx - start);
+                    Object rval;
+                    String numStr;
+                    if (string instanceof String) {
+                        rval = BuiltinConstructors.IntNode.parseSimpleDecimalLiteral((String) string, start, idx - start);
+                        numStr = null;
+                    } else {
+                        numStr = string.subSequence(start, idx).toString();
+                        rval = BuiltinConstructors.IntNode.parseSimpleDecimalLiteral(numStr, 0, numStr.length());
+                    }
                     if (rval != null) {
                         return rval;
                     }
-                    String numStr = string.substring(start, idx);
+                    if (numStr == null) {
+                        numStr = string.subSequence(start, idx).toString();
+                    }
                     BigInteger bi = new BigInteger(numStr);
                     try {
                         return bi.intValueExact();
@@ -356,14 +486,14 @@ public class JSONScannerBuiltins extends PythonBuiltins {
                     return factory.createInt(bi);
                 } else {
                     /* copy the section we determined to be a number */
-                    String numStr = string.substring(start, idx);
+                    String numStr = string.subSequence(start, idx).toString();
                     return callParseInt.executeObject(scanner.parseInt, numStr);
                 }
             }
         }
 
         @TruffleBoundary
-        private Object scanOnceUnicode(PJSONScanner scanner, String string, int idx, IntRef nextIdx) {
+        private Object scanOnceUnicode(PJSONScanner scanner, CharSequence string, int idx, IntRef nextIdx) {
             /*
              * Read one JSON term (of any kind) from PyUnicode pystr. idx is the index of the first
              * character of the term nextIdx is a return-by-reference index to the first character
@@ -449,7 +579,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
     }
 
     @TruffleBoundary
-    static String scanStringUnicode(String string, int start, boolean strict, IntRef nextIdx, PRaiseNode raiseNode) {
+    static String scanStringUnicode(CharSequence string, int start, boolean strict, IntRef nextIdx, PRaiseNode raiseNode) {
         String result;
         StringBuilder builder = null;
 
@@ -461,9 +591,9 @@ public class JSONScannerBuiltins extends PythonBuiltins {
             char c = string.charAt(idx++);
             if (c == '"') {
                 // we reached the end of the string literal
-                result = builder == null ? string.substring(start, idx - 1) : builder.toString();
+                result = builder == null ? string.subSequence(start, idx - 1).toString() : builder.toString();
                 nextIdx.value = idx;
-                return result.toString();
+                return result;
             } else if (c == '\\') {
                 // escape sequence, switch to StringBuilder
                 if (builder == null) {
@@ -511,6 +641,12 @@ public class JSONScannerBuiltins extends PythonBuiltins {
                     }
                 }
                 builder.append(c);
+            } else if (c >= 0x80 && string instanceof ByteInput) {
+                // non-ASCII byte in a UTF-8 document, switch to StringBuilder and decode it
+                if (builder == null) {
+                    builder = new StringBuilder().append(string, start, idx - 1);
+                }
+                idx = ((ByteInput) string).decodeUtf8(idx - 1, builder);
             } else {
                 // any other character: check if in strict mode
                 if (strict && c < 0x20) {
@@ -524,11 +660,18 @@ public class JSONScannerBuiltins extends PythonBuiltins {
         throw decodeError(raiseNode, string, start - 1, "Unterminated string starting at");
     }
 
-    private static RuntimeException decodeError(Node raisingNode, String jsonString, int pos, String format) {
+    private static RuntimeException decodeError(Node raisingNode, CharSequence jsonString, int pos, String format) {
         CompilerAsserts.neverPartOfCompilation();
         Object module = AbstractImportNode.importModule("json.decoder");
         Object errorClass = PyObjectLookupAttr.getUncached().execute(null, module, "JSONDecodeError");
-        Object exception = CallNode.getUncached().execute(errorClass, format, jsonString, pos);
+        Object exception;
+        if (jsonString instanceof ByteInput) {
+            // report the position in the decoded document like json.loads would for str input
+            ByteInput input = (ByteInput) jsonString;
+            exception = CallNode.getUncached().execute(errorClass, format, input.toString(), input.charIndex(pos));
+        } else {
+            exception = CallNode.getUncached().execute(errorClass, format, jsonString, pos);
+        }
         throw PRaiseNode.raise(raisingNode, (PBaseException) exception, false);
     }
 
@@ -0,0 +1,658 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.ADDITEMS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.APPEND;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.APPENDS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BINBYTES;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BINFLOAT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BINGET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BININT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BININT1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BININT2;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BINPUT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BINUNICODE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.BYTEARRAY8;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.EMPTY_DICT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.EMPTY_LIST;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.EMPTY_SET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.EMPTY_TUPLE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.FRAME;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.FROZENSET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.HIGHEST_PROTOCOL;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.LONG1;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.LONG4;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.LONG_BINGET;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.LONG_BINPUT;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.MARK;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.MEMOIZE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.NEWFALSE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.NEWTRUE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.NEXT_BUFFER;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.NONE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.POP;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.POP_MARK;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.PROTO;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.READONLY_BUFFER;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.SETITEM;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.SETITEMS;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.SHORT_BINBYTES;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.SHORT_BINUNICODE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.STOP;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.TUPLE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleOpcodes.TUPLE1;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.pickle.PickleModuleBuiltins.FallbackException;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.object.ObjectNodes;
+import com.oracle.graal.python.builtins.objects.object.ObjectNodesFactory.GetIdNodeGen;
+import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Writes pickles of object graphs that consist only of builtin scalars, strings, bytes and
+ * containers into a growable byte array. The output is the same as that of
+ * {@code pickle._Pickler} with the default hooks, including the protocol 4 framing. For these types
+ * the Python pickler never runs user code (besides the buffer callback), so as soon as any other
+ * object is encountered we give up with a {@link FallbackException} and the caller uses the Python
+ * pickler instead.
+ *
+ * Only the binary protocols 2 and higher are supported.
+ */
+final class FastPickler {
+    private static final int FRAME_SIZE_MIN = 4;
+    private static final int FRAME_SIZE_TARGET = 64 * 1024;
+    private static final int FRAME_HEADER_SIZE = 9;
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_DEPTH = 1000;
+
+    private final int proto;
+    private final Object bufferCallback;
+    private final boolean dryRun;
+
+    private final GetClassNode getClassNode = GetClassNode.getUncached();
+    private final PythonBufferAccessLibrary bufferLib = PythonBufferAccessLibrary.getUncached();
+    private final HashingStorageLibrary hashingLib = HashingStorageLibrary.getUncached();
+
+    private final IdentityHashMap<Object, Integer> memo = new IdentityHashMap<>();
+    private PythonObjectFactory factory;
+    private byte[] buffer = new byte[256];
+    private int length;
+    private int frameStart = -1;
+    private int depth;
+
+    /**
+     * @param bufferCallback the {@code buffer_callback} or {@code null}. In a dry run, the callback
+     *            is not called and all buffers are written out-of-band, this is used to check that
+     *            the whole object graph is supported before running the callback for real.
+     */
+    FastPickler(int proto, Object bufferCallback, boolean dryRun) {
+        assert proto >= 2 && proto <= HIGHEST_PROTOCOL;
+        this.proto = proto;
+        this.bufferCallback = bufferCallback;
+        this.dryRun = dryRun;
+    }
+
+    @TruffleBoundary
+    PBytes dump(PythonObjectFactory objectFactory, Object obj) {
+        this.factory = objectFactory;
+        write(PROTO, (byte) proto);
+        if (proto >= 4) {
+            startFrame();
+        }
+        save(obj);
+        write(STOP);
+        if (frameStart >= 0) {
+            endFrame();
+        }
+        return objectFactory.createBytes(buffer, length);
+    }
+
+    /**
+     * Stores the memo in the format of {@code pickle._Pickler.memo}, i.e., mapping {@code id(obj)}
+     * to {@code (index, obj)}.
+     */
+    @TruffleBoundary
+    void exportMemo(PythonObjectFactory objectFactory, PDict dict) {
+        ObjectNodes.GetIdNode getIdNode = GetIdNodeGen.getUncached();
+        HashingStorage storage = dict.getDictStorage();
+        for (Map.Entry<Object, Integer> entry : memo.entrySet()) {
+            Object obj = entry.getKey();
+            storage = hashingLib.setItem(storage, getIdNode.execute(obj), objectFactory.createTuple(new Object[]{entry.getValue(), obj}));
+        }
+        dict.setDictStorage(storage);
+    }
+
+    private boolean isBuiltin(Object obj, PythonBuiltinClassType type) {
+        return IsBuiltinClassProfile.profileClassSlowPath(getClassNode.execute(obj), type);
+    }
+
+    private void save(Object obj) {
+        commitFrame();
+        if (obj == PNone.NONE) {
+            write(NONE);
+        } else if (obj instanceof Boolean) {
+            write((boolean) obj ? NEWTRUE : NEWFALSE);
+        } else if (obj instanceof Integer) {
+            saveLong((int) obj);
+        } else if (obj instanceof Long) {
+            saveLong((long) obj);
+        } else if (obj instanceof Double) {
+            saveFloat((double) obj);
+        } else {
+            Integer index = memo.get(obj);
+            if (index != null) {
+                writeGet(index);
+            } else if (obj instanceof String) {
+                saveStr(obj, (String) obj);
+            } else {
+                saveObject(obj);
+            }
+        }
+    }
+
+    private void saveObject(Object obj) {
+        if (++depth > MAX_DEPTH) {
+            // let the Python pickler raise the RecursionError
+            throw FallbackException.INSTANCE;
+        }
+        if (obj instanceof PInt && isBuiltin(obj, PythonBuiltinClassType.PInt)) {
+            saveBigInteger(((PInt) obj).getValue());
+        } else if (obj instanceof PInt && isBuiltin(obj, PythonBuiltinClassType.Boolean)) {
+            write(((PInt) obj).isZero() ? NEWFALSE : NEWTRUE);
+        } else if (obj instanceof PFloat && isBuiltin(obj, PythonBuiltinClassType.PFloat)) {
+            saveFloat(((PFloat) obj).getValue());
+        } else if (obj instanceof PString && isBuiltin(obj, PythonBuiltinClassType.PString)) {
+            saveStr(obj, ((PString) obj).getValue());
+        } else if (obj instanceof PBytes && isBuiltin(obj, PythonBuiltinClassType.PBytes)) {
+            saveBytes(obj, bufferLib.getInternalOrCopiedByteArray(obj), bufferLib.getBufferLength(obj));
+        } else if (obj instanceof PByteArray && isBuiltin(obj, PythonBuiltinClassType.PByteArray)) {
+            saveByteArray(obj, bufferLib.getInternalOrCopiedByteArray(obj), bufferLib.getBufferLength(obj));
+        } else if (obj instanceof PTuple && isBuiltin(obj, PythonBuiltinClassType.PTuple)) {
+            saveTuple((PTuple) obj);
+        } else if (obj instanceof PList && isBuiltin(obj, PythonBuiltinClassType.PList)) {
+            write(EMPTY_LIST);
+            memoize(obj);
+            batchAppends((PList) obj);
+        } else if (obj instanceof PDict && isBuiltin(obj, PythonBuiltinClassType.PDict)) {
+            write(EMPTY_DICT);
+            memoize(obj);
+            batchSetItems((PDict) obj);
+        } else if (obj instanceof PSet && proto >= 4 && isBuiltin(obj, PythonBuiltinClassType.PSet)) {
+            write(EMPTY_SET);
+            memoize(obj);
+            batchAddItems((PSet) obj);
+        } else if (obj instanceof PFrozenSet && proto >= 4 && isBuiltin(obj, PythonBuiltinClassType.PFrozenSet)) {
+            saveFrozenSet((PFrozenSet) obj);
+        } else if (obj instanceof PPickleBuffer && proto >= 5) {
+            savePickleBuffer((PPickleBuffer) obj);
+        } else {
+            throw FallbackException.INSTANCE;
+        }
+        depth--;
+    }
+
+    private void saveLong(long value) {
+        if (value >= 0) {
+            if (value <= 0xff) {
+                write(BININT1, (byte) value);
+                return;
+            }
+            if (value <= 0xffff) {
+                write(BININT2, (byte) value, (byte) (value >> 8));
+                return;
+            }
+        }
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            write(BININT);
+            writeInt32((int) value);
+            return;
+        }
+        saveLongBytes(BigInteger.valueOf(value));
+    }
+
+    private void saveBigInteger(BigInteger value) {
+        if (value.bitLength() < Long.SIZE) {
+            saveLong(value.longValue());
+        } else {
+            saveLongBytes(value);
+        }
+    }
+
+    private void saveLongBytes(BigInteger value) {
+        // pickle.encode_long is the minimal little-endian two's complement representation
+        byte[] bigEndian = value.toByteArray();
+        int n = bigEndian.length;
+        if (n < 256) {
+            write(LONG1, (byte) n);
+        } else {
+            write(LONG4);
+            writeInt32(n);
+        }
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            buffer[length++] = bigEndian[n - 1 - i];
+        }
+    }
+
+    private void saveFloat(double value) {
+        write(BINFLOAT);
+        long bits = Double.doubleToRawLongBits(value);
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (bits >> shift);
+        }
+    }
+
+    private void saveStr(Object obj, String value) {
+        byte[] encoded = encodeUTF8(value);
+        int n = encoded.length;
+        if (n <= 0xff && proto >= 4) {
+            write(SHORT_BINUNICODE, (byte) n);
+            write(encoded, n);
+        } else if (n >= FRAME_SIZE_TARGET) {
+            writeLargeBytes(BINUNICODE, 4, encoded, n);
+        } else {
+            write(BINUNICODE);
+            writeInt32(n);
+            write(encoded, n);
+        }
+        memoize(obj);
+    }
+
+    /**
+     * Strings with lone surrogates are encoded with {@code surrogatepass}, which the JDK encoder
+     * does not support, so we leave those to the Python pickler.
+     */
+    private static byte[] encodeUTF8(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                throw FallbackException.INSTANCE;
+            }
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void saveBytes(Object obj, byte[] data, int n) {
+        if (proto < 3) {
+            // protocol 2 reduces bytes to a call of codecs.encode
+            throw FallbackException.INSTANCE;
+        }
+        if (n <= 0xff) {
+            write(SHORT_BINBYTES, (byte) n);
+            write(data, n);
+        } else if (n >= FRAME_SIZE_TARGET) {
+            writeLargeBytes(BINBYTES, 4, data, n);
+        } else {
+            write(BINBYTES);
+            writeInt32(n);
+            write(data, n);
+        }
+        memoize(obj);
+    }
+
+    private void saveByteArray(Object obj, byte[] data, int n) {
+        if (proto < 5) {
+            throw FallbackException.INSTANCE;
+        }
+        if (n >= FRAME_SIZE_TARGET) {
+            writeLargeBytes(BYTEARRAY8, 8, data, n);
+        } else {
+            write(BYTEARRAY8);
+            writeInt64(n);
+            write(data, n);
+        }
+        memoize(obj);
+    }
+
+    private void savePickleBuffer(PPickleBuffer obj) {
+        PMemoryView view = obj.getView();
+        if (view == null || !view.isCContiguous()) {
+            throw FallbackException.INSTANCE;
+        }
+        boolean inBand = true;
+        if (bufferCallback != null) {
+            inBand = !dryRun && PyObjectIsTrueNode.getUncached().execute(null, CallNode.getUncached().execute(bufferCallback, obj));
+        }
+        if (inBand) {
+            // like pickle._Pickler, memoize a copy of the data instead of the PickleBuffer, so a
+            // buffer that occurs twice is written twice
+            int n = bufferLib.getBufferLength(view);
+            byte[] data = PythonUtils.arrayCopyOf(bufferLib.getInternalOrCopiedByteArray(view), n);
+            PBytes copy = factory.createBytes(data);
+            if (view.isReadOnly()) {
+                saveBytes(copy, data, n);
+            } else {
+                saveByteArray(copy, data, n);
+            }
+        } else {
+            write(NEXT_BUFFER);
+            if (view.isReadOnly()) {
+                write(READONLY_BUFFER);
+            }
+        }
+    }
+
+    private void saveTuple(PTuple obj) {
+        SequenceStorage storage = obj.getSequenceStorage();
+        int n = storage.length();
+        if (n == 0) {
+            write(EMPTY_TUPLE);
+            return;
+        }
+        if (n <= 3) {
+            for (int i = 0; i < n; i++) {
+                save(storage.getItemNormalized(i));
+            }
+            Integer index = memo.get(obj);
+            if (index != null) {
+                // the tuple is recursive, throw away the items and get it from the memo
+                for (int i = 0; i < n; i++) {
+                    write(POP);
+                }
+                writeGet(index);
+            } else {
+                write((byte) (TUPLE1 + n - 1));
+                memoize(obj);
+            }
+            return;
+        }
+        write(MARK);
+        for (int i = 0; i < n; i++) {
+            save(storage.getItemNormalized(i));
+        }
+        Integer index = memo.get(obj);
+        if (index != null) {
+            write(POP_MARK);
+            writeGet(index);
+        } else {
+            write(TUPLE);
+            memoize(obj);
+        }
+    }
+
+    private void batchAppends(PList obj) {
+        // like pickle._Pickler, every batch is taken from the current contents of the list
+        Object[] batch = new Object[BATCH_SIZE];
+        for (int start = 0;; start += BATCH_SIZE) {
+            SequenceStorage storage = obj.getSequenceStorage();
+            int n = Math.max(0, Math.min(BATCH_SIZE, storage.length() - start));
+            for (int i = 0; i < n; i++) {
+                batch[i] = storage.getItemNormalized(start + i);
+            }
+            if (n > 1) {
+                write(MARK);
+                for (int i = 0; i < n; i++) {
+                    save(batch[i]);
+                }
+                write(APPENDS);
+            } else if (n == 1) {
+                save(batch[0]);
+                write(APPEND);
+            }
+            if (n < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private void batchSetItems(PDict obj) {
+        Iterator<DictEntry> it = hashingLib.entries(obj.getDictStorage()).iterator();
+        Object[] batch = new Object[BATCH_SIZE * 2];
+        while (true) {
+            int n = 0;
+            while (n < BATCH_SIZE && it.hasNext()) {
+                DictEntry entry = it.next();
+                batch[2 * n] = entry.getKey();
+                batch[2 * n + 1] = entry.getValue();
+                n++;
+            }
+            if (n > 1) {
+                write(MARK);
+                for (int i = 0; i < 2 * n; i++) {
+                    save(batch[i]);
+                }
+                write(SETITEMS);
+            } else if (n == 1) {
+                save(batch[0]);
+                save(batch[1]);
+                write(SETITEM);
+            }
+            if (n < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private void batchAddItems(PSet obj) {
+        Iterator<Object> it = hashingLib.keys(obj.getDictStorage()).iterator();
+        Object[] batch = new Object[BATCH_SIZE];
+        while (true) {
+            int n = 0;
+            while (n < BATCH_SIZE && it.hasNext()) {
+                batch[n++] = it.next();
+            }
+            if (n > 0) {
+                write(MARK);
+                for (int i = 0; i < n; i++) {
+                    save(batch[i]);
+                }
+                write(ADDITEMS);
+            }
+            if (n < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private void saveFrozenSet(PFrozenSet obj) {
+        write(MARK);
+        for (Object item : hashingLib.keys(obj.getDictStorage())) {
+            save(item);
+        }
+        Integer index = memo.get(obj);
+        if (index != null) {
+            write(POP_MARK);
+            writeGet(index);
+        } else {
+            write(FROZENSET);
+            memoize(obj);
+        }
+    }
+
+    private void memoize(Object obj) {
+        int index = memo.size();
+        if (proto >= 4) {
+            write(MEMOIZE);
+        } else if (index < 256) {
+            write(BINPUT, (byte) index);
+        } else {
+            write(LONG_BINPUT);
+            writeInt32(index);
+        }
+        memo.put(obj, index);
+    }
+
+    private void writeGet(int index) {
+        if (index < 256) {
+            write(BINGET, (byte) index);
+        } else {
+            write(LONG_BINGET);
+            writeInt32(index);
+        }
+    }
+
+    // framing as done by pickle._Framer
+
+    private void startFrame() {
+        ensureCapacity(FRAME_HEADER_SIZE);
+        frameStart = length;
+        length += FRAME_HEADER_SIZE;
+    }
+
+    private void endFrame() {
+        int n = length - frameStart - FRAME_HEADER_SIZE;
+        if (n >= FRAME_SIZE_MIN) {
+            buffer[frameStart] = FRAME;
+            for (int i = 0; i < 8; i++) {
+                buffer[frameStart + 1 + i] = (byte) ((long) n >> (8 * i));
+            }
+        } else {
+            // too small to be worth a frame, drop the reserved header
+            System.arraycopy(buffer, frameStart + FRAME_HEADER_SIZE, buffer, frameStart, n);
+            length -= FRAME_HEADER_SIZE;
+        }
+        frameStart = -1;
+    }
+
+    private void commitFrame() {
+        if (frameStart >= 0 && length - frameStart - FRAME_HEADER_SIZE >= FRAME_SIZE_TARGET) {
+            endFrame();
+            startFrame();
+        }
+    }
+
+    /**
+     * Large payloads are written outside of frames, so that the loader can read them directly.
+     */
+    private void writeLargeBytes(byte opcode, int lengthSize, byte[] data, int n) {
+        boolean framing = frameStart >= 0;
+        if (framing) {
+            endFrame();
+        }
+        write(opcode);
+        if (lengthSize == 4) {
+            writeInt32(n);
+        } else {
+            writeInt64(n);
+        }
+        write(data, n);
+        if (framing) {
+            startFrame();
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (buffer.length - length < n) {
+            long newCapacity = Math.max((long) buffer.length * 2, (long) length + n);
+            if (newCapacity > Integer.MAX_VALUE - 8) {
+                if ((long) length + n > Integer.MAX_VALUE - 8) {
+                    throw FallbackException.INSTANCE;
+                }
+                newCapacity = Integer.MAX_VALUE - 8;
+            }
+            byte[] newBuffer = new byte[(int) newCapacity];
+            System.arraycopy(buffer, 0, newBuffer, 0, length);
+            buffer = newBuffer;
+        }
+    }
+
+    private void write(byte b) {
+        ensureCapacity(1);
+        buffer[length++] = b;
+    }
+
+    private void write(byte b1, byte b2) {
+        ensureCapacity(2);
+        buffer[length++] = b1;
+        buffer[length++] = b2;
+    }
+
+    private void write(byte b1, byte b2, byte b3) {
+        ensureCapacity(3);
+        buffer[length++] = b1;
+        buffer[length++] = b2;
+        buffer[length++] = b3;
+    }
+
+    private void write(byte[] data, int n) {
+        ensureCapacity(n);
+        System.arraycopy(data, 0, buffer, length, n);
+        length += n;
+    }
+
+    private void writeInt32(int value) {
+        ensureCapacity(4);
+        buffer[length++] = (byte) value;
+        buffer[length++] = (byte) (value >> 8);
+        buffer[length++] = (byte) (value >> 16);
+        buffer[length++] = (byte) (value >> 24);
+    }
+
+    private void writeInt64(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[length++] = (byte) (value >> (8 * i));
+        }
+    }
+}
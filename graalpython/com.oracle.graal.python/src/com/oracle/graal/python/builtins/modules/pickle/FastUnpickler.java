@@ -0,0 +1,549 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.pickle.PickleModuleBuiltins.FallbackException;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyIterNextNode;
+import com.oracle.graal.python.lib.PyMemoryViewFromObject;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorageFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Reads pickles that only build builtin scalars, strings, bytes and containers, i.e., the output of
+ * {@link FastPickler} and of any other pickler for such object graphs. Opcodes that import or call
+ * something (globals, reduce, build, persistent ids, the extension registry) and the text opcodes
+ * of protocol 0 make us give up with a {@link FallbackException}, as does any malformed input, so
+ * that the Python unpickler can do the work or report the error. No user code runs before that
+ * point, except for iterating the out-of-band buffers, which is why a dry run is done first if they
+ * are not simply given as a list or tuple.
+ */
+final class FastUnpickler {
+    private final PythonObjectFactory factory;
+    private final PyMemoryViewFromObject memoryViewNode;
+    private final HashingStorageLibrary hashingLib = HashingStorageLibrary.getUncached();
+    private final SequenceStorageNodes.AppendNode appendNode = SequenceStorageNodes.AppendNode.getUncached();
+
+    private final byte[] data;
+    private final int end;
+    private int pos;
+
+    private final Object buffers;
+    private final boolean dryRun;
+    private SequenceStorage bufferStorage;
+    private Object bufferIterator;
+    private int bufferIndex;
+
+    private Object[] stack = new Object[32];
+    private int stackTop;
+    private int[] marks = new int[8];
+    private int markTop;
+
+    private Object[] memo = new Object[32];
+    private int memoSize;
+
+    /**
+     * @param buffers the out-of-band buffers or {@code null}. In a dry run, the buffers are not
+     *            consumed and placeholders are pushed instead.
+     */
+    FastUnpickler(PythonObjectFactory factory, PyMemoryViewFromObject memoryViewNode, byte[] data, int length, Object buffers, boolean dryRun) {
+        this.factory = factory;
+        this.memoryViewNode = memoryViewNode;
+        this.data = data;
+        this.end = length;
+        this.buffers = buffers;
+        this.dryRun = dryRun;
+    }
+
+    static boolean isListOrTuple(Object obj) {
+        Object cls = GetClassNode.getUncached().execute(obj);
+        return IsBuiltinClassProfile.profileClassSlowPath(cls, PythonBuiltinClassType.PList) || IsBuiltinClassProfile.profileClassSlowPath(cls, PythonBuiltinClassType.PTuple);
+    }
+
+    @TruffleBoundary
+    Object load() {
+        while (true) {
+            byte opcode = readByte();
+            switch (opcode) {
+                case PickleOpcodes.PROTO:
+                    if (readUnsignedByte() > PickleOpcodes.HIGHEST_PROTOCOL) {
+                        throw FallbackException.INSTANCE;
+                    }
+                    break;
+                case PickleOpcodes.FRAME:
+                    // the whole pickle is in memory, so the frames need no special treatment
+                    readLength(8);
+                    break;
+                case PickleOpcodes.STOP:
+                    return pop();
+                case PickleOpcodes.MARK:
+                    pushMark();
+                    break;
+                case PickleOpcodes.POP:
+                    if (stackTop > currentMark()) {
+                        stackTop--;
+                    } else {
+                        popMark();
+                    }
+                    break;
+                case PickleOpcodes.POP_MARK:
+                    popMark();
+                    break;
+                case PickleOpcodes.DUP:
+                    push(peek());
+                    break;
+                case PickleOpcodes.NONE:
+                    push(PNone.NONE);
+                    break;
+                case PickleOpcodes.NEWTRUE:
+                    push(true);
+                    break;
+                case PickleOpcodes.NEWFALSE:
+                    push(false);
+                    break;
+                case PickleOpcodes.BININT:
+                    push(readInt32());
+                    break;
+                case PickleOpcodes.BININT1:
+                    push(readUnsignedByte());
+                    break;
+                case PickleOpcodes.BININT2:
+                    push(readUnsignedByte() | (readUnsignedByte() << 8));
+                    break;
+                case PickleOpcodes.LONG1:
+                    push(readLong(readUnsignedByte()));
+                    break;
+                case PickleOpcodes.LONG4: {
+                    int n = readInt32();
+                    if (n < 0) {
+                        throw FallbackException.INSTANCE;
+                    }
+                    push(readLong(n));
+                    break;
+                }
+                case PickleOpcodes.BINFLOAT: {
+                    long bits = 0;
+                    for (int i = 0; i < 8; i++) {
+                        bits = (bits << 8) | readUnsignedByte();
+                    }
+                    push(Double.longBitsToDouble(bits));
+                    break;
+                }
+                case PickleOpcodes.SHORT_BINUNICODE:
+                    push(readString(readUnsignedByte()));
+                    break;
+                case PickleOpcodes.BINUNICODE:
+                    push(readString(readLength(4)));
+                    break;
+                case PickleOpcodes.BINUNICODE8:
+                    push(readString(readLength(8)));
+                    break;
+                case PickleOpcodes.SHORT_BINBYTES:
+                    push(factory.createBytes(readBytes(readUnsignedByte())));
+                    break;
+                case PickleOpcodes.BINBYTES:
+                    push(factory.createBytes(readBytes(readLength(4))));
+                    break;
+                case PickleOpcodes.BINBYTES8:
+                    push(factory.createBytes(readBytes(readLength(8))));
+                    break;
+                case PickleOpcodes.BYTEARRAY8:
+                    push(factory.createByteArray(readBytes(readLength(8))));
+                    break;
+                case PickleOpcodes.NEXT_BUFFER:
+                    push(nextBuffer());
+                    break;
+                case PickleOpcodes.READONLY_BUFFER:
+                    if (!dryRun) {
+                        stack[stackTop - 1] = toReadonly(peek());
+                    }
+                    break;
+                case PickleOpcodes.EMPTY_TUPLE:
+                    push(factory.createTuple(PythonUtils.EMPTY_OBJECT_ARRAY));
+                    break;
+                case PickleOpcodes.TUPLE1:
+                case PickleOpcodes.TUPLE2:
+                case PickleOpcodes.TUPLE3: {
+                    int n = opcode - PickleOpcodes.TUPLE1 + 1;
+                    if (stackTop - currentMark() < n) {
+                        throw FallbackException.INSTANCE;
+                    }
+                    stackTop -= n;
+                    push(factory.createTuple(Arrays.copyOfRange(stack, stackTop, stackTop + n)));
+                    break;
+                }
+                case PickleOpcodes.TUPLE:
+                    push(factory.createTuple(popMark()));
+                    break;
+                case PickleOpcodes.EMPTY_LIST:
+                    push(factory.createList());
+                    break;
+                case PickleOpcodes.LIST:
+                    push(factory.createList(popMark()));
+                    break;
+                case PickleOpcodes.APPEND: {
+                    Object value = pop();
+                    append(peekList(), value);
+                    break;
+                }
+                case PickleOpcodes.APPENDS: {
+                    Object[] items = popMark();
+                    PList list = peekList();
+                    if (list.getSequenceStorage().length() == 0) {
+                        list.setSequenceStorage(SequenceStorageFactory.createStorage(items));
+                    } else {
+                        for (Object item : items) {
+                            append(list, item);
+                        }
+                    }
+                    break;
+                }
+                case PickleOpcodes.EMPTY_DICT:
+                    push(factory.createDict());
+                    break;
+                case PickleOpcodes.DICT: {
+                    PDict dict = factory.createDict();
+                    setItems(dict, popMark());
+                    push(dict);
+                    break;
+                }
+                case PickleOpcodes.SETITEM: {
+                    Object value = pop();
+                    Object key = pop();
+                    PDict dict = peekDict();
+                    dict.setDictStorage(hashingLib.setItem(dict.getDictStorage(), key, value));
+                    break;
+                }
+                case PickleOpcodes.SETITEMS: {
+                    Object[] items = popMark();
+                    setItems(peekDict(), items);
+                    break;
+                }
+                case PickleOpcodes.EMPTY_SET:
+                    push(factory.createSet());
+                    break;
+                case PickleOpcodes.ADDITEMS: {
+                    Object[] items = popMark();
+                    Object top = peek();
+                    if (!(top instanceof PSet)) {
+                        throw FallbackException.INSTANCE;
+                    }
+                    PSet set = (PSet) top;
+                    set.setDictStorage(addItems(set.getDictStorage(), items));
+                    break;
+                }
+                case PickleOpcodes.FROZENSET:
+                    push(factory.createFrozenSet(addItems(EconomicMapStorage.create(), popMark())));
+                    break;
+                case PickleOpcodes.BINGET:
+                    push(memoGet(readUnsignedByte()));
+                    break;
+                case PickleOpcodes.LONG_BINGET:
+                    push(memoGet(readLength(4)));
+                    break;
+                case PickleOpcodes.BINPUT:
+                    memoPut(readUnsignedByte(), peek());
+                    break;
+                case PickleOpcodes.LONG_BINPUT:
+                    memoPut(readLength(4), peek());
+                    break;
+                case PickleOpcodes.MEMOIZE:
+                    memoPut(memoSize, peek());
+                    break;
+                default:
+                    // globals, reductions, persistent ids, protocol 0 and unknown opcodes
+                    throw FallbackException.INSTANCE;
+            }
+        }
+    }
+
+    private Object nextBuffer() {
+        if (buffers == null) {
+            throw FallbackException.INSTANCE;
+        }
+        if (dryRun) {
+            return PNone.NONE;
+        }
+        if (bufferStorage == null && bufferIterator == null) {
+            if (isListOrTuple(buffers)) {
+                bufferStorage = buffers instanceof PList ? ((PList) buffers).getSequenceStorage() : ((PTuple) buffers).getSequenceStorage();
+            } else {
+                bufferIterator = PyObjectGetIter.getUncached().execute(null, buffers);
+            }
+        }
+        Object buffer;
+        if (bufferStorage != null) {
+            buffer = bufferIndex < bufferStorage.length() ? bufferStorage.getItemNormalized(bufferIndex++) : null;
+        } else {
+            buffer = PyIterNextNode.getUncached().execute(null, bufferIterator);
+        }
+        if (buffer == null) {
+            // not enough buffers
+            throw FallbackException.INSTANCE;
+        }
+        return buffer;
+    }
+
+    private Object toReadonly(Object buffer) {
+        if (buffer instanceof PBytes) {
+            return buffer;
+        }
+        PMemoryView view = buffer instanceof PMemoryView ? (PMemoryView) buffer : memoryViewNode.execute(null, buffer);
+        if (view.isReadOnly()) {
+            return buffer;
+        }
+        return factory.createMemoryView(PythonContext.get(null), view.getLifecycleManager(), view.getBuffer(), view.getOwner(), view.getLength(), true,
+                        view.getItemSize(), view.getFormat(), view.getFormatString(), view.getDimensions(), view.getBufferPointer(),
+                        view.getOffset(), view.getBufferShape(), view.getBufferStrides(), view.getBufferSuboffsets(), view.getFlags());
+    }
+
+    private void append(PList list, Object value) {
+        list.setSequenceStorage(appendNode.execute(list.getSequenceStorage(), value, ListGeneralizationNode.SUPPLIER));
+    }
+
+    private void setItems(PDict dict, Object[] items) {
+        if (items.length % 2 != 0) {
+            throw FallbackException.INSTANCE;
+        }
+        HashingStorage storage = dict.getDictStorage();
+        for (int i = 0; i < items.length; i += 2) {
+            storage = hashingLib.setItem(storage, items[i], items[i + 1]);
+        }
+        dict.setDictStorage(storage);
+    }
+
+    private HashingStorage addItems(HashingStorage storage, Object[] items) {
+        HashingStorage result = storage;
+        for (Object item : items) {
+            result = hashingLib.setItem(result, item, PNone.NONE);
+        }
+        return result;
+    }
+
+    private PList peekList() {
+        Object top = peek();
+        if (!(top instanceof PList)) {
+            throw FallbackException.INSTANCE;
+        }
+        return (PList) top;
+    }
+
+    private PDict peekDict() {
+        Object top = peek();
+        if (!(top instanceof PDict)) {
+            throw FallbackException.INSTANCE;
+        }
+        return (PDict) top;
+    }
+
+    // the stack, the marks divide it into the segments that pickle._Unpickler keeps in its
+    // metastack
+
+    private int currentMark() {
+        return markTop > 0 ? marks[markTop - 1] : 0;
+    }
+
+    private void push(Object value) {
+        if (stackTop == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[stackTop++] = value;
+    }
+
+    private Object pop() {
+        if (stackTop <= currentMark()) {
+            throw FallbackException.INSTANCE;
+        }
+        Object value = stack[--stackTop];
+        stack[stackTop] = null;
+        return value;
+    }
+
+    private Object peek() {
+        if (stackTop <= currentMark()) {
+            throw FallbackException.INSTANCE;
+        }
+        return stack[stackTop - 1];
+    }
+
+    private void pushMark() {
+        if (markTop == marks.length) {
+            marks = Arrays.copyOf(marks, marks.length * 2);
+        }
+        marks[markTop++] = stackTop;
+    }
+
+    private Object[] popMark() {
+        if (markTop == 0) {
+            throw FallbackException.INSTANCE;
+        }
+        int mark = marks[--markTop];
+        Object[] items = Arrays.copyOfRange(stack, mark, stackTop);
+        Arrays.fill(stack, mark, stackTop, null);
+        stackTop = mark;
+        return items;
+    }
+
+    // the memo, which pickle._Unpickler keeps in a dict keyed by the (not necessarily dense)
+    // indices
+
+    private Object memoGet(int index) {
+        if (index >= memo.length || memo[index] == null) {
+            throw FallbackException.INSTANCE;
+        }
+        return memo[index];
+    }
+
+    private void memoPut(int index, Object value) {
+        if (index >= memo.length) {
+            if (index > end) {
+                // certainly not written by a regular pickler
+                throw FallbackException.INSTANCE;
+            }
+            memo = Arrays.copyOf(memo, Math.max(memo.length * 2, index + 1));
+        }
+        if (memo[index] == null) {
+            memoSize++;
+        }
+        memo[index] = value;
+    }
+
+    // reading the input
+
+    private byte readByte() {
+        if (pos >= end) {
+            throw FallbackException.INSTANCE;
+        }
+        return data[pos++];
+    }
+
+    private int readUnsignedByte() {
+        return readByte() & 0xff;
+    }
+
+    private int readInt32() {
+        return readUnsignedByte() | (readUnsignedByte() << 8) | (readUnsignedByte() << 16) | (readUnsignedByte() << 24);
+    }
+
+    /**
+     * Reads an unsigned little-endian size, which must fit into the remaining input.
+     */
+    private int readLength(int size) {
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value |= (long) readUnsignedByte() << (8 * i);
+        }
+        if (value < 0 || value > end - pos) {
+            throw FallbackException.INSTANCE;
+        }
+        return (int) value;
+    }
+
+    private byte[] readBytes(int n) {
+        if (n > end - pos) {
+            throw FallbackException.INSTANCE;
+        }
+        byte[] result = Arrays.copyOfRange(data, pos, pos + n);
+        pos += n;
+        return result;
+    }
+
+    private String readString(int n) {
+        if (n > end - pos) {
+            throw FallbackException.INSTANCE;
+        }
+        String result;
+        try {
+            // a new decoder reports malformed input; surrogates need the Python unpickler
+            result = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(data, pos, n)).toString();
+        } catch (CharacterCodingException e) {
+            throw FallbackException.INSTANCE;
+        }
+        pos += n;
+        return result;
+    }
+
+    private Object readLong(int n) {
+        if (n > end - pos) {
+            throw FallbackException.INSTANCE;
+        }
+        if (n == 0) {
+            return 0;
+        }
+        byte[] bigEndian = new byte[n];
+        for (int i = 0; i < n; i++) {
+            bigEndian[n - 1 - i] = data[pos + i];
+        }
+        pos += n;
+        BigInteger value = new BigInteger(bigEndian);
+        if (value.bitLength() < Integer.SIZE) {
+            return value.intValue();
+        } else if (value.bitLength() < Long.SIZE) {
+            return value.longValue();
+        }
+        return factory.createInt(value);
+    }
+}
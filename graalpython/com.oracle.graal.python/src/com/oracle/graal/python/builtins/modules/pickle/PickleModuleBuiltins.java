@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.lib.PyMemoryViewFromObject;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ControlFlowException;
+
+/**
+ * Implements the parts of pickling that do not need to call back into user code. Besides
+ * {@code PickleBuffer}, this module provides {@code _dumps_fast} and {@code _loads_fast}, which our
+ * patched {@code pickle.py} tries before using its Python pickler and unpickler. Both return
+ * {@code NotImplemented} as soon as the object graph or the pickle contains anything other than
+ * builtin scalars, strings, bytes and containers. This is not CPython's {@code _pickle} module, we
+ * do not have the {@code Pickler} and {@code Unpickler} classes, so {@code pickle.py} keeps its
+ * Python implementations and the tests do not mistake this module for a C implementation.
+ */
+@CoreFunctions(defineModule = "_graalpython_pickle")
+public class PickleModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PickleModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Thrown by {@link FastPickler} and {@link FastUnpickler} when the Python implementation must
+     * be used instead.
+     */
+    static final class FallbackException extends ControlFlowException {
+        private static final long serialVersionUID = 1L;
+        static final FallbackException INSTANCE = new FallbackException();
+    }
+
+    // _graalpython_pickle._dumps_fast(obj, protocol, buffer_callback, memo)
+    @Builtin(name = "_dumps_fast", minNumOfPositionalArgs = 4, parameterNames = {"obj", "protocol", "buffer_callback", "memo"})
+    @GenerateNodeFactory
+    abstract static class DumpsFastNode extends PythonQuaternaryBuiltinNode {
+
+        @Specialization
+        Object dumps(Object obj, Object protocol, Object bufferCallback, Object memo) {
+            int proto;
+            if (protocol == PNone.NONE) {
+                proto = PickleOpcodes.DEFAULT_PROTOCOL;
+            } else if (protocol instanceof Integer || protocol instanceof Long) {
+                long value = ((Number) protocol).longValue();
+                proto = value < 0 ? PickleOpcodes.HIGHEST_PROTOCOL : (int) Math.min(value, Integer.MAX_VALUE);
+            } else {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            if (proto < 2 || proto > PickleOpcodes.HIGHEST_PROTOCOL) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            Object callback = bufferCallback == PNone.NONE ? null : bufferCallback;
+            if (callback != null && proto < 5) {
+                // the Python pickler raises the error
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            try {
+                if (callback != null) {
+                    // the buffer callback must not see any buffer if we give up later
+                    new FastPickler(proto, callback, true).dump(factory(), obj);
+                }
+                FastPickler pickler = new FastPickler(proto, callback, false);
+                PBytes result = pickler.dump(factory(), obj);
+                if (memo instanceof PDict) {
+                    pickler.exportMemo(factory(), (PDict) memo);
+                }
+                return result;
+            } catch (FallbackException e) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+        }
+    }
+
+    // _graalpython_pickle._loads_fast(data, buffers)
+    @Builtin(name = "_loads_fast", minNumOfPositionalArgs = 2, parameterNames = {"data", "buffers"})
+    @ArgumentClinic(name = "data", conversion = ClinicConversion.ReadableBuffer)
+    @GenerateNodeFactory
+    abstract static class LoadsFastNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.LoadsFastNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        Object loads(VirtualFrame frame, Object data, Object buffers,
+                        @CachedLibrary("data") PythonBufferAccessLibrary bufferLib,
+                        @Cached PyMemoryViewFromObject memoryViewNode) {
+            try {
+                byte[] bytes = bufferLib.getInternalOrCopiedByteArray(data);
+                int length = bufferLib.getBufferLength(data);
+                Object buffersOrNull = buffers == PNone.NONE ? null : buffers;
+                try {
+                    if (buffersOrNull != null && !FastUnpickler.isListOrTuple(buffersOrNull)) {
+                        // iterating the buffers may run user code, so first make sure we do not
+                        // have to give up afterwards
+                        new FastUnpickler(factory(), memoryViewNode, bytes, length, buffersOrNull, true).load();
+                    }
+                    return new FastUnpickler(factory(), memoryViewNode, bytes, length, buffersOrNull, false).load();
+                } catch (FallbackException e) {
+                    return PNotImplemented.NOT_IMPLEMENTED;
+                }
+            } finally {
+                bufferLib.release(data, frame, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import com.oracle.graal.python.builtins.objects.mappingproxy.PMappingproxy;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A compiled regular expression ({@code re.Pattern}). The TRegex objects for the different
+ * matching methods are compiled lazily and kept in {@link #compiledRegexes}, indexed by
+ * {@link SRENodes#METHOD_SEARCH method} and the must-advance flag.
+ */
+public final class PPattern extends PythonBuiltinObject {
+    private final Object pattern;
+    private final boolean binary;
+    private final String flagsStr;
+    private final Object[] compiledRegexes = new Object[SRENodes.METHOD_NAMES.length * 2];
+
+    private int flags;
+    private int groups;
+    private PMappingproxy groupIndex;
+    private Object[] indexGroup;
+
+    public PPattern(Object cls, Shape instanceShape, Object pattern, boolean binary, int flags, String flagsStr) {
+        super(cls, instanceShape);
+        this.pattern = pattern;
+        this.binary = binary;
+        this.flags = flags;
+        this.flagsStr = flagsStr;
+    }
+
+    public Object getPattern() {
+        return pattern;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public String getFlagsStr() {
+        return flagsStr;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public int getGroups() {
+        return groups;
+    }
+
+    public PMappingproxy getGroupIndex() {
+        return groupIndex;
+    }
+
+    /**
+     * Returns the group name of each group index, or {@code null} for unnamed groups.
+     */
+    public Object[] getIndexGroup() {
+        return indexGroup;
+    }
+
+    void setGroupInfo(int inlineFlags, int groupCount, PMappingproxy groupIndexProxy, Object[] names) {
+        this.flags |= inlineFlags;
+        this.groups = groupCount;
+        this.groupIndex = groupIndexProxy;
+        this.indexGroup = names;
+    }
+
+    Object getCompiledRegex(int method, boolean mustAdvance) {
+        return compiledRegexes[method * 2 + (mustAdvance ? 1 : 0)];
+    }
+
+    void setCompiledRegex(int method, boolean mustAdvance, Object regex) {
+        compiledRegexes[method * 2 + (mustAdvance ? 1 : 0)] = regex;
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.getGroup;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.GetSliceNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.GroupIndexNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.RegexResultNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PSREMatch)
+public class SREMatchBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SREMatchBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "group", minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    abstract static class GroupNode extends PythonBuiltinNode {
+
+        @Specialization(guards = "args.length == 0")
+        static Object group(VirtualFrame frame, PMatch self, @SuppressWarnings("unused") Object[] args,
+                        @Cached RegexResultNode resultNode,
+                        @Cached GetSliceNode sliceNode) {
+            return getGroup(frame, self, 0, PNone.NONE, resultNode, sliceNode);
+        }
+
+        @Specialization(guards = "args.length == 1")
+        static Object group1(VirtualFrame frame, PMatch self, Object[] args,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached RegexResultNode resultNode,
+                        @Cached GetSliceNode sliceNode) {
+            return getGroup(frame, self, groupIndexNode.execute(frame, self.getPattern(), args[0]), PNone.NONE, resultNode, sliceNode);
+        }
+
+        @Specialization(guards = {"args.length == cachedLength", "cachedLength > 1"}, limit = "3")
+        @ExplodeLoop
+        PTuple groupN(VirtualFrame frame, PMatch self, Object[] args,
+                        @Cached("args.length") int cachedLength,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached RegexResultNode resultNode,
+                        @Cached GetSliceNode sliceNode) {
+            Object[] values = new Object[cachedLength];
+            for (int i = 0; i < cachedLength; i++) {
+                values[i] = getGroup(frame, self, groupIndexNode.execute(frame, self.getPattern(), args[i]), PNone.NONE, resultNode, sliceNode);
+            }
+            return factory().createTuple(values);
+        }
+
+        @Specialization(guards = "args.length > 1", replaces = "groupN")
+        PTuple groupGeneric(VirtualFrame frame, PMatch self, Object[] args,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached RegexResultNode resultNode,
+                        @Cached GetSliceNode sliceNode) {
+            Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                values[i] = getGroup(frame, self, groupIndexNode.execute(frame, self.getPattern(), args[i]), PNone.NONE, resultNode, sliceNode);
+            }
+            return factory().createTuple(values);
+        }
+    }
+
+    @Builtin(name = __GETITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GetItemNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static Object getitem(VirtualFrame frame, PMatch self, Object group,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached RegexResultNode resultNode,
+                        @Cached GetSliceNode sliceNode) {
+            return getGroup(frame, self, groupIndexNode.execute(frame, self.getPattern(), group), PNone.NONE, resultNode, sliceNode);
+        }
+    }
+
+    @Builtin(name = "groups", minNumOfPositionalArgs = 1, parameterNames = {"$self", "default"})
+    @GenerateNodeFactory
+    abstract static class GroupsNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PTuple groups(VirtualFrame frame, PMatch self, Object defaultValue,
+                        @Cached RegexResultNode resultNode,
+                        @Cached GetSliceNode sliceNode) {
+            Object def = defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue;
+            Object[] values = new Object[self.getPattern().getGroups()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getGroup(frame, self, i + 1, def, resultNode, sliceNode);
+            }
+            return factory().createTuple(values);
+        }
+    }
+
+    @Builtin(name = "groupdict", minNumOfPositionalArgs = 1, parameterNames = {"$self", "default"})
+    @GenerateNodeFactory
+    abstract static class GroupDictNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PDict groupdict(VirtualFrame frame, PMatch self, Object defaultValue,
+                        @Cached RegexResultNode resultNode,
+                        @Cached GetSliceNode sliceNode) {
+            Object def = defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue;
+            Object[] indexGroup = self.getPattern().getIndexGroup();
+            int named = 0;
+            for (int i = 1; i < indexGroup.length; i++) {
+                if (indexGroup[i] != null) {
+                    named++;
+                }
+            }
+            PKeyword[] entries = new PKeyword[named];
+            int j = 0;
+            for (int i = 1; i < indexGroup.length; i++) {
+                if (indexGroup[i] != null) {
+                    entries[j++] = new PKeyword((String) indexGroup[i], getGroup(frame, self, i, def, resultNode, sliceNode));
+                }
+            }
+            return factory().createDict(entries);
+        }
+    }
+
+    @Builtin(name = "span", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class SpanNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PTuple span(VirtualFrame frame, PMatch self, Object group,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached RegexResultNode resultNode) {
+            int index = groupIndexNode.execute(frame, self.getPattern(), group);
+            Object result = self.getResult();
+            return factory().createTuple(new Object[]{resultNode.getStart(result, index), resultNode.getEnd(result, index)});
+        }
+    }
+
+    @Builtin(name = "start", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class StartNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static int start(VirtualFrame frame, PMatch self, Object group,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached RegexResultNode resultNode) {
+            return resultNode.getStart(self.getResult(), groupIndexNode.execute(frame, self.getPattern(), group));
+        }
+    }
+
+    @Builtin(name = "end", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class EndNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static int end(VirtualFrame frame, PMatch self, Object group,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached RegexResultNode resultNode) {
+            return resultNode.getEnd(self.getResult(), groupIndexNode.execute(frame, self.getPattern(), group));
+        }
+    }
+
+    @Builtin(name = "expand", minNumOfPositionalArgs = 2, parameterNames = {"$self", "template"})
+    @GenerateNodeFactory
+    abstract static class ExpandNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static Object expand(PMatch self, Object template) {
+            return SRENodes.callReFunction("_expand", self.getPattern(), self, template);
+        }
+    }
+
+    @Builtin(name = "regs", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class RegsNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PTuple regs(PMatch self,
+                        @Cached RegexResultNode resultNode) {
+            Object result = self.getResult();
+            Object[] spans = new Object[self.getPattern().getGroups() + 1];
+            for (int i = 0; i < spans.length; i++) {
+                spans[i] = factory().createTuple(new Object[]{resultNode.getStart(result, i), resultNode.getEnd(result, i)});
+            }
+            return factory().createTuple(spans);
+        }
+    }
+
+    @Builtin(name = "string", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class StringNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object string(PMatch self) {
+            return self.getString();
+        }
+    }
+
+    @Builtin(name = "re", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ReNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PPattern re(PMatch self) {
+            return self.getPattern();
+        }
+    }
+
+    @Builtin(name = "pos", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class PosNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static int pos(PMatch self) {
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "endpos", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class EndposNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static int endpos(PMatch self) {
+            return self.getEndpos();
+        }
+    }
+
+    @Builtin(name = "lastindex", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LastIndexNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object lastindex(PMatch self,
+                        @Cached RegexResultNode resultNode) {
+            int lastGroup = resultNode.getLastGroup(self.getResult());
+            return lastGroup == -1 ? PNone.NONE : lastGroup;
+        }
+    }
+
+    @Builtin(name = "lastgroup", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LastGroupNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object lastgroup(PMatch self,
+                        @Cached RegexResultNode resultNode) {
+            int lastGroup = resultNode.getLastGroup(self.getResult());
+            Object[] indexGroup = self.getPattern().getIndexGroup();
+            if (lastGroup < 0 || lastGroup >= indexGroup.length || indexGroup[lastGroup] == null) {
+                return PNone.NONE;
+            }
+            return indexGroup[lastGroup];
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static String repr(VirtualFrame frame, PMatch self,
+                        @Cached RegexResultNode resultNode,
+                        @Cached GetSliceNode sliceNode,
+                        @Cached PyObjectReprAsJavaStringNode reprNode) {
+            Object result = self.getResult();
+            String match = reprNode.execute(frame, getGroup(frame, self, 0, PNone.NONE, resultNode, sliceNode));
+            return PythonUtils.format("<re.Match object; span=(%d, %d), match=%s>", resultNode.getStart(result, 0), resultNode.getEnd(result, 0), match);
+        }
+    }
+
+    @Builtin(name = __COPY__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PMatch copy(PMatch self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "__deepcopy__", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static PMatch deepcopy(PMatch self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+}
@@ -0,0 +1,667 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.array.PArray;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes.ToBytesNode;
+import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyIndexCheckNode;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.ArityException;
+import com.oracle.truffle.api.interop.ExceptionType;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.source.Source;
+
+public final class SRENodes {
+    static final int METHOD_SEARCH = 0;
+    static final int METHOD_MATCH = 1;
+    static final int METHOD_FULLMATCH = 2;
+    static final String[] METHOD_NAMES = {"search", "match", "fullmatch"};
+
+    // the flag with value 1 << i is named FLAG_NAMES[i], see FLAG_NAMES in _sre.py
+    static final String[] FLAG_NAMES = {"TEMPLATE", "IGNORECASE", "LOCALE", "MULTILINE", "DOTALL", "UNICODE", "VERBOSE", "DEBUG", "ASCII"};
+    static final int FLAG_LOCALE = 4;
+    static final int FLAG_UNICODE = 32;
+    static final int FLAG_ASCII = 256;
+
+    // the inline flag characters understood by TRegex, see sre_parse.FLAGS
+    private static final String FLAG_CHARS = "iLmsxatu";
+    private static final int[] FLAG_CHAR_VALUES = {2, 4, 8, 16, 64, 256, 1, 32};
+
+    private static final String[] FLAGS_ERRORS = {
+                    "cannot use UNICODE flag with a bytes pattern",
+                    "cannot use LOCALE flag with a str pattern",
+                    "ASCII and UNICODE flags are incompatible",
+                    "ASCII and LOCALE flags are incompatible",
+    };
+
+    private SRENodes() {
+    }
+
+    @TruffleBoundary
+    static String flagsToString(int flags) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < FLAG_CHARS.length(); i++) {
+            if ((flags & FLAG_CHAR_VALUES[i]) != 0) {
+                sb.append(FLAG_CHARS.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    static boolean isBytesLike(Object object) {
+        return object instanceof PBytesLike || object instanceof PMemoryView || object instanceof PArray || object instanceof PMMap;
+    }
+
+    static int clamp(long value, int max) {
+        return (int) Math.max(0, Math.min(value, max));
+    }
+
+    /**
+     * Returns the group with the given index, or {@code defaultValue} if the group did not
+     * participate in the match.
+     */
+    static Object getGroup(VirtualFrame frame, PMatch match, int group, Object defaultValue, RegexResultNode resultNode, GetSliceNode sliceNode) {
+        Object result = match.getResult();
+        int start = resultNode.getStart(result, group);
+        if (start < 0) {
+            return defaultValue;
+        }
+        return sliceNode.execute(frame, match.getInput(), start, resultNode.getEnd(result, group));
+    }
+
+    /**
+     * Creates the TRegex source text for the given pattern, flags and matching options.
+     */
+    abstract static class ToRegexSourceNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract String execute(VirtualFrame frame, Object pattern, String flags, String options);
+
+        @TruffleBoundary
+        private static String decodeLatin1(byte[] bytes, int length) {
+            try {
+                return new String(bytes, 0, length, "Latin1");
+            } catch (UnsupportedEncodingException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+        }
+
+        // TruffleBoundary because of string concatenation in compiled code
+        @TruffleBoundary
+        private static String constructRegexSource(String options, String pattern, String flags) {
+            return options + "/" + pattern + "/" + flags;
+        }
+
+        @Specialization
+        protected static String doString(String pattern, String flags, String options) {
+            return constructRegexSource("Flavor=PythonStr,Encoding=UTF-16," + options, pattern, flags);
+        }
+
+        @Specialization(limit = "3")
+        protected String doGeneric(VirtualFrame frame, Object pattern, String flags, String options,
+                        @Cached CastToJavaStringNode cast,
+                        @CachedLibrary("pattern") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib) {
+            try {
+                return doString(cast.execute(pattern), flags, options);
+            } catch (CannotCastException ce) {
+                Object buffer;
+                try {
+                    buffer = bufferAcquireLib.acquireReadonly(pattern, frame, this);
+                } catch (PException e) {
+                    throw raise(TypeError, "expected string or bytes-like object");
+                }
+                try {
+                    byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
+                    int bytesLen = bufferLib.getBufferLength(buffer);
+                    String patternStr = decodeLatin1(bytes, bytesLen);
+                    return constructRegexSource("Flavor=PythonBytes,Encoding=BYTES," + options, patternStr, flags);
+                } finally {
+                    bufferLib.release(buffer, frame, this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the TRegex object implementing the given matching method of a pattern. Compiled
+     * regexes are cached in the pattern and in the engine-wide {@link TRegexCache}. If TRegex does
+     * not support the pattern, the SRE fallback compiler from {@code _sre.py} is used instead.
+     */
+    public abstract static class TRegexCompileNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract Object execute(VirtualFrame frame, PPattern pattern, int method, boolean mustAdvance);
+
+        @Specialization
+        Object compile(VirtualFrame frame, PPattern pattern, int method, boolean mustAdvance,
+                        @Cached ConditionProfile compiledProfile,
+                        @Cached ToRegexSourceNode toRegexSourceNode,
+                        @Cached BranchProfile unsupportedRegexProfile,
+                        @Cached BranchProfile syntaxErrorProfile,
+                        @Cached ReadAttributeFromObjectNode readModuleAttrNode,
+                        @Cached CallNode callNode,
+                        @CachedLibrary(limit = "2") InteropLibrary lib) {
+            Object compiledRegex = pattern.getCompiledRegex(method, mustAdvance);
+            if (compiledProfile.profile(compiledRegex != null)) {
+                return compiledRegex;
+            }
+            PythonLanguage language = getLanguage();
+            String source = toRegexSourceNode.execute(frame, pattern.getPattern(), pattern.getFlagsStr(), createOptions(method, mustAdvance));
+            compiledRegex = language.tregexCache.get(source);
+            if (compiledRegex == null) {
+                try {
+                    compiledRegex = getContext().getEnv().parseInternal(createSource(source)).call();
+                } catch (RuntimeException e) {
+                    throw handleError(frame, e, pattern, syntaxErrorProfile, readModuleAttrNode, callNode, lib);
+                }
+                if (lib.isNull(compiledRegex)) {
+                    unsupportedRegexProfile.enter();
+                    if (!language.getEngineOption(PythonOptions.TRegexUsesSREFallback)) {
+                        throw raise(ValueError, "regular expression not supported, no fallback engine present");
+                    }
+                    Object fallbackCompiler = readModuleAttrNode.execute(getContext().lookupBuiltinModule("_sre"), "fallback_compiler");
+                    compiledRegex = callNode.execute(frame, fallbackCompiler, pattern.getPattern(), pattern.getFlagsStr(), METHOD_NAMES[method], mustAdvance);
+                } else {
+                    language.tregexCache.put(source, compiledRegex);
+                }
+            }
+            pattern.setCompiledRegex(method, mustAdvance, compiledRegex);
+            return compiledRegex;
+        }
+
+        @TruffleBoundary
+        private static String createOptions(int method, boolean mustAdvance) {
+            return "PythonMethod=" + METHOD_NAMES[method] + ",MustAdvance=" + mustAdvance;
+        }
+
+        @TruffleBoundary
+        private static Source createSource(String source) {
+            return Source.newBuilder("regex", source, "re").mimeType("application/tregex").internal(true).build();
+        }
+
+        private RuntimeException handleError(VirtualFrame frame, RuntimeException e, PPattern pattern, BranchProfile syntaxErrorProfile, ReadAttributeFromObjectNode readModuleAttrNode,
+                        CallNode callNode, InteropLibrary lib) {
+            try {
+                if (lib.isException(e) && lib.getExceptionType(e) == ExceptionType.PARSE_ERROR) {
+                    syntaxErrorProfile.enter();
+                    String reason = lib.asString(lib.getExceptionMessage(e));
+                    int position = lib.getSourceLocation(e).getCharIndex();
+                    if (isFlagsError(reason)) {
+                        throw raise(ValueError, reason);
+                    }
+                    Object errorClass = readModuleAttrNode.execute(getContext().lookupBuiltinModule("_sre"), "error");
+                    Object error = callNode.execute(frame, errorClass, reason, pattern.getPattern(), position);
+                    throw PRaiseNode.raise(this, (PBaseException) error, PythonOptions.isPExceptionWithJavaStacktrace(getLanguage()));
+                }
+            } catch (UnsupportedMessageException e1) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+            // just re-throw
+            throw e;
+        }
+
+        @TruffleBoundary
+        private static boolean isFlagsError(String reason) {
+            for (String msg : FLAGS_ERRORS) {
+                if (msg.equals(reason)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Executes a compiled regex on the given input and returns the regex result object.
+     */
+    public abstract static class TRegexExecNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract Object execute(VirtualFrame frame, Object compiledRegex, Object input, int fromIndex);
+
+        @Specialization(limit = "2")
+        Object exec(VirtualFrame frame, Object compiledRegex, Object input, int fromIndex,
+                        @Cached BranchProfile typeError,
+                        @CachedLibrary("compiledRegex") InteropLibrary interop) {
+            PythonContext context = getContext();
+            PythonLanguage language = getLanguage();
+            Object state = IndirectCallContext.enter(frame, language, context, this);
+            try {
+                return interop.invokeMember(compiledRegex, "exec", input, fromIndex);
+            } catch (ArityException | UnsupportedTypeException | UnsupportedMessageException | UnknownIdentifierException e) {
+                typeError.enter();
+                throw raise(TypeError, "%m", e);
+            } finally {
+                IndirectCallContext.exit(frame, language, context, state);
+            }
+        }
+    }
+
+    /**
+     * Reads the members of a regex result object returned by {@link TRegexExecNode}.
+     */
+    public static final class RegexResultNode extends Node {
+        @Child private InteropLibrary resultLib = InteropLibrary.getFactory().createDispatched(3);
+        @Child private InteropLibrary valueLib = InteropLibrary.getFactory().createDispatched(2);
+
+        public static RegexResultNode create() {
+            return new RegexResultNode();
+        }
+
+        public boolean isMatch(Object result) {
+            try {
+                return valueLib.asBoolean(resultLib.readMember(result, "isMatch"));
+            } catch (UnsupportedMessageException | UnknownIdentifierException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+
+        public int getStart(Object result, int group) {
+            return invokeIntMember(result, "getStart", group);
+        }
+
+        public int getEnd(Object result, int group) {
+            return invokeIntMember(result, "getEnd", group);
+        }
+
+        public int getLastGroup(Object result) {
+            try {
+                return valueLib.asInt(resultLib.readMember(result, "lastGroup"));
+            } catch (UnsupportedMessageException | UnknownIdentifierException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+
+        private int invokeIntMember(Object result, String member, int group) {
+            try {
+                return valueLib.asInt(resultLib.invokeMember(result, member, group));
+            } catch (UnsupportedMessageException | UnknownIdentifierException | ArityException | UnsupportedTypeException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    /**
+     * Checks that the subject of a matching method is compatible with the pattern and converts it
+     * to the input passed to TRegex: a Java string for {@code str} subjects, or the bytes-like object
+     * itself.
+     */
+    public abstract static class CheckInputNode extends PNodeWithRaise {
+
+        public abstract Object execute(PPattern pattern, Object string);
+
+        @Specialization
+        String doString(PPattern pattern, String string) {
+            if (pattern.isBinary()) {
+                throw raise(TypeError, "cannot use a bytes pattern on a string-like object");
+            }
+            return string;
+        }
+
+        @Specialization(replaces = "doString")
+        Object doGeneric(PPattern pattern, Object string,
+                        @Cached CastToJavaStringNode cast) {
+            String str;
+            try {
+                str = cast.execute(string);
+            } catch (CannotCastException e) {
+                if (!isBytesLike(string)) {
+                    throw raise(TypeError, "expected string or bytes-like object");
+                }
+                if (!pattern.isBinary()) {
+                    throw raise(TypeError, "cannot use a string pattern on a bytes-like object");
+                }
+                return string;
+            }
+            return doString(pattern, str);
+        }
+    }
+
+    /**
+     * Returns the length of an input produced by {@link CheckInputNode}.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class InputLengthNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract int execute(VirtualFrame frame, Object input);
+
+        @Specialization
+        static int doString(String input) {
+            return input.length();
+        }
+
+        @Specialization(guards = "!isString(input)", limit = "3")
+        int doBuffer(VirtualFrame frame, Object input,
+                        @CachedLibrary("input") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib) {
+            Object buffer = acquireLib.acquireReadonly(input, frame, this);
+            try {
+                return bufferLib.getBufferLength(buffer);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    /**
+     * Slices an input produced by {@link CheckInputNode}. The result is a {@code str} or a
+     * {@code bytes} object.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class GetSliceNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract Object execute(VirtualFrame frame, Object input, int start, int end);
+
+        @Specialization
+        static String doString(String input, int start, int end) {
+            return PythonUtils.substring(input, start, end);
+        }
+
+        @Specialization(guards = "!isString(input)", limit = "3")
+        Object doBuffer(VirtualFrame frame, Object input, int start, int end,
+                        @CachedLibrary("input") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached PythonObjectFactory factory) {
+            Object buffer = acquireLib.acquireReadonly(input, frame, this);
+            try {
+                byte[] bytes = new byte[end - start];
+                bufferLib.readIntoByteArray(buffer, start, bytes, 0, bytes.length);
+                return factory.createBytes(bytes);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    /**
+     * Resolves a group given by index or by name to its index.
+     */
+    public abstract static class GroupIndexNode extends PNodeWithRaise {
+
+        public abstract int execute(VirtualFrame frame, PPattern pattern, Object group);
+
+        @Specialization
+        int doInt(PPattern pattern, int group) {
+            if (group < 0 || group > pattern.getGroups()) {
+                throw raise(IndexError, "no such group");
+            }
+            return group;
+        }
+
+        @Specialization(replaces = "doInt")
+        int doGeneric(VirtualFrame frame, PPattern pattern, Object group,
+                        @Cached PyIndexCheckNode indexCheckNode,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (group == PNone.NO_VALUE) {
+                return 0;
+            }
+            if (indexCheckNode.execute(group)) {
+                return doInt(pattern, asSizeNode.executeLossy(frame, group));
+            }
+            try {
+                int index = findGroup(pattern.getIndexGroup(), castToStringNode.execute(group));
+                if (index >= 0) {
+                    return index;
+                }
+            } catch (CannotCastException e) {
+                // not a group name
+            }
+            throw raise(IndexError, "no such group");
+        }
+
+        @TruffleBoundary
+        private static int findGroup(Object[] indexGroup, String name) {
+            for (int i = 1; i < indexGroup.length; i++) {
+                if (name.equals(indexGroup[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Implements the matching methods of patterns and scanners. Returns a {@link PMatch} or
+     * {@link PNone#NONE}.
+     */
+    public abstract static class PatternSearchNode extends PNodeWithContext {
+
+        public abstract Object execute(VirtualFrame frame, PPattern pattern, Object string, long pos, long endpos, int method, boolean mustAdvance);
+
+        @Specialization
+        static Object search(VirtualFrame frame, PPattern pattern, Object string, long pos, long endpos, int method, boolean mustAdvance,
+                        @Cached CheckInputNode checkInputNode,
+                        @Cached InputLengthNode lengthNode,
+                        @Cached GetSliceNode sliceNode,
+                        @Cached TRegexCompileNode compileNode,
+                        @Cached TRegexExecNode execNode,
+                        @Cached RegexResultNode resultNode,
+                        @Cached ConditionProfile truncateProfile,
+                        @Cached PythonObjectFactory factory) {
+            Object input = checkInputNode.execute(pattern, string);
+            int length = lengthNode.execute(frame, input);
+            int end = clamp(endpos, length);
+            int start = clamp(pos, end);
+            Object subject = input;
+            if (truncateProfile.profile(end != length)) {
+                subject = sliceNode.execute(frame, input, 0, end);
+            }
+            Object compiledRegex = compileNode.execute(frame, pattern, method, mustAdvance);
+            Object result = execNode.execute(frame, compiledRegex, subject, start);
+            if (!resultNode.isMatch(result)) {
+                return PNone.NONE;
+            }
+            return factory.createSREMatch(pattern, string, input, start, end, result);
+        }
+    }
+
+    /**
+     * Implements {@code Pattern.sub} and {@code Pattern.subn}. Returns the new string and the
+     * number of substitutions made.
+     */
+    public abstract static class SubstituteNode extends PNodeWithRaise {
+
+        public abstract Object[] execute(VirtualFrame frame, PPattern pattern, Object repl, Object string, int count);
+
+        @Specialization
+        Object[] sub(VirtualFrame frame, PPattern pattern, Object repl, Object string, int count,
+                        @Cached CheckInputNode checkInputNode,
+                        @Cached InputLengthNode lengthNode,
+                        @Cached TRegexCompileNode compileNode,
+                        @Cached TRegexExecNode execNode,
+                        @Cached RegexResultNode resultNode,
+                        @Cached PyCallableCheckNode callableCheckNode,
+                        @Cached CallNode callNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached ToBytesNode toBytesNode,
+                        @Cached ConditionProfile literalProfile,
+                        @Cached ConditionProfile noneProfile,
+                        @Cached PythonObjectFactory factory) {
+            Object input = checkInputNode.execute(pattern, string);
+            Object filter = repl;
+            boolean literal = false;
+            if (!callableCheckNode.execute(repl)) {
+                Object replInput = checkInputNode.execute(pattern, repl);
+                if (replInput instanceof String) {
+                    literal = PythonUtils.indexOf((String) replInput, '\\') < 0;
+                } else {
+                    literal = indexOf(toBytesNode.execute(frame, replInput), (byte) '\\') < 0;
+                }
+                if (!literal) {
+                    filter = callReFunction("_subx", pattern, repl);
+                    literal = !callableCheckNode.execute(filter);
+                }
+            }
+            int length = lengthNode.execute(frame, input);
+            boolean binary = !(input instanceof String);
+            byte[] bytes = null;
+            byte[] literalBytes = null;
+            StringBuilder sb = null;
+            ByteArrayOutputStream bas = null;
+            String literalStr = null;
+            if (binary) {
+                bytes = toBytesNode.execute(frame, input);
+                bas = BytesUtils.createOutputStream();
+                if (literal) {
+                    literalBytes = toBytesNode.execute(frame, filter);
+                }
+            } else {
+                sb = PythonUtils.newStringBuilder();
+                if (literal) {
+                    literalStr = castToStringNode.execute(filter);
+                }
+            }
+            int n = 0;
+            int pos = 0;
+            boolean mustAdvance = false;
+            while ((count == 0 || n < count) && pos <= length) {
+                Object result = execNode.execute(frame, compileNode.execute(frame, pattern, METHOD_SEARCH, mustAdvance), input, pos);
+                if (!resultNode.isMatch(result)) {
+                    break;
+                }
+                n++;
+                int start = resultNode.getStart(result, 0);
+                int end = resultNode.getEnd(result, 0);
+                if (binary) {
+                    BytesUtils.append(bas, bytes, pos, start - pos);
+                } else {
+                    PythonUtils.append(sb, (String) input, pos, start);
+                }
+                if (literalProfile.profile(literal)) {
+                    if (binary) {
+                        BytesUtils.append(bas, literalBytes, literalBytes.length);
+                    } else {
+                        PythonUtils.append(sb, literalStr);
+                    }
+                } else {
+                    PMatch match = factory.createSREMatch(pattern, string, input, 0, length, result);
+                    Object item = callNode.execute(frame, filter, match);
+                    if (noneProfile.profile(item != PNone.NONE)) {
+                        if (binary) {
+                            byte[] itemBytes = toBytesNode.execute(frame, item);
+                            BytesUtils.append(bas, itemBytes, itemBytes.length);
+                        } else {
+                            try {
+                                PythonUtils.append(sb, castToStringNode.execute(item));
+                            } catch (CannotCastException e) {
+                                throw raise(TypeError, "expected str instance, %p found", item);
+                            }
+                        }
+                    }
+                }
+                pos = end;
+                mustAdvance = start == end;
+            }
+            if (binary) {
+                BytesUtils.append(bas, bytes, pos, length - pos);
+                return new Object[]{factory.createBytes(BytesUtils.toByteArray(bas)), n};
+            } else {
+                PythonUtils.append(sb, (String) input, pos, length);
+                return new Object[]{PythonUtils.sbToString(sb), n};
+            }
+        }
+
+        private static int indexOf(byte[] bytes, byte b) {
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Calls a helper function of the {@code re} module, e.g., {@code re._subx} or
+     * {@code re._expand}.
+     */
+    @TruffleBoundary
+    static Object callReFunction(String name, Object... args) {
+        Object re = AbstractImportNode.importModule("re");
+        return PyObjectCallMethodObjArgs.getUncached().execute(null, re, name, args);
+    }
+}
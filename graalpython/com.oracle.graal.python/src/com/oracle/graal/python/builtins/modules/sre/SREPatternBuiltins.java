@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.FLAG_ASCII;
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.FLAG_LOCALE;
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.FLAG_NAMES;
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.FLAG_UNICODE;
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.METHOD_FULLMATCH;
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.METHOD_MATCH;
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.METHOD_SEARCH;
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.clamp;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.CheckInputNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.GetSliceNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.InputLengthNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.PatternSearchNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.RegexResultNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.SubstituteNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.TRegexCompileNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.TRegexExecNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.mappingproxy.PMappingproxy;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectHashNode;
+import com.oracle.graal.python.lib.PyObjectReprAsJavaStringNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.ArrayBuilder;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PSREPattern)
+public class SREPatternBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SREPatternBuiltinsFactory.getFactories();
+    }
+
+    // called by _sre.py when the pattern is a str or bytes object and TRegex is enabled
+    @Builtin(name = "Pattern", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "pattern", "flags"}, constructsClass = PythonBuiltinClassType.PSREPattern)
+    @ArgumentClinic(name = "flags", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class PatternNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.PatternNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PPattern doNew(VirtualFrame frame, Object cls, Object pattern, int flags,
+                        @Cached TRegexCompileNode compileNode) {
+            PPattern self = factory().createSREPattern(cls, pattern, pattern instanceof PBytes, flags, SRENodes.flagsToString(flags));
+            Object compiledRegex = compileNode.execute(frame, self, METHOD_SEARCH, false);
+            initGroupInfo(self, compiledRegex, factory());
+            return self;
+        }
+
+        @TruffleBoundary
+        private static void initGroupInfo(PPattern self, Object compiledRegex, PythonObjectFactory factory) {
+            InteropLibrary lib = InteropLibrary.getUncached();
+            try {
+                Object[] indexGroup = new Object[lib.asInt(lib.readMember(compiledRegex, "groupCount"))];
+                int inlineFlags = 0;
+                if (compiledRegex instanceof PythonAbstractObject) {
+                    // SRE fallback, see _ExecutablePattern in _sre.py
+                    PDict groupIndex = (PDict) PyObjectGetAttr.getUncached().execute(null, compiledRegex, "groupindex");
+                    HashingStorage storage = groupIndex.getDictStorage();
+                    HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+                    for (Object name : hlib.keys(storage)) {
+                        indexGroup[PyNumberAsSizeNode.getUncached().executeExact(null, hlib.getItem(storage, name))] = CastToJavaStringNode.getUncached().execute(name);
+                    }
+                } else {
+                    Object groups = lib.readMember(compiledRegex, "groups");
+                    if (!lib.isNull(groups)) {
+                        Object names = lib.getMembers(groups);
+                        for (long i = 0; i < lib.getArraySize(names); i++) {
+                            String name = lib.asString(lib.readArrayElement(names, i));
+                            indexGroup[lib.asInt(lib.readMember(groups, name))] = name;
+                        }
+                    }
+                    // flags can also be given inline in the pattern
+                    Object regexFlags = lib.readMember(compiledRegex, "flags");
+                    for (int i = 0; i < FLAG_NAMES.length; i++) {
+                        if (lib.isMemberReadable(regexFlags, FLAG_NAMES[i]) && lib.asBoolean(lib.readMember(regexFlags, FLAG_NAMES[i]))) {
+                            inlineFlags |= 1 << i;
+                        }
+                    }
+                }
+                // groupindex is ordered by group index, like in CPython
+                LinkedHashMap<String, Integer> groupIndex = new LinkedHashMap<>();
+                for (int i = 1; i < indexGroup.length; i++) {
+                    if (indexGroup[i] != null) {
+                        groupIndex.put((String) indexGroup[i], i);
+                    }
+                }
+                PMappingproxy groupIndexProxy = factory.createMappingproxy(factory.createDictFromMap(groupIndex));
+                self.setGroupInfo(inlineFlags, indexGroup.length - 1, groupIndexProxy, indexGroup);
+            } catch (InteropException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    @Builtin(name = "search", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.LongIndex, defaultValue = "Long.MAX_VALUE")
+    @GenerateNodeFactory
+    abstract static class SearchNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.SearchNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object search(VirtualFrame frame, PPattern self, Object string, long pos, long endpos,
+                        @Cached PatternSearchNode searchNode) {
+            return searchNode.execute(frame, self, string, pos, endpos, METHOD_SEARCH, false);
+        }
+    }
+
+    @Builtin(name = "match", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.LongIndex, defaultValue = "Long.MAX_VALUE")
+    @GenerateNodeFactory
+    abstract static class MatchNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.MatchNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object match(VirtualFrame frame, PPattern self, Object string, long pos, long endpos,
+                        @Cached PatternSearchNode searchNode) {
+            return searchNode.execute(frame, self, string, pos, endpos, METHOD_MATCH, false);
+        }
+    }
+
+    @Builtin(name = "fullmatch", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.LongIndex, defaultValue = "Long.MAX_VALUE")
+    @GenerateNodeFactory
+    abstract static class FullMatchNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.FullMatchNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object fullmatch(VirtualFrame frame, PPattern self, Object string, long pos, long endpos,
+                        @Cached PatternSearchNode searchNode) {
+            return searchNode.execute(frame, self, string, pos, endpos, METHOD_FULLMATCH, false);
+        }
+    }
+
+    @Builtin(name = "scanner", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.LongIndex, defaultValue = "Long.MAX_VALUE")
+    @GenerateNodeFactory
+    abstract static class ScannerNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.ScannerNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PSREScanner scanner(PPattern self, Object string, long pos, long endpos,
+                        @Cached CheckInputNode checkInputNode) {
+            checkInputNode.execute(self, string);
+            return factory().createSREScanner(self, string, pos, endpos);
+        }
+    }
+
+    @Builtin(name = "finditer", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.LongIndex, defaultValue = "Long.MAX_VALUE")
+    @GenerateNodeFactory
+    abstract static class FindIterNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.FindIterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object finditer(VirtualFrame frame, PPattern self, Object string, long pos, long endpos,
+                        @Cached CheckInputNode checkInputNode,
+                        @Cached PyObjectGetAttr getAttr) {
+            checkInputNode.execute(self, string);
+            PSREScanner scanner = factory().createSREScanner(self, string, pos, endpos);
+            return factory().createSentinelIterator(getAttr.execute(frame, scanner, "search"), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "findall", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.LongIndex, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.LongIndex, defaultValue = "Long.MAX_VALUE")
+    @GenerateNodeFactory
+    abstract static class FindAllNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.FindAllNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PList findall(VirtualFrame frame, PPattern self, Object string, long pos, long endpos,
+                        @Cached CheckInputNode checkInputNode,
+                        @Cached InputLengthNode lengthNode,
+                        @Cached GetSliceNode sliceNode,
+                        @Cached TRegexCompileNode compileNode,
+                        @Cached TRegexExecNode execNode,
+                        @Cached RegexResultNode resultNode) {
+            Object input = checkInputNode.execute(self, string);
+            int length = lengthNode.execute(frame, input);
+            int end = clamp(endpos, length);
+            int start = clamp(pos, end);
+            Object subject = end != length ? sliceNode.execute(frame, input, 0, end) : input;
+            int groups = self.getGroups();
+            ArrayBuilder<Object> matches = new ArrayBuilder<>();
+            boolean mustAdvance = false;
+            while (start <= end) {
+                Object result = execNode.execute(frame, compileNode.execute(frame, self, METHOD_SEARCH, mustAdvance), subject, start);
+                if (!resultNode.isMatch(result)) {
+                    break;
+                }
+                if (groups == 0) {
+                    matches.add(sliceNode.execute(frame, input, resultNode.getStart(result, 0), resultNode.getEnd(result, 0)));
+                } else if (groups == 1) {
+                    matches.add(getGroupOrEmpty(frame, input, result, 1, resultNode, sliceNode));
+                } else {
+                    Object[] values = new Object[groups];
+                    for (int i = 0; i < groups; i++) {
+                        values[i] = getGroupOrEmpty(frame, input, result, i + 1, resultNode, sliceNode);
+                    }
+                    matches.add(factory().createTuple(values));
+                }
+                int matchStart = resultNode.getStart(result, 0);
+                start = resultNode.getEnd(result, 0);
+                mustAdvance = matchStart == start;
+            }
+            return factory().createList(matches.toArray(new Object[0]));
+        }
+
+        private static Object getGroupOrEmpty(VirtualFrame frame, Object input, Object result, int group, RegexResultNode resultNode, GetSliceNode sliceNode) {
+            int start = resultNode.getStart(result, group);
+            if (start < 0) {
+                return sliceNode.execute(frame, input, 0, 0);
+            }
+            return sliceNode.execute(frame, input, start, resultNode.getEnd(result, group));
+        }
+    }
+
+    @Builtin(name = "sub", minNumOfPositionalArgs = 3, parameterNames = {"$self", "repl", "string", "count"})
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.SubNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object sub(VirtualFrame frame, PPattern self, Object repl, Object string, int count,
+                        @Cached SubstituteNode substituteNode) {
+            return substituteNode.execute(frame, self, repl, string, count)[0];
+        }
+    }
+
+    @Builtin(name = "subn", minNumOfPositionalArgs = 3, parameterNames = {"$self", "repl", "string", "count"})
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class SubnNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.SubnNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PTuple subn(VirtualFrame frame, PPattern self, Object repl, Object string, int count,
+                        @Cached SubstituteNode substituteNode) {
+            return factory().createTuple(substituteNode.execute(frame, self, repl, string, count));
+        }
+    }
+
+    @Builtin(name = "split", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "maxsplit"})
+    @ArgumentClinic(name = "maxsplit", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class SplitNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.SplitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PList split(VirtualFrame frame, PPattern self, Object string, int maxsplit,
+                        @Cached CheckInputNode checkInputNode,
+                        @Cached InputLengthNode lengthNode,
+                        @Cached GetSliceNode sliceNode,
+                        @Cached TRegexCompileNode compileNode,
+                        @Cached TRegexExecNode execNode,
+                        @Cached RegexResultNode resultNode) {
+            Object input = checkInputNode.execute(self, string);
+            int length = lengthNode.execute(frame, input);
+            int groups = self.getGroups();
+            ArrayBuilder<Object> parts = new ArrayBuilder<>();
+            int n = 0;
+            int collectPos = 0;
+            int searchPos = 0;
+            boolean mustAdvance = false;
+            while ((maxsplit == 0 || n < maxsplit) && searchPos <= length) {
+                Object result = execNode.execute(frame, compileNode.execute(frame, self, METHOD_SEARCH, mustAdvance), input, searchPos);
+                if (!resultNode.isMatch(result)) {
+                    break;
+                }
+                n++;
+                int start = resultNode.getStart(result, 0);
+                int end = resultNode.getEnd(result, 0);
+                parts.add(sliceNode.execute(frame, input, collectPos, start));
+                for (int i = 1; i <= groups; i++) {
+                    int groupStart = resultNode.getStart(result, i);
+                    if (groupStart >= 0) {
+                        parts.add(sliceNode.execute(frame, input, groupStart, resultNode.getEnd(result, i)));
+                    } else {
+                        parts.add(PNone.NONE);
+                    }
+                }
+                collectPos = end;
+                searchPos = end;
+                mustAdvance = start == end;
+            }
+            parts.add(sliceNode.execute(frame, input, collectPos, length));
+            return factory().createList(parts.toArray(new Object[0]));
+        }
+    }
+
+    @Builtin(name = "pattern", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class PatternAttrNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object pattern(PPattern self) {
+            return self.getPattern();
+        }
+    }
+
+    @Builtin(name = "flags", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FlagsNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static int flags(PPattern self) {
+            return self.getFlags();
+        }
+    }
+
+    @Builtin(name = "groups", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class GroupsNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static int groups(PPattern self) {
+            return self.getGroups();
+        }
+    }
+
+    @Builtin(name = "groupindex", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class GroupIndexNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PMappingproxy groupindex(PPattern self) {
+            return self.getGroupIndex();
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static String repr(VirtualFrame frame, PPattern self,
+                        @Cached PyObjectReprAsJavaStringNode reprNode) {
+            return formatRepr(reprNode.execute(frame, self.getPattern()), self.getFlags(), self.isBinary());
+        }
+
+        @TruffleBoundary
+        private static String formatRepr(String patternRepr, int patternFlags, boolean binary) {
+            int flags = patternFlags;
+            if (!binary && (flags & (FLAG_LOCALE | FLAG_UNICODE | FLAG_ASCII)) == FLAG_UNICODE) {
+                // the UNICODE flag is implied for str patterns
+                flags &= ~FLAG_UNICODE;
+            }
+            StringBuilder sb = new StringBuilder("re.compile(");
+            sb.append(patternRepr, 0, Math.min(patternRepr.length(), 200));
+            String sep = ", ";
+            for (int i = 0; i < FLAG_NAMES.length; i++) {
+                if ((flags & (1 << i)) != 0) {
+                    sb.append(sep).append("re.").append(FLAG_NAMES[i]);
+                    sep = "|";
+                    flags &= ~(1 << i);
+                }
+            }
+            if (flags != 0) {
+                sb.append(sep).append(flags < 0 ? "-0x" : "0x").append(Integer.toHexString(Math.abs(flags)));
+            }
+            return sb.append(')').toString();
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static boolean eq(VirtualFrame frame, PPattern self, PPattern other,
+                        @Cached PyObjectRichCompareBool.EqNode eqNode) {
+            return self == other || (self.getFlags() == other.getFlags() && eqNode.execute(frame, self.getPattern(), other.getPattern()));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object doOther(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static long hash(VirtualFrame frame, PPattern self,
+                        @Cached PyObjectHashNode hashNode) {
+            return hashNode.execute(frame, self.getPattern()) * 31 ^ self.getFlags();
+        }
+    }
+
+    @Builtin(name = __COPY__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PPattern copy(PPattern self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "__deepcopy__", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static PPattern deepcopy(PPattern self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+}
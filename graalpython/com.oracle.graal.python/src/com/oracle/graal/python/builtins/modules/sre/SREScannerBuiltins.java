@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.METHOD_MATCH;
+import static com.oracle.graal.python.builtins.modules.sre.SRENodes.METHOD_SEARCH;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.CheckInputNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.InputLengthNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.PatternSearchNode;
+import com.oracle.graal.python.builtins.modules.sre.SRENodes.RegexResultNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PSREScanner)
+public class SREScannerBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SREScannerBuiltinsFactory.getFactories();
+    }
+
+    abstract static class ScannerMatchSearchNode extends PNodeWithContext {
+
+        public abstract Object execute(VirtualFrame frame, PSREScanner self, int method);
+
+        @Specialization
+        static Object matchSearch(VirtualFrame frame, PSREScanner self, int method,
+                        @Cached CheckInputNode checkInputNode,
+                        @Cached InputLengthNode lengthNode,
+                        @Cached PatternSearchNode searchNode,
+                        @Cached RegexResultNode resultNode) {
+            PPattern pattern = self.getPattern();
+            if (self.getPos() > lengthNode.execute(frame, checkInputNode.execute(pattern, self.getString()))) {
+                return PNone.NONE;
+            }
+            Object match = searchNode.execute(frame, pattern, self.getString(), self.getPos(), self.getEndpos(), method, self.isMustAdvance());
+            if (match == PNone.NONE) {
+                self.advance(self.getPos() + 1, self.isMustAdvance());
+            } else {
+                Object result = ((PMatch) match).getResult();
+                int start = resultNode.getStart(result, 0);
+                int end = resultNode.getEnd(result, 0);
+                self.advance(end, start == end);
+            }
+            return match;
+        }
+    }
+
+    @Builtin(name = "match", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class MatchNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object match(VirtualFrame frame, PSREScanner self,
+                        @Cached ScannerMatchSearchNode matchSearchNode) {
+            return matchSearchNode.execute(frame, self, METHOD_MATCH);
+        }
+    }
+
+    @Builtin(name = "search", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SearchNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object search(VirtualFrame frame, PSREScanner self,
+                        @Cached ScannerMatchSearchNode matchSearchNode) {
+            return matchSearchNode.execute(frame, self, METHOD_SEARCH);
+        }
+    }
+
+    @Builtin(name = "pattern", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class PatternNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PPattern pattern(PSREScanner self) {
+            return self.getPattern();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.struct;
+
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_OUT_OF_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_BYTE_FORMAT_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_FORMAT_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_INT_TOO_LARGE_TO_CONVERT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_SHORT_FORMAT_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_UBYTE_FORMAT_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_USHORT_FORMAT_RANGE;
+
+import com.oracle.graal.python.util.NumericSupport;
+
+/**
+ * One entry of a compiled struct format, the equivalent of CPython's {@code formatcode}: the
+ * format character {@link #def} repeated {@link #repeat} times starting at {@link #offset}. For the
+ * string formats {@code 's'} and {@code 'p'}, {@link #size} is the length of the string and the
+ * repeat count is always 1.
+ *
+ * All fields are final, so they are constants in compiled code once the format is.
+ */
+public final class FormatCode {
+
+    public enum FormatDef {
+        CHAR('c', 1, 1),
+        BYTE('b', 1, 1),
+        UBYTE('B', 1, 1),
+        BOOL('?', 1, 1),
+        SHORT('h', 2, 2),
+        USHORT('H', 2, 2),
+        INT('i', 4, 4),
+        UINT('I', 4, 4),
+        // we assume an LP64 platform, like the rest of our native interface does
+        LONG('l', 8, 4),
+        ULONG('L', 8, 4),
+        SSIZE_T('n', 8, -1),
+        SIZE_T('N', 8, -1),
+        LONG_LONG('q', 8, 8),
+        ULONG_LONG('Q', 8, 8),
+        HALF_FLOAT('e', 2, 2),
+        FLOAT('f', 4, 4),
+        DOUBLE('d', 8, 8),
+        VOID_P('P', 8, -1),
+        STRING('s', 1, 1),
+        PASCAL_STRING('p', 1, 1),
+        PAD('x', 1, 1);
+
+        public final char formatChar;
+        public final int nativeSize;
+        /** The size in the standard modes, or -1 if the format is only available natively. */
+        public final int standardSize;
+
+        FormatDef(char formatChar, int nativeSize, int standardSize) {
+            this.formatChar = formatChar;
+            this.nativeSize = nativeSize;
+            this.standardSize = standardSize;
+        }
+
+        public static FormatDef fromChar(char c) {
+            for (FormatDef def : values()) {
+                if (def.formatChar == c) {
+                    return def;
+                }
+            }
+            return null;
+        }
+
+        public boolean isInteger() {
+            switch (this) {
+                case BYTE:
+                case UBYTE:
+                case SHORT:
+                case USHORT:
+                case INT:
+                case UINT:
+                case LONG:
+                case ULONG:
+                case SSIZE_T:
+                case SIZE_T:
+                case LONG_LONG:
+                case ULONG_LONG:
+                case VOID_P:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        public boolean isUnsigned() {
+            switch (this) {
+                case UBYTE:
+                case USHORT:
+                case UINT:
+                case ULONG:
+                case SIZE_T:
+                case ULONG_LONG:
+                case VOID_P:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        public boolean isFloatingPoint() {
+            return this == HALF_FLOAT || this == FLOAT || this == DOUBLE;
+        }
+
+        public boolean isBytes() {
+            return this == CHAR || this == STRING || this == PASCAL_STRING;
+        }
+    }
+
+    public final FormatDef def;
+    public final int offset;
+    public final int size;
+    public final int repeat;
+    public final boolean nativeMode;
+    public final NumericSupport numericSupport;
+
+    /*
+     * How integers are converted, mirroring the different np_*, bp_* and lp_* functions of
+     * CPython. A value that does not fit into the C type used for the conversion (long or unsigned
+     * long) raises 'conversionError', a value that fits but is not in [min, max] raises
+     * 'rangeError'. For unsigned 64 bit values, min and max are not used.
+     */
+    public final boolean unsigned;
+    public final long min;
+    public final long max;
+    public final String conversionError;
+    public final String rangeError;
+
+    FormatCode(FormatDef def, int offset, int size, int repeat, boolean nativeMode, boolean littleEndian) {
+        this.def = def;
+        this.offset = offset;
+        this.size = size;
+        this.repeat = repeat;
+        this.nativeMode = nativeMode;
+        this.numericSupport = littleEndian ? NumericSupport.littleEndian() : NumericSupport.bigEndian();
+
+        String fmtChar = String.valueOf(def.formatChar);
+        String conversion = STRUCT_ARG_OUT_OF_RANGE;
+        boolean isUnsigned = false;
+        long lo = Long.MIN_VALUE;
+        long hi = Long.MAX_VALUE;
+        String range = null;
+        switch (def) {
+            case BYTE:
+                lo = Byte.MIN_VALUE;
+                hi = Byte.MAX_VALUE;
+                range = STRUCT_BYTE_FORMAT_RANGE;
+                break;
+            case UBYTE:
+                lo = 0;
+                hi = 0xFF;
+                range = STRUCT_UBYTE_FORMAT_RANGE;
+                break;
+            case SHORT:
+            case USHORT:
+            case INT:
+            case UINT:
+            case LONG:
+            case ULONG:
+                if (size == 8) {
+                    // native 'l' and 'L'
+                    isUnsigned = def == FormatDef.ULONG;
+                    break;
+                }
+                boolean unsignedFormat = def == FormatDef.USHORT || def == FormatDef.UINT || def == FormatDef.ULONG;
+                if (nativeMode && size == 2) {
+                    // np_short and np_ushort go through a C long
+                    lo = unsignedFormat ? 0 : Short.MIN_VALUE;
+                    hi = unsignedFormat ? 0xFFFF : Short.MAX_VALUE;
+                    range = unsignedFormat ? STRUCT_USHORT_FORMAT_RANGE : STRUCT_SHORT_FORMAT_RANGE;
+                } else {
+                    isUnsigned = unsignedFormat;
+                    lo = unsignedFormat ? 0 : -(1L << (size * 8 - 1));
+                    hi = unsignedFormat ? (1L << (size * 8)) - 1 : (1L << (size * 8 - 1)) - 1;
+                    range = String.format(STRUCT_FORMAT_RANGE, fmtChar, lo, hi);
+                }
+                break;
+            case SIZE_T:
+                isUnsigned = true;
+                break;
+            case LONG_LONG:
+            case ULONG_LONG:
+                isUnsigned = def == FormatDef.ULONG_LONG;
+                if (!nativeMode) {
+                    // bp_longlong and lp_longlong convert directly from the Python int
+                    conversion = STRUCT_INT_TOO_LARGE_TO_CONVERT;
+                }
+                break;
+            case VOID_P:
+                // PyLong_AsVoidPtr accepts both signed and unsigned values
+                conversion = STRUCT_INT_TOO_LARGE_TO_CONVERT;
+                break;
+            default:
+                break;
+        }
+        this.unsigned = isUnsigned;
+        this.min = lo;
+        this.max = hi;
+        this.conversionError = conversion;
+        this.rangeError = range;
+    }
+
+    /**
+     * Number of bytes taken by all repetitions of this code.
+     */
+    public int totalSize() {
+        return size * repeat;
+    }
+
+    public boolean isInteger() {
+        return def.isInteger();
+    }
+
+    public boolean isFloatingPoint() {
+        return def.isFloatingPoint();
+    }
+
+    public boolean isBytes() {
+        return def.isBytes();
+    }
+
+    public boolean isBool() {
+        return def == FormatDef.BOOL;
+    }
+}
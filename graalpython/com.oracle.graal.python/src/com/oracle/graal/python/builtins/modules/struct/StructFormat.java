@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.struct;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.StructError;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_BAD_CHAR_IN_FORMAT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_EMBEDDED_NULL_CHARACTER;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_REPEAT_COUNT_WITHOUT_FMT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_SIZE_TOO_LONG;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+import com.oracle.graal.python.builtins.modules.struct.FormatCode.FormatDef;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A compiled struct format. Instances are immutable and can therefore be cached in the AST, which
+ * allows {@link StructNodes} to specialize the packing and unpacking on the format.
+ */
+public final class StructFormat {
+    /** The format of a {@code Struct} that was not initialized yet. */
+    public static final StructFormat EMPTY = new StructFormat("", new FormatCode[0], 0, 0);
+
+    private final String format;
+    @CompilationFinal(dimensions = 1) private final FormatCode[] codes;
+    private final int size;
+    private final int len;
+
+    private StructFormat(String format, FormatCode[] codes, int size, int len) {
+        this.format = format;
+        this.codes = codes;
+        this.size = size;
+        this.len = len;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public FormatCode[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * The number of bytes of a packed record.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The number of values of a record.
+     */
+    public int getLen() {
+        return len;
+    }
+
+    /**
+     * Compiles the format, which is a str decoded from ASCII or a bytes object decoded from
+     * Latin-1, like {@code prepare_s} in CPython.
+     */
+    @TruffleBoundary
+    public static StructFormat compile(PNodeWithRaise node, String format) {
+        if (format.indexOf('\0') >= 0) {
+            throw node.raise(StructError, STRUCT_EMBEDDED_NULL_CHARACTER);
+        }
+        int pos = 0;
+        boolean nativeMode = false;
+        boolean littleEndian = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+        char first = format.isEmpty() ? '\0' : format.charAt(0);
+        switch (first) {
+            case '<':
+                littleEndian = true;
+                pos++;
+                break;
+            case '>':
+            case '!':
+                littleEndian = false;
+                pos++;
+                break;
+            case '=':
+                pos++;
+                break;
+            case '@':
+                pos++;
+                nativeMode = true;
+                break;
+            default:
+                nativeMode = true;
+                break;
+        }
+
+        ArrayList<FormatCode> codes = new ArrayList<>();
+        long size = 0;
+        int len = 0;
+        while (pos < format.length()) {
+            char c = format.charAt(pos++);
+            if (c == ' ' || (c >= '\t' && c <= '\r')) {
+                continue;
+            }
+            long num = 1;
+            if ('0' <= c && c <= '9') {
+                num = c - '0';
+                while (true) {
+                    if (pos >= format.length()) {
+                        throw node.raise(StructError, STRUCT_REPEAT_COUNT_WITHOUT_FMT);
+                    }
+                    c = format.charAt(pos++);
+                    if (c < '0' || c > '9') {
+                        break;
+                    }
+                    num = num * 10 + (c - '0');
+                    if (num > Integer.MAX_VALUE) {
+                        throw node.raise(StructError, STRUCT_SIZE_TOO_LONG);
+                    }
+                }
+            }
+
+            FormatDef def = FormatDef.fromChar(c);
+            int itemSize = def == null ? -1 : (nativeMode ? def.nativeSize : def.standardSize);
+            if (itemSize < 0) {
+                throw node.raise(StructError, STRUCT_BAD_CHAR_IN_FORMAT);
+            }
+            if (nativeMode) {
+                // native mode aligns every item to its own size
+                size = align(size, def, itemSize);
+            }
+            if (size + num * itemSize > Integer.MAX_VALUE) {
+                throw node.raise(StructError, STRUCT_SIZE_TOO_LONG);
+            }
+            switch (def) {
+                case STRING:
+                case PASCAL_STRING:
+                    codes.add(new FormatCode(def, (int) size, (int) num, 1, nativeMode, littleEndian));
+                    len++;
+                    break;
+                case PAD:
+                    break;
+                default:
+                    if (num > 0) {
+                        codes.add(new FormatCode(def, (int) size, itemSize, (int) num, nativeMode, littleEndian));
+                        len += num;
+                    }
+                    break;
+            }
+            size += num * itemSize;
+        }
+        return new StructFormat(format, codes.toArray(new FormatCode[codes.size()]), (int) size, len);
+    }
+
+    private static long align(long size, FormatDef def, int itemSize) {
+        switch (def) {
+            case CHAR:
+            case BYTE:
+            case UBYTE:
+            case BOOL:
+            case STRING:
+            case PASCAL_STRING:
+            case PAD:
+                return size;
+            default:
+                long extra = (itemSize - 1) - (size - 1 + itemSize) % itemSize;
+                return size + extra;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.struct;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.struct.StructNodes.CompileFormatNode;
+import com.oracle.graal.python.builtins.modules.struct.StructNodes.StructIterUnpackNode;
+import com.oracle.graal.python.builtins.modules.struct.StructNodes.StructPackIntoNode;
+import com.oracle.graal.python.builtins.modules.struct.StructNodes.StructPackNode;
+import com.oracle.graal.python.builtins.modules.struct.StructNodes.StructUnpackFromNode;
+import com.oracle.graal.python.builtins.modules.struct.StructNodes.StructUnpackNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.object.HiddenKey;
+
+/**
+ * Implements {@code _struct} in Java. The module level functions compile their format argument
+ * once and share it through a cache, so that they end up in the same specializations of
+ * {@link StructNodes} as the methods of a {@code Struct} object.
+ */
+@CoreFunctions(defineModule = "_struct")
+public class StructModuleBuiltins extends PythonBuiltins {
+
+    private static final HiddenKey FORMAT_CACHE_KEY = new HiddenKey("format_cache");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return StructModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        core.lookupBuiltinModule("_struct").setAttribute(FORMAT_CACHE_KEY, new FormatCache());
+    }
+
+    /**
+     * The equivalent of the {@code cache} dict in CPython's {@code _struct.c}, but evicting the
+     * least recently used format instead of clearing everything when it is full.
+     */
+    static final class FormatCache extends LinkedHashMap<String, StructFormat> {
+        private static final long serialVersionUID = 3470982541734598721L;
+        private static final int MAXCACHE = 100;
+
+        FormatCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StructFormat> eldest) {
+            return size() > MAXCACHE;
+        }
+
+        @TruffleBoundary
+        StructFormat lookup(String format) {
+            return get(format);
+        }
+
+        @TruffleBoundary
+        void add(String format, StructFormat compiled) {
+            put(format, compiled);
+        }
+
+        @TruffleBoundary
+        void removeAll() {
+            clear();
+        }
+    }
+
+    /**
+     * Gets the compiled format for the format argument of the module level functions. Constant
+     * format strings are cached in the AST, everything else goes through the {@link FormatCache}.
+     * Unlike CPython, only str formats are cached, bytes formats are compiled on every call.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class GetStructFormatNode extends PNodeWithRaise {
+
+        abstract StructFormat execute(VirtualFrame frame, PythonModule module, Object format);
+
+        @Specialization(guards = {"format == cachedFormat", "isAscii(cachedFormat)"}, limit = "3")
+        StructFormat doCached(@SuppressWarnings("unused") PythonModule module, @SuppressWarnings("unused") String format,
+                        @Cached("format") String cachedFormat,
+                        @Cached("compile(cachedFormat)") StructFormat compiled) {
+            return compiled;
+        }
+
+        @Specialization(replaces = "doCached")
+        static StructFormat doGeneric(VirtualFrame frame, PythonModule module, Object format,
+                        @Cached ReadAttributeFromObjectNode readNode,
+                        @Cached CastToJavaStringNode castNode,
+                        @Cached CompileFormatNode compileFormatNode) {
+            FormatCache cache = (FormatCache) readNode.execute(module, FORMAT_CACHE_KEY);
+            String key = PGuards.isString(format) ? castNode.execute(format) : null;
+            if (key != null) {
+                StructFormat cached = cache.lookup(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            StructFormat compiled = compileFormatNode.execute(frame, format);
+            if (key != null) {
+                cache.add(key, compiled);
+            }
+            return compiled;
+        }
+
+        StructFormat compile(String format) {
+            return StructFormat.compile(this, format);
+        }
+
+        static boolean isAscii(String format) {
+            for (int i = 0; i < format.length(); i++) {
+                if (format.charAt(i) > 127) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Builtin(name = "pack", minNumOfPositionalArgs = 2, takesVarArgs = true, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class PackNode extends PythonBuiltinNode {
+
+        @Specialization
+        static PBytes pack(VirtualFrame frame, PythonModule self, Object format, Object[] args,
+                        @Cached GetStructFormatNode getFormatNode,
+                        @Cached StructPackNode packNode) {
+            return packNode.execute(frame, getFormatNode.execute(frame, self, format), args);
+        }
+    }
+
+    @Builtin(name = "pack_into", minNumOfPositionalArgs = 2, takesVarArgs = true, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class PackIntoNode extends PythonBuiltinNode {
+
+        @Specialization
+        static PNone packInto(VirtualFrame frame, PythonModule self, Object format, Object[] args,
+                        @Cached GetStructFormatNode getFormatNode,
+                        @Cached StructPackIntoNode packIntoNode) {
+            packIntoNode.execute(frame, getFormatNode.execute(frame, self, format), args);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unpack", minNumOfPositionalArgs = 3, parameterNames = {"$mod", "format", "buffer"}, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class UnpackNode extends PythonTernaryBuiltinNode {
+
+        @Specialization
+        static PTuple unpack(VirtualFrame frame, PythonModule self, Object format, Object buffer,
+                        @Cached GetStructFormatNode getFormatNode,
+                        @Cached StructUnpackNode unpackNode) {
+            return unpackNode.execute(frame, getFormatNode.execute(frame, self, format), buffer);
+        }
+    }
+
+    @Builtin(name = "unpack_from", minNumOfPositionalArgs = 3, parameterNames = {"$mod", "format", "buffer", "offset"}, declaresExplicitSelf = true)
+    @ArgumentClinic(name = "offset", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class UnpackFromNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StructModuleBuiltinsClinicProviders.UnpackFromNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PTuple unpackFrom(VirtualFrame frame, PythonModule self, Object format, Object buffer, int offset,
+                        @Cached GetStructFormatNode getFormatNode,
+                        @Cached StructUnpackFromNode unpackFromNode) {
+            return unpackFromNode.execute(frame, getFormatNode.execute(frame, self, format), buffer, offset);
+        }
+    }
+
+    @Builtin(name = "iter_unpack", minNumOfPositionalArgs = 3, parameterNames = {"$mod", "format", "buffer"}, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class IterUnpackNode extends PythonTernaryBuiltinNode {
+
+        @Specialization
+        static PStructUnpackIterator iterUnpack(VirtualFrame frame, PythonModule self, Object format, Object buffer,
+                        @Cached GetStructFormatNode getFormatNode,
+                        @Cached StructIterUnpackNode iterUnpackNode) {
+            return iterUnpackNode.execute(frame, getFormatNode.execute(frame, self, format), buffer);
+        }
+    }
+
+    @Builtin(name = "calcsize", minNumOfPositionalArgs = 2, parameterNames = {"$mod", "format"}, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class CalcSizeNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static int calcSize(VirtualFrame frame, PythonModule self, Object format,
+                        @Cached GetStructFormatNode getFormatNode) {
+            return getFormatNode.execute(frame, self, format).getSize();
+        }
+    }
+
+    @Builtin(name = "_clearcache", minNumOfPositionalArgs = 1, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class ClearCacheNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PNone clearCache(PythonModule self,
+                        @Cached ReadAttributeFromObjectNode readNode) {
+            ((FormatCache) readNode.execute(self, FORMAT_CACHE_KEY)).removeAll();
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.struct;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.StructError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.nodes.ErrorMessages.FLOAT_TO_LARGE_TO_PACK_WITH_S_FMT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_FOR_S_MUST_BE_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_MUST_BE_STR_OR_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_NOT_AN_INTEGER;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_NOT_A_FLOAT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_CHAR_FORMAT_REQUIRES_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_INT_TOO_LARGE_TO_CONVERT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ITER_UNPACK_LENGTH_ZERO;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ITER_UNPACK_REQUIRES_MULTIPLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_NOT_ENOUGH_DATA_TO_UNPACK;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_NO_SPACE_TO_PACK;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_OFFSET_OUT_OF_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_EXPECTED_N_ITEMS;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_EXPECTED_BUFFER;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_EXPECTED_N_ITEMS;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_EXPECTED_OFFSET;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_REQUIRES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_UNPACK_FROM_REQUIRES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_UNPACK_REQUIRES_BUFFER_OF_D_BYTES;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.modules.struct.FormatCode.FormatDef;
+import com.oracle.graal.python.builtins.modules.struct.StructNodesFactory.PackValueNodeGen;
+import com.oracle.graal.python.builtins.modules.struct.StructNodesFactory.UnpackValueNodeGen;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyIndexCheckNode;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.lib.PyNumberIndexNode;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+
+/**
+ * Nodes packing and unpacking values according to a compiled {@link StructFormat}. The format is
+ * usually constant at a given call site, so {@link PackNode} and {@link UnpackNode} cache it and
+ * create one value node per format code. Each of those value nodes then only ever sees a single
+ * format character and specializes accordingly.
+ */
+public final class StructNodes {
+
+    /** Formats with more codes than this are handled by a single generic value node. */
+    static final int MAX_EXPLODED_CODES = 8;
+
+    private StructNodes() {
+    }
+
+    public abstract static class PackValueNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, FormatCode code, Object value, byte[] buffer, int offset);
+
+        @Specialization(guards = "code.isInteger()")
+        void packInteger(VirtualFrame frame, FormatCode code, Object value, byte[] buffer, int offset,
+                        @Cached PyIndexCheckNode indexCheckNode,
+                        @Cached PyNumberIndexNode indexNode) {
+            if (!indexCheckNode.execute(value)) {
+                throw raise(StructError, STRUCT_ARG_NOT_AN_INTEGER);
+            }
+            Object index = indexNode.execute(frame, value);
+            long bits;
+            if (index instanceof Integer) {
+                bits = checkLong(code, (int) index);
+            } else if (index instanceof Long) {
+                bits = checkLong(code, (long) index);
+            } else if (index instanceof Boolean) {
+                bits = (boolean) index ? 1 : 0;
+            } else {
+                bits = checkBigInteger(code, ((PInt) index).getValue());
+            }
+            code.numericSupport.putLong(buffer, offset, bits, code.size);
+        }
+
+        @Specialization(guards = "code.isFloatingPoint()")
+        void packFloat(VirtualFrame frame, FormatCode code, Object value, byte[] buffer, int offset,
+                        @Cached PyFloatAsDoubleNode asDoubleNode) {
+            double d;
+            try {
+                d = asDoubleNode.execute(frame, value);
+            } catch (PException e) {
+                throw raise(StructError, STRUCT_ARG_NOT_A_FLOAT);
+            }
+            switch (code.def) {
+                case HALF_FLOAT:
+                    code.numericSupport.putHalfFloat(this, buffer, offset, d);
+                    break;
+                case FLOAT:
+                    float f = (float) d;
+                    // only the standard modes check for overflow, native mode just casts
+                    if (!code.nativeMode && Float.isInfinite(f) && !Double.isInfinite(d)) {
+                        throw raise(OverflowError, FLOAT_TO_LARGE_TO_PACK_WITH_S_FMT, "f");
+                    }
+                    code.numericSupport.putFloat(buffer, offset, f);
+                    break;
+                default:
+                    code.numericSupport.putDouble(buffer, offset, d);
+                    break;
+            }
+        }
+
+        @Specialization(guards = "code.isBool()")
+        static void packBool(VirtualFrame frame, @SuppressWarnings("unused") FormatCode code, Object value, byte[] buffer, int offset,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            buffer[offset] = isTrueNode.execute(frame, value) ? (byte) 1 : (byte) 0;
+        }
+
+        @Specialization(guards = "code.isBytes()")
+        void packBytes(FormatCode code, Object value, byte[] buffer, int offset,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib) {
+            if (code.def == FormatDef.CHAR) {
+                if (!(value instanceof PBytes) || bufferLib.getBufferLength(value) != 1) {
+                    throw raise(StructError, STRUCT_CHAR_FORMAT_REQUIRES_BYTES);
+                }
+                buffer[offset] = bufferLib.readByte(value, 0);
+                return;
+            }
+            if (!(value instanceof PBytesLike)) {
+                throw raise(StructError, STRUCT_ARG_FOR_S_MUST_BE_BYTES, String.valueOf(code.def.formatChar));
+            }
+            int len = bufferLib.getBufferLength(value);
+            if (code.def == FormatDef.STRING) {
+                bufferLib.readIntoByteArray(value, 0, buffer, offset, Math.min(len, code.size));
+            } else if (code.size > 0) {
+                // pascal string: a length byte followed by at most size - 1 bytes of data
+                int n = Math.min(len, code.size - 1);
+                bufferLib.readIntoByteArray(value, 0, buffer, offset + 1, n);
+                buffer[offset] = (byte) Math.min(n, 255);
+            }
+        }
+
+        private long checkLong(FormatCode code, long value) {
+            if (code.unsigned && value < 0) {
+                throw raiseConversionError(code);
+            }
+            if (code.rangeError != null && (value < code.min || value > code.max)) {
+                throw raise(StructError, code.rangeError);
+            }
+            return value;
+        }
+
+        private long checkBigInteger(FormatCode code, BigInteger value) {
+            int bitLength = PInt.bitLength(value);
+            if (bitLength < Long.SIZE) {
+                return checkLong(code, PInt.longValue(value));
+            }
+            if ((code.unsigned || code.def == FormatDef.VOID_P) && value.signum() > 0 && bitLength == Long.SIZE) {
+                // fits into an unsigned 64 bit value, but not into a long
+                if (code.rangeError != null) {
+                    throw raise(StructError, code.rangeError);
+                }
+                return PInt.longValue(value);
+            }
+            throw raiseConversionError(code);
+        }
+
+        private PException raiseConversionError(FormatCode code) {
+            if (code.conversionError == STRUCT_INT_TOO_LARGE_TO_CONVERT) {
+                // these formats use the C API conversion functions directly
+                return raise(OverflowError, code.conversionError);
+            }
+            return raise(StructError, code.conversionError);
+        }
+    }
+
+    public abstract static class UnpackValueNode extends PNodeWithContext {
+
+        public abstract Object execute(FormatCode code, byte[] buffer, int offset);
+
+        @Specialization(guards = "code.isInteger()")
+        static Object unpackInteger(FormatCode code, byte[] buffer, int offset,
+                        @Cached PythonObjectFactory factory) {
+            if (code.def.isUnsigned()) {
+                long value = code.numericSupport.getLongUnsigned(buffer, offset, code.size);
+                if (value < 0) {
+                    // only possible for 8 byte formats
+                    return factory.createInt(PInt.longToUnsignedBigInteger(value));
+                }
+                return narrow(value);
+            }
+            return narrow(code.numericSupport.getLong(buffer, offset, code.size));
+        }
+
+        @Specialization(guards = "code.isFloatingPoint()")
+        static double unpackFloat(FormatCode code, byte[] buffer, int offset) {
+            return code.numericSupport.getDouble(buffer, offset, code.size);
+        }
+
+        @Specialization(guards = "code.isBool()")
+        static boolean unpackBool(@SuppressWarnings("unused") FormatCode code, byte[] buffer, int offset) {
+            return buffer[offset] != 0;
+        }
+
+        @Specialization(guards = "code.isBytes()")
+        static Object unpackBytes(FormatCode code, byte[] buffer, int offset,
+                        @Cached PythonObjectFactory factory) {
+            int start = offset;
+            int len = code.size;
+            if (code.def == FormatDef.PASCAL_STRING) {
+                if (code.size == 0) {
+                    return factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+                }
+                start = offset + 1;
+                len = Math.min(buffer[offset] & 0xFF, code.size - 1);
+            }
+            // always copy, the buffer may belong to a mutable object
+            return factory.createBytes(PythonUtils.arrayCopyOfRange(buffer, start, start + len));
+        }
+
+        private static Object narrow(long value) {
+            if (PInt.isIntRange(value)) {
+                return (int) value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Packs {@code format.getLen()} values starting at {@code values[valuesStart]} into
+     * {@code buffer} at {@code bufferOffset}. The caller checks the number of values and the size
+     * of the buffer, and is responsible for zeroing the padding bytes.
+     */
+    public abstract static class PackNode extends PNodeWithContext {
+
+        public abstract void execute(VirtualFrame frame, StructFormat format, Object[] values, int valuesStart, byte[] buffer, int bufferOffset);
+
+        @Specialization(guards = {"format == cachedFormat", "cachedFormat.getCodes().length <= MAX_EXPLODED_CODES"}, limit = "3")
+        @ExplodeLoop
+        static void doCached(VirtualFrame frame, @SuppressWarnings("unused") StructFormat format, Object[] values, int valuesStart, byte[] buffer, int bufferOffset,
+                        @Cached("format") StructFormat cachedFormat,
+                        @Cached("createPackNodes(cachedFormat)") PackValueNode[] packNodes) {
+            FormatCode[] codes = cachedFormat.getCodes();
+            int valueIndex = valuesStart;
+            for (int i = 0; i < codes.length; i++) {
+                valueIndex = packCode(frame, packNodes[i], codes[i], values, valueIndex, buffer, bufferOffset);
+            }
+        }
+
+        @Specialization(replaces = "doCached")
+        static void doGeneric(VirtualFrame frame, StructFormat format, Object[] values, int valuesStart, byte[] buffer, int bufferOffset,
+                        @Cached PackValueNode packNode) {
+            int valueIndex = valuesStart;
+            for (FormatCode code : format.getCodes()) {
+                valueIndex = packCode(frame, packNode, code, values, valueIndex, buffer, bufferOffset);
+            }
+        }
+
+        private static int packCode(VirtualFrame frame, PackValueNode packNode, FormatCode code, Object[] values, int valueIndex, byte[] buffer, int bufferOffset) {
+            int pos = bufferOffset + code.offset;
+            for (int j = 0; j < code.repeat; j++) {
+                packNode.execute(frame, code, values[valueIndex + j], buffer, pos);
+                pos += code.size;
+            }
+            return valueIndex + code.repeat;
+        }
+
+        static PackValueNode[] createPackNodes(StructFormat format) {
+            PackValueNode[] nodes = new PackValueNode[format.getCodes().length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = PackValueNodeGen.create();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Unpacks {@code format.getLen()} values from {@code buffer} starting at {@code offset}. The
+     * caller checks that the buffer is large enough.
+     */
+    public abstract static class UnpackNode extends PNodeWithContext {
+
+        public abstract Object[] execute(StructFormat format, byte[] buffer, int offset);
+
+        @Specialization(guards = {"format == cachedFormat", "cachedFormat.getCodes().length <= MAX_EXPLODED_CODES"}, limit = "3")
+        @ExplodeLoop
+        static Object[] doCached(@SuppressWarnings("unused") StructFormat format, byte[] buffer, int offset,
+                        @Cached("format") StructFormat cachedFormat,
+                        @Cached("createUnpackNodes(cachedFormat)") UnpackValueNode[] unpackNodes) {
+            FormatCode[] codes = cachedFormat.getCodes();
+            Object[] result = new Object[cachedFormat.getLen()];
+            int resultIndex = 0;
+            for (int i = 0; i < codes.length; i++) {
+                resultIndex = unpackCode(unpackNodes[i], codes[i], buffer, offset, result, resultIndex);
+            }
+            return result;
+        }
+
+        @Specialization(replaces = "doCached")
+        static Object[] doGeneric(StructFormat format, byte[] buffer, int offset,
+                        @Cached UnpackValueNode unpackNode) {
+            Object[] result = new Object[format.getLen()];
+            int resultIndex = 0;
+            for (FormatCode code : format.getCodes()) {
+                resultIndex = unpackCode(unpackNode, code, buffer, offset, result, resultIndex);
+            }
+            return result;
+        }
+
+        private static int unpackCode(UnpackValueNode unpackNode, FormatCode code, byte[] buffer, int offset, Object[] result, int resultIndex) {
+            int pos = offset + code.offset;
+            for (int j = 0; j < code.repeat; j++) {
+                result[resultIndex + j] = unpackNode.execute(code, buffer, pos);
+                pos += code.size;
+            }
+            return resultIndex + code.repeat;
+        }
+
+        static UnpackValueNode[] createUnpackNodes(StructFormat format) {
+            UnpackValueNode[] nodes = new UnpackValueNode[format.getCodes().length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = UnpackValueNodeGen.create();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Compiles the argument of {@code Struct(format)}, which must be an ASCII str or a bytes
+     * object.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class CompileFormatNode extends PNodeWithRaise {
+
+        public abstract StructFormat execute(VirtualFrame frame, Object format);
+
+        @Specialization(guards = "isString(format)")
+        StructFormat doString(VirtualFrame frame, Object format,
+                        @Cached CastToJavaStringNode castNode,
+                        @Cached PConstructAndRaiseNode constructAndRaiseNode) {
+            String str = castNode.execute(format);
+            for (int i = 0; i < str.length(); i++) {
+                if (str.charAt(i) > 127) {
+                    throw constructAndRaiseNode.raiseUnicodeEncodeError(frame, "ascii", str, i, i + 1, "ordinal not in range(128)");
+                }
+            }
+            return StructFormat.compile(this, str);
+        }
+
+        @Specialization
+        StructFormat doBytes(PBytes format,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib) {
+            return StructFormat.compile(this, decodeLatin1(bufferLib.getInternalOrCopiedByteArray(format), bufferLib.getBufferLength(format)));
+        }
+
+        @Fallback
+        StructFormat doOther(Object format) {
+            throw raise(TypeError, STRUCT_ARG_MUST_BE_STR_OR_BYTES, format);
+        }
+
+        @TruffleBoundary
+        private static String decodeLatin1(byte[] bytes, int len) {
+            return new String(bytes, 0, len, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * Unpacks one record at {@code offset} of an acquired buffer, reading directly from the
+     * backing array if there is one.
+     */
+    static Object[] unpackBuffer(StructFormat format, Object buffer, int offset, PythonBufferAccessLibrary bufferLib, UnpackNode unpackNode) {
+        if (bufferLib.hasInternalByteArray(buffer)) {
+            return unpackNode.execute(format, bufferLib.getInternalByteArray(buffer), offset);
+        }
+        byte[] bytes = new byte[format.getSize()];
+        bufferLib.readIntoByteArray(buffer, offset, bytes, 0, bytes.length);
+        return unpackNode.execute(format, bytes, 0);
+    }
+
+    /** {@code Struct.pack(*values)} */
+    public abstract static class StructPackNode extends PNodeWithRaise {
+
+        public abstract PBytes execute(VirtualFrame frame, StructFormat format, Object[] values);
+
+        @Specialization
+        PBytes pack(VirtualFrame frame, StructFormat format, Object[] values,
+                        @Cached PackNode packNode,
+                        @Cached PythonObjectFactory factory) {
+            if (values.length != format.getLen()) {
+                throw raise(StructError, STRUCT_PACK_EXPECTED_N_ITEMS, format.getLen(), values.length);
+            }
+            byte[] bytes = new byte[format.getSize()];
+            packNode.execute(frame, format, values, 0, bytes, 0);
+            return factory.createBytes(bytes);
+        }
+    }
+
+    /** {@code Struct.pack_into(buffer, offset, *values)} */
+    public abstract static class StructPackIntoNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract void execute(VirtualFrame frame, StructFormat format, Object[] args);
+
+        @Specialization
+        void packInto(VirtualFrame frame, StructFormat format, Object[] args,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached PackNode packNode) {
+            if (args.length != format.getLen() + 2) {
+                if (args.length == 0) {
+                    throw raise(StructError, STRUCT_PACK_INTO_EXPECTED_BUFFER);
+                } else if (args.length == 1) {
+                    throw raise(StructError, STRUCT_PACK_INTO_EXPECTED_OFFSET);
+                }
+                throw raise(StructError, STRUCT_PACK_INTO_EXPECTED_N_ITEMS, format.getLen(), args.length - 2);
+            }
+            Object buffer = acquireLib.acquireWritableWithTypeError(args[0], "pack_into", frame, this);
+            try {
+                int size = format.getSize();
+                int bufferLen = bufferLib.getBufferLength(buffer);
+                int offset = asSizeNode.executeExact(frame, args[1], IndexError);
+                if (offset < 0) {
+                    if (offset + size > 0) {
+                        throw raise(StructError, STRUCT_NO_SPACE_TO_PACK, size, offset);
+                    }
+                    if (offset + bufferLen < 0) {
+                        throw raise(StructError, STRUCT_OFFSET_OUT_OF_RANGE, offset, bufferLen);
+                    }
+                    offset += bufferLen;
+                }
+                if (bufferLen - offset < size) {
+                    throw raise(StructError, STRUCT_PACK_INTO_REQUIRES, (long) size + offset, size, offset, bufferLen);
+                }
+                if (bufferLib.hasInternalByteArray(buffer)) {
+                    byte[] bytes = bufferLib.getInternalByteArray(buffer);
+                    Arrays.fill(bytes, offset, offset + size, (byte) 0);
+                    packNode.execute(frame, format, args, 2, bytes, offset);
+                } else {
+                    byte[] bytes = new byte[size];
+                    packNode.execute(frame, format, args, 2, bytes, 0);
+                    bufferLib.writeFromByteArray(buffer, offset, bytes, 0, size);
+                }
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    /** {@code Struct.unpack(buffer)} */
+    public abstract static class StructUnpackNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract PTuple execute(VirtualFrame frame, StructFormat format, Object buffer);
+
+        @Specialization
+        PTuple unpack(VirtualFrame frame, StructFormat format, Object bufferObj,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached UnpackNode unpackNode,
+                        @Cached PythonObjectFactory factory) {
+            Object buffer = acquireLib.acquireReadonly(bufferObj, frame, this);
+            try {
+                if (bufferLib.getBufferLength(buffer) != format.getSize()) {
+                    throw raise(StructError, STRUCT_UNPACK_REQUIRES_BUFFER_OF_D_BYTES, format.getSize());
+                }
+                return factory.createTuple(unpackBuffer(format, buffer, 0, bufferLib, unpackNode));
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    /** {@code Struct.unpack_from(buffer, offset=0)} */
+    public abstract static class StructUnpackFromNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract PTuple execute(VirtualFrame frame, StructFormat format, Object buffer, int offset);
+
+        @Specialization
+        PTuple unpackFrom(VirtualFrame frame, StructFormat format, Object bufferObj, int offsetArg,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached UnpackNode unpackNode,
+                        @Cached PythonObjectFactory factory) {
+            Object buffer = acquireLib.acquireReadonly(bufferObj, frame, this);
+            try {
+                int size = format.getSize();
+                int bufferLen = bufferLib.getBufferLength(buffer);
+                int offset = offsetArg;
+                if (offset < 0) {
+                    if (offset + size > 0) {
+                        throw raise(StructError, STRUCT_NOT_ENOUGH_DATA_TO_UNPACK, size, offset);
+                    }
+                    if (offset + bufferLen < 0) {
+                        throw raise(StructError, STRUCT_OFFSET_OUT_OF_RANGE, offset, bufferLen);
+                    }
+                    offset += bufferLen;
+                }
+                if (bufferLen - offset < size) {
+                    throw raise(StructError, STRUCT_UNPACK_FROM_REQUIRES, (long) size + offset, size, offset, bufferLen);
+                }
+                return factory.createTuple(unpackBuffer(format, buffer, offset, bufferLib, unpackNode));
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    /** {@code Struct.iter_unpack(buffer)} */
+    public abstract static class StructIterUnpackNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract PStructUnpackIterator execute(VirtualFrame frame, StructFormat format, Object buffer);
+
+        @Specialization
+        PStructUnpackIterator iterUnpack(VirtualFrame frame, StructFormat format, Object bufferObj,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached PythonObjectFactory factory) {
+            if (format.getSize() == 0) {
+                throw raise(StructError, STRUCT_ITER_UNPACK_LENGTH_ZERO);
+            }
+            Object buffer = acquireLib.acquireReadonly(bufferObj, frame, this);
+            int bufferLen = bufferLib.getBufferLength(buffer);
+            if (bufferLen % format.getSize() != 0) {
+                bufferLib.release(buffer, frame, this);
+                throw raise(StructError, STRUCT_ITER_UNPACK_REQUIRES_MULTIPLE, format.getSize());
+            }
+            // the iterator releases the buffer once it is exhausted
+            return factory.createStructUnpackIterator(format, buffer, bufferLen);
+        }
+    }
+}
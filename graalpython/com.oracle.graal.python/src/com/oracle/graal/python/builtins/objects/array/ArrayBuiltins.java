@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2021, Oracle and/or its affiliates.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates.
  * Copyright (c) 2014, Regents of the University of California
  *
  * All rights reserved.
@@ -114,7 +114,6 @@ import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
-import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
@@ -243,13 +242,7 @@ public class ArrayBuiltins extends PythonBuiltins {
             if (left.getLength() != right.getLength()) {
                 return false;
             }
-            int itemsize = left.getFormat().bytesize;
-            for (int i = 0; i < left.getLength() * itemsize; i++) {
-                if (left.getBuffer()[i] != right.getBuffer()[i]) {
-                    return false;
-                }
-            }
-            return true;
+            return left.mismatch(right, left.getLength()) == -1;
         }
 
         @Specialization(guards = "left.getFormat() != right.getFormat()")
@@ -304,7 +297,21 @@ public class ArrayBuiltins extends PythonBuiltins {
     @ImportStatic(BufferFormat.class)
     abstract static class AbstractComparisonNode extends PythonBinaryBuiltinNode {
 
-        @Specialization(guards = "!isFloatingPoint(left.getFormat()) || (left.getFormat() != right.getFormat())")
+        @Specialization(guards = {"!isFloatingPoint(left.getFormat())", "left.getFormat() == right.getFormat()"})
+        boolean cmpSameFormat(VirtualFrame frame, PArray left, PArray right,
+                        @Cached("createComparison()") BinaryComparisonNode compareNode,
+                        @Cached("createIfTrueNode()") CoerceToBooleanNode coerceToBooleanNode,
+                        @Cached ArrayNodes.GetValueNode getLeft,
+                        @Cached ArrayNodes.GetValueNode getRight) {
+            // equal items have equal bytes, so only the first differing item needs to be compared
+            int i = left.mismatch(right, Math.min(left.getLength(), right.getLength()));
+            if (i != -1) {
+                return coerceToBooleanNode.executeBoolean(frame, compareNode.executeObject(frame, getLeft.execute(left, i), getRight.execute(right, i)));
+            }
+            return compareLengths(left.getLength(), right.getLength());
+        }
+
+        @Specialization(guards = "left.getFormat() != right.getFormat()")
         boolean cmpItems(VirtualFrame frame, PArray left, PArray right,
                         @Cached PyObjectRichCompareBool.EqNode eqNode,
                         @Cached("createComparison()") BinaryComparisonNode compareNode,
@@ -772,6 +779,7 @@ public class ArrayBuiltins extends PythonBuiltins {
         @Specialization
         Object extend(VirtualFrame frame, PArray self, PSequence value,
                         @Cached ArrayNodes.PutValueNode putValueNode,
+                        @Cached ArrayNodes.PutPrimitiveValuesNode putPrimitiveValuesNode,
                         @Cached SequenceNodes.GetSequenceStorageNode getSequenceStorageNode,
                         @Cached SequenceStorageNodes.LenNode lenNode,
                         @Cached SequenceStorageNodes.GetItemScalarNode getItemNode) {
@@ -788,6 +796,10 @@ public class ArrayBuiltins extends PythonBuiltins {
                 throw raise(MemoryError);
             }
             int length = self.getLength();
+            if (putPrimitiveValuesNode.execute(self, length, storage, storageLength)) {
+                self.setLength(length + storageLength);
+                return PNone.NONE;
+            }
             for (int i = 0; i < storageLength; i++) {
                 // The whole extend is not atomic, just individual inserts are. That's the same as
                 // in CPython
@@ -1006,13 +1018,18 @@ public class ArrayBuiltins extends PythonBuiltins {
                         @Cached SequenceNodes.GetSequenceStorageNode getSequenceStorageNode,
                         @Cached SequenceStorageNodes.LenNode lenNode,
                         @Cached SequenceStorageNodes.GetItemScalarNode getItemScalarNode,
-                        @Cached ArrayNodes.PutValueNode putValueNode) {
+                        @Cached ArrayNodes.PutValueNode putValueNode,
+                        @Cached ArrayNodes.PutPrimitiveValuesNode putPrimitiveValuesNode) {
             try {
                 SequenceStorage storage = getSequenceStorageNode.execute(list);
                 int length = lenNode.execute(storage);
                 int newLength = PythonUtils.addExact(self.getLength(), length);
                 self.checkCanResize(this);
                 self.resizeStorage(newLength);
+                if (putPrimitiveValuesNode.execute(self, self.getLength(), storage, length)) {
+                    self.setLength(newLength);
+                    return PNone.NONE;
+                }
                 for (int i = 0; i < length; i++) {
                     putValueNode.execute(frame, self, self.getLength() + i, getItemScalarNode.execute(storage, i));
                 }
@@ -1108,8 +1125,13 @@ public class ArrayBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class ToListNode extends PythonUnaryBuiltinNode {
         @Specialization
-        static Object tolist(VirtualFrame frame, PArray self,
+        Object tolist(VirtualFrame frame, PArray self,
+                        @Cached ArrayNodes.ToPrimitiveStorageNode toPrimitiveStorageNode,
                         @Cached ListNodes.ConstructListNode constructListNode) {
+            SequenceStorage storage = toPrimitiveStorageNode.execute(self);
+            if (storage != null) {
+                return factory().createList(storage);
+            }
             return constructListNode.execute(frame, self);
         }
     }
@@ -1181,35 +1203,29 @@ public class ArrayBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "self.getFormat().bytesize == 2")
         static Object byteswap2(PArray self) {
-            doByteSwapExploded(self, 2, self.getBuffer());
+            byte[] buffer = self.getBuffer();
+            for (int i = 0; i < self.getLength() * 2; i += 2) {
+                PythonUtils.arrayAccessor.putShort(buffer, i, Short.reverseBytes(PythonUtils.arrayAccessor.getShort(buffer, i)));
+            }
             return PNone.NONE;
         }
 
         @Specialization(guards = "self.getFormat().bytesize == 4")
         static Object byteswap4(PArray self) {
-            doByteSwapExploded(self, 4, self.getBuffer());
+            byte[] buffer = self.getBuffer();
+            for (int i = 0; i < self.getLength() * 4; i += 4) {
+                PythonUtils.arrayAccessor.putInt(buffer, i, Integer.reverseBytes(PythonUtils.arrayAccessor.getInt(buffer, i)));
+            }
             return PNone.NONE;
         }
 
         @Specialization(guards = "self.getFormat().bytesize == 8")
         static Object byteswap8(PArray self) {
-            doByteSwapExploded(self, 8, self.getBuffer());
-            return PNone.NONE;
-        }
-
-        private static void doByteSwapExploded(PArray self, int itemsize, byte[] buffer) {
-            for (int i = 0; i < self.getLength() * itemsize; i += itemsize) {
-                doByteSwapExplodedInnerLoop(buffer, itemsize, i);
-            }
-        }
-
-        @ExplodeLoop
-        private static void doByteSwapExplodedInnerLoop(byte[] buffer, int itemsize, int i) {
-            for (int j = 0; j < itemsize / 2; j++) {
-                byte b = buffer[i + j];
-                buffer[i + j] = buffer[i + itemsize - j - 1];
-                buffer[i + itemsize - j - 1] = b;
+            byte[] buffer = self.getBuffer();
+            for (int i = 0; i < self.getLength() * 8; i += 8) {
+                PythonUtils.arrayAccessor.putLong(buffer, i, Long.reverseBytes(PythonUtils.arrayAccessor.getLong(buffer, i)));
             }
+            return PNone.NONE;
         }
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -41,7 +41,15 @@
 package com.oracle.graal.python.builtins.objects.array;
 
 import com.oracle.graal.python.builtins.objects.common.BufferStorageNodes;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.BufferFormat;
+import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.Node;
@@ -67,6 +75,142 @@ public abstract class ArrayNodes {
         }
     }
 
+    /**
+     * Converts the items to a list storage of primitives in a single pass, without boxing them.
+     * Returns {@code null} for formats whose items need to be converted one by one.
+     */
+    @ImportStatic(BufferFormat.class)
+    public abstract static class ToPrimitiveStorageNode extends Node {
+        public abstract SequenceStorage execute(PArray array);
+
+        @Specialization(guards = "array.getFormat() == DOUBLE")
+        static SequenceStorage doDouble(PArray array) {
+            byte[] buffer = array.getBuffer();
+            double[] values = new double[array.getLength()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Double.longBitsToDouble(PythonUtils.arrayAccessor.getLong(buffer, i * 8));
+            }
+            return new DoubleSequenceStorage(values);
+        }
+
+        @Specialization(guards = "array.getFormat() == FLOAT")
+        static SequenceStorage doFloat(PArray array) {
+            byte[] buffer = array.getBuffer();
+            double[] values = new double[array.getLength()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Float.intBitsToFloat(PythonUtils.arrayAccessor.getInt(buffer, i * 4));
+            }
+            return new DoubleSequenceStorage(values);
+        }
+
+        @Specialization(guards = "array.getFormat() == INT_64")
+        static SequenceStorage doLong(PArray array) {
+            byte[] buffer = array.getBuffer();
+            long[] values = new long[array.getLength()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = PythonUtils.arrayAccessor.getLong(buffer, i * 8);
+            }
+            return new LongSequenceStorage(values);
+        }
+
+        @Specialization(guards = "array.getFormat() == UINT_32")
+        static SequenceStorage doUnsignedInt(PArray array) {
+            byte[] buffer = array.getBuffer();
+            long[] values = new long[array.getLength()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = PythonUtils.arrayAccessor.getInt(buffer, i * 4) & 0xFFFFFFFFL;
+            }
+            return new LongSequenceStorage(values);
+        }
+
+        @Specialization(guards = "array.getFormat() == INT_32")
+        static SequenceStorage doInt(PArray array) {
+            byte[] buffer = array.getBuffer();
+            int[] values = new int[array.getLength()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = PythonUtils.arrayAccessor.getInt(buffer, i * 4);
+            }
+            return new IntSequenceStorage(values);
+        }
+
+        @Specialization(guards = "isSmallInt(array.getFormat())")
+        static SequenceStorage doSmallInt(PArray array,
+                        @Cached BufferStorageNodes.UnpackValueNode unpackValueNode) {
+            BufferFormat format = array.getFormat();
+            byte[] buffer = array.getBuffer();
+            int[] values = new int[array.getLength()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (int) unpackValueNode.execute(format, buffer, i * format.bytesize);
+            }
+            return new IntSequenceStorage(values);
+        }
+
+        @Fallback
+        static SequenceStorage doOther(@SuppressWarnings("unused") PArray array) {
+            return null;
+        }
+
+        static boolean isSmallInt(BufferFormat format) {
+            return format == BufferFormat.INT_8 || format == BufferFormat.UINT_8 || format == BufferFormat.INT_16 || format == BufferFormat.UINT_16;
+        }
+    }
+
+    /**
+     * Writes {@code length} items of a list storage of primitives at {@code index} in a single
+     * pass. The array storage must already be large enough. Returns {@code false} if the items need
+     * to be converted one by one.
+     */
+    @ImportStatic(BufferFormat.class)
+    public abstract static class PutPrimitiveValuesNode extends Node {
+        public abstract boolean execute(PArray array, int index, SequenceStorage storage, int length);
+
+        @Specialization(guards = "array.getFormat() == DOUBLE")
+        static boolean doDouble(PArray array, int index, DoubleSequenceStorage storage, int length) {
+            byte[] buffer = array.getBuffer();
+            double[] values = storage.getInternalDoubleArray();
+            for (int i = 0; i < length; i++) {
+                PythonUtils.arrayAccessor.putLong(buffer, (index + i) * 8, Double.doubleToRawLongBits(values[i]));
+            }
+            return true;
+        }
+
+        @Specialization(guards = "array.getFormat() == INT_64")
+        static boolean doLong(PArray array, int index, LongSequenceStorage storage, int length) {
+            byte[] buffer = array.getBuffer();
+            long[] values = storage.getInternalLongArray();
+            for (int i = 0; i < length; i++) {
+                PythonUtils.arrayAccessor.putLong(buffer, (index + i) * 8, values[i]);
+            }
+            return true;
+        }
+
+        @Specialization(guards = "array.getFormat() == INT_64")
+        static boolean doIntToLong(PArray array, int index, IntSequenceStorage storage, int length) {
+            byte[] buffer = array.getBuffer();
+            int[] values = storage.getInternalIntArray();
+            for (int i = 0; i < length; i++) {
+                PythonUtils.arrayAccessor.putLong(buffer, (index + i) * 8, values[i]);
+            }
+            return true;
+        }
+
+        @Specialization(guards = "array.getFormat() == INT_32")
+        static boolean doInt(PArray array, int index, IntSequenceStorage storage, int length) {
+            byte[] buffer = array.getBuffer();
+            int[] values = storage.getInternalIntArray();
+            for (int i = 0; i < length; i++) {
+                PythonUtils.arrayAccessor.putInt(buffer, (index + i) * 4, values[i]);
+            }
+            return true;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static boolean doOther(PArray array, int index, SequenceStorage storage, int length) {
+            return false;
+        }
+    }
+
     public abstract static class CheckValueNode extends Node {
         public abstract void execute(VirtualFrame frame, PArray array, Object value);
 
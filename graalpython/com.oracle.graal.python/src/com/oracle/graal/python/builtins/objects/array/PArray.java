@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2021, Oracle and/or its affiliates.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates.
  * Copyright (c) 2013, Regents of the University of California
  *
  * All rights reserved.
@@ -28,6 +28,7 @@ package com.oracle.graal.python.builtins.objects.array;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.BufferError;
 
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
@@ -37,6 +38,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.util.BufferFormat;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.library.ExportMessage.Ignore;
@@ -177,6 +179,19 @@ public final class PArray extends PythonBuiltinObject {
         length = newLength;
     }
 
+    /**
+     * Returns the index of the first of the first {@code count} items that differs between this
+     * array and {@code other}, or -1 if they are all equal. Both arrays must have the same format,
+     * and the items are compared by their bytes.
+     */
+    @TruffleBoundary
+    public int mismatch(PArray other, int count) {
+        assert format == other.format && count <= length && count <= other.length;
+        int itemsize = format.bytesize;
+        int byteIndex = Arrays.mismatch(buffer, 0, count * itemsize, other.buffer, 0, count * itemsize);
+        return byteIndex < 0 ? -1 : byteIndex / itemsize;
+    }
+
     public enum MachineFormat {
         UNSIGNED_INT8(0, BufferFormat.UINT_8, null),
         SIGNED_INT8(1, BufferFormat.INT_8, null),
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2021, Oracle and/or its affiliates.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates.
  * Copyright (c) 2014, Regents of the University of California
  *
  * All rights reserved.
@@ -96,6 +96,7 @@ import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.str.StringNodes;
+import com.oracle.graal.python.builtins.objects.str.StringUtils;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.tuple.TupleBuiltins;
 import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
@@ -297,10 +298,19 @@ public class BytesBuiltins extends PythonBuiltins {
             return BytesBuiltinsClinicProviders.DecodeNodeClinicProviderGen.INSTANCE;
         }
 
-        @Specialization
+        @Specialization(limit = "3")
         public Object decode(VirtualFrame frame, PBytesLike self, String encoding, String errors,
+                        @CachedLibrary("self") PythonBufferAccessLibrary bufferLib,
+                        @Cached ConditionProfile standardCodecProfile,
                         @Cached CodecsModuleBuiltins.DecodeNode decodeNode,
                         @Cached IsInstanceNode isInstanceNode) {
+            if (standardCodecProfile.profile(StringUtils.isStandardCodec(encoding))) {
+                // only fetch the bytes when the fast path applies, it may have to copy them
+                String decoded = StringUtils.decodeStandard(bufferLib.getInternalOrCopiedByteArray(self), bufferLib.getBufferLength(self), encoding);
+                if (decoded != null) {
+                    return decoded;
+                }
+            }
             Object result = decodeNode.executeWithStrings(frame, self, encoding, errors);
             if (!isInstanceNode.executeWith(frame, result, PythonBuiltinClassType.PString)) {
                 throw raise(TypeError, DECODER_RETURNED_P_INSTEAD_OF_BYTES, encoding, result);
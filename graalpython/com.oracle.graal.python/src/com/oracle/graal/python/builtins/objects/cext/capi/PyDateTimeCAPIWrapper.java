@@ -46,6 +46,7 @@ import static com.oracle.graal.python.builtins.objects.cext.capi.NativeCAPISymbo
 import static com.oracle.graal.python.builtins.objects.cext.capi.NativeCAPISymbol.FUN_GET_DATETIME_TIME_BASICSIZE;
 import static com.oracle.graal.python.builtins.objects.cext.capi.NativeCAPISymbol.FUN_GET_DATETIME_DATETIME_BASICSIZE;
 import static com.oracle.graal.python.builtins.objects.cext.capi.NativeCAPISymbol.FUN_GET_DATETIME_DELTA_BASICSIZE;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__BASICSIZE__;
 
 import com.oracle.graal.python.builtins.modules.cext.PythonCextAbstractBuiltins.PyMappingKeysNode;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.AllToJavaNode;
@@ -57,6 +58,7 @@ import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.TransformExc
 import com.oracle.graal.python.builtins.objects.cext.capi.DynamicObjectNativeWrapper.PAsPointerNode;
 import com.oracle.graal.python.builtins.objects.cext.capi.DynamicObjectNativeWrapper.ToPyObjectNode;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.lib.PyObjectGetAttr;
 import com.oracle.graal.python.lib.PyObjectGetItem;
@@ -65,6 +67,7 @@ import com.oracle.graal.python.lib.PyObjectSetAttr;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.argument.keywords.ExpandKeywordStarargsNodeGen;
 import com.oracle.graal.python.nodes.argument.positional.ExecutePositionalStarargsNodeGen.ExecutePositionalStarargsInteropNodeGen;
+import com.oracle.graal.python.nodes.attributes.WriteAttributeToBuiltinTypeNodeGen;
 import com.oracle.graal.python.nodes.attributes.WriteAttributeToDynamicObjectNode;
 import com.oracle.graal.python.nodes.call.special.CallVarargsMethodNode;
 import com.oracle.graal.python.nodes.statement.AbstractImportNode;
@@ -191,19 +194,19 @@ public final class PyDateTimeCAPIWrapper extends PythonNativeWrapper {
         PCallCapiFunction callCapiFunction = PCallCapiFunction.getUncached();
 
         Object date = getAttr.execute(null, datetime, "date");
-        setAttr.execute(null, date, "__basicsize__", callCapiFunction.call(FUN_GET_DATETIME_DATE_BASICSIZE, capiContext.getLLVMLibrary()));
+        setBasicSize(date, callCapiFunction.call(FUN_GET_DATETIME_DATE_BASICSIZE, capiContext.getLLVMLibrary()));
         wrapper.dateType = toSulongNode.execute(date);
 
         Object dt = getAttr.execute(null, datetime, "datetime");
-        setAttr.execute(null, dt, "__basicsize__", callCapiFunction.call(FUN_GET_DATETIME_DATETIME_BASICSIZE, capiContext.getLLVMLibrary()));
+        setBasicSize(dt, callCapiFunction.call(FUN_GET_DATETIME_DATETIME_BASICSIZE, capiContext.getLLVMLibrary()));
         wrapper.datetimeType = toSulongNode.execute(dt);
 
         Object time = getAttr.execute(null, datetime, "time");
-        setAttr.execute(null, time, "__basicsize__", callCapiFunction.call(FUN_GET_DATETIME_TIME_BASICSIZE, capiContext.getLLVMLibrary()));
+        setBasicSize(time, callCapiFunction.call(FUN_GET_DATETIME_TIME_BASICSIZE, capiContext.getLLVMLibrary()));
         wrapper.timeType = toSulongNode.execute(time);
 
         Object delta = getAttr.execute(null, datetime, "timedelta");
-        setAttr.execute(null, delta, "__basicsize__", callCapiFunction.call(FUN_GET_DATETIME_DELTA_BASICSIZE, capiContext.getLLVMLibrary()));
+        setBasicSize(delta, callCapiFunction.call(FUN_GET_DATETIME_DELTA_BASICSIZE, capiContext.getLLVMLibrary()));
         wrapper.deltaType = toSulongNode.execute(delta);
 
         wrapper.tzInfoType = toSulongNode.execute(getAttr.execute(null, datetime, "tzinfo"));
@@ -227,6 +230,19 @@ public final class PyDateTimeCAPIWrapper extends PythonNativeWrapper {
         assert getAttr.execute(null, datetime, "datetime_CAPI") != PythonContext.get(null).getNativeNull();
     }
 
+    /**
+     * The datetime types are builtin types of the {@code _datetime} module unless the pure Python
+     * fallback is in use, and attributes of builtin types cannot be set with a regular
+     * {@code setattr}.
+     */
+    private static void setBasicSize(Object type, Object basicsize) {
+        if (type instanceof PythonBuiltinClass) {
+            WriteAttributeToBuiltinTypeNodeGen.getUncached().execute(type, __BASICSIZE__, basicsize);
+        } else {
+            PyObjectSetAttr.getUncached().execute(null, type, __BASICSIZE__, basicsize);
+        }
+    }
+
     @ExportMessage
     @SuppressWarnings("static-method")
     boolean hasMembers() {
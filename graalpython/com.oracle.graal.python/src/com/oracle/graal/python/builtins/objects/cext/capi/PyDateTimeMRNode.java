@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -40,6 +40,8 @@
  */
 package com.oracle.graal.python.builtins.objects.cext.capi;
 
+import com.oracle.graal.python.builtins.modules.datetime.PDateTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTime;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject.PInteropGetAttributeNode;
 import com.oracle.graal.python.builtins.objects.cext.common.CArrayWrappers.CByteArrayWrapper;
@@ -50,6 +52,7 @@ import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -183,9 +186,21 @@ public abstract class PyDateTimeMRNode extends Node {
     }
 
     @Specialization(guards = "eq(DATETIME_TZINFO, key)")
+    static Object doDateTimeTzinfo(PDateTime object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
+                    @Shared("toSulongNode") @Cached ToSulongNode toSulongNode) {
+        return toSulongNode.execute(object.getTzInfo());
+    }
+
+    @Specialization(guards = "eq(DATETIME_TZINFO, key)")
+    static Object doTimeTzinfo(PTime object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
+                    @Shared("toSulongNode") @Cached ToSulongNode toSulongNode) {
+        return toSulongNode.execute(object.getTzInfo());
+    }
+
+    @Specialization(guards = {"eq(DATETIME_TZINFO, key)", "!isBuiltinDateTime(object)"})
     static Object doTzinfo(PythonObject object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
                     @Cached ReadAttributeFromObjectNode getTzinfoNode,
-                    @Cached ToSulongNode toSulongNode) {
+                    @Shared("toSulongNode") @Cached ToSulongNode toSulongNode) {
         Object value = getTzinfoNode.execute(object, TZINFO);
         if (value != PNone.NO_VALUE) {
             return toSulongNode.execute(value);
@@ -193,6 +208,10 @@ public abstract class PyDateTimeMRNode extends Node {
         throw CompilerDirectives.shouldNotReachHere();
     }
 
+    protected static boolean isBuiltinDateTime(PythonObject object) {
+        return object instanceof PDateTime || object instanceof PTime;
+    }
+
     protected static boolean eq(NativeMember expected, String actual) {
         return expected.getMemberName().equals(actual);
     }
@@ -0,0 +1,610 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MemoryError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
+import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.str.StringNodes.StringMaterializeNode;
+import com.oracle.graal.python.lib.PyObjectHashNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * Hashing storage with the layout of CPython's compact dicts: the entries are kept in insertion
+ * order in parallel {@code hashes}, {@code keys} and {@code values} arrays and an open-addressing
+ * index table maps hash buckets to entry indices. The index table is a {@code byte[]},
+ * {@code short[]} or {@code int[]} depending on the number of entries. Unlike
+ * {@link EconomicMapStorage}, there is no wrapper object per entry.
+ *
+ * Deleted entries are marked by a {@code null} key and their bucket by {@link #DUMMY}. They are
+ * only reclaimed when the entries arrays are full and the storage is resized.
+ */
+@ExportLibrary(HashingStorageLibrary.class)
+public final class CompactHashingStorage extends HashingStorage {
+    static final int EMPTY = -1;
+    static final int DUMMY = -2;
+    static final int MIN_INDEX_SIZE = 8;
+    /** The largest index table, the entries arrays for it still fit into Java arrays. */
+    static final int MAX_INDEX_SIZE = 1 << 30;
+    static final int PERTURB_SHIFT = 5;
+
+    /** Index of the entry for each bucket, or {@link #EMPTY} or {@link #DUMMY}. */
+    private Object indices;
+    private int indexMask;
+    private long[] hashes;
+    private Object[] keys;
+    private Object[] values;
+    /** Number of entries used so far, including deleted ones. */
+    private int usedEntries;
+    private int size;
+    private boolean hasSideEffect;
+
+    public CompactHashingStorage() {
+        this(0);
+    }
+
+    public CompactHashingStorage(int expectedSize) {
+        allocate(indexSizeFor(expectedSize - 1));
+    }
+
+    private CompactHashingStorage(CompactHashingStorage original) {
+        this.indices = copyIndices(original.indices);
+        this.indexMask = original.indexMask;
+        this.hashes = original.hashes.clone();
+        this.keys = original.keys.clone();
+        this.values = original.values.clone();
+        this.usedEntries = original.usedEntries;
+        this.size = original.size;
+        this.hasSideEffect = original.hasSideEffect;
+    }
+
+    /** The number of entries that fit into an index table of the given size. */
+    static int usable(int indexSize) {
+        return (int) (((long) indexSize << 1) / 3);
+    }
+
+    /**
+     * The smallest index table size with more than {@code minUsable} usable entries, or
+     * {@link #MAX_INDEX_SIZE} if there is none.
+     */
+    static int indexSizeFor(int minUsable) {
+        int indexSize = MIN_INDEX_SIZE;
+        while (indexSize < MAX_INDEX_SIZE && usable(indexSize) <= minUsable) {
+            indexSize <<= 1;
+        }
+        return indexSize;
+    }
+
+    /**
+     * The index table size for resizing a storage whose entries arrays are full. Like CPython, the
+     * storage grows to three times the number of live entries; if many entries were deleted, this
+     * may also shrink it. Raises {@code MemoryError} if no table can hold another entry.
+     */
+    static int indexSizeForResize(int liveEntries) {
+        int minUsable;
+        try {
+            minUsable = PythonUtils.multiplyExact(liveEntries, 3);
+        } catch (OverflowException e) {
+            minUsable = Integer.MAX_VALUE;
+        }
+        int indexSize = indexSizeFor(minUsable);
+        if (usable(indexSize) <= liveEntries) {
+            throw PRaiseNode.getUncached().raise(MemoryError);
+        }
+        return indexSize;
+    }
+
+    private void allocate(int indexSize) {
+        int capacity = usable(indexSize);
+        this.indices = createIndices(indexSize);
+        this.indexMask = indexSize - 1;
+        this.hashes = new long[capacity];
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.usedEntries = 0;
+    }
+
+    static Object createIndices(int indexSize) {
+        if (indexSize <= 1 << 7) {
+            byte[] table = new byte[indexSize];
+            Arrays.fill(table, (byte) EMPTY);
+            return table;
+        } else if (indexSize <= 1 << 15) {
+            short[] table = new short[indexSize];
+            Arrays.fill(table, (short) EMPTY);
+            return table;
+        } else {
+            int[] table = new int[indexSize];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+    }
+
+    static Object copyIndices(Object table) {
+        if (table instanceof byte[]) {
+            return ((byte[]) table).clone();
+        } else if (table instanceof short[]) {
+            return ((short[]) table).clone();
+        } else {
+            return ((int[]) table).clone();
+        }
+    }
+
+    private int getIndex(int bucket) {
+        return getIndex(indices, bucket);
+    }
+
+    private void setIndex(int bucket, int entry) {
+        setIndex(indices, bucket, entry);
+    }
+
+    static int getIndex(Object table, int bucket) {
+        if (table instanceof byte[]) {
+            return ((byte[]) table)[bucket];
+        } else if (table instanceof short[]) {
+            return ((short[]) table)[bucket];
+        } else {
+            return ((int[]) table)[bucket];
+        }
+    }
+
+    static void setIndex(Object table, int bucket, int entry) {
+        if (table instanceof byte[]) {
+            ((byte[]) table)[bucket] = (byte) entry;
+        } else if (table instanceof short[]) {
+            ((short[]) table)[bucket] = (short) entry;
+        } else {
+            ((int[]) table)[bucket] = entry;
+        }
+    }
+
+    static int nextBucket(int bucket, long perturb, int mask) {
+        return (int) ((bucket * 5L + perturb + 1) & mask);
+    }
+
+    /**
+     * Returns the bucket of the entry with the given key, or {@code -1} if there is none. Like in
+     * CPython's {@code lookdict}, keys are first compared by identity and only entries with the
+     * same hash are compared with {@code __eq__}. If the comparison modified this storage, the
+     * lookup is restarted.
+     */
+    private int findBucket(VirtualFrame frame, Object key, long hash, PyObjectRichCompareBool.EqNode eqNode) {
+        restart: while (true) {
+            int mask = indexMask;
+            long perturb = hash;
+            int bucket = (int) (hash & mask);
+            while (true) {
+                int entry = getIndex(bucket);
+                if (entry == EMPTY) {
+                    return -1;
+                }
+                if (entry >= 0) {
+                    Object[] entryKeys = keys;
+                    Object entryKey = entryKeys[entry];
+                    if (entryKey == key) {
+                        return bucket;
+                    }
+                    if (hashes[entry] == hash) {
+                        boolean equal = eqNode.execute(frame, entryKey, key);
+                        if (entryKeys != keys || entryKeys[entry] != entryKey) {
+                            continue restart;
+                        }
+                        if (equal) {
+                            return bucket;
+                        }
+                    }
+                }
+                perturb >>>= PERTURB_SHIFT;
+                bucket = nextBucket(bucket, perturb, mask);
+            }
+        }
+    }
+
+    private int findEmptyBucket(long hash) {
+        int mask = indexMask;
+        long perturb = hash;
+        int bucket = (int) (hash & mask);
+        while (getIndex(bucket) >= 0) {
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+        return bucket;
+    }
+
+    private int findBucketOfEntry(int entry) {
+        int mask = indexMask;
+        long perturb = hashes[entry];
+        int bucket = (int) (perturb & mask);
+        while (getIndex(bucket) != entry) {
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+        return bucket;
+    }
+
+    Object get(VirtualFrame frame, Object key, long hash, PyObjectRichCompareBool.EqNode eqNode) {
+        int bucket = findBucket(frame, key, hash, eqNode);
+        return bucket < 0 ? null : values[getIndex(bucket)];
+    }
+
+    void put(VirtualFrame frame, Object key, long hash, Object value, PyObjectRichCompareBool.EqNode eqNode) {
+        int bucket = findBucket(frame, key, hash, eqNode);
+        if (bucket >= 0) {
+            values[getIndex(bucket)] = value;
+        } else {
+            putNew(key, hash, value);
+        }
+    }
+
+    private void putNew(Object key, long hash, Object value) {
+        if (usedEntries == keys.length) {
+            resize();
+        }
+        int entry = usedEntries++;
+        hashes[entry] = hash;
+        keys[entry] = key;
+        values[entry] = value;
+        setIndex(findEmptyBucket(hash), entry);
+        size++;
+    }
+
+    void remove(VirtualFrame frame, Object key, long hash, PyObjectRichCompareBool.EqNode eqNode) {
+        int bucket = findBucket(frame, key, hash, eqNode);
+        if (bucket >= 0) {
+            removeEntry(bucket, getIndex(bucket));
+        }
+    }
+
+    private void removeEntry(int bucket, int entry) {
+        setIndex(bucket, DUMMY);
+        keys[entry] = null;
+        values[entry] = null;
+        size--;
+    }
+
+    @TruffleBoundary
+    private void resize() {
+        int indexSize = indexSizeForResize(size);
+        long[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsed = usedEntries;
+        allocate(indexSize);
+        int entry = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldKeys[i] != null) {
+                hashes[entry] = oldHashes[i];
+                keys[entry] = oldKeys[i];
+                values[entry] = oldValues[i];
+                setIndex(findEmptyBucket(oldHashes[i]), entry);
+                entry++;
+            }
+        }
+        assert entry == size;
+        usedEntries = entry;
+    }
+
+    @ExportMessage
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @ExportMessage
+    @ImportStatic(PGuards.class)
+    static class GetItemWithState {
+        @Specialization
+        static Object getItemString(CompactHashingStorage self, String key, ThreadState state,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            return self.get(frame, key, key.hashCode(), eqNode);
+        }
+
+        @Specialization(guards = "isBuiltinString(key, isBuiltinClassProfile)", limit = "1")
+        static Object getItemPString(CompactHashingStorage self, PString key, ThreadState state,
+                        @Shared("stringMaterialize") @Cached StringMaterializeNode stringMaterializeNode,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState,
+                        @Shared("builtinProfile") @Cached @SuppressWarnings("unused") IsBuiltinClassProfile isBuiltinClassProfile) {
+            return getItemString(self, stringMaterializeNode.execute(key), state, eqNode, gotState);
+        }
+
+        @Specialization(replaces = {"getItemString", "getItemPString"})
+        static Object getItemGeneric(CompactHashingStorage self, Object key, ThreadState state,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            return self.get(frame, key, hashNode.execute(frame, key), eqNode);
+        }
+    }
+
+    @ExportMessage
+    static boolean hasSideEffect(CompactHashingStorage self) {
+        return self.hasSideEffect;
+    }
+
+    @ExportMessage
+    @ImportStatic(PGuards.class)
+    static class SetItemWithState {
+
+        static boolean maySideEffect(Object o, IsBuiltinClassProfile profile, LookupInheritedAttributeNode.Dynamic lookup) {
+            if (o instanceof PythonObject && !PGuards.isBuiltinObject(o) && !profile.profileIsAnyBuiltinObject((PythonObject) o)) {
+                return !PGuards.isBuiltinFunction(lookup.execute(o, __EQ__)) || !PGuards.isBuiltinFunction(lookup.execute(o, __HASH__));
+            }
+            return false;
+        }
+
+        @Specialization
+        static HashingStorage setItemString(CompactHashingStorage self, String key, Object value, ThreadState state,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            self.put(frame, key, key.hashCode(), value, eqNode);
+            return self;
+        }
+
+        @Specialization(guards = "isBuiltinString(key, isBuiltinClassProfile)", limit = "1")
+        static HashingStorage setItemPString(CompactHashingStorage self, PString key, Object value, ThreadState state,
+                        @Shared("stringMaterialize") @Cached StringMaterializeNode stringMaterializeNode,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState,
+                        @Shared("builtinProfile") @Cached @SuppressWarnings("unused") IsBuiltinClassProfile isBuiltinClassProfile) {
+            return setItemString(self, stringMaterializeNode.execute(key), value, state, eqNode, gotState);
+        }
+
+        @Specialization(guards = {"!hasSideEffect(self)", "maySideEffect(key, builtinProfile, lookup) || maySideEffect(value, builtinProfile, lookup)"}, limit = "1")
+        static HashingStorage setItemWithSideEffect(CompactHashingStorage self, Object key, Object value, ThreadState state,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("lookup") @Cached LookupInheritedAttributeNode.Dynamic lookup,
+                        @Shared("builtinProfile") @Cached IsBuiltinClassProfile builtinProfile,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            self.hasSideEffect = true;
+            return setItemGeneric(self, key, value, state, eqNode, hashNode, gotState);
+        }
+
+        @Specialization(replaces = {"setItemString", "setItemPString"})
+        static HashingStorage setItemGeneric(CompactHashingStorage self, Object key, Object value, ThreadState state,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            self.put(frame, key, hashNode.execute(frame, key), value, eqNode);
+            return self;
+        }
+    }
+
+    @ExportMessage
+    static class DelItemWithState {
+        @Specialization
+        static HashingStorage delItemString(CompactHashingStorage self, String key, ThreadState state,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            self.remove(frame, key, key.hashCode(), eqNode);
+            return self;
+        }
+
+        @Specialization(replaces = "delItemString")
+        static HashingStorage delItemGeneric(CompactHashingStorage self, Object key, ThreadState state,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            self.remove(frame, key, hashNode.execute(frame, key), eqNode);
+            return self;
+        }
+    }
+
+    @ExportMessage
+    @Override
+    Object forEachUntyped(ForEachNode<Object> node, Object arg) {
+        Object result = arg;
+        // the node may modify this storage, so always read the current arrays
+        for (int i = 0; i < usedEntries; i++) {
+            Object key = keys[i];
+            if (key != null) {
+                result = node.execute(key, result);
+            }
+        }
+        return result;
+    }
+
+    @ExportMessage
+    @Override
+    HashingStorage clear() {
+        allocate(MIN_INDEX_SIZE);
+        size = 0;
+        hasSideEffect = false;
+        return this;
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorage copy() {
+        return new CompactHashingStorage(this);
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> keys() {
+        return new HashingStorageIterable<>(new KeysIterator(this));
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> reverseKeys() {
+        return new HashingStorageIterable<>(new ReverseKeysIterator(this));
+    }
+
+    abstract static class AbstractKeysIterator implements Iterator<Object> {
+        protected final CompactHashingStorage storage;
+        protected int current;
+
+        AbstractKeysIterator(CompactHashingStorage storage, int current) {
+            this.storage = storage;
+            this.current = current;
+        }
+
+        public int getState() {
+            return current;
+        }
+
+        public void setState(int state) {
+            current = state;
+        }
+
+        protected abstract int lastReturned();
+
+        @Override
+        public void remove() {
+            int entry = lastReturned();
+            if (entry < 0 || entry >= storage.usedEntries || storage.keys[entry] == null) {
+                throw new IllegalStateException();
+            }
+            storage.removeEntry(storage.findBucketOfEntry(entry), entry);
+        }
+    }
+
+    static final class KeysIterator extends AbstractKeysIterator {
+        KeysIterator(CompactHashingStorage storage) {
+            super(storage, 0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            // skip deleted entries
+            while (current < storage.usedEntries && storage.keys[current] == null) {
+                current++;
+            }
+            return current < storage.usedEntries;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return storage.keys[current++];
+        }
+
+        @Override
+        protected int lastReturned() {
+            return current - 1;
+        }
+    }
+
+    static final class ReverseKeysIterator extends AbstractKeysIterator {
+        ReverseKeysIterator(CompactHashingStorage storage) {
+            super(storage, storage.usedEntries - 1);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current >= storage.usedEntries) {
+                // the storage was compacted
+                current = storage.usedEntries - 1;
+            }
+            while (current >= 0 && storage.keys[current] == null) {
+                current--;
+            }
+            return current >= 0;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return storage.keys[current--];
+        }
+
+        @Override
+        protected int lastReturned() {
+            return current + 1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        StringBuilder builder = new StringBuilder();
+        builder.append("compact(size=").append(size).append(", {");
+        String sep = "";
+        for (int i = 0; i < usedEntries; i++) {
+            if (keys[i] != null) {
+                builder.append(sep).append("(").append(keys[i]).append(",").append(values[i]).append(")");
+                sep = ",";
+            }
+        }
+        builder.append("})");
+        return builder.toString();
+    }
+}
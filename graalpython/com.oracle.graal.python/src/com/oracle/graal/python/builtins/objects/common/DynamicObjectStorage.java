@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -315,7 +315,7 @@ public final class DynamicObjectStorage extends HashingStorage {
                 // To avoid calling the costly length message we use SIZE_THRESHOLD
                 newStore = new HashMapStorage(SIZE_THRESHOLD);
             } else {
-                newStore = EconomicMapStorage.create(lib.length(self));
+                newStore = PDict.createGenericStorage(lib.length(self));
             }
 
             newStore = lib.addAllToOther(self, newStore);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -43,12 +43,14 @@ package com.oracle.graal.python.builtins.objects.common;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
 import com.oracle.graal.python.lib.PyObjectHashNode;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -86,9 +88,15 @@ public class EmptyStorage extends HashingStorage {
 
     @ExportMessage
     public HashingStorage setItemWithState(Object key, Object value, ThreadState state,
-                    @CachedLibrary(limit = "2") HashingStorageLibrary lib,
+                    @CachedLibrary(limit = "3") HashingStorageLibrary lib,
+                    @Cached ConditionProfile longKey,
                     @Shared("gotState") @Cached ConditionProfile gotState) {
-        HashingStorage newStore = PDict.createNewStorage(key instanceof String, 1);
+        HashingStorage newStore;
+        if (longKey.profile(LongHashingStorage.isLongKey(key) && PythonLanguage.get(null).getEngineOption(PythonOptions.LongHashingStorage))) {
+            newStore = new LongHashingStorage();
+        } else {
+            newStore = PDict.createNewStorage(key instanceof String, 1);
+        }
         if (gotState.profile(state != null)) {
             lib.setItemWithState(newStore, key, value, state);
         } else {
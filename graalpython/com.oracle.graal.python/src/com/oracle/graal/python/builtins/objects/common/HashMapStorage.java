@@ -48,6 +48,7 @@ import java.util.Map;
 
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
@@ -233,7 +234,7 @@ public class HashMapStorage extends HashingStorage {
                         @SuppressWarnings("unused") @Cached IsBuiltinClassProfile profile,
                         @CachedLibrary("self") HashingStorageLibrary thisLib,
                         @CachedLibrary(limit = "1") HashingStorageLibrary newLib) {
-            HashingStorage newStore = EconomicMapStorage.create(self.length());
+            HashingStorage newStore = PDict.createGenericStorage(self.length());
             thisLib.addAllToOther(self, newStore);
             newLib.setItem(newStore, key, value);
             return newStore;
@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.DUMMY;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.EMPTY;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.MIN_INDEX_SIZE;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.PERTURB_SHIFT;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.copyIndices;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.createIndices;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.getIndex;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.indexSizeFor;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.indexSizeForResize;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.nextBucket;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.setIndex;
+import static com.oracle.graal.python.builtins.objects.common.CompactHashingStorage.usable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.lib.PyObjectHashNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * Hashing storage for dicts and sets whose keys are all Python ints that fit into a Java
+ * {@code long}. The keys are stored unboxed in a {@code long[]} and compared by value, so neither
+ * {@code __hash__} nor {@code __eq__} is ever called for them. The layout is the same as that of
+ * {@link CompactHashingStorage}: entries in insertion order and a separate open-addressing index
+ * table. The storage generalizes to the generic storage on the first key of another type. Empty
+ * dicts and sets switch to it on their first int key if {@link PythonOptions#LongHashingStorage} is
+ * enabled.
+ *
+ * Lookups with keys of other types (e.g. {@code 1.0} or {@code True}) are still supported: they
+ * probe with the Python hash of the key and compare it with {@code __eq__} to the boxed ints
+ * with the same hash.
+ */
+@ExportLibrary(HashingStorageLibrary.class)
+public final class LongHashingStorage extends HashingStorage {
+    /** Index of the entry for each bucket, or {@code EMPTY} or {@code DUMMY}. */
+    private Object indices;
+    private int indexMask;
+    private long[] keys;
+    /** Values of the entries, {@code null} for deleted entries. */
+    private Object[] values;
+    /** Number of entries used so far, including deleted ones. */
+    private int usedEntries;
+    private int size;
+
+    public LongHashingStorage() {
+        this(0);
+    }
+
+    public LongHashingStorage(int expectedSize) {
+        allocate(indexSizeFor(expectedSize - 1));
+    }
+
+    private LongHashingStorage(LongHashingStorage original) {
+        this.indices = copyIndices(original.indices);
+        this.indexMask = original.indexMask;
+        this.keys = original.keys.clone();
+        this.values = original.values.clone();
+        this.usedEntries = original.usedEntries;
+        this.size = original.size;
+    }
+
+    public static boolean isLongKey(Object key) {
+        return key instanceof Integer || key instanceof Long;
+    }
+
+    private void allocate(int indexSize) {
+        int capacity = usable(indexSize);
+        this.indices = createIndices(indexSize);
+        this.indexMask = indexSize - 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.usedEntries = 0;
+    }
+
+    private static long hash(long key) {
+        return PyObjectHashNode.hash(key);
+    }
+
+    private static Object box(long key) {
+        return PInt.isIntRange(key) ? (Object) (int) key : (Object) key;
+    }
+
+    private int findBucket(long key) {
+        int mask = indexMask;
+        long perturb = hash(key);
+        int bucket = (int) (perturb & mask);
+        while (true) {
+            int entry = getIndex(indices, bucket);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry >= 0 && keys[entry] == key) {
+                return bucket;
+            }
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+    }
+
+    /**
+     * Returns the bucket of the entry that is equal to the given key of another type, or
+     * {@code -1} if there is none. If the comparison modified this storage, the lookup is
+     * restarted.
+     */
+    private int findBucketGeneric(VirtualFrame frame, Object key, long hash, PyObjectRichCompareBool.EqNode eqNode) {
+        restart: while (true) {
+            Object table = indices;
+            int mask = indexMask;
+            long perturb = hash;
+            int bucket = (int) (hash & mask);
+            while (true) {
+                int entry = getIndex(table, bucket);
+                if (entry == EMPTY) {
+                    return -1;
+                }
+                if (entry >= 0) {
+                    long entryKey = keys[entry];
+                    if (hash(entryKey) == hash) {
+                        boolean equal = eqNode.execute(frame, box(entryKey), key);
+                        if (table != indices || getIndex(table, bucket) != entry) {
+                            continue restart;
+                        }
+                        if (equal) {
+                            return bucket;
+                        }
+                    }
+                }
+                perturb >>>= PERTURB_SHIFT;
+                bucket = nextBucket(bucket, perturb, mask);
+            }
+        }
+    }
+
+    private int findEmptyBucket(long hash) {
+        int mask = indexMask;
+        long perturb = hash;
+        int bucket = (int) (hash & mask);
+        while (getIndex(indices, bucket) >= 0) {
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+        return bucket;
+    }
+
+    private int findBucketOfEntry(int entry) {
+        int mask = indexMask;
+        long perturb = hash(keys[entry]);
+        int bucket = (int) (perturb & mask);
+        while (getIndex(indices, bucket) != entry) {
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+        return bucket;
+    }
+
+    Object get(long key) {
+        int bucket = findBucket(key);
+        return bucket < 0 ? null : values[getIndex(indices, bucket)];
+    }
+
+    void put(long key, Object value) {
+        assert value != null;
+        int bucket = findBucket(key);
+        if (bucket >= 0) {
+            values[getIndex(indices, bucket)] = value;
+            return;
+        }
+        if (usedEntries == keys.length) {
+            resize();
+        }
+        int entry = usedEntries++;
+        keys[entry] = key;
+        values[entry] = value;
+        setIndex(indices, findEmptyBucket(hash(key)), entry);
+        size++;
+    }
+
+    void remove(long key) {
+        int bucket = findBucket(key);
+        if (bucket >= 0) {
+            removeEntry(bucket, getIndex(indices, bucket));
+        }
+    }
+
+    private void removeEntry(int bucket, int entry) {
+        setIndex(indices, bucket, DUMMY);
+        values[entry] = null;
+        size--;
+    }
+
+    @TruffleBoundary
+    private void resize() {
+        int indexSize = indexSizeForResize(size);
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsed = usedEntries;
+        allocate(indexSize);
+        int entry = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldValues[i] != null) {
+                keys[entry] = oldKeys[i];
+                values[entry] = oldValues[i];
+                setIndex(indices, findEmptyBucket(hash(oldKeys[i])), entry);
+                entry++;
+            }
+        }
+        assert entry == size;
+        usedEntries = entry;
+    }
+
+    @ExportMessage
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @ExportMessage
+    static class GetItemWithState {
+        @Specialization
+        static Object getItemInt(LongHashingStorage self, int key, @SuppressWarnings("unused") ThreadState state) {
+            return self.get(key);
+        }
+
+        @Specialization
+        static Object getItemLong(LongHashingStorage self, long key, @SuppressWarnings("unused") ThreadState state) {
+            return self.get(key);
+        }
+
+        @Specialization(guards = "!isLongKey(key)")
+        static Object getItemGeneric(LongHashingStorage self, Object key, ThreadState state,
+                        @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Cached PyObjectHashNode hashNode,
+                        @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            int bucket = self.findBucketGeneric(frame, key, hashNode.execute(frame, key), eqNode);
+            return bucket < 0 ? null : self.values[getIndex(self.indices, bucket)];
+        }
+    }
+
+    @ExportMessage
+    static class SetItemWithState {
+        @Specialization
+        static HashingStorage setItemInt(LongHashingStorage self, int key, Object value, @SuppressWarnings("unused") ThreadState state) {
+            self.put(key, value);
+            return self;
+        }
+
+        @Specialization
+        static HashingStorage setItemLong(LongHashingStorage self, long key, Object value, @SuppressWarnings("unused") ThreadState state) {
+            self.put(key, value);
+            return self;
+        }
+
+        @Specialization(guards = "!isLongKey(key)", limit = "1")
+        static HashingStorage generalize(LongHashingStorage self, Object key, Object value, ThreadState state,
+                        @CachedLibrary("self") HashingStorageLibrary thisLib,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary newLib) {
+            HashingStorage newStore = PDict.createGenericStorage(self.length() + 1);
+            newStore = thisLib.addAllToOther(self, newStore);
+            return newLib.setItemWithState(newStore, key, value, state);
+        }
+    }
+
+    @ExportMessage
+    static class DelItemWithState {
+        @Specialization
+        static HashingStorage delItemInt(LongHashingStorage self, int key, @SuppressWarnings("unused") ThreadState state) {
+            self.remove(key);
+            return self;
+        }
+
+        @Specialization
+        static HashingStorage delItemLong(LongHashingStorage self, long key, @SuppressWarnings("unused") ThreadState state) {
+            self.remove(key);
+            return self;
+        }
+
+        @Specialization(guards = "!isLongKey(key)")
+        static HashingStorage delItemGeneric(LongHashingStorage self, Object key, ThreadState state,
+                        @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Cached PyObjectHashNode hashNode,
+                        @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            int bucket = self.findBucketGeneric(frame, key, hashNode.execute(frame, key), eqNode);
+            if (bucket >= 0) {
+                self.removeEntry(bucket, getIndex(self.indices, bucket));
+            }
+            return self;
+        }
+    }
+
+    @ExportMessage
+    @Override
+    Object forEachUntyped(ForEachNode<Object> node, Object arg) {
+        Object result = arg;
+        // the node may modify this storage, so always read the current arrays
+        for (int i = 0; i < usedEntries; i++) {
+            if (values[i] != null) {
+                result = node.execute(box(keys[i]), result);
+            }
+        }
+        return result;
+    }
+
+    @ExportMessage
+    @Override
+    HashingStorage clear() {
+        allocate(MIN_INDEX_SIZE);
+        size = 0;
+        return this;
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorage copy() {
+        return new LongHashingStorage(this);
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> keys() {
+        return new HashingStorageIterable<>(new KeysIterator(this));
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> reverseKeys() {
+        return new HashingStorageIterable<>(new ReverseKeysIterator(this));
+    }
+
+    abstract static class AbstractKeysIterator implements Iterator<Object> {
+        protected final LongHashingStorage storage;
+        protected int current;
+
+        AbstractKeysIterator(LongHashingStorage storage, int current) {
+            this.storage = storage;
+            this.current = current;
+        }
+
+        public int getState() {
+            return current;
+        }
+
+        public void setState(int state) {
+            current = state;
+        }
+
+        protected abstract int lastReturned();
+
+        @Override
+        public void remove() {
+            int entry = lastReturned();
+            if (entry < 0 || entry >= storage.usedEntries || storage.values[entry] == null) {
+                throw new IllegalStateException();
+            }
+            storage.removeEntry(storage.findBucketOfEntry(entry), entry);
+        }
+    }
+
+    static final class KeysIterator extends AbstractKeysIterator {
+        KeysIterator(LongHashingStorage storage) {
+            super(storage, 0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            // skip deleted entries
+            while (current < storage.usedEntries && storage.values[current] == null) {
+                current++;
+            }
+            return current < storage.usedEntries;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return box(storage.keys[current++]);
+        }
+
+        @Override
+        protected int lastReturned() {
+            return current - 1;
+        }
+    }
+
+    static final class ReverseKeysIterator extends AbstractKeysIterator {
+        ReverseKeysIterator(LongHashingStorage storage) {
+            super(storage, storage.usedEntries - 1);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current >= storage.usedEntries) {
+                // the storage was compacted
+                current = storage.usedEntries - 1;
+            }
+            while (current >= 0 && storage.values[current] == null) {
+                current--;
+            }
+            return current >= 0;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return box(storage.keys[current--]);
+        }
+
+        @Override
+        protected int lastReturned() {
+            return current + 1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        StringBuilder builder = new StringBuilder();
+        builder.append("long(size=").append(size).append(", {");
+        String sep = "";
+        for (int i = 0; i < usedEntries; i++) {
+            if (values[i] != null) {
+                builder.append(sep).append("(").append(keys[i]).append(",").append(values[i]).append(")");
+                sep = ",";
+            }
+        }
+        builder.append("})");
+        return builder.toString();
+    }
+}
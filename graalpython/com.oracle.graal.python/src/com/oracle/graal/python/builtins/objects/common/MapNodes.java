@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -94,6 +94,16 @@ public abstract class MapNodes {
             return iterator.getState();
         }
 
+        @Specialization
+        int iterState(CompactHashingStorage.AbstractKeysIterator iterator) {
+            return iterator.getState();
+        }
+
+        @Specialization
+        int iterState(LongHashingStorage.AbstractKeysIterator iterator) {
+            return iterator.getState();
+        }
+
         @Specialization
         int iterState(DynamicObjectStorage.EntriesIterator iterator) {
             return iterator.getState();
@@ -146,6 +156,16 @@ public abstract class MapNodes {
             iterator.setState(state);
         }
 
+        @Specialization
+        void iterState(CompactHashingStorage.AbstractKeysIterator iterator, int state) {
+            iterator.setState(state);
+        }
+
+        @Specialization
+        void iterState(LongHashingStorage.AbstractKeysIterator iterator, int state) {
+            iterator.setState(state);
+        }
+
         @Specialization
         void iterState(DynamicObjectStorage.EntriesIterator iterator, int state) {
             iterator.setState(state);
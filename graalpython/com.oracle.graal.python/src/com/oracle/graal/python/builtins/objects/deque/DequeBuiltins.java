@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -68,7 +68,6 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.oracle.graal.python.annotations.ArgumentClinic;
@@ -293,8 +292,8 @@ public class DequeBuiltins extends PythonBuiltins {
         int doGeneric(PDeque self, Object value) {
             int n = 0;
             int startState = self.getState();
-            for (Object item : self.data) {
-                if (PyObjectRichCompareBool.EqNode.getUncached().execute(null, item, value)) {
+            for (int i = 0; i < self.getSize(); i++) {
+                if (PyObjectRichCompareBool.EqNode.getUncached().execute(null, self.getItem(i), value)) {
                     n++;
                 }
                 if (startState != self.getState()) {
@@ -317,7 +316,7 @@ public class DequeBuiltins extends PythonBuiltins {
         @Specialization(guards = "self == other")
         @TruffleBoundary
         PNone doSelf(PDeque self, @SuppressWarnings("unused") PDeque other) {
-            Object[] items = self.data.toArray();
+            Object[] items = self.toArray();
             for (Object item : items) {
                 appendOperation(self, item);
             }
@@ -396,20 +395,12 @@ public class DequeBuiltins extends PythonBuiltins {
             if (normStart > normStop) {
                 normStart = normStop;
             }
-            Iterator<Object> iterator = self.iterator();
-            for (int idx = 0; idx < normStop; idx++) {
-                /*
-                 * Note: A 'ConcurrentModificationException' should not be possible because we
-                 * manually check for modifications during iteration.
-                 */
-                Object item = next(iterator);
-                if (normStart <= idx) {
-                    if (eqNode.execute(frame, item, value)) {
-                        return idx;
-                    }
-                    if (startState != self.getState()) {
-                        throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
-                    }
+            for (int idx = normStart; idx < normStop; idx++) {
+                if (eqNode.execute(frame, self.getItem(idx), value)) {
+                    return idx;
+                }
+                if (startState != self.getState()) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
                 }
             }
             throw raise(ValueError, "%s is not in deque", value);
@@ -443,11 +434,6 @@ public class DequeBuiltins extends PythonBuiltins {
             }
             return Math.max(res, 0);
         }
-
-        @TruffleBoundary
-        private static Object next(Iterator<?> it) {
-            return it.next();
-        }
     }
 
     // deque.insert()
@@ -475,13 +461,7 @@ public class DequeBuiltins extends PythonBuiltins {
             } else if (index <= -n || index == 0) {
                 self.appendLeft(value);
             } else {
-                DequeRotateNode.rotate(self, -index);
-                if (index < 0) {
-                    self.append(value);
-                } else {
-                    self.appendLeft(value);
-                }
-                DequeRotateNode.rotate(self, index);
+                self.insert(index < 0 ? index + n : index, value);
             }
 
             return PNone.NONE;
@@ -529,27 +509,13 @@ public class DequeBuiltins extends PythonBuiltins {
             // CPython captures the size before iteration
             int n = self.getSize();
             for (int i = 0; i < n; i++) {
-                try {
-                    boolean result = PyObjectRichCompareBool.EqNode.getUncached().execute(null, self.peekLeft(), value);
-                    if (n != self.getSize()) {
-                        throw PRaiseNode.raiseUncached(this, IndexError, "deque mutated during remove().");
-                    }
-                    if (result) {
-                        Object removed = self.popLeft();
-                        assert removed != null;
-                        DequeRotateNode.doRight(self, i);
-                        return PNone.NONE;
-                    } else {
-                        // this is basically 'DequeRotateNode.doLeft(self, -1)'
-                        self.append(self.popLeft());
-                    }
-                } catch (PException e) {
-                    /*
-                     * In case of an error during comparison, we need to restore the original deque
-                     * by rotating.
-                     */
-                    DequeRotateNode.doRight(self, i);
-                    throw e;
+                boolean result = PyObjectRichCompareBool.EqNode.getUncached().execute(null, self.getItem(i), value);
+                if (n != self.getSize()) {
+                    throw PRaiseNode.raiseUncached(this, IndexError, "deque mutated during remove().");
+                }
+                if (result) {
+                    self.delItem(i);
+                    return PNone.NONE;
                 }
             }
             throw PRaiseNode.raiseUncached(this, ValueError, "deque.remove(x): x not in deque");
@@ -563,14 +529,8 @@ public class DequeBuiltins extends PythonBuiltins {
 
         @Specialization
         @TruffleBoundary
-        PNone doGeneric(PDeque self) {
-            Object[] items = new Object[self.getSize()];
-            for (int i = 0; i < items.length; i++) {
-                items[i] = self.data.pollLast();
-            }
-            for (int i = 0; i < items.length; i++) {
-                self.data.addLast(items[i]);
-            }
+        static PNone doGeneric(PDeque self) {
+            self.reverse();
             return PNone.NONE;
         }
     }
@@ -587,43 +547,16 @@ public class DequeBuiltins extends PythonBuiltins {
         }
 
         @Specialization(guards = "self.getSize() <= 1")
-        @TruffleBoundary
         @SuppressWarnings("unused")
         static PNone doEmptyOrSingleElement(PDeque self, int n) {
             return PNone.NONE;
         }
 
-        @Specialization(guards = "n >= 0")
-        @TruffleBoundary
-        static PNone doRight(PDeque self, int n) {
-            if (self.getSize() > 1) {
-                int effectiveRot = n % self.getSize();
-                for (int i = 0; i < effectiveRot; i++) {
-                    self.appendLeft(self.pop());
-                }
-            }
-            return PNone.NONE;
-        }
-
-        @Specialization(guards = "n < 0")
-        @TruffleBoundary
-        static PNone doLeft(PDeque self, int n) {
-            if (self.getSize() > 1) {
-                int effectiveRot = -n % self.getSize();
-                for (int i = 0; i < effectiveRot; i++) {
-                    self.append(self.popLeft());
-                }
-            }
+        @Specialization(replaces = "doEmptyOrSingleElement")
+        static PNone doGeneric(PDeque self, int n) {
+            self.rotate(n);
             return PNone.NONE;
         }
-
-        static void rotate(PDeque self, int n) {
-            if (n < 0) {
-                doLeft(self, n);
-            } else {
-                doRight(self, n);
-            }
-        }
     }
 
     // SEQUENCE METHODS
@@ -649,7 +582,7 @@ public class DequeBuiltins extends PythonBuiltins {
         static PDeque doDeque(PDeque self, PDeque other) {
             if (self == other) {
                 // we need to create a snapshot of 'self'
-                self.addAll(self.data.toArray());
+                self.addAll(self.toArray());
             } else {
                 self.addAll(other);
             }
@@ -739,11 +672,14 @@ public class DequeBuiltins extends PythonBuiltins {
 
             // Reduce the number of repetitions when maxlen would be exceeded
             int repetitions = n;
-            if (self.getMaxLength() >= 0 && n * size > self.getMaxLength()) {
+            int newSize = n * size;
+            if (self.getMaxLength() >= 0 && newSize > self.getMaxLength()) {
                 repetitions = (self.getMaxLength() + size - 1) / size;
+                newSize = self.getMaxLength();
             }
 
-            Object[] items = self.data.toArray();
+            self.ensureCapacity(newSize);
+            Object[] items = self.toArray();
             for (int i = 0; i < repetitions - 1; i++) {
                 self.addAll(items);
             }
@@ -791,8 +727,8 @@ public class DequeBuiltins extends PythonBuiltins {
         @TruffleBoundary
         boolean doGeneric(PDeque self, Object value) {
             int startState = self.getState();
-            for (Object item : self.data) {
-                if (PyObjectRichCompareBool.EqNode.getUncached().execute(null, item, value)) {
+            for (int i = 0; i < self.getSize(); i++) {
+                if (PyObjectRichCompareBool.EqNode.getUncached().execute(null, self.getItem(i), value)) {
                     return true;
                 }
                 if (startState != self.getState()) {
@@ -814,21 +750,10 @@ public class DequeBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        @TruffleBoundary
-        Object doGeneric(PDeque self, int idx,
+        static Object doGeneric(PDeque self, int idx,
                         @Cached NormalizeIndexCustomMessageNode normalizeIndexNode) {
             int normIdx = normalizeIndexNode.execute(idx, self.getSize(), ErrorMessages.DEQUE_INDEX_OUT_OF_RANGE);
-            return doGetItem(self, normIdx);
-        }
-
-        @TruffleBoundary
-        Object doGetItem(PDeque self, int idx) {
-            assert 0 <= idx && idx < self.getSize();
-            Iterator<Object> it = self.data.iterator();
-            for (int i = 0; i < idx; i++) {
-                it.next();
-            }
-            return it.next();
+            return self.getItem(normIdx);
         }
     }
 
@@ -846,7 +771,11 @@ public class DequeBuiltins extends PythonBuiltins {
         static PNone doGeneric(PDeque self, int idx, Object value,
                         @Cached NormalizeIndexCustomMessageNode normalizeIndexNode) {
             int normIdx = normalizeIndexNode.execute(idx, self.getSize(), ErrorMessages.DEQUE_INDEX_OUT_OF_RANGE);
-            self.setItem(normIdx, value != PNone.NO_VALUE ? value : null);
+            if (value != PNone.NO_VALUE) {
+                self.setItem(normIdx, value);
+            } else {
+                self.delItem(normIdx);
+            }
             return PNone.NONE;
         }
     }
@@ -865,7 +794,7 @@ public class DequeBuiltins extends PythonBuiltins {
         static PNone doGeneric(PDeque self, int idx,
                         @Cached NormalizeIndexCustomMessageNode normalizeIndexNode) {
             int normIdx = normalizeIndexNode.execute(idx, self.getSize(), ErrorMessages.DEQUE_INDEX_OUT_OF_RANGE);
-            self.setItem(normIdx, null);
+            self.delItem(normIdx);
             return PNone.NONE;
         }
     }
@@ -918,7 +847,7 @@ public class DequeBuiltins extends PythonBuiltins {
             EncapsulatingNodeReference ref = EncapsulatingNodeReference.getCurrent();
             Node outerNode = ref.set(this);
             try {
-                Object[] items = self.data.toArray();
+                Object[] items = self.toArray();
                 PList asList = PythonObjectFactory.getUncached().createList(items);
                 int maxLength = self.getMaxLength();
                 StringBuilder sb = new StringBuilder(GetNameNode.getUncached().execute(GetClassNode.getUncached().execute(self)));
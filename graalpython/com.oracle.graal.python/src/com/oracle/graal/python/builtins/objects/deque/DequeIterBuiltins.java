@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -42,9 +42,7 @@ package com.oracle.graal.python.builtins.objects.deque;
 
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
 
-import java.util.ConcurrentModificationException;
 import java.util.List;
-import java.util.NoSuchElementException;
 
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
@@ -57,7 +55,6 @@ import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.object.GetClassNode;
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -93,18 +90,12 @@ public class DequeIterBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         Object doGeneric(PDequeIter self) {
-            try {
-                if (self.startState == self.deque.getState()) {
-                    if (!self.hasNext()) {
-                        assert self.lengthHint() == 0;
-                        throw raiseStopIteration();
-                    }
-                    return self.next();
+            if (self.startState == self.deque.getState()) {
+                if (!self.hasNext()) {
+                    assert self.lengthHint() == 0;
+                    throw raiseStopIteration();
                 }
-            } catch (NoSuchElementException e) {
-                throw CompilerDirectives.shouldNotReachHere();
-            } catch (ConcurrentModificationException e) {
-                // fall through
+                return self.next();
             }
             self.reset();
             throw PRaiseNode.raiseUncached(this, RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
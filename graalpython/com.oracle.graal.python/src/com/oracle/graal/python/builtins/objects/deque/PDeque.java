@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -40,27 +40,46 @@
  */
 package com.oracle.graal.python.builtins.objects.deque;
 
-import java.util.ArrayDeque;
-import java.util.Iterator;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MemoryError;
 
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.Shape;
 
 /**
- * A simple wrapper around Java's {@link ArrayDeque}.
+ * A deque backed by a circular buffer. The buffer capacity is always a power of two so that
+ * logical indices can be mapped to physical slots with a simple mask. Similar to
+ * {@link com.oracle.graal.python.runtime.sequence.storage.SequenceStorage}, the buffer is a
+ * primitive {@code int[]}, {@code long[]} or {@code double[]} as long as all elements fit and is
+ * generalized to {@code Object[]} on demand.
  */
 public final class PDeque extends PythonBuiltinObject {
-    final ArrayDeque<Object> data = createArrayDeque();
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final byte EMPTY = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte OBJECT = 4;
+
+    /**
+     * The element kind of {@link #store}. Storage of kind {@link #EMPTY} has no array yet; it is
+     * allocated with the kind of the first element added.
+     */
+    private byte kind = EMPTY;
+    private Object store;
+    private int mask = -1;
+    private int head;
+    private int size;
     private int maxLength = -1;
 
     /**
      * This is a modification counter and used to produce exceptions if the deque is modified during
-     * iteration. We need it because {@link ArrayDeque}'s iterators have a slightly different
-     * behavior. E.g. if you iterate the deque to the end and the last element comparison would
-     * modify the deque, then {@link ArrayDeque} doesn't complain while CPython's implementation
-     * still complains. The main difference is that CPython will always check if the deque was
-     * modifed right after it called out for {@code __eq__}.
+     * iteration. It is incremented whenever the number of elements or their positions change.
+     * CPython's implementation will always check if the deque was modified right after it called
+     * out for {@code __eq__}, so we do the same.
      */
     private int state;
 
@@ -68,13 +87,8 @@ public final class PDeque extends PythonBuiltinObject {
         super(cls, instanceShape);
     }
 
-    @TruffleBoundary
-    private static ArrayDeque<Object> createArrayDeque() {
-        return new ArrayDeque<>();
-    }
-
     int getSize() {
-        return data.size();
+        return size;
     }
 
     int getMaxLength() {
@@ -85,29 +99,53 @@ public final class PDeque extends PythonBuiltinObject {
         this.maxLength = maxLength;
     }
 
+    private int slot(int idx) {
+        return (head + idx) & mask;
+    }
+
+    /**
+     * Returns the element at logical index {@code idx} which must be in range.
+     */
+    Object getItem(int idx) {
+        assert 0 <= idx && idx < size;
+        return read(kind, store, slot(idx));
+    }
+
     @TruffleBoundary
     void append(Object value) {
-        assert maxLength == -1 || data.size() <= maxLength;
-        data.addLast(value);
-        if (maxLength != -1 && data.size() > maxLength) {
-            popLeft();
-        } else {
+        assert maxLength == -1 || size <= maxLength;
+        if (maxLength == 0) {
             state++;
+            return;
         }
-
-        assert maxLength == -1 || data.size() <= maxLength;
+        if (size == maxLength) {
+            dropLeft();
+        }
+        ensureCapacity(size + 1);
+        ensureAccepts(value);
+        write(kind, store, slot(size), value);
+        size++;
+        state++;
+        assert maxLength == -1 || size <= maxLength;
     }
 
     @TruffleBoundary
     void appendLeft(Object value) {
-        assert maxLength == -1 || data.size() <= maxLength;
-        data.addFirst(value);
-        if (maxLength != -1 && data.size() > maxLength) {
-            pop();
-        } else {
+        assert maxLength == -1 || size <= maxLength;
+        if (maxLength == 0) {
             state++;
+            return;
+        }
+        if (size == maxLength) {
+            dropRight();
         }
-        assert maxLength == -1 || data.size() <= maxLength;
+        ensureCapacity(size + 1);
+        ensureAccepts(value);
+        head = (head - 1) & mask;
+        write(kind, store, head, value);
+        size++;
+        state++;
+        assert maxLength == -1 || size <= maxLength;
     }
 
     /**
@@ -116,7 +154,13 @@ public final class PDeque extends PythonBuiltinObject {
     @TruffleBoundary
     Object pop() {
         state++;
-        return data.pollLast();
+        if (size == 0) {
+            return null;
+        }
+        int i = slot(size - 1);
+        Object value = read(kind, store, i);
+        dropRight();
+        return value;
     }
 
     /**
@@ -125,15 +169,12 @@ public final class PDeque extends PythonBuiltinObject {
     @TruffleBoundary
     Object popLeft() {
         state++;
-        return data.pollFirst();
-    }
-
-    /**
-     * Returns {@code null} if empty.
-     */
-    @TruffleBoundary
-    Object peekLeft() {
-        return data.peekFirst();
+        if (size == 0) {
+            return null;
+        }
+        Object value = read(kind, store, head);
+        dropLeft();
+        return value;
     }
 
     @TruffleBoundary
@@ -145,54 +186,297 @@ public final class PDeque extends PythonBuiltinObject {
 
     @TruffleBoundary
     void addAll(PDeque other) {
-        for (Object e : other.data) {
-            append(e);
+        assert other != this;
+        ensureCapacity(maxLength == -1 ? size + other.size : Math.min(maxLength, size + other.size));
+        for (int i = 0; i < other.size; i++) {
+            append(other.getItem(i));
         }
     }
 
     @TruffleBoundary
-    public Iterator<Object> iterator() {
-        return data.iterator();
+    Object[] toArray() {
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = read(kind, store, slot(i));
+        }
+        return result;
     }
 
     @TruffleBoundary
-    public Iterator<Object> reverseIterator() {
-        return data.descendingIterator();
+    public void clear() {
+        kind = EMPTY;
+        store = null;
+        mask = -1;
+        head = 0;
+        size = 0;
+        state++;
     }
 
+    /**
+     * Replaces the element at logical index {@code idx}. This does not change the number of
+     * elements, so the modification counter stays the same.
+     */
     @TruffleBoundary
-    public void clear() {
-        data.clear();
+    public void setItem(int idx, Object value) {
+        assert 0 <= idx && idx < size;
+        ensureAccepts(value);
+        write(kind, store, slot(idx), value);
+    }
+
+    /**
+     * Inserts an element at logical index {@code idx} by moving the shorter side of the deque. The
+     * caller must ensure that the maximum length is not exceeded.
+     */
+    @TruffleBoundary
+    void insert(int idx, Object value) {
+        assert 0 <= idx && idx <= size;
+        assert maxLength == -1 || size < maxLength;
+        ensureCapacity(size + 1);
+        ensureAccepts(value);
+        if (idx < size / 2) {
+            head = (head - 1) & mask;
+            for (int j = 0; j < idx; j++) {
+                move(slot(j + 1), slot(j));
+            }
+        } else {
+            for (int j = size; j > idx; j--) {
+                move(slot(j - 1), slot(j));
+            }
+        }
+        write(kind, store, slot(idx), value);
+        size++;
         state++;
     }
 
+    /**
+     * Removes the element at logical index {@code idx} by moving the shorter side of the deque.
+     */
     @TruffleBoundary
-    public void setItem(int idx, Object value) {
-        assert 0 <= idx && idx < data.size();
-        int n = data.size() - idx - 1;
-        Object[] savedItems = new Object[n];
-        for (int i = 0; i < savedItems.length; i++) {
-            savedItems[i] = data.pollLast();
-        }
-        // this removes the item we want to replace
-        data.pollLast();
-        assert data.size() == idx;
-        if (value != null) {
-            data.addLast(value);
+    void delItem(int idx) {
+        assert 0 <= idx && idx < size;
+        if (idx < size / 2) {
+            for (int j = idx; j > 0; j--) {
+                move(slot(j - 1), slot(j));
+            }
+            dropLeft();
         } else {
-            // removal case: this alters the number of elements, so modify the state
-            state++;
+            for (int j = idx; j < size - 1; j++) {
+                move(slot(j + 1), slot(j));
+            }
+            dropRight();
+        }
+        state++;
+    }
+
+    /**
+     * Rotates the deque {@code n} steps to the right (or to the left if {@code n} is negative).
+     * Only the elements on the shorter side are moved and a completely filled buffer is rotated by
+     * just adjusting the head.
+     */
+    @TruffleBoundary
+    void rotate(int n) {
+        if (size <= 1) {
+            return;
+        }
+        int k = n % size;
+        if (k < 0) {
+            k += size;
+        }
+        if (k == 0) {
+            return;
         }
+        state++;
+        if (size == mask + 1) {
+            head = (head - k) & mask;
+        } else if (k <= size / 2) {
+            for (int j = 0; j < k; j++) {
+                int from = slot(size - 1);
+                head = (head - 1) & mask;
+                move(from, head);
+                clearSlot(from);
+            }
+        } else {
+            for (int j = k; j < size; j++) {
+                move(head, slot(size));
+                clearSlot(head);
+                head = (head + 1) & mask;
+            }
+        }
+    }
 
-        // re-add saved items
-        for (int i = savedItems.length - 1; i >= 0; i--) {
-            data.addLast(savedItems[i]);
+    @TruffleBoundary
+    void reverse() {
+        for (int lo = 0, hi = size - 1; lo < hi; lo++, hi--) {
+            int i = slot(lo);
+            int j = slot(hi);
+            Object tmp = read(kind, store, i);
+            move(j, i);
+            write(kind, store, j, tmp);
         }
-        assert maxLength == -1 || data.size() <= maxLength;
-        assert value != null && data.size() == n + idx + 1 || value == null && data.size() == n + idx;
     }
 
     public int getState() {
         return state;
     }
+
+    private void dropLeft() {
+        clearSlot(head);
+        head = (head + 1) & mask;
+        size--;
+    }
+
+    private void dropRight() {
+        size--;
+        clearSlot(slot(size));
+    }
+
+    private void clearSlot(int i) {
+        if (kind == OBJECT) {
+            ((Object[]) store)[i] = null;
+        }
+    }
+
+    private void move(int from, int to) {
+        switch (kind) {
+            case INT: {
+                int[] a = (int[]) store;
+                a[to] = a[from];
+                break;
+            }
+            case LONG: {
+                long[] a = (long[]) store;
+                a[to] = a[from];
+                break;
+            }
+            case DOUBLE: {
+                double[] a = (double[]) store;
+                a[to] = a[from];
+                break;
+            }
+            default: {
+                Object[] a = (Object[]) store;
+                a[to] = a[from];
+                break;
+            }
+        }
+    }
+
+    /**
+     * Grows the buffer so that it can hold at least {@code minCapacity} elements. Raises a Python
+     * {@code MemoryError} before allocating anything if that exceeds the maximum capacity.
+     */
+    void ensureCapacity(int minCapacity) {
+        int capacity = mask + 1;
+        if (minCapacity <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, INITIAL_CAPACITY);
+        while (newCapacity < minCapacity) {
+            if (newCapacity >= MAX_CAPACITY) {
+                throw PRaiseNode.raiseUncached(null, MemoryError);
+            }
+            newCapacity <<= 1;
+        }
+        if (store != null) {
+            Object newStore = allocate(kind, newCapacity);
+            int firstPart = Math.min(size, capacity - head);
+            System.arraycopy(store, head, newStore, 0, firstPart);
+            System.arraycopy(store, 0, newStore, firstPart, size - firstPart);
+            store = newStore;
+        }
+        head = 0;
+        mask = newCapacity - 1;
+    }
+
+    private boolean accepts(Object value) {
+        switch (kind) {
+            case INT:
+                return value instanceof Integer;
+            case LONG:
+                return value instanceof Integer || value instanceof Long;
+            case DOUBLE:
+                return value instanceof Double;
+            case OBJECT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Makes sure that the storage can hold {@code value}, generalizing it if necessary. The
+     * capacity must already be non-zero.
+     */
+    private void ensureAccepts(Object value) {
+        assert mask >= 0;
+        if (accepts(value)) {
+            return;
+        }
+        byte newKind;
+        if (kind == EMPTY) {
+            if (value instanceof Integer) {
+                newKind = INT;
+            } else if (value instanceof Long) {
+                newKind = LONG;
+            } else if (value instanceof Double) {
+                newKind = DOUBLE;
+            } else {
+                newKind = OBJECT;
+            }
+        } else if (kind == INT && value instanceof Long) {
+            newKind = LONG;
+        } else {
+            newKind = OBJECT;
+        }
+        Object newStore = allocate(newKind, mask + 1);
+        for (int j = 0; j < size; j++) {
+            int i = slot(j);
+            write(newKind, newStore, i, read(kind, store, i));
+        }
+        kind = newKind;
+        store = newStore;
+    }
+
+    private static Object allocate(byte kind, int capacity) {
+        switch (kind) {
+            case INT:
+                return new int[capacity];
+            case LONG:
+                return new long[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            default:
+                return new Object[capacity];
+        }
+    }
+
+    private static Object read(byte kind, Object store, int i) {
+        switch (kind) {
+            case INT:
+                return ((int[]) store)[i];
+            case LONG:
+                return ((long[]) store)[i];
+            case DOUBLE:
+                return ((double[]) store)[i];
+            default:
+                return ((Object[]) store)[i];
+        }
+    }
+
+    private static void write(byte kind, Object store, int i, Object value) {
+        switch (kind) {
+            case INT:
+                ((int[]) store)[i] = (int) value;
+                break;
+            case LONG:
+                ((long[]) store)[i] = value instanceof Integer ? (int) value : (long) value;
+                break;
+            case DOUBLE:
+                ((double[]) store)[i] = (double) value;
+                break;
+            default:
+                ((Object[]) store)[i] = value;
+                break;
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2021, Oracle and/or its affiliates.
+ * Copyright (c) 2017, 2022, Oracle and/or its affiliates.
  * Copyright (c) 2013, Regents of the University of California
  *
  * All rights reserved.
@@ -31,6 +31,7 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.VALUES;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.common.CompactHashingStorage;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
 import com.oracle.graal.python.builtins.objects.common.HashMapStorage;
@@ -45,6 +46,7 @@ import com.oracle.graal.python.lib.PyObjectGetIter;
 import com.oracle.graal.python.lib.PyObjectHashNode;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.dsl.Cached;
@@ -100,11 +102,22 @@ public class PDict extends PHashingCollection {
         } else if (isStringKey) {
             newDictStorage = new HashMapStorage(expectedSize);
         } else {
-            newDictStorage = EconomicMapStorage.create(expectedSize);
+            newDictStorage = createGenericStorage(expectedSize);
         }
         return newDictStorage;
     }
 
+    /**
+     * Creates a storage for arbitrary keys. This is a {@link CompactHashingStorage} if enabled by
+     * {@link PythonOptions#CompactHashingStorage}, or an {@link EconomicMapStorage} otherwise.
+     */
+    public static HashingStorage createGenericStorage(int expectedSize) {
+        if (PythonLanguage.get(null).getEngineOption(PythonOptions.CompactHashingStorage)) {
+            return new CompactHashingStorage(expectedSize);
+        }
+        return EconomicMapStorage.create(expectedSize);
+    }
+
     public void update(PDict other) {
         storage = HashingStorageLibrary.getUncached().addAllToOther(other.getDictStorage(), storage);
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -203,7 +203,7 @@ public class MMapBuiltins extends PythonBuiltins {
             assert len > 0;
             assert pos + len <= self.getLength();
             byte[] buffer = new byte[len];
-            posixLib.mmapReadBytes(node.getPosixSupport(), self.getPosixSupportHandle(), pos, buffer, buffer.length);
+            posixLib.mmapReadBytes(node.getPosixSupport(), self.getPosixSupportHandle(), pos, buffer, 0, buffer.length);
             return buffer;
         } catch (PosixException e) {
             throw node.raiseOSErrorFromPosixException(frame, e);
@@ -268,8 +268,12 @@ public class MMapBuiltins extends PythonBuiltins {
             if (outOfRangeProfile.profile(idx < 0 || idx >= len)) {
                 throw raise(PythonBuiltinClassType.IndexError, MMAP_INDEX_OUT_OF_RANGE);
             }
-            byte[] bytes = {castToByteNode.execute(frame, val)};
-            writeBuffer(frame, posixSupportLib, self, idx, bytes, 1);
+            byte b = castToByteNode.execute(frame, val);
+            try {
+                posixSupportLib.mmapWriteByte(getPosixSupport(), self.getPosixSupportHandle(), idx, b);
+            } catch (PosixException ex) {
+                throw raiseOSErrorFromPosixException(frame, ex);
+            }
             return PNone.NONE;
         }
 
@@ -297,7 +301,7 @@ public class MMapBuiltins extends PythonBuiltins {
 
         private void writeBuffer(VirtualFrame frame, PosixSupportLibrary posixSupportLib, PMMap mmap, long idx, byte[] bytes, int len) {
             try {
-                posixSupportLib.mmapWriteBytes(getPosixSupport(), mmap.getPosixSupportHandle(), idx, bytes, len);
+                posixSupportLib.mmapWriteBytes(getPosixSupport(), mmap.getPosixSupportHandle(), idx, bytes, 0, len);
             } catch (PosixException ex) {
                 throw raiseOSErrorFromPosixException(frame, ex);
             }
@@ -482,7 +486,7 @@ public class MMapBuiltins extends PythonBuiltins {
             int nread;
             outer: while (self.getPos() < self.getLength()) {
                 try {
-                    nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), buffer, (int) Math.min(self.getRemaining(), buffer.length));
+                    nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), buffer, 0, (int) Math.min(self.getRemaining(), buffer.length));
                 } catch (PosixException e) {
                     throw raiseOSErrorFromPosixException(frame, e);
                 }
@@ -523,7 +527,7 @@ public class MMapBuiltins extends PythonBuiltins {
                 if (self.getPos() > self.getLength() || self.getLength() - self.getPos() < dataLen) {
                     throw raise(ValueError, ErrorMessages.DATA_OUT_OF_RANGE);
                 }
-                posixLib.mmapWriteBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), dataBytes, dataLen);
+                posixLib.mmapWriteBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), dataBytes, 0, dataLen);
                 return dataLen;
             } catch (PosixException e) {
                 throw raiseOSErrorFromPosixException(frame, e);
@@ -649,7 +653,7 @@ public class MMapBuiltins extends PythonBuiltins {
             try {
                 long remaining = self.getLength() - index;
                 int toReadLen = remaining > buffer.length ? buffer.length : (int) remaining;
-                int nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), index, buffer, toReadLen);
+                int nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), index, buffer, 0, toReadLen);
                 if (toReadLen != nread) {
                     throw raise(PythonBuiltinClassType.SystemError, MMAP_CHANGED_LENGTH);
                 }
@@ -704,7 +708,7 @@ public class MMapBuiltins extends PythonBuiltins {
             }
 
             try {
-                posixLib.mmapFlush(getPosixSupport(), self.getPosixSupportHandle(), offset, self.getLength());
+                posixLib.mmapFlush(getPosixSupport(), self.getPosixSupportHandle(), offset, size);
             } catch (PosixException e) {
                 throw raiseOSErrorFromPosixException(frame, e);
             }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -50,6 +50,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Exclusive;
+import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
@@ -133,11 +134,16 @@ public final class PMMap extends PythonObject {
         return castToIntNode.execute(length);
     }
 
+    @ExportMessage
+    boolean isReadonly() {
+        return !isWriteable();
+    }
+
     @ExportMessage
     byte readByte(int byteOffset,
-                    @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
-                    @Cached BranchProfile gotException,
-                    @Cached PConstructAndRaiseNode raiseNode) {
+                    @Shared("posixLib") @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Shared("gotException") @Cached BranchProfile gotException,
+                    @Shared("raiseNode") @Cached PConstructAndRaiseNode raiseNode) {
         try {
             return posixLib.mmapReadByte(PythonContext.get(raiseNode).getPosixSupport(), getPosixSupportHandle(), byteOffset);
         } catch (PosixException e) {
@@ -147,6 +153,45 @@ public final class PMMap extends PythonObject {
         }
     }
 
+    @ExportMessage
+    void readIntoByteArray(int srcOffset, byte[] dest, int destOffset, int length,
+                    @Shared("posixLib") @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Shared("gotException") @Cached BranchProfile gotException,
+                    @Shared("raiseNode") @Cached PConstructAndRaiseNode raiseNode) {
+        try {
+            posixLib.mmapReadBytes(PythonContext.get(raiseNode).getPosixSupport(), getPosixSupportHandle(), srcOffset, dest, destOffset, length);
+        } catch (PosixException e) {
+            gotException.enter();
+            throw raiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    @ExportMessage
+    void writeByte(int byteOffset, byte value,
+                    @Shared("posixLib") @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Shared("gotException") @Cached BranchProfile gotException,
+                    @Shared("raiseNode") @Cached PConstructAndRaiseNode raiseNode) {
+        try {
+            posixLib.mmapWriteByte(PythonContext.get(raiseNode).getPosixSupport(), getPosixSupportHandle(), byteOffset, value);
+        } catch (PosixException e) {
+            gotException.enter();
+            throw raiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    @ExportMessage
+    void writeFromByteArray(int destOffset, byte[] src, int srcOffset, int length,
+                    @Shared("posixLib") @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Shared("gotException") @Cached BranchProfile gotException,
+                    @Shared("raiseNode") @Cached PConstructAndRaiseNode raiseNode) {
+        try {
+            posixLib.mmapWriteBytes(PythonContext.get(raiseNode).getPosixSupport(), getPosixSupportHandle(), destOffset, src, srcOffset, length);
+        } catch (PosixException e) {
+            gotException.enter();
+            throw raiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
     @ExportMessage
     Object acquire(@SuppressWarnings("unused") int flags) {
         return this;
@@ -202,7 +202,6 @@ public final class FrozenModules {
         private static final PythonFrozenModule _SYSCONFIGDATA = new PythonFrozenModule("_SYSCONFIGDATA", "_sysconfigdata", false);
         private static final PythonFrozenModule GRAALPYTHON___GRAALPYTHON__ = new PythonFrozenModule("GRAALPYTHON___GRAALPYTHON__", "graalpython.__graalpython__", false);
         private static final PythonFrozenModule GRAALPYTHON__SRE = new PythonFrozenModule("GRAALPYTHON__SRE", "graalpython._sre", false);
-        private static final PythonFrozenModule GRAALPYTHON__STRUCT = new PythonFrozenModule("GRAALPYTHON__STRUCT", "graalpython._struct", false);
         private static final PythonFrozenModule GRAALPYTHON__SYSCONFIG = new PythonFrozenModule("GRAALPYTHON__SYSCONFIG", "graalpython._sysconfig", false);
         private static final PythonFrozenModule GRAALPYTHON__WEAKREF = new PythonFrozenModule("GRAALPYTHON__WEAKREF", "graalpython._weakref", false);
         private static final PythonFrozenModule GRAALPYTHON_BUILTINS = new PythonFrozenModule("GRAALPYTHON_BUILTINS", "graalpython.builtins", false);
@@ -552,8 +551,6 @@ public final class FrozenModules {
                 return Map.GRAALPYTHON___GRAALPYTHON__;
             case "graalpython._sre":
                 return Map.GRAALPYTHON__SRE;
-            case "graalpython._struct":
-                return Map.GRAALPYTHON__STRUCT;
             case "graalpython._sysconfig":
                 return Map.GRAALPYTHON__SYSCONFIG;
             case "graalpython._weakref":
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_ADD;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_DELETE;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_MODIFY;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLIN;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLOUT;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLPRI;
+import static com.oracle.graal.python.util.TimeUtils.SEC_TO_NS;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.select.EpollBuiltinsClinicProviders.EpollNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.select.EpollBuiltinsClinicProviders.FromFdNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.select.EpollBuiltinsClinicProviders.ModifyNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.select.EpollBuiltinsClinicProviders.PollNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.select.EpollBuiltinsClinicProviders.RegisterNodeClinicProviderGen;
+import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
+import com.oracle.graal.python.lib.PyTimeFromObjectNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PEpoll)
+public class EpollBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return EpollBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "epoll", minNumOfPositionalArgs = 1, parameterNames = {"cls", "sizehint", "flags"}, constructsClass = PythonBuiltinClassType.PEpoll)
+    @ArgumentClinic(name = "sizehint", conversion = ClinicConversion.Int, defaultValue = "-1")
+    @ArgumentClinic(name = "flags", conversion = ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class EpollNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PPoller create(VirtualFrame frame, Object cls, int sizehint, @SuppressWarnings("unused") int flags,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (sizehint != -1 && sizehint <= 0) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.NEGATIVE_SIZEHINT);
+            }
+            // the descriptor is always created with close-on-exec, so the flags are ignored
+            try {
+                return factory().createPoller(cls, posixLib.pollerCreate(getPosixSupport()));
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    @Builtin(name = "fromfd", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"cls", "fd"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class FromFdNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return FromFdNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PPoller fromfd(VirtualFrame frame, Object cls, int fd,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            try {
+                return factory().createPoller(cls, posixLib.pollerFromFd(getPosixSupport(), fd));
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    @Builtin(name = "fileno", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FilenoNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        int fileno(VirtualFrame frame, PPoller self,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            checkOpen(this, self);
+            try {
+                return posixLib.pollerGetFd(getPosixSupport(), self.getHandle());
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PNone close(VirtualFrame frame, PPoller self,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            closePoller(frame, this, posixLib, self);
+            return PNone.NONE;
+        }
+    }
+
+    static void closePoller(VirtualFrame frame, PythonBuiltinBaseNode node, PosixSupportLibrary posixLib, PPoller self) {
+        if (!self.isClosed()) {
+            Object handle = self.getHandle();
+            self.markClosed();
+            try {
+                posixLib.pollerClose(node.getPosixSupport(), handle);
+            } catch (PosixException e) {
+                throw node.raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static boolean closed(PPoller self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "eventmask", conversion = ClinicConversion.Int, defaultValue = "DEFAULT_EVENTS")
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryClinicBuiltinNode {
+        static final int DEFAULT_EVENTS = POLLIN | POLLPRI | POLLOUT;
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return RegisterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone register(VirtualFrame frame, PPoller self, Object fdObj, int eventmask,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            control(frame, this, posixLib, self, POLLER_ADD, asFileDescriptor.execute(frame, fdObj), eventmask);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "eventmask", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ModifyNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone modify(VirtualFrame frame, PPoller self, Object fdObj, int eventmask,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            control(frame, this, posixLib, self, POLLER_MODIFY, asFileDescriptor.execute(frame, fdObj), eventmask);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PNone unregister(VirtualFrame frame, PPoller self, Object fdObj,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            control(frame, this, posixLib, self, POLLER_DELETE, asFileDescriptor.execute(frame, fdObj), 0);
+            return PNone.NONE;
+        }
+    }
+
+    /**
+     * Unlike {@code select.poll}, errors of {@code epoll_ctl} are reported as {@code OSError}, so
+     * registering a file descriptor twice raises {@code FileExistsError}.
+     */
+    static void control(VirtualFrame frame, PythonBuiltinBaseNode node, PosixSupportLibrary posixLib, PPoller self, int op, int fd, int events) {
+        checkOpen(node, self);
+        try {
+            posixLib.pollerControl(node.getPosixSupport(), self.getHandle(), op, fd, events);
+        } catch (PosixException e) {
+            throw node.raiseOSErrorFromPosixException(frame, e);
+        }
+    }
+
+    static void checkOpen(PythonBuiltinBaseNode node, PPoller self) {
+        if (self.isClosed()) {
+            throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.IO_CLOSED_EPOLL);
+        }
+    }
+
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout", "maxevents"})
+    @ArgumentClinic(name = "maxevents", conversion = ClinicConversion.Int, defaultValue = "-1")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PollNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PList poll(VirtualFrame frame, PPoller self, Object timeout, int maxevents,
+                        @Cached PyTimeFromObjectNode pyTimeFromObjectNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil) {
+            checkOpen(this, self);
+            long timeoutMs = PollBuiltins.timeoutToMillis(frame, timeout, SEC_TO_NS, pyTimeFromObjectNode);
+            int maxEvents = maxevents;
+            if (maxEvents == -1) {
+                maxEvents = Integer.MAX_VALUE;
+            } else if (maxEvents <= 0) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.MAXEVENTS_MUST_BE_GREATER_THAN_0, maxEvents);
+            }
+            return PollBuiltins.wait(frame, this, factory(), posixLib, gil, self, maxEvents, timeoutMs);
+        }
+    }
+
+    @Builtin(name = __ENTER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EnterNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PPoller enter(PPoller self) {
+            checkOpen(this, self);
+            return self;
+        }
+    }
+
+    @Builtin(name = __EXIT__, minNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class ExitNode extends PythonBuiltinNode {
+
+        @Specialization
+        PNone exit(VirtualFrame frame, PPoller self, @SuppressWarnings("unused") Object typ, @SuppressWarnings("unused") Object val, @SuppressWarnings("unused") Object tb,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            closePoller(frame, this, posixLib, self);
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_ADD;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_DELETE;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_MODIFY;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLIN;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLOUT;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLPRI;
+import static com.oracle.graal.python.util.TimeUtils.MS_TO_NS;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.select.PollBuiltinsClinicProviders.ModifyNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.select.PollBuiltinsClinicProviders.RegisterNodeClinicProviderGen;
+import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
+import com.oracle.graal.python.lib.PyTimeFromObjectNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PollResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PPoll)
+public class PollBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PollBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Waits on the poller with the GIL released and returns the ready file descriptors as a list of
+     * {@code (fd, events)} tuples. Interrupted waits are retried with the remaining timeout after
+     * running the pending async actions, like CPython does since PEP 475.
+     */
+    static PList wait(VirtualFrame frame, PythonBuiltinBaseNode node, PythonObjectFactory factory, PosixSupportLibrary posixLib, GilNode gil, PPoller self, int maxEvents, long timeoutMs) {
+        PollResult result;
+        long deadline = timeoutMs > 0 ? System.nanoTime() + timeoutMs * MS_TO_NS : 0;
+        long remainingMs = timeoutMs;
+        while (true) {
+            try {
+                gil.release(true);
+                try {
+                    result = posixLib.pollerWait(node.getPosixSupport(), self.getHandle(), maxEvents, remainingMs);
+                } finally {
+                    gil.acquire();
+                }
+                break;
+            } catch (PosixException e) {
+                if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                    PythonContext.triggerAsyncActions(node);
+                    if (timeoutMs > 0) {
+                        long remainingNs = deadline - System.nanoTime();
+                        remainingMs = remainingNs <= 0 ? 0 : remainingNs / MS_TO_NS + (remainingNs % MS_TO_NS != 0 ? 1 : 0);
+                    }
+                } else {
+                    throw node.raiseOSErrorFromPosixException(frame, e);
+                }
+            }
+        }
+        int[] fds = result.getFds();
+        int[] events = result.getEvents();
+        Object[] items = new Object[fds.length];
+        for (int i = 0; i < fds.length; i++) {
+            items[i] = factory.createTuple(new Object[]{fds[i], events[i]});
+        }
+        return factory.createList(items);
+    }
+
+    /**
+     * Converts a timeout in the given unit to milliseconds, rounding up. {@code None} and negative
+     * timeouts mean to wait indefinitely and are converted to {@code -1}.
+     */
+    static long timeoutToMillis(VirtualFrame frame, Object timeout, long unitToNs, PyTimeFromObjectNode pyTimeFromObjectNode) {
+        if (PGuards.isPNone(timeout)) {
+            return -1;
+        }
+        long ns = pyTimeFromObjectNode.execute(frame, timeout, unitToNs);
+        if (ns < 0) {
+            return -1;
+        }
+        return ns / MS_TO_NS + (ns % MS_TO_NS != 0 ? 1 : 0);
+    }
+
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "eventmask", conversion = ClinicConversion.Int, defaultValue = "DEFAULT_EVENTS")
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryClinicBuiltinNode {
+        static final int DEFAULT_EVENTS = POLLIN | POLLPRI | POLLOUT;
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return RegisterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone register(VirtualFrame frame, PPoller self, Object fdObj, int eventmask,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            int fd = asFileDescriptor.execute(frame, fdObj);
+            try {
+                try {
+                    posixLib.pollerControl(getPosixSupport(), self.getHandle(), POLLER_ADD, fd, eventmask);
+                } catch (PosixException e) {
+                    if (e.getErrorCode() != OSErrorEnum.EEXIST.getNumber()) {
+                        throw e;
+                    }
+                    // registering a file descriptor again modifies its event mask
+                    posixLib.pollerControl(getPosixSupport(), self.getHandle(), POLLER_MODIFY, fd, eventmask);
+                }
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "eventmask", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ModifyNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone modify(VirtualFrame frame, PPoller self, Object fdObj, int eventmask,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            int fd = asFileDescriptor.execute(frame, fdObj);
+            try {
+                posixLib.pollerControl(getPosixSupport(), self.getHandle(), POLLER_MODIFY, fd, eventmask);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PNone unregister(VirtualFrame frame, PPoller self, Object fdObj,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            int fd = asFileDescriptor.execute(frame, fdObj);
+            try {
+                posixLib.pollerControl(getPosixSupport(), self.getHandle(), POLLER_DELETE, fd, 0);
+            } catch (PosixException e) {
+                if (e.getErrorCode() == OSErrorEnum.ENOENT.getNumber()) {
+                    throw raise(PythonBuiltinClassType.KeyError, new Object[]{fdObj});
+                }
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout"})
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PList poll(VirtualFrame frame, PPoller self, Object timeout,
+                        @Cached PyTimeFromObjectNode pyTimeFromObjectNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil) {
+            long timeoutMs = timeoutToMillis(frame, timeout, MS_TO_NS, pyTimeFromObjectNode);
+            if (self.isPolling()) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.CONCURRENT_POLL_INVOCATION);
+            }
+            self.setPolling(true);
+            try {
+                return wait(frame, this, factory(), posixLib, gil, self, Integer.MAX_VALUE, timeoutMs);
+            } finally {
+                self.setPolling(false);
+            }
+        }
+    }
+}
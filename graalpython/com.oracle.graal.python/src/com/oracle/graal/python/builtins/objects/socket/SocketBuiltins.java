@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -41,6 +41,7 @@
 package com.oracle.graal.python.builtins.objects.socket;
 
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MemoryError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.NotImplementedError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OSError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
@@ -70,14 +71,17 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.socket.SocketUtils.TimeoutHelper;
 import com.oracle.graal.python.lib.PyLongAsIntNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
@@ -90,8 +94,10 @@ import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProv
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PosixConstants;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddrLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -898,6 +904,175 @@ public class SocketBuiltins extends PythonBuiltins {
         }
     }
 
+    // sendmsg(buffers[, ancdata[, flags[, address]]])
+    @Builtin(name = "sendmsg", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 5)
+    @GenerateNodeFactory
+    abstract static class SendMsgNode extends PythonBuiltinNode {
+        @Specialization
+        int sendMsg(VirtualFrame frame, PSocket socket, Object buffers, Object ancdata, Object flagsObj, Object address,
+                        @Cached FastConstructListNode constructListNode,
+                        @Cached SequenceStorageNodes.ToArrayNode toArrayNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached SocketNodes.GetSockAddrArgNode getSockAddrArgNode,
+                        @Cached SysModuleBuiltins.AuditNode auditNode,
+                        @Cached GilNode gil) {
+            Object[] items = toArrayNode.execute(constructListNode.execute(frame, buffers).getSequenceStorage());
+            if (ancdata != PNone.NO_VALUE && toArrayNode.execute(constructListNode.execute(frame, ancdata).getSequenceStorage()).length != 0) {
+                throw raise(NotImplementedError, "sendmsg: ancillary data is not supported");
+            }
+            int flags = flagsObj == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, flagsObj);
+            UniversalSockAddr addr = null;
+            if (!PGuards.isPNone(address)) {
+                addr = getSockAddrArgNode.execute(frame, socket, address, "sendmsg");
+                auditNode.audit("socket.sendmsg", socket, address);
+            }
+            Object[] acquired = new Object[items.length];
+            try {
+                Buffer[] data = new Buffer[items.length];
+                for (int i = 0; i < items.length; ++i) {
+                    acquired[i] = bufferAcquireLib.acquireReadonly(items[i], frame, this);
+                    data[i] = new Buffer(bufferLib.getInternalOrCopiedByteArray(acquired[i]), bufferLib.getBufferLength(acquired[i]));
+                }
+                checkSelectable(this, socket);
+
+                final UniversalSockAddr destAddr = addr;
+                try {
+                    return SocketUtils.callSocketFunctionWithRetry(frame, getConstructAndRaiseNode(), posixLib, getPosixSupport(), gil, socket,
+                                    () -> posixLib.sendmsg(getPosixSupport(), socket.getFd(), data, flags, destAddr),
+                                    true, false);
+                } catch (PosixException e) {
+                    throw raiseOSErrorFromPosixException(frame, e);
+                }
+            } finally {
+                for (Object buffer : acquired) {
+                    if (buffer != null) {
+                        bufferLib.release(buffer, frame, this);
+                    }
+                }
+            }
+        }
+    }
+
+    // recvmsg(bufsize[, ancbufsize[, flags]])
+    @Builtin(name = "recvmsg", minNumOfPositionalArgs = 2, parameterNames = {"$self", "bufsize", "ancbufsize", "flags"})
+    @ArgumentClinic(name = "bufsize", conversion = ArgumentClinic.ClinicConversion.Index)
+    @ArgumentClinic(name = "ancbufsize", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "flags", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class RecvMsgNode extends PythonQuaternaryClinicBuiltinNode {
+        @Specialization
+        Object recvMsg(VirtualFrame frame, PSocket socket, int bufsize, int ancbufsize, int flags,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil,
+                        @Cached SocketNodes.MakeSockAddrNode makeSockAddrNode) {
+            if (bufsize < 0) {
+                throw raise(ValueError, "negative buffer size in recvmsg()");
+            }
+            if (ancbufsize < 0) {
+                throw raise(ValueError, "negative ancillary buffer size in recvmsg()");
+            }
+            checkSelectable(this, socket);
+
+            byte[] bytes;
+            try {
+                bytes = new byte[bufsize];
+            } catch (OutOfMemoryError error) {
+                throw raise(MemoryError);
+            }
+
+            Buffer[] data = new Buffer[]{Buffer.wrap(bytes)};
+            try {
+                RecvmsgResult result = SocketUtils.callSocketFunctionWithRetry(frame, getConstructAndRaiseNode(), posixLib, getPosixSupport(), gil, socket,
+                                () -> posixLib.recvmsg(getPosixSupport(), socket.getFd(), data, flags),
+                                false, false);
+                PBytes resultBytes = factory().createBytes(bytes, result.readBytes);
+                return factory().createTuple(new Object[]{resultBytes, factory().createList(), result.msgFlags, makeSockAddrNode.execute(frame, result.sockAddr)});
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SocketBuiltinsClinicProviders.RecvMsgNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    // recvmsg_into(buffers[, ancbufsize[, flags]])
+    @Builtin(name = "recvmsg_into", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffers", "ancbufsize", "flags"})
+    @ArgumentClinic(name = "ancbufsize", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "flags", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class RecvMsgIntoNode extends PythonQuaternaryClinicBuiltinNode {
+        @Specialization
+        Object recvMsgInto(VirtualFrame frame, PSocket socket, Object buffers, int ancbufsize, int flags,
+                        @Cached FastConstructListNode constructListNode,
+                        @Cached SequenceStorageNodes.ToArrayNode toArrayNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil,
+                        @Cached SocketNodes.MakeSockAddrNode makeSockAddrNode) {
+            if (ancbufsize < 0) {
+                throw raise(ValueError, "negative ancillary buffer size in recvmsg_into()");
+            }
+            Object[] items = toArrayNode.execute(constructListNode.execute(frame, buffers).getSequenceStorage());
+            Object[] acquired = new Object[items.length];
+            try {
+                // buffers backed by a byte array are received into directly, the others are copied
+                // afterwards
+                Buffer[] data = new Buffer[items.length];
+                for (int i = 0; i < items.length; ++i) {
+                    acquired[i] = bufferAcquireLib.acquireWritableWithTypeError(items[i], "recvmsg_into", frame, this);
+                    int len = bufferLib.getBufferLength(acquired[i]);
+                    byte[] bytes;
+                    if (bufferLib.hasInternalByteArray(acquired[i])) {
+                        bytes = bufferLib.getInternalByteArray(acquired[i]);
+                    } else {
+                        try {
+                            bytes = new byte[len];
+                        } catch (OutOfMemoryError error) {
+                            throw raise(MemoryError);
+                        }
+                    }
+                    data[i] = new Buffer(bytes, len);
+                }
+                checkSelectable(this, socket);
+
+                try {
+                    RecvmsgResult result = SocketUtils.callSocketFunctionWithRetry(frame, getConstructAndRaiseNode(), posixLib, getPosixSupport(), gil, socket,
+                                    () -> posixLib.recvmsg(getPosixSupport(), socket.getFd(), data, flags),
+                                    false, false);
+                    int remaining = result.readBytes;
+                    for (int i = 0; i < items.length && remaining > 0; ++i) {
+                        int len = (int) Math.min(data[i].length, remaining);
+                        if (!bufferLib.hasInternalByteArray(acquired[i])) {
+                            bufferLib.writeFromByteArray(acquired[i], 0, data[i].data, 0, len);
+                        }
+                        remaining -= len;
+                    }
+                    return factory().createTuple(new Object[]{result.readBytes, factory().createList(), result.msgFlags, makeSockAddrNode.execute(frame, result.sockAddr)});
+                } catch (PosixException e) {
+                    throw raiseOSErrorFromPosixException(frame, e);
+                }
+            } finally {
+                for (Object buffer : acquired) {
+                    if (buffer != null) {
+                        bufferLib.release(buffer, frame, this);
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SocketBuiltinsClinicProviders.RecvMsgIntoNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
     @Builtin(name = "setblocking", minNumOfPositionalArgs = 2, numOfPositionalOnlyArgs = 2, parameterNames = {"$self", "blocking"})
     @ArgumentClinic(name = "blocking", conversion = ArgumentClinic.ClinicConversion.Boolean)
     @GenerateNodeFactory
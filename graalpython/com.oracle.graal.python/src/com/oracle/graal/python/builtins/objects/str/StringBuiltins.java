@@ -1794,8 +1794,13 @@ public final class StringBuiltins extends PythonBuiltins {
 
         @Specialization
         Object doStringEncoding(VirtualFrame frame, String self, String encoding, String errors,
+                        @Cached ConditionProfile standardCodecProfile,
                         @Cached CodecsModuleBuiltins.EncodeNode encodeNode,
                         @Cached SequenceStorageNodes.CopyNode copyNode) {
+            byte[] bytes = StringUtils.encodeStandard(self, encoding);
+            if (standardCodecProfile.profile(bytes != null)) {
+                return factory().createBytes(bytes);
+            }
             Object result = encodeNode.execute(frame, self, encoding, errors);
             if (!(result instanceof PBytes)) {
                 if (result instanceof PByteArray) {
@@ -1809,10 +1814,11 @@ public final class StringBuiltins extends PythonBuiltins {
         @Specialization
         Object doGeneric(VirtualFrame frame, Object self, String encoding, String errors,
                         @Cached CastToJavaStringCheckedNode castSelfNode,
+                        @Cached ConditionProfile standardCodecProfile,
                         @Cached CodecsModuleBuiltins.EncodeNode encodeNode,
                         @Cached SequenceStorageNodes.CopyNode copyNode) {
             String selfStr = castSelfNode.cast(self, ErrorMessages.REQUIRES_STR_OBJECT_BUT_RECEIVED_P, "index", self);
-            return doStringEncoding(frame, selfStr, encoding, errors, encodeNode, copyNode);
+            return doStringEncoding(frame, selfStr, encoding, errors, standardCodecProfile, encodeNode, copyNode);
         }
     }
 
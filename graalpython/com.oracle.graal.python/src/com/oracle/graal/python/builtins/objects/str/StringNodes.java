@@ -292,14 +292,13 @@ public abstract class StringNodes {
 
         @TruffleBoundary
         private static String joinString(String self, String arg) {
-            StringBuilder sb = new StringBuilder();
-            char[] joinString = arg.toCharArray();
-            assert joinString.length > 0;
-            for (int i = 0; i < joinString.length - 1; i++) {
-                sb.append(joinString[i]);
+            assert arg.length() > 0;
+            StringBuilder sb = new StringBuilder((int) Math.min(Integer.MAX_VALUE, (long) self.length() * (arg.length() - 1) + arg.length()));
+            for (int i = 0; i < arg.length() - 1; i++) {
+                sb.append(arg.charAt(i));
                 sb.append(self);
             }
-            sb.append(joinString[joinString.length - 1]);
+            sb.append(arg.charAt(arg.length() - 1));
             return sb.toString();
         }
 
@@ -325,7 +324,6 @@ public abstract class StringNodes {
                 return "";
             }
 
-            StringBuilder sb = PythonUtils.newStringBuilder();
             int i = 0;
 
             // manually peel first iteration
@@ -335,12 +333,24 @@ public abstract class StringNodes {
                 if (isSingleItemProfile.profile(len == 1)) {
                     return castToJavaStringNode.execute(item);
                 }
-                PythonUtils.append(sb, castToJavaStringNode.execute(item));
+                // collect the items first, so that the result is built without resizing
+                String[] items = new String[len];
+                items[0] = castToJavaStringNode.execute(item);
+                long resultLength = (long) self.length() * (len - 1) + items[0].length();
+                for (i = 1; i < len; i++) {
+                    item = getItemNode.execute(frame, storage, i);
+                    items[i] = castToJavaStringNode.execute(item);
+                    resultLength += items[i].length();
+                }
+                if (resultLength > Integer.MAX_VALUE) {
+                    throw raise.raise(MemoryError);
+                }
 
+                StringBuilder sb = PythonUtils.newStringBuilder((int) resultLength);
+                PythonUtils.append(sb, items[0]);
                 for (i = 1; i < len; i++) {
                     PythonUtils.append(sb, self);
-                    item = getItemNode.execute(frame, storage, i);
-                    PythonUtils.append(sb, castToJavaStringNode.execute(item));
+                    PythonUtils.append(sb, items[i]);
                 }
                 return PythonUtils.sbToString(sb);
             } catch (OutOfMemoryError e) {
@@ -40,6 +40,8 @@
  */
 package com.oracle.graal.python.builtins.objects.str;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
@@ -49,6 +51,7 @@ import org.graalvm.nativeimage.ImageInfo;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UCharacterCategory;
 import com.ibm.icu.lang.UProperty;
+import com.oracle.graal.python.util.CharsetMapping;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 public final class StringUtils {
@@ -248,6 +251,129 @@ public final class StringUtils {
         return string.getBytes(charset);
     }
 
+    private static final int CODEC_OTHER = 0;
+    private static final int CODEC_ASCII = 1;
+    private static final int CODEC_LATIN1 = 2;
+    private static final int CODEC_UTF8 = 3;
+
+    /**
+     * Recognizes the standard codecs that {@code str.encode} and {@code bytes.decode} handle
+     * without going through the codec registry, like CPython's {@code PyUnicode_AsEncodedString}
+     * and {@code PyUnicode_Decode} do.
+     */
+    private static int getStandardCodec(String encoding) {
+        switch (encoding) {
+            case "utf-8":
+            case "utf8":
+            case "UTF-8":
+                return CODEC_UTF8;
+            case "ascii":
+                return CODEC_ASCII;
+            case "latin-1":
+            case "latin1":
+            case "iso-8859-1":
+                return CODEC_LATIN1;
+            default:
+                break;
+        }
+        switch (CharsetMapping.normalize(encoding)) {
+            case "utf_8":
+            case "utf8":
+                return CODEC_UTF8;
+            case "ascii":
+            case "us_ascii":
+                return CODEC_ASCII;
+            case "latin_1":
+            case "latin1":
+            case "iso_8859_1":
+            case "iso8859_1":
+                return CODEC_LATIN1;
+            default:
+                return CODEC_OTHER;
+        }
+    }
+
+    /**
+     * Returns {@code true} if {@link #encodeStandard} and {@link #decodeStandard} may handle the
+     * encoding, so that callers can avoid preparing their arguments for other encodings.
+     */
+    @TruffleBoundary
+    public static boolean isStandardCodec(String encoding) {
+        return getStandardCodec(encoding) != CODEC_OTHER;
+    }
+
+    /**
+     * Encodes the string if the encoding is one of the standard codecs and the string can be
+     * encoded without errors. Java strings of Latin-1 characters are stored as bytes, so this is
+     * just an array copy for such strings. Returns {@code null} if the codec machinery must be used
+     * instead, e.g., to report errors or to apply the error handler.
+     */
+    @TruffleBoundary
+    public static byte[] encodeStandard(String string, String encoding) {
+        int codec = getStandardCodec(encoding);
+        if (codec == CODEC_OTHER) {
+            return null;
+        }
+        char maxChar = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+                    // a surrogate pair is a valid code point, only UTF-8 can encode it
+                    i++;
+                } else {
+                    // lone surrogates need the error handler
+                    return null;
+                }
+            }
+            maxChar = (char) Math.max(maxChar, c);
+        }
+        if (maxChar < 0x80) {
+            return string.getBytes(StandardCharsets.ISO_8859_1);
+        }
+        switch (codec) {
+            case CODEC_LATIN1:
+                return maxChar < 0x100 ? string.getBytes(StandardCharsets.ISO_8859_1) : null;
+            case CODEC_UTF8:
+                return string.getBytes(StandardCharsets.UTF_8);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Decodes the first {@code len} bytes if the encoding is one of the standard codecs and the
+     * bytes are valid in it. ASCII and Latin-1 data are decoded with a plain copy into a compact
+     * Java string. Returns {@code null} if the codec machinery must be used instead.
+     */
+    @TruffleBoundary
+    public static String decodeStandard(byte[] bytes, int len, String encoding) {
+        int codec = getStandardCodec(encoding);
+        if (codec == CODEC_OTHER) {
+            return null;
+        }
+        if (codec != CODEC_LATIN1) {
+            for (int i = 0; i < len; i++) {
+                if (bytes[i] < 0) {
+                    if (codec == CODEC_UTF8) {
+                        return decodeUTF8Strict(bytes, len);
+                    }
+                    return null;
+                }
+            }
+        }
+        return new String(bytes, 0, len, StandardCharsets.ISO_8859_1);
+    }
+
+    private static String decodeUTF8Strict(byte[] bytes, int len) {
+        try {
+            // a new decoder reports malformed input instead of replacing it
+            return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes, 0, len)).toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
     @TruffleBoundary
     public static Object[] toCharacterArray(String arg) {
         Object[] values = new Object[arg.codePointCount(0, arg.length())];
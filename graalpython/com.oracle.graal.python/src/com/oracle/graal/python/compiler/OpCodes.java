@@ -624,7 +624,118 @@ public enum OpCodes {
      * 
      * Pops: exception or {@code None}, then maybe-bound {@code __exit__}, then the context manager
      */
-    EXIT_WITH(0, 3, 0);
+    EXIT_WITH(0, 3, 0),
+
+    // quickened instructions
+    /*
+     * The following instructions are never emitted by the compiler. The interpreter rewrites the
+     * generic instructions above into these type-specialized forms in its private copy of the
+     * bytecode. Each quickened form has the same operands and stack effect as its generic form.
+     */
+    /**
+     * Like {@link #LOAD_FAST}, but doesn't try to keep the value unboxed.
+     */
+    LOAD_FAST_O(1, 0, 1),
+    /**
+     * Like {@link #LOAD_FAST}, for a variable stored in an {@code int} frame slot.
+     */
+    LOAD_FAST_I(1, 0, 1),
+    /**
+     * Like {@link #LOAD_FAST}, for a variable stored in a {@code long} frame slot.
+     */
+    LOAD_FAST_L(1, 0, 1),
+    /**
+     * Like {@link #LOAD_FAST}, for a variable stored in a {@code double} frame slot.
+     */
+    LOAD_FAST_D(1, 0, 1),
+    /**
+     * Like {@link #LOAD_FAST}, for a variable stored in a {@code boolean} frame slot.
+     */
+    LOAD_FAST_B(1, 0, 1),
+    /**
+     * Like {@link #STORE_FAST}, always stores a boxed value.
+     */
+    STORE_FAST_O(1, 1, 0),
+    /**
+     * Like {@link #STORE_FAST}, stores the value into an {@code int} frame slot.
+     */
+    STORE_FAST_I(1, 1, 0),
+    /**
+     * Like {@link #STORE_FAST}, stores the value into a {@code long} frame slot.
+     */
+    STORE_FAST_L(1, 1, 0),
+    /**
+     * Like {@link #STORE_FAST}, stores the value into a {@code double} frame slot.
+     */
+    STORE_FAST_D(1, 1, 0),
+    /**
+     * Like {@link #STORE_FAST}, stores the value into a {@code boolean} frame slot.
+     */
+    STORE_FAST_B(1, 1, 0),
+    /**
+     * Like {@link #BINARY_OP}, always operates on boxed values.
+     */
+    BINARY_OP_O(1, 2, 1),
+    /**
+     * Like {@link #BINARY_OP}, for two {@code int} operands.
+     */
+    BINARY_OP_II(1, 2, 1),
+    /**
+     * Like {@link #BINARY_OP}, for two {@code long} operands (or a {@code long} and an
+     * {@code int}).
+     */
+    BINARY_OP_LL(1, 2, 1),
+    /**
+     * Like {@link #BINARY_OP}, for two {@code double} operands (or a {@code double} and an
+     * {@code int}).
+     */
+    BINARY_OP_DD(1, 2, 1),
+    /**
+     * Like {@link #POP_AND_JUMP_IF_FALSE}, always operates on a boxed value.
+     */
+    POP_AND_JUMP_IF_FALSE_O(1, 1, 0),
+    /**
+     * Like {@link #POP_AND_JUMP_IF_FALSE}, for a {@code boolean} condition.
+     */
+    POP_AND_JUMP_IF_FALSE_B(1, 1, 0),
+    /**
+     * Like {@link #POP_AND_JUMP_IF_TRUE}, always operates on a boxed value.
+     */
+    POP_AND_JUMP_IF_TRUE_O(1, 1, 0),
+    /**
+     * Like {@link #POP_AND_JUMP_IF_TRUE}, for a {@code boolean} condition.
+     */
+    POP_AND_JUMP_IF_TRUE_B(1, 1, 0),
+
+    // superinstructions
+    /*
+     * Superinstructions are not emitted by the compiler either. The interpreter replaces the opcode
+     * of the first instruction of a common sequence with the superinstruction and leaves the
+     * remaining instructions in place, so that jumps into the middle of the sequence still work.
+     * The length of a superinstruction covers only the first instruction, the stack effect covers
+     * the whole sequence.
+     */
+    /**
+     * {@link #LOAD_FAST} followed by another {@link #LOAD_FAST}.
+     */
+    LOAD_FAST_LOAD_FAST(1, 0, 2),
+    /**
+     * Comparison {@link #BINARY_OP} followed by {@link #POP_AND_JUMP_IF_FALSE}. The jump offset is
+     * relative to the {@link #POP_AND_JUMP_IF_FALSE} instruction.
+     */
+    COMPARE_AND_JUMP_IF_FALSE_O(1, 2, 0),
+    /**
+     * Like {@link #COMPARE_AND_JUMP_IF_FALSE_O}, for {@code int} or {@code long} operands.
+     */
+    COMPARE_AND_JUMP_IF_FALSE_L(1, 2, 0),
+    /**
+     * {@link #LOAD_CONST} or {@link #LOAD_STRING} followed by {@link #RETURN_VALUE}.
+     */
+    RETURN_CONST(1, 0, 0),
+    /**
+     * {@link #LOAD_NONE} followed by {@link #RETURN_VALUE}.
+     */
+    RETURN_NONE(0, 0, 0);
 
     public static final class CollectionBits {
         public static final int MAX_STACK_ELEMENT_COUNT = 0b00011111;
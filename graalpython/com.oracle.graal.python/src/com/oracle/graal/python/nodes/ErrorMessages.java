@@ -274,6 +274,10 @@ public abstract class ErrorMessages {
     public static final String FILE_OR_STREAM_IS_NOT_SEEKABLE = "File or stream is not seekable.";
     public static final String FILE_OR_STREAM_IS_NOT_WRITABLE = "File or stream is not writable.";
     public static final String FILE_DESCRIPTOR_OUT_OF_RANGE_IN_SELECT = "filedescriptor out of range in select()";
+    public static final String CONCURRENT_POLL_INVOCATION = "concurrent poll() invocation";
+    public static final String IO_CLOSED_EPOLL = "I/O operation on closed epoll object";
+    public static final String NEGATIVE_SIZEHINT = "negative sizehint";
+    public static final String MAXEVENTS_MUST_BE_GREATER_THAN_0 = "maxevents must be greater than 0, got %d";
     public static final String FILL_CHAR_MUST_BE_LENGTH_1 = "The fill character must be exactly one character long";
     public static final String FILTER_SPEC_MUST_BE_DICT = "Filter specifier must be a dict or dict-like object";
     public static final String FILTER_SPECIFIER_MUST_HAVE = "Filter specifier must have an \"id\" entry";
@@ -312,6 +316,7 @@ public abstract class ErrorMessages {
     public static final String P_HAS_RO_ATTRS_S_TO_DELETE = "'%p' object has only read-only attributes (del .%s)";
     public static final String HASH_MISMATCH = "hash mismatch: known hash is different to computed hash";
     public static final String HASH_SHOULD_RETURN_INTEGER = "__hash__ method should return an integer";
+    public static final String HEAP_ARGUMENT_MUST_BE_A_LIST = "heap argument must be a list";
     public static final String HEX_VALUE_TOO_LARGE_AS_FLOAT = "hexadecimal value too large to represent as a float";
     public static final String HOST_ACCESS_NOT_ALLOWED = "host access is not allowed";
     public static final String HOST_LOOKUP_NOT_ALLOWED = "host lookup is not allowed";
@@ -396,7 +401,11 @@ public abstract class ErrorMessages {
     public static final String IS_NOT_TYPE_OBJ = "%s is not a type object (%p)";
     public static final String ISINSTANCE_ARG_2_MUST_BE_TYPE_OR_TUPLE_OF_TYPE = "isinstance() arg 2 must be a type or tuple of types (was: %s)";
     public static final String ISSUBCLASS_MUST_BE_CLASS_OR_TUPLE = "issubclass() arg 2 must be a class or tuple of classes";
+    public static final String ITERATION_VALUE_IS_TOO_GREAT = "iteration value is too great.";
+    public static final String ITERATION_VALUE_MUST_BE_GREATER_THAN_0 = "iteration value must be greater than 0.";
     public static final String ITER_V_MUST_BE_CALLABLE = "iter(v, w): v must be callable";
+    public static final String KEY_LENGTH_IS_TOO_GREAT = "key length is too great.";
+    public static final String KEY_LENGTH_MUST_BE_GREATER_THAN_0 = "key length must be greater than 0.";
     public static final String KEYWORD_NAMES_MUST_BE_STR_GOT_P = "keyword names must be str, get %p";
     public static final String KEYWORDS_S_MUST_BE_STRINGS = "%s keywords must be strings";
     public static final String KLASS_ARG_IS_NOT_HOST_OBJ = "klass argument '%p' is not a host object";
@@ -425,6 +434,8 @@ public abstract class ErrorMessages {
     public static final String MEMORYVIEW_SLICE_ASSIGNMENT_RESTRICTED_TO_DIM_1 = "memoryview slice assignments are currently restricted to ndim = 1";
     public static final String MEMORYVIEW_DIFFERENT_STRUCTURES = "memoryview assignment: lvalue and rvalue have different structures";
     public static final String MEMORYVIEW_FORBIDDEN_RELEASED = "operation forbidden on released memoryview object";
+    public static final String PICKLEBUFFER_FORBIDDEN_RELEASED = "operation forbidden on released PickleBuffer object";
+    public static final String CANNOT_EXTRACT_RAW_BUFFER_FROM_NON_CONTIGUOUS = "cannot extract raw buffer from non-contiguous buffer";
     public static final String MEMORYVIEW_DESTINATION_FORMAT_ERROR = "memoryview: destination format must be a native single character format prefixed with an optional '@'";
     public static final String MEMORYVIEW_CANNOT_CAST_NON_BYTE = "memoryview: cannot cast between two non-byte formats";
     public static final String MEMORYVIEW_LENGTH_NOT_MULTIPLE_OF_ITEMSIZE = "memoryview: length is not a multiple of itemsize";
@@ -693,6 +704,7 @@ public abstract class ErrorMessages {
     public static final String UNRECOGNIZED_KIND = "unrecognized kind";
     public static final String UNSIGNED_BYTE_INT_GREATER_THAN_MAX = "unsigned byte integer is greater than maximum";
     public static final String UNSIGNED_BYTE_INT_LESS_THAN_MIN = "unsigned byte integer is less than minimum";
+    public static final String UNSUPPORTED_HASH_TYPE = "unsupported hash type %s";
     public static final String UNSUPPORTED_FORMAT_CHAR_AT_INDEX = "unsupported format character '%c' (0x%x) at index %d";
     public static final String UNSUPPORTED_INSTANCEOF = "unsupported instanceof(%p, %p)";
     public static final String UNSUPPORTED_LOCALE_SETTING = "unsupported locale setting";
@@ -1057,6 +1069,36 @@ public abstract class ErrorMessages {
     public static final String ESCAPE_WITHOUT_ESCAPECHAR = "need to escape, but no escapechar set";
     public static final String S_MUST_HAVE_WRITE_METHOD = "%s must have \"write\" method";
 
+    // struct errors
+    public static final String STRUCT_BAD_CHAR_IN_FORMAT = "bad char in struct format";
+    public static final String STRUCT_EMBEDDED_NULL_CHARACTER = "embedded null character";
+    public static final String STRUCT_REPEAT_COUNT_WITHOUT_FMT = "repeat count given without format specifier";
+    public static final String STRUCT_SIZE_TOO_LONG = "total struct size too long";
+    public static final String STRUCT_ARG_MUST_BE_STR_OR_BYTES = "Struct() argument 1 must be a str or bytes object, not %p";
+    public static final String STRUCT_ARG_NOT_AN_INTEGER = "required argument is not an integer";
+    public static final String STRUCT_ARG_NOT_A_FLOAT = "required argument is not a float";
+    public static final String STRUCT_ARG_OUT_OF_RANGE = "argument out of range";
+    public static final String STRUCT_INT_TOO_LARGE_TO_CONVERT = "int too large to convert";
+    public static final String STRUCT_BYTE_FORMAT_RANGE = "byte format requires -128 <= number <= 127";
+    public static final String STRUCT_UBYTE_FORMAT_RANGE = "ubyte format requires 0 <= number <= 255";
+    public static final String STRUCT_SHORT_FORMAT_RANGE = "short format requires -32768 <= number <= 32767";
+    public static final String STRUCT_USHORT_FORMAT_RANGE = "ushort format requires 0 <= number <= 65535";
+    public static final String STRUCT_FORMAT_RANGE = "'%s' format requires %d <= number <= %d";
+    public static final String STRUCT_CHAR_FORMAT_REQUIRES_BYTES = "char format requires a bytes object of length 1";
+    public static final String STRUCT_ARG_FOR_S_MUST_BE_BYTES = "argument for '%s' must be a bytes object";
+    public static final String STRUCT_UNPACK_REQUIRES_BUFFER_OF_D_BYTES = "unpack requires a buffer of %d bytes";
+    public static final String STRUCT_NOT_ENOUGH_DATA_TO_UNPACK = "not enough data to unpack %d bytes at offset %d";
+    public static final String STRUCT_OFFSET_OUT_OF_RANGE = "offset %d out of range for %d-byte buffer";
+    public static final String STRUCT_UNPACK_FROM_REQUIRES = "unpack_from requires a buffer of at least %d bytes for unpacking %d bytes at offset %d (actual buffer size is %d)";
+    public static final String STRUCT_ITER_UNPACK_LENGTH_ZERO = "cannot iteratively unpack with a struct of length 0";
+    public static final String STRUCT_ITER_UNPACK_REQUIRES_MULTIPLE = "iterative unpacking requires a buffer of a multiple of %d bytes";
+    public static final String STRUCT_PACK_EXPECTED_N_ITEMS = "pack expected %d items for packing (got %d)";
+    public static final String STRUCT_PACK_INTO_EXPECTED_BUFFER = "pack_into expected buffer argument";
+    public static final String STRUCT_PACK_INTO_EXPECTED_OFFSET = "pack_into expected offset argument";
+    public static final String STRUCT_PACK_INTO_EXPECTED_N_ITEMS = "pack_into expected %d items for packing (got %d)";
+    public static final String STRUCT_NO_SPACE_TO_PACK = "no space to pack %d bytes at offset %d";
+    public static final String STRUCT_PACK_INTO_REQUIRES = "pack_into requires a buffer of at least %d bytes for packing %d bytes at offset %d (actual buffer size is %d)";
+
     // frozen module errors
     public static final String NO_SUCH_FROZEN_OBJECT = "No such frozen object named %s";
     public static final String FROZEN_DISABLED = "Frozen modules are disabled and the frozen object named %s is not essential";
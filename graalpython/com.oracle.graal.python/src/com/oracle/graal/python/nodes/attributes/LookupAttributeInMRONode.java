@@ -60,6 +60,7 @@ import com.oracle.graal.python.nodes.object.GetDictIfExistsNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.sequence.storage.MroSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.MroSequenceStorage.CachedAttribute;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -99,6 +100,9 @@ public abstract class LookupAttributeInMRONode extends LookupInMROBaseNode {
         protected static Object lookupGeneric(Object klass, Object key,
                         @Cached GetMroStorageNode getMroNode,
                         @Cached(value = "createForceType()", uncached = "getUncachedForceType()") ReadAttributeFromObjectNode readAttrNode) {
+            if (key instanceof String) {
+                return lookupInTypeCache(klass, (String) key, getMroNode.execute(klass));
+            }
             return lookup(klass, key, getMroNode, readAttrNode, false);
         }
 
@@ -216,6 +220,10 @@ public abstract class LookupAttributeInMRONode extends LookupInMROBaseNode {
     }
 
     protected AttributeAssumptionPair findAttrAndAssumptionInMRO(Object klass) {
+        return findAttrAndAssumptionInMRO(klass, key, skipPythonClasses, ensureGetMroNode());
+    }
+
+    private static AttributeAssumptionPair findAttrAndAssumptionInMRO(Object klass, String key, boolean skipPythonClasses, GetMroStorageNode getMroNode) {
         CompilerAsserts.neverPartOfCompilation();
         // - avoid cases when attributes are stored in a dict containing elements
         // with a potential MRO sideeffect on access.
@@ -233,13 +241,13 @@ public abstract class LookupAttributeInMRONode extends LookupInMROBaseNode {
         if (dict != null && HashingStorageLibrary.getUncached().hasSideEffect(dict.getDictStorage())) {
             return null;
         }
-        MroSequenceStorage mro = getMro(klass);
+        MroSequenceStorage mro = getMroNode.execute(klass);
         Assumption attrAssumption = mro.createAttributeInMROFinalAssumption(key);
         for (int i = 0; i < mro.length(); i++) {
             Object clsObj = mro.getItemNormalized(i);
             if (i > 0) {
                 assert clsObj != klass : "MRO chain is incorrect: '" + klass + "' was found at position " + i;
-                getMro(clsObj).addAttributeInMROFinalAssumption(key, attrAssumption);
+                getMroNode.execute(clsObj).addAttributeInMROFinalAssumption(key, attrAssumption);
             }
             if (skipPythonClasses && clsObj instanceof PythonClass) {
                 continue;
@@ -335,6 +343,9 @@ public abstract class LookupAttributeInMRONode extends LookupInMROBaseNode {
     @Megamorphic
     protected Object lookupGeneric(Object klass,
                     @Cached("createForceType()") ReadAttributeFromObjectNode readAttrNode) {
+        if (!skipPythonClasses) {
+            return lookupInTypeCache(klass, key, getMro(klass));
+        }
         return lookup(klass, key, ensureGetMroNode(), readAttrNode, skipPythonClasses);
     }
 
@@ -350,6 +361,32 @@ public abstract class LookupAttributeInMRONode extends LookupInMROBaseNode {
         return ensureGetMroNode().execute(clazz);
     }
 
+    /**
+     * Megamorphic lookups consult a cache of lookup results in the mro storage of the class before
+     * walking the mro. The cached results are guarded by the same attribute-in-MRO-final
+     * assumptions as the inline caches, so they are dropped whenever the attribute is written in
+     * any class of the mro or the mro changes.
+     */
+    @TruffleBoundary
+    static Object lookupInTypeCache(Object klass, String key, MroSequenceStorage mro) {
+        CachedAttribute cached = mro.getCachedAttribute(key);
+        if (cached != null) {
+            return cached.value;
+        }
+        GetMroStorageNode getMroNode = GetMroStorageNode.getUncached();
+        // Native classes may change their dict without invalidating the assumptions. Builtin classes
+        // do not invalidate them while the core is being initialized. Once the cache is full, the
+        // mro is walked without creating further assumptions.
+        if (!(klass instanceof PythonAbstractNativeObject) && PythonContext.get(null).isCoreInitialized() && !mro.isAttributeCacheFull()) {
+            AttributeAssumptionPair result = findAttrAndAssumptionInMRO(klass, key, false, getMroNode);
+            if (result != null) {
+                mro.putCachedAttribute(key, result.value, result.assumption);
+                return result.value;
+            }
+        }
+        return lookup(klass, key, getMroNode, ReadAttributeFromObjectNode.getUncachedForceType(), false);
+    }
+
     @TruffleBoundary
     public static Object lookupSlowPath(Object klass, Object key) {
         return lookup(klass, key, GetMroStorageNode.getUncached(), ReadAttributeFromObjectNode.getUncachedForceType(), false);
@@ -374,6 +374,15 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
     @CompilationFinal(dimensions = 1) private final short[] exceptionHandlerRanges;
     @CompilationFinal(dimensions = 1) private final int[] extraArgs;
 
+    /*
+     * When enabled, the generic LOAD_FAST, STORE_FAST, BINARY_OP and POP_AND_JUMP_IF_* instructions
+     * are rewritten on first execution into their type-specialized forms (see QuickeningInfo), which
+     * keep ints, longs, doubles and booleans in primitive frame slots. Superinstructions are fused
+     * once when the root node is created.
+     */
+    private final boolean usePrimitiveSlots;
+    @CompilationFinal(dimensions = 1) private final byte[] outputCanUnbox;
+
     @Children private final Node[] adoptedNodes;
     @Child private CalleeContext calleeContext = CalleeContext.create();
     @Child private PythonObjectFactory factory = PythonObjectFactory.create();
@@ -430,7 +439,7 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                 localFrame = PArguments.getGeneratorFrame(frameToSync);
             }
             for (int i = 0; i < code.varnames.length; i++) {
-                setVar(virtualFrame, localsObject, setItem, delItem, errorProfile, code.varnames[i], localFrame.getObject(i));
+                setVar(virtualFrame, localsObject, setItem, delItem, errorProfile, code.varnames[i], localFrame.getValue(i));
             }
             for (int i = 0; i < code.cellvars.length; i++) {
                 PCell cell = (PCell) localFrame.getObject(rootNode.celloffset + i);
@@ -511,7 +520,20 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
         this.generatorReturnOffset = generatorStackTopOffset + 1;
         this.source = source;
         this.signature = sign;
-        this.bytecode = co.code;
+        PythonLanguage pythonLanguage = (PythonLanguage) language;
+        this.usePrimitiveSlots = pythonLanguage.getEngineOption(PythonOptions.BytecodePrimitiveSlots);
+        boolean useSuperinstructions = pythonLanguage.getEngineOption(PythonOptions.BytecodeSuperinstructions);
+        if (usePrimitiveSlots || useSuperinstructions) {
+            // quickening rewrites the bytecode in place, the code unit must stay intact
+            this.bytecode = Arrays.copyOf(co.code, co.code.length);
+            this.outputCanUnbox = usePrimitiveSlots ? QuickeningInfo.analyze(co).outputCanUnbox : null;
+            if (useSuperinstructions) {
+                QuickeningInfo.fuseSuperinstructions(bytecode, outputCanUnbox);
+            }
+        } else {
+            this.bytecode = co.code;
+            this.outputCanUnbox = null;
+        }
         this.adoptedNodes = new Node[co.code.length];
         this.extraArgs = new int[co.code.length];
         this.consts = co.constants;
@@ -824,22 +846,22 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                         localFrame.setObject(++stackTop, PEllipsis.INSTANCE);
                         break;
                     case OpCodesConstants.LOAD_TRUE:
-                        localFrame.setObject(++stackTop, true);
+                        pushBoolean(localFrame, ++stackTop, beginBci, true);
                         break;
                     case OpCodesConstants.LOAD_FALSE:
-                        localFrame.setObject(++stackTop, false);
+                        pushBoolean(localFrame, ++stackTop, beginBci, false);
                         break;
                     case OpCodesConstants.LOAD_BYTE:
-                        localFrame.setObject(++stackTop, (int) localBC[++bci]); // signed!
+                        pushInt(localFrame, ++stackTop, beginBci, localBC[++bci]); // signed!
                         break;
                     case OpCodesConstants.LOAD_LONG: {
                         oparg |= Byte.toUnsignedInt(localBC[++bci]);
-                        localFrame.setObject(++stackTop, localLongConsts[oparg]);
+                        pushLong(localFrame, ++stackTop, beginBci, localLongConsts[oparg]);
                         break;
                     }
                     case OpCodesConstants.LOAD_DOUBLE: {
                         oparg |= Byte.toUnsignedInt(localBC[++bci]);
-                        localFrame.setObject(++stackTop, Double.longBitsToDouble(localLongConsts[oparg]));
+                        pushDouble(localFrame, ++stackTop, beginBci, Double.longBitsToDouble(localLongConsts[oparg]));
                         break;
                     }
                     case OpCodesConstants.LOAD_BIGINT: {
@@ -938,16 +960,80 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                         break;
                     case OpCodesConstants.LOAD_FAST: {
                         oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (usePrimitiveSlots) {
+                            quickenLoadFast(localFrame, beginBci, oparg);
+                            bci = beginBci;
+                            continue;
+                        }
                         Object value = localFrame.getObject(oparg);
                         if (value == null) {
-                            if (localArgs[bci] == 0) {
-                                CompilerDirectives.transferToInterpreterAndInvalidate();
-                                localArgs[bci] = 1;
-                                throw PRaiseNode.raiseUncached(this, PythonBuiltinClassType.UnboundLocalError, ErrorMessages.LOCAL_VAR_REFERENCED_BEFORE_ASSIGMENT, varnames[oparg]);
-                            } else {
-                                PRaiseNode raiseNode = insertChildNode(localNodes, bci, NODE_RAISE);
-                                throw raiseNode.raise(PythonBuiltinClassType.UnboundLocalError, ErrorMessages.LOCAL_VAR_REFERENCED_BEFORE_ASSIGMENT, varnames[oparg]);
-                            }
+                            throw raiseUnboundLocal(localNodes, localArgs, bci, oparg);
+                        }
+                        localFrame.setObject(++stackTop, value);
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_O: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        Object value = localFrame.getValue(oparg);
+                        if (value == null) {
+                            throw raiseUnboundLocal(localNodes, localArgs, bci, oparg);
+                        }
+                        localFrame.setObject(++stackTop, value);
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_I: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isIntValue(localFrame, oparg)) {
+                            generalizeLoadFastInt(localFrame, beginBci, oparg);
+                            bci = beginBci;
+                            continue;
+                        }
+                        localFrame.setInt(++stackTop, readIntValue(localFrame, oparg));
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_L: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isLongValue(localFrame, oparg)) {
+                            generalizeInstruction(beginBci, OpCodesConstants.LOAD_FAST_O);
+                            bci = beginBci;
+                            continue;
+                        }
+                        localFrame.setLong(++stackTop, readLongValue(localFrame, oparg));
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_D: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isDoubleValue(localFrame, oparg)) {
+                            generalizeInstruction(beginBci, OpCodesConstants.LOAD_FAST_O);
+                            bci = beginBci;
+                            continue;
+                        }
+                        localFrame.setDouble(++stackTop, readDoubleValue(localFrame, oparg));
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_B: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isBooleanValue(localFrame, oparg)) {
+                            generalizeInstruction(beginBci, OpCodesConstants.LOAD_FAST_O);
+                            bci = beginBci;
+                            continue;
+                        }
+                        localFrame.setBoolean(++stackTop, readBooleanValue(localFrame, oparg));
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_LOAD_FAST: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        Object value = localFrame.getValue(oparg);
+                        if (value == null) {
+                            throw raiseUnboundLocal(localNodes, localArgs, bci, oparg);
+                        }
+                        localFrame.setObject(++stackTop, value);
+                        // skip to the immediate argument of the second LOAD_FAST
+                        bci += 2;
+                        int oparg2 = Byte.toUnsignedInt(localBC[bci]);
+                        value = localFrame.getValue(oparg2);
+                        if (value == null) {
+                            throw raiseUnboundLocal(localNodes, localArgs, bci, oparg2);
                         }
                         localFrame.setObject(++stackTop, value);
                         break;
@@ -980,10 +1066,65 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                     }
                     case OpCodesConstants.STORE_FAST: {
                         oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (usePrimitiveSlots) {
+                            quickenStoreFast(localFrame, stackTop, beginBci, oparg);
+                            bci = beginBci;
+                            continue;
+                        }
                         localFrame.setObject(oparg, localFrame.getObject(stackTop));
                         localFrame.setObject(stackTop--, null);
                         break;
                     }
+                    case OpCodesConstants.STORE_FAST_O: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        localFrame.setObject(oparg, localFrame.getValue(stackTop));
+                        localFrame.setObject(stackTop--, null);
+                        break;
+                    }
+                    case OpCodesConstants.STORE_FAST_I: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isIntValue(localFrame, stackTop)) {
+                            quickenStoreFast(localFrame, stackTop, beginBci, oparg);
+                            bci = beginBci;
+                            continue;
+                        }
+                        localFrame.setInt(oparg, readIntValue(localFrame, stackTop));
+                        localFrame.setObject(stackTop--, null);
+                        break;
+                    }
+                    case OpCodesConstants.STORE_FAST_L: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isLongValue(localFrame, stackTop)) {
+                            quickenStoreFast(localFrame, stackTop, beginBci, oparg);
+                            bci = beginBci;
+                            continue;
+                        }
+                        localFrame.setLong(oparg, readLongValue(localFrame, stackTop));
+                        localFrame.setObject(stackTop--, null);
+                        break;
+                    }
+                    case OpCodesConstants.STORE_FAST_D: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isDoubleValue(localFrame, stackTop)) {
+                            quickenStoreFast(localFrame, stackTop, beginBci, oparg);
+                            bci = beginBci;
+                            continue;
+                        }
+                        localFrame.setDouble(oparg, readDoubleValue(localFrame, stackTop));
+                        localFrame.setObject(stackTop--, null);
+                        break;
+                    }
+                    case OpCodesConstants.STORE_FAST_B: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isBooleanValue(localFrame, stackTop)) {
+                            quickenStoreFast(localFrame, stackTop, beginBci, oparg);
+                            bci = beginBci;
+                            continue;
+                        }
+                        localFrame.setBoolean(oparg, readBooleanValue(localFrame, stackTop));
+                        localFrame.setObject(stackTop--, null);
+                        break;
+                    }
                     case OpCodesConstants.POP_TOP:
                         localFrame.setObject(stackTop--, null);
                         break;
@@ -1014,6 +1155,11 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                     }
                     case OpCodesConstants.BINARY_OP: {
                         int op = Byte.toUnsignedInt(localBC[++bci]);
+                        if (usePrimitiveSlots) {
+                            quickenBinaryOp(localFrame, stackTop, beginBci, op);
+                            bci = beginBci;
+                            continue;
+                        }
                         BinaryOp opNode = (BinaryOp) insertChildNodeInt(localNodes, bci, BINARY_OP_FACTORY, op);
                         Object right = localFrame.getObject(stackTop);
                         localFrame.setObject(stackTop--, null);
@@ -1022,6 +1168,46 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                         localFrame.setObject(stackTop, result);
                         break;
                     }
+                    case OpCodesConstants.BINARY_OP_O: {
+                        int op = Byte.toUnsignedInt(localBC[++bci]);
+                        BinaryOp opNode = (BinaryOp) insertChildNodeInt(localNodes, bci, BINARY_OP_FACTORY, op);
+                        Object right = localFrame.getValue(stackTop);
+                        localFrame.setObject(stackTop--, null);
+                        Object left = localFrame.getValue(stackTop);
+                        Object result = opNode.executeObject(virtualFrame, left, right);
+                        localFrame.setObject(stackTop, result);
+                        break;
+                    }
+                    case OpCodesConstants.BINARY_OP_II: {
+                        int op = Byte.toUnsignedInt(localBC[++bci]);
+                        if (!bytecodeBinaryOpII(localFrame, stackTop, beginBci, op)) {
+                            generalizeBinaryOpII(localFrame, stackTop, beginBci, op);
+                            bci = beginBci;
+                            continue;
+                        }
+                        stackTop--;
+                        break;
+                    }
+                    case OpCodesConstants.BINARY_OP_LL: {
+                        int op = Byte.toUnsignedInt(localBC[++bci]);
+                        if (!bytecodeBinaryOpLL(localFrame, stackTop, beginBci, op)) {
+                            generalizeInstruction(beginBci, OpCodesConstants.BINARY_OP_O);
+                            bci = beginBci;
+                            continue;
+                        }
+                        stackTop--;
+                        break;
+                    }
+                    case OpCodesConstants.BINARY_OP_DD: {
+                        int op = Byte.toUnsignedInt(localBC[++bci]);
+                        if (!bytecodeBinaryOpDD(localFrame, stackTop, beginBci, op)) {
+                            generalizeInstruction(beginBci, OpCodesConstants.BINARY_OP_O);
+                            bci = beginBci;
+                            continue;
+                        }
+                        stackTop--;
+                        break;
+                    }
                     case OpCodesConstants.BINARY_SUBSCR: {
                         GetItemNode getItemNode = insertChildNode(localNodes, bci, NODE_GET_ITEM);
                         Object slice = localFrame.getObject(stackTop);
@@ -1043,20 +1229,19 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                         break;
                     }
                     case OpCodesConstants.RETURN_VALUE: {
-                        if (CompilerDirectives.hasNextTier() && loopCount > 0) {
-                            LoopNode.reportLoopCount(this, loopCount);
-                        }
                         Object value = localFrame.getObject(stackTop);
                         if (isGeneratorOrCoroutine) {
                             localFrame.setObject(stackTop--, null);
-                            localFrame.setInt(bcioffset, bci + 1);
-                            localFrame.setInt(generatorStackTopOffset, stackTop);
-                            localFrame.setObject(generatorReturnOffset, value);
-                            return null;
-                        } else {
-                            return value;
                         }
+                        return bytecodeReturnValue(localFrame, isGeneratorOrCoroutine, stackTop, bci, loopCount, value);
                     }
+                    case OpCodesConstants.RETURN_CONST: {
+                        oparg |= Byte.toUnsignedInt(localBC[++bci]);
+                        // the value is returned by the RETURN_VALUE that follows
+                        return bytecodeReturnValue(localFrame, isGeneratorOrCoroutine, stackTop, bci + 1, loopCount, localConsts[oparg]);
+                    }
+                    case OpCodesConstants.RETURN_NONE:
+                        return bytecodeReturnValue(localFrame, isGeneratorOrCoroutine, stackTop, bci + 1, loopCount, PNone.NONE);
                     case OpCodesConstants.LOAD_BUILD_CLASS: {
                         ReadGlobalOrBuiltinNode read = insertChildNode(localNodes, beginBci, UNCACHED_READ_GLOBAL_OR_BUILTIN, NODE_READ_GLOBAL_OR_BUILTIN_BUILD_CLASS);
                         localFrame.setObject(++stackTop, read.read(virtualFrame, globals, __BUILD_CLASS__));
@@ -1137,6 +1322,10 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                         oparg = 0;
                         continue;
                     case OpCodesConstants.POP_AND_JUMP_IF_FALSE: {
+                        if (usePrimitiveSlots) {
+                            quickenConditionalJump(localFrame, stackTop, beginBci, OpCodesConstants.POP_AND_JUMP_IF_FALSE_B, OpCodesConstants.POP_AND_JUMP_IF_FALSE_O);
+                            continue;
+                        }
                         PyObjectIsTrueNode isTrue = insertChildNode(localNodes, beginBci, UNCACHED_OBJECT_IS_TRUE, NODE_OBJECT_IS_TRUE);
                         Object cond = localFrame.getObject(stackTop);
                         localFrame.setObject(stackTop--, null);
@@ -1151,6 +1340,10 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                         break;
                     }
                     case OpCodesConstants.POP_AND_JUMP_IF_TRUE: {
+                        if (usePrimitiveSlots) {
+                            quickenConditionalJump(localFrame, stackTop, beginBci, OpCodesConstants.POP_AND_JUMP_IF_TRUE_B, OpCodesConstants.POP_AND_JUMP_IF_TRUE_O);
+                            continue;
+                        }
                         PyObjectIsTrueNode isTrue = insertChildNode(localNodes, beginBci, UNCACHED_OBJECT_IS_TRUE, NODE_OBJECT_IS_TRUE);
                         Object cond = localFrame.getObject(stackTop);
                         localFrame.setObject(stackTop--, null);
@@ -1164,6 +1357,111 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                         }
                         break;
                     }
+                    case OpCodesConstants.POP_AND_JUMP_IF_FALSE_O: {
+                        PyObjectIsTrueNode isTrue = insertChildNode(localNodes, beginBci, UNCACHED_OBJECT_IS_TRUE, NODE_OBJECT_IS_TRUE);
+                        Object cond = localFrame.getValue(stackTop);
+                        localFrame.setObject(stackTop--, null);
+                        if (!isTrue.execute(virtualFrame, cond)) {
+                            oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                            bci += oparg;
+                            oparg = 0;
+                            continue;
+                        } else {
+                            bci++;
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.POP_AND_JUMP_IF_FALSE_B: {
+                        if (!isBooleanValue(localFrame, stackTop)) {
+                            generalizeInstruction(beginBci, OpCodesConstants.POP_AND_JUMP_IF_FALSE_O);
+                            continue;
+                        }
+                        boolean cond = readBooleanValue(localFrame, stackTop);
+                        localFrame.setObject(stackTop--, null);
+                        if (!cond) {
+                            oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                            bci += oparg;
+                            oparg = 0;
+                            continue;
+                        } else {
+                            bci++;
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.POP_AND_JUMP_IF_TRUE_O: {
+                        PyObjectIsTrueNode isTrue = insertChildNode(localNodes, beginBci, UNCACHED_OBJECT_IS_TRUE, NODE_OBJECT_IS_TRUE);
+                        Object cond = localFrame.getValue(stackTop);
+                        localFrame.setObject(stackTop--, null);
+                        if (isTrue.execute(virtualFrame, cond)) {
+                            oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                            bci += oparg;
+                            oparg = 0;
+                            continue;
+                        } else {
+                            bci++;
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.POP_AND_JUMP_IF_TRUE_B: {
+                        if (!isBooleanValue(localFrame, stackTop)) {
+                            generalizeInstruction(beginBci, OpCodesConstants.POP_AND_JUMP_IF_TRUE_O);
+                            continue;
+                        }
+                        boolean cond = readBooleanValue(localFrame, stackTop);
+                        localFrame.setObject(stackTop--, null);
+                        if (cond) {
+                            oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                            bci += oparg;
+                            oparg = 0;
+                            continue;
+                        } else {
+                            bci++;
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.COMPARE_AND_JUMP_IF_FALSE_O: {
+                        int op = Byte.toUnsignedInt(localBC[++bci]);
+                        BinaryOp opNode = (BinaryOp) insertChildNodeInt(localNodes, bci, BINARY_OP_FACTORY, op);
+                        Object right = localFrame.getValue(stackTop);
+                        localFrame.setObject(stackTop--, null);
+                        Object left = localFrame.getValue(stackTop);
+                        localFrame.setObject(stackTop--, null);
+                        Object result = opNode.executeObject(virtualFrame, left, right);
+                        // continue as the POP_AND_JUMP_IF_FALSE that follows
+                        bci++;
+                        PyObjectIsTrueNode isTrue = insertChildNode(localNodes, bci, UNCACHED_OBJECT_IS_TRUE, NODE_OBJECT_IS_TRUE);
+                        if (!isTrue.execute(virtualFrame, result)) {
+                            oparg = Byte.toUnsignedInt(localBC[bci + 1]);
+                            bci += oparg;
+                            oparg = 0;
+                            continue;
+                        } else {
+                            bci++;
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.COMPARE_AND_JUMP_IF_FALSE_L: {
+                        int op = Byte.toUnsignedInt(localBC[++bci]);
+                        if (!isLongValue(localFrame, stackTop - 1) || !isLongValue(localFrame, stackTop)) {
+                            generalizeInstruction(beginBci, OpCodesConstants.COMPARE_AND_JUMP_IF_FALSE_O);
+                            bci = beginBci;
+                            continue;
+                        }
+                        boolean result = compareLongs(op, readLongValue(localFrame, stackTop - 1), readLongValue(localFrame, stackTop));
+                        localFrame.setObject(stackTop--, null);
+                        localFrame.setObject(stackTop--, null);
+                        // continue as the POP_AND_JUMP_IF_FALSE that follows
+                        bci++;
+                        if (!result) {
+                            oparg = Byte.toUnsignedInt(localBC[bci + 1]);
+                            bci += oparg;
+                            oparg = 0;
+                            continue;
+                        } else {
+                            bci++;
+                        }
+                        break;
+                    }
                     case OpCodesConstants.JUMP_IF_FALSE_OR_POP: {
                         PyObjectIsTrueNode isTrue = insertChildNode(localNodes, beginBci, UNCACHED_OBJECT_IS_TRUE, NODE_OBJECT_IS_TRUE);
                         Object cond = localFrame.getObject(stackTop);
@@ -1536,7 +1834,7 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
     }
 
     private void bytecodeDeleteFast(Frame localFrame, int bci, Node[] localNodes, int oparg) {
-        Object value = localFrame.getObject(oparg);
+        Object value = localFrame.getValue(oparg);
         if (value == null) {
             PRaiseNode raiseNode = insertChildNode(localNodes, bci, UNCACHED_RAISE, NODE_RAISE);
             throw raiseNode.raise(PythonBuiltinClassType.UnboundLocalError, ErrorMessages.LOCAL_VAR_REFERENCED_BEFORE_ASSIGMENT, varnames[oparg]);
@@ -1544,6 +1842,545 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
         localFrame.setObject(oparg, null);
     }
 
+    private Object bytecodeReturnValue(Frame localFrame, boolean isGeneratorOrCoroutine, int stackTop, int bci, int loopCount, Object value) {
+        if (CompilerDirectives.hasNextTier() && loopCount > 0) {
+            LoopNode.reportLoopCount(this, loopCount);
+        }
+        if (isGeneratorOrCoroutine) {
+            localFrame.setInt(bcioffset, bci + 1);
+            localFrame.setInt(generatorStackTopOffset, stackTop);
+            localFrame.setObject(generatorReturnOffset, value);
+            return null;
+        } else {
+            return value;
+        }
+    }
+
+    private static boolean compareLongs(int op, long left, long right) {
+        switch (op) {
+            case BinaryOpsConstants.EQ:
+                return left == right;
+            case BinaryOpsConstants.NE:
+                return left != right;
+            case BinaryOpsConstants.LT:
+                return left < right;
+            case BinaryOpsConstants.LE:
+                return left <= right;
+            case BinaryOpsConstants.GT:
+                return left > right;
+            case BinaryOpsConstants.GE:
+                return left >= right;
+            default:
+                throw CompilerDirectives.shouldNotReachHere();
+        }
+    }
+
+    private PException raiseUnboundLocal(Node[] localNodes, int[] localArgs, int bci, int oparg) {
+        if (localArgs[bci] == 0) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            localArgs[bci] = 1;
+            throw PRaiseNode.raiseUncached(this, PythonBuiltinClassType.UnboundLocalError, ErrorMessages.LOCAL_VAR_REFERENCED_BEFORE_ASSIGMENT, varnames[oparg]);
+        } else {
+            PRaiseNode raiseNode = insertChildNode(localNodes, bci, NODE_RAISE);
+            throw raiseNode.raise(PythonBuiltinClassType.UnboundLocalError, ErrorMessages.LOCAL_VAR_REFERENCED_BEFORE_ASSIGMENT, varnames[oparg]);
+        }
+    }
+
+    /*
+     * Type-specialized instructions must accept both primitive frame slots and boxed values, because
+     * values that don't come from a quickened instruction (arguments, results of calls, values that
+     * survive a jump) are always stored as objects.
+     */
+
+    private static boolean isIntValue(Frame localFrame, int slot) {
+        return localFrame.isInt(slot) || localFrame.isObject(slot) && localFrame.getObject(slot) instanceof Integer;
+    }
+
+    private static int readIntValue(Frame localFrame, int slot) {
+        return localFrame.isInt(slot) ? localFrame.getInt(slot) : (int) localFrame.getObject(slot);
+    }
+
+    /**
+     * Both {@code int} and {@code long} values are accepted where a {@code long} is expected.
+     */
+    private static boolean isLongValue(Frame localFrame, int slot) {
+        if (localFrame.isLong(slot) || localFrame.isInt(slot)) {
+            return true;
+        }
+        if (localFrame.isObject(slot)) {
+            Object value = localFrame.getObject(slot);
+            return value instanceof Long || value instanceof Integer;
+        }
+        return false;
+    }
+
+    private static long readLongValue(Frame localFrame, int slot) {
+        if (localFrame.isLong(slot)) {
+            return localFrame.getLong(slot);
+        } else if (localFrame.isInt(slot)) {
+            return localFrame.getInt(slot);
+        }
+        Object value = localFrame.getObject(slot);
+        return value instanceof Long ? (long) value : (int) value;
+    }
+
+    private static boolean isDoubleValue(Frame localFrame, int slot) {
+        return localFrame.isDouble(slot) || localFrame.isObject(slot) && localFrame.getObject(slot) instanceof Double;
+    }
+
+    private static double readDoubleValue(Frame localFrame, int slot) {
+        return localFrame.isDouble(slot) ? localFrame.getDouble(slot) : (double) localFrame.getObject(slot);
+    }
+
+    /**
+     * Reads a {@code double} or an {@code int} operand of {@link OpCodesConstants#BINARY_OP_DD}.
+     */
+    private static double readDoubleOrIntValue(Frame localFrame, int slot) {
+        return isIntValue(localFrame, slot) ? readIntValue(localFrame, slot) : readDoubleValue(localFrame, slot);
+    }
+
+    private static boolean isBooleanValue(Frame localFrame, int slot) {
+        return localFrame.isBoolean(slot) || localFrame.isObject(slot) && localFrame.getObject(slot) instanceof Boolean;
+    }
+
+    private static boolean readBooleanValue(Frame localFrame, int slot) {
+        return localFrame.isBoolean(slot) ? localFrame.getBoolean(slot) : (boolean) localFrame.getObject(slot);
+    }
+
+    private boolean canUnboxOutput(int bci, byte kind) {
+        return usePrimitiveSlots && (outputCanUnbox[bci] & kind) != 0;
+    }
+
+    private void pushInt(Frame localFrame, int stackTop, int bci, int value) {
+        if (canUnboxOutput(bci, QuickeningInfo.KIND_INT)) {
+            localFrame.setInt(stackTop, value);
+        } else {
+            localFrame.setObject(stackTop, value);
+        }
+    }
+
+    private void pushLong(Frame localFrame, int stackTop, int bci, long value) {
+        if (canUnboxOutput(bci, QuickeningInfo.KIND_LONG)) {
+            localFrame.setLong(stackTop, value);
+        } else {
+            localFrame.setObject(stackTop, value);
+        }
+    }
+
+    private void pushIntOrLong(Frame localFrame, int stackTop, int bci, long value) {
+        if ((int) value == value) {
+            pushInt(localFrame, stackTop, bci, (int) value);
+        } else {
+            pushLong(localFrame, stackTop, bci, value);
+        }
+    }
+
+    private void pushDouble(Frame localFrame, int stackTop, int bci, double value) {
+        if (canUnboxOutput(bci, QuickeningInfo.KIND_DOUBLE)) {
+            localFrame.setDouble(stackTop, value);
+        } else {
+            localFrame.setObject(stackTop, value);
+        }
+    }
+
+    private void pushBoolean(Frame localFrame, int stackTop, int bci, boolean value) {
+        if (canUnboxOutput(bci, QuickeningInfo.KIND_BOOLEAN)) {
+            localFrame.setBoolean(stackTop, value);
+        } else {
+            localFrame.setObject(stackTop, value);
+        }
+    }
+
+    @BytecodeInterpreterSwitchBoundary
+    private void generalizeInstruction(int bci, int opcode) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        bytecode[bci] = (byte) opcode;
+    }
+
+    /**
+     * An {@code int} variable that later sees a {@code long} value is widened instead of boxed.
+     */
+    @BytecodeInterpreterSwitchBoundary
+    private void generalizeLoadFastInt(Frame localFrame, int bci, int index) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        if ((outputCanUnbox[bci] & QuickeningInfo.KIND_LONG) != 0 && isLongValue(localFrame, index)) {
+            bytecode[bci] = (byte) OpCodesConstants.LOAD_FAST_L;
+        } else {
+            bytecode[bci] = (byte) OpCodesConstants.LOAD_FAST_O;
+        }
+    }
+
+    /**
+     * Operands of a {@link OpCodesConstants#BINARY_OP_II} may later turn out to be {@code long} or
+     * {@code double}, in which case the instruction is specialized again.
+     */
+    @BytecodeInterpreterSwitchBoundary
+    private void generalizeBinaryOpII(Frame localFrame, int stackTop, int bci, int op) {
+        quickenBinaryOp(localFrame, stackTop, bci, op);
+        if (bytecode[bci] == OpCodesConstants.BINARY_OP_II) {
+            bytecode[bci] = (byte) OpCodesConstants.BINARY_OP_O;
+        }
+    }
+
+    @BytecodeInterpreterSwitchBoundary
+    private void quickenLoadFast(Frame localFrame, int bci, int index) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        byte canUnbox = outputCanUnbox[bci];
+        int quickened = OpCodesConstants.LOAD_FAST_O;
+        if ((canUnbox & QuickeningInfo.KIND_INT) != 0 && isIntValue(localFrame, index)) {
+            quickened = OpCodesConstants.LOAD_FAST_I;
+        } else if ((canUnbox & QuickeningInfo.KIND_LONG) != 0 && isLongValue(localFrame, index)) {
+            quickened = OpCodesConstants.LOAD_FAST_L;
+        } else if ((canUnbox & QuickeningInfo.KIND_DOUBLE) != 0 && isDoubleValue(localFrame, index)) {
+            quickened = OpCodesConstants.LOAD_FAST_D;
+        } else if ((canUnbox & QuickeningInfo.KIND_BOOLEAN) != 0 && isBooleanValue(localFrame, index)) {
+            quickened = OpCodesConstants.LOAD_FAST_B;
+        }
+        bytecode[bci] = (byte) quickened;
+    }
+
+    /**
+     * Quickened stores do not consult the frame descriptor, the kind of the local is encoded in
+     * their opcode. When the kind of a local changes, all of its quickened stores are rewritten
+     * here, so that they keep agreeing on the kind.
+     */
+    @BytecodeInterpreterSwitchBoundary
+    private void quickenStoreFast(Frame localFrame, int stackTop, int bci, int index) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        FrameSlotKind valueKind = FrameSlotKind.Object;
+        int quickened = OpCodesConstants.STORE_FAST_O;
+        if (isIntValue(localFrame, stackTop)) {
+            valueKind = FrameSlotKind.Int;
+            quickened = OpCodesConstants.STORE_FAST_I;
+        } else if (isLongValue(localFrame, stackTop)) {
+            valueKind = FrameSlotKind.Long;
+            quickened = OpCodesConstants.STORE_FAST_L;
+        } else if (isDoubleValue(localFrame, stackTop)) {
+            valueKind = FrameSlotKind.Double;
+            quickened = OpCodesConstants.STORE_FAST_D;
+        } else if (isBooleanValue(localFrame, stackTop)) {
+            valueKind = FrameSlotKind.Boolean;
+            quickened = OpCodesConstants.STORE_FAST_B;
+        }
+        FrameDescriptor descriptor = getFrameDescriptor();
+        FrameSlotKind slotKind = descriptor.getSlotKind(index);
+        if (slotKind == FrameSlotKind.Long && valueKind == FrameSlotKind.Int || slotKind == FrameSlotKind.Int && valueKind == FrameSlotKind.Long) {
+            valueKind = FrameSlotKind.Long;
+            quickened = OpCodesConstants.STORE_FAST_L;
+        } else if (slotKind != valueKind && slotKind != FrameSlotKind.Illegal) {
+            // another store to the same variable saw a different type
+            valueKind = FrameSlotKind.Object;
+            quickened = OpCodesConstants.STORE_FAST_O;
+        }
+        if (slotKind != valueKind && slotKind != FrameSlotKind.Illegal) {
+            requickenStoresFast(index, quickened);
+        }
+        descriptor.setSlotKind(index, valueKind);
+        bytecode[bci] = (byte) quickened;
+    }
+
+    private void requickenStoresFast(int index, int quickened) {
+        int oparg = 0;
+        for (int bci = 0; bci < bytecode.length;) {
+            OpCodes opcode = OpCodes.VALUES[Byte.toUnsignedInt(bytecode[bci])];
+            if (opcode.hasArg()) {
+                oparg |= Byte.toUnsignedInt(bytecode[bci + 1]);
+            }
+            if (opcode == OpCodes.EXTENDED_ARG) {
+                oparg <<= 8;
+                bci += opcode.length();
+                continue;
+            }
+            if (oparg == index) {
+                switch (opcode) {
+                    case STORE_FAST_O:
+                    case STORE_FAST_I:
+                    case STORE_FAST_L:
+                    case STORE_FAST_D:
+                    case STORE_FAST_B:
+                        bytecode[bci] = (byte) quickened;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            bci += opcode.length();
+            oparg = 0;
+        }
+    }
+
+    @BytecodeInterpreterSwitchBoundary
+    private void quickenBinaryOp(Frame localFrame, int stackTop, int bci, int op) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        int quickened = OpCodesConstants.BINARY_OP_O;
+        if (QuickeningInfo.canQuickenBinaryOp(op)) {
+            boolean leftInt = isIntValue(localFrame, stackTop - 1);
+            boolean rightInt = isIntValue(localFrame, stackTop);
+            boolean leftDouble = isDoubleValue(localFrame, stackTop - 1);
+            boolean rightDouble = isDoubleValue(localFrame, stackTop);
+            if (leftInt && rightInt) {
+                quickened = OpCodesConstants.BINARY_OP_II;
+            } else if (isLongValue(localFrame, stackTop - 1) && isLongValue(localFrame, stackTop)) {
+                if (op != BinaryOpsConstants.TRUEDIV && op != BinaryOpsConstants.INPLACE_TRUEDIV) {
+                    quickened = OpCodesConstants.BINARY_OP_LL;
+                }
+            } else if ((leftDouble || leftInt) && (rightDouble || rightInt)) {
+                if (isDoubleBinaryOp(op)) {
+                    quickened = OpCodesConstants.BINARY_OP_DD;
+                }
+            }
+        }
+        bytecode[bci] = (byte) quickened;
+    }
+
+    @BytecodeInterpreterSwitchBoundary
+    private void quickenConditionalJump(Frame localFrame, int stackTop, int bci, int booleanVariant, int genericVariant) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        bytecode[bci] = (byte) (isBooleanValue(localFrame, stackTop) ? booleanVariant : genericVariant);
+    }
+
+    private static boolean isDoubleBinaryOp(int op) {
+        switch (op) {
+            case BinaryOpsConstants.ADD:
+            case BinaryOpsConstants.INPLACE_ADD:
+            case BinaryOpsConstants.SUB:
+            case BinaryOpsConstants.INPLACE_SUB:
+            case BinaryOpsConstants.MUL:
+            case BinaryOpsConstants.INPLACE_MUL:
+            case BinaryOpsConstants.TRUEDIV:
+            case BinaryOpsConstants.INPLACE_TRUEDIV:
+            case BinaryOpsConstants.EQ:
+            case BinaryOpsConstants.NE:
+            case BinaryOpsConstants.LT:
+            case BinaryOpsConstants.LE:
+            case BinaryOpsConstants.GT:
+            case BinaryOpsConstants.GE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Executes a binary operation on two {@code int} operands. The result is written in place of the
+     * left operand. Returns {@code false} without touching the stack if the operands have a
+     * different type or if the operation needs the generic implementation (e.g. division by zero).
+     */
+    private boolean bytecodeBinaryOpII(Frame localFrame, int stackTop, int bci, int op) {
+        if (!isIntValue(localFrame, stackTop - 1) || !isIntValue(localFrame, stackTop)) {
+            return false;
+        }
+        int left = readIntValue(localFrame, stackTop - 1);
+        int right = readIntValue(localFrame, stackTop);
+        int resultSlot = stackTop - 1;
+        switch (op) {
+            case BinaryOpsConstants.ADD:
+            case BinaryOpsConstants.INPLACE_ADD:
+                pushIntOrLong(localFrame, resultSlot, bci, (long) left + right);
+                break;
+            case BinaryOpsConstants.SUB:
+            case BinaryOpsConstants.INPLACE_SUB:
+                pushIntOrLong(localFrame, resultSlot, bci, (long) left - right);
+                break;
+            case BinaryOpsConstants.MUL:
+            case BinaryOpsConstants.INPLACE_MUL:
+                pushIntOrLong(localFrame, resultSlot, bci, (long) left * right);
+                break;
+            case BinaryOpsConstants.FLOORDIV:
+            case BinaryOpsConstants.INPLACE_FLOORDIV:
+                if (right == 0) {
+                    return false;
+                }
+                pushIntOrLong(localFrame, resultSlot, bci, Math.floorDiv((long) left, right));
+                break;
+            case BinaryOpsConstants.MOD:
+            case BinaryOpsConstants.INPLACE_MOD:
+                if (right == 0) {
+                    return false;
+                }
+                pushInt(localFrame, resultSlot, bci, Math.floorMod(left, right));
+                break;
+            case BinaryOpsConstants.TRUEDIV:
+            case BinaryOpsConstants.INPLACE_TRUEDIV:
+                if (right == 0) {
+                    return false;
+                }
+                pushDouble(localFrame, resultSlot, bci, (double) left / right);
+                break;
+            case BinaryOpsConstants.AND:
+            case BinaryOpsConstants.INPLACE_AND:
+                pushInt(localFrame, resultSlot, bci, left & right);
+                break;
+            case BinaryOpsConstants.OR:
+            case BinaryOpsConstants.INPLACE_OR:
+                pushInt(localFrame, resultSlot, bci, left | right);
+                break;
+            case BinaryOpsConstants.XOR:
+            case BinaryOpsConstants.INPLACE_XOR:
+                pushInt(localFrame, resultSlot, bci, left ^ right);
+                break;
+            case BinaryOpsConstants.EQ:
+                pushBoolean(localFrame, resultSlot, bci, left == right);
+                break;
+            case BinaryOpsConstants.NE:
+                pushBoolean(localFrame, resultSlot, bci, left != right);
+                break;
+            case BinaryOpsConstants.LT:
+                pushBoolean(localFrame, resultSlot, bci, left < right);
+                break;
+            case BinaryOpsConstants.LE:
+                pushBoolean(localFrame, resultSlot, bci, left <= right);
+                break;
+            case BinaryOpsConstants.GT:
+                pushBoolean(localFrame, resultSlot, bci, left > right);
+                break;
+            case BinaryOpsConstants.GE:
+                pushBoolean(localFrame, resultSlot, bci, left >= right);
+                break;
+            default:
+                return false;
+        }
+        localFrame.setObject(stackTop, null);
+        return true;
+    }
+
+    /**
+     * Like {@link #bytecodeBinaryOpII}, for {@code long} (or mixed {@code long} and {@code int})
+     * operands. Overflowing operations fall back to the generic implementation.
+     */
+    private boolean bytecodeBinaryOpLL(Frame localFrame, int stackTop, int bci, int op) {
+        if (!isLongValue(localFrame, stackTop - 1) || !isLongValue(localFrame, stackTop)) {
+            return false;
+        }
+        long left = readLongValue(localFrame, stackTop - 1);
+        long right = readLongValue(localFrame, stackTop);
+        int resultSlot = stackTop - 1;
+        try {
+            switch (op) {
+                case BinaryOpsConstants.ADD:
+                case BinaryOpsConstants.INPLACE_ADD:
+                    pushLong(localFrame, resultSlot, bci, Math.addExact(left, right));
+                    break;
+                case BinaryOpsConstants.SUB:
+                case BinaryOpsConstants.INPLACE_SUB:
+                    pushLong(localFrame, resultSlot, bci, Math.subtractExact(left, right));
+                    break;
+                case BinaryOpsConstants.MUL:
+                case BinaryOpsConstants.INPLACE_MUL:
+                    pushLong(localFrame, resultSlot, bci, Math.multiplyExact(left, right));
+                    break;
+                case BinaryOpsConstants.FLOORDIV:
+                case BinaryOpsConstants.INPLACE_FLOORDIV:
+                    if (right == 0 || (left == Long.MIN_VALUE && right == -1)) {
+                        return false;
+                    }
+                    pushLong(localFrame, resultSlot, bci, Math.floorDiv(left, right));
+                    break;
+                case BinaryOpsConstants.MOD:
+                case BinaryOpsConstants.INPLACE_MOD:
+                    if (right == 0) {
+                        return false;
+                    }
+                    pushLong(localFrame, resultSlot, bci, Math.floorMod(left, right));
+                    break;
+                case BinaryOpsConstants.AND:
+                case BinaryOpsConstants.INPLACE_AND:
+                    pushLong(localFrame, resultSlot, bci, left & right);
+                    break;
+                case BinaryOpsConstants.OR:
+                case BinaryOpsConstants.INPLACE_OR:
+                    pushLong(localFrame, resultSlot, bci, left | right);
+                    break;
+                case BinaryOpsConstants.XOR:
+                case BinaryOpsConstants.INPLACE_XOR:
+                    pushLong(localFrame, resultSlot, bci, left ^ right);
+                    break;
+                case BinaryOpsConstants.EQ:
+                    pushBoolean(localFrame, resultSlot, bci, left == right);
+                    break;
+                case BinaryOpsConstants.NE:
+                    pushBoolean(localFrame, resultSlot, bci, left != right);
+                    break;
+                case BinaryOpsConstants.LT:
+                    pushBoolean(localFrame, resultSlot, bci, left < right);
+                    break;
+                case BinaryOpsConstants.LE:
+                    pushBoolean(localFrame, resultSlot, bci, left <= right);
+                    break;
+                case BinaryOpsConstants.GT:
+                    pushBoolean(localFrame, resultSlot, bci, left > right);
+                    break;
+                case BinaryOpsConstants.GE:
+                    pushBoolean(localFrame, resultSlot, bci, left >= right);
+                    break;
+                default:
+                    return false;
+            }
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        localFrame.setObject(stackTop, null);
+        return true;
+    }
+
+    /**
+     * Like {@link #bytecodeBinaryOpII}, for {@code double} operands. One of the operands may be an
+     * {@code int}, which is converted exactly, but not both.
+     */
+    private boolean bytecodeBinaryOpDD(Frame localFrame, int stackTop, int bci, int op) {
+        boolean leftDouble = isDoubleValue(localFrame, stackTop - 1);
+        boolean rightDouble = isDoubleValue(localFrame, stackTop);
+        if (!(leftDouble && (rightDouble || isIntValue(localFrame, stackTop)) || rightDouble && isIntValue(localFrame, stackTop - 1))) {
+            return false;
+        }
+        double left = readDoubleOrIntValue(localFrame, stackTop - 1);
+        double right = readDoubleOrIntValue(localFrame, stackTop);
+        int resultSlot = stackTop - 1;
+        switch (op) {
+            case BinaryOpsConstants.ADD:
+            case BinaryOpsConstants.INPLACE_ADD:
+                pushDouble(localFrame, resultSlot, bci, left + right);
+                break;
+            case BinaryOpsConstants.SUB:
+            case BinaryOpsConstants.INPLACE_SUB:
+                pushDouble(localFrame, resultSlot, bci, left - right);
+                break;
+            case BinaryOpsConstants.MUL:
+            case BinaryOpsConstants.INPLACE_MUL:
+                pushDouble(localFrame, resultSlot, bci, left * right);
+                break;
+            case BinaryOpsConstants.TRUEDIV:
+            case BinaryOpsConstants.INPLACE_TRUEDIV:
+                if (right == 0.0) {
+                    return false;
+                }
+                pushDouble(localFrame, resultSlot, bci, left / right);
+                break;
+            case BinaryOpsConstants.EQ:
+                pushBoolean(localFrame, resultSlot, bci, left == right);
+                break;
+            case BinaryOpsConstants.NE:
+                pushBoolean(localFrame, resultSlot, bci, left != right);
+                break;
+            case BinaryOpsConstants.LT:
+                pushBoolean(localFrame, resultSlot, bci, left < right);
+                break;
+            case BinaryOpsConstants.LE:
+                pushBoolean(localFrame, resultSlot, bci, left <= right);
+                break;
+            case BinaryOpsConstants.GT:
+                pushBoolean(localFrame, resultSlot, bci, left > right);
+                break;
+            case BinaryOpsConstants.GE:
+                pushBoolean(localFrame, resultSlot, bci, left >= right);
+                break;
+            default:
+                return false;
+        }
+        localFrame.setObject(stackTop, null);
+        return true;
+    }
+
     private int bytecodeLoadGlobal(VirtualFrame virtualFrame, Frame localFrame, Object globals, int stackTop, int bci, String localName, Node[] localNodes) {
         ReadGlobalOrBuiltinNode read = insertChildNode(localNodes, bci, UNCACHED_READ_GLOBAL_OR_BUILTIN, NODE_READ_GLOBAL_OR_BUILTIN, localName);
         localFrame.setObject(++stackTop, read.read(virtualFrame, globals, localName));
@@ -2158,7 +2995,7 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
         if (selfIndex < 0) {
             return null;
         } else if (selfIndex == 0) {
-            return localFrame.getObject(0);
+            return localFrame.getValue(0);
         } else {
             PCell selfCell = (PCell) localFrame.getObject(selfIndex);
             return selfCell.getRef();
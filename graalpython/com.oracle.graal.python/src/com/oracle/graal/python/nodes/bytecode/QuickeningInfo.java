@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.bytecode;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.compiler.BinaryOpsConstants;
+import com.oracle.graal.python.compiler.CodeUnit;
+import com.oracle.graal.python.compiler.OpCodes;
+import com.oracle.graal.python.compiler.OpCodesConstants;
+import com.oracle.graal.python.util.PythonUtils;
+
+/**
+ * Static information about the bytecode of a {@link CodeUnit} that guides the in-place quickening
+ * done by {@link PBytecodeRootNode}, and the static superinstruction pass.
+ *
+ * Values on the operand stack may only be kept in primitive frame slots if the instruction that
+ * consumes them knows how to deal with them. Since the stack layout is static, we can pair every
+ * instruction that pushes a single value with the instruction that pops it, as long as both are
+ * in the same basic block. Values whose consumer is unknown (because they survive a jump or a
+ * jump target) are always boxed.
+ */
+final class QuickeningInfo {
+    static final byte KIND_INT = 1;
+    static final byte KIND_LONG = 1 << 1;
+    static final byte KIND_DOUBLE = 1 << 2;
+    static final byte KIND_BOOLEAN = 1 << 3;
+
+    private static final byte KIND_NUMBER = KIND_INT | KIND_LONG | KIND_DOUBLE;
+    private static final byte KIND_ANY = KIND_NUMBER | KIND_BOOLEAN;
+
+    /**
+     * Indexed by the bci of a producing instruction. Contains the bitmask of primitive kinds that
+     * the consumer of its result can accept in an unboxed form.
+     */
+    final byte[] outputCanUnbox;
+
+    private QuickeningInfo(byte[] outputCanUnbox) {
+        this.outputCanUnbox = outputCanUnbox;
+    }
+
+    static boolean canQuickenBinaryOp(int op) {
+        switch (op) {
+            case BinaryOpsConstants.ADD:
+            case BinaryOpsConstants.INPLACE_ADD:
+            case BinaryOpsConstants.SUB:
+            case BinaryOpsConstants.INPLACE_SUB:
+            case BinaryOpsConstants.MUL:
+            case BinaryOpsConstants.INPLACE_MUL:
+            case BinaryOpsConstants.TRUEDIV:
+            case BinaryOpsConstants.INPLACE_TRUEDIV:
+            case BinaryOpsConstants.FLOORDIV:
+            case BinaryOpsConstants.INPLACE_FLOORDIV:
+            case BinaryOpsConstants.MOD:
+            case BinaryOpsConstants.INPLACE_MOD:
+            case BinaryOpsConstants.AND:
+            case BinaryOpsConstants.INPLACE_AND:
+            case BinaryOpsConstants.OR:
+            case BinaryOpsConstants.INPLACE_OR:
+            case BinaryOpsConstants.XOR:
+            case BinaryOpsConstants.INPLACE_XOR:
+            case BinaryOpsConstants.EQ:
+            case BinaryOpsConstants.NE:
+            case BinaryOpsConstants.LT:
+            case BinaryOpsConstants.LE:
+            case BinaryOpsConstants.GT:
+            case BinaryOpsConstants.GE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static byte acceptedKinds(OpCodes opcode, int oparg) {
+        switch (opcode) {
+            case STORE_FAST:
+                return KIND_ANY;
+            case BINARY_OP:
+                return canQuickenBinaryOp(oparg) ? KIND_NUMBER : 0;
+            case POP_AND_JUMP_IF_FALSE:
+            case POP_AND_JUMP_IF_TRUE:
+                return KIND_BOOLEAN;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean endsBlock(OpCodes opcode) {
+        switch (opcode) {
+            case FOR_ITER:
+            case JUMP_FORWARD:
+            case JUMP_BACKWARD:
+            case JUMP_IF_FALSE_OR_POP:
+            case JUMP_IF_TRUE_OR_POP:
+            case POP_AND_JUMP_IF_FALSE:
+            case POP_AND_JUMP_IF_TRUE:
+            case MATCH_EXC_OR_JUMP:
+            case SEND:
+            case RETURN_VALUE:
+            case RAISE_VARARGS:
+            case END_EXC_HANDLER:
+            case YIELD_VALUE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int jumpTarget(OpCodes opcode, int bci, int oparg) {
+        switch (opcode) {
+            case JUMP_BACKWARD:
+                return bci - oparg;
+            case FOR_ITER:
+            case JUMP_FORWARD:
+            case JUMP_IF_FALSE_OR_POP:
+            case JUMP_IF_TRUE_OR_POP:
+            case POP_AND_JUMP_IF_FALSE:
+            case POP_AND_JUMP_IF_TRUE:
+            case MATCH_EXC_OR_JUMP:
+            case SEND:
+                return bci + oparg;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Marks the first instruction of every basic block.
+     */
+    static boolean[] findBlockStarts(CodeUnit co) {
+        byte[] code = co.code;
+        boolean[] blockStarts = new boolean[code.length + 1];
+        blockStarts[0] = true;
+        int oparg = 0;
+        for (int bci = 0; bci < code.length;) {
+            OpCodes opcode = OpCodes.VALUES[Byte.toUnsignedInt(code[bci])];
+            if (opcode.hasArg()) {
+                oparg |= Byte.toUnsignedInt(code[bci + 1]);
+            }
+            if (opcode == OpCodes.EXTENDED_ARG) {
+                oparg <<= 8;
+                bci += opcode.length();
+                continue;
+            }
+            int target = jumpTarget(opcode, bci, oparg);
+            if (target >= 0 && target < blockStarts.length) {
+                blockStarts[target] = true;
+            }
+            bci += opcode.length();
+            if (endsBlock(opcode)) {
+                blockStarts[bci] = true;
+            }
+            oparg = 0;
+        }
+        for (int i = 0; i < co.exceptionHandlerRanges.length; i += 4) {
+            blockStarts[co.exceptionHandlerRanges[i + 2] & 0xffff] = true;
+        }
+        return blockStarts;
+    }
+
+    static QuickeningInfo analyze(CodeUnit co) {
+        byte[] code = co.code;
+        boolean[] blockStarts = findBlockStarts(co);
+        byte[] outputCanUnbox = new byte[code.length];
+        int[] stack = new int[co.stacksize + 1];
+        int stackTop = -1;
+        int oparg = 0;
+        int instructionStart = 0;
+        for (int bci = 0; bci < code.length;) {
+            if (blockStarts[bci] && bci == instructionStart) {
+                // values from the previous block have unknown consumers, they stay boxed
+                stackTop = -1;
+            }
+            OpCodes opcode = OpCodes.VALUES[Byte.toUnsignedInt(code[bci])];
+            byte[] followingArgs = PythonUtils.EMPTY_BYTE_ARRAY;
+            if (opcode.hasArg()) {
+                oparg |= Byte.toUnsignedInt(code[bci + 1]);
+                if (opcode.argLength > 1) {
+                    followingArgs = Arrays.copyOfRange(code, bci + 2, bci + opcode.length());
+                }
+            }
+            if (opcode == OpCodes.EXTENDED_ARG) {
+                oparg <<= 8;
+                bci += opcode.length();
+                continue;
+            }
+            int consumed = opcode.getNumberOfConsumedStackItems(oparg, followingArgs, false);
+            int produced = opcode.getNumberOfProducedStackItems(oparg, followingArgs, false);
+            byte accepted = acceptedKinds(opcode, oparg);
+            for (int i = 0; i < consumed; i++) {
+                int producer = stackTop >= 0 ? stack[stackTop--] : -1;
+                if (producer >= 0) {
+                    outputCanUnbox[producer] = accepted;
+                }
+            }
+            for (int i = 0; i < produced; i++) {
+                if (stackTop + 1 == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[++stackTop] = produced == 1 ? bci : -1;
+            }
+            bci += opcode.length();
+            if (endsBlock(opcode)) {
+                stackTop = -1;
+            }
+            oparg = 0;
+            instructionStart = bci;
+        }
+        return new QuickeningInfo(outputCanUnbox);
+    }
+
+    static boolean isComparison(int op) {
+        switch (op) {
+            case BinaryOpsConstants.EQ:
+            case BinaryOpsConstants.NE:
+            case BinaryOpsConstants.LT:
+            case BinaryOpsConstants.LE:
+            case BinaryOpsConstants.GT:
+            case BinaryOpsConstants.GE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean canUnbox(byte[] outputCanUnbox, int bci) {
+        return outputCanUnbox != null && outputCanUnbox[bci] != 0;
+    }
+
+    /**
+     * Replaces the opcodes of common instruction sequences in {@code code} with superinstructions.
+     * Loads whose result may be kept unboxed (according to {@code outputCanUnbox}, which may be
+     * {@code null}) are left alone, the type-specialized forms are faster than a fused boxed load.
+     */
+    static void fuseSuperinstructions(byte[] code, byte[] outputCanUnbox) {
+        int bci = 0;
+        while (bci < code.length) {
+            OpCodes opcode = OpCodes.VALUES[Byte.toUnsignedInt(code[bci])];
+            int next = bci + opcode.length();
+            if (next >= code.length) {
+                break;
+            }
+            OpCodes nextOpcode = OpCodes.VALUES[Byte.toUnsignedInt(code[next])];
+            int fused = -1;
+            switch (opcode) {
+                case LOAD_FAST:
+                    if (nextOpcode == OpCodes.LOAD_FAST && !canUnbox(outputCanUnbox, bci) && !canUnbox(outputCanUnbox, next)) {
+                        fused = OpCodesConstants.LOAD_FAST_LOAD_FAST;
+                    }
+                    break;
+                case BINARY_OP:
+                    if (nextOpcode == OpCodes.POP_AND_JUMP_IF_FALSE && isComparison(Byte.toUnsignedInt(code[bci + 1]))) {
+                        // start optimistic, the interpreter generalizes it on the first mismatch
+                        fused = OpCodesConstants.COMPARE_AND_JUMP_IF_FALSE_L;
+                    }
+                    break;
+                case LOAD_CONST:
+                case LOAD_STRING:
+                    if (nextOpcode == OpCodes.RETURN_VALUE) {
+                        fused = OpCodesConstants.RETURN_CONST;
+                    }
+                    break;
+                case LOAD_NONE:
+                    if (nextOpcode == OpCodes.RETURN_VALUE) {
+                        fused = OpCodesConstants.RETURN_NONE;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (fused != -1) {
+                code[bci] = (byte) fused;
+                next += nextOpcode.length();
+            }
+            bci = next;
+        }
+    }
+}
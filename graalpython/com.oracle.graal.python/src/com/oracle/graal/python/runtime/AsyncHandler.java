@@ -154,7 +154,9 @@ public class AsyncHandler {
 
     private final WeakReference<PythonContext> context;
     private static final int ASYNC_ACTION_DELAY = 25;
-    private static final int GIL_RELEASE_DELAY = 50;
+
+    private volatile boolean gilActivated;
+    private final AtomicBoolean gilReleaseRequested = new AtomicBoolean(false);
 
     private class AsyncRunnable implements Runnable {
         private final Supplier<AsyncAction> actionSupplier;
@@ -253,50 +255,53 @@ public class AsyncHandler {
     }
 
     void activateGIL() {
+        gilActivated = true;
+    }
+
+    /**
+     * Asks the thread currently holding the GIL to drop it at its next safepoint in ordinary Python
+     * code. This is called by threads that waited for the GIL for longer than the switch interval
+     * (see {@code sys.setswitchinterval}), so there are no release requests without contention.
+     */
+    void requestGilRelease(Thread gilOwner) {
         CompilerAsserts.neverPartOfCompilation();
         final PythonContext ctx = context.get();
-        if (ctx == null) {
+        if (ctx == null || !gilActivated) {
             return;
         }
-        final Env env = ctx.getEnv();
-        final AtomicBoolean gilReleaseRequested = new AtomicBoolean(false);
-        executorService.scheduleWithFixedDelay(() -> {
-            if (gilReleaseRequested.compareAndSet(false, true)) {
-                Thread gilOwner = ctx.getGilOwner();
-                // There is a race, but that's no problem. The gil owner may release the gil before
-                // getting to run this safepoint. In that case, it just ignores it. Some other
-                // thread will run and eventually get another gil release request.
-                if (gilOwner != null) {
-                    env.submitThreadLocal(new Thread[]{gilOwner}, new ThreadLocalAction(false, false) {
-                        @Override
-                        protected void perform(ThreadLocalAction.Access access) {
-                            // it may happen that we request a GIL release and no thread is
-                            // currently holding the GIL (e.g. all are sleeping). We still need
-                            // to tick again later, so we reset the gilReleaseRequested flag even
-                            // when the thread in question isn't actually holding it.
-                            gilReleaseRequested.set(false);
-                            RootNode rootNode = access.getLocation().getRootNode();
-                            if (rootNode instanceof PClosureRootNode) {
-                                if (rootNode.isInternal()) {
-                                    return;
-                                }
-                                if (rootNode instanceof FunctionRootNode && ((FunctionRootNode) rootNode).isPythonInternal()) {
-                                    return;
-                                }
-                                // we only release the gil in ordinary Python code nodes
-                                GilNode gil = GilNode.getUncached();
-                                if (gil.tryRelease()) {
-                                    Thread.yield();
-                                    gil.acquire(access.getLocation());
-                                }
-                            }
-                        }
-                    });
-                } else {
+        if (gilReleaseRequested.compareAndSet(false, true)) {
+            // There is a race, but that's no problem. The gil owner may release the gil before
+            // getting to run this safepoint. In that case, it just ignores it. The waiting thread
+            // will get the gil or request another release after the next switch interval.
+            ctx.getEnv().submitThreadLocal(new Thread[]{gilOwner}, new ThreadLocalAction(false, false) {
+                @Override
+                protected void perform(ThreadLocalAction.Access access) {
+                    // it may happen that the thread in question isn't actually holding the gil
+                    // anymore, we still reset the flag so that further requests can be made
                     gilReleaseRequested.set(false);
+                    RootNode rootNode = access.getLocation().getRootNode();
+                    if (rootNode instanceof PClosureRootNode) {
+                        if (rootNode.isInternal()) {
+                            return;
+                        }
+                        if (rootNode instanceof FunctionRootNode && ((FunctionRootNode) rootNode).isPythonInternal()) {
+                            return;
+                        }
+                        // we only release the gil in ordinary Python code nodes
+                        if (!ctx.ownsGil()) {
+                            return;
+                        }
+                        GilNode gil = GilNode.getUncached();
+                        long switchNumber = ctx.gilDropRequested();
+                        if (gil.tryRelease()) {
+                            // hand the gil over instead of competing with the woken up waiter
+                            ctx.awaitGilHandoff(switchNumber);
+                            gil.acquire(access.getLocation());
+                        }
+                    }
                 }
-            }
-        }, GIL_RELEASE_DELAY, GIL_RELEASE_DELAY, TimeUnit.MILLISECONDS);
+            });
+        }
     }
 
     public void shutdown() {
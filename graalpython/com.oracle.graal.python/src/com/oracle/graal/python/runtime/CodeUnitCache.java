@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.logging.Level;
+
+import org.graalvm.nativeimage.ImageInfo;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.modules.MarshalModuleBuiltins;
+import com.oracle.graal.python.compiler.CodeUnit;
+import com.oracle.graal.python.compiler.Compiler;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.TruffleLogger;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * Persistent cache of the {@link CodeUnit}s compiled from source files for the bytecode
+ * interpreter. This is the equivalent of CPython's {@code .pyc} files for sources that are not
+ * loaded through {@code importlib} (which already writes {@code .pyc} files containing serialized
+ * code units), like the core library files, or the main script. The cache files are stored in
+ * {@code __pycache__} directories next to the sources, or in a mirror directory tree under
+ * {@link PythonOptions#PyCachePrefix}.
+ *
+ * A cache file consists of a header and the code unit serialized by
+ * {@link MarshalModuleBuiltins#serializeCodeUnit(CodeUnit)}. The header contains the
+ * {@link Compiler#BYTECODE_VERSION bytecode version} and a hash of the source text, so that stale
+ * files are recompiled.
+ */
+public final class CodeUnitCache {
+    private static final TruffleLogger LOGGER = PythonLanguage.getLogger(CodeUnitCache.class);
+
+    private static final byte[] MAGIC = {'G', 'P', 'C', 'U'};
+    private static final int HASH_LENGTH = 32;
+    private static final int HEADER_LENGTH = MAGIC.length + Integer.BYTES + Integer.BYTES + HASH_LENGTH;
+    private static final String CACHE_SUFFIX = ".bytecode";
+    private static final String CACHE_TAG = "graalpython-" + PythonLanguage.MAJOR + PythonLanguage.MINOR;
+
+    private final Source source;
+    private final TruffleFile cacheFile;
+    private final boolean writable;
+    private byte[] sourceHash;
+
+    private CodeUnitCache(Source source, TruffleFile cacheFile, boolean writable) {
+        this.source = source;
+        this.cacheFile = cacheFile;
+        this.writable = writable;
+    }
+
+    /**
+     * Returns the cache entry for the given source file, or {@code null} if the source cannot be
+     * cached, because it is not backed by a file or the cache is disabled.
+     */
+    public static CodeUnitCache create(PythonContext context, Source source, int optimize) {
+        if (ImageInfo.inImageBuildtimeCode() || source.getPath() == null || !context.getOption(PythonOptions.PersistentBytecodeCache)) {
+            return null;
+        }
+        Env env = context.getEnv();
+        TruffleFile cacheFile;
+        try {
+            TruffleFile sourceFile = env.getPublicTruffleFile(source.getPath()).getAbsoluteFile();
+            TruffleFile sourceDir = sourceFile.getParent();
+            if (sourceDir == null) {
+                return null;
+            }
+            String name = sourceFile.getName();
+            if (name.endsWith(PythonLanguage.EXTENSION)) {
+                name = name.substring(0, name.length() - PythonLanguage.EXTENSION.length());
+            }
+            name += '.' + CACHE_TAG;
+            if (optimize > 0) {
+                name += ".opt-" + optimize;
+            }
+            name += CACHE_SUFFIX;
+            String prefix = context.getOption(PythonOptions.PyCachePrefix);
+            TruffleFile cacheDir;
+            if (prefix.isEmpty()) {
+                cacheDir = sourceDir.resolve("__pycache__");
+            } else {
+                // like CPython, mirror the absolute path of the source directory under the prefix
+                String dirPath = sourceDir.getPath();
+                int start = 0;
+                while (start < dirPath.length() && (dirPath.charAt(start) == '/' || dirPath.charAt(start) == '\\' || dirPath.charAt(start) == ':')) {
+                    start++;
+                }
+                cacheDir = env.getPublicTruffleFile(prefix).resolve(dirPath.substring(start));
+            }
+            cacheFile = cacheDir.resolve(name);
+        } catch (SecurityException | UnsupportedOperationException | IllegalArgumentException e) {
+            return null;
+        }
+        return new CodeUnitCache(source, cacheFile, !context.getOption(PythonOptions.DontWriteBytecodeFlag));
+    }
+
+    /**
+     * Reads the cached code unit. Returns {@code null} if there is no cache file, or it was written
+     * for a different source text or by an incompatible version.
+     */
+    public CodeUnit load() {
+        byte[] data;
+        try {
+            if (!cacheFile.exists()) {
+                return null;
+            }
+            data = cacheFile.readAllBytes();
+        } catch (IOException | SecurityException e) {
+            LOGGER.log(Level.FINE, e, () -> "cannot read bytecode cache file " + cacheFile);
+            return null;
+        }
+        if (!isValid(data)) {
+            LOGGER.fine(() -> "ignoring stale bytecode cache file " + cacheFile);
+            return null;
+        }
+        try {
+            CodeUnit code = MarshalModuleBuiltins.deserializeCodeUnit(Arrays.copyOfRange(data, HEADER_LENGTH, data.length));
+            LOGGER.finer(() -> "loaded bytecode from " + cacheFile);
+            return code;
+        } catch (PException e) {
+            LOGGER.fine(() -> "ignoring corrupted bytecode cache file " + cacheFile);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the code unit to the cache file, unless writing bytecode is disabled. Errors are
+     * ignored, like when CPython fails to write a {@code .pyc} file.
+     */
+    public void store(CodeUnit code) {
+        if (!writable) {
+            return;
+        }
+        byte[] serialized;
+        try {
+            serialized = MarshalModuleBuiltins.serializeCodeUnit(code);
+        } catch (PException e) {
+            LOGGER.fine(() -> "cannot serialize bytecode for " + cacheFile);
+            return;
+        }
+        TruffleFile tmpFile = null;
+        try {
+            cacheFile.getParent().createDirectories();
+            // write to a temporary file first, so that concurrent readers never see a partial file
+            tmpFile = cacheFile.getParent().resolve(cacheFile.getName() + '.' + Long.toHexString(Thread.currentThread().getId()) + Long.toHexString(System.nanoTime()));
+            try (OutputStream out = tmpFile.newOutputStream()) {
+                out.write(createHeader());
+                out.write(serialized);
+            }
+            tmpFile.move(cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.finer(() -> "wrote bytecode to " + cacheFile);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            LOGGER.log(Level.FINE, e, () -> "cannot write bytecode cache file " + cacheFile);
+            if (tmpFile != null) {
+                try {
+                    tmpFile.delete();
+                } catch (IOException | SecurityException e2) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private byte[] createHeader() throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_LENGTH);
+        DataOutputStream out = new DataOutputStream(header);
+        out.write(MAGIC);
+        out.writeInt(Compiler.BYTECODE_VERSION);
+        out.writeInt(PythonLanguage.VERSION_HEX);
+        out.write(getSourceHash());
+        out.flush();
+        return header.toByteArray();
+    }
+
+    private boolean isValid(byte[] data) {
+        if (data.length < HEADER_LENGTH) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) {
+                return false;
+            }
+        }
+        if (buffer.getInt() != Compiler.BYTECODE_VERSION || buffer.getInt() != PythonLanguage.VERSION_HEX) {
+            return false;
+        }
+        byte[] hash = getSourceHash();
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            if (buffer.get() != hash[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] getSourceHash() {
+        if (sourceHash == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                sourceHash = digest.digest(source.getCharacters().toString().getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+        return sourceHash;
+    }
+}
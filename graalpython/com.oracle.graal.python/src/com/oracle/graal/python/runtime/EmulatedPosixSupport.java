@@ -68,6 +68,7 @@ import static com.oracle.graal.python.runtime.PosixConstants.LOCK_NB;
 import static com.oracle.graal.python.runtime.PosixConstants.LOCK_SH;
 import static com.oracle.graal.python.runtime.PosixConstants.LOCK_UN;
 import static com.oracle.graal.python.runtime.PosixConstants.MAP_ANONYMOUS;
+import static com.oracle.graal.python.runtime.PosixConstants.MAP_PRIVATE;
 import static com.oracle.graal.python.runtime.PosixConstants.NI_DGRAM;
 import static com.oracle.graal.python.runtime.PosixConstants.NI_NAMEREQD;
 import static com.oracle.graal.python.runtime.PosixConstants.NI_NUMERICHOST;
@@ -119,6 +120,12 @@ import static com.oracle.graal.python.runtime.PosixConstants.TCP_NODELAY;
 import static com.oracle.graal.python.runtime.PosixConstants.WNOHANG;
 import static com.oracle.graal.python.runtime.PosixConstants.W_OK;
 import static com.oracle.graal.python.runtime.PosixConstants.X_OK;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_ADD;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_MODIFY;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLIN;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLNVAL;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLOUT;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLPRI;
 import static com.oracle.truffle.api.CompilerAsserts.neverPartOfCompilation;
 import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 import static com.oracle.truffle.api.TruffleFile.CREATION_TIME;
@@ -159,15 +166,19 @@ import java.net.StandardSocketOptions;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.channels.AlreadyConnectedException;
 import java.nio.channels.ByteChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.NetworkChannel;
 import java.nio.channels.NotYetConnectedException;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
@@ -191,11 +202,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -223,9 +236,11 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.GetAddrInfoException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Inet4SockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Inet6SockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressException;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PollResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -234,8 +249,8 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.UnsupportedPosixFeatu
 import com.oracle.graal.python.runtime.exception.PythonExitException;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.util.FileDeleteShutdownHook;
+import com.oracle.graal.python.util.IntArrayBuilder;
 import com.oracle.graal.python.util.IPAddressUtil;
-import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -294,6 +309,9 @@ import com.sun.security.auth.module.UnixSystem;
 @SuppressWarnings("unused")
 public final class EmulatedPosixSupport extends PosixResources {
 
+    private static final int MAX_POSITIONAL_READ = Integer.MAX_VALUE / 2;
+    private static final int TRANSFER_CHUNK_SIZE = 64 * 1024;
+
     private static final PosixFilePermission[][] otherBitsToPermission = new PosixFilePermission[][]{
                     new PosixFilePermission[]{},
                     new PosixFilePermission[]{PosixFilePermission.OTHERS_EXECUTE},
@@ -330,6 +348,8 @@ public final class EmulatedPosixSupport extends PosixResources {
     private boolean hasDefaultUmask = true;
     // Lazily parsed content of /etc/services.
     private Map<String, List<Service>> etcServices;
+    // Open pollers, their channels must be deregistered before switching to blocking mode.
+    private final Set<EmulatedPoller> pollers = Collections.newSetFromMap(new WeakHashMap<>());
 
     public EmulatedPosixSupport(PythonContext context) {
         super(context);
@@ -492,6 +512,238 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @ExportMessage
+    public Buffer pread(int fd, long length, long offset,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        SeekableByteChannel channel = getSeekableChannel(fd, channelClassProfile, errorBranch);
+        if (!(channel instanceof ReadableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        Buffer buffer = Buffer.allocate(Math.min(length, MAX_POSITIONAL_READ));
+        try {
+            return buffer.withLength(doPositionalRead(channel, buffer.data, buffer.data.length, offset));
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @ExportMessage
+    public long pwrite(int fd, Buffer data, long offset,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        SeekableByteChannel channel = getSeekableChannel(fd, channelClassProfile, errorBranch);
+        if (!(channel instanceof WritableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doPositionalWrite(channel, data.getByteBuffer(), offset);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    private SeekableByteChannel getSeekableChannel(int fd, ValueProfile channelClassProfile, BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (channel == null) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(channel instanceof SeekableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.ESPIPE);
+        }
+        return (SeekableByteChannel) channel;
+    }
+
+    @TruffleBoundary
+    private static int doPositionalRead(SeekableByteChannel channel, byte[] data, int length, long offset) throws IOException {
+        ByteBuffer dst = ByteBuffer.wrap(data, 0, length);
+        int n;
+        if (channel instanceof FileChannel) {
+            n = ((FileChannel) channel).read(dst, offset);
+        } else {
+            synchronized (channel) {
+                long oldPosition = channel.position();
+                try {
+                    channel.position(offset);
+                    n = channel.read(dst);
+                } finally {
+                    channel.position(oldPosition);
+                }
+            }
+        }
+        return Math.max(n, 0);
+    }
+
+    @TruffleBoundary
+    private static int doPositionalWrite(SeekableByteChannel channel, ByteBuffer src, long offset) throws IOException {
+        if (channel instanceof FileChannel) {
+            return ((FileChannel) channel).write(src, offset);
+        }
+        synchronized (channel) {
+            long oldPosition = channel.position();
+            try {
+                channel.position(offset);
+                return channel.write(src);
+            } finally {
+                channel.position(oldPosition);
+            }
+        }
+    }
+
+    @ExportMessage
+    public long readv(int fd, Buffer[] buffers,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof ReadableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doReadv((ReadableByteChannel) channel, buffers);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static long doReadv(ReadableByteChannel channel, Buffer[] buffers) throws IOException {
+        ByteBuffer[] dsts = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; ++i) {
+            dsts[i] = ByteBuffer.wrap(buffers[i].data, 0, (int) buffers[i].length);
+        }
+        if (channel instanceof ScatteringByteChannel) {
+            return Math.max(((ScatteringByteChannel) channel).read(dsts), 0);
+        }
+        // stop at the first short read, just like readv does not wait for more data
+        long total = 0;
+        for (ByteBuffer dst : dsts) {
+            int n = channel.read(dst);
+            if (n > 0) {
+                total += n;
+            }
+            if (dst.hasRemaining()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @ExportMessage
+    public long writev(int fd, Buffer[] buffers,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof WritableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doWritev((WritableByteChannel) channel, buffers);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static long doWritev(WritableByteChannel channel, Buffer[] buffers) throws IOException {
+        ByteBuffer[] srcs = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; ++i) {
+            srcs[i] = buffers[i].getByteBuffer();
+        }
+        if (channel instanceof GatheringByteChannel) {
+            return ((GatheringByteChannel) channel).write(srcs);
+        }
+        long total = 0;
+        for (ByteBuffer src : srcs) {
+            total += channel.write(src);
+            if (src.hasRemaining()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        return copyFileRange(inFd, offset, outFd, -1, count, channelClassProfile, errorBranch);
+    }
+
+    @ExportMessage
+    public long copyFileRange(int inFd, long inOffset, int outFd, long outOffset, long count,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel in = getFileChannel(inFd, channelClassProfile);
+        Channel out = getFileChannel(outFd, channelClassProfile);
+        if (!(in instanceof ReadableByteChannel) || !(out instanceof WritableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if ((inOffset >= 0 && !(in instanceof SeekableByteChannel)) || (outOffset >= 0 && !(out instanceof SeekableByteChannel))) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.ESPIPE);
+        }
+        try {
+            return doTransfer((ReadableByteChannel) in, inOffset, (WritableByteChannel) out, outOffset, count);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    /**
+     * Lets {@link FileChannel} do the copying when one of the channels is a file and the other one
+     * is used at its current position, otherwise the data goes through a bounded intermediate
+     * buffer. A negative offset means the current position of the respective channel.
+     */
+    @TruffleBoundary
+    private static long doTransfer(ReadableByteChannel in, long inOffset, WritableByteChannel out, long outOffset, long count) throws IOException {
+        if (in instanceof FileChannel && outOffset < 0) {
+            FileChannel fc = (FileChannel) in;
+            long position = inOffset < 0 ? fc.position() : inOffset;
+            long n = fc.transferTo(position, count, out);
+            if (inOffset < 0) {
+                fc.position(position + n);
+            }
+            return n;
+        }
+        if (out instanceof FileChannel && inOffset < 0) {
+            FileChannel fc = (FileChannel) out;
+            long position = outOffset < 0 ? fc.position() : outOffset;
+            long n = fc.transferFrom(in, position, count);
+            if (outOffset < 0) {
+                fc.position(position + n);
+            }
+            return n;
+        }
+        byte[] data = new byte[(int) Math.min(count, TRANSFER_CHUNK_SIZE)];
+        int n;
+        if (inOffset < 0) {
+            n = Math.max(in.read(ByteBuffer.wrap(data)), 0);
+        } else {
+            n = doPositionalRead((SeekableByteChannel) in, data, data.length, inOffset);
+        }
+        ByteBuffer src = ByteBuffer.wrap(data, 0, n);
+        while (src.hasRemaining()) {
+            if (outOffset < 0) {
+                out.write(src);
+            } else {
+                doPositionalWrite((SeekableByteChannel) out, src, outOffset + src.position());
+            }
+        }
+        return n;
+    }
+
     @Override
     @ExportMessage
     public int dup(int fd) {
@@ -649,30 +901,403 @@ public final class EmulatedPosixSupport extends PosixResources {
     private SelectableChannel[] getSelectableChannels(int[] fds) throws PosixException {
         SelectableChannel[] channels = new SelectableChannel[fds.length];
         for (int i = 0; i < fds.length; i++) {
-            Channel ch = getFileChannel(fds[i]);
-            if (ch == null) {
+            channels[i] = getSelectableChannel(fds[i]);
+        }
+        return channels;
+    }
+
+    private SelectableChannel getSelectableChannel(int fd) throws PosixException {
+        Channel ch = getFileChannel(fd);
+        if (ch == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (ch instanceof SelectableChannel) {
+            return (SelectableChannel) ch;
+        } else if (ch instanceof EmulatedDatagramSocket) {
+            return ((EmulatedDatagramSocket) ch).channel;
+        } else if (ch instanceof EmulatedStreamSocket) {
+            EmulatedStreamSocket streamSocket = (EmulatedStreamSocket) ch;
+            synchronized (streamSocket) {
+                if (streamSocket.clientChannel != null) {
+                    return streamSocket.clientChannel;
+                } else if (streamSocket.serverChannel != null) {
+                    return streamSocket.serverChannel;
+                }
+            }
+        }
+        throw ChannelNotSelectableException.INSTANCE;
+    }
+
+    /**
+     * Poller that keeps one {@link Selector} for its whole lifetime. Channels that are in
+     * non-blocking mode are registered with it once and stay registered until they are removed from
+     * the poller, so a wait does not touch the channels that are not ready. Channels that cannot
+     * be registered yet are kept in {@link #pending} and are examined on each wait:
+     * <ul>
+     * <li>Channels in blocking mode cannot be registered with a selector without changing their
+     * mode permanently, so a wait that includes them falls back to {@link #select}. Switching a
+     * registered channel to blocking mode moves it back to {@link #pending}, see
+     * {@link EmulatedPosixSupport#deregisterFromPollers}.</li>
+     * <li>Regular files are always ready, like in {@code poll(2)}.</li>
+     * <li>Stream sockets that are neither connected nor listening have no channel yet.</li>
+     * </ul>
+     */
+    private static final class EmulatedPoller {
+        private final Selector selector;
+        private final HashMap<Integer, PollerRegistration> registrations = new HashMap<>();
+        private final LinkedHashSet<PollerRegistration> pending = new LinkedHashSet<>();
+        // whether a thread is blocked in a selection operation of the selector
+        private boolean waiting;
+        // whether the selector was woken up to deregister a channel, the wait must be restarted
+        private boolean restart;
+
+        EmulatedPoller(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public String toString() {
+            return "EmulatedPoller" + registrations.keySet();
+        }
+    }
+
+    private static final class PollerRegistration {
+        private final int fd;
+        private int events;
+        private SelectionKey key;
+
+        PollerRegistration(int fd, int events) {
+            this.fd = fd;
+            this.events = events;
+        }
+    }
+
+    private static int pollEventsToOps(int events, SelectableChannel channel) {
+        int ops = 0;
+        if ((events & (POLLIN | POLLPRI)) != 0) {
+            ops |= SelectionKey.OP_READ | SelectionKey.OP_ACCEPT;
+        }
+        if ((events & POLLOUT) != 0) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        return ops & channel.validOps();
+    }
+
+    private static int opsToPollEvents(int ops) {
+        int events = 0;
+        if ((ops & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+            events |= POLLIN;
+        }
+        if ((ops & SelectionKey.OP_WRITE) != 0) {
+            events |= POLLOUT;
+        }
+        return events;
+    }
+
+    /**
+     * Tries to register the channel of the given registration with the poller's selector. Returns
+     * {@code false} if that is not possible at the moment.
+     */
+    private boolean tryRegister(EmulatedPoller poller, PollerRegistration reg) {
+        SelectableChannel channel;
+        try {
+            channel = getSelectableChannel(reg.fd);
+        } catch (PosixException | ChannelNotSelectableException e) {
+            return false;
+        }
+        synchronized (channel.blockingLock()) {
+            if (channel.isBlocking()) {
+                return false;
+            }
+            try {
+                reg.key = channel.register(poller.selector, pollEventsToOps(reg.events, channel), reg);
+            } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public Object pollerCreate() throws PosixException {
+        try {
+            EmulatedPoller poller = new EmulatedPoller(Selector.open());
+            synchronized (pollers) {
+                pollers.add(poller);
+            }
+            return poller;
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public void pollerControl(Object pollerObj, int op, int fd, int events) throws PosixException {
+        EmulatedPoller poller = (EmulatedPoller) pollerObj;
+        synchronized (poller) {
+            if (!poller.selector.isOpen()) {
                 throw posixException(OSErrorEnum.EBADF);
             }
-            if (ch instanceof SelectableChannel) {
-                channels[i] = (SelectableChannel) ch;
-            } else if (ch instanceof EmulatedDatagramSocket) {
-                channels[i] = ((EmulatedDatagramSocket) ch).channel;
-            } else if (ch instanceof EmulatedStreamSocket) {
-                EmulatedStreamSocket streamSocket = (EmulatedStreamSocket) ch;
-                synchronized (streamSocket) {
-                    if (streamSocket.clientChannel != null) {
-                        channels[i] = streamSocket.clientChannel;
-                    } else if (streamSocket.serverChannel != null) {
-                        channels[i] = streamSocket.serverChannel;
-                    } else {
-                        throw ChannelNotSelectableException.INSTANCE;
+            PollerRegistration reg = poller.registrations.get(fd);
+            if (op == POLLER_ADD) {
+                if (reg != null) {
+                    throw posixException(OSErrorEnum.EEXIST);
+                }
+                reg = new PollerRegistration(fd, events);
+                poller.registrations.put(fd, reg);
+                if (!tryRegister(poller, reg)) {
+                    poller.pending.add(reg);
+                }
+                return;
+            }
+            if (reg == null) {
+                throw posixException(OSErrorEnum.ENOENT);
+            }
+            if (op == POLLER_MODIFY) {
+                reg.events = events;
+                if (reg.key != null && reg.key.isValid()) {
+                    reg.key.interestOps(pollEventsToOps(events, reg.key.channel()));
+                }
+            } else {
+                assert op == POLLER_DELETE;
+                poller.registrations.remove(fd);
+                poller.pending.remove(reg);
+                if (reg.key != null) {
+                    reg.key.cancel();
+                    if (!poller.waiting) {
+                        // deregister the channel right away so that it can be switched back to
+                        // blocking mode
+                        try {
+                            poller.selector.selectNow();
+                        } catch (IOException e) {
+                            // ignore, the channel will be deregistered on the next wait
+                        }
                     }
                 }
+            }
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public PollResult pollerWait(Object pollerObj, int maxEvents, long timeoutMs) throws PosixException {
+        EmulatedPoller poller = (EmulatedPoller) pollerObj;
+        long deadline = timeoutMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : 0;
+        long timeout = timeoutMs;
+        while (true) {
+            PollResult result = pollerWaitOnce(poller, maxEvents, timeout);
+            if (result != null) {
+                return result;
+            }
+            // the selector was woken up to deregister a channel, wait for the rest of the timeout
+            if (timeoutMs > 0) {
+                timeout = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Returns {@code null} if nothing is ready and the wait was interrupted by
+     * {@link #deregisterFromPollers}.
+     */
+    private PollResult pollerWaitOnce(EmulatedPoller poller, int maxEvents, long timeoutMs) throws PosixException {
+        IntArrayBuilder readyFds = new IntArrayBuilder();
+        IntArrayBuilder readyEvents = new IntArrayBuilder();
+        boolean needsSelect = false;
+        synchronized (poller) {
+            if (!poller.selector.isOpen()) {
+                throw posixException(OSErrorEnum.EBADF);
+            }
+            poller.selector.selectedKeys().clear();
+            Iterator<PollerRegistration> it = poller.pending.iterator();
+            while (it.hasNext()) {
+                PollerRegistration reg = it.next();
+                if (tryRegister(poller, reg)) {
+                    it.remove();
+                    continue;
+                }
+                Channel channel = getFileChannel(reg.fd);
+                if (channel == null) {
+                    readyFds.add(reg.fd);
+                    readyEvents.add(POLLNVAL);
+                } else if (!(channel instanceof SelectableChannel || channel instanceof EmulatedSocket)) {
+                    readyFds.add(reg.fd);
+                    readyEvents.add(reg.events & (POLLIN | POLLOUT));
+                } else {
+                    try {
+                        getSelectableChannel(reg.fd);
+                        needsSelect = true;
+                    } catch (ChannelNotSelectableException e) {
+                        // a socket that is not connected yet, it is not ready
+                    }
+                }
+            }
+            poller.waiting = !needsSelect;
+        }
+        long timeout = readyFds.size() > 0 ? 0 : timeoutMs;
+        if (needsSelect) {
+            return waitWithSelect(poller, maxEvents, timeout, readyFds, readyEvents);
+        }
+        try {
+            if (timeout == 0) {
+                poller.selector.selectNow();
             } else {
-                throw ChannelNotSelectableException.INSTANCE;
+                poller.selector.select(timeout < 0 ? 0 : timeout);
+            }
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        } finally {
+            synchronized (poller) {
+                poller.waiting = false;
+                poller.notifyAll();
+            }
+        }
+        synchronized (poller) {
+            for (SelectionKey key : poller.selector.selectedKeys()) {
+                if (key.isValid()) {
+                    int events = opsToPollEvents(key.readyOps());
+                    if (events != 0) {
+                        readyFds.add(((PollerRegistration) key.attachment()).fd);
+                        readyEvents.add(events);
+                    }
+                }
+            }
+            poller.selector.selectedKeys().clear();
+            if (poller.restart) {
+                poller.restart = false;
+                if (readyFds.size() == 0) {
+                    return null;
+                }
+            }
+        }
+        return createPollResult(readyFds, readyEvents, maxEvents);
+    }
+
+    /**
+     * Deregisters a channel from the selectors of all pollers, since a channel that is registered
+     * with a selector cannot be switched to blocking mode. The registrations stay in the pollers
+     * and are handled like those of any other channel in blocking mode.
+     */
+    private void deregisterFromPollers(SelectableChannel channel) throws IOException {
+        if (!channel.isRegistered()) {
+            return;
+        }
+        EmulatedPoller[] openPollers;
+        synchronized (pollers) {
+            openPollers = pollers.toArray(new EmulatedPoller[0]);
+        }
+        for (EmulatedPoller poller : openPollers) {
+            SelectionKey key = channel.keyFor(poller.selector);
+            if (key == null) {
+                continue;
+            }
+            synchronized (poller) {
+                PollerRegistration reg = (PollerRegistration) key.attachment();
+                key.cancel();
+                if (poller.registrations.get(reg.fd) == reg) {
+                    reg.key = null;
+                    poller.pending.add(reg);
+                }
+                // the key is removed from the channel only by the next selection operation, which
+                // cannot start while another thread is blocked in the selector
+                while (poller.waiting) {
+                    poller.restart = true;
+                    poller.selector.wakeup();
+                    try {
+                        poller.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(e);
+                    }
+                }
+                if (poller.selector.isOpen()) {
+                    poller.selector.selectNow();
+                    poller.selector.selectedKeys().clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits on all channels of the poller using {@link #select}, which temporarily switches
+     * channels in blocking mode to non-blocking mode.
+     */
+    private PollResult waitWithSelect(EmulatedPoller poller, int maxEvents, long timeoutMs, IntArrayBuilder readyFds, IntArrayBuilder readyEvents) throws PosixException {
+        IntArrayBuilder readfds = new IntArrayBuilder();
+        IntArrayBuilder writefds = new IntArrayBuilder();
+        synchronized (poller) {
+            for (PollerRegistration reg : poller.registrations.values()) {
+                try {
+                    getSelectableChannel(reg.fd);
+                } catch (PosixException | ChannelNotSelectableException e) {
+                    // already reported by the caller
+                    continue;
+                }
+                if ((reg.events & (POLLIN | POLLPRI)) != 0) {
+                    readfds.add(reg.fd);
+                }
+                if ((reg.events & POLLOUT) != 0) {
+                    writefds.add(reg.fd);
+                }
+            }
+        }
+        int[] reads = readfds.toArray();
+        int[] writes = writefds.toArray();
+        Timeval timeout = timeoutMs < 0 ? null : new Timeval(timeoutMs / 1000, (timeoutMs % 1000) * 1000);
+        SelectResult result = select(reads, writes, new int[0], timeout);
+        HashMap<Integer, Integer> events = new HashMap<>();
+        for (int i = 0; i < reads.length; i++) {
+            if (result.getReadFds()[i]) {
+                events.merge(reads[i], POLLIN, (a, b) -> a | b);
+            }
+        }
+        for (int i = 0; i < writes.length; i++) {
+            if (result.getWriteFds()[i]) {
+                events.merge(writes[i], POLLOUT, (a, b) -> a | b);
+            }
+        }
+        for (Map.Entry<Integer, Integer> e : events.entrySet()) {
+            readyFds.add(e.getKey());
+            readyEvents.add(e.getValue());
+        }
+        return createPollResult(readyFds, readyEvents, maxEvents);
+    }
+
+    private static PollResult createPollResult(IntArrayBuilder readyFds, IntArrayBuilder readyEvents, int maxEvents) {
+        int n = Math.min(readyFds.size(), maxEvents);
+        return new PollResult(Arrays.copyOf(readyFds.toArray(), n), Arrays.copyOf(readyEvents.toArray(), n));
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public Object pollerFromFd(@SuppressWarnings("unused") int fd) throws PosixException {
+        throw posixException(OSErrorEnum.ENOSYS);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public int pollerGetFd(@SuppressWarnings("unused") Object poller) throws PosixException {
+        throw posixException(OSErrorEnum.ENOSYS);
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public void pollerClose(Object pollerObj) throws PosixException {
+        EmulatedPoller poller = (EmulatedPoller) pollerObj;
+        synchronized (pollers) {
+            pollers.remove(poller);
+        }
+        synchronized (poller) {
+            poller.registrations.clear();
+            poller.pending.clear();
+            try {
+                poller.selector.close();
+            } catch (IOException e) {
+                throw posixException(OSErrorEnum.fromException(e));
             }
         }
-        return channels;
     }
 
     @ExportMessage
@@ -862,7 +1487,7 @@ public final class EmulatedPosixSupport extends PosixResources {
         try {
             Channel channel = getChannel(fd);
             if (channel instanceof EmulatedSocket) {
-                setBlocking((EmulatedSocket) channel, blocking);
+                setBlocking(fd, (EmulatedSocket) channel, blocking);
                 return;
             }
             Channel fileChannel = getFileChannel(fd, channelClassProfile);
@@ -886,13 +1511,23 @@ public final class EmulatedPosixSupport extends PosixResources {
 
     @TruffleBoundary
     @Ignore
-    private static void setBlocking(SelectableChannel channel, boolean block) throws IOException {
+    private void setBlocking(SelectableChannel channel, boolean block) throws IOException {
+        if (block) {
+            deregisterFromPollers(channel);
+        }
         channel.configureBlocking(block);
     }
 
     @TruffleBoundary
     @Ignore
-    private static void setBlocking(EmulatedSocket socket, boolean block) throws IOException {
+    private void setBlocking(int fd, EmulatedSocket socket, boolean block) throws IOException {
+        if (block) {
+            try {
+                deregisterFromPollers(getSelectableChannel(fd));
+            } catch (PosixException | ChannelNotSelectableException e) {
+                // the socket has no channel yet, so it cannot be registered with a selector
+            }
+        }
         socket.configureBlocking(block);
     }
 
@@ -2107,82 +2742,39 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    /**
+     * Memory mappings are backed by byte buffers obtained from {@link FileChannel#map} (or heap
+     * buffers for anonymous mappings), so that accessing the mapping does not involve any I/O
+     * operation. A mapping is split into segments of at most {@link #SEGMENT_SIZE} bytes, because
+     * a single buffer cannot be larger than 2 GB. If the file system does not give us a
+     * {@link FileChannel}, we fall back to positioned reads and writes of the channel.
+     */
     public static final class MMapHandle {
-        private static final MMapHandle NONE = new MMapHandle(null, 0);
+        private static final MMapHandle NONE = new MMapHandle(null, null, 0, 0);
+        private static final int SEGMENT_SHIFT = 30;
+        private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+        private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+        // both are cleared by mmapUnmap, the channel is only accessed with the lock of the handle
+        private volatile ByteBuffer[] segments;
         private SeekableByteChannel channel;
         private final long offset;
+        private final long length;
 
-        public MMapHandle(SeekableByteChannel channel, long offset) {
+        private MMapHandle(ByteBuffer[] segments, SeekableByteChannel channel, long offset, long length) {
+            this.segments = segments;
             this.channel = channel;
             this.offset = offset;
+            this.length = length;
         }
 
         @Override
         public String toString() {
             neverPartOfCompilation();
-            return String.format("Emulated mmap [channel=%s, offset=%d]", channel, offset);
-        }
-    }
-
-    private static final class AnonymousMap implements SeekableByteChannel {
-        private final byte[] data;
-
-        private boolean open = true;
-        private int cur;
-
-        public AnonymousMap(int cap) {
-            this.data = new byte[cap];
-        }
-
-        @Override
-        public boolean isOpen() {
-            return open;
-        }
-
-        @Override
-        public void close() throws IOException {
-            open = false;
-        }
-
-        @Override
-        public int read(ByteBuffer dst) throws IOException {
-            int nread = Math.min(dst.remaining(), data.length - cur);
-            dst.put(data, cur, nread);
-            return nread;
-        }
-
-        @Override
-        public int write(ByteBuffer src) throws IOException {
-            int nwrite = Math.min(src.remaining(), data.length - cur);
-            src.get(data, cur, nwrite);
-            return nwrite;
-        }
-
-        @Override
-        public long position() throws IOException {
-            return cur;
-        }
-
-        @Override
-        public SeekableByteChannel position(long newPosition) throws IOException {
-            if (newPosition < 0 || newPosition >= data.length) {
-                throw new IllegalArgumentException();
-            }
-            cur = (int) newPosition;
-            return this;
-        }
-
-        @Override
-        public long size() throws IOException {
-            return data.length;
-        }
-
-        @Override
-        public SeekableByteChannel truncate(long size) throws IOException {
-            for (int i = 0; i < size; i++) {
-                data[i] = 0;
+            if (segments != null) {
+                return String.format("Emulated mmap [segments=%d, offset=%d, length=%d]", segments.length, offset, length);
             }
-            return this;
+            return String.format("Emulated mmap [channel=%s, offset=%d]", channel, offset);
         }
     }
 
@@ -2196,12 +2788,7 @@ public final class EmulatedPosixSupport extends PosixResources {
 
         // Note: the profile is not really defaultDirProfile, but it's good to share...
         if (isAnonymousProfile.profile((flags & MAP_ANONYMOUS.value) != 0)) {
-            try {
-                return new MMapHandle(new AnonymousMap(PythonUtils.toIntExact(length)), 0);
-            } catch (OverflowException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new UnsupportedPosixFeatureException(String.format("Anonymous mapping in mmap for memory larger than %d", Integer.MAX_VALUE));
-            }
+            return new MMapHandle(allocateSegments(length), null, 0, length);
         }
 
         String path = getFilePath(fd);
@@ -2212,8 +2799,16 @@ public final class EmulatedPosixSupport extends PosixResources {
         SeekableByteChannel fileChannel;
         try {
             fileChannel = newByteChannel(file, options);
+            if (fileChannel instanceof FileChannel) {
+                // the mapping stays valid after the channel is closed
+                try {
+                    return new MMapHandle(mapSegments((FileChannel) fileChannel, mmapMode(prot, flags), offset, length), null, offset, length);
+                } finally {
+                    closeChannel(fileChannel);
+                }
+            }
             position(fileChannel, offset);
-            return new MMapHandle(fileChannel, offset);
+            return new MMapHandle(null, fileChannel, offset, length);
         } catch (IOException e) {
             throw posixException(OSErrorEnum.fromException(e));
         }
@@ -2234,6 +2829,95 @@ public final class EmulatedPosixSupport extends PosixResources {
         return options;
     }
 
+    private static FileChannel.MapMode mmapMode(int prot, int flags) {
+        if ((prot & PROT_WRITE.value) == 0) {
+            return FileChannel.MapMode.READ_ONLY;
+        }
+        if ((flags & MAP_PRIVATE.value) != 0) {
+            return FileChannel.MapMode.PRIVATE;
+        }
+        return FileChannel.MapMode.READ_WRITE;
+    }
+
+    @TruffleBoundary
+    private static ByteBuffer[] mapSegments(FileChannel channel, FileChannel.MapMode mode, long offset, long length) throws IOException {
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(length)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = i * MMapHandle.SEGMENT_SIZE;
+            segments[i] = channel.map(mode, offset + start, Math.min(length - start, MMapHandle.SEGMENT_SIZE));
+        }
+        return segments;
+    }
+
+    @TruffleBoundary
+    private static ByteBuffer[] allocateSegments(long length) {
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(length)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = i * MMapHandle.SEGMENT_SIZE;
+            segments[i] = ByteBuffer.allocate((int) Math.min(length - start, MMapHandle.SEGMENT_SIZE));
+        }
+        return segments;
+    }
+
+    private static int segmentCount(long length) {
+        return (int) ((length + MMapHandle.SEGMENT_MASK) >>> MMapHandle.SEGMENT_SHIFT);
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static byte getSegmentByte(ByteBuffer[] segments, long index) {
+        return segments[(int) (index >>> MMapHandle.SEGMENT_SHIFT)].get((int) (index & MMapHandle.SEGMENT_MASK));
+    }
+
+    @TruffleBoundary
+    private static void getSegmentBytes(ByteBuffer[] segments, long index, byte[] dst, int dstOffset, int length) {
+        int done = 0;
+        while (done < length) {
+            long pos = index + done;
+            // duplicate, so that concurrent accesses do not interfere through the buffer position
+            ByteBuffer segment = segments[(int) (pos >>> MMapHandle.SEGMENT_SHIFT)].duplicate();
+            segment.position((int) (pos & MMapHandle.SEGMENT_MASK));
+            int n = Math.min(length - done, segment.remaining());
+            segment.get(dst, dstOffset + done, n);
+            done += n;
+        }
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static void putSegmentByte(ByteBuffer[] segments, long index, byte value) {
+        segments[(int) (index >>> MMapHandle.SEGMENT_SHIFT)].put((int) (index & MMapHandle.SEGMENT_MASK), value);
+    }
+
+    @TruffleBoundary
+    private static void putSegmentBytes(ByteBuffer[] segments, long index, byte[] src, int srcOffset, int length) {
+        int done = 0;
+        while (done < length) {
+            long pos = index + done;
+            ByteBuffer segment = segments[(int) (pos >>> MMapHandle.SEGMENT_SHIFT)].duplicate();
+            segment.position((int) (pos & MMapHandle.SEGMENT_MASK));
+            int n = Math.min(length - done, segment.remaining());
+            segment.put(src, srcOffset + done, n);
+            done += n;
+        }
+    }
+
+    /**
+     * Forces the segments that overlap the given range. Java 11 can only force a whole buffer, so
+     * this writes back at most one segment more on each side than requested.
+     */
+    @TruffleBoundary
+    private static void forceSegments(ByteBuffer[] segments, long offset, long length) {
+        if (length <= 0) {
+            return;
+        }
+        int first = (int) (offset >>> MMapHandle.SEGMENT_SHIFT);
+        int last = (int) ((offset + length - 1) >>> MMapHandle.SEGMENT_SHIFT);
+        for (int i = first; i <= last && i < segments.length; i++) {
+            if (segments[i] instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) segments[i]).force();
+            }
+        }
+    }
+
     @TruffleBoundary
     private static SeekableByteChannel newByteChannel(TruffleFile file, Set<StandardOpenOption> options) throws IOException {
         return file.newByteChannel(options);
@@ -2248,6 +2932,14 @@ public final class EmulatedPosixSupport extends PosixResources {
             throw posixException(OSErrorEnum.EACCES);
         }
         MMapHandle handle = (MMapHandle) mmap;
+        ByteBuffer[] segments = handle.segments;
+        if (segments != null) {
+            if (index < 0 || index >= handle.length) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.ENODATA);
+            }
+            return getSegmentByte(segments, index);
+        }
         ByteBuffer readingBuffer = allocateByteBuffer(1);
         int readSize = readBytes(handle, index, readingBuffer, errBranch);
         if (readSize == 0) {
@@ -2258,32 +2950,40 @@ public final class EmulatedPosixSupport extends PosixResources {
 
     @ExportMessage
     @SuppressWarnings("static-method")
-    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int length,
+    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @Shared("errorBranch") @Cached BranchProfile errBranch) throws PosixException {
         if (mmap == MMapHandle.NONE) {
             errBranch.enter();
             throw posixException(OSErrorEnum.EACCES);
         }
         MMapHandle handle = (MMapHandle) mmap;
-        int sz;
-        try {
-            sz = PythonUtils.toIntExact(length);
-        } catch (OverflowException e) {
-            errBranch.enter();
-            throw posixException(OSErrorEnum.EOVERFLOW);
-        }
-        ByteBuffer readingBuffer = allocateByteBuffer(sz);
-        int readSize = readBytes(handle, index, readingBuffer, errBranch);
-        if (readSize > 0) {
-            getByteBufferArray(readingBuffer, bytes, readSize);
+        ByteBuffer[] segments = handle.segments;
+        if (segments != null) {
+            if (index < 0 || index >= handle.length) {
+                return 0;
+            }
+            int readSize = (int) Math.min(length, handle.length - index);
+            getSegmentBytes(segments, index, bytes, bytesOffset, readSize);
+            return readSize;
         }
-        return readSize;
+        return Math.max(0, readBytes(handle, index, wrapByteBuffer(bytes, bytesOffset, length), errBranch));
     }
 
+    /**
+     * Reads from the channel of a mapping that is not backed by segments. The position of the
+     * channel is shared, so the lock of the handle serializes the accesses and also protects
+     * against a concurrent {@link #mmapUnmap}.
+     */
     private static int readBytes(MMapHandle handle, long index, ByteBuffer readingBuffer, BranchProfile errBranch) throws PosixException {
         try {
-            position(handle.channel, index + handle.offset);
-            return readChannel(handle.channel, readingBuffer);
+            synchronized (handle) {
+                if (handle.channel == null) {
+                    errBranch.enter();
+                    throw posixException(OSErrorEnum.EBADF);
+                }
+                position(handle.channel, index + handle.offset);
+                return readChannel(handle.channel, readingBuffer);
+            }
         } catch (IOException e) {
             errBranch.enter();
             throw posixException(OSErrorEnum.fromException(e));
@@ -2292,20 +2992,73 @@ public final class EmulatedPosixSupport extends PosixResources {
 
     @ExportMessage
     @SuppressWarnings("static-method")
-    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int length,
+    public void mmapWriteByte(Object mmap, long index, byte value,
                     @Shared("errorBranch") @Cached BranchProfile errBranch) throws PosixException {
         if (mmap == MMapHandle.NONE) {
             errBranch.enter();
             throw posixException(OSErrorEnum.EACCES);
         }
         MMapHandle handle = (MMapHandle) mmap;
-        try {
-            SeekableByteChannel channel = handle.channel;
-            position(channel, handle.offset + index);
-            int written = writeChannel(channel, bytes, length);
-            if (written != length) {
+        ByteBuffer[] segments = handle.segments;
+        if (segments != null) {
+            if (index < 0 || index >= handle.length) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.EIO);
+            }
+            try {
+                putSegmentByte(segments, index, value);
+            } catch (ReadOnlyBufferException e) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.EACCES);
+            }
+            return;
+        }
+        writeBytes(handle, index, wrapByteBuffer(new byte[]{value}, 0, 1), errBranch);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
+                    @Shared("errorBranch") @Cached BranchProfile errBranch) throws PosixException {
+        if (mmap == MMapHandle.NONE) {
+            errBranch.enter();
+            throw posixException(OSErrorEnum.EACCES);
+        }
+        MMapHandle handle = (MMapHandle) mmap;
+        ByteBuffer[] segments = handle.segments;
+        if (segments != null) {
+            if (index < 0 || handle.length - index < length) {
+                errBranch.enter();
                 throw posixException(OSErrorEnum.EIO);
             }
+            try {
+                putSegmentBytes(segments, index, bytes, bytesOffset, length);
+            } catch (ReadOnlyBufferException e) {
+                errBranch.enter();
+                throw posixException(OSErrorEnum.EACCES);
+            }
+            return;
+        }
+        writeBytes(handle, index, wrapByteBuffer(bytes, bytesOffset, length), errBranch);
+    }
+
+    private static void writeBytes(MMapHandle handle, long index, ByteBuffer src, BranchProfile errBranch) throws PosixException {
+        try {
+            synchronized (handle) {
+                SeekableByteChannel channel = handle.channel;
+                if (channel == null) {
+                    throw posixException(OSErrorEnum.EBADF);
+                }
+                int length = src.remaining();
+                position(channel, handle.offset + index);
+                int written = writeChannel(channel, src);
+                if (written != length) {
+                    throw posixException(OSErrorEnum.EIO);
+                }
+            }
+        } catch (PosixException e) {
+            errBranch.enter();
+            throw e;
         } catch (Exception e) {
             // Catching generic Exception to also cover NonWritableChannelException
             errBranch.enter();
@@ -2313,19 +3066,27 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @TruffleBoundary(allowInlining = true)
+    private static ByteBuffer wrapByteBuffer(byte[] bytes, int offset, int length) {
+        return ByteBuffer.wrap(bytes, offset, length);
+    }
+
     @TruffleBoundary
-    private static int writeChannel(SeekableByteChannel channel, byte[] bytes, int length) throws IOException {
-        return channel.write(ByteBuffer.wrap(bytes, 0, length));
+    private static int writeChannel(SeekableByteChannel channel, ByteBuffer src) throws IOException {
+        return channel.write(src);
     }
 
     @ExportMessage
-    @SuppressWarnings({"static-method", "unused"})
+    @SuppressWarnings("static-method")
     public void mmapFlush(Object mmap, long offset, long length) {
-        // Intentionally noop
-        // If we had access to the underlying NIO FileChannel, we could explicitly set force(true)
-        // when creating the channel. Another possibility would be exposing JDK's memory mapped
-        // files support via Truffle API, which would allow for more compatible (and completely
-        // different implementation of mmap in emulated posix)
+        if (mmap == MMapHandle.NONE) {
+            return;
+        }
+        ByteBuffer[] segments = ((MMapHandle) mmap).segments;
+        if (segments != null) {
+            forceSegments(segments, offset, length);
+        }
+        // Channels other than FileChannel write through, there is nothing to flush
     }
 
     @ExportMessage
@@ -2335,13 +3096,19 @@ public final class EmulatedPosixSupport extends PosixResources {
             return;
         }
         MMapHandle handle = (MMapHandle) mmap;
-        if (handle.channel != null) {
-            try {
-                closeChannel(handle.channel);
-            } catch (IOException e) {
-                throw posixException(OSErrorEnum.fromException(e));
+        synchronized (handle) {
+            // mapped buffers cannot be unmapped explicitly, they are released when they are
+            // collected, accesses that already read the segments can still finish safely
+            handle.segments = null;
+            if (handle.channel != null) {
+                try {
+                    closeChannel(handle.channel);
+                } catch (IOException e) {
+                    throw posixException(OSErrorEnum.fromException(e));
+                } finally {
+                    handle.channel = null;
+                }
             }
-            handle.channel = null;
         }
     }
 
@@ -2366,12 +3133,6 @@ public final class EmulatedPosixSupport extends PosixResources {
         return ByteBuffer.allocate(n);
     }
 
-    @TruffleBoundary(allowInlining = true)
-    protected static void getByteBufferArray(ByteBuffer src, byte[] dst, int readSize) {
-        src.flip();
-        src.get(dst, 0, readSize);
-    }
-
     @TruffleBoundary(allowInlining = true)
     protected static byte getByte(ByteBuffer src) {
         src.flip();
@@ -2603,6 +3364,49 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @ExportMessage
+    @TruffleBoundary
+    public int sendmsg(int sockfd, Buffer[] buffers, int flags, UniversalSockAddr destAddr) throws PosixException {
+        EmulatedSocket socket = getEmulatedSocket(sockfd);
+        SocketAddress socketAddress = null;
+        if (destAddr != null) {
+            EmulatedUniversalSockAddrImpl usa = (EmulatedUniversalSockAddrImpl) destAddr;
+            if (socket.family == AF_INET.value && usa.getFamily() == AF_INET6.value) {
+                throw posixException(OSErrorEnum.EINVAL);
+            }
+            socketAddress = usa.socketAddress;
+        }
+        ByteBuffer[] srcs = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; ++i) {
+            srcs[i] = buffers[i].getByteBuffer();
+        }
+        try {
+            return (int) socket.sendmsg(srcs, flags, socketAddress);
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public RecvmsgResult recvmsg(int sockfd, Buffer[] buffers, int flags) throws PosixException {
+        EmulatedSocket socket = getEmulatedSocket(sockfd);
+        ByteBuffer[] dsts = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; ++i) {
+            dsts[i] = ByteBuffer.wrap(buffers[i].data, 0, (int) buffers[i].length);
+        }
+        try {
+            SocketAddress sa = socket.recvmsg(dsts, flags);
+            int readBytes = 0;
+            for (ByteBuffer dst : dsts) {
+                readBytes += dst.position();
+            }
+            return new RecvmsgResult(readBytes, 0, EmulatedUniversalSockAddrImpl.fromSocketAddress(socket.family, sa));
+        } catch (Exception e) {
+            throw posixException(e);
+        }
+    }
+
     @ExportMessage
     @TruffleBoundary
     public void shutdown(int sockfd, int how) throws PosixException {
@@ -3185,6 +3989,10 @@ public final class EmulatedPosixSupport extends PosixResources {
 
         abstract int sendto(ByteBuffer bb, int flags, SocketAddress destAddr) throws IOException;
 
+        abstract long sendmsg(ByteBuffer[] srcs, int flags, SocketAddress destAddr) throws IOException;
+
+        abstract SocketAddress recvmsg(ByteBuffer[] dsts, int flags) throws IOException;
+
         abstract void shutdown(int how) throws IOException;
 
         abstract void configureBlocking(boolean block) throws IOException;
@@ -3307,6 +4115,52 @@ public final class EmulatedPosixSupport extends PosixResources {
             return channel.send(bb, destAddr);
         }
 
+        @Override
+        long sendmsg(ByteBuffer[] srcs, int flags, SocketAddress destAddr) throws IOException {
+            neverPartOfCompilation();
+            // TODO: do not ignore flags
+            if (destAddr == null) {
+                // a gathering write sends a single datagram
+                return channel.write(srcs);
+            }
+            // there is no gathering variant of send()
+            int total = 0;
+            for (ByteBuffer src : srcs) {
+                total += src.remaining();
+            }
+            ByteBuffer bb = ByteBuffer.allocate(total);
+            for (ByteBuffer src : srcs) {
+                bb.put(src);
+            }
+            bb.flip();
+            return channel.send(bb, destAddr);
+        }
+
+        @Override
+        SocketAddress recvmsg(ByteBuffer[] dsts, int flags) throws IOException {
+            neverPartOfCompilation();
+            // TODO: do not ignore flags
+            // there is no scattering variant of receive()
+            int total = 0;
+            for (ByteBuffer dst : dsts) {
+                total += dst.remaining();
+            }
+            ByteBuffer bb = ByteBuffer.allocate(total);
+            SocketAddress addr = channel.receive(bb);
+            if (addr == null) {
+                throw new OperationWouldBlockException();
+            }
+            bb.flip();
+            for (ByteBuffer dst : dsts) {
+                int len = Math.min(dst.remaining(), bb.remaining());
+                ByteBuffer chunk = bb.duplicate();
+                chunk.limit(chunk.position() + len);
+                dst.put(chunk);
+                bb.position(bb.position() + len);
+            }
+            return addr;
+        }
+
         @Override
         void shutdown(int how) throws IOException {
             // TODO what does native SOCK_DGRAM shutdown do?
@@ -3574,6 +4428,39 @@ public final class EmulatedPosixSupport extends PosixResources {
             throw new AlreadyConnectedException();
         }
 
+        @Override
+        long sendmsg(ByteBuffer[] srcs, int flags, SocketAddress destAddr) throws IOException {
+            neverPartOfCompilation();
+            // TODO: do not ignore flags
+            if (destAddr != null) {
+                throw new AlreadyConnectedException();
+            }
+            long cnt = getClientChannel().write(srcs);
+            if (cnt == 0 && hasRemaining(srcs)) {
+                throw new OperationWouldBlockException();
+            }
+            return cnt;
+        }
+
+        @Override
+        SocketAddress recvmsg(ByteBuffer[] dsts, int flags) throws IOException {
+            neverPartOfCompilation();
+            long cnt = getClientChannel().read(dsts);
+            if (cnt == 0 && hasRemaining(dsts)) {
+                throw new OperationWouldBlockException();
+            }
+            return null;
+        }
+
+        private static boolean hasRemaining(ByteBuffer[] buffers) {
+            for (ByteBuffer bb : buffers) {
+                if (bb.hasRemaining()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         @Override
         void shutdown(int how) throws IOException {
             neverPartOfCompilation();
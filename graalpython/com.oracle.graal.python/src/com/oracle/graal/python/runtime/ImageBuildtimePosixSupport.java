@@ -53,9 +53,11 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.FamilySpecificSockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.GetAddrInfoException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressException;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PollResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -203,6 +205,48 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.write(nativePosixSupport, fd, data);
     }
 
+    @ExportMessage
+    final Buffer pread(int fd, long length, long offset,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.pread(nativePosixSupport, fd, length, offset);
+    }
+
+    @ExportMessage
+    final long pwrite(int fd, Buffer data, long offset,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.pwrite(nativePosixSupport, fd, data, offset);
+    }
+
+    @ExportMessage
+    final long readv(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.readv(nativePosixSupport, fd, buffers);
+    }
+
+    @ExportMessage
+    final long writev(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.writev(nativePosixSupport, fd, buffers);
+    }
+
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.sendfile(nativePosixSupport, outFd, inFd, offset, count);
+    }
+
+    @ExportMessage
+    final long copyFileRange(int inFd, long inOffset, int outFd, long outOffset, long count,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.copyFileRange(nativePosixSupport, inFd, inOffset, outFd, outOffset, count);
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -247,6 +291,48 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.select(nativePosixSupport, readfds, writefds, errorfds, timeout);
     }
 
+    @ExportMessage
+    final Object pollerCreate(
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.pollerCreate(nativePosixSupport);
+    }
+
+    @ExportMessage
+    final Object pollerFromFd(int fd,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.pollerFromFd(nativePosixSupport, fd);
+    }
+
+    @ExportMessage
+    final int pollerGetFd(Object poller,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.pollerGetFd(nativePosixSupport, poller);
+    }
+
+    @ExportMessage
+    final void pollerControl(Object poller, int op, int fd, int events,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        nativeLib.pollerControl(nativePosixSupport, poller, op, fd, events);
+    }
+
+    @ExportMessage
+    final PollResult pollerWait(Object poller, int maxEvents, long timeoutMs,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.pollerWait(nativePosixSupport, poller, maxEvents, timeoutMs);
+    }
+
+    @ExportMessage
+    final void pollerClose(Object poller,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        nativeLib.pollerClose(nativePosixSupport, poller);
+    }
+
     @ExportMessage
     final long lseek(int fd, long offset, int how,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -660,17 +746,24 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
     }
 
     @ExportMessage
-    final int mmapReadBytes(Object mmap, long index, byte[] bytes, int length,
+    final int mmapReadBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
         checkNotInImageBuildtime();
-        return nativeLib.mmapReadBytes(nativePosixSupport, mmap, index, bytes, length);
+        return nativeLib.mmapReadBytes(nativePosixSupport, mmap, index, bytes, bytesOffset, length);
     }
 
     @ExportMessage
-    final void mmapWriteBytes(Object mmap, long index, byte[] bytes, int length,
+    final void mmapWriteByte(Object mmap, long index, byte value,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
         checkNotInImageBuildtime();
-        nativeLib.mmapWriteBytes(nativePosixSupport, mmap, index, bytes, length);
+        nativeLib.mmapWriteByte(nativePosixSupport, mmap, index, value);
+    }
+
+    @ExportMessage
+    final void mmapWriteBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        nativeLib.mmapWriteBytes(nativePosixSupport, mmap, index, bytes, bytesOffset, length);
     }
 
     @ExportMessage
@@ -797,6 +890,20 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.recvfrom(nativePosixSupport, sockfd, buf, offset, len, flags);
     }
 
+    @ExportMessage
+    final int sendmsg(int sockfd, Buffer[] buffers, int flags, UniversalSockAddr destAddr,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.sendmsg(nativePosixSupport, sockfd, buffers, flags, destAddr);
+    }
+
+    @ExportMessage
+    final RecvmsgResult recvmsg(int sockfd, Buffer[] buffers, int flags,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.recvmsg(nativePosixSupport, sockfd, buffers, flags);
+    }
+
     @ExportMessage
     final void shutdown(int sockfd, int how,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
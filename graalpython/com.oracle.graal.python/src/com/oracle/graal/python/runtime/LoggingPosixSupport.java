@@ -52,9 +52,11 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.FamilySpecificSockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.GetAddrInfoException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressException;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PollResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -190,6 +192,74 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final Buffer pread(int fd, long length, long offset,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pread", "%d, %d, %d", fd, length, offset);
+        try {
+            Buffer retVal = lib.pread(delegate, fd, length, offset);
+            logExit("pread", "%d", retVal.length);
+            return retVal;
+        } catch (PosixException e) {
+            throw logException("pread", e);
+        }
+    }
+
+    @ExportMessage
+    final long pwrite(int fd, Buffer data, long offset,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pwrite", "%d, %d, %d", fd, data.length, offset);
+        try {
+            return logExit("pwrite", "%d", lib.pwrite(delegate, fd, data, offset));
+        } catch (PosixException e) {
+            throw logException("pwrite", e);
+        }
+    }
+
+    @ExportMessage
+    final long readv(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("readv", "%d, %d", fd, buffers.length);
+        try {
+            return logExit("readv", "%d", lib.readv(delegate, fd, buffers));
+        } catch (PosixException e) {
+            throw logException("readv", e);
+        }
+    }
+
+    @ExportMessage
+    final long writev(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("writev", "%d, %d", fd, buffers.length);
+        try {
+            return logExit("writev", "%d", lib.writev(delegate, fd, buffers));
+        } catch (PosixException e) {
+            throw logException("writev", e);
+        }
+    }
+
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendfile", "%d, %d, %d, %d", outFd, inFd, offset, count);
+        try {
+            return logExit("sendfile", "%d", lib.sendfile(delegate, outFd, inFd, offset, count));
+        } catch (PosixException e) {
+            throw logException("sendfile", e);
+        }
+    }
+
+    @ExportMessage
+    final long copyFileRange(int inFd, long inOffset, int outFd, long outOffset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("copyFileRange", "%d, %d, %d, %d, %d", inFd, inOffset, outFd, outOffset, count);
+        try {
+            return logExit("copyFileRange", "%d", lib.copyFileRange(delegate, inFd, inOffset, outFd, outOffset, count));
+        } catch (PosixException e) {
+            throw logException("copyFileRange", e);
+        }
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -257,6 +327,72 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final Object pollerCreate(
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollerCreate", "");
+        try {
+            return logExit("pollerCreate", "%s", lib.pollerCreate(delegate));
+        } catch (PosixException e) {
+            throw logException("pollerCreate", e);
+        }
+    }
+
+    @ExportMessage
+    final Object pollerFromFd(int fd,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollerFromFd", "%d", fd);
+        try {
+            return logExit("pollerFromFd", "%s", lib.pollerFromFd(delegate, fd));
+        } catch (PosixException e) {
+            throw logException("pollerFromFd", e);
+        }
+    }
+
+    @ExportMessage
+    final int pollerGetFd(Object poller,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollerGetFd", "%s", poller);
+        try {
+            return logExit("pollerGetFd", "%d", lib.pollerGetFd(delegate, poller));
+        } catch (PosixException e) {
+            throw logException("pollerGetFd", e);
+        }
+    }
+
+    @ExportMessage
+    final void pollerControl(Object poller, int op, int fd, int events,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollerControl", "%s, %d, %d, %d", poller, op, fd, events);
+        try {
+            lib.pollerControl(delegate, poller, op, fd, events);
+        } catch (PosixException e) {
+            throw logException("pollerControl", e);
+        }
+    }
+
+    @ExportMessage
+    final PollResult pollerWait(Object poller, int maxEvents, long timeoutMs,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollerWait", "%s, %d, %d", poller, maxEvents, timeoutMs);
+        try {
+            return logExit("pollerWait", "%s", lib.pollerWait(delegate, poller, maxEvents, timeoutMs));
+        } catch (PosixException e) {
+            throw logException("pollerWait", e);
+        }
+    }
+
+    @ExportMessage
+    final void pollerClose(Object poller,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollerClose", "%s", poller);
+        try {
+            lib.pollerClose(delegate, poller);
+        } catch (PosixException e) {
+            throw logException("pollerClose", e);
+        }
+    }
+
     @ExportMessage
     final long lseek(int fd, long offset, int how,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -769,11 +905,11 @@ public class LoggingPosixSupport extends PosixSupport {
     }
 
     @ExportMessage
-    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int length,
+    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
         logEnter("mmapReadBytes", "%s, %d, %d", mmap, index, length);
         try {
-            return logExit("mmapReadBytes", "%s", lib.mmapReadBytes(delegate, mmap, index, bytes, length));
+            return logExit("mmapReadBytes", "%s", lib.mmapReadBytes(delegate, mmap, index, bytes, bytesOffset, length));
         } catch (PosixException e) {
             throw logException("mmapReadBytes", e);
         }
@@ -801,11 +937,22 @@ public class LoggingPosixSupport extends PosixSupport {
     }
 
     @ExportMessage
-    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int length,
+    public void mmapWriteByte(Object mmap, long index, byte value,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("mmapWriteByte", "%s, %d, %d", mmap, index, value);
+        try {
+            lib.mmapWriteByte(delegate, mmap, index, value);
+        } catch (PosixException e) {
+            throw logException("mmapWriteByte", e);
+        }
+    }
+
+    @ExportMessage
+    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
         logEnter("mmapWriteBytes", "%s, %d, %d", mmap, index, length);
         try {
-            lib.mmapWriteBytes(delegate, mmap, index, bytes, length);
+            lib.mmapWriteBytes(delegate, mmap, index, bytes, bytesOffset, length);
         } catch (PosixException e) {
             throw logException("mmapWriteBytes", e);
         }
@@ -1032,6 +1179,28 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final int sendmsg(int sockfd, Buffer[] buffers, int flags, UniversalSockAddr destAddr,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendmsg", "%d, %d, %d, %s", sockfd, buffers.length, flags, destAddr);
+        try {
+            return logExit("sendmsg", "%d", lib.sendmsg(delegate, sockfd, buffers, flags, destAddr));
+        } catch (PosixException e) {
+            throw logException("sendmsg", e);
+        }
+    }
+
+    @ExportMessage
+    final RecvmsgResult recvmsg(int sockfd, Buffer[] buffers, int flags,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("recvmsg", "%d, %d, %d", sockfd, buffers.length, flags);
+        try {
+            return logExit("recvmsg", "%s", lib.recvmsg(delegate, sockfd, buffers, flags));
+        } catch (PosixException e) {
+            throw logException("recvmsg", e);
+        }
+    }
+
     @ExportMessage
     final void shutdown(int sockfd, int how,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -57,13 +57,22 @@ import static com.oracle.graal.python.runtime.PosixConstants.SIZEOF_STRUCT_SOCKA
 import static com.oracle.graal.python.runtime.PosixConstants.SIZEOF_STRUCT_SOCKADDR_IN6;
 import static com.oracle.graal.python.runtime.PosixConstants.SIZEOF_STRUCT_SOCKADDR_STORAGE;
 import static com.oracle.graal.python.runtime.PosixConstants._POSIX_HOST_NAME_MAX;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.EPOLLET;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.EPOLLEXCLUSIVE;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.EPOLLONESHOT;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_ADD;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_DELETE;
+import static com.oracle.graal.python.runtime.PosixSupportLibrary.POLLER_MODIFY;
 import static com.oracle.truffle.api.CompilerDirectives.SLOWPATH_PROBABILITY;
 import static com.oracle.truffle.api.CompilerDirectives.injectBranchProbability;
 import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 
@@ -81,9 +90,11 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.GetAddrInfoException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Inet4SockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Inet6SockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.InvalidAddressException;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PollResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PwdResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvfromResult;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.RecvmsgResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
@@ -148,10 +159,20 @@ public final class NFIPosixSupport extends PosixSupport {
         call_close("(sint32):sint32"),
         call_read("(sint32, [sint8], uint64):sint64"),
         call_write("(sint32, [sint8], uint64):sint64"),
+        call_pread("(sint32, [sint8], uint64, sint64):sint64"),
+        call_pwrite("(sint32, [sint8], uint64, sint64):sint64"),
+        call_readv("(sint32, [sint8], [sint64], sint32):sint64"),
+        call_writev("(sint32, [sint8], [sint64], sint32):sint64"),
+        call_sendfile("(sint32, sint32, sint64, uint64):sint64"),
+        call_copy_file_range("(sint32, sint64, sint32, sint64, uint64):sint64"),
         call_dup("(sint32):sint32"),
         call_dup2("(sint32, sint32, sint32):sint32"),
         call_pipe2("([sint32]):sint32"),
         call_select("(sint32, [sint32], sint32, [sint32], sint32, [sint32], sint32, sint64, sint64, [sint8]):sint32"),
+        call_poll("([sint32], [sint32], [sint32], sint32, sint64):sint32"),
+        call_poller_create("():sint32"),
+        call_poller_control("(sint32, sint32, sint32, sint32):sint32"),
+        call_poller_wait("(sint32, [sint32], [sint32], sint32, sint64):sint32"),
         call_lseek("(sint32, sint64, sint32):sint64"),
         call_ftruncate("(sint32, sint64):sint32"),
         call_fsync("(sint32):sint32"),
@@ -225,6 +246,8 @@ public final class NFIPosixSupport extends PosixSupport {
         call_sendto("(sint32, [sint8], sint32, sint32, sint32, [sint8], sint32):sint32"),
         call_recv("(sint32, [sint8], sint32, sint32, sint32):sint32"),
         call_recvfrom("(sint32, [sint8], sint32, sint32, sint32, [sint8], [sint32]):sint32"),
+        call_sendmsg("(sint32, [sint8], [sint64], sint32, sint32, [sint8], sint32):sint64"),
+        call_recvmsg("(sint32, [sint8], [sint64], sint32, sint32, [sint8], [sint32], [sint32]):sint64"),
         call_shutdown("(sint32, sint32): sint32"),
         call_getsockopt("(sint32, sint32, sint32, [sint8], [sint32]):sint32"),
         call_setsockopt("(sint32, sint32, sint32, [sint8], sint32):sint32"),
@@ -494,6 +517,120 @@ public final class NFIPosixSupport extends PosixSupport {
         return n;
     }
 
+    @ExportMessage
+    public Buffer pread(int fd, long length, long offset,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long count = Math.min(length, MAX_READ);
+        Buffer buffer = Buffer.allocate(count);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_pread, fd, wrap(buffer), count, offset);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return buffer.withLength(n);
+    }
+
+    @ExportMessage
+    public long pwrite(int fd, Buffer data, long offset,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_pwrite, fd, wrap(data), data.length, offset);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long readv(int fd, Buffer[] buffers,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long[] lengths = new long[buffers.length];
+        byte[] data = allocateForScatter(buffers, lengths, invokeNode);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_readv, fd, wrap(data), wrap(lengths), buffers.length);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        scatter(data, buffers, n);
+        return n;
+    }
+
+    @ExportMessage
+    public long writev(int fd, Buffer[] buffers,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long[] lengths = new long[buffers.length];
+        byte[] data = gather(buffers, lengths, invokeNode);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_writev, fd, wrap(data), wrap(lengths), buffers.length);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    // The native functions that take a list of buffers get a single array and the lengths of the
+    // individual buffers, which they turn into an array of iovec structures. A single buffer is
+    // passed as it is.
+
+    private byte[] allocateForScatter(Buffer[] buffers, long[] lengths, InvokeNativeFunction invokeNode) throws PosixException {
+        int total = totalLength(buffers, lengths, invokeNode);
+        return buffers.length == 1 ? buffers[0].data : new byte[total];
+    }
+
+    private static void scatter(byte[] data, Buffer[] buffers, long n) {
+        if (buffers.length == 1) {
+            return;
+        }
+        int offset = 0;
+        for (int i = 0; i < buffers.length && offset < n; ++i) {
+            int len = (int) Math.min(buffers[i].length, n - offset);
+            PythonUtils.arraycopy(data, offset, buffers[i].data, 0, len);
+            offset += len;
+        }
+    }
+
+    private byte[] gather(Buffer[] buffers, long[] lengths, InvokeNativeFunction invokeNode) throws PosixException {
+        int total = totalLength(buffers, lengths, invokeNode);
+        if (buffers.length == 1) {
+            return buffers[0].data;
+        }
+        byte[] data = new byte[total];
+        int offset = 0;
+        for (Buffer buffer : buffers) {
+            PythonUtils.arraycopy(buffer.data, 0, data, offset, (int) buffer.length);
+            offset += buffer.length;
+        }
+        return data;
+    }
+
+    private int totalLength(Buffer[] buffers, long[] lengths, InvokeNativeFunction invokeNode) throws PosixException {
+        long total = 0;
+        for (int i = 0; i < buffers.length; ++i) {
+            lengths[i] = buffers[i].length;
+            total += lengths[i];
+            if (total > MAX_READ) {
+                throw newPosixException(invokeNode, OSErrorEnum.EINVAL.getNumber());
+            }
+        }
+        return (int) total;
+    }
+
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_sendfile, outFd, inFd, offset, count);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long copyFileRange(int inFd, long inOffset, int outFd, long outOffset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_copy_file_range, inFd, inOffset, outFd, outOffset, count);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
     @ExportMessage
     public int dup(int fd,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
@@ -572,6 +709,303 @@ public final class NFIPosixSupport extends PosixSupport {
 
     }
 
+    /**
+     * Registrations of a poller. On Linux, the file descriptors are registered in an {@code epoll}
+     * instance, so waiting does not depend on how many of them there are. Elsewhere, and for file
+     * descriptors that {@code epoll} refuses (regular files, invalid descriptors), the
+     * registrations are passed to {@code poll(2)} on each wait, which keeps the semantics of
+     * {@code select.poll} for them.
+     */
+    private static final class NFIPoller {
+        private static final int ADOPTED_MAX_EVENTS = 1023;
+
+        /**
+         * The {@code epoll} file descriptor, or {@code -1} if {@code poll(2)} is used for all
+         * registrations.
+         */
+        final int epollFd;
+        /**
+         * Whether the {@code epoll} instance was created elsewhere and passed to
+         * {@code select.epoll.fromfd}, so that it may contain registrations unknown to us.
+         */
+        private final boolean adopted;
+        private final HashMap<Integer, Integer> registered = new HashMap<>();
+        private final LinkedHashMap<Integer, Integer> polled = new LinkedHashMap<>();
+        private int[][] polledArrays;
+        private boolean closed;
+
+        NFIPoller(int epollFd, boolean adopted) {
+            this.epollFd = epollFd;
+            this.adopted = adopted;
+        }
+
+        /**
+         * Updates the registrations on the Java side. Returns {@code 0} on success, the errno
+         * value describing the failure, or {@code -1} if the operation must also be applied to the
+         * {@code epoll} instance.
+         */
+        @TruffleBoundary
+        synchronized int control(int op, int fd, int eventMask) {
+            if (closed) {
+                return OSErrorEnum.EBADF.getNumber();
+            }
+            if (op == POLLER_ADD) {
+                if (registered.containsKey(fd)) {
+                    return OSErrorEnum.EEXIST.getNumber();
+                }
+                registered.put(fd, eventMask);
+                if (epollFd >= 0) {
+                    return -1;
+                }
+                setPolled(fd, eventMask);
+                return 0;
+            }
+            if (!registered.containsKey(fd)) {
+                if (adopted) {
+                    // let the epoll instance decide whether the file descriptor is registered
+                    if (op == POLLER_MODIFY) {
+                        registered.put(fd, eventMask);
+                    }
+                    return -1;
+                }
+                return OSErrorEnum.ENOENT.getNumber();
+            }
+            if (op == POLLER_MODIFY) {
+                registered.put(fd, eventMask);
+            } else {
+                assert op == POLLER_DELETE;
+                registered.remove(fd);
+            }
+            if (polled.containsKey(fd)) {
+                if (op == POLLER_MODIFY) {
+                    polled.put(fd, eventMask);
+                } else {
+                    polled.remove(fd);
+                }
+                polledArrays = null;
+                return 0;
+            }
+            return -1;
+        }
+
+        /**
+         * Moves a registration that {@code epoll} refused to the ones passed to {@code poll(2)}.
+         */
+        @TruffleBoundary
+        synchronized void setPolled(int fd, int eventMask) {
+            if (registered.containsKey(fd)) {
+                polled.put(fd, eventMask);
+                polledArrays = null;
+            }
+        }
+
+        /**
+         * Undoes the registration of a file descriptor after the {@code epoll} instance rejected
+         * it.
+         */
+        @TruffleBoundary
+        synchronized void forget(int fd) {
+            registered.remove(fd);
+        }
+
+        /**
+         * Returns the file descriptors passed to {@code poll(2)} followed by their events, or
+         * {@code null} if the poller is closed. The arrays are cached until the registrations
+         * change and must not be modified.
+         */
+        @TruffleBoundary
+        synchronized int[][] polled() {
+            if (closed) {
+                return null;
+            }
+            if (polledArrays == null) {
+                int[] fds = new int[polled.size()];
+                int[] events = new int[fds.length];
+                int i = 0;
+                for (Map.Entry<Integer, Integer> entry : polled.entrySet()) {
+                    fds[i] = entry.getKey();
+                    events[i] = entry.getValue();
+                    i++;
+                }
+                polledArrays = new int[][]{fds, events};
+            }
+            return polledArrays;
+        }
+
+        /**
+         * Returns how many events a single {@code epoll_wait} should be able to report.
+         */
+        @TruffleBoundary
+        synchronized int size() {
+            return adopted ? Math.max(registered.size(), ADOPTED_MAX_EVENTS) : registered.size();
+        }
+
+        /**
+         * Returns {@code true} if the poller was open, i.e., if the {@code epoll} file descriptor
+         * (if any) needs to be closed.
+         */
+        @TruffleBoundary
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            registered.clear();
+            polled.clear();
+            polledArrays = null;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            CompilerAsserts.neverPartOfCompilation();
+            return String.format("NFIPoller[epollFd = %d, fds = %s]", epollFd, registered.keySet());
+        }
+    }
+
+    @ExportMessage
+    public Object pollerCreate(
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int epollFd = invokeNode.callInt(this, PosixNativeFunction.call_poller_create);
+        if (epollFd < 0) {
+            int errno = getErrno(invokeNode);
+            if (errno != OSErrorEnum.ENOSYS.getNumber()) {
+                throw newPosixException(invokeNode, errno);
+            }
+        }
+        return new NFIPoller(epollFd, false);
+    }
+
+    @ExportMessage
+    public Object pollerFromFd(int fd,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        if (getPythonOS() != PythonOS.PLATFORM_LINUX) {
+            throw newPosixException(invokeNode, OSErrorEnum.ENOSYS.getNumber());
+        }
+        return new NFIPoller(fd, true);
+    }
+
+    @ExportMessage
+    public int pollerGetFd(Object poller,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        NFIPoller p = (NFIPoller) poller;
+        int[][] polled = p.polled();
+        if (polled == null) {
+            throw newPosixException(invokeNode, OSErrorEnum.EBADF.getNumber());
+        }
+        if (p.epollFd < 0) {
+            throw newPosixException(invokeNode, OSErrorEnum.ENOSYS.getNumber());
+        }
+        return p.epollFd;
+    }
+
+    @ExportMessage
+    public void pollerControl(Object poller, int op, int fd, int events,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        NFIPoller p = (NFIPoller) poller;
+        int errno = p.control(op, fd, events);
+        if (errno == 0) {
+            return;
+        } else if (errno > 0) {
+            throw newPosixException(invokeNode, errno);
+        }
+        int nativeOp = op;
+        if (invokeNode.callInt(this, PosixNativeFunction.call_poller_control, p.epollFd, nativeOp, fd, events) == 0) {
+            return;
+        }
+        errno = getErrno(invokeNode);
+        if (op == POLLER_MODIFY && (errno == OSErrorEnum.ENOENT.getNumber() || errno == OSErrorEnum.EBADF.getNumber())) {
+            // the file descriptor was closed, which removed it from the epoll instance, and it may
+            // have been reused since then
+            nativeOp = POLLER_ADD;
+            if (invokeNode.callInt(this, PosixNativeFunction.call_poller_control, p.epollFd, nativeOp, fd, events) == 0) {
+                return;
+            }
+            errno = getErrno(invokeNode);
+        }
+        if (nativeOp == POLLER_ADD) {
+            // poll(2) cannot emulate the epoll specific flags, so such registrations fail like
+            // they do with epoll
+            if ((errno == OSErrorEnum.EPERM.getNumber() || errno == OSErrorEnum.EBADF.getNumber()) && (events & (EPOLLET | EPOLLONESHOT | EPOLLEXCLUSIVE)) == 0) {
+                p.setPolled(fd, events);
+                return;
+            }
+            if (op == POLLER_ADD) {
+                p.forget(fd);
+            }
+        } else if (op == POLLER_DELETE && (errno == OSErrorEnum.ENOENT.getNumber() || errno == OSErrorEnum.EBADF.getNumber())) {
+            // closing the file descriptor already removed it from the epoll instance
+            return;
+        }
+        throw newPosixException(invokeNode, errno);
+    }
+
+    @ExportMessage
+    public PollResult pollerWait(Object poller, int maxEvents, long timeoutMs,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        NFIPoller p = (NFIPoller) poller;
+        int[][] polled = p.polled();
+        if (polled == null) {
+            throw newPosixException(invokeNode, OSErrorEnum.EBADF.getNumber());
+        }
+        int[] fds = polled[0];
+        int[] revents = new int[fds.length];
+        int ready = 0;
+        if (p.epollFd < 0 || fds.length > 0) {
+            // with epoll, only the file descriptors it refused are polled, they are either always
+            // ready or never, so there is no need to block in poll(2)
+            ready = invokeNode.callInt(this, PosixNativeFunction.call_poll, wrap(fds), wrap(polled[1]), wrap(revents), fds.length, p.epollFd < 0 ? timeoutMs : 0);
+            if (ready < 0) {
+                throw getErrnoAndThrowPosixException(invokeNode);
+            }
+        }
+        int n = Math.min(ready, maxEvents);
+        int[] epollFds = null;
+        int[] epollEvents = null;
+        if (p.epollFd >= 0 && n < maxEvents) {
+            int max = Math.max(1, Math.min(maxEvents - n, p.size()));
+            epollFds = new int[max];
+            epollEvents = new int[max];
+            int result = invokeNode.callInt(this, PosixNativeFunction.call_poller_wait, p.epollFd, wrap(epollFds), wrap(epollEvents), max, n > 0 ? 0 : timeoutMs);
+            if (result < 0) {
+                throw getErrnoAndThrowPosixException(invokeNode);
+            }
+            if (result < max) {
+                epollFds = Arrays.copyOf(epollFds, result);
+                epollEvents = Arrays.copyOf(epollEvents, result);
+            }
+            if (n == 0) {
+                return new PollResult(epollFds, epollEvents);
+            }
+        }
+        int total = n + (epollFds == null ? 0 : epollFds.length);
+        int[] resFds = new int[total];
+        int[] resEvents = new int[total];
+        for (int i = 0, j = 0; i < fds.length && j < n; i++) {
+            if (revents[i] != 0) {
+                resFds[j] = fds[i];
+                resEvents[j] = revents[i];
+                j++;
+            }
+        }
+        if (epollFds != null) {
+            PythonUtils.arraycopy(epollFds, 0, resFds, n, epollFds.length);
+            PythonUtils.arraycopy(epollEvents, 0, resEvents, n, epollEvents.length);
+        }
+        return new PollResult(resFds, resEvents);
+    }
+
+    @ExportMessage
+    public void pollerClose(Object poller,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        NFIPoller p = (NFIPoller) poller;
+        if (p.close() && p.epollFd >= 0) {
+            if (invokeNode.callInt(this, PosixNativeFunction.call_close, p.epollFd) < 0) {
+                throw getErrnoAndThrowPosixException(invokeNode);
+            }
+        }
+    }
+
     private static boolean[] selectFillInResult(int[] fds, byte[] selected, int selectedOffset) {
         boolean[] res = new boolean[fds.length];
         for (int i = 0; i < fds.length; i++) {
@@ -1310,19 +1744,39 @@ public final class NFIPosixSupport extends PosixSupport {
 
     @ExportMessage
     @SuppressWarnings("static-method")
-    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int length) {
+    public int mmapReadBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length) {
         MMapHandle handle = (MMapHandle) mmap;
         checkIndexAndLen(handle, index, length);
-        UNSAFE.copyMemory(null, handle.pointer + index, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, length);
+        checkArrayRange(bytes, bytesOffset, length);
+        UNSAFE.copyMemory(null, handle.pointer + index, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + bytesOffset, length);
         return length;
     }
 
     @ExportMessage
     @SuppressWarnings("static-method")
-    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int length) {
+    public void mmapWriteByte(Object mmap, long index, byte value) {
+        MMapHandle handle = (MMapHandle) mmap;
+        if (index < 0 || index >= handle.length) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw new IndexOutOfBoundsException();
+        }
+        UNSAFE.putByte(handle.pointer + index, value);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void mmapWriteBytes(Object mmap, long index, byte[] bytes, int bytesOffset, int length) {
         MMapHandle handle = (MMapHandle) mmap;
         checkIndexAndLen(handle, index, length);
-        UNSAFE.copyMemory(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, handle.pointer + index, length);
+        checkArrayRange(bytes, bytesOffset, length);
+        UNSAFE.copyMemory(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + bytesOffset, null, handle.pointer + index, length);
+    }
+
+    private static void checkArrayRange(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || bytes.length - offset < length) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw new IndexOutOfBoundsException();
+        }
     }
 
     @ExportMessage
@@ -1487,6 +1941,45 @@ public final class NFIPosixSupport extends PosixSupport {
         return new RecvfromResult(result, srcAddr);
     }
 
+    @ExportMessage
+    public int sendmsg(int sockfd, Buffer[] buffers, int flags, UniversalSockAddr usa,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long[] lengths = new long[buffers.length];
+        byte[] data = gather(buffers, lengths, invokeNode);
+        Object addr;
+        int addrLen;
+        if (usa == null) {
+            addr = wrap(PythonUtils.EMPTY_BYTE_ARRAY);
+            addrLen = 0;
+        } else {
+            UniversalSockAddrImpl destAddr = (UniversalSockAddrImpl) usa;
+            addr = wrap(destAddr.data);
+            addrLen = destAddr.getLen();
+        }
+        long result = invokeNode.callLong(this, PosixNativeFunction.call_sendmsg, sockfd, wrap(data), wrap(lengths), buffers.length, flags, addr, addrLen);
+        if (result == -1) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return (int) result;
+    }
+
+    @ExportMessage
+    public RecvmsgResult recvmsg(int sockfd, Buffer[] buffers, int flags,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long[] lengths = new long[buffers.length];
+        byte[] data = allocateForScatter(buffers, lengths, invokeNode);
+        UniversalSockAddrImpl srcAddr = new UniversalSockAddrImpl(this);
+        int[] msgFlags = new int[1];
+        long result = invokeNode.callLong(this, PosixNativeFunction.call_recvmsg, sockfd, wrap(data), wrap(lengths), buffers.length, flags, wrap(srcAddr.data),
+                        wrap(srcAddr.lenAndFamily), wrap(msgFlags));
+        if (result == -1) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        scatter(data, buffers, result);
+        assert srcAddr.getLen() <= UniversalSockAddrImpl.MAX_SIZE;
+        return new RecvmsgResult((int) result, msgFlags[0], srcAddr);
+    }
+
     @ExportMessage
     public void shutdown(int sockfd, int how,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
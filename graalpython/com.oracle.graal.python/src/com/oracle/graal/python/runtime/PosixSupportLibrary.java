@@ -77,6 +77,25 @@ public abstract class PosixSupportLibrary extends Library {
     public static final int ST_MODE = 0;
     public static final int ST_SIZE = 6;
 
+    // Operations and event flags of the poller API. The flags have the same values as the
+    // corresponding poll(2) and epoll(7) flags on Linux and macOS.
+    public static final int POLLER_ADD = 1;
+    public static final int POLLER_MODIFY = 2;
+    public static final int POLLER_DELETE = 3;
+
+    public static final int POLLIN = 0x001;
+    public static final int POLLPRI = 0x002;
+    public static final int POLLOUT = 0x004;
+    public static final int POLLERR = 0x008;
+    public static final int POLLHUP = 0x010;
+    public static final int POLLNVAL = 0x020;
+
+    // epoll(7) specific event flags, only supported by pollers that have a file descriptor
+    public static final int EPOLLRDHUP = 0x2000;
+    public static final int EPOLLEXCLUSIVE = 1 << 28;
+    public static final int EPOLLONESHOT = 1 << 30;
+    public static final int EPOLLET = 1 << 31;
+
     public abstract String getBackend(Object recevier);
 
     public abstract String strerror(Object receiver, int errorCode);
@@ -93,6 +112,44 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract long write(Object receiver, int fd, Buffer data) throws PosixException;
 
+    /**
+     * Like {@link #read} but reads from the given file offset and leaves the file position
+     * unchanged.
+     */
+    public abstract Buffer pread(Object receiver, int fd, long length, long offset) throws PosixException;
+
+    /**
+     * Like {@link #write} but writes at the given file offset and leaves the file position
+     * unchanged.
+     */
+    public abstract long pwrite(Object receiver, int fd, Buffer data, long offset) throws PosixException;
+
+    /**
+     * Reads into the buffers in order, filling the first {@code length} bytes of each of them
+     * before moving on to the next one. Returns the total number of bytes read. The lengths of the
+     * buffers are not modified.
+     */
+    public abstract long readv(Object receiver, int fd, Buffer[] buffers) throws PosixException;
+
+    /**
+     * Writes the contents of the buffers in order and returns the total number of bytes written.
+     */
+    public abstract long writev(Object receiver, int fd, Buffer[] buffers) throws PosixException;
+
+    /**
+     * Copies at most {@code count} bytes from {@code inFd} to {@code outFd} without passing them
+     * through the caller. A negative {@code offset} means to read from the current position of
+     * {@code inFd} and to advance it, otherwise the data is read from {@code offset} and the
+     * position of {@code inFd} is left unchanged.
+     */
+    public abstract long sendfile(Object receiver, int outFd, int inFd, long offset, long count) throws PosixException;
+
+    /**
+     * Copies at most {@code count} bytes between two files. The offsets follow the same convention
+     * as the one in {@link #sendfile}, independently for both file descriptors.
+     */
+    public abstract long copyFileRange(Object receiver, int inFd, long inOffset, int outFd, long outOffset, long count) throws PosixException;
+
     public abstract int dup(Object receiver, int fd) throws PosixException;
 
     public abstract int dup2(Object receiver, int fd, int fd2, boolean inheritable) throws PosixException;
@@ -105,6 +162,43 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract SelectResult select(Object receiver, int[] readfds, int[] writefds, int[] errorfds, Timeval timeout) throws PosixException;
 
+    /**
+     * Creates a poller, i.e., a set of file descriptors that can be waited on repeatedly without
+     * passing all of them to the operating system on each wait, like {@code epoll} does. The
+     * returned object is opaque and must eventually be released with {@link #pollerClose}.
+     */
+    public abstract Object pollerCreate(Object receiver) throws PosixException;
+
+    /**
+     * Creates a poller for an existing {@code epoll} file descriptor, which is then owned by the
+     * poller. Fails with {@code ENOSYS} if pollers are not backed by {@code epoll}.
+     */
+    public abstract Object pollerFromFd(Object receiver, int fd) throws PosixException;
+
+    /**
+     * Returns the {@code epoll} file descriptor of the poller. Fails with {@code ENOSYS} if the
+     * poller is not backed by {@code epoll} and with {@code EBADF} if it is closed.
+     */
+    public abstract int pollerGetFd(Object receiver, Object poller) throws PosixException;
+
+    /**
+     * Adds, modifies or removes the registration of a file descriptor in a poller according to
+     * {@code op}, which is one of {@link #POLLER_ADD}, {@link #POLLER_MODIFY} and
+     * {@link #POLLER_DELETE}. The {@code events} are a combination of the {@code POLL*} flags
+     * defined in this class and, for pollers backed by {@code epoll}, the {@code EPOLL*} flags.
+     * Fails with {@code EEXIST} when adding a file descriptor that is already registered and with
+     * {@code ENOENT} when modifying or removing one that is not.
+     */
+    public abstract void pollerControl(Object receiver, Object poller, int op, int fd, int events) throws PosixException;
+
+    /**
+     * Waits until some of the file descriptors registered in the poller are ready and returns at
+     * most {@code maxEvents} of them. A negative {@code timeoutMs} means to wait indefinitely.
+     */
+    public abstract PollResult pollerWait(Object receiver, Object poller, int maxEvents, long timeoutMs) throws PosixException;
+
+    public abstract void pollerClose(Object receiver, Object poller) throws PosixException;
+
     public abstract long lseek(Object receiver, int fd, long offset, int how) throws PosixException;
 
     public abstract void ftruncate(Object receiver, int fd, long length) throws PosixException;
@@ -285,9 +379,19 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract byte mmapReadByte(Object receiver, Object mmap, long index) throws PosixException;
 
-    public abstract int mmapReadBytes(Object receiver, Object mmap, long index, byte[] bytes, int length) throws PosixException;
+    /**
+     * Reads at most {@code length} bytes of the mapping starting at {@code index} into
+     * {@code bytes} starting at {@code bytesOffset}, and returns how many bytes were read.
+     */
+    public abstract int mmapReadBytes(Object receiver, Object mmap, long index, byte[] bytes, int bytesOffset, int length) throws PosixException;
+
+    public abstract void mmapWriteByte(Object receiver, Object mmap, long index, byte value) throws PosixException;
 
-    public abstract void mmapWriteBytes(Object receiver, Object mmap, long index, byte[] bytes, int length) throws PosixException;
+    /**
+     * Writes {@code length} bytes of {@code bytes} starting at {@code bytesOffset} to the mapping
+     * starting at {@code index}.
+     */
+    public abstract void mmapWriteBytes(Object receiver, Object mmap, long index, byte[] bytes, int bytesOffset, int length) throws PosixException;
 
     public abstract void mmapFlush(Object receiver, Object mmap, long offset, long length) throws PosixException;
 
@@ -541,6 +645,18 @@ public abstract class PosixSupportLibrary extends Library {
     // For STREAM sockets, the returned address will be AF_UNSPEC
     public abstract RecvfromResult recvfrom(Object receiver, int sockfd, byte[] buf, int offset, int len, int flags) throws PosixException;
 
+    /**
+     * Sends the contents of the buffers as a single message. Ancillary data is not supported. A
+     * {@code null} {@code destAddr} means the peer of a connected socket.
+     */
+    public abstract int sendmsg(Object receiver, int sockfd, Buffer[] buffers, int flags, UniversalSockAddr destAddr) throws PosixException;
+
+    /**
+     * Receives a single message into the buffers, which are filled in the same way as in
+     * {@link #readv}. Ancillary data is not supported.
+     */
+    public abstract RecvmsgResult recvmsg(Object receiver, int sockfd, Buffer[] buffers, int flags) throws PosixException;
+
     public static final class AcceptResult {
         public final int socketFd;
         public final UniversalSockAddr sockAddr;
@@ -573,6 +689,24 @@ public abstract class PosixSupportLibrary extends Library {
         }
     }
 
+    public static final class RecvmsgResult {
+        public final int readBytes;
+        public final int msgFlags;
+        public final UniversalSockAddr sockAddr;
+
+        public RecvmsgResult(int readBytes, int msgFlags, UniversalSockAddr sockAddr) {
+            this.readBytes = readBytes;
+            this.msgFlags = msgFlags;
+            this.sockAddr = sockAddr;
+        }
+
+        @Override
+        public String toString() {
+            CompilerAsserts.neverPartOfCompilation();
+            return "RecvmsgResult{" + "readBytes=" + readBytes + ", msgFlags=" + msgFlags + ", sockAddr=" + sockAddr + '}';
+        }
+    }
+
     public abstract void shutdown(Object receiver, int sockfd, int how) throws PosixException;
 
     /**
@@ -1019,6 +1153,35 @@ public abstract class PosixSupportLibrary extends Library {
         }
     }
 
+    /**
+     * The file descriptors reported as ready by {@link #pollerWait} and their ready events.
+     */
+    @ValueType
+    public static final class PollResult {
+        private final int[] fds;
+        private final int[] events;
+
+        public PollResult(int[] fds, int[] events) {
+            assert fds.length == events.length;
+            this.fds = fds;
+            this.events = events;
+        }
+
+        public int[] getFds() {
+            return fds;
+        }
+
+        public int[] getEvents() {
+            return events;
+        }
+
+        @Override
+        public String toString() {
+            CompilerAsserts.neverPartOfCompilation();
+            return String.format("poll[fds = %s; events = %s]", Arrays.toString(fds), Arrays.toString(events));
+        }
+    }
+
     // from stat.h macros
     private static boolean istype(long mode, int mask) {
         return (mode & S_IFMT.value) == mask;
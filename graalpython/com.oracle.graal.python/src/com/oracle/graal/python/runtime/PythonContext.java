@@ -58,9 +58,11 @@ import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
@@ -70,6 +72,7 @@ import org.graalvm.options.OptionKey;
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.modules.ctypes.CtypesModuleBuiltins.CtypesThreadState;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalContext;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObjectFactory.PInteropGetAttributeNodeGen;
@@ -187,6 +190,9 @@ public final class PythonContext extends Python3Core {
 
         CtypesThreadState ctypes;
 
+        /* corresponds to the 'decimal_context' context variable of '_decimal' */
+        PDecimalContext decimalContext;
+
         /*
          * This is the native wrapper object if we need to expose the thread state as PyThreadState
          * object. We need to store it here because the wrapper may receive 'toNative' in which case
@@ -270,6 +276,14 @@ public final class PythonContext extends Python3Core {
             this.ctypes = ctypes;
         }
 
+        public PDecimalContext getDecimalContext() {
+            return decimalContext;
+        }
+
+        public void setDecimalContext(PDecimalContext decimalContext) {
+            this.decimalContext = decimalContext;
+        }
+
         public PThreadState getNativeWrapper() {
             return nativeWrapper;
         }
@@ -463,12 +477,50 @@ public final class PythonContext extends Python3Core {
     private static final class GlobalInterpreterLock extends ReentrantLock {
         private static final long serialVersionUID = 1L;
 
+        /*
+         * Statistics. Except for the switch number, which is also read by threads that released the
+         * GIL and wait for another thread to take it, they are only accessed while holding the lock.
+         */
+        private volatile long switchNumber;
+        private long acquireCount;
+        private long contendedAcquireCount;
+        private long waitTimeNanos;
+        private long maxWaitTimeNanos;
+        private long holdTimeNanos;
+        private long forcedSwitchCount;
+        private long ownerSinceNanos;
+
         @Override
         public Thread getOwner() {
             return super.getOwner();
         }
     }
 
+    /**
+     * A snapshot of the GIL statistics of a context, see {@link #getGilStatistics()}. All times are
+     * in nanoseconds.
+     */
+    public static final class GilStatistics {
+        public final long acquireCount;
+        public final long contendedAcquireCount;
+        public final long waitTime;
+        public final long maxWaitTime;
+        public final long holdTime;
+        public final long forcedSwitchCount;
+
+        GilStatistics(long acquireCount, long contendedAcquireCount, long waitTime, long maxWaitTime, long holdTime, long forcedSwitchCount) {
+            this.acquireCount = acquireCount;
+            this.contendedAcquireCount = contendedAcquireCount;
+            this.waitTime = waitTime;
+            this.maxWaitTime = maxWaitTime;
+            this.holdTime = holdTime;
+            this.forcedSwitchCount = forcedSwitchCount;
+        }
+    }
+
+    /** How often a thread that dropped the GIL on request checks whether it was handed over. */
+    private static final long GIL_HANDOFF_POLL_NANOS = 20_000;
+
     private final GlobalInterpreterLock globalInterpreterLock = new GlobalInterpreterLock();
 
     /** Native wrappers for context-insensitive singletons like {@link PNone#NONE}. */
@@ -1876,7 +1928,11 @@ public final class PythonContext extends Python3Core {
      */
     @TruffleBoundary
     boolean tryAcquireGil() {
-        return globalInterpreterLock.tryLock();
+        if (globalInterpreterLock.tryLock()) {
+            gilAcquired(0);
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -1888,12 +1944,86 @@ public final class PythonContext extends Python3Core {
     void acquireGil() throws InterruptedException {
         assert !ownsGil() : dumpStackOnAssertionHelper("trying to acquire the GIL more than once");
         boolean wasInterrupted = Thread.interrupted();
-        globalInterpreterLock.lockInterruptibly();
+        if (globalInterpreterLock.tryLock()) {
+            gilAcquired(0);
+        } else {
+            acquireGilContended();
+        }
         if (wasInterrupted) {
             Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Like CPython, a thread that could not get the GIL within the switch interval asks the current
+     * owner to drop it. The owner then waits until one of the waiting threads has taken the GIL
+     * before it competes for it again (see {@link #awaitGilHandoff(long)}).
+     */
+    private void acquireGilContended() throws InterruptedException {
+        long waitStart = System.nanoTime();
+        while (!globalInterpreterLock.tryLock(getSwitchIntervalNanos(), TimeUnit.NANOSECONDS)) {
+            Thread owner = globalInterpreterLock.getOwner();
+            if (owner != null) {
+                handler.requestGilRelease(owner);
+            }
+        }
+        gilAcquired(System.nanoTime() - waitStart);
+    }
+
+    private void gilAcquired(long waitNanos) {
+        GlobalInterpreterLock gil = globalInterpreterLock;
+        gil.switchNumber++;
+        gil.acquireCount++;
+        if (waitNanos > 0) {
+            gil.contendedAcquireCount++;
+            gil.waitTimeNanos += waitNanos;
+            gil.maxWaitTimeNanos = Math.max(gil.maxWaitTimeNanos, waitNanos);
+        }
+        gil.ownerSinceNanos = System.nanoTime();
+    }
+
+    public long getSwitchIntervalNanos() {
+        // the sys module stores the interval in microseconds
+        return Math.max(1, (long) (getSysModuleState().getSwitchInterval() * 1000));
+    }
+
+    /**
+     * Should not be used outside of {@link AsyncHandler}. Must be called while holding the GIL,
+     * right before it is dropped on request of a waiting thread. Returns a number to be passed to
+     * {@link #awaitGilHandoff(long)}.
+     */
+    long gilDropRequested() {
+        globalInterpreterLock.forcedSwitchCount++;
+        return globalInterpreterLock.switchNumber;
+    }
+
+    /**
+     * Should not be used outside of {@link AsyncHandler}. Waits (at most for one switch interval)
+     * until another thread took the GIL after the current thread dropped it. Without this, the
+     * dropping thread would usually take the lock again right away, before the woken up waiter gets
+     * to run.
+     */
+    @TruffleBoundary
+    void awaitGilHandoff(long switchNumber) {
+        long deadline = System.nanoTime() + getSwitchIntervalNanos();
+        while (globalInterpreterLock.switchNumber == switchNumber && globalInterpreterLock.hasQueuedThreads() && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(GIL_HANDOFF_POLL_NANOS);
+        }
+    }
+
+    /**
+     * Returns the statistics of the GIL of this context. Must be called while holding the GIL.
+     */
+    @TruffleBoundary
+    public GilStatistics getGilStatistics() {
+        GlobalInterpreterLock gil = globalInterpreterLock;
+        long holdTime = gil.holdTimeNanos;
+        if (gil.isHeldByCurrentThread()) {
+            holdTime += System.nanoTime() - gil.ownerSinceNanos;
+        }
+        return new GilStatistics(gil.acquireCount, gil.contendedAcquireCount, gil.waitTimeNanos, gil.maxWaitTimeNanos, holdTime, gil.forcedSwitchCount);
+    }
+
     static final String dumpStackOnAssertionHelper(String msg) {
         Thread.dumpStack();
         return msg;
@@ -1907,6 +2037,7 @@ public final class PythonContext extends Python3Core {
     @TruffleBoundary
     void releaseGil() {
         assert globalInterpreterLock.getHoldCount() == 1 : dumpStackOnAssertionHelper("trying to release the GIL with invalid hold count " + globalInterpreterLock.getHoldCount());
+        globalInterpreterLock.holdTimeNanos += System.nanoTime() - globalInterpreterLock.ownerSinceNanos;
         globalInterpreterLock.unlock();
     }
 
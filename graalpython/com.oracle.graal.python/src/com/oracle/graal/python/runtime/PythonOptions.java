@@ -201,6 +201,13 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "<maxDepth>", help = "") //
     public static final OptionKey<Integer> AttributeAccessInlineCacheMaxDepth = new OptionKey<>(5);
 
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Store dicts and sets with non-string keys in a compact, open-addressing hash table " +
+                    "without per-entry wrapper objects.") //
+    public static final OptionKey<Boolean> CompactHashingStorage = new OptionKey<>(false);
+
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Store dicts and sets whose keys are all ints in a hash table with unboxed long keys.") //
+    public static final OptionKey<Boolean> LongHashingStorage = new OptionKey<>(false);
+
     @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "<maxDepth>", help = "") //
     public static final OptionKey<Integer> CallSiteInlineCacheMaxDepth = new OptionKey<>(4);
 
@@ -297,6 +304,17 @@ public final class PythonOptions {
     @Option(category = OptionCategory.EXPERT, help = "Enables using experimental bytecode interpreter instead of AST interpreter.") //
     public static final OptionKey<Boolean> EnableBytecodeInterpreter = new OptionKey<>(false);
 
+    @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Load the bytecode compiled from source files that are not imported through importlib (like core library files " +
+                    "or the main script) from __pycache__ directories or the PyCachePrefix tree. The bytecode is also written there unless DontWriteBytecodeFlag is set. " +
+                    "Only used with the bytecode interpreter.") //
+    public static final OptionKey<Boolean> PersistentBytecodeCache = new OptionKey<>(true);
+
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Keep local variables and operand stack values of the bytecode interpreter in primitive frame slots where possible.") //
+    public static final OptionKey<Boolean> BytecodePrimitiveSlots = new OptionKey<>(false);
+
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Fuse common instruction sequences of the bytecode interpreter into superinstructions.") //
+    public static final OptionKey<Boolean> BytecodeSuperinstructions = new OptionKey<>(false);
+
     public static final OptionDescriptors DESCRIPTORS = new PythonOptionsOptionDescriptors();
 
     @CompilationFinal(dimensions = 1) private static final OptionKey<?>[] ENGINE_OPTION_KEYS;
@@ -26,7 +26,9 @@
 package com.oracle.graal.python.runtime.object;
 
 import java.lang.ref.ReferenceQueue;
+import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.security.MessageDigest;
 import java.util.LinkedHashMap;
 import java.util.concurrent.Semaphore;
 
@@ -49,6 +51,16 @@ import com.oracle.graal.python.builtins.modules.ctypes.PyCArgObject;
 import com.oracle.graal.python.builtins.modules.ctypes.PyCFuncPtrObject;
 import com.oracle.graal.python.builtins.modules.ctypes.StgDictObject;
 import com.oracle.graal.python.builtins.modules.ctypes.StructParamObject;
+import com.oracle.graal.python.builtins.modules.datetime.PDate;
+import com.oracle.graal.python.builtins.modules.datetime.PDateTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTimeDelta;
+import com.oracle.graal.python.builtins.modules.datetime.PTimeZone;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimal;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalContext;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalContextManager;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalSignalDict;
+import com.oracle.graal.python.builtins.modules.hashlib.HashObject;
 import com.oracle.graal.python.builtins.modules.io.PBuffered;
 import com.oracle.graal.python.builtins.modules.io.PBytesIO;
 import com.oracle.graal.python.builtins.modules.io.PBytesIOBuffer;
@@ -61,6 +73,13 @@ import com.oracle.graal.python.builtins.modules.json.PJSONEncoder;
 import com.oracle.graal.python.builtins.modules.json.PJSONEncoder.FastEncode;
 import com.oracle.graal.python.builtins.modules.json.PJSONScanner;
 import com.oracle.graal.python.builtins.modules.lzma.LZMAObject;
+import com.oracle.graal.python.builtins.modules.pickle.PPickleBuffer;
+import com.oracle.graal.python.builtins.modules.sre.PMatch;
+import com.oracle.graal.python.builtins.modules.sre.PPattern;
+import com.oracle.graal.python.builtins.modules.sre.PSREScanner;
+import com.oracle.graal.python.builtins.modules.struct.PStruct;
+import com.oracle.graal.python.builtins.modules.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.modules.struct.StructFormat;
 import com.oracle.graal.python.builtins.modules.zlib.ZLibCompObject;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.array.PArray;
@@ -162,6 +181,7 @@ import com.oracle.graal.python.builtins.objects.range.PIntRange;
 import com.oracle.graal.python.builtins.objects.referencetype.PReferenceType;
 import com.oracle.graal.python.builtins.objects.reversed.PSequenceReverseIterator;
 import com.oracle.graal.python.builtins.objects.reversed.PStringReverseIterator;
+import com.oracle.graal.python.builtins.objects.select.PPoller;
 import com.oracle.graal.python.builtins.objects.set.PBaseSet;
 import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
 import com.oracle.graal.python.builtins.objects.set.PSet;
@@ -1113,6 +1133,14 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PSocket(cls, getShape(cls)));
     }
 
+    /*
+     * Select
+     */
+
+    public final PPoller createPoller(Object cls, Object handle) {
+        return trace(new PPoller(cls, getShape(cls), handle));
+    }
+
     /*
      * Threading
      */
@@ -1181,6 +1209,71 @@ public abstract class PythonObjectFactory extends Node {
         return trace(ZLibCompObject.createNative(clazz, getShape(clazz), zst, zlibSupport));
     }
 
+    public final HashObject createHashObject(HashObject.Algorithm algorithm, MessageDigest digest) {
+        return trace(new HashObject(PythonBuiltinClassType.HashlibHash, PythonBuiltinClassType.HashlibHash.getInstanceShape(getLanguage()), algorithm, digest));
+    }
+
+    public final PPickleBuffer createPickleBuffer(Object cls, PMemoryView view) {
+        return trace(new PPickleBuffer(cls, getShape(cls), view));
+    }
+
+    public final PStruct createStruct(Object cls) {
+        return trace(new PStruct(cls, getShape(cls)));
+    }
+
+    public final PStructUnpackIterator createStructUnpackIterator(StructFormat format, Object buffer, int bufferLength) {
+        return trace(new PStructUnpackIterator(PythonBuiltinClassType.PStructUnpackIterator, PythonBuiltinClassType.PStructUnpackIterator.getInstanceShape(getLanguage()), format, buffer,
+                        bufferLength));
+    }
+
+    public final PPattern createSREPattern(Object cls, Object pattern, boolean binary, int flags, String flagsStr) {
+        return trace(new PPattern(cls, getShape(cls), pattern, binary, flags, flagsStr));
+    }
+
+    public final PMatch createSREMatch(PPattern pattern, Object string, Object input, int pos, int endpos, Object result) {
+        return trace(new PMatch(PythonBuiltinClassType.PSREMatch, PythonBuiltinClassType.PSREMatch.getInstanceShape(getLanguage()), pattern, string, input, pos, endpos, result));
+    }
+
+    public final PSREScanner createSREScanner(PPattern pattern, Object string, long pos, long endpos) {
+        return trace(new PSREScanner(PythonBuiltinClassType.PSREScanner, PythonBuiltinClassType.PSREScanner.getInstanceShape(getLanguage()), pattern, string, pos, endpos));
+    }
+
+    public final PTimeDelta createTimeDelta(Object cls, int days, int seconds, int microseconds) {
+        return trace(new PTimeDelta(cls, getShape(cls), days, seconds, microseconds));
+    }
+
+    public final PDate createDate(Object cls, int year, int month, int day) {
+        return trace(new PDate(cls, getShape(cls), year, month, day));
+    }
+
+    public final PDateTime createDateTime(Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        return trace(new PDateTime(cls, getShape(cls), year, month, day, hour, minute, second, microsecond, tzinfo, fold));
+    }
+
+    public final PTime createTime(Object cls, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        return trace(new PTime(cls, getShape(cls), hour, minute, second, microsecond, tzinfo, fold));
+    }
+
+    public final PTimeZone createTimeZone(Object cls, PTimeDelta offset, Object name) {
+        return trace(new PTimeZone(cls, getShape(cls), offset, name));
+    }
+
+    public final PDecimal createDecimal(Object cls, byte kind, boolean negative, BigDecimal value) {
+        return trace(new PDecimal(cls, getShape(cls), kind, negative, value));
+    }
+
+    public final PDecimalContext createDecimalContext(Object cls, int prec, int rounding, int emin, int emax, int capitals, int clamp, int flags, int traps) {
+        return trace(new PDecimalContext(cls, getShape(cls), prec, rounding, emin, emax, capitals, clamp, flags, traps));
+    }
+
+    public final PDecimalSignalDict createDecimalSignalDict(PDecimalContext context, boolean traps) {
+        return trace(new PDecimalSignalDict(PythonBuiltinClassType.PDecimalSignalDict, PythonBuiltinClassType.PDecimalSignalDict.getInstanceShape(getLanguage()), context, traps));
+    }
+
+    public final PDecimalContextManager createDecimalContextManager(PDecimalContext local, PDecimalContext global) {
+        return trace(new PDecimalContextManager(PythonBuiltinClassType.PDecimalContextManager, PythonBuiltinClassType.PDecimalContextManager.getInstanceShape(getLanguage()), local, global));
+    }
+
     public final LZMAObject.LZMADecompressor createLZMADecompressor(Object clazz, boolean isNative) {
         return trace(LZMAObject.createDecompressor(clazz, getShape(clazz), isNative));
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2022, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * The Universal Permissive License (UPL), Version 1.0
@@ -73,6 +73,27 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
     private final Map<String, List<Assumption>> attributesInMROFinalAssumptions;
     private boolean hasAttributesInMROFinalAssumptions;
 
+    /**
+     * Results of attribute lookups in this mro that are used by megamorphic lookups. An entry is
+     * valid as long as its attribute-in-MRO-final assumption is valid. The cache holds at most
+     * {@link #ATTRIBUTE_CACHE_LIMIT} entries, so that lookups of generated attribute names do not
+     * accumulate entries and assumptions for the lifetime of the type.
+     */
+    private Map<String, CachedAttribute> attributeCache;
+    private boolean attributeCacheFull;
+
+    private static final int ATTRIBUTE_CACHE_LIMIT = 256;
+
+    public static final class CachedAttribute {
+        public final Object value;
+        public final Assumption assumption;
+
+        CachedAttribute(Object value, Assumption assumption) {
+            this.value = value;
+            this.assumption = assumption;
+        }
+    }
+
     @CompilationFinal(dimensions = 1) private final PythonAbstractClass[] values;
 
     @TruffleBoundary
@@ -218,6 +239,54 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
         return lookupStableAssumption.getAssumption();
     }
 
+    /**
+     * Returns the cached result of looking up the given attribute in this mro, or {@code null} if
+     * there is none or if it was invalidated.
+     */
+    @TruffleBoundary
+    public CachedAttribute getCachedAttribute(String name) {
+        if (attributeCache != null) {
+            CachedAttribute cached = attributeCache.get(name);
+            if (cached != null) {
+                if (cached.assumption.isValid()) {
+                    return cached;
+                }
+                attributeCache.remove(name);
+                attributeCacheFull = false;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} if no more attributes can be cached for this mro. Lookups should not
+     * create new attribute-in-MRO-final assumptions for the cache in that case.
+     */
+    @TruffleBoundary
+    public boolean isAttributeCacheFull() {
+        if (!attributeCacheFull && attributeCache != null && attributeCache.size() >= ATTRIBUTE_CACHE_LIMIT) {
+            attributeCache.values().removeIf(cached -> !cached.assumption.isValid());
+            attributeCacheFull = attributeCache.size() >= ATTRIBUTE_CACHE_LIMIT;
+        }
+        return attributeCacheFull;
+    }
+
+    /**
+     * Caches the result of looking up an attribute in this mro, replacing an invalidated entry for
+     * the same name. The assumption must have been created with
+     * {@link #createAttributeInMROFinalAssumption(String)} and registered with all classes in the
+     * mro.
+     */
+    @TruffleBoundary
+    public void putCachedAttribute(String name, Object value, Assumption assumption) {
+        if (attributeCache == null) {
+            attributeCache = new HashMap<>();
+        } else if (!attributeCache.containsKey(name) && isAttributeCacheFull()) {
+            return;
+        }
+        attributeCache.put(name, new CachedAttribute(value, assumption));
+    }
+
     public Assumption createAttributeInMROFinalAssumption(String name) {
         CompilerAsserts.neverPartOfCompilation();
         List<Assumption> attrAssumptions = attributesInMROFinalAssumptions.getOrDefault(name, null);
@@ -249,6 +318,9 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
      */
     @TruffleBoundary
     public boolean invalidateAttributeInMROFinalAssumptions(String name) {
+        if (attributeCache != null && attributeCache.remove(name) != null) {
+            attributeCacheFull = false;
+        }
         List<Assumption> assumptions = attributesInMROFinalAssumptions.getOrDefault(name, Collections.emptyList());
         // the empty check is just to avoid the StringBuilder allocation
         if (!assumptions.isEmpty()) {
@@ -264,6 +336,8 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
     public void lookupChanged() {
         CompilerAsserts.neverPartOfCompilation();
         attributesInMROFinalAssumptions.values().removeIf(REMOVE_IF_LARGE);
+        attributeCache = null;
+        attributeCacheFull = false;
         lookupStableAssumption.invalidate();
     }
 
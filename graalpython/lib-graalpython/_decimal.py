@@ -0,0 +1,271 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# Decimal, Context and the signal dicts are implemented in Java, see DecimalBuiltins.java. This
+# file defines the signals and delegates the logical operations, rotate, shift, next_* and
+# compare_total* to _pydecimal, which implements the same specification.
+
+
+class DecimalException(ArithmeticError):
+    __module__ = 'decimal'
+
+
+class Clamped(DecimalException):
+    __module__ = 'decimal'
+
+
+class InvalidOperation(DecimalException):
+    __module__ = 'decimal'
+
+
+class ConversionSyntax(InvalidOperation):
+    __module__ = 'decimal'
+
+
+class DivisionByZero(DecimalException, ZeroDivisionError):
+    __module__ = 'decimal'
+
+
+class DivisionImpossible(InvalidOperation):
+    __module__ = 'decimal'
+
+
+class DivisionUndefined(InvalidOperation, ZeroDivisionError):
+    __module__ = 'decimal'
+
+
+class Inexact(DecimalException):
+    __module__ = 'decimal'
+
+
+class InvalidContext(InvalidOperation):
+    __module__ = 'decimal'
+
+
+class Rounded(DecimalException):
+    __module__ = 'decimal'
+
+
+class Subnormal(DecimalException):
+    __module__ = 'decimal'
+
+
+class Overflow(Inexact, Rounded):
+    __module__ = 'decimal'
+
+
+class Underflow(Inexact, Rounded, Subnormal):
+    __module__ = 'decimal'
+
+
+class FloatOperation(DecimalException, TypeError):
+    __module__ = 'decimal'
+
+
+_signals = (InvalidOperation, FloatOperation, DivisionByZero, Overflow, Underflow, Subnormal, Inexact, Rounded, Clamped)
+
+
+class DecimalTuple(tuple):
+    """DecimalTuple(sign, digits, exponent)"""
+    __module__ = 'decimal'
+    __slots__ = ()
+    _fields = ('sign', 'digits', 'exponent')
+
+    def __new__(cls, sign, digits, exponent):
+        return tuple.__new__(cls, (sign, digits, exponent))
+
+    def __repr__(self):
+        return 'DecimalTuple(sign=%r, digits=%r, exponent=%r)' % self
+
+    def __getnewargs__(self):
+        return tuple(self)
+
+    def _asdict(self):
+        return dict(zip(self._fields, self))
+
+    def _replace(self, **kwargs):
+        return DecimalTuple(*map(kwargs.pop, self._fields, self))
+
+    sign = property(lambda self: self[0])
+    digits = property(lambda self: self[1])
+    exponent = property(lambda self: self[2])
+
+
+def _rational_as_pair(other):
+    import numbers
+    if isinstance(other, numbers.Rational):
+        return other.numerator, other.denominator
+    return None
+
+
+def _context(context):
+    if context is None:
+        return getcontext()
+    if not isinstance(context, Context):
+        raise TypeError("optional argument must be a context")
+    return context
+
+
+def _convert(value):
+    if isinstance(value, Decimal):
+        return value
+    if isinstance(value, int):
+        return Decimal(value)
+    raise TypeError("conversion from %s to Decimal is not supported" % type(value).__name__)
+
+
+def _call_pydecimal(context, name, *args):
+    """
+    Performs the operation 'name' of _pydecimal.Context on decimal arguments. The flags raised by
+    _pydecimal are added to 'context' and trapped signals are raised like by the Java operations.
+    """
+    import _pydecimal
+    pycontext = _pydecimal.Context(prec=context.prec, rounding=context.rounding, Emin=context.Emin, Emax=context.Emax,
+                                   capitals=context.capitals, clamp=context.clamp, flags=[], traps=[])
+    pyargs = [_pydecimal.Decimal(a.to_eng_string()) if isinstance(a, Decimal) else a for a in args]
+    result = getattr(pycontext, name)(*pyargs)
+    raised = [s for s in _signals if pycontext.flags[getattr(_pydecimal, s.__name__)]]
+    for signal in raised:
+        context.flags[signal] = True
+    for signal in raised:
+        if context.traps[signal]:
+            raise signal(raised)
+    if isinstance(result, _pydecimal.Decimal):
+        return Decimal(str(result))
+    return result
+
+
+def _format_fallback(value, specifier, override=None):
+    import _pydecimal
+    context = getcontext()
+    pycontext = _pydecimal.Context(prec=context.prec, rounding=context.rounding, Emin=context.Emin, Emax=context.Emax,
+                                   capitals=context.capitals, clamp=context.clamp, flags=[], traps=[])
+    if not isinstance(specifier, str):
+        raise TypeError("format arg must be str")
+    return _pydecimal.Decimal(value.to_eng_string()).__format__(specifier, pycontext, override)
+
+
+def _decimal_unary(name):
+    def method(self, context=None):
+        return _call_pydecimal(_context(context), name, self)
+    method.__name__ = name
+    return __graalpython__.builtin_method(method)
+
+
+def _decimal_binary(name):
+    def method(self, other, context=None):
+        return _call_pydecimal(_context(context), name, self, _convert(other))
+    method.__name__ = name
+    return __graalpython__.builtin_method(method)
+
+
+for _name in ('logical_invert', 'next_minus', 'next_plus'):
+    setattr(Decimal, _name, _decimal_unary(_name))
+
+for _name in ('compare_total', 'compare_total_mag', 'logical_and', 'logical_or', 'logical_xor', 'next_toward', 'rotate',
+              'shift'):
+    setattr(Decimal, _name, _decimal_binary(_name))
+
+
+def _context_unary(name):
+    def method(self, a):
+        return _call_pydecimal(self, name, _convert(a))
+    method.__name__ = name
+    return __graalpython__.builtin_method(method)
+
+
+def _context_binary(name):
+    def method(self, a, b):
+        return _call_pydecimal(self, name, _convert(a), _convert(b))
+    method.__name__ = name
+    return __graalpython__.builtin_method(method)
+
+
+def _context_predicate(name, pass_context):
+    if pass_context:
+        def method(self, a):
+            return getattr(_convert(a), name)(self)
+    else:
+        def method(self, a):
+            return getattr(_convert(a), name)()
+    method.__name__ = name
+    return __graalpython__.builtin_method(method)
+
+
+for _name in ('logical_invert', 'next_minus', 'next_plus'):
+    setattr(Context, _name, _context_unary(_name))
+
+for _name in ('compare_total', 'compare_total_mag', 'logical_and', 'logical_or', 'logical_xor', 'next_toward', 'rotate',
+              'shift'):
+    setattr(Context, _name, _context_binary(_name))
+
+for _name in ('is_canonical', 'is_finite', 'is_infinite', 'is_nan', 'is_qnan', 'is_signed', 'is_snan', 'is_zero', 'copy_abs',
+              'copy_negate'):
+    setattr(Context, _name, _context_predicate(_name, False))
+
+for _name in ('is_normal', 'is_subnormal'):
+    setattr(Context, _name, _context_predicate(_name, True))
+
+del _name
+
+
+def canonical(self, a):
+    if not isinstance(a, Decimal):
+        raise TypeError("argument must be a Decimal")
+    return a
+
+
+def copy_decimal(self, a):
+    return _convert(a)
+
+
+def copy_sign(self, a, b):
+    return _convert(a).copy_sign(_convert(b))
+
+
+def radix(self):
+    return Decimal(10)
+
+
+Context.canonical = __graalpython__.builtin_method(canonical)
+Context.copy_decimal = __graalpython__.builtin_method(copy_decimal)
+Context.copy_sign = __graalpython__.builtin_method(copy_sign)
+Context.radix = __graalpython__.builtin_method(radix)
+
+del canonical, copy_decimal, copy_sign, radix
@@ -0,0 +1,143 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+"""GraalPython specific additions to the json package."""
+
+from json.decoder import JSONDecoder, JSONDecodeError, WHITESPACE, _WHITESPACE_BYTES
+
+__all__ = ['JSONStreamDecoder']
+
+
+class JSONStreamDecoder(object):
+    """Incrementally decode a stream of concatenated or newline delimited
+    JSON documents that arrives in arbitrary chunks of ``str`` or UTF-8
+    encoded ``bytes``.
+
+    >>> d = JSONStreamDecoder()
+    >>> d.feed(b'{"a": 1}\\n{"b"')
+    [{'a': 1}]
+    >>> d.feed(b': [2]}\\n3')
+    [{'b': [2]}]
+    >>> d.close()
+    [3]
+
+    """
+
+    _CONSTANT_PREFIXES = ('null', 'true', 'false', 'NaN', 'Infinity', '-Infinity')
+
+    def __init__(self, decoder=None):
+        self.decoder = decoder if decoder is not None else JSONDecoder()
+        self._buffer = None
+
+    def feed(self, data):
+        """Append ``data`` to the buffer and return a list of all the
+        documents that are complete now.
+
+        """
+        if self._buffer is None:
+            self._buffer = '' if isinstance(data, str) else bytearray()
+        if isinstance(self._buffer, str):
+            if not isinstance(data, str):
+                raise TypeError(f'expected str, not {data.__class__.__name__}')
+            self._buffer += data
+        else:
+            if isinstance(data, str):
+                raise TypeError('expected a bytes-like object, not str')
+            self._buffer += data
+        return self._drain(False)
+
+    def close(self):
+        """Return the remaining documents and reset the decoder. Raises a
+        ``JSONDecodeError`` if the stream ends with an incomplete document.
+
+        """
+        try:
+            return self._drain(True)
+        finally:
+            self._buffer = None
+
+    def _drain(self, final):
+        buf = self._buffer
+        if buf is None:
+            return []
+        if isinstance(buf, str):
+            w = WHITESPACE.match
+            raw_decode = self.decoder.raw_decode
+            number_start, number_tail = '-0123456789', '.eE+-0123456789'
+        else:
+            w = _WHITESPACE_BYTES.match
+            raw_decode = self.decoder._raw_decode_utf8
+            number_start, number_tail = b'-0123456789', b'.eE+-0123456789'
+        docs = []
+        pos = 0
+        while True:
+            pos = w(buf, pos).end()
+            if pos == len(buf):
+                break
+            try:
+                obj, end = raw_decode(buf, pos)
+            except JSONDecodeError as e:
+                if final or not self._incomplete(e):
+                    raise
+                break
+            except UnicodeDecodeError as e:
+                if final or e.reason != 'unexpected end of data':
+                    raise
+                break
+            if not final and buf[pos:pos + 1] in number_start and not buf[end:].lstrip(number_tail):
+                # a top level number could continue in the next chunk
+                break
+            docs.append(obj)
+            pos = end
+        if isinstance(buf, str):
+            self._buffer = buf[pos:]
+        else:
+            del buf[:pos]
+        return docs
+
+    def _incomplete(self, e):
+        # whether the error could go away once more data arrives
+        if e.msg.startswith('Unterminated string'):
+            return True
+        if e.msg.startswith('Invalid \\uXXXX'):
+            return len(e.doc) - e.pos <= 5
+        tail = e.doc[e.pos:]
+        if not tail.lstrip('.eE+-0123456789'):
+            # also covers e.pos at the end of the document
+            return True
+        return e.msg == 'Expecting value' and any(c.startswith(tail) for c in self._CONSTANT_PREFIXES)
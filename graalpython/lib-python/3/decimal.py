@@ -4,6 +4,11 @@ try:
     from _decimal import __doc__
     from _decimal import __version__
     from _decimal import __libmpdec_version__
+    # Truffle change: the builtin _decimal module cannot import numbers while the core is
+    # initialized, so Decimal is registered as a number here
+    import numbers as _numbers
+    _numbers.Number.register(Decimal)
+    del _numbers
 except ImportError:
     from _pydecimal import *
     from _pydecimal import __doc__
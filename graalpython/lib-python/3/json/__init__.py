@@ -166,18 +166,22 @@ def dump(obj, fp, *, skipkeys=False, ensure_ascii=True, check_circular=True,
         check_circular and allow_nan and
         cls is None and indent is None and separators is None and
         default is None and not sort_keys and not kw):
-        iterable = _default_encoder.iterencode(obj)
+        encoder = _default_encoder
     else:
         if cls is None:
             cls = JSONEncoder
-        iterable = cls(skipkeys=skipkeys, ensure_ascii=ensure_ascii,
+        encoder = cls(skipkeys=skipkeys, ensure_ascii=ensure_ascii,
             check_circular=check_circular, allow_nan=allow_nan, indent=indent,
             separators=separators,
-            default=default, sort_keys=sort_keys, **kw).iterencode(obj)
-    # could accelerate with writelines in some versions of Python, at
-    # a debuggability cost
-    for chunk in iterable:
-        fp.write(chunk)
+            default=default, sort_keys=sort_keys, **kw)
+    # Truffle change: let the encoder write its chunks directly
+    if isinstance(encoder, JSONEncoder):
+        encoder._dump(obj, fp.write)
+    else:
+        # could accelerate with writelines in some versions of Python, at
+        # a debuggability cost
+        for chunk in encoder.iterencode(obj):
+            fp.write(chunk)
     fp.flush()
 
 
@@ -341,7 +345,11 @@ def loads(s, *, cls=None, object_hook=None, parse_float=None,
         if not isinstance(s, (bytes, bytearray)):
             raise TypeError(f'the JSON object must be str, bytes or bytearray, '
                             f'not {s.__class__.__name__}')
-        s = s.decode(detect_encoding(s), 'surrogatepass')
+        encoding = detect_encoding(s)
+        # Truffle change: UTF-8 documents are scanned without decoding them
+        # first, see _decode
+        if encoding != 'utf-8':
+            s = s.decode(encoding, 'surrogatepass')
 
     if "encoding" in kw:
         import warnings
@@ -355,7 +363,7 @@ def loads(s, *, cls=None, object_hook=None, parse_float=None,
     if (cls is None and object_hook is None and
             parse_int is None and parse_float is None and
             parse_constant is None and object_pairs_hook is None and not kw):
-        return _default_decoder.decode(s)
+        return _decode(_default_decoder, s)
     if cls is None:
         cls = JSONDecoder
     if object_hook is not None:
@@ -368,4 +376,15 @@ def loads(s, *, cls=None, object_hook=None, parse_float=None,
         kw['parse_int'] = parse_int
     if parse_constant is not None:
         kw['parse_constant'] = parse_constant
-    return cls(**kw).decode(s)
+    return _decode(cls(**kw), s)
+
+
+# Truffle change: UTF-8 encoded bytes are passed to the scanner directly unless
+# a JSONDecoder subclass overrides how documents are decoded
+def _decode(decoder, s):
+    if isinstance(s, str):
+        return decoder.decode(s)
+    cls = type(decoder)
+    if getattr(cls, 'decode', None) is JSONDecoder.decode and getattr(cls, 'raw_decode', None) is JSONDecoder.raw_decode:
+        return decoder._decode_utf8(s)
+    return decoder.decode(s.decode('utf-8', 'surrogatepass'))
@@ -130,6 +130,8 @@ def py_scanstring(s, end, strict=True,
 scanstring = c_scanstring or py_scanstring
 
 WHITESPACE = re.compile(r'[ \t\n\r]*', FLAGS)
+# Truffle change: UTF-8 encoded documents are scanned without decoding them
+_WHITESPACE_BYTES = re.compile(br'[ \t\n\r]*', FLAGS)
 WHITESPACE_STR = ' \t\n\r'
 
 
@@ -354,3 +356,34 @@ class JSONDecoder(object):
         except StopIteration as err:
             raise JSONDecodeError("Expecting value", s, err.value) from None
         return obj, end
+
+    # Truffle change: decode UTF-8 encoded documents for json.loads and
+    # _graalpython_json.JSONStreamDecoder, indices are byte offsets
+    def _decode_utf8(self, b, _w=_WHITESPACE_BYTES.match):
+        try:
+            obj, end = self._raw_decode_utf8(b, _w(b, 0).end())
+            end = _w(b, end).end()
+            if end != len(b):
+                raise _utf8_decode_error("Extra data", b, end)
+        except JSONDecodeError:
+            # report malformed input like decoding it to str first would
+            b.decode('utf-8', 'surrogatepass')
+            raise
+        return obj
+
+    def _raw_decode_utf8(self, b, idx):
+        if scanner.c_make_scanner is None or not isinstance(self.scan_once, scanner.c_make_scanner):
+            prefix = b[:idx].decode('utf-8', 'surrogatepass')
+            s = prefix + b[idx:].decode('utf-8', 'surrogatepass')
+            obj, end = self.raw_decode(s, len(prefix))
+            return obj, idx + len(s[len(prefix):end].encode('utf-8', 'surrogatepass'))
+        try:
+            return self.scan_once(b, idx)
+        except StopIteration as err:
+            raise _utf8_decode_error("Expecting value", b, err.value) from None
+
+
+def _utf8_decode_error(msg, b, pos):
+    # errors always refer to the decoded document, like for str input
+    doc = b.decode('utf-8', 'surrogatepass')
+    return JSONDecodeError(msg, doc, len(b[:pos].decode('utf-8', 'surrogatepass')))
@@ -256,6 +256,29 @@ class JSONEncoder(object):
                 self.skipkeys, _one_shot)
         return _iterencode(o, 0)
 
+    # Truffle change: encode straight into a file-like object. The native
+    # encoder flushes its output to ``write`` in chunks, so large documents
+    # are neither built in memory nor split into tiny pieces.
+    def _dump(self, o, write):
+        if (c_make_encoder is not None and self.indent is None
+                and hasattr(c_make_encoder, 'dump')
+                and type(self).iterencode is JSONEncoder.iterencode):
+            if self.check_circular:
+                markers = {}
+            else:
+                markers = None
+            if self.ensure_ascii:
+                _encoder = encode_basestring_ascii
+            else:
+                _encoder = encode_basestring
+            c_make_encoder(
+                markers, self.default, _encoder, self.indent,
+                self.key_separator, self.item_separator, self.sort_keys,
+                self.skipkeys, self.allow_nan).dump(o, write)
+        else:
+            for chunk in self.iterencode(o):
+                write(chunk)
+
 def _make_iterencode(markers, _default, _encoder, _indent, _floatstr,
         _key_separator, _item_separator, _sort_keys, _skipkeys, _one_shot,
         ## HACK: hand-optimized bytecode; turn globals into locals
@@ -40,12 +40,19 @@ __all__ = ["PickleError", "PicklingError", "UnpicklingError", "Pickler",
            "Unpickler", "dump", "dumps", "load", "loads"]
 
 try:
-    from _pickle import PickleBuffer
+    # Truffle change: PickleBuffer is defined in our own module, there is no _pickle
+    from _graalpython_pickle import PickleBuffer
     __all__.append("PickleBuffer")
     _HAVE_PICKLE_BUFFER = True
 except ImportError:
     _HAVE_PICKLE_BUFFER = False
 
+# Truffle change: native fast paths for object graphs of builtin types
+try:
+    from _graalpython_pickle import _dumps_fast, _loads_fast
+except ImportError:
+    _dumps_fast = _loads_fast = None
+
 
 # Shortcut for use in isinstance testing
 bytes_types = (bytes, bytearray)
@@ -478,6 +485,31 @@ class _Pickler:
         if not hasattr(self, "_file_write"):
             raise PicklingError("Pickler.__init__() was not called by "
                                 "%s.__init__()" % (self.__class__.__name__,))
+        # Truffle change: try the fast path first
+        if _dumps_fast is not None and self._can_dump_fast():
+            data = _dumps_fast(obj, self.proto, self._buffer_callback, self.memo)
+            if data is not NotImplemented:
+                self._file_write(data)
+                return
+        self._dump(obj)
+
+    def _can_dump_fast(self):
+        # Truffle change: the fast path only produces the same output as long as
+        # none of the hooks is overridden
+        if self.fast or self.memo or hasattr(self, "reducer_override"):
+            return False
+        if getattr(self.persistent_id, "__func__", None) is not _Pickler.persistent_id:
+            return False
+        cls = type(self)
+        for name in _Pickler._fast_path_attrs:
+            if getattr(cls, name, None) is not getattr(_Pickler, name):
+                return False
+        return True
+
+    _fast_path_attrs = ("save", "memoize", "put", "get", "dispatch",
+                        "_batch_appends", "_batch_setitems")
+
+    def _dump(self, obj):
         if self.proto >= 2:
             self.write(PROTO + pack("<B", self.proto))
         if self.proto >= 4:
@@ -1737,9 +1769,14 @@ def _dump(obj, file, protocol=None, *, fix_imports=True, buffer_callback=None):
              buffer_callback=buffer_callback).dump(obj)
 
 def _dumps(obj, protocol=None, *, fix_imports=True, buffer_callback=None):
+    # Truffle change: try the fast path first
+    if _dumps_fast is not None:
+        res = _dumps_fast(obj, protocol, buffer_callback, None)
+        if res is not NotImplemented:
+            return res
     f = io.BytesIO()
     _Pickler(f, protocol, fix_imports=fix_imports,
-             buffer_callback=buffer_callback).dump(obj)
+             buffer_callback=buffer_callback)._dump(obj)
     res = f.getvalue()
     assert isinstance(res, bytes_types)
     return res
@@ -1753,6 +1790,11 @@ def _loads(s, *, fix_imports=True, encoding="ASCII", errors="strict",
            buffers=None):
     if isinstance(s, str):
         raise TypeError("Can't load pickle from unicode string")
+    # Truffle change: try the fast path first
+    if _loads_fast is not None:
+        res = _loads_fast(s, buffers)
+        if res is not NotImplemented:
+            return res
     file = io.BytesIO(s)
     return _Unpickler(file, fix_imports=fix_imports, buffers=buffers,
                       encoding=encoding, errors=errors).load()
@@ -57,13 +57,13 @@ import mx_urlrewrites
 import mx_graalpython_bisect
 from mx_gate import Task
 from mx_graalpython_bench_param import PATH_MESO, BENCHMARKS, WARMUP_BENCHMARKS, JBENCHMARKS, PARSER_BENCHMARKS, \
-    JAVA_DRIVER_BENCHMARKS
+    JAVA_DRIVER_BENCHMARKS, RUNTIME_BENCHMARKS
 from mx_graalpython_benchmark import PythonBenchmarkSuite, python_vm_registry, CPythonVm, PyPyVm, JythonVm, \
     GraalPythonVm, \
     CONFIGURATION_DEFAULT, CONFIGURATION_SANDBOXED, CONFIGURATION_NATIVE, \
     CONFIGURATION_DEFAULT_MULTI, CONFIGURATION_SANDBOXED_MULTI, CONFIGURATION_NATIVE_MULTI, \
     CONFIGURATION_DEFAULT_MULTI_TIER, CONFIGURATION_NATIVE_MULTI_TIER, \
-    PythonInteropBenchmarkSuite, PythonVmWarmupBenchmarkSuite, PythonParserBenchmarkSuite, \
+    PythonInteropBenchmarkSuite, PythonVmWarmupBenchmarkSuite, PythonParserBenchmarkSuite, PythonRuntimeBenchmarkSuite, \
     CONFIGURATION_INTERPRETER, CONFIGURATION_INTERPRETER_MULTI, CONFIGURATION_NATIVE_INTERPRETER, \
     CONFIGURATION_NATIVE_INTERPRETER_MULTI, PythonJavaEmbeddingBenchmarkSuite, python_java_embedding_vm_registry, \
     GraalPythonJavaDriverVm, CONFIGURATION_JAVA_EMBEDDING_INTERPRETER_MULTI_SHARED, \
@@ -1401,7 +1401,6 @@ def import_python_sources(args):
         "unicodedata.c": "_cpython_unicodedata.c",
         "_bz2module.c": "_bz2.c",
         "mmapmodule.c": "_mmap.c",
-        "_struct.c": "_cpython_struct.c",
         "_testcapimodule.c": "_testcapi.c",
     }
     extra_pypy_files = [
@@ -1698,6 +1697,8 @@ def _register_bench_suites(namespace):
         mx_benchmark.add_bm_suite(java_bench_suite)
     for parser_bench_suite in PythonParserBenchmarkSuite.get_benchmark_suites(PARSER_BENCHMARKS):
         mx_benchmark.add_bm_suite(parser_bench_suite)
+    for runtime_bench_suite in PythonRuntimeBenchmarkSuite.get_benchmark_suites(RUNTIME_BENCHMARKS):
+        mx_benchmark.add_bm_suite(runtime_bench_suite)
 
 
 class CharsetFilteringPariticpant:
@@ -308,6 +308,29 @@ PARSER_JAVA_BENCHMARKS = {
     'deserializing-lib-files': [_PARSER_JAVA_PACKAGE + 'Deserializing'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
 }
 
+# -------------------------------------------------------
+# Parameters for runtime bench marks
+# 1. full qualified name of class that define the benchmark
+# 2. -i number : is number of benchmark iterations (default 5)
+# 3. -w number : is number of warmup iterations (default 5)
+# 4. -n number : is number of cycles in one iteration (default 1000)
+# 5. -s number : is the size of the data structure processed in one cycle (default 1000)
+# -------------------------------------------------------
+_RUNTIME_JAVA_PACKAGE = 'com.oracle.graal.python.benchmarks.runtime.'
+RUNTIME_JAVA_BENCHMARKS = {
+    'sequence-storage-append': [_RUNTIME_JAVA_PACKAGE + 'SequenceStorageAppending'] + ITER_10 + ['-n', '1000', '-s', '10000'],
+    'sequence-storage-slice': [_RUNTIME_JAVA_PACKAGE + 'SequenceStorageSlicing'] + ITER_10 + ['-n', '1000', '-s', '10000'],
+    'sequence-storage-extend': [_RUNTIME_JAVA_PACKAGE + 'SequenceStorageExtending'] + ITER_10 + ['-n', '1000', '-s', '10000'],
+    'sequence-storage-generalize': [_RUNTIME_JAVA_PACKAGE + 'SequenceStorageGeneralizing'] + ITER_10 + ['-n', '1000', '-s', '10000'],
+    'economic-map-storage': [_RUNTIME_JAVA_PACKAGE + 'EconomicMapStorageAccess'] + ITER_10 + ['-n', '10000', '-s', '1000'],
+    'hash-map-storage': [_RUNTIME_JAVA_PACKAGE + 'HashMapStorageAccess'] + ITER_10 + ['-n', '100000', '-s', '64'],
+    'dynamic-object-storage': [_RUNTIME_JAVA_PACKAGE + 'DynamicObjectStorageAccess'] + ITER_10 + ['-n', '100000', '-s', '64'],
+    'sort-primitive': [_RUNTIME_JAVA_PACKAGE + 'PrimitiveSorting'] + ITER_10 + ['-n', '1000', '-s', '10000'],
+    'sort-object': [_RUNTIME_JAVA_PACKAGE + 'ObjectSorting'] + ITER_10 + ['-n', '100', '-s', '10000'],
+    'lazy-string-concat': [_RUNTIME_JAVA_PACKAGE + 'LazyStringConcatenating'] + ITER_10 + ['-n', '1000', '-s', '10000'],
+    'object-factory-alloc': [_RUNTIME_JAVA_PACKAGE + 'ObjectFactoryAllocating'] + ITER_10 + ['-n', '1000', '-s', '10000'],
+}
+
 # ----------------------------------------------------------------------------------------------------------------------
 #
 # the benchmarks
@@ -339,3 +362,7 @@ JBENCHMARKS = {
 PARSER_BENCHMARKS = {
     "python-parser" : [PARSER_JAVA_BENCHMARKS],
 }
+
+RUNTIME_BENCHMARKS = {
+    "python-runtime" : [RUNTIME_JAVA_BENCHMARKS],
+}
@@ -1010,6 +1010,8 @@ class PythonVmWarmupBenchmarkSuite(PythonBenchmarkSuite):
 
 
 class PythonParserBenchmarkSuite(PythonBaseBenchmarkSuite): # pylint: disable=too-many-ancestors
+    jmh_entry_class = "com.oracle.graal.python.benchmarks.parser.ParserBenchRunner"
+
     def get_vm_registry(self):
         return java_vm_registry
 
@@ -1030,7 +1032,7 @@ class PythonParserBenchmarkSuite(PythonBaseBenchmarkSuite): # pylint: disable=to
             "-Dorg.graalvm.language.python.home=%s" % join(SUITE.dir, "graalpython"),
         ]
         vmArgs += mx.get_runtime_jvm_args(dists + ['com.oracle.graal.python.benchmarks'], jdk=mx.get_jdk())
-        jmh_entry = ["com.oracle.graal.python.benchmarks.parser.ParserBenchRunner"]
+        jmh_entry = [self.jmh_entry_class]
         runArgs = self.runArgs(bmSuiteArgs)
 
         bench_name = benchmarks[0]
@@ -1044,3 +1046,7 @@ class PythonParserBenchmarkSuite(PythonBaseBenchmarkSuite): # pylint: disable=to
     def get_benchmark_suites(cls, benchmarks):
         assert isinstance(benchmarks, dict), "benchmarks must be a dict: {suite: {bench: args, ... }, ...}"
         return [cls(suite_name, suite_info[0]) for suite_name, suite_info in benchmarks.items()]
+
+
+class PythonRuntimeBenchmarkSuite(PythonParserBenchmarkSuite): # pylint: disable=too-many-ancestors
+    jmh_entry_class = "com.oracle.graal.python.benchmarks.runtime.RuntimeBenchRunner"